@@ -23,8 +23,12 @@ export const cancelCampaign = (dirId, campaignId) =>
 export const listReviewGroups = (dirId, campaignId) =>
   client.get(`${base(dirId)}/${campaignId}/groups`)
 
-export const listDecisions = (dirId, campaignId, groupId) =>
-  client.get(`${base(dirId)}/${campaignId}/groups/${groupId}/decisions`)
+export const getReviewGroup = (dirId, campaignId, groupId) =>
+  client.get(`${base(dirId)}/${campaignId}/groups/${groupId}`)
+
+// params: { status: ALL|PENDING|CONFIRM|REVOKE, search, page, size, sort: 'memberDisplay,asc' }
+export const listDecisions = (dirId, campaignId, groupId, params) =>
+  client.get(`${base(dirId)}/${campaignId}/groups/${groupId}/decisions`, { params })
 
 export const submitDecision = (dirId, campaignId, groupId, decisionId, data) =>
   client.post(`${base(dirId)}/${campaignId}/groups/${groupId}/decisions/${decisionId}`, data)
@@ -32,6 +36,10 @@ export const submitDecision = (dirId, campaignId, groupId, decisionId, data) =>
 export const bulkDecide = (dirId, campaignId, groupId, items) =>
   client.post(`${base(dirId)}/${campaignId}/groups/${groupId}/decisions/bulk`, { items })
 
+// Decides every pending member whose DN or display name contains `search` (all pending when blank)
+export const decideMatching = (dirId, campaignId, groupId, data) =>
+  client.post(`${base(dirId)}/${campaignId}/groups/${groupId}/decisions/matching`, data)
+
 export const exportCampaign = (dirId, campaignId, format = 'csv') =>
   client.get(`${base(dirId)}/${campaignId}/export`, { params: { format }, responseType: 'blob' })
 
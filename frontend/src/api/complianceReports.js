@@ -21,3 +21,15 @@ export const generateEvidencePackage = (dirId, body) =>
     responseType: 'blob',
     timeout: 120000,
   })
+
+export const startEvidencePackageJob = (dirId, body) =>
+  client.post(`/directories/${dirId}/evidence-package/jobs`, body)
+
+export const getEvidencePackageJob = (dirId, jobId) =>
+  client.get(`/directories/${dirId}/evidence-package/jobs/${jobId}`)
+
+export const downloadEvidencePackageJob = (dirId, jobId) =>
+  client.get(`/directories/${dirId}/evidence-package/jobs/${jobId}/download`, {
+    responseType: 'blob',
+    timeout: 0,
+  })
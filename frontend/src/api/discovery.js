@@ -5,3 +5,48 @@ export const discoverDirectory = (directoryId, options = {}) =>
 
 export const commitDiscovery = (directoryId, data) =>
     client.post(`/superadmin/directories/${directoryId}/discover/commit`, data)
+
+/**
+ * Runs a discovery scan over the NDJSON stream endpoint, calling
+ * onProfile for each proposed profile as the server finds it.  Resolves
+ * with the final proposal (groups, warnings and resumeFrom positions).
+ * Uses fetch because axios cannot read a response body incrementally.
+ */
+export async function discoverDirectoryStream(directoryId, options = {}, onProfile = () => {}) {
+  const res = await fetch(`/api/v1/superadmin/directories/${directoryId}/discover/stream`, {
+    method: 'POST',
+    credentials: 'same-origin',
+    headers: { 'Content-Type': 'application/json', Accept: 'application/x-ndjson' },
+    body: JSON.stringify(options),
+  })
+  if (!res.ok) {
+    if (res.status === 401) window.location.href = '/login'
+    const problem = await res.json().catch(() => ({}))
+    throw new Error(problem.detail || `HTTP ${res.status}`)
+  }
+
+  const reader = res.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+  let result = null
+  const handle = line => {
+    if (!line.trim()) return
+    const msg = JSON.parse(line)
+    if (msg.type === 'profile') onProfile(msg.profile)
+    else if (msg.type === 'result') result = msg.result
+    else if (msg.type === 'error') throw new Error(msg.detail)
+  }
+  for (;;) {
+    const { done, value } = await reader.read()
+    if (done) break
+    buffer += decoder.decode(value, { stream: true })
+    let nl
+    while ((nl = buffer.indexOf('\n')) >= 0) {
+      handle(buffer.slice(0, nl))
+      buffer = buffer.slice(nl + 1)
+    }
+  }
+  handle(buffer + decoder.decode())
+  if (!result) throw new Error('Discovery stream ended early')
+  return result
+}
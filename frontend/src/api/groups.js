@@ -5,6 +5,15 @@ const base = (dirId) => `/directories/${dirId}/groups`
 export const searchGroups = (dirId, params) =>
   client.get(base(dirId), { params })
 
+export const openGroupPages = (dirId, params) =>
+  client.get(`${base(dirId)}/pages`, { params })
+
+export const nextGroupPage = (dirId, cursor) =>
+  client.get(`${base(dirId)}/pages/${encodeURIComponent(cursor)}`)
+
+export const closeGroupPages = (dirId, cursor) =>
+  client.delete(`${base(dirId)}/pages/${encodeURIComponent(cursor)}`)
+
 export const getGroup = (dirId, dn) =>
   client.get(`${base(dirId)}/entry`, { params: { dn } })
 
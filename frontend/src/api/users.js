@@ -5,6 +5,15 @@ const base = (dirId) => `/directories/${dirId}/users`
 export const searchUsers = (dirId, params) =>
   client.get(base(dirId), { params })
 
+export const openUserPages = (dirId, params) =>
+  client.get(`${base(dirId)}/pages`, { params })
+
+export const nextUserPage = (dirId, cursor) =>
+  client.get(`${base(dirId)}/pages/${encodeURIComponent(cursor)}`)
+
+export const closeUserPages = (dirId, cursor) =>
+  client.delete(`${base(dirId)}/pages/${encodeURIComponent(cursor)}`)
+
 export const getUser = (dirId, dn) =>
   client.get(`${base(dirId)}/entry`, { params: { dn } })
 
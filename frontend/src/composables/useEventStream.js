@@ -0,0 +1,65 @@
+import { onMounted, onUnmounted } from 'vue'
+
+const URL = '/api/v1/events'
+const RETRY_MS = 30000
+
+// One EventSource per tab, shared by every component that listens
+let source = null
+let retryTimer = null
+let dropped = false
+const listeners = new Set()
+
+function dispatch(type, data) {
+  for (const l of listeners) l[type]?.(data)
+}
+
+function connect() {
+  clearTimeout(retryTimer)
+  source = new EventSource(URL, { withCredentials: true })
+  source.onopen = () => {
+    // Events pushed while disconnected are lost; let listeners re-read state
+    if (dropped) dispatch('reconnect')
+    dropped = false
+  }
+  source.onerror = () => {
+    dropped = true
+    // The browser retries dropped streams itself, but gives up on an error
+    // response (e.g. an expired session); try again later.
+    if (source?.readyState === EventSource.CLOSED) {
+      source = null
+      retryTimer = setTimeout(() => { if (listeners.size) connect() }, RETRY_MS)
+    }
+  }
+  for (const type of ['notifications', 'alerts', 'dashboard', 'directory-changed']) {
+    source.addEventListener(type, e => {
+      let data
+      try { data = JSON.parse(e.data) } catch { return }
+      dispatch(type, data)
+    })
+  }
+}
+
+function disconnect() {
+  clearTimeout(retryTimer)
+  source?.close()
+  source = null
+}
+
+/**
+ * Subscribes the calling component to the server's push channel for its
+ * lifetime.  {@code handlers} maps event names — notifications, alerts,
+ * dashboard, directory-changed — to callbacks receiving the parsed payload;
+ * a {@code reconnect} handler runs when the stream comes back after a drop.
+ * Components still load their initial state themselves.
+ */
+export function useEventStream(handlers) {
+  onMounted(() => {
+    listeners.add(handlers)
+    if (!source) connect()
+  })
+
+  onUnmounted(() => {
+    listeners.delete(handlers)
+    if (!listeners.size) disconnect()
+  })
+}
@@ -0,0 +1,72 @@
+#!/usr/bin/env python3
+"""
+Compare two JMH JSON result files, e.g. from two commits.
+
+Usage:
+  ./mvnw -Pbenchmark test-compile exec:exec          # writes target/jmh-result.json
+  cp target/jmh-result.json /tmp/before.json
+  git checkout <other commit> && ./mvnw -Pbenchmark test-compile exec:exec
+  python3 scripts/compare-benchmarks.py /tmp/before.json target/jmh-result.json
+
+Prints one line per benchmark and parameter set found in both files, with
+the relative change in score.  A change is flagged only when the two
+scores' error margins (99.9% confidence) do not overlap.
+"""
+
+import argparse
+import json
+import math
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = json.load(f)
+    by_key = {}
+    for r in results:
+        params = ",".join(f"{k}={v}" for k, v in sorted((r.get("params") or {}).items()))
+        key = (r["benchmark"].rsplit(".", 2)[-2] + "." + r["benchmark"].rsplit(".", 1)[-1], params)
+        by_key[key] = r
+    return by_key
+
+
+def margin(metric):
+    err = metric.get("scoreError")
+    if not isinstance(err, (int, float)) or math.isnan(err) or len(metric.get("rawData", [[]])[0]) < 2:
+        return None
+    return err
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.split("\n\n")[0])
+    parser.add_argument("before")
+    parser.add_argument("after")
+    args = parser.parse_args()
+
+    before = load(args.before)
+    after = load(args.after)
+    common = sorted(before.keys() & after.keys())
+    if not common:
+        print("No benchmarks in common", file=sys.stderr)
+        return 1
+
+    width = max(len(name) + len(params) + 2 for name, params in common)
+    print(f"{'Benchmark':<{width}} {'Before':>12} {'After':>12} {'Unit':<8} {'Change':>8}")
+    for key in common:
+        b, a = before[key]["primaryMetric"], after[key]["primaryMetric"]
+        b_score, a_score = b["score"], a["score"]
+        b_err, a_err = margin(b), margin(a)
+        change = (a_score - b_score) / b_score * 100 if b_score else 0.0
+        # Without error margins (single iteration) nothing can be called significant
+        significant = b_err is not None and a_err is not None and abs(a_score - b_score) > (b_err + a_err)
+        # Lower is better for time modes, higher for throughput
+        better = (change > 0) if before[key]["mode"] == "thrpt" else (change < 0)
+        flag = ("  better" if better else "  WORSE") if significant else ""
+        name, params = key
+        label = f"{name} [{params}]" if params else name
+        print(f"{label:<{width}} {b_score:>12.3f} {a_score:>12.3f} {b['scoreUnit']:<8} {change:>+7.1f}%{flag}")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -3,9 +3,13 @@
 Generate a realistic LDIF file simulating a mid-sized company (~5000 users).
 Uses inetOrgPerson + posixAccount for users, groupOfNames for groups.
 
-Usage: python3 generate-test-ldif.py > test-data.ldif
+Usage: python3 generate-test-ldif.py [--users N] > test-data.ldif
+
+--users scales the People tree (default 5000), e.g. --users 500000 for
+integrity-check and import benchmarks.
 """
 
+import argparse
 import hashlib
 import random
 import string
@@ -582,4 +586,8 @@ description: All service accounts
 
 
 if __name__ == "__main__":
+    parser = argparse.ArgumentParser(description="Generate AcmeCorp test LDIF")
+    parser.add_argument("--users", type=int, default=TOTAL_USERS,
+                        help=f"number of users to generate (default {TOTAL_USERS})")
+    TOTAL_USERS = parser.parse_args().users
     main()
@@ -0,0 +1,86 @@
+package com.ldapadmin.auth;
+
+import com.ldapadmin.repository.AdminFeaturePermissionRepository;
+import com.ldapadmin.repository.AdminProfileRoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cross-request cache of {@link AdminPermissionSnapshot}s, one per admin.
+ *
+ * <p>Snapshots are dropped when a {@link PermissionsChangedEvent} is
+ * published (after the publishing transaction commits) and otherwise expire
+ * after {@code ldapadmin.permissions.cache-ttl-seconds}.  The TTL bounds
+ * staleness for changes made on other nodes, which do not see local
+ * events.</p>
+ *
+ * <p>A generation counter guards against a load that started before an
+ * invalidation re-populating the cache with pre-change data.</p>
+ */
+@Component
+@Slf4j
+public class AdminPermissionCache {
+
+    private final AdminProfileRoleRepository       profileRoleRepo;
+    private final AdminFeaturePermissionRepository featurePermissionRepo;
+    private final long                             ttlMillis;
+
+    private final ConcurrentHashMap<UUID, Entry> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public AdminPermissionCache(AdminProfileRoleRepository profileRoleRepo,
+                                AdminFeaturePermissionRepository featurePermissionRepo,
+                                @Value("${ldapadmin.permissions.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.profileRoleRepo       = profileRoleRepo;
+        this.featurePermissionRepo = featurePermissionRepo;
+        this.ttlMillis             = ttlSeconds * 1000L;
+    }
+
+    /** Returns the admin's snapshot, loading it from the database if needed. */
+    AdminPermissionSnapshot get(UUID adminId) {
+        long now = System.currentTimeMillis();
+        Entry entry = snapshots.get(adminId);
+        if (entry != null && now - entry.loadedAt() < ttlMillis) {
+            return entry.snapshot();
+        }
+
+        long gen = generation.get();
+        AdminPermissionSnapshot snapshot = AdminPermissionSnapshot.of(
+                profileRoleRepo.findAllByAdminAccountIdWithProfile(adminId),
+                featurePermissionRepo.findAllByAdminAccountId(adminId));
+        if (ttlMillis > 0 && generation.get() == gen) {
+            snapshots.put(adminId, new Entry(snapshot, now));
+        }
+        return snapshot;
+    }
+
+    /** Drops the cached snapshot for one admin. */
+    public void invalidate(UUID adminId) {
+        generation.incrementAndGet();
+        snapshots.remove(adminId);
+    }
+
+    /** Drops every cached snapshot. */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionsChanged(PermissionsChangedEvent event) {
+        if (event.adminAccountId() == null) {
+            log.debug("Permission change affecting all admins; clearing permission cache");
+            invalidateAll();
+        } else {
+            invalidate(event.adminAccountId());
+        }
+    }
+
+    private record Entry(AdminPermissionSnapshot snapshot, long loadedAt) {}
+}
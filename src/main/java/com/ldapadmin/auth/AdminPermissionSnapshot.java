@@ -0,0 +1,109 @@
+package com.ldapadmin.auth;
+
+import com.ldapadmin.entity.AdminFeaturePermission;
+import com.ldapadmin.entity.AdminProfileRole;
+import com.ldapadmin.entity.enums.BaseRole;
+import com.ldapadmin.entity.enums.FeatureKey;
+import com.ldapadmin.util.DnTrie;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable view of everything {@link PermissionService} needs to decide an
+ * admin's access: directories reachable through profile roles, whether any
+ * role is {@link BaseRole#ADMIN}, explicit feature overrides, and the
+ * authorised OU DNs per directory precompiled into a {@link DnTrie}.
+ */
+final class AdminPermissionSnapshot {
+
+    private final Set<UUID>               directoryIds;
+    private final boolean                 hasAdminRole;
+    private final Map<FeatureKey, Boolean> featureOverrides;
+    private final Map<UUID, Set<String>>  ouDnsByDirectory;
+    private final Map<UUID, DnTrie>       scopesByDirectory;
+
+    private AdminPermissionSnapshot(Set<UUID> directoryIds,
+                                    boolean hasAdminRole,
+                                    Map<FeatureKey, Boolean> featureOverrides,
+                                    Map<UUID, Set<String>> ouDnsByDirectory,
+                                    Map<UUID, DnTrie> scopesByDirectory) {
+        this.directoryIds      = directoryIds;
+        this.hasAdminRole      = hasAdminRole;
+        this.featureOverrides  = featureOverrides;
+        this.ouDnsByDirectory  = ouDnsByDirectory;
+        this.scopesByDirectory = scopesByDirectory;
+    }
+
+    /**
+     * Builds a snapshot from the admin's profile roles (with profiles fetched)
+     * and feature permission rows.
+     */
+    static AdminPermissionSnapshot of(List<AdminProfileRole> roles,
+                                      List<AdminFeaturePermission> features) {
+        Set<UUID>              dirs    = new HashSet<>();
+        Map<UUID, Set<String>> ouDns   = new HashMap<>();
+        Map<UUID, DnTrie>      scopes  = new HashMap<>();
+        boolean                admin   = false;
+
+        for (AdminProfileRole role : roles) {
+            if (role.getBaseRole() == BaseRole.ADMIN) {
+                admin = true;
+            }
+            var profile = role.getProfile();
+            if (profile == null || profile.getDirectory() == null) continue;
+
+            UUID dirId = profile.getDirectory().getId();
+            dirs.add(dirId);
+            String ou = profile.getTargetOuDn();
+            if (ou != null) {
+                ouDns.computeIfAbsent(dirId, k -> new HashSet<>()).add(ou);
+                scopes.computeIfAbsent(dirId, k -> new DnTrie()).add(ou);
+            }
+        }
+
+        Map<FeatureKey, Boolean> overrides = new EnumMap<>(FeatureKey.class);
+        for (AdminFeaturePermission fp : features) {
+            overrides.put(fp.getFeatureKey(), fp.isEnabled());
+        }
+
+        ouDns.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+        return new AdminPermissionSnapshot(
+                Collections.unmodifiableSet(dirs), admin,
+                Collections.unmodifiableMap(overrides),
+                Collections.unmodifiableMap(ouDns), scopes);
+    }
+
+    Set<UUID> directoryIds() {
+        return directoryIds;
+    }
+
+    boolean hasDirectory(UUID directoryId) {
+        return directoryIds.contains(directoryId);
+    }
+
+    boolean hasAdminRole() {
+        return hasAdminRole;
+    }
+
+    /** Explicit override for {@code feature}, or {@code null} when none is set. */
+    Boolean featureOverride(FeatureKey feature) {
+        return featureOverrides.get(feature);
+    }
+
+    Set<String> ouDns(UUID directoryId) {
+        return ouDnsByDirectory.getOrDefault(directoryId, Set.of());
+    }
+
+    /** Authorised OU scope for the directory, or {@code null} when there is none. */
+    DnTrie scope(UUID directoryId) {
+        DnTrie trie = scopesByDirectory.get(directoryId);
+        return trie == null || trie.isEmpty() ? null : trie;
+    }
+}
@@ -1,28 +1,29 @@
 package com.ldapadmin.auth;
 
+import com.ldapadmin.auth.ratelimit.RateLimiter;
 import com.ldapadmin.exception.TooManyRequestsException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
 
 /**
- * Simple in-memory per-user rate limiter for expensive API operations such as
- * bulk import/export and report generation.
+ * Per-user rate limiter for expensive API operations such as bulk
+ * import/export and report generation.
  *
  * <p>Keyed on the authenticated username so authenticated users are bounded
- * independently.  State is per-instance; for multi-node deployments this
- * should be replaced with a Redis-backed counter.</p>
+ * independently.  Counters are kept by {@link RateLimiter}, which can share
+ * them across nodes.</p>
  */
 @Component
+@RequiredArgsConstructor
 public class ApiRateLimiter {
 
-    /** Maximum number of calls allowed per user within {@link #WINDOW_MS}. */
-    private static final int  MAX_CALLS  = 10;
-    private static final long WINDOW_MS  = 60_000L;
+    /** Maximum number of calls allowed per user within {@link #WINDOW}. */
+    private static final int      MAX_CALLS = 10;
+    private static final Duration WINDOW    = Duration.ofMinutes(1);
 
-    private final ConcurrentHashMap<String, Deque<Long>> calls = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
 
     /**
      * Checks whether {@code username} has exceeded the rate limit for the
@@ -31,21 +32,8 @@ public class ApiRateLimiter {
      * @throws TooManyRequestsException if the limit is exceeded
      */
     public void check(String username, String operation) {
-        long now = System.currentTimeMillis();
-        Deque<Long> times = calls.computeIfAbsent(username, k -> new ArrayDeque<>());
-        synchronized (times) {
-            while (!times.isEmpty() && now - times.peekFirst() > WINDOW_MS) {
-                times.pollFirst();
-            }
-            if (times.size() >= MAX_CALLS) {
-                throw new TooManyRequestsException(
-                        "Rate limit exceeded for operation '" + operation
-                        + "'. Please try again later.");
-            }
-            times.addLast(now);
-        }
-        if (times.isEmpty()) {
-            calls.remove(username, times);
-        }
+        rateLimiter.check("api", username, MAX_CALLS, WINDOW,
+                "Rate limit exceeded for operation '" + operation
+                + "'. Please try again later.");
     }
 }
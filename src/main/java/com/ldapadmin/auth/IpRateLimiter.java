@@ -1,25 +1,26 @@
 package com.ldapadmin.auth;
 
+import com.ldapadmin.auth.ratelimit.RateLimiter;
 import com.ldapadmin.exception.TooManyRequestsException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
 
 /**
- * In-memory per-IP rate limiter for unauthenticated endpoints (auditor portal).
+ * Per-IP rate limiter for unauthenticated endpoints (auditor portal).
  *
- * <p>Uses a sliding window of 10 requests per 60 seconds per IP address.
+ * <p>Allows 10 requests per sliding 60 seconds per IP address.
  * Designed to prevent brute-force token guessing on the public portal routes.</p>
  */
 @Component
+@RequiredArgsConstructor
 public class IpRateLimiter {
 
-    private static final int  MAX_CALLS  = 10;
-    private static final long WINDOW_MS  = 60_000L;
+    private static final int      MAX_CALLS = 10;
+    private static final Duration WINDOW    = Duration.ofMinutes(1);
 
-    private final ConcurrentHashMap<String, Deque<Long>> calls = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
 
     /**
      * Checks whether the given IP address has exceeded the rate limit.
@@ -28,20 +29,6 @@ public class IpRateLimiter {
      * @throws TooManyRequestsException if the limit is exceeded
      */
     public void check(String ip) {
-        long now = System.currentTimeMillis();
-        Deque<Long> times = calls.computeIfAbsent(ip, k -> new ArrayDeque<>());
-        synchronized (times) {
-            while (!times.isEmpty() && now - times.peekFirst() > WINDOW_MS) {
-                times.pollFirst();
-            }
-            if (times.size() >= MAX_CALLS) {
-                throw new TooManyRequestsException(
-                        "Rate limit exceeded. Please try again later.");
-            }
-            times.addLast(now);
-        }
-        if (times.isEmpty()) {
-            calls.remove(ip, times);
-        }
+        rateLimiter.check("ip", ip, MAX_CALLS, WINDOW, "Rate limit exceeded. Please try again later.");
     }
 }
@@ -16,7 +16,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Extracts the JWT from the {@code Authorization: Bearer} header or, as a
@@ -36,6 +38,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String COOKIE_NAME   = "jwt";
 
+    /** ROLE_SUPERADMIN, ROLE_ADMIN, or ROLE_SELF_SERVICE — built once per principal type. */
+    private static final Map<PrincipalType, List<SimpleGrantedAuthority>> AUTHORITIES;
+    static {
+        Map<PrincipalType, List<SimpleGrantedAuthority>> m = new EnumMap<>(PrincipalType.class);
+        for (PrincipalType type : PrincipalType.values()) {
+            m.put(type, List.of(new SimpleGrantedAuthority("ROLE_" + type.name())));
+        }
+        AUTHORITIES = m;
+    }
+
     private final JwtTokenService jwtTokenService;
 
     @Override
@@ -47,12 +59,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (token != null) {
             try {
                 AuthPrincipal principal = jwtTokenService.parse(token);
-                String role = "ROLE_" + principal.type().name(); // ROLE_SUPERADMIN, ROLE_ADMIN, or ROLE_SELF_SERVICE
 
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                         principal,
                         null,
-                        List.of(new SimpleGrantedAuthority(role)));
+                        AUTHORITIES.get(principal.type()));
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (JwtException ex) {
@@ -3,9 +3,9 @@ package com.ldapadmin.auth;
 import com.ldapadmin.config.AppProperties;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
@@ -13,6 +13,7 @@ import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Issues and validates signed JWT tokens using HMAC-SHA-256.
@@ -25,9 +26,14 @@ import java.util.UUID;
  *   <li>{@code iat}, {@code exp} — standard issued-at / expiry</li>
  * </ul>
  * </p>
+ *
+ * <p>The signing key and parser are built once at construction.  Successfully
+ * verified tokens are remembered in a bounded cache keyed on the signature
+ * segment, so the SPA's burst of API calls per page load pays for HMAC
+ * verification and claims parsing only once per token.  A cache hit still
+ * compares the full signed content and honours the token's expiry.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class JwtTokenService {
 
     private static final String CLAIM_TYPE         = "type";
@@ -36,6 +42,20 @@ public class JwtTokenService {
     private static final String CLAIM_DIRECTORY_ID = "did";
 
     private final AppProperties appProperties;
+    private final SecretKey     signingKey;
+    private final JwtParser     parser;
+    private final int           cacheMaxEntries;
+
+    /** Verified tokens keyed on their signature segment. */
+    private final ConcurrentHashMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    public JwtTokenService(AppProperties appProperties) {
+        this.appProperties   = appProperties;
+        byte[] keyBytes      = Base64.getDecoder().decode(appProperties.getJwt().getSecret());
+        this.signingKey      = Keys.hmacShaKeyFor(keyBytes);
+        this.parser          = Jwts.parser().verifyWith(signingKey).build();
+        this.cacheMaxEntries = appProperties.getJwt().getCacheMaxEntries();
+    }
 
     /**
      * Issues a signed JWT for the given principal.
@@ -59,7 +79,7 @@ public class JwtTokenService {
             builder.claim(CLAIM_DIRECTORY_ID, principal.directoryId().toString());
         }
 
-        return builder.signWith(signingKey()).compact();
+        return builder.signWith(signingKey).compact();
     }
 
     /**
@@ -68,12 +88,50 @@ public class JwtTokenService {
      * @throws JwtException if the token is expired, malformed, or has an invalid signature
      */
     public AuthPrincipal parse(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(signingKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (cacheMaxEntries <= 0) {
+            return toPrincipal(parser.parseSignedClaims(token).getPayload());
+        }
+
+        int sigStart = token.lastIndexOf('.');
+        if (sigStart < 0 || sigStart == token.length() - 1) {
+            // Let the parser produce the appropriate MalformedJwtException
+            return toPrincipal(parser.parseSignedClaims(token).getPayload());
+        }
+        String signature = token.substring(sigStart + 1);
+        long   now       = System.currentTimeMillis();
 
+        VerifiedToken cached = verified.get(signature);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis() && cached.matches(token, sigStart)) {
+                return cached.principal();
+            }
+            verified.remove(signature, cached);
+        }
+
+        Claims        claims    = parser.parseSignedClaims(token).getPayload();
+        AuthPrincipal principal = toPrincipal(claims);
+        Date          exp       = claims.getExpiration();
+        if (exp != null) {
+            if (verified.size() >= cacheMaxEntries) {
+                evictExpired(now);
+            }
+            if (verified.size() < cacheMaxEntries) {
+                verified.put(signature, new VerifiedToken(
+                        token.substring(0, sigStart),
+                        exp.getTime(), principal));
+            }
+        }
+        return principal;
+    }
+
+    /** Number of verified tokens currently cached (exposed for tests and diagnostics). */
+    int cachedTokenCount() {
+        return verified.size();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────────
+
+    private static AuthPrincipal toPrincipal(Claims claims) {
         PrincipalType type = PrincipalType.valueOf(claims.get(CLAIM_TYPE, String.class));
         UUID          id   = UUID.fromString(claims.get(CLAIM_ACCOUNT_ID, String.class));
 
@@ -87,10 +145,34 @@ public class JwtTokenService {
         return new AuthPrincipal(type, id, claims.getSubject());
     }
 
-    // ── Private helpers ───────────────────────────────────────────────────────
+    /**
+     * Drops expired entries; if the cache is still full afterwards (a burst of
+     * distinct live tokens) it is cleared outright rather than tracking recency.
+     */
+    private void evictExpired(long now) {
+        verified.values().removeIf(v -> v.expiresAtMillis() <= now);
+        if (verified.size() >= cacheMaxEntries) {
+            verified.clear();
+        }
+    }
+
+    /**
+     * A token whose signature has already been verified.  The signed content
+     * (header and payload) is kept so a hit cannot be forged by pairing a known
+     * signature with a different payload.
+     */
+    private record VerifiedToken(String signedContent, long expiresAtMillis, AuthPrincipal principal) {
 
-    private SecretKey signingKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(appProperties.getJwt().getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
+        /** Constant-time comparison of {@code token[0, sigStart)} with the cached content. */
+        boolean matches(String token, int sigStart) {
+            if (sigStart != signedContent.length()) {
+                return false;
+            }
+            int diff = 0;
+            for (int i = 0; i < sigStart; i++) {
+                diff |= signedContent.charAt(i) ^ token.charAt(i);
+            }
+            return diff == 0;
+        }
     }
 }
@@ -1,52 +1,32 @@
 package com.ldapadmin.auth;
 
-import com.ldapadmin.exception.TooManyRequestsException;
+import com.ldapadmin.auth.ratelimit.RateLimiter;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
 
 /**
- * Simple in-memory rate limiter for the login endpoint.
+ * Rate limiter for the login endpoint.
  *
  * <p>Allows at most {@value #MAX_ATTEMPTS} login attempts per IP address
- * within a rolling {@value #WINDOW_MS}-millisecond window.  Intended to
- * slow brute-force attacks; not a substitute for account lock-out.</p>
- *
- * <p>Note: state is per-instance and not shared across multiple application
- * nodes.  For multi-node deployments, replace with a Redis-backed counter.</p>
+ * within a sliding one-minute window.  Intended to slow brute-force
+ * attacks; not a substitute for account lock-out.  Counters are kept by
+ * {@link RateLimiter}, which can share them across nodes.</p>
  */
 @Component
+@RequiredArgsConstructor
 public class LoginRateLimiter {
 
-    private static final int  MAX_ATTEMPTS = 10;
-    private static final long WINDOW_MS    = 60_000L;
+    private static final int      MAX_ATTEMPTS = 10;
+    private static final Duration WINDOW       = Duration.ofMinutes(1);
 
-    private final ConcurrentHashMap<String, Deque<Long>> attempts = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
 
     public void check(HttpServletRequest request) {
-        String ip  = resolveIp(request);
-        long   now = System.currentTimeMillis();
-
-        Deque<Long> times = attempts.computeIfAbsent(ip, k -> new ArrayDeque<>());
-        synchronized (times) {
-            // Drop timestamps outside the rolling window
-            while (!times.isEmpty() && now - times.peekFirst() > WINDOW_MS) {
-                times.pollFirst();
-            }
-            if (times.size() >= MAX_ATTEMPTS) {
-                throw new TooManyRequestsException(
-                        "Too many login attempts from this IP, please try again later");
-            }
-            times.addLast(now);
-        }
-        // Remove the entry entirely when it is empty so the map doesn't grow
-        // indefinitely with one entry per unique IP that has ever visited.
-        if (times.isEmpty()) {
-            attempts.remove(ip, times);
-        }
+        rateLimiter.check("login", resolveIp(request), MAX_ATTEMPTS, WINDOW,
+                "Too many login attempts from this IP, please try again later");
     }
 
     private String resolveIp(HttpServletRequest request) {
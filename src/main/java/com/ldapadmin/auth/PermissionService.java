@@ -4,17 +4,15 @@ import com.ldapadmin.entity.AdminProfileRole;
 import com.ldapadmin.entity.enums.BaseRole;
 import com.ldapadmin.entity.enums.FeatureKey;
 
-import com.ldapadmin.repository.AdminFeaturePermissionRepository;
 import com.ldapadmin.repository.AdminProfileRoleRepository;
+import com.ldapadmin.util.DnTrie;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
-import java.util.Locale;
+import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Enforces the permission model for admins.
@@ -37,6 +35,13 @@ import java.util.stream.Collectors;
  * {@code directoryId} (the LDAP connection identifier). Directory-level
  * access is granted when the admin has a role in <em>any</em> profile that
  * belongs to that directory.</p>
+ *
+ * <h3>Caching</h3>
+ * <p>Directory, feature and DN-scope checks are answered from a per-admin
+ * {@link AdminPermissionSnapshot} held by {@link AdminPermissionCache}, so
+ * repeated checks across requests (and per-DN checks in bulk operations) do
+ * not hit the database.  Authorised OUs are precompiled into a
+ * {@link DnTrie}, making each DN scope check O(depth).</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -56,9 +61,8 @@ public class PermissionService {
             FeatureKey.APPROVAL_MANAGE
     );
 
-    private final AdminProfileRoleRepository        profileRoleRepo;
-    private final AdminFeaturePermissionRepository   featurePermissionRepo;
-    private final ObjectProvider<RequestScopedPermissionCache> cacheProvider;
+    private final AdminProfileRoleRepository profileRoleRepo;
+    private final AdminPermissionCache       permissionCache;
 
     // ── Public API ────────────────────────────────────────────────────────────
 
@@ -87,9 +91,7 @@ public class PermissionService {
     public void requireDirectoryAccess(AuthPrincipal principal, UUID directoryId) {
         if (principal.isSuperadmin()) return;
 
-        boolean hasAccess = profileRoleRepo
-                .existsByAdminAccountIdAndProfileDirectoryId(principal.id(), directoryId);
-        if (!hasAccess) {
+        if (!permissionCache.get(principal.id()).hasDirectory(directoryId)) {
             throw new AccessDeniedException("No access to directory [" + directoryId + "]");
         }
     }
@@ -104,16 +106,15 @@ public class PermissionService {
     public void requireFeature(AuthPrincipal principal, UUID directoryId, FeatureKey feature) {
         if (principal.isSuperadmin()) return;
 
-        requireDirectoryAccess(principal, directoryId);
-
-        // Dim 4: explicit override takes priority (cached per request)
-        var cache = cacheProvider.getIfAvailable();
-        var override = cache != null
-                ? cache.getFeatureOverride(principal.id(), feature, featurePermissionRepo)
-                : featurePermissionRepo.findByAdminAccountIdAndFeatureKey(principal.id(), feature);
+        AdminPermissionSnapshot snapshot = permissionCache.get(principal.id());
+        if (!snapshot.hasDirectory(directoryId)) {
+            throw new AccessDeniedException("No access to directory [" + directoryId + "]");
+        }
 
-        if (override.isPresent()) {
-            if (!override.get().isEnabled()) {
+        // Dim 4: explicit override takes priority
+        Boolean override = snapshot.featureOverride(feature);
+        if (override != null) {
+            if (!override) {
                 throw new AccessDeniedException(
                         "Feature [" + feature.getDbValue() + "] is disabled for this admin");
             }
@@ -121,10 +122,7 @@ public class PermissionService {
         }
 
         // Fall back to base-role defaults (dim 2) — use the most permissive role across profiles
-        boolean hasAdminRole = profileRoleRepo
-                .existsByAdminAccountIdAndBaseRole(principal.id(), BaseRole.ADMIN);
-
-        if (!hasAdminRole && !READONLY_DEFAULT_FEATURES.contains(feature)) {
+        if (!snapshot.hasAdminRole() && !READONLY_DEFAULT_FEATURES.contains(feature)) {
             throw new AccessDeniedException(
                     "READ_ONLY role does not grant feature [" + feature.getDbValue() + "]");
         }
@@ -138,7 +136,7 @@ public class PermissionService {
         if (principal.isSuperadmin()) {
             return Set.of();
         }
-        return profileRoleRepo.findDistinctDirectoryIdsByAdminAccountId(principal.id());
+        return permissionCache.get(principal.id()).directoryIds();
     }
 
     // ── DN-level scoping (Wave 4.7 Option A) ───────────────────────────────
@@ -150,11 +148,7 @@ public class PermissionService {
      */
     public Set<String> getAuthorizedOuDns(AuthPrincipal principal, UUID directoryId) {
         if (principal.isSuperadmin()) return Set.of();
-        return profileRoleRepo
-                .findAllByAdminAccountIdAndProfileDirectoryIdWithProfile(principal.id(), directoryId)
-                .stream()
-                .map(r -> r.getProfile().getTargetOuDn())
-                .collect(Collectors.toSet());
+        return permissionCache.get(principal.id()).ouDns(directoryId);
     }
 
     /**
@@ -168,20 +162,30 @@ public class PermissionService {
         if (principal.isSuperadmin()) return;
         if (dn == null || dn.isBlank()) return; // null DN handled by caller
 
-        Set<String> allowedOus = getAuthorizedOuDns(principal, directoryId);
-        if (allowedOus.isEmpty()) {
-            throw new AccessDeniedException("No profile access in directory [" + directoryId + "]");
+        DnTrie scope = requireScope(principal, directoryId);
+        if (!scope.containsSelfOrAncestorOf(dn)) {
+            throw new AccessDeniedException("DN is outside authorized OUs for this admin");
         }
+    }
 
-        String normalizedDn = dn.toLowerCase(Locale.ROOT).trim();
-        boolean inScope = allowedOus.stream().anyMatch(ou -> {
-            String normalizedOu = ou.toLowerCase(Locale.ROOT).trim();
-            return normalizedDn.equals(normalizedOu)
-                    || normalizedDn.endsWith("," + normalizedOu);
-        });
+    /**
+     * Bulk form of {@link #requireDnWithinScope}: resolves the admin's scope
+     * once and checks every DN against it.
+     *
+     * @throws AccessDeniedException if any DN is outside all authorized OUs
+     */
+    public void requireDnsWithinScope(AuthPrincipal principal, UUID directoryId, Collection<String> dns) {
+        if (principal.isSuperadmin()) return;
 
-        if (!inScope) {
-            throw new AccessDeniedException("DN is outside authorized OUs for this admin");
+        DnTrie scope = null;
+        for (String dn : dns) {
+            if (dn == null || dn.isBlank()) continue;
+            if (scope == null) {
+                scope = requireScope(principal, directoryId);
+            }
+            if (!scope.containsSelfOrAncestorOf(dn)) {
+                throw new AccessDeniedException("DN is outside authorized OUs for this admin");
+            }
         }
     }
 
@@ -196,25 +200,23 @@ public class PermissionService {
         if (principal.isSuperadmin()) return;
         if (baseDn == null || baseDn.isBlank()) return; // null baseDn = use directory default
 
-        Set<String> allowedOus = getAuthorizedOuDns(principal, directoryId);
-        if (allowedOus.isEmpty()) {
-            throw new AccessDeniedException("No profile access in directory [" + directoryId + "]");
-        }
-
-        String normalizedBase = baseDn.toLowerCase(Locale.ROOT).trim();
         // baseDn is valid if it equals or is a descendant of an allowed OU,
         // OR if an allowed OU is a descendant of baseDn (broader search that
         // will return results within the allowed scope)
-        boolean inScope = allowedOus.stream().anyMatch(ou -> {
-            String normalizedOu = ou.toLowerCase(Locale.ROOT).trim();
-            return normalizedBase.equals(normalizedOu)
-                    || normalizedBase.endsWith("," + normalizedOu)
-                    || normalizedOu.endsWith("," + normalizedBase);
-        });
-
-        if (!inScope) {
+        DnTrie scope = requireScope(principal, directoryId);
+        if (!scope.overlapsSubtreeOf(baseDn)) {
             throw new AccessDeniedException("Search baseDn is outside authorized OUs for this admin");
         }
     }
 
+    // ── Private helpers ───────────────────────────────────────────────────────
+
+    private DnTrie requireScope(AuthPrincipal principal, UUID directoryId) {
+        DnTrie scope = permissionCache.get(principal.id()).scope(directoryId);
+        if (scope == null) {
+            throw new AccessDeniedException("No profile access in directory [" + directoryId + "]");
+        }
+        return scope;
+    }
+
 }
@@ -0,0 +1,24 @@
+package com.ldapadmin.auth;
+
+import java.util.UUID;
+
+/**
+ * Published whenever data that feeds {@link PermissionService} decisions
+ * changes — profile roles, feature overrides, or the profiles and
+ * directories they point at.  {@link AdminPermissionCache} drops the affected
+ * snapshots once the publishing transaction commits.
+ *
+ * @param adminAccountId the admin whose permissions changed, or {@code null}
+ *                       when the change may affect every admin (e.g. a
+ *                       profile's target OU was edited)
+ */
+public record PermissionsChangedEvent(UUID adminAccountId) {
+
+    public static PermissionsChangedEvent forAdmin(UUID adminAccountId) {
+        return new PermissionsChangedEvent(adminAccountId);
+    }
+
+    public static PermissionsChangedEvent forAllAdmins() {
+        return new PermissionsChangedEvent(null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ldapadmin.auth.ratelimit;
+
+import com.ldapadmin.repository.RateLimitCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link RateLimitBackend} backed by the {@code rate_limit_counters}
+ * table, so a limit holds across every node sharing the database.
+ *
+ * <p>A hit costs one primary-key read of the previous window's row and
+ * one conditional upsert of the current one.  The upsert refuses the hit
+ * when the current window is already full, so two nodes cannot both take
+ * the last slot.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseRateLimitBackend implements RateLimitBackend {
+
+    private final RateLimitCounterRepository repo;
+
+    @Override
+    public boolean tryAcquire(String limiter, String key, int limit, long windowMs, long nowMs) {
+        long window  = nowMs / windowMs;
+        long elapsed = nowMs % windowMs;
+
+        int  previous   = repo.findHits(bucket(limiter, window - 1, key)).orElse(0);
+        long maxCurrent = RateLimitBackend.allowedInWindow(limit, previous, windowMs, elapsed);
+        if (maxCurrent < 1) return false;
+
+        // The row is read as the previous window during the next one
+        long expiresAt = (window + 2) * windowMs;
+        return repo.increment(bucket(limiter, window, key), (int) maxCurrent, expiresAt).isPresent();
+    }
+
+    @Override
+    public void evictExpired(long nowMs) {
+        repo.deleteExpired(nowMs);
+    }
+
+    static String bucket(String limiter, long window, String key) {
+        return limiter + ':' + window + ':' + key;
+    }
+}
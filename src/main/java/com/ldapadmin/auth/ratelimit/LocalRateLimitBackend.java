@@ -0,0 +1,139 @@
+package com.ldapadmin.auth.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process {@link RateLimitBackend}.
+ *
+ * <p>Each key's state is one {@code long}, updated by compare-and-set:
+ * the low 32 bits of the window number, then the previous and current
+ * window's hit counts in 16 bits each.  No locks are taken and no
+ * timestamps are stored, so a key costs the same however busy it is.</p>
+ *
+ * <p>At most {@code ldapadmin.rate-limit.max-keys} keys are tracked
+ * individually.  Beyond that — a burst from rotating addresses, say — new
+ * keys hash into a fixed array of {@code ldapadmin.rate-limit.overflow-slots}
+ * shared counters per limiter.  Keys sharing a slot share its budget, so
+ * overflow can only make limiting stricter, never looser.  Keys are
+ * dropped once both their windows have ended.</p>
+ */
+@Component
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private static final long WINDOW_MASK = 0xFFFF_FFFFL;
+    private static final int  COUNT_MAX   = 0xFFFF;
+
+    private final int maxKeys;
+    private final int overflowSlots;
+
+    private final Map<String, Window>          windows  = new ConcurrentHashMap<>();
+    private final Map<String, Overflow>        overflow = new ConcurrentHashMap<>();
+
+    public LocalRateLimitBackend(@Value("${ldapadmin.rate-limit.max-keys:100000}") int maxKeys,
+                                 @Value("${ldapadmin.rate-limit.overflow-slots:4096}") int overflowSlots) {
+        this.maxKeys       = Math.max(1, maxKeys);
+        // A power of two, so a slot is picked with a mask
+        this.overflowSlots = overflowSlots <= 1 ? 1 : Integer.highestOneBit(overflowSlots - 1) << 1;
+    }
+
+    @Override
+    public boolean tryAcquire(String limiter, String key, int limit, long windowMs, long nowMs) {
+        String id = limiter + '\0' + key;
+        Window w = windows.get(id);
+        if (w == null) {
+            if (windows.size() >= maxKeys) {
+                AtomicLongArray slots = overflow.computeIfAbsent(limiter,
+                        l -> new Overflow(windowMs, new AtomicLongArray(overflowSlots))).slots();
+                int slot = spread(id.hashCode()) & (overflowSlots - 1);
+                long state;
+                long next;
+                do {
+                    state = slots.get(slot);
+                    next  = admit(state, limit, windowMs, nowMs);
+                    if (next == state) return false;
+                } while (!slots.compareAndSet(slot, state, next));
+                return true;
+            }
+            w = windows.computeIfAbsent(id, k -> new Window(windowMs));
+        }
+        long state;
+        long next;
+        do {
+            state = w.state.get();
+            next  = admit(state, limit, windowMs, nowMs);
+            if (next == state) return false;
+        } while (!w.state.compareAndSet(state, next));
+        return true;
+    }
+
+    @Override
+    public void evictExpired(long nowMs) {
+        for (Iterator<Map.Entry<String, Window>> it = windows.entrySet().iterator(); it.hasNext(); ) {
+            Window w = it.next().getValue();
+            if (expired(w.state.get(), w.windowMs, nowMs)) {
+                it.remove();
+            }
+        }
+        overflow.values().removeIf(o -> {
+            for (int i = 0; i < o.slots().length(); i++) {
+                if (!expired(o.slots().get(i), o.windowMs(), nowMs)) return false;
+            }
+            return true;
+        });
+    }
+
+    /** Keys tracked individually, excluding overflow slots. */
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * The state after admitting one hit, or {@code state} itself when the
+     * hit would exceed the limit.  A hit always changes the state, since
+     * it either moves the window or raises the current count.
+     */
+    static long admit(long state, int limit, long windowMs, long nowMs) {
+        long window  = (nowMs / windowMs) & WINDOW_MASK;
+        long elapsed = nowMs % windowMs;
+
+        long stateWindow = state >>> 32;
+        int  previous    = (int) (state >>> 16) & COUNT_MAX;
+        int  current     = (int) state & COUNT_MAX;
+        if (stateWindow != window) {
+            previous = stateWindow == ((window - 1) & WINDOW_MASK) ? current : 0;
+            current  = 0;
+        }
+        if (current + 1 > RateLimitBackend.allowedInWindow(limit, previous, windowMs, elapsed)) {
+            return state;
+        }
+        return window << 32 | (long) previous << 16 | Math.min(current + 1, COUNT_MAX);
+    }
+
+    private static boolean expired(long state, long windowMs, long nowMs) {
+        long window = (nowMs / windowMs) & WINDOW_MASK;
+        long stateWindow = state >>> 32;
+        return stateWindow != window && stateWindow != ((window - 1) & WINDOW_MASK);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private record Overflow(long windowMs, AtomicLongArray slots) {}
+
+    private static final class Window {
+        final long       windowMs;
+        final AtomicLong state = new AtomicLong();
+
+        Window(long windowMs) {
+            this.windowMs = windowMs;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ldapadmin.auth.ratelimit;
+
+/**
+ * Where {@link RateLimiter} keeps its counters.
+ *
+ * <p>Both backends use a sliding-window counter: the hits in the current
+ * fixed window plus the previous window's hits, weighted by how much of
+ * that window still overlaps the sliding one.  A hit is admitted, and
+ * counted, only if the estimate stays within the limit; rejected hits are
+ * not counted, so a client that backs off recovers after one window.</p>
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Records a hit on {@code key} if it stays within {@code limit} hits per
+     * {@code windowMs}.
+     *
+     * @param limiter  name of the limiter, keeping keys of different limiters apart
+     * @return {@code true} if the hit is admitted
+     */
+    boolean tryAcquire(String limiter, String key, int limit, long windowMs, long nowMs);
+
+    /** Drops counters whose windows have both ended. */
+    void evictExpired(long nowMs);
+
+    /**
+     * Largest number of hits in the current window that still keeps the
+     * estimate within {@code limit}, given {@code previous} hits in the
+     * window before.
+     */
+    static long allowedInWindow(int limit, long previous, long windowMs, long elapsedMs) {
+        long overlap = windowMs - elapsedMs;
+        // ceil(previous * overlap / windowMs) without floating point
+        long carried = (previous * overlap + windowMs - 1) / windowMs;
+        return limit - carried;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ldapadmin.auth.ratelimit;
+
+import com.ldapadmin.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared rate limiter behind {@code ApiRateLimiter}, {@code IpRateLimiter}
+ * and {@code LoginRateLimiter}.
+ *
+ * <p>Counters live in memory by default.  With
+ * {@code ldapadmin.rate-limit.backend=database} they live in the
+ * {@code rate_limit_counters} table, so a limit holds across nodes; if the
+ * database cannot be reached, hits are counted in memory until it can.</p>
+ *
+ * <p>Admitted and rejected hits are counted per limiter as
+ * {@code ldapadmin.ratelimit.hits} and {@code ldapadmin.ratelimit.rejected}.</p>
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private final LocalRateLimitBackend local;
+    private final RateLimitBackend      backend;
+    private final MeterRegistry         meterRegistry;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RateLimiter(LocalRateLimitBackend local,
+                       DatabaseRateLimitBackend database,
+                       MeterRegistry meterRegistry,
+                       @Value("${ldapadmin.rate-limit.backend:local}") String backend) {
+        this.local         = local;
+        this.meterRegistry = meterRegistry;
+        this.backend = switch (backend.trim().toLowerCase(Locale.ROOT)) {
+            case "local"    -> local;
+            case "database" -> database;
+            default -> throw new IllegalArgumentException(
+                    "Unknown ldapadmin.rate-limit.backend '" + backend + "' (expected local or database)");
+        };
+
+        Gauge.builder("ldapadmin.ratelimit.keys", local, LocalRateLimitBackend::size)
+                .description("Rate-limit keys tracked in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a hit on {@code key}, allowing at most {@code limit} per
+     * sliding {@code window}.
+     *
+     * @param limiter name of the limiter, used as the metrics tag
+     * @param message error message when the limit is exceeded
+     * @throws TooManyRequestsException if the limit is exceeded
+     */
+    public void check(String limiter, String key, int limit, Duration window, String message) {
+        Meters m = meters.computeIfAbsent(limiter, this::register);
+        if (!tryAcquire(limiter, key, limit, window.toMillis(), System.currentTimeMillis())) {
+            m.rejected.increment();
+            throw new TooManyRequestsException(message);
+        }
+        m.hits.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${ldapadmin.rate-limit.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        // The in-memory counters also hold fallback hits for the database backend
+        local.evictExpired(now);
+        if (backend != local) {
+            try {
+                backend.evictExpired(now);
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict expired rate-limit counters: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean tryAcquire(String limiter, String key, int limit, long windowMs, long now) {
+        if (backend == local) {
+            return local.tryAcquire(limiter, key, limit, windowMs, now);
+        }
+        try {
+            return backend.tryAcquire(limiter, key, limit, windowMs, now);
+        } catch (RuntimeException e) {
+            log.warn("Rate-limit backend unavailable, counting '{}' in memory: {}", limiter, e.getMessage());
+            return local.tryAcquire(limiter, key, limit, windowMs, now);
+        }
+    }
+
+    private Meters register(String limiter) {
+        return new Meters(
+                Counter.builder("ldapadmin.ratelimit.hits")
+                        .description("Requests admitted by a rate limiter")
+                        .tag("limiter", limiter)
+                        .register(meterRegistry),
+                Counter.builder("ldapadmin.ratelimit.rejected")
+                        .description("Requests rejected by a rate limiter")
+                        .tag("limiter", limiter)
+                        .register(meterRegistry));
+    }
+
+    private record Meters(Counter hits, Counter rejected) {}
+}
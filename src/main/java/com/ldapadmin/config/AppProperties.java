@@ -3,6 +3,7 @@ package com.ldapadmin.config;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -66,6 +67,14 @@ public class AppProperties {
 
         @Positive
         private int expiryMinutes = 60;
+
+        /**
+         * Maximum number of already-verified tokens remembered by
+         * {@code JwtTokenService}.  {@code 0} disables the cache so every
+         * request re-verifies its token.  Defaults to {@code 10000}.
+         */
+        @PositiveOrZero
+        private int cacheMaxEntries = 10_000;
     }
 
     @Getter
@@ -0,0 +1,183 @@
+package com.ldapadmin.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Scheduler and {@code @Async} executors.
+ *
+ * <p>Every executor is a {@link ThreadPoolTaskExecutor} bean, so the actuator
+ * publishes {@code executor.active}, {@code executor.queued},
+ * {@code executor.completed} etc. for each, tagged with the bean name.
+ * Tasks turned away by a full pool are counted in
+ * {@code ldapadmin.executor.rejected}, whatever the pool's policy does
+ * with them.</p>
+ *
+ * <p>Async methods pick their pool by bean name, e.g.
+ * {@code @Async(ExecutorConfig.AUDIT_EXECUTOR)}; un-named {@code @Async}
+ * work runs on {@code applicationTaskExecutor}.  Services that fan work out
+ * themselves inject their pool the same way, with
+ * {@code @Qualifier(ExecutorConfig.CRAWL_EXECUTOR)} etc., rather than
+ * creating threads of their own.</p>
+ */
+@Configuration
+@Slf4j
+public class ExecutorConfig implements AsyncConfigurer {
+
+    public static final String AUDIT_EXECUTOR        = "auditExecutor";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String SIEM_EXECUTOR         = "siemExecutor";
+    public static final String PUSH_EXECUTOR         = "pushExecutor";
+    public static final String S3_UPLOAD_EXECUTOR    = "s3UploadExecutor";
+    public static final String JOB_EXECUTOR          = "jobExecutor";
+    public static final String EVIDENCE_EXECUTOR     = "evidenceExecutor";
+    public static final String REPORT_EXECUTOR       = "reportExecutor";
+    public static final String INTEGRITY_EXECUTOR    = "integrityExecutor";
+    public static final String CRAWL_EXECUTOR        = "crawlExecutor";
+    public static final String ALERT_EXECUTOR        = "alertExecutor";
+    public static final String COUNT_EXECUTOR        = "directoryCountExecutor";
+
+    /** Used by {@code @Scheduled}; Spring looks the scheduler up by this name. */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ExecutorProperties props) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(props.getScheduler().getPoolSize());
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(props.getShutdownAwaitSeconds());
+        scheduler.setErrorHandler(t -> log.error("Scheduled task failed: {}", t.getMessage(), t));
+        return scheduler;
+    }
+
+    /**
+     * Default for {@code @Async} and MVC async request processing — both
+     * resolve this bean by name.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("task-", "application", props.getApplication(), props, registry);
+    }
+
+    @Bean(name = AUDIT_EXECUTOR)
+    public ThreadPoolTaskExecutor auditExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("audit-", "audit", props.getAudit(), props, registry);
+    }
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("notify-", "notification", props.getNotification(), props, registry);
+    }
+
+    @Bean(name = SIEM_EXECUTOR)
+    public ThreadPoolTaskExecutor siemExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("siem-", "siem", props.getSiem(), props, registry);
+    }
+
+    @Bean(name = PUSH_EXECUTOR)
+    public ThreadPoolTaskExecutor pushExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("push-", "push", props.getPush(), props, registry);
+    }
+
+    @Bean(name = S3_UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor s3UploadExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("s3-upload-", "s3-upload", props.getS3Upload(), props, registry);
+    }
+
+    @Bean(name = JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor jobExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("job-", "job", props.getJob(), props, registry);
+    }
+
+    @Bean(name = EVIDENCE_EXECUTOR)
+    public ThreadPoolTaskExecutor evidenceExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("evidence-", "evidence", props.getEvidence(), props, registry);
+    }
+
+    @Bean(name = REPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor reportExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("report-job-", "report", props.getReport(), props, registry);
+    }
+
+    @Bean(name = INTEGRITY_EXECUTOR)
+    public ThreadPoolTaskExecutor integrityExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("integrity-check-", "integrity", props.getIntegrity(), props, registry);
+    }
+
+    @Bean(name = CRAWL_EXECUTOR)
+    public ThreadPoolTaskExecutor crawlExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("dit-crawl-", "crawl", props.getCrawl(), props, registry);
+    }
+
+    @Bean(name = ALERT_EXECUTOR)
+    public ThreadPoolTaskExecutor alertExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("alert-eval-", "alert", props.getAlert(), props, registry);
+    }
+
+    @Bean(name = COUNT_EXECUTOR)
+    public ThreadPoolTaskExecutor directoryCountExecutor(ExecutorProperties props, MeterRegistry registry) {
+        return pool("dir-count-", "directory-count", props.getDirectoryCount(), props, registry);
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async {}.{} failed: {}",
+                method.getDeclaringClass().getSimpleName(), method.getName(), ex.getMessage(), ex);
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────────
+
+    static ThreadPoolTaskExecutor pool(String threadPrefix, String name, ExecutorProperties.Pool pool,
+                                       ExecutorProperties props, MeterRegistry registry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(Math.max(pool.getCoreSize(), pool.getMaxSize()));
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix(threadPrefix);
+        if (pool.isVirtualThreads()) {
+            // Still bounded by the pool and queue sizes; only the carrier changes
+            executor.setThreadFactory(Thread.ofVirtual().name(threadPrefix, 1).factory());
+        }
+        executor.setRejectedExecutionHandler(rejection(name, pool.getRejection(), registry));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(props.getShutdownAwaitSeconds());
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejection(String name, ExecutorProperties.Rejection policy,
+                                                      MeterRegistry registry) {
+        Counter rejected = Counter.builder("ldapadmin.executor.rejected")
+                .tag("executor", name)
+                .register(registry);
+        if (policy == null) policy = ExecutorProperties.Rejection.CALLER_RUNS;
+        return switch (policy) {
+            case CALLER_RUNS -> {
+                RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+                yield (task, executor) -> {
+                    rejected.increment();
+                    callerRuns.rejectedExecution(task, executor);
+                };
+            }
+            case DISCARD -> (task, executor) -> {
+                rejected.increment();
+                log.warn("Executor '{}' saturated ({} queued) — task discarded", name, executor.getQueue().size());
+            };
+            case ABORT -> {
+                RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+                yield (task, executor) -> {
+                    rejected.increment();
+                    abort.rejectedExecution(task, executor);
+                };
+            }
+        };
+    }
+}
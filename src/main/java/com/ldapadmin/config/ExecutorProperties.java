@@ -0,0 +1,141 @@
+package com.ldapadmin.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Sizing of the scheduler and the {@code @Async} executors, bound from
+ * {@code ldapadmin.executors.*}.  Each workload class gets its own bounded
+ * pool so a burst in one (e.g. a slow SIEM endpoint) cannot starve another
+ * (e.g. audit recording).
+ */
+@ConfigurationProperties(prefix = "ldapadmin.executors")
+@Validated
+@Getter
+@Setter
+public class ExecutorProperties {
+
+    /** Seconds to wait for queued work on shutdown before abandoning it. */
+    @PositiveOrZero
+    private int shutdownAwaitSeconds = 30;
+
+    @Valid
+    private Scheduler scheduler = new Scheduler();
+
+    /** Default executor for un-named {@code @Async} work and MVC async requests. */
+    @Valid
+    private Pool application = new Pool(4, 8, 200, Rejection.CALLER_RUNS);
+
+    /** Audit event recording — events must not be dropped. */
+    @Valid
+    private Pool audit = new Pool(2, 4, 5000, Rejection.CALLER_RUNS);
+
+    /** In-app notifications. */
+    @Valid
+    private Pool notification = new Pool(2, 4, 1000, Rejection.CALLER_RUNS);
+
+    /** Real-time SIEM forwarding — lossy under overload; gaps can be back-filled. */
+    @Valid
+    private Pool siem = new Pool(2, 4, 5000, Rejection.DISCARD);
+
+    /**
+     * Writes to Server-Sent Events subscribers — blocks only on slow clients,
+     * so virtual threads by default.  A rejected write disconnects the
+     * subscriber, whose browser reconnects.
+     */
+    @Valid
+    private Pool push = new Pool(8, 64, 10000, Rejection.ABORT, true);
+
+    /** Part uploads of streamed S3 objects; each upload also caps its own parts in flight. */
+    @Valid
+    private Pool s3Upload = new Pool(4, 8, 32, Rejection.CALLER_RUNS);
+
+    /**
+     * User-started background jobs (evidence packages, bulk imports).  A
+     * rejected job is refused with 429 rather than run on the request thread.
+     */
+    @Valid
+    private Pool job = new Pool(4, 4, 16, Rejection.ABORT);
+
+    /** Evidence package artifacts, spooled in parallel within each package. */
+    @Valid
+    private Pool evidence = new Pool(4, 4, 256, Rejection.CALLER_RUNS);
+
+    /** Scheduled report runs; its size is the number of reports run at once. */
+    @Valid
+    private Pool report = new Pool(4, 4, 64, Rejection.CALLER_RUNS);
+
+    /** Concurrent checks of a referential integrity run. */
+    @Valid
+    private Pool integrity = new Pool(2, 4, 16, Rejection.CALLER_RUNS);
+
+    /**
+     * Container searches of discovery crawls.  Each directory is further
+     * capped by {@code ldapadmin.discovery.max-in-flight}, so this only
+     * bounds how many crawls progress at once.
+     */
+    @Valid
+    private Pool crawl = new Pool(64, 64, 10000, Rejection.CALLER_RUNS, true);
+
+    /** Scheduled alert rule evaluation; its size is the rules evaluated at once. */
+    @Valid
+    private Pool alert = new Pool(4, 4, 1000, Rejection.CALLER_RUNS, true);
+
+    /** Dashboard user and group counts; its size is the directories counted at once. */
+    @Valid
+    private Pool directoryCount = new Pool(4, 4, 256, Rejection.CALLER_RUNS, true);
+
+    // ── Nested config classes ─────────────────────────────────────────────────
+
+    @Getter
+    @Setter
+    public static class Scheduler {
+        /** Threads shared by all {@code @Scheduled} jobs. */
+        @Positive
+        private int poolSize = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        @Positive
+        private int coreSize;
+        @Positive
+        private int maxSize;
+        @PositiveOrZero
+        private int queueCapacity;
+        private Rejection rejection;
+        /** Run tasks on virtual threads; suits pools that mostly wait on I/O. */
+        private boolean virtualThreads;
+
+        public Pool() {
+        }
+
+        Pool(int coreSize, int maxSize, int queueCapacity, Rejection rejection) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.rejection = rejection;
+        }
+
+        Pool(int coreSize, int maxSize, int queueCapacity, Rejection rejection, boolean virtualThreads) {
+            this(coreSize, maxSize, queueCapacity, rejection);
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    /** What to do with a task when the pool and its queue are full. */
+    public enum Rejection {
+        /** Run the task on the submitting thread, slowing the producer down. */
+        CALLER_RUNS,
+        /** Drop the task, logging and counting it. */
+        DISCARD,
+        /** Throw {@link org.springframework.core.task.TaskRejectedException} to the submitter. */
+        ABORT
+    }
+}
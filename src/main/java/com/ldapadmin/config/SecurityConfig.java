@@ -3,6 +3,7 @@ package com.ldapadmin.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ldapadmin.auth.JwtAuthenticationFilter;
 import com.ldapadmin.config.AppProperties;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,7 +35,8 @@ import java.util.List;
  *   <li>{@code POST /api/auth/logout} — clear the JWT cookie</li>
  *   <li>{@code GET  /actuator/health} — health probe (no auth required)</li>
  * </ul>
- * All other requests require a valid JWT (cookie or Bearer header).
+ * All other requests require a valid JWT (cookie or Bearer header); the
+ * remaining actuator endpoints (metrics, Prometheus) are superadmin-only.
  * </p>
  *
  * <p>The session is stateless; no {@code HttpSession} is created by Spring Security.
@@ -67,6 +69,9 @@ public class SecurityConfig {
             )
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses (SSE, CSV/PDF downloads) finish on an async
+                // dispatch that carries no JWT; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // ── Public ────────────────────────────────────────────────────
                 .requestMatchers(HttpMethod.POST, "/api/v1/auth/login", "/api/v1/auth/logout").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/v1/auth/self-service/login").permitAll()
@@ -82,6 +87,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/self-service/**").hasRole("SELF_SERVICE")
                 // ── Superadmin-only management plane ──────────────────────────
                 .requestMatchers("/api/v1/superadmin/**").hasRole("SUPERADMIN")
+                .requestMatchers("/actuator/**").hasRole("SUPERADMIN")
                 // ── Admin endpoints (SUPERADMIN or ADMIN — exclude SELF_SERVICE) ──
                 .requestMatchers("/api/v1/**").hasAnyRole("SUPERADMIN", "ADMIN")
                 // ── Everything else ───────────────────────────────────────────
@@ -0,0 +1,42 @@
+package com.ldapadmin.controller;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds streamed file-download responses.
+ *
+ * <p>The body is written on the MVC async executor straight to the socket,
+ * so an export of any size needs neither a buffer nor a request thread.
+ * With {@code gzip} the stream is compressed on the fly and served as
+ * {@code <filename>.gz}; flushes (e.g. after a CSV header) are passed
+ * through so the first bytes still leave immediately.</p>
+ */
+public final class DownloadResponses {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private DownloadResponses() {}
+
+    public static ResponseEntity<StreamingResponseBody> attachment(String filename,
+                                                                   MediaType contentType,
+                                                                   boolean gzip,
+                                                                   StreamingResponseBody body) {
+        StreamingResponseBody streamed = !gzip ? body : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+            body.writeTo(compressed);
+            compressed.finish();
+            compressed.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(gzip ? filename + ".gz" : filename).build().toString())
+                .contentType(gzip ? GZIP : contentType)
+                .body(streamed);
+    }
+}
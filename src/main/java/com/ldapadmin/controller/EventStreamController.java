@@ -0,0 +1,30 @@
+package com.ldapadmin.controller;
+
+import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.service.push.PushHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream replacing client polling of notification
+ * counts, alert summaries and dashboards.  See {@link PushHub} for
+ * delivery and {@link com.ldapadmin.service.push.PushEventRelay} for the
+ * events sent.
+ */
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+
+    private final PushHub pushHub;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal AuthPrincipal principal) {
+        return pushHub.subscribe(principal);
+    }
+}
@@ -13,6 +13,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
@@ -118,14 +119,27 @@ public class AccessReviewController {
         return campaignService.listReviewGroups(directoryId, campaignId, principal);
     }
 
-    @GetMapping("/{campaignId}/groups/{groupId}/decisions")
+    @GetMapping("/{campaignId}/groups/{groupId}")
     @RequiresFeature(FeatureKey.ACCESS_REVIEW_REVIEW)
-    public List<DecisionDto> listDecisions(
+    public ReviewGroupDto getGroup(
             @DirectoryId @PathVariable UUID directoryId,
             @PathVariable UUID campaignId,
             @PathVariable UUID groupId,
             @AuthenticationPrincipal AuthPrincipal principal) {
-        return decisionService.listForReviewGroup(groupId, principal);
+        return campaignService.getReviewGroup(directoryId, campaignId, groupId, principal);
+    }
+
+    @GetMapping("/{campaignId}/groups/{groupId}/decisions")
+    @RequiresFeature(FeatureKey.ACCESS_REVIEW_REVIEW)
+    public Page<DecisionDto> listDecisions(
+            @DirectoryId @PathVariable UUID directoryId,
+            @PathVariable UUID campaignId,
+            @PathVariable UUID groupId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @RequestParam(defaultValue = "ALL") AccessReviewDecisionService.StatusFilter status,
+            @RequestParam(required = false) String search,
+            @PageableDefault(size = 50, sort = "memberDisplay", direction = Sort.Direction.ASC) Pageable pageable) {
+        return decisionService.listForReviewGroup(groupId, status, search, pageable, principal);
     }
 
     @PostMapping("/{campaignId}/groups/{groupId}/decisions/{decisionId}")
@@ -142,7 +156,7 @@ public class AccessReviewController {
 
     @PostMapping("/{campaignId}/groups/{groupId}/decisions/bulk")
     @RequiresFeature(FeatureKey.ACCESS_REVIEW_REVIEW)
-    public List<DecisionDto> bulkDecide(
+    public BulkDecisionResponse bulkDecide(
             @DirectoryId @PathVariable UUID directoryId,
             @PathVariable UUID campaignId,
             @PathVariable UUID groupId,
@@ -151,6 +165,17 @@ public class AccessReviewController {
         return decisionService.bulkDecide(groupId, req.items(), principal);
     }
 
+    @PostMapping("/{campaignId}/groups/{groupId}/decisions/matching")
+    @RequiresFeature(FeatureKey.ACCESS_REVIEW_REVIEW)
+    public BulkDecisionResponse decideMatching(
+            @DirectoryId @PathVariable UUID directoryId,
+            @PathVariable UUID campaignId,
+            @PathVariable UUID groupId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @Valid @RequestBody DecideMatchingRequest req) {
+        return decisionService.decideMatching(groupId, req, principal);
+    }
+
     // ── Export & history ─────────────────────────────────────────────────────
 
     @GetMapping("/{campaignId}/export")
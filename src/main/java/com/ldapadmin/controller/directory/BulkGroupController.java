@@ -4,6 +4,7 @@ import com.ldapadmin.auth.ApiRateLimiter;
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.DirectoryId;
 import com.ldapadmin.auth.RequiresFeature;
+import com.ldapadmin.controller.DownloadResponses;
 import com.ldapadmin.dto.csv.BulkImportPreviewResult;
 import com.ldapadmin.dto.csv.BulkImportRequest;
 import com.ldapadmin.dto.csv.BulkImportResult;
@@ -14,7 +15,6 @@ import com.ldapadmin.service.ApprovalWorkflowService;
 import com.ldapadmin.service.LdapOperationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -26,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.springframework.http.HttpStatus;
 
@@ -102,27 +103,26 @@ public class BulkGroupController {
         return ResponseEntity.ok(result);
     }
 
-    @GetMapping(value = "/export", produces = "text/csv")
+    @GetMapping(value = "/export", produces = {"text/csv", "application/gzip"})
     @RequiresFeature(FeatureKey.BULK_EXPORT)
-    public ResponseEntity<byte[]> exportGroups(
+    public ResponseEntity<StreamingResponseBody> exportGroups(
             @DirectoryId @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
             @RequestParam(required = false) String filter,
             @RequestParam(required = false) String baseDn,
             @RequestParam(required = false, defaultValue = "") String attributes,
-            @RequestParam(defaultValue = "member") String memberAttribute) throws IOException {
+            @RequestParam(defaultValue = "member") String memberAttribute,
+            @RequestParam(defaultValue = "false") boolean gzip) {
 
         rateLimiter.check(principal.username(), "bulk-group-export");
         List<String> attrList = attributes.isBlank()
                 ? List.of()
                 : Arrays.stream(attributes.split(",")).map(String::trim).toList();
 
-        byte[] csv = service.bulkExportGroups(
+        StreamingResponseBody csv = service.bulkExportGroups(
                 directoryId, principal, filter, baseDn, memberAttribute, attrList);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"groups.csv\"")
-                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-                .body(csv);
+        return DownloadResponses.attachment("groups.csv",
+                MediaType.parseMediaType("text/csv; charset=UTF-8"), gzip, csv);
     }
 }
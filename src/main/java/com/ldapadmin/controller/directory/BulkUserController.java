@@ -4,6 +4,8 @@ import com.ldapadmin.auth.ApiRateLimiter;
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.DirectoryId;
 import com.ldapadmin.auth.RequiresFeature;
+import com.ldapadmin.controller.DownloadResponses;
+import com.ldapadmin.dto.csv.BulkImportJobDto;
 import com.ldapadmin.dto.csv.BulkImportPreviewResult;
 import com.ldapadmin.dto.csv.BulkImportRequest;
 import com.ldapadmin.dto.csv.BulkImportResult;
@@ -11,9 +13,12 @@ import com.ldapadmin.entity.PendingApproval;
 import com.ldapadmin.entity.enums.ApprovalRequestType;
 import com.ldapadmin.entity.enums.FeatureKey;
 import com.ldapadmin.service.ApprovalWorkflowService;
+import com.ldapadmin.service.BulkImportJobService;
 import com.ldapadmin.service.LdapOperationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -27,8 +32,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +47,8 @@ import java.util.UUID;
  *
  * <pre>
  *   POST /api/directories/{directoryId}/users/import — multipart CSV upload
+ *   POST /api/directories/{directoryId}/users/import/jobs — same, run in the background
+ *   GET  /api/directories/{directoryId}/users/import/jobs/{jobId}[/results] — progress, row results
  *   GET  /api/directories/{directoryId}/users/export — CSV file download
  * </pre>
  *
@@ -62,6 +71,7 @@ import java.util.UUID;
 public class BulkUserController {
 
     private final LdapOperationService service;
+    private final BulkImportJobService bulkImportJobService;
     private final ApprovalWorkflowService approvalService;
     private final ApiRateLimiter       rateLimiter;
 
@@ -89,18 +99,9 @@ public class BulkUserController {
 
         rateLimiter.check(principal.username(), "bulk-import");
 
-        // Check if approval is required — handles both profiled and unprovisioned OUs
-        Map<String, Object> payload = Map.of(
-                "request", request,
-                "csvContent", java.util.Base64.getEncoder().encodeToString(file.getBytes()));
-        Optional<PendingApproval> pendingApproval = approvalService.checkAndSubmitForApproval(
-                directoryId, request.parentDn(), principal,
-                ApprovalRequestType.BULK_IMPORT, payload);
-        if (pendingApproval.isPresent()) {
-            return ResponseEntity.status(HttpStatus.ACCEPTED)
-                    .body(Map.of(
-                            "message", "Bulk import submitted for approval",
-                            "approvalId", pendingApproval.get().getId()));
+        Optional<ResponseEntity<?>> pending = submitForApprovalIfRequired(directoryId, principal, file, request);
+        if (pending.isPresent()) {
+            return pending.get();
         }
 
         BulkImportResult result = service.bulkImportUsers(
@@ -108,6 +109,56 @@ public class BulkUserController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Starts the import in the background and returns {@code 202} with the
+     * job; poll {@code /import/jobs/{jobId}} for progress.  Preferred for
+     * large files — per-row results are written to a downloadable CSV
+     * instead of the response body.
+     */
+    @PostMapping(value = "/import/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @RequiresFeature(FeatureKey.BULK_IMPORT)
+    public ResponseEntity<?> startImportJob(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @RequestPart("file") MultipartFile file,
+            @RequestPart("request") @Valid BulkImportRequest request) throws IOException {
+
+        rateLimiter.check(principal.username(), "bulk-import");
+
+        Optional<ResponseEntity<?>> pending = submitForApprovalIfRequired(directoryId, principal, file, request);
+        if (pending.isPresent()) {
+            return pending.get();
+        }
+
+        BulkImportJobDto job = service.startBulkImportUsersJob(
+                directoryId, principal, file.getInputStream(), request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/import/jobs/{jobId}")
+    @RequiresFeature(FeatureKey.BULK_IMPORT)
+    public BulkImportJobDto getImportJob(
+            @DirectoryId @PathVariable UUID directoryId,
+            @PathVariable UUID jobId,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        return bulkImportJobService.get(directoryId, jobId, principal.id());
+    }
+
+    /** Per-row outcomes ({@code Row, DN, Status, Message}) of a finished import job. */
+    @GetMapping(value = "/import/jobs/{jobId}/results", produces = "text/csv")
+    @RequiresFeature(FeatureKey.BULK_IMPORT)
+    public ResponseEntity<Resource> downloadImportResults(
+            @DirectoryId @PathVariable UUID directoryId,
+            @PathVariable UUID jobId,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        Path results = bulkImportJobService.results(directoryId, jobId, principal.id());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"import-results-" + jobId + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(new FileSystemResource(results));
+    }
+
     /**
      * Exports users matching the given filter as a CSV file.
      *
@@ -115,30 +166,52 @@ public class BulkUserController {
      * @param baseDn     search base DN (optional; defaults to directory base DN)
      * @param attributes comma-separated attribute names to include as CSV columns;
      *                   when empty and {@code templateId} is set, the template's
-     *                   attribute list is used; otherwise all attributes are returned
+     *                   attribute list is used; otherwise all attributes are returned,
+     *                   which takes an extra pass over the entries before the header
      * @param templateId optional saved template to derive the attribute list from
+     * @param gzip       compress the download ({@code users.csv.gz})
      */
-    @GetMapping(value = "/export", produces = "text/csv")
+    @GetMapping(value = "/export", produces = {"text/csv", "application/gzip"})
     @RequiresFeature(FeatureKey.BULK_EXPORT)
-    public ResponseEntity<byte[]> exportUsers(
+    public ResponseEntity<StreamingResponseBody> exportUsers(
             @DirectoryId @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
             @RequestParam(required = false) String filter,
             @RequestParam(required = false) String baseDn,
             @RequestParam(required = false, defaultValue = "") String attributes,
-            @RequestParam(required = false) UUID templateId) throws IOException {
+            @RequestParam(required = false) UUID templateId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
 
         rateLimiter.check(principal.username(), "bulk-export");
         List<String> attrList = attributes.isBlank()
                 ? List.of()
                 : Arrays.stream(attributes.split(",")).map(String::trim).toList();
 
-        byte[] csv = service.bulkExportUsers(
+        StreamingResponseBody csv = service.bulkExportUsers(
                 directoryId, principal, filter, baseDn, attrList, templateId);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"")
-                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-                .body(csv);
+        return DownloadResponses.attachment("users.csv",
+                MediaType.parseMediaType("text/csv; charset=UTF-8"), gzip, csv);
+    }
+
+    /**
+     * Submits the import for approval when the target OU requires it —
+     * handles both profiled and unprovisioned OUs.
+     *
+     * @return the {@code 202} response to send, or empty to import now
+     */
+    private Optional<ResponseEntity<?>> submitForApprovalIfRequired(
+            UUID directoryId, AuthPrincipal principal, MultipartFile file,
+            BulkImportRequest request) throws IOException {
+        Map<String, Object> payload = Map.of(
+                "request", request,
+                "csvContent", java.util.Base64.getEncoder().encodeToString(file.getBytes()));
+        Optional<PendingApproval> pendingApproval = approvalService.checkAndSubmitForApproval(
+                directoryId, request.parentDn(), principal,
+                ApprovalRequestType.BULK_IMPORT, payload);
+        return pendingApproval.map(approval -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of(
+                        "message", "Bulk import submitted for approval",
+                        "approvalId", approval.getId())));
     }
 }
@@ -3,17 +3,16 @@ package com.ldapadmin.controller.directory;
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.DirectoryId;
 import com.ldapadmin.auth.RequiresFeature;
+import com.ldapadmin.controller.DownloadResponses;
 import com.ldapadmin.entity.enums.FeatureKey;
 import com.ldapadmin.service.PdfReportService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.ContentDisposition;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.util.UUID;
 
 /**
@@ -24,6 +23,9 @@ import java.util.UUID;
  *   <li>Access Review Summary — campaign decision breakdown</li>
  *   <li>Privileged Account Inventory — admin accounts and roles (superadmin only, non-directory-scoped)</li>
  * </ul>
+ *
+ * <p>Reports are rendered straight to the response as their rows are
+ * produced, so a large directory does not have to fit in memory.</p>
  */
 @RestController
 @RequiredArgsConstructor
@@ -36,13 +38,13 @@ public class ComplianceReportController {
      */
     @GetMapping("/api/v1/directories/{directoryId}/compliance-reports/user-access")
     @RequiresFeature(FeatureKey.REPORTS_RUN)
-    public ResponseEntity<byte[]> userAccessReport(
+    public ResponseEntity<StreamingResponseBody> userAccessReport(
             @DirectoryId @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
-            @RequestParam(required = false) String groupDn) throws IOException {
+            @RequestParam(required = false) String groupDn) {
 
-        byte[] pdf = pdfReportService.generateUserAccessReport(directoryId, groupDn);
-        return pdfResponse(pdf, "user-access-report.pdf");
+        return pdfResponse("user-access-report.pdf",
+                out -> pdfReportService.writeUserAccessReport(directoryId, groupDn, out));
     }
 
     /**
@@ -50,15 +52,15 @@ public class ComplianceReportController {
      */
     @GetMapping("/api/v1/directories/{directoryId}/compliance-reports/access-review-summary/{campaignId}")
     @RequiresFeature(FeatureKey.REPORTS_RUN)
-    public ResponseEntity<byte[]> accessReviewSummary(
+    public ResponseEntity<StreamingResponseBody> accessReviewSummary(
             @DirectoryId @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
-            @PathVariable UUID campaignId) throws IOException {
+            @PathVariable UUID campaignId) {
 
         // Verify campaign belongs to this directory
-        var campaign = pdfReportService.getCampaignForDirectory(directoryId, campaignId);
-        byte[] pdf = pdfReportService.generateAccessReviewSummary(campaignId);
-        return pdfResponse(pdf, "access-review-summary.pdf");
+        pdfReportService.getCampaignForDirectory(directoryId, campaignId);
+        return pdfResponse("access-review-summary.pdf",
+                out -> pdfReportService.writeAccessReviewSummary(campaignId, out));
     }
 
     /**
@@ -67,18 +69,14 @@ public class ComplianceReportController {
      */
     @GetMapping("/api/v1/compliance-reports/privileged-accounts")
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('SUPERADMIN')")
-    public ResponseEntity<byte[]> privilegedAccountInventory(
-            @AuthenticationPrincipal AuthPrincipal principal) throws IOException {
+    public ResponseEntity<StreamingResponseBody> privilegedAccountInventory(
+            @AuthenticationPrincipal AuthPrincipal principal) {
 
-        byte[] pdf = pdfReportService.generatePrivilegedAccountInventory();
-        return pdfResponse(pdf, "privileged-account-inventory.pdf");
+        return pdfResponse("privileged-account-inventory.pdf",
+                pdfReportService::writePrivilegedAccountInventory);
     }
 
-    private ResponseEntity<byte[]> pdfResponse(byte[] pdf, String filename) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDisposition(
-                ContentDisposition.attachment().filename(filename).build());
-        return ResponseEntity.ok().headers(headers).body(pdf);
+    private ResponseEntity<StreamingResponseBody> pdfResponse(String filename, StreamingResponseBody body) {
+        return DownloadResponses.attachment(filename, MediaType.APPLICATION_PDF, false, body);
     }
 }
@@ -3,19 +3,25 @@ package com.ldapadmin.controller.directory;
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.DirectoryId;
 import com.ldapadmin.auth.RequiresFeature;
+import com.ldapadmin.dto.evidence.EvidencePackageJobDto;
 import com.ldapadmin.dto.evidence.EvidencePackageRequest;
 import com.ldapadmin.entity.enums.FeatureKey;
+import com.ldapadmin.service.EvidencePackageJobService;
 import com.ldapadmin.service.EvidencePackageService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
@@ -24,12 +30,17 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Generates and downloads a ZIP evidence package for compliance audits.
  * Rate-limited to one concurrent generation per user.
+ *
+ * <p>The {@code /jobs} endpoints build the package in the background and
+ * report progress; large packages should use them rather than the
+ * synchronous endpoint.</p>
  */
 @RestController
 @RequiredArgsConstructor
 public class EvidencePackageController {
 
-    private final EvidencePackageService evidencePackageService;
+    private final EvidencePackageService    evidencePackageService;
+    private final EvidencePackageJobService evidencePackageJobService;
 
     private final ConcurrentHashMap<UUID, Boolean> activeGenerations = new ConcurrentHashMap<>();
 
@@ -69,4 +80,41 @@ public class EvidencePackageController {
             activeGenerations.remove(userId);
         }
     }
+
+    @PostMapping("/api/v1/directories/{directoryId}/evidence-package/jobs")
+    @RequiresFeature(FeatureKey.REPORTS_RUN)
+    public ResponseEntity<EvidencePackageJobDto> startJob(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @Valid @RequestBody EvidencePackageRequest request) {
+        EvidencePackageJobDto job = evidencePackageJobService.start(
+                directoryId, principal.id(), principal.username(), request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/api/v1/directories/{directoryId}/evidence-package/jobs/{jobId}")
+    @RequiresFeature(FeatureKey.REPORTS_RUN)
+    public EvidencePackageJobDto getJob(
+            @DirectoryId @PathVariable UUID directoryId,
+            @PathVariable UUID jobId,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        return evidencePackageJobService.get(directoryId, jobId, principal.id());
+    }
+
+    @GetMapping("/api/v1/directories/{directoryId}/evidence-package/jobs/{jobId}/download")
+    @RequiresFeature(FeatureKey.REPORTS_RUN)
+    public ResponseEntity<Resource> downloadJob(
+            @DirectoryId @PathVariable UUID directoryId,
+            @PathVariable UUID jobId,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        Path file = evidencePackageJobService.download(directoryId, jobId, principal.id());
+        EvidencePackageJobDto job = evidencePackageJobService.get(directoryId, jobId, principal.id());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(EvidencePackageJobService.fileName(job)).build());
+
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(file));
+    }
 }
@@ -7,6 +7,7 @@ import com.ldapadmin.dto.ldap.BulkMemberRequest;
 import com.ldapadmin.dto.ldap.BulkMemberResult;
 import com.ldapadmin.dto.ldap.BulkMemberResult.BulkMemberError;
 import com.ldapadmin.dto.ldap.CreateEntryRequest;
+import com.ldapadmin.dto.ldap.LdapEntryPage;
 import com.ldapadmin.dto.ldap.LdapEntryResponse;
 import com.ldapadmin.dto.ldap.MemberRequest;
 import com.ldapadmin.dto.ldap.UpdateEntryRequest;
@@ -41,6 +42,9 @@ import java.util.UUID;
  *
  * <pre>
  *   GET    /api/directories/{directoryId}/groups           — search
+ *   GET    /api/directories/{directoryId}/groups/pages     — cursor search, first page
+ *   GET    /api/directories/{directoryId}/groups/pages/{cursor} — next page
+ *   DELETE /api/directories/{directoryId}/groups/pages/{cursor} — close cursor
  *   POST   /api/directories/{directoryId}/groups           — create
  *   GET    /api/directories/{directoryId}/groups/entry     — get by DN (?dn=)
  *   DELETE /api/directories/{directoryId}/groups/entry     — delete by DN (?dn=)
@@ -56,6 +60,7 @@ public class GroupController {
 
     private static final int DEFAULT_LIMIT = 200;
     private static final int MAX_LIMIT      = 2000;
+    private static final int MAX_PAGE_SIZE  = 500;
 
     private final LdapOperationService service;
     private final ApprovalWorkflowService approvalService;
@@ -77,6 +82,46 @@ public class GroupController {
         return service.searchGroups(directoryId, principal, filter, baseDn, safeLimit, attrArray);
     }
 
+    /**
+     * Cursor-based search: returns the first {@code size} entries and a
+     * cursor for the next page.  {@code sort} names an attribute, prefixed
+     * with {@code -} for descending.
+     */
+    @GetMapping("/pages")
+    @RequiresFeature(FeatureKey.GROUP_READ)
+    public LdapEntryPage openPages(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String baseDn,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false, defaultValue = "") String attributes) {
+
+        int safeSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String[] attrArray = attributes.isBlank() ? new String[0] : attributes.split(",");
+        return service.openGroupCursor(directoryId, principal, filter, baseDn, sort, safeSize, attrArray);
+    }
+
+    @GetMapping("/pages/{cursor}")
+    @RequiresFeature(FeatureKey.GROUP_READ)
+    public LdapEntryPage nextPage(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @PathVariable String cursor) {
+        return service.nextPage(directoryId, principal, cursor);
+    }
+
+    @DeleteMapping("/pages/{cursor}")
+    @RequiresFeature(FeatureKey.GROUP_READ)
+    public ResponseEntity<Void> closePages(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @PathVariable String cursor) {
+        service.closeCursor(directoryId, principal, cursor);
+        return ResponseEntity.noContent().build();
+    }
+
     // ── Create ────────────────────────────────────────────────────────────────
 
     @PostMapping
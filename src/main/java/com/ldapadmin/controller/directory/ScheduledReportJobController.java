@@ -15,6 +15,7 @@ import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.service.ReportExecutionService;
 import com.ldapadmin.service.ScheduledReportJobService;
 import com.ldapadmin.service.ScheduledReportScheduler;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -50,7 +51,8 @@ import java.util.UUID;
  *   PUT    /api/directories/{directoryId}/report-jobs/{jobId}      — replace
  *   DELETE /api/directories/{directoryId}/report-jobs/{jobId}      — delete
  *   PATCH  /api/directories/{directoryId}/report-jobs/{jobId}/enabled — toggle enabled
- *   POST   /api/directories/{directoryId}/reports/run              — run on-demand → CSV
+ *   POST   /api/directories/{directoryId}/reports/run              — run on-demand → CSV/PDF
+ *   POST   /api/directories/{directoryId}/reports/run-data         — run on-demand → JSON
  * </pre>
  */
 @RestController
@@ -131,59 +133,62 @@ public class ScheduledReportJobController {
             @PathVariable UUID jobId,
             @AuthenticationPrincipal AuthPrincipal principal) {
         var job = jobService.getJobEntity(directoryId, jobId);
-        try {
-            new Thread(() -> scheduler.executeJobNow(job), "report-run-now-" + jobId).start();
-            return ResponseEntity.ok(java.util.Map.of("status", "started",
-                    "message", "Report job '" + job.getName() + "' execution started"));
-        } catch (Exception e) {
-            return ResponseEntity.ok(java.util.Map.of("status", "failed", "message", e.getMessage()));
+        if (!scheduler.executeJobNow(job)) {
+            return ResponseEntity.ok(java.util.Map.of("status", "failed",
+                    "message", "Report job '" + job.getName() + "' is already queued or running"));
         }
+        return ResponseEntity.ok(java.util.Map.of("status", "started",
+                "message", "Report job '" + job.getName() + "' queued for execution"));
     }
 
     // ── On-demand execution ───────────────────────────────────────────────────
 
     /**
-     * Runs a report and returns the structured data as JSON for inline display.
+     * Runs a report and streams the structured data as JSON for inline display.
      */
     @PostMapping("/reports/run-data")
     @RequiresFeature(FeatureKey.REPORTS_RUN)
     @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public ReportExecutionService.ReportData runData(
+    public void runData(
             @DirectoryId @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
-            @Valid @RequestBody RunReportRequest req) {
+            @Valid @RequestBody RunReportRequest req,
+            HttpServletResponse response) throws IOException {
 
         rateLimiter.check(principal.username(), "report-run");
         DirectoryConnection dc = dirRepo.findById(directoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("DirectoryConnection", directoryId));
-        return executionService.runAsData(dc, req.reportType(), req.reportParams(), directoryId);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        executionService.runAsJson(dc, req.reportType(), req.reportParams(), directoryId,
+                response.getOutputStream());
     }
 
     /**
-     * Runs a report immediately and returns the result as a CSV or PDF file download.
+     * Runs a report immediately and streams the result as a CSV or PDF file download.
      */
     @PostMapping("/reports/run")
     @RequiresFeature(FeatureKey.REPORTS_RUN)
-    public ResponseEntity<byte[]> run(
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public void run(
             @DirectoryId @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
-            @Valid @RequestBody RunReportRequest req) throws IOException {
+            @Valid @RequestBody RunReportRequest req,
+            HttpServletResponse response) throws IOException {
 
         rateLimiter.check(principal.username(), "report-run");
         DirectoryConnection dc = dirRepo.findById(directoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("DirectoryConnection", directoryId));
         OutputFormat format = req.outputFormat() != null ? req.outputFormat() : OutputFormat.CSV;
 
-        byte[] data = executionService.run(dc, req.reportType(), req.reportParams(), format, directoryId);
-
         boolean isPdf = format == OutputFormat.PDF;
         String ext = isPdf ? ".pdf" : ".csv";
         String filename = req.reportType().name().toLowerCase() + ext;
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(isPdf ? MediaType.APPLICATION_PDF : MediaType.parseMediaType("text/csv"));
-        headers.setContentDisposition(
-                ContentDisposition.attachment().filename(filename).build());
+        response.setContentType(isPdf ? MediaType.APPLICATION_PDF_VALUE : "text/csv");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
 
-        return new ResponseEntity<>(data, headers, HttpStatus.OK);
+        executionService.run(dc, req.reportType(), req.reportParams(), format, directoryId,
+                response.getOutputStream());
     }
 }
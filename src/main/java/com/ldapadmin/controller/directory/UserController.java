@@ -6,6 +6,7 @@ import com.ldapadmin.auth.RequiresFeature;
 import com.ldapadmin.dto.ldap.BulkAttributeUpdateRequest;
 import com.ldapadmin.dto.ldap.BulkAttributeUpdateResult;
 import com.ldapadmin.dto.ldap.CreateEntryRequest;
+import com.ldapadmin.dto.ldap.LdapEntryPage;
 import com.ldapadmin.dto.ldap.LdapEntryResponse;
 import com.ldapadmin.dto.ldap.MoveUserRequest;
 import com.ldapadmin.dto.ldap.ResetPasswordLdapRequest;
@@ -47,6 +48,7 @@ public class UserController {
 
     private static final int DEFAULT_LIMIT = 200;
     private static final int MAX_LIMIT      = 2000;
+    private static final int MAX_PAGE_SIZE  = 500;
 
     private final LdapOperationService service;
     private final ApprovalWorkflowService approvalService;
@@ -70,6 +72,46 @@ public class UserController {
         return service.searchUsers(directoryId, principal, filter, baseDn, safeLimit, attrArray);
     }
 
+    /**
+     * Cursor-based search: returns the first {@code size} entries and a
+     * cursor for the next page.  {@code sort} names an attribute, prefixed
+     * with {@code -} for descending.
+     */
+    @GetMapping("/pages")
+    @RequiresFeature(FeatureKey.USER_READ)
+    public LdapEntryPage openPages(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String baseDn,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false, defaultValue = "") String attributes) {
+
+        int safeSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String[] attrArray = attributes.isBlank() ? new String[0] : attributes.split(",");
+        return service.openUserCursor(directoryId, principal, filter, baseDn, sort, safeSize, attrArray);
+    }
+
+    @GetMapping("/pages/{cursor}")
+    @RequiresFeature(FeatureKey.USER_READ)
+    public LdapEntryPage nextPage(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @PathVariable String cursor) {
+        return service.nextPage(directoryId, principal, cursor);
+    }
+
+    @DeleteMapping("/pages/{cursor}")
+    @RequiresFeature(FeatureKey.USER_READ)
+    public ResponseEntity<Void> closePages(
+            @DirectoryId @PathVariable UUID directoryId,
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @PathVariable String cursor) {
+        service.closeCursor(directoryId, principal, cursor);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping
     @RequiresFeature(FeatureKey.USER_CREATE)
     public ResponseEntity<?> create(
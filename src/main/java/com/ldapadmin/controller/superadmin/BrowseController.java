@@ -1,9 +1,13 @@
 package com.ldapadmin.controller.superadmin;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.dto.ldap.AttributeModification;
+import com.ldapadmin.controller.DownloadResponses;
+import com.ldapadmin.dto.csv.BulkImportJobDto;
+import com.ldapadmin.dto.csv.BulkImportResult;
 import com.ldapadmin.dto.ldap.CreateEntryRequest;
-import com.ldapadmin.dto.ldap.IntegrityReport;
 import com.ldapadmin.dto.ldap.IntegrityReport.IssueType;
 import com.ldapadmin.dto.ldap.LdifImportResult;
 import com.ldapadmin.dto.ldap.MoveEntryRequest;
@@ -22,19 +26,27 @@ import com.ldapadmin.ldap.LdapSchemaService.ObjectClassAttributes;
 import com.ldapadmin.ldap.LdifService;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.service.AuditService;
+import com.ldapadmin.service.BulkImportJobService;
 import com.unboundid.ldap.sdk.Modification;
 import com.unboundid.ldap.sdk.ModificationType;
 import com.unboundid.ldap.sdk.SearchScope;
-import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
@@ -52,6 +64,8 @@ import java.util.stream.Collectors;
  *   POST /api/v1/superadmin/directories/{directoryId}/browse
  *   GET  /api/v1/superadmin/directories/{directoryId}/browse/schema/object-classes
  *   GET  /api/v1/superadmin/directories/{directoryId}/browse/schema/object-classes/bulk?names=...
+ *   POST /api/v1/superadmin/directories/{directoryId}/browse/import/ldif[/jobs]
+ *   GET  /api/v1/superadmin/directories/{directoryId}/browse/import/ldif/jobs/{jobId}[/results]
  * </pre>
  */
 @RestController
@@ -65,7 +79,9 @@ public class BrowseController {
     private final LdifService ldifService;
     private final IntegrityCheckService integrityCheckService;
     private final AuditService auditService;
+    private final BulkImportJobService bulkImportJobService;
     private final DirectoryConnectionRepository dirRepo;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public BrowseResult browse(@PathVariable UUID directoryId,
@@ -193,11 +209,15 @@ public class BrowseController {
 
     // ── LDIF Export ────────────────────────────────────────────────────────────
 
+    /**
+     * Streams the entry ({@code scope=base}) or subtree as LDIF, written as
+     * each page of search results arrives; {@code gzip} compresses it on the fly.
+     */
     @GetMapping("/export/ldif")
-    public void exportLdif(@PathVariable UUID directoryId,
-                           @RequestParam String dn,
-                           @RequestParam(defaultValue = "base") String scope,
-                           HttpServletResponse response) throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportLdif(@PathVariable UUID directoryId,
+                                                            @RequestParam String dn,
+                                                            @RequestParam(defaultValue = "base") String scope,
+                                                            @RequestParam(defaultValue = "false") boolean gzip) {
         DirectoryConnection dc = loadDirectory(directoryId);
 
         SearchScope searchScope = switch (scope.toLowerCase()) {
@@ -206,14 +226,11 @@ public class BrowseController {
             default    -> SearchScope.BASE;
         };
 
-        response.setContentType("application/ldif");
-        response.setHeader("Content-Disposition", "attachment; filename=\"export.ldif\"");
-
-        if (searchScope == SearchScope.BASE) {
-            ldifService.exportEntry(dc, dn, response.getOutputStream());
-        } else {
-            ldifService.exportSubtree(dc, dn, searchScope, response.getOutputStream());
-        }
+        StreamingResponseBody ldif = searchScope == SearchScope.BASE
+                ? out -> ldifService.exportEntry(dc, dn, out)
+                : out -> ldifService.exportSubtree(dc, dn, searchScope, out);
+        return DownloadResponses.attachment("export.ldif",
+                MediaType.parseMediaType("application/ldif"), gzip, ldif);
     }
 
     // ── LDIF Import ─────────────────────────────────────────────────────────
@@ -229,20 +246,74 @@ public class BrowseController {
         LdifImportResult result = ldifService.importLdif(
                 dc, file.getInputStream(), conflictHandling, dryRun);
 
+        auditLdifImport(principal, directoryId, dc, result, dryRun);
+
+        return result;
+    }
+
+    /**
+     * Runs the import in the background and returns {@code 202} with the job;
+     * poll {@code /import/ldif/jobs/{jobId}} for progress and download the
+     * per-record results once it has finished.
+     */
+    @PostMapping("/import/ldif/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BulkImportJobDto startLdifImportJob(@PathVariable UUID directoryId,
+                                               @AuthenticationPrincipal AuthPrincipal principal,
+                                               @RequestParam("file") MultipartFile file,
+                                               @RequestParam(defaultValue = "SKIP") ConflictHandling conflictHandling,
+                                               @RequestParam(defaultValue = "false") boolean dryRun) throws IOException {
+        DirectoryConnection dc = loadDirectory(directoryId);
+
+        return bulkImportJobService.start(directoryId, principal.id(), file.getInputStream(), (input, results) -> {
+            LdifImportResult result = ldifService.importLdif(dc, input, conflictHandling, dryRun, results);
+            auditLdifImport(principal, directoryId, dc, result, dryRun);
+            return new BulkImportResult(
+                    result.added() + result.updated() + result.skipped() + result.failed(),
+                    result.added(), result.updated(), result.skipped(), result.failed(), List.of());
+        });
+    }
+
+    @GetMapping("/import/ldif/jobs/{jobId}")
+    public BulkImportJobDto getLdifImportJob(@PathVariable UUID directoryId,
+                                             @PathVariable UUID jobId,
+                                             @AuthenticationPrincipal AuthPrincipal principal) {
+        return bulkImportJobService.get(directoryId, jobId, principal.id());
+    }
+
+    /** Per-record outcomes ({@code Row, DN, Status, Message}) of a finished import job. */
+    @GetMapping(value = "/import/ldif/jobs/{jobId}/results", produces = "text/csv")
+    public ResponseEntity<Resource> downloadLdifImportResults(@PathVariable UUID directoryId,
+                                                              @PathVariable UUID jobId,
+                                                              @AuthenticationPrincipal AuthPrincipal principal) {
+        Path results = bulkImportJobService.results(directoryId, jobId, principal.id());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"ldif-import-results-" + jobId + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(new FileSystemResource(results));
+    }
+
+    private void auditLdifImport(AuthPrincipal principal, UUID directoryId, DirectoryConnection dc,
+                                 LdifImportResult result, boolean dryRun) {
         auditService.record(principal, directoryId, AuditAction.LDIF_IMPORT, dc.getBaseDn(),
                 Map.of("added", result.added(),
                        "updated", result.updated(),
                        "skipped", result.skipped(),
                        "failed", result.failed(),
                        "dryRun", dryRun));
-
-        return result;
     }
 
     // ── Integrity Check ─────────────────────────────────────────────────────
 
+    /**
+     * Streams the report as {@code {"issues":[...]}}, writing each issue as it
+     * is found rather than holding the full list.  The opening bracket is
+     * deferred until the first issue so a failure before then still gets a
+     * normal error response.
+     */
     @PostMapping("/integrity-check")
-    public IntegrityReport integrityCheck(
+    public ResponseEntity<StreamingResponseBody> integrityCheck(
             @PathVariable UUID directoryId,
             @AuthenticationPrincipal AuthPrincipal principal,
             @RequestParam(required = false) String baseDn,
@@ -255,13 +326,35 @@ public class BrowseController {
                 .map(IssueType::valueOf)
                 .collect(Collectors.toCollection(() -> EnumSet.noneOf(IssueType.class)));
 
-        IntegrityReport report = integrityCheckService.runChecks(dc, baseDn, checkTypes);
-
-        auditService.record(principal, directoryId, AuditAction.INTEGRITY_CHECK,
-                baseDn != null ? baseDn : dc.getBaseDn(),
-                Map.of("checks", checks, "issuesFound", report.issues().size()));
-
-        return report;
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            boolean[] started = {false};
+            int found = integrityCheckService.runChecks(dc, baseDn, checkTypes, issue -> {
+                try {
+                    if (!started[0]) {
+                        json.writeStartObject();
+                        json.writeArrayFieldStart("issues");
+                        started[0] = true;
+                    }
+                    json.writeObject(issue);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!started[0]) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("issues");
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.close();
+
+            auditService.record(principal, directoryId, AuditAction.INTEGRITY_CHECK,
+                    baseDn != null ? baseDn : dc.getBaseDn(),
+                    Map.of("checks", checks, "issuesFound", found));
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     // ── Schema endpoints (superadmin bypass — no realm/feature checks) ────────
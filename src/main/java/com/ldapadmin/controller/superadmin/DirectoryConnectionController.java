@@ -2,8 +2,10 @@ package com.ldapadmin.controller.superadmin;
 
 import com.ldapadmin.dto.directory.DirectoryConnectionRequest;
 import com.ldapadmin.dto.directory.DirectoryConnectionResponse;
+import com.ldapadmin.dto.directory.DirectoryReplicaStatus;
 import com.ldapadmin.dto.directory.TestConnectionRequest;
 import com.ldapadmin.dto.directory.TestConnectionResult;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.service.DirectoryConnectionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +34,7 @@ import java.util.UUID;
  *   PUT    /api/v1/superadmin/directories/{id}     — update
  *   DELETE /api/v1/superadmin/directories/{id}     — delete
  *   POST   /api/v1/superadmin/directories/{id}/evict-pool — evict LDAP pool
+ *   GET    /api/v1/superadmin/directories/{id}/replica    — local replica status
  *   POST   /api/v1/superadmin/directories/test     — test (not persisted)
  * </pre>
  */
@@ -42,6 +45,7 @@ import java.util.UUID;
 public class DirectoryConnectionController {
 
     private final DirectoryConnectionService service;
+    private final DirectoryReplicaService    replicaService;
 
     @GetMapping
     public List<DirectoryConnectionResponse> list() {
@@ -77,6 +81,11 @@ public class DirectoryConnectionController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/replica")
+    public DirectoryReplicaStatus replicaStatus(@PathVariable UUID id) {
+        return replicaService.status(id);
+    }
+
     @PostMapping("/test")
     public TestConnectionResult test(@Valid @RequestBody TestConnectionRequest req) {
         return service.testConnection(req);
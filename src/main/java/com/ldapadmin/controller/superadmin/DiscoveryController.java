@@ -1,14 +1,22 @@
 package com.ldapadmin.controller.superadmin;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ldapadmin.dto.discovery.CommitDiscoveryRequest;
 import com.ldapadmin.dto.discovery.CommitDiscoveryResponse;
 import com.ldapadmin.dto.discovery.DiscoveryProposalResponse;
 import com.ldapadmin.dto.discovery.DiscoveryRequest;
 import com.ldapadmin.service.DirectoryDiscoveryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -17,7 +25,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DiscoveryController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final DirectoryDiscoveryService discoveryService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Scan the directory and return a discovery proposal.
@@ -33,6 +44,36 @@ public class DiscoveryController {
         return discoveryService.discover(directoryId, request);
     }
 
+    /**
+     * Scan the directory, streaming the proposal as newline-delimited JSON:
+     * one {@code {"type":"profile","profile":{...}}} line per user OU as it
+     * is found, then a {@code {"type":"result","result":{...}}} line with
+     * groups, warnings and any containers left to resume from.  A failure
+     * after the first line ends the stream with
+     * {@code {"type":"error","detail":"..."}}.
+     */
+    @PostMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> discoverStream(
+            @PathVariable UUID directoryId,
+            @RequestBody(required = false) DiscoveryRequest request) {
+        DiscoveryRequest scan = request != null ? request : new DiscoveryRequest(null, null, null);
+
+        StreamingResponseBody body = out -> {
+            boolean[] started = {false};
+            try {
+                DiscoveryProposalResponse result = discoveryService.discover(directoryId, scan, profile -> {
+                    writeLine(out, Map.of("type", "profile", "profile", profile));
+                    started[0] = true;
+                });
+                writeLine(out, Map.of("type", "result", "result", result));
+            } catch (RuntimeException e) {
+                if (!started[0]) throw e;
+                writeLine(out, Map.of("type", "error", "detail", String.valueOf(e.getMessage())));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     /**
      * Commit a reviewed discovery proposal (create profiles + base DNs).
      */
@@ -42,4 +83,14 @@ public class DiscoveryController {
             @RequestBody CommitDiscoveryRequest request) {
         return discoveryService.commit(directoryId, request);
     }
+
+    private void writeLine(OutputStream out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
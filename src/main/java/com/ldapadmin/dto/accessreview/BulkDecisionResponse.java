@@ -0,0 +1,11 @@
+package com.ldapadmin.dto.accessreview;
+
+/**
+ * Outcome of a bulk decision.  {@code skipped} counts members that were
+ * already decided or not in the review group.
+ */
+public record BulkDecisionResponse(
+        int requested,
+        int applied,
+        int skipped
+) {}
@@ -0,0 +1,14 @@
+package com.ldapadmin.dto.accessreview;
+
+import com.ldapadmin.entity.enums.ReviewDecision;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Decides every pending member of a review group whose DN or display name
+ * contains {@code search}; all pending members when it is blank.
+ */
+public record DecideMatchingRequest(
+        String search,
+        @NotNull ReviewDecision decision,
+        String comment
+) {}
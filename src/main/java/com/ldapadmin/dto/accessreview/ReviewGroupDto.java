@@ -1,5 +1,7 @@
 package com.ldapadmin.dto.accessreview;
 
+import com.ldapadmin.entity.AccessReviewGroup;
+
 import java.util.UUID;
 
 public record ReviewGroupDto(
@@ -13,4 +15,13 @@ public record ReviewGroupDto(
         long confirmed,
         long revoked,
         long pending
-) {}
+) {
+
+    public static ReviewGroupDto from(AccessReviewGroup g) {
+        return new ReviewGroupDto(
+                g.getId(), g.getGroupDn(), g.getGroupName(), g.getMemberAttribute(),
+                g.getReviewer().getUsername(), g.getReviewer().getId(),
+                g.getTotalCount(), g.getConfirmedCount(), g.getRevokedCount(),
+                g.getTotalCount() - g.getConfirmedCount() - g.getRevokedCount());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ldapadmin.dto.audit;
 
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
 import com.ldapadmin.entity.enums.ChangelogFormat;
 import com.ldapadmin.entity.enums.SslMode;
 import jakarta.validation.constraints.Max;
@@ -12,7 +13,8 @@ import jakarta.validation.constraints.Size;
  * Create / update request for an {@link com.ldapadmin.entity.AuditDataSource}.
  *
  * <p>{@code bindPassword} is plaintext — the service encrypts before persisting.
- * Pass {@code null} on update to keep the existing encrypted value.</p>
+ * Pass {@code null} on update to keep the existing encrypted value.
+ * {@code changeCaptureMode} defaults to {@code POLL} when omitted.</p>
  */
 public record AuditSourceRequest(
         @NotBlank @Size(max = 255) String displayName,
@@ -26,5 +28,6 @@ public record AuditSourceRequest(
         @NotBlank String changelogBaseDn,
         String branchFilterDn,
         @NotNull ChangelogFormat changelogFormat,
+        ChangeCaptureMode changeCaptureMode,
         boolean enabled
 ) {}
@@ -1,6 +1,7 @@
 package com.ldapadmin.dto.audit;
 
 import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
 import com.ldapadmin.entity.enums.ChangelogFormat;
 import com.ldapadmin.entity.enums.SslMode;
 
@@ -18,6 +19,8 @@ public record AuditSourceResponse(
         String changelogBaseDn,
         String branchFilterDn,
         ChangelogFormat changelogFormat,
+        ChangeCaptureMode changeCaptureMode,
+        String lastChangeId,
         boolean enabled,
         OffsetDateTime createdAt,
         OffsetDateTime updatedAt
@@ -34,6 +37,8 @@ public record AuditSourceResponse(
                 src.getChangelogBaseDn(),
                 src.getBranchFilterDn(),
                 src.getChangelogFormat(),
+                src.getChangeCaptureMode(),
+                src.getLastChangeId(),
                 src.isEnabled(),
                 src.getCreatedAt(),
                 src.getUpdatedAt()
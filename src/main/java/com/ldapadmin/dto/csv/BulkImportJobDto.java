@@ -0,0 +1,25 @@
+package com.ldapadmin.dto.csv;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a background bulk import.
+ *
+ * <p>{@code status} is one of {@code RUNNING}, {@code COMPLETED} or
+ * {@code FAILED}; the counters grow as rows complete.  Per-row outcomes are
+ * downloadable as CSV once the job has finished.</p>
+ */
+public record BulkImportJobDto(
+        UUID id,
+        UUID directoryId,
+        String status,
+        long rowsProcessed,
+        long created,
+        long updated,
+        long skipped,
+        long errors,
+        String error,
+        OffsetDateTime startedAt,
+        OffsetDateTime completedAt
+) {}
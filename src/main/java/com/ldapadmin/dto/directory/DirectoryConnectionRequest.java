@@ -48,5 +48,6 @@ public record DirectoryConnectionRequest(
         @Min(1) @Max(65535) Integer secondaryPort,
         @Min(1) @Max(65535) Integer globalCatalogPort,
         @Valid List<BaseDnRequest> userBaseDns,
-        @Valid List<BaseDnRequest> groupBaseDns) {
+        @Valid List<BaseDnRequest> groupBaseDns,
+        boolean localReplicaEnabled) {
 }
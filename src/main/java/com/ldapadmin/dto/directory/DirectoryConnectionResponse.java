@@ -40,6 +40,7 @@ public record DirectoryConnectionResponse(
         String secondaryHost,
         Integer secondaryPort,
         Integer globalCatalogPort,
+        boolean localReplicaEnabled,
         OffsetDateTime createdAt,
         OffsetDateTime updatedAt) {
 
@@ -84,6 +85,7 @@ public record DirectoryConnectionResponse(
                 dc.getSecondaryHost(),
                 dc.getSecondaryPort(),
                 dc.getGlobalCatalogPort(),
+                dc.isLocalReplicaEnabled(),
                 dc.getCreatedAt(),
                 dc.getUpdatedAt());
     }
@@ -0,0 +1,21 @@
+package com.ldapadmin.dto.directory;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * State of a directory's local replica.
+ *
+ * @param state     DISABLED, NOT_LOADED, SEEDING, READY, STALE or FAILED
+ * @param watermark changes reported before this instant are reflected;
+ *                  searches fall back to the directory once it is too old
+ */
+public record DirectoryReplicaStatus(
+        UUID directoryId,
+        boolean enabled,
+        String state,
+        int entryCount,
+        OffsetDateTime seededAt,
+        OffsetDateTime watermark,
+        String lastError) {
+}
@@ -0,0 +1,9 @@
+package com.ldapadmin.dto.discovery;
+
+/**
+ * A container still to be scanned by discovery, and its depth below the
+ * scan's root DN.  Returned when a scan runs out of time and passed back to
+ * resume it.
+ */
+public record CrawlPosition(String dn, int depth) {
+}
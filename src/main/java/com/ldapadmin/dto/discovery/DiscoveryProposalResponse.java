@@ -12,7 +12,9 @@ public record DiscoveryProposalResponse(
         List<ProposedProfile> profiles,
         List<DiscoveredGroupOU> groupOUs,
         List<DiscoveredGroup> groups,
-        List<String> warnings
+        List<String> warnings,
+        /** Containers not scanned before the time budget ran out; empty when the scan completed. */
+        List<CrawlPosition> resumeFrom
 ) {
 
     // ── Proposed profile (one per discovered user OU) ────────────────────
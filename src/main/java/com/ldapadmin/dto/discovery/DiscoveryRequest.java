@@ -1,5 +1,7 @@
 package com.ldapadmin.dto.discovery;
 
+import java.util.List;
+
 /**
  * Request body for the directory discovery scan.
  */
@@ -9,8 +11,16 @@ public record DiscoveryRequest(
         /** Number of entries to sample per OU (default 20, max 50). */
         Integer sampleSize,
         /** Whether to include group analysis (default true). */
-        Boolean includeGroups
+        Boolean includeGroups,
+        /** Seconds the OU scan may run before returning what it has (default 60, max 600). */
+        Integer timeBudgetSeconds,
+        /** Containers left pending by an earlier scan; when set, the scan resumes from these instead of the root. */
+        List<CrawlPosition> resumeFrom
 ) {
+    public DiscoveryRequest(String rootDn, Integer sampleSize, Boolean includeGroups) {
+        this(rootDn, sampleSize, includeGroups, null, null);
+    }
+
     public int effectiveSampleSize() {
         if (sampleSize == null || sampleSize <= 0) return 20;
         return Math.min(sampleSize, 50);
@@ -19,4 +29,13 @@ public record DiscoveryRequest(
     public boolean effectiveIncludeGroups() {
         return includeGroups == null || includeGroups;
     }
+
+    public int effectiveTimeBudgetSeconds() {
+        if (timeBudgetSeconds == null || timeBudgetSeconds <= 0) return 60;
+        return Math.min(timeBudgetSeconds, 600);
+    }
+
+    public boolean isResume() {
+        return resumeFrom != null && !resumeFrom.isEmpty();
+    }
 }
@@ -0,0 +1,24 @@
+package com.ldapadmin.dto.evidence;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Status of an asynchronous evidence package build.
+ *
+ * <p>{@code status} is one of {@code RUNNING}, {@code COMPLETED} or
+ * {@code FAILED}.  {@code s3Key} is set when the package was uploaded to S3
+ * instead of being kept for download.</p>
+ */
+public record EvidencePackageJobDto(
+        UUID id,
+        UUID directoryId,
+        String status,
+        int artifactsCompleted,
+        int artifactsTotal,
+        long bytesWritten,
+        String s3Key,
+        String error,
+        OffsetDateTime startedAt,
+        OffsetDateTime completedAt
+) {}
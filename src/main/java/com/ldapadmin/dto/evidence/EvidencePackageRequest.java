@@ -7,10 +7,14 @@ import java.util.UUID;
 
 /**
  * Request body for generating an evidence package ZIP.
+ *
+ * <p>{@code uploadToS3} applies to background jobs only: the finished package
+ * is streamed to the configured S3 bucket instead of kept for download.</p>
  */
 public record EvidencePackageRequest(
         @NotNull List<UUID> campaignIds,
         boolean includeSod,
         boolean includeEntitlements,
-        boolean includeAuditEvents
+        boolean includeAuditEvents,
+        boolean uploadToS3
 ) {}
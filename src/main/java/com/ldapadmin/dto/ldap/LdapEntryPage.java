@@ -0,0 +1,13 @@
+package com.ldapadmin.dto.ldap;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-based search.  Pass {@code cursor} back to fetch the
+ * next page; it is null once the search is exhausted.  {@code sorted} is
+ * false when the directory ignored the requested sort.
+ */
+public record LdapEntryPage(
+        List<LdapEntryResponse> entries,
+        String cursor,
+        boolean sorted) {}
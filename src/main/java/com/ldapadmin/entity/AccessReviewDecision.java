@@ -38,4 +38,7 @@ public class AccessReviewDecision {
 
     private OffsetDateTime decidedAt;
     private OffsetDateTime revokedAt;
+
+    @Version
+    private long version;
 }
@@ -32,6 +32,11 @@ public class AccessReviewGroup {
     @JoinColumn(name = "reviewer_id")
     private Account reviewer;
 
+    /** Progress counters, kept in step with the decisions as they are made. */
+    private int totalCount;
+    private int confirmedCount;
+    private int revokedCount;
+
     @OneToMany(mappedBy = "reviewGroup", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<AccessReviewDecision> decisions = new ArrayList<>();
 }
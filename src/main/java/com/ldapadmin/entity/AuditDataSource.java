@@ -1,5 +1,6 @@
 package com.ldapadmin.entity;
 
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
 import com.ldapadmin.entity.enums.ChangelogFormat;
 import com.ldapadmin.entity.enums.SslMode;
 import jakarta.persistence.*;
@@ -70,6 +71,23 @@ public class AuditDataSource {
     @Column(name = "dirsync_cookie")
     private byte[] dirsyncCookie;
 
+    /** Whether changes are polled or pushed by the server over a long-lived search. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_capture_mode", nullable = false, length = 10)
+    private ChangeCaptureMode changeCaptureMode = ChangeCaptureMode.POLL;
+
+    /**
+     * Highest {@code changeNumber} / {@code reqStart} recorded so far.  Written
+     * only through {@code AuditDataSourceRepository.updateChangePosition} so
+     * that saving the entity never rolls the position back.
+     */
+    @Column(name = "last_change_id", insertable = false, updatable = false)
+    private String lastChangeId;
+
+    /** RFC 4533 sync cookie for resuming a push stream; same write rules as {@link #lastChangeId}. */
+    @Column(name = "sync_cookie", insertable = false, updatable = false)
+    private byte[] syncCookie;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
@@ -101,6 +101,16 @@ public class DirectoryConnection {
     @Column(name = "self_service_login_attribute", length = 64)
     private String selfServiceLoginAttribute = "uid";
 
+    // ── Local replica ─────────────────────────────────────────────────────────
+
+    /**
+     * When {@code true} a full copy of the directory is kept in memory and
+     * kept current from change events; reports and counts read from it
+     * instead of the DC.  See {@code DirectoryReplicaService}.
+     */
+    @Column(name = "local_replica_enabled", nullable = false)
+    private boolean localReplicaEnabled = false;
+
     // ── Application user repository ───────────────────────────────────────────
 
     /**
@@ -0,0 +1,68 @@
+package com.ldapadmin.entity;
+
+import com.ldapadmin.entity.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A notification email waiting in the transactional outbox.
+ *
+ * <p>One row may address several recipients (comma-separated) who receive
+ * identical content; they are delivered as one SMTP transaction with multiple
+ * {@code RCPT TO} commands.</p>
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    /** Comma-separated envelope recipients. */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String recipients;
+
+    @Column(nullable = false, length = 998)
+    private String subject;
+
+    /** AES-256 encrypted plain-text body. */
+    @Column(name = "body_encrypted", nullable = false, columnDefinition = "TEXT")
+    private String bodyEncrypted;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Builder.Default
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt = OffsetDateTime.now();
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    @Column(name = "sent_at")
+    private OffsetDateTime sentAt;
+}
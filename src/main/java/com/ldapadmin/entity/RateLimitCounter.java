@@ -0,0 +1,31 @@
+package com.ldapadmin.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Hits on one rate-limit key in one fixed window, shared by every node
+ * when {@code ldapadmin.rate-limit.backend=database}.  Rows are written by
+ * a native upsert and deleted once {@code expiresAt} has passed.
+ */
+@Entity
+@Table(name = "rate_limit_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RateLimitCounter {
+
+    /** {@code limiter:window:key}. */
+    @Id
+    @Column(nullable = false, updatable = false)
+    private String bucket;
+
+    @Column(nullable = false)
+    private int hits;
+
+    /** Epoch milliseconds after which the row is no longer read. */
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
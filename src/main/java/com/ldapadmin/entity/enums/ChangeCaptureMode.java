@@ -0,0 +1,18 @@
+package com.ldapadmin.entity.enums;
+
+/**
+ * How changes are read from an audit source's changelog.
+ */
+public enum ChangeCaptureMode {
+
+    /** Periodic searches from the last recorded position. */
+    POLL,
+
+    /**
+     * Long-lived search that the server pushes new changelog entries to:
+     * persistent search for {@code cn=changelog}, RFC 4533 refreshAndPersist
+     * for OpenLDAP accesslog.  Falls back to polling for formats that support
+     * neither (AD DirSync).
+     */
+    PUSH
+}
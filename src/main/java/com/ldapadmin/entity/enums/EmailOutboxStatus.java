@@ -0,0 +1,5 @@
+package com.ldapadmin.entity.enums;
+
+public enum EmailOutboxStatus {
+    PENDING, SENT, FAILED
+}
@@ -2,6 +2,7 @@ package com.ldapadmin.exception;
 
 import com.ldapadmin.exception.TooManyRequestsException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,7 +25,8 @@ import java.util.stream.Collectors;
  *   <li>401 — bad credentials ({@link BadCredentialsException})</li>
  *   <li>403 — access denied ({@link AccessDeniedException})</li>
  *   <li>404 — resource not found ({@link ResourceNotFoundException})</li>
- *   <li>409 — duplicate/conflict ({@link ConflictException})</li>
+ *   <li>409 — duplicate/conflict ({@link ConflictException}, or a row changed
+ *       concurrently: {@link OptimisticLockingFailureException})</li>
  *   <li>500 — everything else</li>
  * </ul>
  * </p>
@@ -72,6 +74,14 @@ public class GlobalExceptionHandler {
         return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    /** A {@code @Version} check failed at flush or commit: someone else changed the row first. */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLock(OptimisticLockingFailureException ex) {
+        log.debug("Optimistic lock failure: {}", ex.getMessage());
+        return handleConflict(new ConflictException(
+                "This record was changed by someone else in the meantime. Reload and try again."));
+    }
+
     @ExceptionHandler(LdapConnectionException.class)
     public ProblemDetail handleLdapConnection(LdapConnectionException ex) {
         log.warn("LDAP connection error: {}", ex.getMessage());
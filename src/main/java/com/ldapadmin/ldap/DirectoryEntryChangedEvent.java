@@ -0,0 +1,44 @@
+package com.ldapadmin.ldap;
+
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.RDN;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Published whenever an entry in a managed directory is known to have
+ * changed — written through this application or picked up from the server's
+ * changelog.  {@link DirectoryReplicaService} re-reads the affected entries.
+ *
+ * @param directoryId directory the entry belongs to
+ * @param dn          DN of the changed entry (the old DN for a rename or move)
+ * @param newDn       DN after a rename or move, otherwise {@code null}
+ */
+public record DirectoryEntryChangedEvent(UUID directoryId, String dn, String newDn) {
+
+    /**
+     * Builds the event from an audit event's target DN and detail map,
+     * deriving the new DN from {@code newRDN}/{@code newRdn} and
+     * {@code newSuperior}/{@code newParentDn} when present.
+     */
+    public static DirectoryEntryChangedEvent of(UUID directoryId, String dn, Map<String, Object> detail) {
+        return new DirectoryEntryChangedEvent(directoryId, dn, newDn(dn, detail));
+    }
+
+    static String newDn(String dn, Map<String, Object> detail) {
+        if (dn == null || detail == null) return null;
+        Object rdn = detail.get("newRDN") != null ? detail.get("newRDN") : detail.get("newRdn");
+        Object parent = detail.get("newSuperior") != null ? detail.get("newSuperior") : detail.get("newParentDn");
+        if (rdn == null && parent == null) return null;
+        try {
+            DN oldDn = new DN(dn);
+            RDN newRdn = rdn != null ? new RDN(rdn.toString()) : oldDn.getRDN();
+            DN newParent = parent != null ? new DN(parent.toString()) : oldDn.getParent();
+            return new DN(newRdn, newParent).toString();
+        } catch (LDAPException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ldapadmin.ldap;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link LdapConnectionFactory} when a directory stops
+ * handing out connections, and again when it next does.  Only transitions
+ * are published, not every failed or successful operation.
+ *
+ * @param error why no connection could be obtained; {@code null} when reachable
+ */
+public record DirectoryReachabilityEvent(UUID directoryId,
+                                         String directoryName,
+                                         String host,
+                                         int port,
+                                         boolean reachable,
+                                         String error) {}
@@ -0,0 +1,374 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.RDN;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
+import com.unboundid.ldap.sdk.schema.Schema;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of one directory's entries below its base DN.
+ *
+ * <p>Entries are kept in a sorted map keyed by their DN with the RDNs
+ * reversed, so a subtree is one contiguous key range.  An
+ * {@code objectClass} index narrows the candidates for the usual
+ * "all users" / "all groups" filters; every candidate is still checked
+ * with {@link Filter#matchesEntry}.  Writers (seed, change application) and
+ * readers may run concurrently; readers see each entry either before or
+ * after a change.</p>
+ *
+ * <p>Only the attributes it was seeded with are held; {@link #holds} tells
+ * whether a search can be answered from them.</p>
+ */
+final class DirectoryReplica {
+
+    /** Separates reversed RDNs in a key; sorts below any normalised RDN character. */
+    private static final char SEP = '\u0001';
+
+    private static final Schema SCHEMA = defaultSchema();
+
+    private final DN                 baseDn;
+    private final OffsetDateTime     sourceVersion;
+    private final DirectoryConnection directory;
+    private final Projection         held;
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> byObjectClass = new ConcurrentHashMap<>();
+
+    private volatile OffsetDateTime seededAt;
+    private volatile OffsetDateTime watermark;
+    private volatile String         staleReason;
+
+    /**
+     * @param attributes the attributes the entries are read with, as
+     *                   requested from the server
+     */
+    DirectoryReplica(DirectoryConnection directory, String... attributes) throws LDAPException {
+        this.directory = directory;
+        this.baseDn = new DN(directory.getBaseDn());
+        this.sourceVersion = directory.getUpdatedAt();
+        this.held = new Projection(attributes);
+    }
+
+    DirectoryConnection directory() {
+        return directory;
+    }
+
+    /** The connection's {@code updatedAt} when the replica was seeded. */
+    OffsetDateTime sourceVersion() {
+        return sourceVersion;
+    }
+
+    OffsetDateTime seededAt() {
+        return seededAt;
+    }
+
+    /** Changes reported before this instant are reflected in the replica. */
+    OffsetDateTime watermark() {
+        return watermark;
+    }
+
+    /** Why the replica must not be read although its watermark is recent, or {@code null}. */
+    String staleReason() {
+        return staleReason;
+    }
+
+    void markSeeded(OffsetDateTime at) {
+        seededAt = at;
+        watermark = at;
+        staleReason = null;
+    }
+
+    /** Moves the watermark forward (never back) and clears a stale mark. */
+    void advanceWatermark(OffsetDateTime to) {
+        OffsetDateTime current = watermark;
+        if (current == null || to.isAfter(current)) {
+            watermark = to;
+        }
+        staleReason = null;
+    }
+
+    /** Stops reads until the next seed or confirmed change-feed pass. */
+    void markStale(String reason) {
+        staleReason = reason;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /** Whether a search based at {@code dn} is answered entirely by this replica. */
+    boolean covers(String dn) {
+        try {
+            return new DN(dn).isDescendantOf(baseDn, true);
+        } catch (LDAPException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether every attribute {@code filter} tests and every requested
+     * attribute is held, so the search gives the server's answer.
+     */
+    boolean holds(Filter filter, String... attributes) {
+        Projection requested = new Projection(attributes);
+        if ((requested.allUser && !held.allUser) || (requested.allOperational && !held.allOperational)) {
+            return false;
+        }
+        for (String name : requested.named) {
+            if (!held.keeps(name)) return false;
+        }
+        return holdsFilterAttributes(filter);
+    }
+
+    private boolean holdsFilterAttributes(Filter filter) {
+        switch (filter.getFilterType()) {
+            case Filter.FILTER_TYPE_AND, Filter.FILTER_TYPE_OR -> {
+                for (Filter component : filter.getComponents()) {
+                    if (!holdsFilterAttributes(component)) return false;
+                }
+                return true;
+            }
+            case Filter.FILTER_TYPE_NOT -> {
+                return holdsFilterAttributes(filter.getNOTComponent());
+            }
+            default -> {
+                String name = filter.getAttributeName();
+                return name != null && held.keeps(Attribute.getBaseName(name).toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    // ── Writes ────────────────────────────────────────────────────────────────
+
+    void put(Entry entry) throws LDAPException {
+        String key = key(entry.getParsedDN());
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+        for (String oc : objectClasses(entry)) {
+            byObjectClass.computeIfAbsent(oc, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    /** Removes the entry and everything below it. */
+    void removeSubtree(String dn) throws LDAPException {
+        NavigableMap<String, Entry> subtree = subtree(key(new DN(dn)));
+        for (Map.Entry<String, Entry> e : List.copyOf(subtree.entrySet())) {
+            entries.remove(e.getKey());
+            unindex(e.getKey(), e.getValue());
+        }
+    }
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    /** The entry at {@code dn} and, for {@link SearchScope#SUB}, everything below it, as held. */
+    List<Entry> entries(String dn, SearchScope scope) throws LDAPException {
+        String key = key(new DN(dn));
+        if (scope == SearchScope.BASE) {
+            Entry entry = entries.get(key);
+            return entry != null ? List.of(entry) : List.of();
+        }
+        return List.copyOf(subtree(key).values());
+    }
+
+    /**
+     * Evaluates a subtree search.
+     *
+     * @throws LDAPException if the filter uses a matching rule the SDK cannot
+     *                       evaluate locally (e.g. extensible match)
+     */
+    List<Entry> search(String searchBase, Filter filter, int maxResults,
+                       String... attributes) throws LDAPException {
+        List<Entry> results = new ArrayList<>();
+        search(searchBase, filter, maxResults, results::add, attributes);
+        return results;
+    }
+
+    /**
+     * Evaluates a subtree search and hands each projected match to
+     * {@code consumer}.  The filter is evaluated against every candidate
+     * before the first entry is handed over, so an exception never leaves
+     * the consumer with a partial result.
+     *
+     * @return the number of entries passed to {@code consumer}
+     * @throws LDAPException if the filter uses a matching rule the SDK cannot
+     *                       evaluate locally (e.g. extensible match)
+     */
+    int search(String searchBase, Filter filter, int maxResults,
+               Consumer<Entry> consumer, String... attributes) throws LDAPException {
+        String baseKey = key(new DN(searchBase));
+        NavigableMap<String, Entry> scope = subtree(baseKey);
+        Set<String> candidates = candidates(filter);
+
+        Collection<String> keys;
+        if (candidates == null) {
+            keys = scope.keySet();
+        } else {
+            List<String> inScope = new ArrayList<>();
+            for (String key : candidates) {
+                if (isWithin(key, baseKey)) inScope.add(key);
+            }
+            inScope.sort(Comparator.naturalOrder());
+            keys = inScope;
+        }
+
+        List<Entry> matches = new ArrayList<>();
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry == null || !filter.matchesEntry(entry, SCHEMA)) continue;
+            matches.add(entry);
+            if (matches.size() >= maxResults) break;
+        }
+
+        Projection projection = new Projection(attributes);
+        for (Entry entry : matches) {
+            consumer.accept(projection.apply(entry));
+        }
+        return matches.size();
+    }
+
+    /**
+     * Keys of entries that can match {@code filter}, from the objectClass
+     * index; {@code null} when the filter gives no usable bound.
+     */
+    private Set<String> candidates(Filter filter) {
+        switch (filter.getFilterType()) {
+            case Filter.FILTER_TYPE_EQUALITY -> {
+                if (!"objectclass".equalsIgnoreCase(filter.getAttributeName())) return null;
+                return byObjectClass.getOrDefault(
+                        filter.getAssertionValue().toLowerCase(Locale.ROOT), Set.of());
+            }
+            case Filter.FILTER_TYPE_AND -> {
+                Set<String> smallest = null;
+                for (Filter component : filter.getComponents()) {
+                    Set<String> c = candidates(component);
+                    if (c != null && (smallest == null || c.size() < smallest.size())) smallest = c;
+                }
+                return smallest;
+            }
+            case Filter.FILTER_TYPE_OR -> {
+                Set<String> union = new HashSet<>();
+                for (Filter component : filter.getComponents()) {
+                    Set<String> c = candidates(component);
+                    if (c == null) return null;
+                    union.addAll(c);
+                }
+                return union;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private NavigableMap<String, Entry> subtree(String key) {
+        return entries.subMap(key, true, key + (char) (SEP + 1), false);
+    }
+
+    private static boolean isWithin(String key, String baseKey) {
+        return key.equals(baseKey)
+                || (key.startsWith(baseKey) && key.charAt(baseKey.length()) == SEP);
+    }
+
+    private void unindex(String key, Entry entry) {
+        for (String oc : objectClasses(entry)) {
+            Set<String> keys = byObjectClass.get(oc);
+            if (keys != null) keys.remove(key);
+        }
+    }
+
+    private static List<String> objectClasses(Entry entry) {
+        String[] values = entry.getObjectClassValues();
+        if (values == null) return List.of();
+        List<String> out = new ArrayList<>(values.length);
+        for (String v : values) out.add(v.toLowerCase(Locale.ROOT));
+        return out;
+    }
+
+    static String key(DN dn) {
+        RDN[] rdns = dn.getRDNs();
+        StringBuilder sb = new StringBuilder();
+        for (int i = rdns.length - 1; i >= 0; i--) {
+            if (sb.length() > 0) sb.append(SEP);
+            sb.append(rdns[i].toNormalizedString());
+        }
+        return sb.toString();
+    }
+
+    private static Schema defaultSchema() {
+        try {
+            return Schema.getDefaultStandardSchema();
+        } catch (LDAPException e) {
+            return null;
+        }
+    }
+
+    /** Applies the requested attribute list the way a server would. */
+    private static final class Projection {
+        private final boolean allUser;
+        private final boolean allOperational;
+        private final boolean dnOnly;
+        private final Set<String> named = new HashSet<>();
+
+        Projection(String... attributes) {
+            boolean user = attributes == null || attributes.length == 0;
+            boolean operational = false;
+            boolean none = false;
+            if (attributes != null) {
+                for (String a : attributes) {
+                    switch (a) {
+                        case "*" -> user = true;
+                        case "+" -> operational = true;
+                        case "1.1" -> none = true;
+                        default -> named.add(Attribute.getBaseName(a).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            this.allUser = user;
+            this.allOperational = operational;
+            this.dnOnly = none && !user && !operational && named.isEmpty();
+        }
+
+        Entry apply(Entry entry) {
+            if (dnOnly) return new Entry(entry.getDN());
+            List<Attribute> kept = new ArrayList<>();
+            for (Attribute attr : entry.getAttributes()) {
+                if (keeps(attr.getBaseName().toLowerCase(Locale.ROOT))) kept.add(attr);
+            }
+            return new Entry(entry.getDN(), kept);
+        }
+
+        /** Whether the (lower-case base) attribute name is selected. */
+        boolean keeps(String name) {
+            return named.contains(name) || (isOperational(name) ? allOperational : allUser);
+        }
+
+        private static boolean isOperational(String name) {
+            if (SCHEMA == null) return false;
+            AttributeTypeDefinition type = SCHEMA.getAttributeType(name);
+            return type != null && type.isOperational();
+        }
+    }
+}
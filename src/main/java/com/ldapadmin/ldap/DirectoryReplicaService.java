@@ -0,0 +1,457 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.dto.directory.DirectoryReplicaStatus;
+import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.ldapadmin.ldap.model.LdapUser;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPSearchException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional per-directory read model for analytics.
+ *
+ * <p>For connections with {@code localReplicaEnabled}, the whole subtree
+ * below the base DN is loaded with one paged read of the
+ * {@code ldapadmin.replica.attributes} and held in a {@link DirectoryReplica}.
+ * It is kept current from {@link DirectoryEntryChangedEvent}s — writes made
+ * through this application and changes the linked audit source reads from
+ * the server's changelog — by re-reading just the affected entries, and is
+ * re-seeded every {@code ldapadmin.replica.reseed-interval-minutes} to bound
+ * drift from changes that no feed reported.  When a group's members change,
+ * the members added or removed are re-read too, since the server updates
+ * their {@code memberOf} back-links without reporting a change of its own.</p>
+ *
+ * <p>With a linked audit source the watermark follows the position
+ * {@link LdapChangelogReader} confirms for it; while that source is
+ * disabled or failing the replica is stale and not read.</p>
+ *
+ * <p>Reports, snapshots and dashboard counts call {@link #searchUsers} /
+ * {@link #searchGroups} (or the streaming {@link #processUsers} /
+ * {@link #processGroups}) first; an empty result means "ask the DC" — the
+ * directory has no replica, it is not loaded yet or is stale, its watermark
+ * is older than {@code ldapadmin.replica.max-staleness-minutes}, or the
+ * filter or requested attributes cannot be answered from what it holds.  Interactive screens keep reading the DC.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DirectoryReplicaService {
+
+    private static final Duration RETRY_AFTER_FAILURE = Duration.ofMinutes(5);
+
+    /** Group attributes whose values carry a {@code memberOf} back-link on the member. */
+    private static final String[] MEMBER_ATTRIBUTES = {"member", "uniqueMember", "memberUid"};
+
+    /** Marks a {@code memberUid} value among member DNs; never the start of a DN. */
+    private static final String UID_PREFIX = "#uid:";
+
+    private final DirectoryConnectionRepository dirRepo;
+    private final LdapConnectionFactory         connectionFactory;
+    private final LdapChangelogReader           changelogReader;
+
+    @Value("${ldapadmin.replica.reseed-interval-minutes:30}")
+    private long reseedIntervalMinutes;
+
+    @Value("${ldapadmin.replica.max-staleness-minutes:60}")
+    private long maxStalenessMinutes;
+
+    @Value("${ldapadmin.replica.max-entries:500000}")
+    private int maxEntries;
+
+    @Value("${ldapadmin.replica.attributes:objectClass,cn,uid,sAMAccountName,userPrincipalName,"
+            + "displayName,givenName,sn,mail,title,departmentNumber,department,ou,employeeNumber,"
+            + "employeeType,manager,memberOf,member,uniqueMember,memberUid,createTimestamp,modifyTimestamp}")
+    private String[] seedAttributes;
+
+    private final Map<UUID, DirectoryReplica> replicas = new ConcurrentHashMap<>();
+
+    /** Directories currently being (re-)seeded; their change queue is held until the swap. */
+    private final Set<UUID> seeding = ConcurrentHashMap.newKeySet();
+
+    /** Changed DNs not yet re-read, per directory. */
+    private final Map<UUID, Set<DirectoryEntryChangedEvent>> pending = new ConcurrentHashMap<>();
+
+    /** Last failed seed per directory, so an unreachable directory is not retried every pass. */
+    private final Map<UUID, OffsetDateTime> failedAt = new ConcurrentHashMap<>();
+    private final Map<UUID, String> lastError = new ConcurrentHashMap<>();
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Answers a user search from the replica.
+     *
+     * @return the users, or empty if the caller should search the DC instead
+     */
+    public Optional<List<LdapUser>> searchUsers(DirectoryConnection dc, String filter, String baseDn,
+                                                int maxResults, String... attributes) {
+        return search(dc, filter, baseDn, maxResults, attributes, LdapEntryMapper::toUser);
+    }
+
+    /**
+     * Answers a group search from the replica.
+     *
+     * @return the groups, or empty if the caller should search the DC instead
+     */
+    public Optional<List<LdapGroup>> searchGroups(DirectoryConnection dc, String filter, String baseDn,
+                                                  int maxResults, String... attributes) {
+        return search(dc, filter, baseDn, maxResults, attributes, LdapEntryMapper::toGroup);
+    }
+
+    /**
+     * Streams the users matching a search from the replica to {@code consumer}.
+     *
+     * @return {@code false} — with nothing passed to {@code consumer} — if the
+     *         caller should search the DC instead
+     */
+    public boolean processUsers(DirectoryConnection dc, String filter, String baseDn,
+                                Consumer<LdapUser> consumer, String... attributes) {
+        return process(dc, filter, baseDn, attributes, e -> consumer.accept(LdapEntryMapper.toUser(e)));
+    }
+
+    /**
+     * Streams the groups matching a search from the replica to {@code consumer}.
+     *
+     * @return {@code false} — with nothing passed to {@code consumer} — if the
+     *         caller should search the DC instead
+     */
+    public boolean processGroups(DirectoryConnection dc, String filter, String baseDn,
+                                 Consumer<LdapGroup> consumer, String... attributes) {
+        return process(dc, filter, baseDn, attributes, e -> consumer.accept(LdapEntryMapper.toGroup(e)));
+    }
+
+    public DirectoryReplicaStatus status(UUID directoryId) {
+        DirectoryConnection dc = dirRepo.findById(directoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("DirectoryConnection", directoryId));
+        DirectoryReplica replica = replicas.get(directoryId);
+        String state;
+        if (!dc.isLocalReplicaEnabled()) {
+            state = "DISABLED";
+        } else if (seeding.contains(directoryId)) {
+            state = "SEEDING";
+        } else if (replica == null) {
+            state = lastError.containsKey(directoryId) ? "FAILED" : "NOT_LOADED";
+        } else {
+            state = isFresh(replica) ? "READY" : "STALE";
+        }
+        return new DirectoryReplicaStatus(directoryId, dc.isLocalReplicaEnabled(), state,
+                replica != null ? replica.size() : 0,
+                replica != null ? replica.seededAt() : null,
+                replica != null ? replica.watermark() : null,
+                lastError.getOrDefault(directoryId, replica != null ? replica.staleReason() : null));
+    }
+
+    private <T> Optional<List<T>> search(DirectoryConnection dc, String filter, String baseDn,
+                                         int maxResults, String[] attributes,
+                                         Function<Entry, T> mapper) {
+        List<T> results = new ArrayList<>();
+        return run(dc, filter, baseDn, attributes, (replica, searchBase, parsed) ->
+                replica.search(searchBase, parsed, maxResults, e -> results.add(mapper.apply(e)), attributes))
+                ? Optional.of(results) : Optional.empty();
+    }
+
+    private boolean process(DirectoryConnection dc, String filter, String baseDn,
+                            String[] attributes, Consumer<Entry> consumer) {
+        return run(dc, filter, baseDn, attributes, (replica, searchBase, parsed) ->
+                replica.search(searchBase, parsed, Integer.MAX_VALUE, consumer, attributes));
+    }
+
+    /** Runs {@code search} against a usable replica; {@code false} if there is none. */
+    private boolean run(DirectoryConnection dc, String filter, String baseDn, String[] attributes,
+                        ReplicaSearch search) {
+        if (!dc.isLocalReplicaEnabled()) return false;
+        DirectoryReplica replica = replicas.get(dc.getId());
+        String searchBase = baseDn != null ? baseDn : dc.getBaseDn();
+        if (replica == null || !isCurrent(replica, dc) || !isFresh(replica)
+                || !replica.covers(searchBase)) {
+            return false;
+        }
+        try {
+            Filter parsed = Filter.create(filter);
+            if (!replica.holds(parsed, attributes)) return false;
+            search.run(replica, searchBase, parsed);
+            return true;
+        } catch (LDAPException e) {
+            log.debug("Filter {} not evaluated from replica of [{}]: {}",
+                    filter, dc.getDisplayName(), e.getMessage());
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReplicaSearch {
+        void run(DirectoryReplica replica, String searchBase, Filter filter) throws LDAPException;
+    }
+
+    private boolean isFresh(DirectoryReplica replica) {
+        OffsetDateTime watermark = replica.watermark();
+        return replica.staleReason() == null && watermark != null
+                && watermark.isAfter(OffsetDateTime.now().minusMinutes(maxStalenessMinutes));
+    }
+
+    /** False once the connection was edited after the replica was seeded. */
+    private static boolean isCurrent(DirectoryReplica replica, DirectoryConnection dc) {
+        OffsetDateTime seededFrom = replica.sourceVersion();
+        return seededFrom == null ? dc.getUpdatedAt() == null
+                : dc.getUpdatedAt() != null && seededFrom.isEqual(dc.getUpdatedAt());
+    }
+
+    // ── Seeding ───────────────────────────────────────────────────────────────
+
+    /**
+     * Seeds replicas that are missing, due for a refresh or built from an
+     * older version of the connection, and drops replicas of directories
+     * that were disabled, deleted or opted out.
+     */
+    @Scheduled(fixedDelayString = "${ldapadmin.replica.check-interval-ms:60000}",
+               initialDelayString = "${ldapadmin.replica.initial-delay-ms:20000}")
+    public void maintain() {
+        Map<UUID, DirectoryConnection> wanted = dirRepo.findAllByEnabledTrue().stream()
+                .filter(DirectoryConnection::isLocalReplicaEnabled)
+                .collect(Collectors.toMap(DirectoryConnection::getId, dc -> dc));
+        replicas.keySet().retainAll(wanted.keySet());
+        pending.keySet().retainAll(wanted.keySet());
+        failedAt.keySet().retainAll(wanted.keySet());
+        lastError.keySet().retainAll(wanted.keySet());
+
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime due = now.minusMinutes(reseedIntervalMinutes);
+        for (DirectoryConnection dc : wanted.values()) {
+            DirectoryReplica replica = replicas.get(dc.getId());
+            OffsetDateTime failed = failedAt.get(dc.getId());
+            boolean needed = replica == null || !isCurrent(replica, dc) || replica.seededAt().isBefore(due);
+            boolean backingOff = failed != null && failed.isAfter(now.minus(RETRY_AFTER_FAILURE));
+            if (needed && !backingOff) {
+                seed(dc);
+            }
+        }
+    }
+
+    /**
+     * Reads the directory in full, a page at a time, and swaps the result in.
+     * Gives up once it holds more than {@code ldapadmin.replica.max-entries}.
+     */
+    void seed(DirectoryConnection dc) {
+        UUID id = dc.getId();
+        seeding.add(id);
+        try {
+            OffsetDateTime startedAt = OffsetDateTime.now();
+            DirectoryReplica replica = new DirectoryReplica(dc, seedAttributes);
+            int count = connectionFactory.withConnection(dc, conn -> {
+                int pageSize = Math.max(1, dc.getPagingSize());
+                ASN1OctetString cookie = null;
+                do {
+                    SearchRequest request = new SearchRequest(dc.getBaseDn(), SearchScope.SUB,
+                            Filter.createPresenceFilter("objectClass"), seedAttributes);
+                    request.addControl(new SimplePagedResultsControl(pageSize, cookie));
+                    SearchResult result = conn.search(request);
+                    for (SearchResultEntry entry : result.getSearchEntries()) {
+                        replica.put(entry);
+                    }
+                    if (replica.size() > maxEntries) {
+                        throw new LDAPException(ResultCode.SIZE_LIMIT_EXCEEDED,
+                                "more than " + maxEntries + " entries below " + dc.getBaseDn());
+                    }
+                    SimplePagedResultsControl paging = SimplePagedResultsControl.get(result);
+                    cookie = paging != null && paging.moreResultsToReturn() ? paging.getCookie() : null;
+                } while (cookie != null);
+                return replica.size();
+            });
+            // Changes reported during the read are still queued and re-applied on top
+            replica.markSeeded(startedAt);
+            replicas.put(id, replica);
+            failedAt.remove(id);
+            lastError.remove(id);
+            log.info("Seeded local replica of [{}] with {} entries in {} ms", dc.getDisplayName(), count,
+                    Duration.between(startedAt, OffsetDateTime.now()).toMillis());
+        } catch (Exception e) {
+            failedAt.put(id, OffsetDateTime.now());
+            lastError.put(id, e.getMessage());
+            log.warn("Could not seed local replica of [{}]: {}", dc.getDisplayName(), e.getMessage());
+        } finally {
+            seeding.remove(id);
+        }
+    }
+
+    // ── Change application ────────────────────────────────────────────────────
+
+    @EventListener
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        UUID id = event.directoryId();
+        if (replicas.containsKey(id) || seeding.contains(id)) {
+            pending.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(event);
+        }
+    }
+
+    /**
+     * Re-reads the entries named by queued change events.  For directories
+     * with a changelog-fed audit source the watermark then advances to the
+     * position the feed confirmed before the queue was drained, and the
+     * replica is marked stale while the feed is disabled or failing;
+     * otherwise only the periodic re-seed advances it, since changes made
+     * outside this application go unreported.
+     */
+    @Scheduled(fixedDelayString = "${ldapadmin.replica.apply-interval-ms:2000}")
+    public void applyPendingChanges() {
+        for (Map.Entry<UUID, DirectoryReplica> e : replicas.entrySet()) {
+            UUID id = e.getKey();
+            if (seeding.contains(id)) continue;
+            DirectoryReplica replica = e.getValue();
+            // Read before draining: changes confirmed by then are already queued
+            AuditDataSource feed = replica.directory().getAuditDataSource();
+            OffsetDateTime confirmed = feed != null ? changelogReader.confirmedThrough(feed.getId()) : null;
+            String feedError = feed != null ? changelogReader.feedError(feed.getId()) : null;
+            Set<DirectoryEntryChangedEvent> queue = pending.get(id);
+            Set<DirectoryEntryChangedEvent> batch = new LinkedHashSet<>();
+            if (queue != null) {
+                for (DirectoryEntryChangedEvent event : queue) {
+                    batch.add(event);
+                    queue.remove(event);
+                }
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    apply(replica, batch);
+                }
+                if (feedError != null) {
+                    if (replica.staleReason() == null) {
+                        log.warn("Replica of [{}] is stale: change feed not confirmed ({})",
+                                replica.directory().getDisplayName(), feedError);
+                    }
+                    replica.markStale("Change feed: " + feedError);
+                } else if (confirmed != null) {
+                    replica.advanceWatermark(confirmed);
+                }
+            } catch (Exception ex) {
+                // Keep the changes for the next pass; the watermark stays put
+                pending.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).addAll(batch);
+                log.warn("Could not apply {} change(s) to replica of [{}]: {}",
+                        batch.size(), replica.directory().getDisplayName(), ex.getMessage());
+            }
+        }
+    }
+
+    private void apply(DirectoryReplica replica, Set<DirectoryEntryChangedEvent> batch) {
+        DirectoryConnection dc = replica.directory();
+        connectionFactory.withConnection(dc, conn -> {
+            // Members whose memberOf the server rewrote along with a group
+            Set<String> linked = new LinkedHashSet<>();
+            for (DirectoryEntryChangedEvent event : batch) {
+                if (event.newDn() != null) {
+                    // Rename or move: everything below the old DN moved too
+                    linked.addAll(members(replica, event.dn(), SearchScope.SUB));
+                    if (replica.covers(event.dn())) replica.removeSubtree(event.dn());
+                    refresh(replica, conn, event.newDn(), SearchScope.SUB);
+                    linked.addAll(members(replica, event.newDn(), SearchScope.SUB));
+                } else {
+                    Set<String> before = members(replica, event.dn(), SearchScope.BASE);
+                    refresh(replica, conn, event.dn(), SearchScope.BASE);
+                    Set<String> after = members(replica, event.dn(), SearchScope.BASE);
+                    for (String member : before) {
+                        if (!after.remove(member)) linked.add(member);
+                    }
+                    linked.addAll(after);
+                }
+            }
+            Set<String> uids = new LinkedHashSet<>();
+            for (String member : linked) {
+                if (member.startsWith(UID_PREFIX)) {
+                    uids.add(member.substring(UID_PREFIX.length()));
+                } else {
+                    refresh(replica, conn, member, SearchScope.BASE);
+                }
+            }
+            if (!uids.isEmpty()) {
+                // memberUid names the user by uid: one pass over the replica finds them all
+                List<String> dns = new ArrayList<>();
+                Filter anyUid = Filter.createORFilter(uids.stream()
+                        .map(uid -> Filter.createEqualityFilter("uid", uid)).toList());
+                replica.search(dc.getBaseDn(), anyUid, Integer.MAX_VALUE, e -> dns.add(e.getDN()), "1.1");
+                for (String dn : dns) {
+                    refresh(replica, conn, dn, SearchScope.BASE);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * The members of the groups held at (and, for {@link SearchScope#SUB},
+     * below) {@code dn}: normalised DNs, and {@code memberUid} values with
+     * {@link #UID_PREFIX}.
+     */
+    private static Set<String> members(DirectoryReplica replica, String dn, SearchScope scope)
+            throws LDAPException {
+        Set<String> members = new LinkedHashSet<>();
+        if (!replica.covers(dn)) return members;
+        for (Entry group : replica.entries(dn, scope)) {
+            for (String attribute : MEMBER_ATTRIBUTES) {
+                String[] values = group.getAttributeValues(attribute);
+                if (values == null) continue;
+                for (String value : values) {
+                    if ("memberUid".equals(attribute)) {
+                        members.add(UID_PREFIX + value);
+                        continue;
+                    }
+                    // uniqueMember may carry an optional "#'…'B" unique identifier
+                    int hash = value.lastIndexOf('#');
+                    String memberDn = "uniqueMember".equals(attribute) && hash > 0 ? value.substring(0, hash) : value;
+                    if (DN.isValidDN(memberDn)) {
+                        members.add(new DN(memberDn).toNormalizedString());
+                    }
+                }
+            }
+        }
+        return members;
+    }
+
+    private void refresh(DirectoryReplica replica, LDAPConnection conn,
+                         String dn, SearchScope scope) throws LDAPException {
+        if (!replica.covers(dn)) return;
+        SearchResult result;
+        try {
+            result = conn.search(new SearchRequest(dn, scope,
+                    Filter.createPresenceFilter("objectClass"), seedAttributes));
+        } catch (LDAPSearchException ex) {
+            if (ex.getResultCode() != ResultCode.NO_SUCH_OBJECT) throw ex;
+            replica.removeSubtree(dn);
+            return;
+        }
+        for (SearchResultEntry entry : result.getSearchEntries()) {
+            replica.put(entry);
+        }
+    }
+}
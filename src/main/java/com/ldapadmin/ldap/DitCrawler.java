@@ -0,0 +1,275 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.config.ExecutorConfig;
+import com.ldapadmin.dto.discovery.CrawlPosition;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.exception.LdapOperationException;
+import com.ldapadmin.ldap.LdapBrowseService.SearchEntry;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.*;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Parallel crawler that finds the containers holding user entries.
+ *
+ * <p>Each container costs one one-level search for both people and child
+ * containers.  The same search counts the people, up to a cap, and keeps
+ * full entries for the first few as a sample.  A container that holds
+ * people is reported and not descended into.  Otherwise its child
+ * containers are queued.  Containers are searched on the
+ * {@link ExecutorConfig#CRAWL_EXECUTOR crawl executor}, and at most
+ * {@code ldapadmin.discovery.max-in-flight} searches run against one
+ * directory at a time, across all crawls.</p>
+ *
+ * <p>When the time budget runs out, containers not yet searched are
+ * returned as {@link Result#pending()}.  Passing them back as the start
+ * positions resumes the crawl.</p>
+ */
+@Service
+@Slf4j
+public class DitCrawler {
+
+    /** A container holding people; {@code userCount} is capped at the crawl's count limit. */
+    public record UserContainer(String dn, int userCount, List<SearchEntry> samples) {}
+
+    /**
+     * What a crawl should look for.
+     *
+     * @param personFilter    filter matching user entries
+     * @param containerFilter filter matching containers to descend into
+     * @param sampleSize      user entries to keep per container, with all attributes
+     * @param countLimit      stop counting a container's users at this many
+     * @param maxDepth        containers deeper than this below the start are skipped
+     * @param budget          overall time allowed
+     */
+    public record Options(String personFilter, String containerFilter, int sampleSize,
+                          int countLimit, int maxDepth, Duration budget) {}
+
+    /**
+     * @param visited  containers searched
+     * @param pending  containers left unsearched when the budget ran out;
+     *                 empty when the crawl completed
+     * @param warnings containers that could not be searched
+     */
+    public record Result(int visited, List<CrawlPosition> pending, List<String> warnings) {
+        public boolean complete() {
+            return pending.isEmpty();
+        }
+    }
+
+    private final LdapConnectionFactory connectionFactory;
+    private final Executor              executor;
+    private final int                   maxInFlight;
+
+    private final Map<UUID, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public DitCrawler(LdapConnectionFactory connectionFactory,
+                      @Qualifier(ExecutorConfig.CRAWL_EXECUTOR) Executor executor,
+                      @Value("${ldapadmin.discovery.max-in-flight:4}") int maxInFlight) {
+        this.connectionFactory = connectionFactory;
+        this.executor          = executor;
+        this.maxInFlight       = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Crawls down from {@code start}, passing each container that holds
+     * people to {@code sink} as it is found.  Calls to {@code sink} are
+     * serialised but come from crawler threads, in no particular order; an
+     * exception from {@code sink} stops the crawl and is rethrown.
+     */
+    public Result crawl(DirectoryConnection dc, List<CrawlPosition> start, Options options,
+                        Consumer<UserContainer> sink) {
+        Filter person;
+        Filter either;
+        try {
+            person = Filter.create(options.personFilter());
+            either = Filter.createORFilter(person, Filter.create(options.containerFilter()));
+        } catch (LDAPException e) {
+            throw new LdapOperationException("Invalid discovery filter: " + e.getMessage(), e);
+        }
+
+        Crawl crawl = new Crawl(dc, options, person, either, sink,
+                permits.computeIfAbsent(dc.getId(), id -> new Semaphore(
+                        Math.min(maxInFlight, Math.max(1, dc.getPoolMaxSize())))));
+        try {
+            // Held by this thread so the crawl cannot finish while starts are queued
+            crawl.outstanding.incrementAndGet();
+            for (CrawlPosition position : start) {
+                crawl.submit(position);
+            }
+            crawl.finished();
+            crawl.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LdapOperationException("Directory crawl interrupted", e);
+        }
+        if (crawl.failure.get() != null) throw crawl.failure.get();
+
+        List<CrawlPosition> pending = new ArrayList<>(crawl.pending);
+        pending.sort(Comparator.comparingInt(CrawlPosition::depth).thenComparing(CrawlPosition::dn));
+        log.info("Crawled {} containers in [{}]{}", crawl.visited.size(), dc.getDisplayName(),
+                pending.isEmpty() ? "" : "; time budget exhausted with " + pending.size() + " pending");
+        return new Result(crawl.visited.size(), pending, List.copyOf(crawl.warnings));
+    }
+
+    /** State of one crawl, shared by its threads. */
+    private final class Crawl {
+        final DirectoryConnection     dc;
+        final Options                 options;
+        final Filter                  person;
+        final Filter                  either;
+        final Consumer<UserContainer> sink;
+        final Semaphore               permits;
+        final long                    deadline;
+
+        final AtomicInteger                     outstanding = new AtomicInteger();
+        final CountDownLatch                    done        = new CountDownLatch(1);
+        final AtomicReference<RuntimeException> failure     = new AtomicReference<>();
+        final ReentrantLock                     sinkLock    = new ReentrantLock();
+        final Set<String>                       visited     = ConcurrentHashMap.newKeySet();
+        final Queue<CrawlPosition>              pending     = new ConcurrentLinkedQueue<>();
+        final Queue<String>                     warnings    = new ConcurrentLinkedQueue<>();
+
+        Crawl(DirectoryConnection dc, Options options, Filter person, Filter either,
+              Consumer<UserContainer> sink, Semaphore permits) {
+            this.dc       = dc;
+            this.options  = options;
+            this.person   = person;
+            this.either   = either;
+            this.sink     = sink;
+            this.permits  = permits;
+            this.deadline = System.nanoTime() + options.budget().toNanos();
+        }
+
+        void submit(CrawlPosition position) {
+            outstanding.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    visit(position);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    finished();
+                }
+            });
+        }
+
+        void finished() {
+            if (outstanding.decrementAndGet() == 0) done.countDown();
+        }
+
+        private void visit(CrawlPosition position) {
+            if (failure.get() != null || position.depth() > options.maxDepth()) return;
+            // Aliases or overlapping start positions can reach a container twice
+            if (!visited.add(position.dn().toLowerCase(Locale.ROOT))) return;
+
+            Scan scan;
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !permits.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                    visited.remove(position.dn().toLowerCase(Locale.ROOT));
+                    pending.add(position);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.add(position);
+                return;
+            }
+            try {
+                scan = connectionFactory.withConnection(dc, conn -> scan(conn, position.dn()));
+            } catch (RuntimeException e) {
+                warnings.add("Failed to scan " + position.dn() + ": " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+
+            if (scan.users > 0) {
+                // A lock rather than synchronized: sinks write to the network,
+                // which would pin the virtual thread's carrier
+                sinkLock.lock();
+                try {
+                    sink.accept(new UserContainer(position.dn(), scan.users, scan.samples));
+                } finally {
+                    sinkLock.unlock();
+                }
+            } else {
+                for (String child : scan.children) {
+                    submit(new CrawlPosition(child, position.depth() + 1));
+                }
+            }
+        }
+
+        /** One paged one-level search for people and child containers. */
+        private Scan scan(LDAPConnection conn, String dn) throws LDAPException {
+            Scan scan = new Scan();
+            SearchRequest request = new SearchRequest(dn, SearchScope.ONE, either, "*");
+            int pageSize = Math.max(1, dc.getPagingSize());
+            ASN1OctetString cookie = null;
+            do {
+                request.setControls(new SimplePagedResultsControl(pageSize, cookie));
+                SearchResult result;
+                try {
+                    result = conn.search(request);
+                } catch (LDAPSearchException e) {
+                    if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) return scan;
+                    throw e;
+                }
+                for (SearchResultEntry entry : result.getSearchEntries()) {
+                    if (person.matchesEntry(entry)) {
+                        if (scan.samples.size() < options.sampleSize()) {
+                            scan.samples.add(toSearchEntry(entry));
+                        }
+                        scan.users++;
+                    } else {
+                        scan.children.add(entry.getDN());
+                    }
+                }
+
+                SimplePagedResultsControl response = SimplePagedResultsControl.get(result);
+                cookie = response != null && response.moreResultsToReturn() ? response.getCookie() : null;
+                if (cookie != null && scan.users >= options.countLimit()) {
+                    // Enough to size the container; release the server-side paging state
+                    request.setControls(new SimplePagedResultsControl(0, cookie));
+                    conn.search(request);
+                    scan.users = options.countLimit();
+                    break;
+                }
+            } while (cookie != null);
+            scan.users = Math.min(scan.users, options.countLimit());
+            return scan;
+        }
+    }
+
+    private static SearchEntry toSearchEntry(SearchResultEntry entry) {
+        Map<String, List<String>> attrs = new LinkedHashMap<>();
+        for (Attribute attr : entry.getAttributes()) {
+            attrs.put(attr.getBaseName(), Arrays.asList(attr.getValues()));
+        }
+        return new SearchEntry(entry.getDN(), attrs);
+    }
+
+    private static final class Scan {
+        int                     users;
+        final List<SearchEntry> samples  = new ArrayList<>();
+        final List<String>      children = new ArrayList<>();
+    }
+}
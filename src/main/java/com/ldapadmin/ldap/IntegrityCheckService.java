@@ -1,31 +1,52 @@
 package com.ldapadmin.ldap;
 
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.dto.ldap.IntegrityReport;
 import com.ldapadmin.dto.ldap.IntegrityReport.IntegrityIssue;
 import com.ldapadmin.dto.ldap.IntegrityReport.IssueType;
 import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.exception.LdapOperationException;
+import com.ldapadmin.util.DnTrie;
 import com.unboundid.asn1.ASN1OctetString;
 import com.unboundid.ldap.sdk.*;
 import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Referential integrity checker for LDAP directories.
  * Searches for broken member references, orphaned entries, and empty groups.
+ *
+ * <p>The DNs under the base are indexed in a {@link DnTrie}, which shares
+ * each parent's RDNs between its children and answers lookups in
+ * O(depth).  Independent checks run concurrently on the
+ * {@link ExecutorConfig#INTEGRITY_EXECUTOR integrity executor}, each on its
+ * own pooled connection, and issues are handed to the caller as they are
+ * found.</p>
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class IntegrityCheckService {
 
     private final LdapConnectionFactory connectionFactory;
+    private final AsyncTaskExecutor     executor;
 
     private static final int PAGE_SIZE = 500;
 
+    public IntegrityCheckService(LdapConnectionFactory connectionFactory,
+                                 @Qualifier(ExecutorConfig.INTEGRITY_EXECUTOR) AsyncTaskExecutor executor) {
+        this.connectionFactory = connectionFactory;
+        this.executor          = executor;
+    }
+
     /**
      * Runs the selected integrity checks against the directory.
      *
@@ -36,39 +57,86 @@ public class IntegrityCheckService {
      */
     public IntegrityReport runChecks(DirectoryConnection dc, String baseDn,
                                      Set<IssueType> checks) {
+        List<IntegrityIssue> issues = new ArrayList<>();
+        runChecks(dc, baseDn, checks, issues::add);
+        return new IntegrityReport(issues);
+    }
+
+    /**
+     * Runs the selected checks, passing each issue to {@code sink} as soon as
+     * it is found.  Calls to {@code sink} are serialised but may come from
+     * different threads; the order of issues is unspecified.
+     *
+     * @return number of issues reported
+     */
+    public int runChecks(DirectoryConnection dc, String baseDn,
+                         Set<IssueType> checks, Consumer<IntegrityIssue> sink) {
         String searchBase = (baseDn != null && !baseDn.isBlank()) ? baseDn : dc.getBaseDn();
 
-        return connectionFactory.withConnection(dc, conn -> {
-            List<IntegrityIssue> issues = new ArrayList<>();
+        AtomicInteger found = new AtomicInteger();
+        Consumer<IntegrityIssue> out = issue -> {
+            synchronized (found) {
+                sink.accept(issue);
+                found.incrementAndGet();
+            }
+        };
 
-            // Pre-load all DNs once if needed by broken-member or orphaned checks
-            Set<String> allDns = null;
+        List<Future<?>> running = new ArrayList<>();
+        try {
+            if (checks.contains(IssueType.EMPTY_GROUP)) {
+                running.add(executor.submit(() -> connectionFactory.withConnection(dc, conn -> {
+                    checkEmptyGroups(conn, searchBase, out);
+                    return null;
+                })));
+            }
+
+            // Broken-member and orphaned-entry checks share one DN index, loaded
+            // while the empty-group check runs
             if (checks.contains(IssueType.BROKEN_MEMBER) || checks.contains(IssueType.ORPHANED_ENTRY)) {
-                allDns = loadAllDns(conn, searchBase);
+                DnTrie allDns = connectionFactory.withConnection(dc, conn -> loadAllDns(conn, searchBase));
                 log.info("Loaded {} DNs from '{}'", allDns.size(), searchBase);
-            }
 
-            if (checks.contains(IssueType.BROKEN_MEMBER)) {
-                issues.addAll(checkBrokenMembers(conn, searchBase, allDns));
-            }
-            if (checks.contains(IssueType.ORPHANED_ENTRY)) {
-                issues.addAll(checkOrphanedEntries(allDns, searchBase));
+                if (checks.contains(IssueType.BROKEN_MEMBER)) {
+                    running.add(executor.submit(() -> connectionFactory.withConnection(dc, conn -> {
+                        checkBrokenMembers(conn, searchBase, allDns, out);
+                        return null;
+                    })));
+                }
+                if (checks.contains(IssueType.ORPHANED_ENTRY)) {
+                    checkOrphanedEntries(allDns, searchBase, out);
+                }
             }
-            if (checks.contains(IssueType.EMPTY_GROUP)) {
-                issues.addAll(checkEmptyGroups(conn, searchBase));
+
+            for (Future<?> f : running) {
+                await(f);
             }
+        } finally {
+            // Stops the other check when one fails
+            running.forEach(f -> f.cancel(true));
+        }
 
-            log.info("Integrity check on '{}': {} issues found", searchBase, issues.size());
-            return new IntegrityReport(issues);
-        });
+        log.info("Integrity check on '{}': {} issues found", searchBase, found.get());
+        return found.get();
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LdapOperationException("Integrity check interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new LdapOperationException("Integrity check failed: " + e.getCause().getMessage(), e.getCause());
+        }
     }
 
     /**
      * Loads all DNs under the base using paged search. Used as a lookup set
      * for both broken-member and orphaned-entry checks, avoiding N+1 queries.
      */
-    private Set<String> loadAllDns(LDAPConnection conn, String baseDn) throws LDAPException {
-        Set<String> dns = new HashSet<>();
+    private DnTrie loadAllDns(LDAPConnection conn, String baseDn) throws LDAPException {
+        DnTrie dns = new DnTrie();
         SearchRequest request = new SearchRequest(
                 baseDn, SearchScope.SUB, "(objectClass=*)", "1.1");
 
@@ -83,7 +151,7 @@ public class IntegrityCheckService {
                 // SIZE_LIMIT_EXCEEDED with partial results — use what we got
                 if (e.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED && e.getSearchEntries() != null) {
                     for (SearchResultEntry entry : e.getSearchEntries()) {
-                        dns.add(entry.getDN().toLowerCase());
+                        dns.add(entry.getDN());
                     }
                     log.warn("Size limit reached loading DNs from '{}', got {} entries", baseDn, dns.size());
                     return dns;
@@ -92,7 +160,7 @@ public class IntegrityCheckService {
             }
 
             for (SearchResultEntry entry : result.getSearchEntries()) {
-                dns.add(entry.getDN().toLowerCase());
+                dns.add(entry.getDN());
             }
 
             SimplePagedResultsControl responseControl = SimplePagedResultsControl.get(result);
@@ -105,13 +173,11 @@ public class IntegrityCheckService {
 
     /**
      * Finds entries with member/uniqueMember attributes that reference DNs
-     * which do not exist in the directory. Uses the pre-loaded DN set
+     * which do not exist in the directory. Uses the pre-loaded DN index
      * instead of individual LDAP lookups per member.
      */
-    private List<IntegrityIssue> checkBrokenMembers(LDAPConnection conn, String baseDn,
-                                                     Set<String> allDns) throws LDAPException {
-        List<IntegrityIssue> issues = new ArrayList<>();
-
+    private void checkBrokenMembers(LDAPConnection conn, String baseDn,
+                                    DnTrie allDns, Consumer<IntegrityIssue> out) throws LDAPException {
         SearchRequest request = new SearchRequest(
                 baseDn, SearchScope.SUB,
                 "(|(member=*)(uniqueMember=*))",
@@ -124,39 +190,37 @@ public class IntegrityCheckService {
             try {
                 result = conn.search(request);
             } catch (LDAPSearchException e) {
-                if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) return issues;
+                if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) return;
                 if (e.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED && e.getSearchEntries() != null) {
                     for (SearchResultEntry entry : e.getSearchEntries()) {
-                        checkMemberAttribute(entry, "member", allDns, issues);
-                        checkMemberAttribute(entry, "uniqueMember", allDns, issues);
+                        checkMemberAttribute(entry, "member", allDns, out);
+                        checkMemberAttribute(entry, "uniqueMember", allDns, out);
                     }
-                    return issues;
+                    return;
                 }
                 throw e;
             }
 
             for (SearchResultEntry entry : result.getSearchEntries()) {
-                checkMemberAttribute(entry, "member", allDns, issues);
-                checkMemberAttribute(entry, "uniqueMember", allDns, issues);
+                checkMemberAttribute(entry, "member", allDns, out);
+                checkMemberAttribute(entry, "uniqueMember", allDns, out);
             }
 
             SimplePagedResultsControl responseControl = SimplePagedResultsControl.get(result);
             resumeCookie = (responseControl != null && responseControl.moreResultsToReturn())
                     ? responseControl.getCookie() : null;
         } while (resumeCookie != null);
-
-        return issues;
     }
 
     private void checkMemberAttribute(SearchResultEntry entry, String attrName,
-                                       Set<String> allDns, List<IntegrityIssue> issues) {
+                                      DnTrie allDns, Consumer<IntegrityIssue> out) {
         String[] values = entry.getAttributeValues(attrName);
         if (values == null) return;
 
         for (String memberDn : values) {
             if (memberDn.isBlank()) continue;
-            if (!allDns.contains(memberDn.toLowerCase())) {
-                issues.add(new IntegrityIssue(
+            if (!allDns.contains(memberDn)) {
+                out.accept(new IntegrityIssue(
                         IssueType.BROKEN_MEMBER,
                         entry.getDN(),
                         "Attribute '" + attrName + "' references non-existent DN: " + memberDn));
@@ -166,33 +230,20 @@ public class IntegrityCheckService {
 
     /**
      * Finds entries whose parent DN does not exist in the directory.
-     * Uses the pre-loaded DN set — no additional LDAP queries needed.
+     * Walks the pre-loaded DN index — no additional LDAP queries needed.
      */
-    private List<IntegrityIssue> checkOrphanedEntries(Set<String> allDns, String baseDn) {
-        List<IntegrityIssue> issues = new ArrayList<>();
-
-        for (String dn : allDns) {
-            if (dn.equalsIgnoreCase(baseDn)) continue;
-
-            String parentDn = extractParentDn(dn);
-            if (parentDn != null && !allDns.contains(parentDn.toLowerCase())) {
-                issues.add(new IntegrityIssue(
-                        IssueType.ORPHANED_ENTRY,
-                        dn,
-                        "Parent DN does not exist: " + parentDn));
-            }
-        }
-
-        return issues;
+    private void checkOrphanedEntries(DnTrie allDns, String baseDn, Consumer<IntegrityIssue> out) {
+        allDns.forEachWithoutParent(baseDn, (dn, parentDn) -> out.accept(new IntegrityIssue(
+                IssueType.ORPHANED_ENTRY,
+                dn,
+                "Parent DN does not exist: " + parentDn)));
     }
 
     /**
      * Finds group entries that have no members. Uses paged search.
      */
-    private List<IntegrityIssue> checkEmptyGroups(LDAPConnection conn,
-                                                   String baseDn) throws LDAPException {
-        List<IntegrityIssue> issues = new ArrayList<>();
-
+    private void checkEmptyGroups(LDAPConnection conn, String baseDn,
+                                  Consumer<IntegrityIssue> out) throws LDAPException {
         SearchRequest request = new SearchRequest(
                 baseDn, SearchScope.SUB,
                 "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup))",
@@ -205,44 +256,34 @@ public class IntegrityCheckService {
             try {
                 result = conn.search(request);
             } catch (LDAPSearchException e) {
-                if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) return issues;
+                if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) return;
                 if (e.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED && e.getSearchEntries() != null) {
                     for (SearchResultEntry entry : e.getSearchEntries()) {
-                        checkEmptyGroup(entry, issues);
+                        checkEmptyGroup(entry, out);
                     }
-                    return issues;
+                    return;
                 }
                 throw e;
             }
 
             for (SearchResultEntry entry : result.getSearchEntries()) {
-                checkEmptyGroup(entry, issues);
+                checkEmptyGroup(entry, out);
             }
 
             SimplePagedResultsControl responseControl = SimplePagedResultsControl.get(result);
             resumeCookie = (responseControl != null && responseControl.moreResultsToReturn())
                     ? responseControl.getCookie() : null;
         } while (resumeCookie != null);
-
-        return issues;
     }
 
-    private void checkEmptyGroup(SearchResultEntry entry, List<IntegrityIssue> issues) {
+    private void checkEmptyGroup(SearchResultEntry entry, Consumer<IntegrityIssue> out) {
         for (String attr : List.of("member", "uniqueMember", "memberUid")) {
             String[] values = entry.getAttributeValues(attr);
             if (values != null && values.length > 0) return;
         }
-        issues.add(new IntegrityIssue(
+        out.accept(new IntegrityIssue(
                 IssueType.EMPTY_GROUP,
                 entry.getDN(),
                 "Group has no members"));
     }
-
-    private String extractParentDn(String dn) {
-        int idx = dn.indexOf(',');
-        if (idx < 0 || idx + 1 >= dn.length()) {
-            return null;
-        }
-        return dn.substring(idx + 1);
-    }
 }
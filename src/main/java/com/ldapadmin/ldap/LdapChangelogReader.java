@@ -2,6 +2,7 @@ package com.ldapadmin.ldap;
 
 import com.ldapadmin.entity.AuditDataSource;
 import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
 import com.ldapadmin.entity.enums.SslMode;
 import com.ldapadmin.exception.LdapConnectionException;
 import com.ldapadmin.ldap.changelog.AccesslogStrategy;
@@ -42,6 +43,12 @@ import java.util.concurrent.ConcurrentMap;
  * <p>Idempotency: each entry is keyed by
  * {@code (directoryId, entryId)}.  The {@link AuditService} guard
  * prevents duplicate inserts even if the poller restarts mid-run.</p>
+ *
+ * <p>Reads resume after the highest entry id recorded for the source
+ * ({@code last_change_id}), so each poll fetches only new entries, in pages
+ * of {@value #MAX_CHANGELOG_ENTRIES_PER_POLL}.  Sources in
+ * {@link ChangeCaptureMode#PUSH} mode whose format supports it are skipped
+ * here and streamed by {@link LdapChangelogStreamer} instead.</p>
  */
 @Component
 @Slf4j
@@ -49,6 +56,8 @@ import java.util.concurrent.ConcurrentMap;
 public class LdapChangelogReader {
 
     private static final int MAX_CHANGELOG_ENTRIES_PER_POLL = 500;
+    /** Pages read per source per poll while catching up on a backlog. */
+    private static final int MAX_PAGES_PER_POLL = 20;
     private static final int MAX_CONSECUTIVE_FAILURES = 3;
 
     private final AuditDataSourceRepository   auditSourceRepo;
@@ -62,13 +71,19 @@ public class LdapChangelogReader {
     /** Sources disabled at runtime due to configuration errors (e.g. invalid bind DN). */
     private final Set<UUID> configErrors = ConcurrentHashMap.newKeySet();
 
+    /** Per source: every change made before this instant has been recorded. */
+    private final ConcurrentMap<UUID, OffsetDateTime> confirmedThrough = new ConcurrentHashMap<>();
+
+    /** Per source: why change capture is currently not keeping up, if it is not. */
+    private final ConcurrentMap<UUID, String> feedErrors = new ConcurrentHashMap<>();
+
     // ── Strategy instances (stateless, reusable) ─────────────────────────────
 
     private static final DseeChangelogStrategy    DSEE_STRATEGY      = new DseeChangelogStrategy();
     private static final AccesslogStrategy       ACCESSLOG_STRATEGY = new AccesslogStrategy();
     private static final DirSyncChangelogStrategy DIRSYNC_STRATEGY  = new DirSyncChangelogStrategy();
 
-    private static ChangelogStrategy strategyFor(AuditDataSource src) {
+    static ChangelogStrategy strategyFor(AuditDataSource src) {
         return switch (src.getChangelogFormat()) {
             case DSEE_CHANGELOG     -> DSEE_STRATEGY;
             case OPENLDAP_ACCESSLOG -> ACCESSLOG_STRATEGY;
@@ -81,7 +96,13 @@ public class LdapChangelogReader {
     @Scheduled(fixedDelayString = "${app.audit.changelog-poll-interval-ms:60000}",
                initialDelayString = "${app.audit.changelog-poll-initial-delay-ms:15000}")
     public void pollAll() {
-        List<AuditDataSource> sources = auditSourceRepo.findAll().stream()
+        List<AuditDataSource> all = auditSourceRepo.findAll();
+        for (AuditDataSource src : all) {
+            if (!src.isEnabled()) {
+                recordFeedFailure(src.getId(), "change capture is disabled for the audit source");
+            }
+        }
+        List<AuditDataSource> sources = all.stream()
                 .filter(AuditDataSource::isEnabled)
                 .toList();
 
@@ -94,6 +115,10 @@ public class LdapChangelogReader {
             if (configErrors.contains(src.getId())) {
                 continue;
             }
+            // Pushed changes are recorded by LdapChangelogStreamer
+            if (isStreamed(src)) {
+                continue;
+            }
 
             int failures = consecutiveFailures.getOrDefault(src.getId(), 0);
             if (failures >= MAX_CONSECUTIVE_FAILURES) {
@@ -112,14 +137,11 @@ public class LdapChangelogReader {
             } catch (Exception ex) {
                 // Check for configuration-level errors (invalid DN, bad credentials)
                 // and stop retrying — the admin needs to fix the source config
-                if (isConfigError(ex)) {
-                    configErrors.add(src.getId());
-                    log.error("Changelog polling disabled for source [{}] due to "
-                                    + "configuration error (fix the source config to re-enable): {}",
-                            src.getDisplayName(), ex.getMessage());
+                if (flagIfConfigError(src, ex)) {
                     continue;
                 }
 
+                recordFeedFailure(src.getId(), ex.getMessage());
                 int newCount = consecutiveFailures.merge(src.getId(), 1, Integer::sum);
                 if (newCount <= MAX_CONSECUTIVE_FAILURES) {
                     log.warn("Changelog poll failed for source [{}]: {}",
@@ -140,6 +162,53 @@ public class LdapChangelogReader {
     public void clearConfigError(UUID sourceId) {
         configErrors.remove(sourceId);
         consecutiveFailures.remove(sourceId);
+        feedErrors.remove(sourceId);
+    }
+
+    // ── Feed position ─────────────────────────────────────────────────────────
+
+    /**
+     * Every change made on the source before the returned instant has been
+     * recorded (and published to the local replicas); {@code null} until a
+     * poll or stream has caught up once.
+     */
+    public OffsetDateTime confirmedThrough(UUID sourceId) {
+        return confirmedThrough.get(sourceId);
+    }
+
+    /** Why the source's changes are not being captured, or {@code null} if they are. */
+    public String feedError(UUID sourceId) {
+        return feedErrors.get(sourceId);
+    }
+
+    /** Records that the source's changes up to {@code through} have been captured. */
+    void recordFeedProgress(UUID sourceId, OffsetDateTime through) {
+        confirmedThrough.merge(sourceId, through, (a, b) -> a.isAfter(b) ? a : b);
+        feedErrors.remove(sourceId);
+    }
+
+    void recordFeedFailure(UUID sourceId, String reason) {
+        feedErrors.put(sourceId, reason != null ? reason : "change capture failed");
+    }
+
+    /** Whether {@code src} is captured by a push stream rather than polled. */
+    static boolean isStreamed(AuditDataSource src) {
+        return src.getChangeCaptureMode() == ChangeCaptureMode.PUSH
+                && strategyFor(src).buildPushControl(null) != null;
+    }
+
+    boolean hasConfigError(UUID sourceId) {
+        return configErrors.contains(sourceId);
+    }
+
+    /** Flags a source whose configuration is wrong; returns whether {@code ex} was such an error. */
+    boolean flagIfConfigError(AuditDataSource src, Exception ex) {
+        if (!isConfigError(ex)) return false;
+        configErrors.add(src.getId());
+        recordFeedFailure(src.getId(), ex.getMessage());
+        log.error("Change capture disabled for source [{}] due to configuration error "
+                + "(fix the source config to re-enable): {}", src.getDisplayName(), ex.getMessage());
+        return true;
     }
 
     private static boolean isConfigError(Exception ex) {
@@ -153,64 +222,113 @@ public class LdapChangelogReader {
 
     // ── Per-source poll ───────────────────────────────────────────────────────
 
-    private void pollSource(AuditDataSource src) {
+    /**
+     * Reads everything after the source's last recorded entry and records it.
+     * Returns the new last entry id.  Once a poll has caught up, the feed is
+     * confirmed through the instant the poll started.
+     */
+    String pollSource(AuditDataSource src) {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        try {
+            ChangelogPoll poll = readChanges(src);
+            if (poll.caughtUp()) {
+                recordFeedProgress(src.getId(), startedAt);
+            }
+            return poll.lastId();
+        } catch (RuntimeException ex) {
+            recordFeedFailure(src.getId(), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private record ChangelogPoll(String lastId, boolean caughtUp) {
+    }
+
+    private ChangelogPoll readChanges(AuditDataSource src) {
         ChangelogStrategy strategy = strategyFor(src);
         log.debug("Polling changelog for audit source [{}] (format={})",
                 src.getDisplayName(), src.getChangelogFormat());
 
-        // Resolve optional directory association for denormalised fields
-        List<DirectoryConnection> linkedDirs = dirRepo.findAll().stream()
-                .filter(dc -> dc.getAuditDataSource() != null
-                        && dc.getAuditDataSource().getId().equals(src.getId()))
-                .toList();
+        List<DirectoryConnection> linkedDirs = linkedDirectories(src);
+        boolean dirSync = src.getChangelogFormat() == com.ldapadmin.entity.enums.ChangelogFormat.AD_DIRSYNC;
+        Comparator<String> order = strategy.entryIdOrder();
+        String lastId = order != null ? src.getLastChangeId() : null;
+        String startId = lastId;
+        int processed = 0;
+        boolean caughtUp = false;
 
         try (LDAPConnection conn = openConnection(src)) {
-            SearchRequest searchReq = strategy.buildSearchRequest(src, MAX_CHANGELOG_ENTRIES_PER_POLL);
-
-            // For AD DirSync: attach the DirSync control with the persisted cookie
-            if (src.getChangelogFormat() == com.ldapadmin.entity.enums.ChangelogFormat.AD_DIRSYNC) {
-                byte[] cookie = src.getDirsyncCookie();
-                // DirSync control OID 1.2.840.113556.1.4.841
-                // Value: SEQUENCE { flags INTEGER, maxBytes INTEGER, cookie OCTET STRING }
-                com.unboundid.asn1.ASN1OctetString cookieValue = (cookie != null && cookie.length > 0)
-                        ? new com.unboundid.asn1.ASN1OctetString(cookie)
-                        : new com.unboundid.asn1.ASN1OctetString();
-                com.unboundid.asn1.ASN1Sequence seq = new com.unboundid.asn1.ASN1Sequence(
-                        new com.unboundid.asn1.ASN1Integer(0x80000001),
-                        new com.unboundid.asn1.ASN1Integer(Integer.MAX_VALUE),
-                        cookieValue);
-                searchReq.addControl(new com.unboundid.ldap.sdk.Control(
-                        "1.2.840.113556.1.4.841", true,
-                        new com.unboundid.asn1.ASN1OctetString(seq.encode())));
-            }
+            for (int page = 0; page < MAX_PAGES_PER_POLL; page++) {
+                SearchRequest searchReq = strategy.buildSearchRequest(src, lastId, MAX_CHANGELOG_ENTRIES_PER_POLL);
+
+                // For AD DirSync: attach the DirSync control with the persisted cookie
+                if (dirSync) {
+                    byte[] cookie = src.getDirsyncCookie();
+                    // DirSync control OID 1.2.840.113556.1.4.841
+                    // Value: SEQUENCE { flags INTEGER, maxBytes INTEGER, cookie OCTET STRING }
+                    com.unboundid.asn1.ASN1OctetString cookieValue = (cookie != null && cookie.length > 0)
+                            ? new com.unboundid.asn1.ASN1OctetString(cookie)
+                            : new com.unboundid.asn1.ASN1OctetString();
+                    com.unboundid.asn1.ASN1Sequence seq = new com.unboundid.asn1.ASN1Sequence(
+                            new com.unboundid.asn1.ASN1Integer(0x80000001),
+                            new com.unboundid.asn1.ASN1Integer(Integer.MAX_VALUE),
+                            cookieValue);
+                    searchReq.addControl(new com.unboundid.ldap.sdk.Control(
+                            "1.2.840.113556.1.4.841", true,
+                            new com.unboundid.asn1.ASN1OctetString(seq.encode())));
+                }
 
-            SearchResult result = conn.search(searchReq);
+                SearchResult result = search(conn, searchReq);
 
-            for (SearchResultEntry entry : result.getSearchEntries()) {
-                processEntry(src, linkedDirs, entry, strategy);
-            }
+                for (SearchResultEntry entry : result.getSearchEntries()) {
+                    String entryId = strategy.extractEntryId(entry);
+                    if (order != null && !isAfter(order, entryId, lastId)) {
+                        continue;
+                    }
+                    processEntry(src, linkedDirs, entry, strategy);
+                    if (order != null && entryId != null) {
+                        lastId = entryId;
+                    }
+                    processed++;
+                }
 
-            // For AD DirSync: extract and persist the updated cookie
-            if (src.getChangelogFormat() == com.ldapadmin.entity.enums.ChangelogFormat.AD_DIRSYNC) {
-                com.unboundid.ldap.sdk.Control respControl = result.getResponseControl("1.2.840.113556.1.4.841");
-                if (respControl != null && respControl.getValue() != null) {
-                    try {
-                        com.unboundid.asn1.ASN1Sequence seq =
-                                com.unboundid.asn1.ASN1Sequence.decodeAsSequence(respControl.getValue().getValue());
-                        com.unboundid.asn1.ASN1Element[] elements = seq.elements();
-                        if (elements.length >= 3) {
-                            byte[] newCookie = elements[2].getValue();
-                            src.setDirsyncCookie(newCookie);
-                            auditSourceRepo.save(src);
+                // For AD DirSync: extract and persist the updated cookie
+                if (dirSync) {
+                    com.unboundid.ldap.sdk.Control respControl = result.getResponseControl("1.2.840.113556.1.4.841");
+                    if (respControl != null && respControl.getValue() != null) {
+                        try {
+                            com.unboundid.asn1.ASN1Sequence seq =
+                                    com.unboundid.asn1.ASN1Sequence.decodeAsSequence(respControl.getValue().getValue());
+                            com.unboundid.asn1.ASN1Element[] elements = seq.elements();
+                            if (elements.length >= 3) {
+                                // moreResults: non-zero while the server holds back further changes
+                                caughtUp = com.unboundid.asn1.ASN1Integer.decodeAsInteger(elements[0])
+                                        .intValue() == 0;
+                                byte[] newCookie = elements[2].getValue();
+                                src.setDirsyncCookie(newCookie);
+                                auditSourceRepo.save(src);
+                            }
+                        } catch (Exception e) {
+                            log.warn("Failed to extract DirSync cookie from response: {}", e.getMessage());
                         }
-                    } catch (Exception e) {
-                        log.warn("Failed to extract DirSync cookie from response: {}", e.getMessage());
                     }
+                    break;
                 }
+
+                // A short page means we are caught up
+                if (result.getEntryCount() < MAX_CHANGELOG_ENTRIES_PER_POLL) {
+                    caughtUp = true;
+                    break;
+                }
+            }
+
+            if (lastId != null && !lastId.equals(startId)) {
+                auditSourceRepo.updateChangePosition(src.getId(), lastId, src.getSyncCookie());
+                src.setLastChangeId(lastId);
             }
 
-            log.debug("Processed {} changelog entries for source [{}]",
-                    result.getEntryCount(), src.getDisplayName());
+            log.debug("Processed {} changelog entries for source [{}]", processed, src.getDisplayName());
+            return new ChangelogPoll(lastId, caughtUp);
 
         } catch (LDAPException ex) {
             throw new LdapConnectionException(
@@ -218,10 +336,38 @@ public class LdapChangelogReader {
         }
     }
 
-    private void processEntry(AuditDataSource src,
-                              List<DirectoryConnection> linkedDirs,
-                              SearchResultEntry entry,
-                              ChangelogStrategy strategy) {
+    /**
+     * Runs the search, treating "size limit exceeded" as a full page rather
+     * than a failure.
+     */
+    private static SearchResult search(LDAPConnection conn, SearchRequest req) throws LDAPSearchException {
+        try {
+            return conn.search(req);
+        } catch (LDAPSearchException ex) {
+            if (ex.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED) {
+                return ex.getSearchResult();
+            }
+            throw ex;
+        }
+    }
+
+    /** {@code true} if {@code entryId} sorts after {@code lastId} (or there is no last id). */
+    static boolean isAfter(Comparator<String> order, String entryId, String lastId) {
+        return entryId == null || lastId == null || order.compare(entryId, lastId) > 0;
+    }
+
+    /** Directories fed by this audit source, used for the denormalised directory fields. */
+    List<DirectoryConnection> linkedDirectories(AuditDataSource src) {
+        return dirRepo.findAll().stream()
+                .filter(dc -> dc.getAuditDataSource() != null
+                        && dc.getAuditDataSource().getId().equals(src.getId()))
+                .toList();
+    }
+
+    void processEntry(AuditDataSource src,
+                      List<DirectoryConnection> linkedDirs,
+                      SearchResultEntry entry,
+                      ChangelogStrategy strategy) {
         if (!strategy.isRecordable(entry)) {
             return;
         }
@@ -262,7 +408,7 @@ public class LdapChangelogReader {
 
     // ── LDAP connection helpers ───────────────────────────────────────────────
 
-    private LDAPConnection openConnection(AuditDataSource src) {
+    LDAPConnection openConnection(AuditDataSource src) {
         try {
             String password = encryptionService.decrypt(src.getBindPasswordEncrypted());
             String bindDn = src.getBindDn() != null ? src.getBindDn().trim() : "";
@@ -0,0 +1,333 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
+import com.ldapadmin.ldap.changelog.ChangelogStrategy;
+import com.ldapadmin.repository.AuditDataSourceRepository;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.AsyncRequestID;
+import com.unboundid.ldap.sdk.AsyncSearchResultListener;
+import com.unboundid.ldap.sdk.IntermediateResponse;
+import com.unboundid.ldap.sdk.IntermediateResponseListener;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchResultReference;
+import com.unboundid.ldap.sdk.controls.ContentSyncDoneControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoIntermediateResponse;
+import com.unboundid.ldap.sdk.controls.ContentSyncState;
+import com.unboundid.ldap.sdk.controls.ContentSyncStateControl;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one long-lived search open per audit source in
+ * {@link ChangeCaptureMode#PUSH} mode and records changelog entries as the
+ * server pushes them, instead of waiting for the next poll.
+ *
+ * <ul>
+ *   <li>{@code cn=changelog} (DSEE / UnboundID) — persistent search for added
+ *       changelog entries, filtered to {@code changeNumber} after the last
+ *       recorded one so the initial results fill any gap.</li>
+ *   <li>OpenLDAP accesslog — RFC 4533 refreshAndPersist, resumed from the
+ *       stored sync cookie.</li>
+ * </ul>
+ *
+ * <p>A reconcile pass (every {@code app.audit.changelog-stream-check-interval-ms})
+ * starts missing streams, restarts streams whose source was edited or whose
+ * connection dropped, and stops streams for disabled or deleted sources.
+ * Failed starts back off exponentially.  The last entry id and cookie are
+ * written after each recorded entry, so a restart resumes where the stream
+ * left off; an entry that cannot be recorded ends the stream at the position
+ * before it, so it is read again on restart.  A stream found open by a reconcile pass confirms the feed
+ * through the previous pass, which gives it one interval to deliver what
+ * the server had queued.</p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LdapChangelogStreamer {
+
+    private static final long MAX_BACKOFF_SECONDS = 600;
+
+    private final AuditDataSourceRepository auditSourceRepo;
+    private final LdapChangelogReader       changelogReader;
+
+    private final Map<UUID, ChangeStream> streams = new ConcurrentHashMap<>();
+
+    /** Consecutive failed starts per source, for backoff. */
+    private final Map<UUID, Integer> failures = new ConcurrentHashMap<>();
+    private final Map<UUID, Instant> nextAttempt = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${app.audit.changelog-stream-check-interval-ms:30000}",
+               initialDelayString = "${app.audit.changelog-poll-initial-delay-ms:15000}")
+    public void reconcile() {
+        Map<UUID, AuditDataSource> wanted = auditSourceRepo.findAllByEnabledTrue().stream()
+                .filter(LdapChangelogReader::isStreamed)
+                .filter(src -> !changelogReader.hasConfigError(src.getId()))
+                .collect(Collectors.toMap(AuditDataSource::getId, src -> src));
+
+        // Stop streams that are no longer wanted, were reconfigured, or have died
+        OffsetDateTime checkedAt = OffsetDateTime.now();
+        streams.values().removeIf(stream -> {
+            AuditDataSource src = wanted.get(stream.sourceId);
+            boolean keep = src != null && stream.isAlive()
+                    && Objects.equals(src.getUpdatedAt(), stream.sourceVersion);
+            if (!keep) {
+                stream.close();
+            } else {
+                stream.confirm(checkedAt);
+            }
+            return !keep;
+        });
+        Set<UUID> wantedIds = wanted.keySet();
+        failures.keySet().retainAll(wantedIds);
+        nextAttempt.keySet().retainAll(wantedIds);
+
+        Instant now = Instant.now();
+        for (AuditDataSource src : wanted.values()) {
+            if (streams.containsKey(src.getId())) continue;
+            Instant next = nextAttempt.get(src.getId());
+            if (next != null && now.isBefore(next)) {
+                pollWhileDown(src);
+                continue;
+            }
+            start(src);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.values().forEach(ChangeStream::close);
+        streams.clear();
+    }
+
+    // ── Stream lifecycle ─────────────────────────────────────────────────────
+
+    void start(AuditDataSource src) {
+        ChangelogStrategy strategy = LdapChangelogReader.strategyFor(src);
+        LDAPConnection conn = null;
+        try {
+            String lastId = src.getLastChangeId();
+            if (lastId == null && strategy.entryIdOrder() != null) {
+                // First run: page through the existing changelog before streaming
+                lastId = changelogReader.pollSource(src);
+            }
+
+            conn = changelogReader.openConnection(src);
+            ChangeStream stream = new ChangeStream(src, strategy, conn,
+                    changelogReader.linkedDirectories(src), lastId, src.getSyncCookie());
+
+            SearchRequest template = strategy.buildSearchRequest(src, lastId, 0);
+            SearchRequest req = new SearchRequest(stream, template.getBaseDN(), template.getScope(),
+                    template.getDereferencePolicy(), 0, 0, false, template.getFilter(),
+                    template.getAttributes());
+            req.addControl(strategy.buildPushControl(src.getSyncCookie()));
+            req.setIntermediateResponseListener(stream);
+            // The search is expected to stay open indefinitely
+            req.setResponseTimeoutMillis(0L);
+
+            streams.put(src.getId(), stream);
+            conn.asyncSearch(req);
+
+            nextAttempt.remove(src.getId());
+            log.info("Streaming changelog for audit source [{}] (format={}, from={})",
+                    src.getDisplayName(), src.getChangelogFormat(), lastId);
+        } catch (Exception ex) {
+            ChangeStream stream = streams.remove(src.getId());
+            if (stream != null) {
+                stream.close();
+            } else if (conn != null) {
+                conn.close();
+            }
+            if (changelogReader.flagIfConfigError(src, ex)) {
+                return;
+            }
+            changelogReader.recordFeedFailure(src.getId(), ex.getMessage());
+            long delay = backOff(src.getId());
+            log.warn("Could not start changelog stream for source [{}] (retrying in {}s): {}",
+                    src.getDisplayName(), delay, ex.getMessage());
+        }
+    }
+
+    /** Schedules the next start attempt; returns the delay in seconds. */
+    private long backOff(UUID sourceId) {
+        int count = failures.merge(sourceId, 1, Integer::sum);
+        long delay = Math.min(MAX_BACKOFF_SECONDS, 15L << Math.min(count - 1, 10));
+        nextAttempt.put(sourceId, Instant.now().plusSeconds(delay));
+        return delay;
+    }
+
+    /**
+     * Keeps recording changes while a stream cannot be opened (e.g. the server
+     * rejects the push control), at the reconcile interval.
+     */
+    private void pollWhileDown(AuditDataSource src) {
+        try {
+            changelogReader.pollSource(src);
+        } catch (Exception ex) {
+            log.debug("Fallback poll failed for source [{}]: {}", src.getDisplayName(), ex.getMessage());
+        }
+    }
+
+    /**
+     * One open search.  Listener callbacks arrive on the connection's reader
+     * thread, one at a time.
+     */
+    final class ChangeStream implements AsyncSearchResultListener, IntermediateResponseListener {
+
+        private final UUID                      sourceId;
+        private final OffsetDateTime            sourceVersion;
+        private final AuditDataSource           src;
+        private final ChangelogStrategy         strategy;
+        private final Comparator<String>        order;
+        private final LDAPConnection            conn;
+        private final List<DirectoryConnection> linkedDirs;
+
+        private volatile boolean ended;
+        /** When a reconcile pass last found the stream open; {@code null} before the first. */
+        private OffsetDateTime lastCheckedAt;
+        private boolean received;
+        private String lastId;
+        private byte[] cookie;
+
+        ChangeStream(AuditDataSource src, ChangelogStrategy strategy, LDAPConnection conn,
+                     List<DirectoryConnection> linkedDirs, String lastId, byte[] cookie) {
+            this.sourceId = src.getId();
+            this.sourceVersion = src.getUpdatedAt();
+            this.src = src;
+            this.strategy = strategy;
+            this.order = strategy.entryIdOrder();
+            this.conn = conn;
+            this.linkedDirs = linkedDirs;
+            this.lastId = lastId;
+            this.cookie = cookie;
+        }
+
+        boolean isAlive() {
+            return !ended && conn.isConnected();
+        }
+
+        void close() {
+            ended = true;
+            conn.close();
+        }
+
+        /** Confirms the feed through the previous check, the stream having stayed open since. */
+        void confirm(OffsetDateTime checkedAt) {
+            if (lastCheckedAt != null) {
+                changelogReader.recordFeedProgress(sourceId, lastCheckedAt);
+            }
+            lastCheckedAt = checkedAt;
+        }
+
+        @Override
+        public synchronized void searchEntryReturned(SearchResultEntry entry) {
+            if (ended) return;
+            try {
+                byte[] entryCookie = null;
+                ContentSyncStateControl state = ContentSyncStateControl.get(entry);
+                if (state != null) {
+                    if (state.getState() == ContentSyncState.DELETE) return; // accesslog purge
+                    entryCookie = bytes(state.getCookie());
+                }
+
+                String entryId = strategy.extractEntryId(entry);
+                boolean isNew = order == null || LdapChangelogReader.isAfter(order, entryId, lastId);
+                if (isNew) {
+                    changelogReader.processEntry(src, linkedDirs, entry, strategy);
+                    if (order != null && entryId != null) lastId = entryId;
+                }
+                if (entryCookie != null) cookie = entryCookie;
+                if (isNew || entryCookie != null) savePosition();
+                // Only once recorded, so an entry that keeps failing keeps backing off
+                markHealthy();
+            } catch (Exception ex) {
+                // Later entries must not move the position past this one: stop and re-read it on restart
+                changelogReader.recordFeedFailure(sourceId, "could not record " + entry.getDN() + ": " + ex.getMessage());
+                long delay = backOff(sourceId);
+                log.warn("Failed to record pushed changelog entry {} for source [{}]; restarting from {} in {}s: {}",
+                        entry.getDN(), src.getDisplayName(), lastId, delay, ex.getMessage());
+                close();
+            }
+        }
+
+        @Override
+        public synchronized void intermediateResponseReturned(IntermediateResponse response) {
+            if (ended || !ContentSyncInfoIntermediateResponse.SYNC_INFO_OID.equals(response.getOID())) return;
+            markHealthy();
+            try {
+                byte[] newCookie = bytes(ContentSyncInfoIntermediateResponse.decode(response).getCookie());
+                if (newCookie != null) {
+                    cookie = newCookie;
+                    savePosition();
+                }
+            } catch (Exception ex) {
+                log.warn("Ignoring malformed sync info message for source [{}]: {}",
+                        src.getDisplayName(), ex.getMessage());
+            }
+        }
+
+        @Override
+        public void searchReferenceReturned(SearchResultReference reference) {
+            // Changelog containers do not hold referrals
+        }
+
+        /** The search ended: server shutdown, connection loss, or a refresh-only reply. */
+        @Override
+        public synchronized void searchResultReceived(AsyncRequestID id, SearchResult result) {
+            try {
+                ContentSyncDoneControl done = ContentSyncDoneControl.get(result);
+                // Once ended here (e.g. after a failed entry) the position stays where it was
+                if (!ended && done != null && done.getCookie() != null) {
+                    cookie = bytes(done.getCookie());
+                    savePosition();
+                }
+            } catch (LDAPException ignored) {
+                // no usable cookie
+            }
+            if (!ended) {
+                // Also covers servers that reject the push control outright;
+                // the source is polled until the next attempt.
+                changelogReader.recordFeedFailure(sourceId, "changelog stream ended: " + result.getResultCode());
+                long delay = backOff(sourceId);
+                log.warn("Changelog stream for source [{}] ended ({}: {}); restarting in {}s",
+                        src.getDisplayName(), result.getResultCode(), result.getDiagnosticMessage(), delay);
+            }
+            close();
+        }
+
+        /** The server is delivering: reset the failure backoff. */
+        private void markHealthy() {
+            if (!received) {
+                received = true;
+                failures.remove(sourceId);
+            }
+        }
+
+        private void savePosition() {
+            auditSourceRepo.updateChangePosition(sourceId, lastId, cookie);
+        }
+
+        private static byte[] bytes(ASN1OctetString value) {
+            return value != null ? value.getValue() : null;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.unboundid.util.ssl.TrustAllTrustManager;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import javax.net.ssl.SSLSocketFactory;
@@ -23,6 +24,7 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -46,15 +48,25 @@ import java.util.concurrent.ConcurrentMap;
  * if {@code trustAllCerts} is set all server certificates are accepted;
  * otherwise the JVM default trust store is used.
  * </p>
+ *
+ * <p>When no connection can be obtained for a directory a
+ * {@link DirectoryReachabilityEvent} is published, and another once one
+ * can again.</p>
+ *
+ * <p>Every connection carries a {@link LdapOperationMetrics} logger, so
+ * operations are timed whichever way they are sent.</p>
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LdapConnectionFactory {
 
-    private final EncryptionService encryptionService;
+    private final EncryptionService         encryptionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LdapOperationMetrics      metrics;
 
-    private final ConcurrentMap<UUID, LDAPConnectionPool> pools = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, LDAPConnectionPool> pools       = new ConcurrentHashMap<>();
+    private final Set<UUID>                               unreachable = ConcurrentHashMap.newKeySet();
 
     // ── Public API ────────────────────────────────────────────────────────────
 
@@ -79,13 +91,24 @@ public class LdapConnectionFactory {
      */
     public <T> T withConnection(DirectoryConnection dc,
                                 LdapOperation<T> operation) {
-        LDAPConnectionPool pool = getPool(dc);
+        LDAPConnectionPool pool;
+        try {
+            pool = getPool(dc);
+        } catch (LdapConnectionException e) {
+            markUnreachable(dc, e.getMessage());
+            throw e;
+        }
         LDAPConnection conn = null;
         try {
+            long waitStart = System.nanoTime();
             conn = pool.getConnection();
+            metrics.recordPoolWait(dc, System.nanoTime() - waitStart);
+            markReachable(dc);
             return operation.execute(conn);
         } catch (LDAPException e) {
-            if (conn != null) {
+            if (conn == null) {
+                markUnreachable(dc, e.getMessage());
+            } else {
                 // Only mark connection defunct for genuine connectivity failures;
                 // operation-level errors (result codes ≥ 1 that don't indicate
                 // a broken socket) should not shrink the pool.
@@ -105,6 +128,26 @@ public class LdapConnectionFactory {
         }
     }
 
+    /**
+     * Opens a pipeline that keeps up to {@code maxInFlight} asynchronous
+     * writes outstanding across {@code connections} connections borrowed from
+     * the directory's pool.  The connections stay borrowed until the pipeline
+     * is closed.
+     */
+    public LdapWritePipeline openWritePipeline(DirectoryConnection dc, int connections, int maxInFlight) {
+        try {
+            return new PooledWritePipeline(getPool(dc), connections, maxInFlight);
+        } catch (LDAPException e) {
+            throw new LdapConnectionException(
+                "LDAP operation failed on [" + dc.getDisplayName() + "]: " + e.getMessage(), e);
+        }
+    }
+
+    /** Whether the last attempt to get a connection for the directory failed. */
+    public boolean isUnreachable(UUID connectionId) {
+        return unreachable.contains(connectionId);
+    }
+
     /**
      * Closes and removes the cached pool for the given connection ID.
      * Should be called whenever a {@link DirectoryConnection} is updated.
@@ -180,6 +223,24 @@ public class LdapConnectionFactory {
         pools.clear();
     }
 
+    // ── Reachability ──────────────────────────────────────────────────────────
+
+    private void markUnreachable(DirectoryConnection dc, String error) {
+        if (unreachable.add(dc.getId())) {
+            log.warn("Directory [{}] is unreachable: {}", dc.getDisplayName(), error);
+            eventPublisher.publishEvent(new DirectoryReachabilityEvent(
+                    dc.getId(), dc.getDisplayName(), dc.getHost(), dc.getPort(), false, error));
+        }
+    }
+
+    private void markReachable(DirectoryConnection dc) {
+        if (!unreachable.isEmpty() && unreachable.remove(dc.getId())) {
+            log.info("Directory [{}] is reachable again", dc.getDisplayName());
+            eventPublisher.publishEvent(new DirectoryReachabilityEvent(
+                    dc.getId(), dc.getDisplayName(), dc.getHost(), dc.getPort(), true, null));
+        }
+    }
+
     // ── Pool creation ─────────────────────────────────────────────────────────
 
     private LDAPConnectionPool createPool(DirectoryConnection dc) {
@@ -222,6 +283,9 @@ public class LdapConnectionFactory {
         LDAPConnectionOptions options = new LDAPConnectionOptions();
         options.setConnectTimeoutMillis(dc.getPoolConnectTimeoutSeconds() * 1_000);
         options.setResponseTimeoutMillis((long) dc.getPoolResponseTimeoutSeconds() * 1_000L);
+        // Frees the server-side work, and lets the metrics finish timed-out operations
+        options.setAbandonOnTimeout(true);
+        options.setConnectionLogger(metrics.loggerFor(dc));
         return options;
     }
 
@@ -4,7 +4,7 @@ import com.ldapadmin.ldap.model.LdapEntry;
 import com.ldapadmin.ldap.model.LdapGroup;
 import com.ldapadmin.ldap.model.LdapUser;
 import com.unboundid.ldap.sdk.Attribute;
-import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.Entry;
 
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -12,8 +12,9 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Converts UnboundID {@link SearchResultEntry} objects into the
- * {@link LdapEntry} / {@link LdapUser} / {@link LdapGroup} model hierarchy.
+ * Converts UnboundID {@link Entry} objects (search results or replica
+ * entries) into the {@link LdapEntry} / {@link LdapUser} / {@link LdapGroup}
+ * model hierarchy.
  *
  * <p>All attribute names are lower-cased during conversion to normalise
  * lookups across OpenLDAP and Active Directory schemas.</p>
@@ -22,19 +23,19 @@ final class LdapEntryMapper {
 
     private LdapEntryMapper() {}
 
-    static LdapUser toUser(SearchResultEntry entry) {
+    static LdapUser toUser(Entry entry) {
         return new LdapUser(entry.getDN(), extractAttributes(entry));
     }
 
-    static LdapGroup toGroup(SearchResultEntry entry) {
+    static LdapGroup toGroup(Entry entry) {
         return new LdapGroup(entry.getDN(), extractAttributes(entry));
     }
 
-    static LdapEntry toEntry(SearchResultEntry entry) {
+    static LdapEntry toEntry(Entry entry) {
         return new LdapEntry(entry.getDN(), extractAttributes(entry));
     }
 
-    private static Map<String, List<String>> extractAttributes(SearchResultEntry entry) {
+    private static Map<String, List<String>> extractAttributes(Entry entry) {
         Map<String, List<String>> attrs = new LinkedHashMap<>();
         for (Attribute attr : entry.getAttributes()) {
             attrs.put(attr.getBaseName().toLowerCase(), Arrays.asList(attr.getValues()));
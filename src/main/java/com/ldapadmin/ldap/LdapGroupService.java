@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * LDAP group operations — search, read, create, delete, and member management.
@@ -114,6 +115,57 @@ public class LdapGroupService {
         });
     }
 
+    /**
+     * Streams all matching groups to {@code consumer} page by page, without
+     * accumulating the full result set in memory.
+     *
+     * @param dc         directory connection
+     * @param filter     LDAP filter
+     * @param baseDn     search base (null falls back to the connection's base DN)
+     * @param consumer   called once per matching entry as results arrive
+     * @param attributes attributes to retrieve; empty array retrieves all
+     */
+    public void processGroups(DirectoryConnection dc,
+                              String filter,
+                              String baseDn,
+                              Consumer<LdapGroup> consumer,
+                              String... attributes) {
+        String searchBase = baseDn != null ? baseDn : dc.getBaseDn();
+        int pageSize = dc.getPagingSize();
+
+        connectionFactory.withConnection(dc, conn -> {
+            ASN1OctetString cookie = null;
+            do {
+                SimplePagedResultsControl pagingRequest =
+                    new SimplePagedResultsControl(pageSize, cookie);
+                SearchRequest request = new SearchRequest(
+                    searchBase, SearchScope.SUB, Filter.create(filter), attributes);
+                request.addControl(pagingRequest);
+
+                SearchResult searchResult;
+                try {
+                    searchResult = conn.search(request);
+                } catch (LDAPSearchException e) {
+                    if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) {
+                        log.debug("Search base '{}' does not exist — nothing to process", searchBase);
+                        return null;
+                    }
+                    throw e;
+                }
+                for (SearchResultEntry entry : searchResult.getSearchEntries()) {
+                    consumer.accept(LdapEntryMapper.toGroup(entry));
+                }
+
+                SimplePagedResultsControl pagingResponse =
+                    SimplePagedResultsControl.get(searchResult);
+                cookie = (pagingResponse != null && pagingResponse.moreResultsToReturn())
+                    ? pagingResponse.getCookie()
+                    : null;
+            } while (cookie != null && cookie.getValue().length > 0);
+            return null;
+        });
+    }
+
     // ── Read ──────────────────────────────────────────────────────────────────
 
     /**
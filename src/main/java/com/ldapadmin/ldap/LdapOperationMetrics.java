@@ -0,0 +1,307 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every LDAP operation the application sends, per directory.
+ *
+ * <p>{@link LdapConnectionFactory} installs a {@link #loggerFor connection
+ * logger} on each directory's connections, so searches, reads, writes and
+ * binds are measured on the wire whichever service issued them, including
+ * asynchronous writes.  Meters, all tagged {@code directory} (the
+ * directory's id, stable across renames) and {@code directory_name}:</p>
+ * <ul>
+ *   <li>{@code ldapadmin.ldap.operation} — latency histogram, tagged
+ *       {@code operation} ({@code search}, {@code getEntry} for base-scope
+ *       searches, {@code add}, {@code modify}, {@code delete},
+ *       {@code modDN}, {@code bind}, {@code compare}, {@code extended}) and
+ *       {@code result} (the LDAP result code, or {@code timeout} when no
+ *       response came within the connection's response timeout)</li>
+ *   <li>{@code ldapadmin.ldap.search.entries} and
+ *       {@code ldapadmin.ldap.search.bytes} — entries returned per search,
+ *       and their size (DNs, attribute names and values)</li>
+ *   <li>{@code ldapadmin.ldap.pool.wait} — time spent waiting for a pooled
+ *       connection</li>
+ * </ul>
+ *
+ * <p>Operations slower than {@code ldapadmin.ldap.slow-operation-ms}, and
+ * all timed-out ones, are logged with their target DN and, for searches,
+ * scope and filter; a negative threshold turns the log off.  Timed-out
+ * operations are finished by the abandon request the SDK sends for them,
+ * which the factory enables with
+ * {@link LDAPConnectionOptions#setAbandonOnTimeout}.</p>
+ */
+@Component
+@Slf4j
+public class LdapOperationMetrics {
+
+    static final String TIMEOUT = "timeout";
+
+    private final MeterRegistry registry;
+    private final long          slowThresholdNanos;
+
+    /** Keyed by id and name, so a renamed directory gets meters under its new name. */
+    private final Map<String, Timer> poolWaitTimers = new ConcurrentHashMap<>();
+
+    public LdapOperationMetrics(MeterRegistry registry,
+                                @Value("${ldapadmin.ldap.slow-operation-ms:1000}") long slowOperationMs) {
+        this.registry           = registry;
+        this.slowThresholdNanos = slowOperationMs < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowOperationMs);
+    }
+
+    /** A logger recording the operations of {@code dc}'s connections. */
+    public LDAPConnectionLogger loggerFor(DirectoryConnection dc) {
+        return new OperationLogger(String.valueOf(dc.getId()), dc.getDisplayName());
+    }
+
+    /** Records how long a caller waited to borrow a connection from {@code dc}'s pool. */
+    public void recordPoolWait(DirectoryConnection dc, long nanos) {
+        poolWaitTimers.computeIfAbsent(dc.getId() + "\0" + dc.getDisplayName(), k -> Timer.builder("ldapadmin.ldap.pool.wait")
+                        .description("Time spent waiting for a pooled LDAP connection")
+                        .tag("directory", String.valueOf(dc.getId()))
+                        .tag("directory_name", dc.getDisplayName())
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Rough size of an entry as returned: its DN, attribute names and values. */
+    static long sizeOf(SearchResultEntry entry) {
+        long size = entry.getDN().length();
+        for (Attribute attribute : entry.getAttributes()) {
+            size += attribute.getName().length();
+            for (ASN1OctetString value : attribute.getRawValues()) {
+                size += value.getValueLength();
+            }
+        }
+        return size;
+    }
+
+    private static String resultTag(ResultCode code) {
+        return code.getName().replace(' ', '_').toLowerCase(Locale.ROOT);
+    }
+
+    /** An operation sent and not yet answered. */
+    private static final class InFlight {
+        final String operation;
+        final String dn;
+        final String scope;
+        final String filter;
+        final long   startNanos = System.nanoTime();
+        // Entries arrive on the connection's reader thread, as does the result
+        volatile int  entries;
+        volatile long bytes;
+
+        InFlight(String operation, String dn, String scope, String filter) {
+            this.operation = operation;
+            this.dn        = dn;
+            this.scope     = scope;
+            this.filter    = filter;
+        }
+    }
+
+    private record Key(long connectionId, int messageId) {}
+
+    /**
+     * Matches each result to its request by connection and message id.
+     * Requests whose connection closes before they are answered are dropped.
+     */
+    private final class OperationLogger extends LDAPConnectionLogger {
+
+        private final String directory;
+        private final String directoryName;
+
+        private final Map<Key, InFlight>               inFlight = new ConcurrentHashMap<>();
+        private final Map<String, Timer>               timers   = new ConcurrentHashMap<>();
+        private final Map<String, DistributionSummary> entries  = new ConcurrentHashMap<>();
+        private final Map<String, DistributionSummary> bytes    = new ConcurrentHashMap<>();
+
+        OperationLogger(String directory, String directoryName) {
+            this.directory     = directory;
+            this.directoryName = directoryName;
+        }
+
+        // ── Requests ──────────────────────────────────────────────────────────
+
+        @Override
+        public void logSearchRequest(LDAPConnectionInfo info, int messageID, ReadOnlySearchRequest request) {
+            String operation = request.getScope() == SearchScope.BASE ? "getEntry" : "search";
+            start(info, messageID, new InFlight(operation, request.getBaseDN(),
+                    request.getScope().getName(), request.getFilter().toString()));
+        }
+
+        @Override
+        public void logAddRequest(LDAPConnectionInfo info, int messageID, ReadOnlyAddRequest request) {
+            start(info, messageID, new InFlight("add", request.getDN(), null, null));
+        }
+
+        @Override
+        public void logModifyRequest(LDAPConnectionInfo info, int messageID, ReadOnlyModifyRequest request) {
+            start(info, messageID, new InFlight("modify", request.getDN(), null, null));
+        }
+
+        @Override
+        public void logDeleteRequest(LDAPConnectionInfo info, int messageID, ReadOnlyDeleteRequest request) {
+            start(info, messageID, new InFlight("delete", request.getDN(), null, null));
+        }
+
+        @Override
+        public void logModifyDNRequest(LDAPConnectionInfo info, int messageID, ReadOnlyModifyDNRequest request) {
+            start(info, messageID, new InFlight("modDN", request.getDN(), null, null));
+        }
+
+        @Override
+        public void logBindRequest(LDAPConnectionInfo info, int messageID, SimpleBindRequest request) {
+            start(info, messageID, new InFlight("bind", request.getBindDN(), null, null));
+        }
+
+        @Override
+        public void logBindRequest(LDAPConnectionInfo info, int messageID, SASLBindRequest request) {
+            start(info, messageID, new InFlight("bind", request.getSASLMechanismName(), null, null));
+        }
+
+        @Override
+        public void logCompareRequest(LDAPConnectionInfo info, int messageID, ReadOnlyCompareRequest request) {
+            start(info, messageID, new InFlight("compare", request.getDN(), null, null));
+        }
+
+        @Override
+        public void logExtendedRequest(LDAPConnectionInfo info, int messageID, ExtendedRequest request) {
+            start(info, messageID, new InFlight("extended", request.getOID(), null, null));
+        }
+
+        // ── Responses ─────────────────────────────────────────────────────────
+
+        @Override
+        public void logSearchEntry(LDAPConnectionInfo info, int requestMessageID, SearchResultEntry entry) {
+            InFlight op = inFlight.get(new Key(info.getConnectionID(), requestMessageID));
+            if (op != null) {
+                op.entries++;
+                op.bytes += sizeOf(entry);
+            }
+        }
+
+        @Override
+        public void logSearchResult(LDAPConnectionInfo info, int requestMessageID, SearchResult result) {
+            // The logged result precedes the SDK's own entry count, so use ours
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logAddResult(LDAPConnectionInfo info, int requestMessageID, LDAPResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logModifyResult(LDAPConnectionInfo info, int requestMessageID, LDAPResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logDeleteResult(LDAPConnectionInfo info, int requestMessageID, LDAPResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logModifyDNResult(LDAPConnectionInfo info, int requestMessageID, LDAPResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logBindResult(LDAPConnectionInfo info, int requestMessageID, BindResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logCompareResult(LDAPConnectionInfo info, int requestMessageID, LDAPResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logExtendedResult(LDAPConnectionInfo info, int requestMessageID, ExtendedResult result) {
+            finish(info, requestMessageID, resultTag(result.getResultCode()));
+        }
+
+        @Override
+        public void logAbandonRequest(LDAPConnectionInfo info, int messageID, int messageIDToAbandon,
+                                      List<Control> requestControls) {
+            // Sent only after a response timeout (abandon-on-timeout); no result will follow
+            finish(info, messageIDToAbandon, TIMEOUT);
+        }
+
+        @Override
+        public void logDisconnect(LDAPConnectionInfo info, String host, int port, DisconnectType disconnectType,
+                                  String message, Throwable cause) {
+            long connectionId = info.getConnectionID();
+            inFlight.keySet().removeIf(key -> key.connectionId() == connectionId);
+        }
+
+        // ── Recording ─────────────────────────────────────────────────────────
+
+        private void start(LDAPConnectionInfo info, int messageID, InFlight op) {
+            inFlight.put(new Key(info.getConnectionID(), messageID), op);
+        }
+
+        private void finish(LDAPConnectionInfo info, int messageID, String result) {
+            InFlight op = inFlight.remove(new Key(info.getConnectionID(), messageID));
+            if (op == null) return;
+            long nanos = System.nanoTime() - op.startNanos;
+
+            timers.computeIfAbsent(op.operation + '\0' + result, k -> Timer.builder("ldapadmin.ldap.operation")
+                            .description("LDAP operation latency")
+                            .tag("directory", directory)
+                            .tag("directory_name", directoryName)
+                            .tag("operation", op.operation)
+                            .tag("result", result)
+                            .publishPercentileHistogram()
+                            .register(registry))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+
+            // A timed-out search's entry count is partial
+            if (op.filter != null && !TIMEOUT.equals(result)) {
+                entries.computeIfAbsent(op.operation, k -> DistributionSummary.builder("ldapadmin.ldap.search.entries")
+                                .description("Entries returned per LDAP search")
+                                .tag("directory", directory)
+                                .tag("directory_name", directoryName)
+                                .tag("operation", op.operation)
+                                .publishPercentileHistogram()
+                                .register(registry))
+                        .record(op.entries);
+                bytes.computeIfAbsent(op.operation, k -> DistributionSummary.builder("ldapadmin.ldap.search.bytes")
+                                .description("Size of the entries returned per LDAP search")
+                                .baseUnit("bytes")
+                                .tag("directory", directory)
+                                .tag("directory_name", directoryName)
+                                .tag("operation", op.operation)
+                                .register(registry))
+                        .record(op.bytes);
+            }
+
+            boolean logged = slowThresholdNanos != Long.MAX_VALUE;
+            if (nanos >= slowThresholdNanos || (logged && TIMEOUT.equals(result))) {
+                if (op.filter != null) {
+                    log.warn("Slow LDAP {} on [{}] ({}): {} ms, result={}, entries={}, base={}, scope={}, filter={}",
+                            op.operation, directoryName, directory, TimeUnit.NANOSECONDS.toMillis(nanos), result,
+                            op.entries, op.dn, op.scope, op.filter);
+                } else {
+                    log.warn("Slow LDAP {} on [{}] ({}): {} ms, result={}, dn={}",
+                            op.operation, directoryName, directory, TimeUnit.NANOSECONDS.toMillis(nanos), result, op.dn);
+                }
+            }
+        }
+    }
+}
@@ -7,18 +7,22 @@ import com.unboundid.ldap.sdk.schema.ObjectClassDefinition;
 import com.unboundid.ldap.sdk.schema.Schema;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Discovers the LDAP schema (objectClasses and attributeTypes) from the
  * directory server's subschema subentry.
  *
- * <p>The schema is fetched on each call — caching is intentionally left to
- * the REST layer (Phase 3) where it can be tied to cache eviction events
- * (e.g. user-triggered "refresh schema").</p>
+ * <p>Each directory's schema is cached for {@code ldapadmin.schema.cache-minutes}
+ * and refetched early when the connection settings change, so offline
+ * consumers such as LDIF dry-run validation can check thousands of entries
+ * without a round trip each.</p>
  */
 @Service
 @Slf4j
@@ -27,6 +31,11 @@ public class LdapSchemaService {
 
     private final LdapConnectionFactory connectionFactory;
 
+    @Value("${ldapadmin.schema.cache-minutes:60}")
+    private long cacheMinutes = 60;
+
+    private final Map<UUID, CachedSchema> cache = new ConcurrentHashMap<>();
+
     // ── Public API ────────────────────────────────────────────────────────────
 
     /**
@@ -34,7 +43,7 @@ public class LdapSchemaService {
      * sorted alphabetically.
      */
     public List<SchemaListItem> getObjectClassNames(DirectoryConnection dc) {
-        Schema schema = fetchSchema(dc);
+        Schema schema = getSchema(dc);
         return schema.getObjectClasses().stream()
             .map(ocd -> new SchemaListItem(ocd.getNameOrOID(), ocd.getOID()))
             .sorted(Comparator.comparing(SchemaListItem::name, String.CASE_INSENSITIVE_ORDER))
@@ -46,7 +55,7 @@ public class LdapSchemaService {
      * sorted alphabetically.
      */
     public List<SchemaListItem> getAttributeTypeNames(DirectoryConnection dc) {
-        Schema schema = fetchSchema(dc);
+        Schema schema = getSchema(dc);
         return schema.getAttributeTypes().stream()
             .map(atd -> new SchemaListItem(atd.getNameOrOID(), atd.getOID()))
             .sorted(Comparator.comparing(SchemaListItem::name, String.CASE_INSENSITIVE_ORDER))
@@ -63,7 +72,7 @@ public class LdapSchemaService {
      */
     public ObjectClassAttributes getAttributesForObjectClass(DirectoryConnection dc,
                                                              String objectClass) {
-        Schema schema = fetchSchema(dc);
+        Schema schema = getSchema(dc);
         ObjectClassDefinition ocd = schema.getObjectClass(objectClass);
         if (ocd == null) {
             throw new LdapOperationException(
@@ -83,7 +92,7 @@ public class LdapSchemaService {
      * @throws LdapOperationException if the attribute does not exist in the schema
      */
     public AttributeTypeInfo getAttributeTypeInfo(DirectoryConnection dc, String attributeName) {
-        Schema schema = fetchSchema(dc);
+        Schema schema = getSchema(dc);
         AttributeTypeDefinition atd = schema.getAttributeType(attributeName);
         if (atd == null) {
             throw new LdapOperationException(
@@ -97,6 +106,27 @@ public class LdapSchemaService {
             atd.isSingleValued());
     }
 
+    /**
+     * Returns the directory's schema, from the cache when it is fresh.
+     *
+     * @throws LdapOperationException if the server does not publish a schema
+     */
+    public Schema getSchema(DirectoryConnection dc) {
+        OffsetDateTime now = OffsetDateTime.now();
+        CachedSchema cached = cache.get(dc.getId());
+        if (cached != null && cached.isValidFor(dc, now)) {
+            return cached.schema();
+        }
+        Schema schema = fetchSchema(dc);
+        cache.put(dc.getId(), new CachedSchema(schema, dc.getUpdatedAt(), now.plusMinutes(cacheMinutes)));
+        return schema;
+    }
+
+    /** Drops the cached schema so the next call refetches it. */
+    public void evict(UUID directoryId) {
+        cache.remove(directoryId);
+    }
+
     // ── Private helpers ───────────────────────────────────────────────────────
 
     private Schema fetchSchema(DirectoryConnection dc) {
@@ -187,6 +217,12 @@ public class LdapSchemaService {
 
     // ── Value objects ─────────────────────────────────────────────────────────
 
+    private record CachedSchema(Schema schema, OffsetDateTime dcUpdatedAt, OffsetDateTime expiresAt) {
+        boolean isValidFor(DirectoryConnection dc, OffsetDateTime now) {
+            return now.isBefore(expiresAt) && Objects.equals(dcUpdatedAt, dc.getUpdatedAt());
+        }
+    }
+
     /**
      * Name and OID for schema list entries.
      */
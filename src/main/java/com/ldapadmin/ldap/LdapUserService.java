@@ -145,7 +145,16 @@ public class LdapUserService {
                     searchBase, SearchScope.SUB, Filter.create(filter), attributes);
                 request.addControl(pagingRequest);
 
-                SearchResult searchResult = conn.search(request);
+                SearchResult searchResult;
+                try {
+                    searchResult = conn.search(request);
+                } catch (LDAPSearchException e) {
+                    if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) {
+                        log.debug("Search base '{}' does not exist — nothing to process", searchBase);
+                        return null;
+                    }
+                    throw e;
+                }
                 for (SearchResultEntry entry : searchResult.getSearchEntries()) {
                     consumer.accept(LdapEntryMapper.toUser(entry));
                 }
@@ -205,6 +214,17 @@ public class LdapUserService {
         });
     }
 
+    /**
+     * Opens a pipeline for bulk writes that keeps up to {@code maxInFlight}
+     * adds/modifies outstanding instead of waiting for each one.  Close it
+     * when done to return its connections to the pool.
+     *
+     * @param connections pooled connections to spread the writes over
+     */
+    public LdapWritePipeline openWritePipeline(DirectoryConnection dc, int connections, int maxInFlight) {
+        return connectionFactory.openWritePipeline(dc, connections, maxInFlight);
+    }
+
     // ── Update ────────────────────────────────────────────────────────────────
 
     /**
@@ -0,0 +1,57 @@
+package com.ldapadmin.ldap;
+
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.DeleteRequest;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.ModifyDNRequest;
+import com.unboundid.ldap.sdk.ModifyRequest;
+
+/**
+ * Issues write operations without waiting for each response, keeping a
+ * bounded number outstanding.
+ *
+ * <p>Results are delivered to the callbacks <em>on the submitting thread</em>,
+ * during a later submit, {@link #awaitNext} or {@link #flush} call, so
+ * callbacks need no synchronisation and may themselves submit follow-up
+ * operations.  A pipeline is used by one thread at a time.</p>
+ *
+ * <p>Operation failures arrive as non-success {@link LDAPResult}s rather
+ * than exceptions.</p>
+ */
+public interface LdapWritePipeline extends AutoCloseable {
+
+    /** Queues an add; blocks while the in-flight limit is reached. */
+    void add(AddRequest request, Callback callback) throws InterruptedException;
+
+    /** Queues a modify; blocks while the in-flight limit is reached. */
+    void modify(ModifyRequest request, Callback callback) throws InterruptedException;
+
+    /** Queues a delete; blocks while the in-flight limit is reached. */
+    void delete(DeleteRequest request, Callback callback) throws InterruptedException;
+
+    /** Queues a modify DN; blocks while the in-flight limit is reached. */
+    void modifyDN(ModifyDNRequest request, Callback callback) throws InterruptedException;
+
+    /**
+     * Waits until at least one outstanding operation has completed and
+     * delivers every result received so far.
+     *
+     * @return {@code false} if nothing was outstanding
+     */
+    boolean awaitNext() throws InterruptedException;
+
+    /** Number of operations submitted whose callbacks have not run yet. */
+    int outstanding();
+
+    /** Waits for every outstanding operation, including ones submitted by callbacks. */
+    void flush() throws InterruptedException;
+
+    /** Releases the pipeline's connections; outstanding results are discarded. */
+    @Override
+    void close();
+
+    @FunctionalInterface
+    interface Callback {
+        void onResult(LDAPResult result) throws InterruptedException;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ldapadmin.ldap;
 
+import com.ldapadmin.dto.csv.BulkImportRowResult;
 import com.ldapadmin.dto.ldap.LdifImportResult;
 import com.ldapadmin.dto.ldap.LdifImportResult.LdifImportError;
 import com.ldapadmin.entity.DirectoryConnection;
@@ -7,16 +8,25 @@ import com.ldapadmin.entity.enums.ConflictHandling;
 import com.unboundid.asn1.ASN1OctetString;
 import com.unboundid.ldap.sdk.*;
 import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
-import com.unboundid.ldif.LDIFChangeRecord;
+import com.unboundid.ldap.sdk.schema.EntryValidator;
+import com.unboundid.ldap.sdk.schema.Schema;
+import com.unboundid.ldif.LDIFAddChangeRecord;
+import com.unboundid.ldif.LDIFDeleteChangeRecord;
 import com.unboundid.ldif.LDIFException;
+import com.unboundid.ldif.LDIFModifyChangeRecord;
+import com.unboundid.ldif.LDIFModifyDNChangeRecord;
 import com.unboundid.ldif.LDIFReader;
 import com.unboundid.ldif.LDIFRecord;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
@@ -24,21 +34,59 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
- * Exports LDAP entries in LDIF format (RFC 2849).
+ * Imports and exports LDAP entries in LDIF format (RFC 2849).
  *
  * <p>Supports single-entry and subtree exports. Binary attribute values are
  * base64-encoded. Results are streamed to an {@link OutputStream} so that
  * large subtrees do not accumulate in memory.</p>
+ *
+ * <p>Imports are pipelined; progress is published as
+ * {@code ldapadmin.ldif.import.records} (by outcome) and
+ * {@code ldapadmin.ldif.import.in-flight}.</p>
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class LdifService {
 
     private final LdapConnectionFactory connectionFactory;
+    private final LdapSchemaService     schemaService;
+    private final int                   connections;
+    private final int                   maxInFlight;
+    private final int                   parseThreads;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter       addedCounter;
+    private final Counter       updatedCounter;
+    private final Counter       skippedCounter;
+    private final Counter       failedCounter;
+
+    public LdifService(LdapConnectionFactory connectionFactory,
+                       LdapSchemaService schemaService,
+                       MeterRegistry meterRegistry,
+                       @Value("${ldapadmin.bulk-import.connections:4}") int connections,
+                       @Value("${ldapadmin.bulk-import.max-in-flight:32}") int maxInFlight,
+                       @Value("${ldapadmin.bulk-import.ldif-parse-threads:2}") int parseThreads) {
+        this.connectionFactory = connectionFactory;
+        this.schemaService     = schemaService;
+        this.connections       = connections;
+        this.maxInFlight       = maxInFlight;
+        this.parseThreads      = Math.max(1, parseThreads);
+
+        Gauge.builder("ldapadmin.ldif.import.in-flight", inFlight, AtomicInteger::get)
+                .description("LDIF import operations sent and awaiting a response")
+                .register(meterRegistry);
+        this.addedCounter   = meterRegistry.counter("ldapadmin.ldif.import.records", "outcome", "added");
+        this.updatedCounter = meterRegistry.counter("ldapadmin.ldif.import.records", "outcome", "updated");
+        this.skippedCounter = meterRegistry.counter("ldapadmin.ldif.import.records", "outcome", "skipped");
+        this.failedCounter  = meterRegistry.counter("ldapadmin.ldif.import.records", "outcome", "failed");
+    }
 
     // ── Import ────────────────────────────────────────────────────────────────
 
@@ -52,89 +100,298 @@ public class LdifService {
      * @param dc              directory connection
      * @param ldifContent     raw LDIF byte stream
      * @param conflict        how to handle entries that already exist
-     * @param dryRun          if true, validate only — do not apply changes
+     * @param dryRun          if true, validate against the schema only — do not apply changes
      * @return aggregate result with per-entry error details
      */
     public LdifImportResult importLdif(DirectoryConnection dc,
                                        InputStream ldifContent,
                                        ConflictHandling conflict,
                                        boolean dryRun) {
-        return connectionFactory.withConnection(dc, conn -> {
-            int added = 0, updated = 0, skipped = 0, failed = 0;
-            List<LdifImportError> errors = new ArrayList<>();
+        List<LdifImportError> errors = new ArrayList<>();
+        LdifImportResult totals = importLdif(dc, ldifContent, conflict, dryRun, record -> {
+            if (record.status() == BulkImportRowResult.Status.ERROR) {
+                errors.add(new LdifImportError(record.dn(), record.message()));
+            }
+        });
+        return new LdifImportResult(totals.added(), totals.updated(), totals.skipped(),
+                totals.failed(), errors);
+    }
 
-            try (LDIFReader reader = new LDIFReader(ldifContent)) {
-                LDIFRecord record;
-                while (true) {
-                    try {
-                        record = reader.readLDIFRecord();
-                    } catch (LDIFException e) {
-                        failed++;
-                        errors.add(new LdifImportError(null,
-                                "Parse error at line " + e.getDataLines() + ": " + e.getMessage()));
-                        if (!e.mayContinueReading()) break;
-                        continue;
-                    }
-                    if (record == null) break; // end of stream
+    /**
+     * Streaming variant of {@link #importLdif(DirectoryConnection, InputStream, ConflictHandling, boolean)}:
+     * each record's outcome is passed to {@code results} (numbered from 1 in
+     * file order) as soon as it is known, and the returned totals carry no
+     * error list.
+     *
+     * <p>Records are parsed on background threads and written with
+     * asynchronous operations spread over several pooled connections.  An
+     * operation is held back while an operation on the same entry, one of its
+     * ancestors or one of its descendants is still in flight, so parents are
+     * created before their children and subtree deletes keep file order,
+     * while independent entries proceed in parallel.</p>
+     *
+     * <p>A dry run touches no entries: every add is checked against the
+     * directory's cached schema (object classes, required and allowed
+     * attributes, syntaxes, single-value constraints, RDN values) and every
+     * modify against its attribute types.  Valid records are reported as
+     * skipped.</p>
+     */
+    public LdifImportResult importLdif(DirectoryConnection dc,
+                                       InputStream ldifContent,
+                                       ConflictHandling conflict,
+                                       boolean dryRun,
+                                       Consumer<BulkImportRowResult> results) {
+        Tally tally = new Tally(results);
+        try (LDIFReader reader = new LDIFReader(ldifContent, parseThreads)) {
+            if (dryRun) {
+                validate(schemaService.getSchema(dc), reader, tally);
+            } else {
+                apply(dc, reader, conflict, tally);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("LDIF import interrupted"));
+        }
 
-                    String dn = record.getDN();
-                    try {
-                        if (record instanceof LDIFChangeRecord changeRecord) {
-                            if (dryRun) { skipped++; continue; }
-                            changeRecord.processChange(conn);
-                            // Count change records as "added" for simplicity;
-                            // delete/modify are lumped into "updated"
-                            if (changeRecord instanceof com.unboundid.ldif.LDIFAddChangeRecord) {
-                                added++;
+        log.info("LDIF import {}complete: added={}, updated={}, skipped={}, failed={}",
+                dryRun ? "dry run " : "", tally.added, tally.updated, tally.skipped, tally.failed);
+        return tally.toResult();
+    }
+
+    private void apply(DirectoryConnection dc, LDIFReader reader, ConflictHandling conflict,
+                       Tally tally) throws IOException, InterruptedException {
+        InFlightDns inFlightDns = new InFlightDns();
+        try (LdapWritePipeline pipeline = connectionFactory.openWritePipeline(dc, connections, maxInFlight)) {
+            LDIFRecord record;
+            while ((record = nextRecord(reader, tally)) != null) {
+                int recordNumber = tally.recordNumber;
+                String dn = record.getDN();
+                List<DN> touched;
+                try {
+                    touched = touchedDns(record);
+                } catch (LDAPException e) {
+                    tally.failed(recordNumber, dn, e.getMessage());
+                    continue;
+                }
+                while (inFlightDns.blocks(touched)) {
+                    pipeline.awaitNext();
+                }
+                inFlightDns.add(touched);
+                inFlight.incrementAndGet();
+                Runnable done = () -> {
+                    inFlightDns.remove(touched);
+                    inFlight.decrementAndGet();
+                };
+                submit(pipeline, record, recordNumber, conflict, tally, done);
+            }
+            pipeline.flush();
+        }
+    }
+
+    private void submit(LdapWritePipeline pipeline, LDIFRecord record, int recordNumber,
+                        ConflictHandling conflict, Tally tally, Runnable done) throws InterruptedException {
+        String dn = record.getDN();
+        if (record instanceof Entry entry) {
+            pipeline.add(new AddRequest(entry), result -> {
+                ResultCode code = result.getResultCode();
+                if (code == ResultCode.SUCCESS) {
+                    tally.added(recordNumber, dn);
+                } else if (code == ResultCode.ENTRY_ALREADY_EXISTS && conflict == ConflictHandling.OVERWRITE) {
+                    List<Modification> mods = replaceModifications(entry);
+                    if (mods.isEmpty()) {
+                        tally.updated(recordNumber, dn);
+                    } else {
+                        pipeline.modify(new ModifyRequest(dn, mods), modified -> {
+                            if (modified.getResultCode() == ResultCode.SUCCESS) {
+                                tally.updated(recordNumber, dn);
                             } else {
-                                updated++;
-                            }
-                        } else if (record instanceof Entry entry) {
-                            if (dryRun) { skipped++; continue; }
-                            try {
-                                conn.add(entry);
-                                added++;
-                            } catch (LDAPException ex) {
-                                if (ex.getResultCode() == ResultCode.ENTRY_ALREADY_EXISTS) {
-                                    switch (conflict) {
-                                        case OVERWRITE -> {
-                                            // Replace all attributes from the LDIF entry
-                                            List<Modification> mods = new ArrayList<>();
-                                            for (Attribute attr : entry.getAttributes()) {
-                                                if (attr.getBaseName().equalsIgnoreCase("objectClass")) continue;
-                                                mods.add(new Modification(
-                                                        ModificationType.REPLACE,
-                                                        attr.getBaseName(),
-                                                        attr.getValues()));
-                                            }
-                                            if (!mods.isEmpty()) {
-                                                conn.modify(dn, mods);
-                                            }
-                                            updated++;
-                                        }
-                                        case SKIP, PROMPT -> {
-                                            skipped++;
-                                        }
-                                    }
-                                } else {
-                                    throw ex;
-                                }
+                                tally.failed(recordNumber, dn, describe(modified));
                             }
-                        }
-                    } catch (LDAPException ex) {
-                        failed++;
-                        errors.add(new LdifImportError(dn, ex.getMessage()));
-                        log.warn("LDIF import failed for dn='{}': {}", dn, ex.getMessage());
+                            done.run();
+                        });
+                        return;
                     }
+                } else if (code == ResultCode.ENTRY_ALREADY_EXISTS) {
+                    tally.skipped(recordNumber, dn, "Entry already exists");
+                } else {
+                    tally.failed(recordNumber, dn, describe(result));
                 }
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
+                done.run();
+            });
+            return;
+        }
+
+        LdapWritePipeline.Callback callback = result -> {
+            if (result.getResultCode() != ResultCode.SUCCESS) {
+                tally.failed(recordNumber, dn, describe(result));
+            } else if (record instanceof LDIFAddChangeRecord) {
+                tally.added(recordNumber, dn);
+            } else {
+                tally.updated(recordNumber, dn);
             }
+            done.run();
+        };
+        switch (record) {
+            case LDIFAddChangeRecord add      -> pipeline.add(add.toAddRequest(), callback);
+            case LDIFModifyChangeRecord mod   -> pipeline.modify(mod.toModifyRequest(), callback);
+            case LDIFDeleteChangeRecord del   -> pipeline.delete(del.toDeleteRequest(), callback);
+            case LDIFModifyDNChangeRecord mdn -> pipeline.modifyDN(mdn.toModifyDNRequest(), callback);
+            default -> {
+                tally.failed(recordNumber, dn, "Unsupported LDIF record type");
+                done.run();
+            }
+        }
+    }
 
-            log.info("LDIF import complete: added={}, updated={}, skipped={}, failed={}",
-                    added, updated, skipped, failed);
-            return new LdifImportResult(added, updated, skipped, failed, errors);
-        });
+    private void validate(Schema schema, LDIFReader reader, Tally tally) throws IOException {
+        EntryValidator validator = new EntryValidator(schema);
+        // Servers fill in superior classes on add; flagging them would reject typical LDIF.
+        validator.setCheckMissingSuperiorObjectClasses(false);
+        LDIFRecord record;
+        while ((record = nextRecord(reader, tally)) != null) {
+            int recordNumber = tally.recordNumber;
+            String dn = record.getDN();
+            List<String> problems = new ArrayList<>();
+            if (record instanceof Entry entry) {
+                validator.entryIsValid(entry, problems);
+            } else if (record instanceof LDIFAddChangeRecord add) {
+                validator.entryIsValid(add.getEntryToAdd(), problems);
+            } else if (record instanceof LDIFModifyChangeRecord mod) {
+                for (Modification m : mod.getModifications()) {
+                    if (schema.getAttributeType(m.getAttribute().getBaseName()) == null) {
+                        problems.add("Attribute type " + m.getAttributeName() + " is not defined in the schema");
+                    }
+                }
+            }
+            if (problems.isEmpty()) {
+                tally.skipped(recordNumber, dn, "Dry run: valid");
+            } else {
+                tally.failed(recordNumber, dn, String.join("; ", problems));
+            }
+        }
+    }
+
+    /**
+     * Reads the next record, reporting unparseable ones as failures.
+     *
+     * @return {@code null} at end of input or after an unrecoverable parse error
+     */
+    private LDIFRecord nextRecord(LDIFReader reader, Tally tally) throws IOException {
+        while (true) {
+            tally.recordNumber++;
+            try {
+                return reader.readLDIFRecord();
+            } catch (LDIFException e) {
+                tally.failed(tally.recordNumber, null,
+                        "Parse error at line " + e.getLineNumber() + ": " + e.getMessage());
+                if (!e.mayContinueReading()) return null;
+            }
+        }
+    }
+
+    /** The entries an operation reads or writes: its target, plus the new DN of a rename. */
+    private static List<DN> touchedDns(LDIFRecord record) throws LDAPException {
+        DN dn = record.getParsedDN();
+        if (record instanceof LDIFModifyDNChangeRecord mdn) {
+            return List.of(dn, mdn.getNewDN());
+        }
+        return List.of(dn);
+    }
+
+    /** Replace modifications for every non-objectClass attribute of {@code entry}. */
+    private static List<Modification> replaceModifications(Entry entry) {
+        List<Modification> mods = new ArrayList<>();
+        for (Attribute attr : entry.getAttributes()) {
+            if (attr.getBaseName().equalsIgnoreCase("objectClass")) continue;
+            mods.add(new Modification(ModificationType.REPLACE, attr.getName(), attr.getValueByteArrays()));
+        }
+        return mods;
+    }
+
+    private static String describe(LDAPResult result) {
+        String message = result.getDiagnosticMessage();
+        return result.getResultCode() + (message != null && !message.isBlank() ? ": " + message : "");
+    }
+
+    /** Counts outcomes, forwards them and feeds the import metrics.  Used by one thread. */
+    private final class Tally {
+        private final Consumer<BulkImportRowResult> results;
+        int recordNumber;
+        int added, updated, skipped, failed;
+
+        Tally(Consumer<BulkImportRowResult> results) {
+            this.results = results;
+        }
+
+        void added(int recordNumber, String dn) {
+            added++;
+            addedCounter.increment();
+            results.accept(BulkImportRowResult.created(recordNumber, dn));
+        }
+
+        void updated(int recordNumber, String dn) {
+            updated++;
+            updatedCounter.increment();
+            results.accept(BulkImportRowResult.updated(recordNumber, dn));
+        }
+
+        void skipped(int recordNumber, String dn, String reason) {
+            skipped++;
+            skippedCounter.increment();
+            results.accept(BulkImportRowResult.skipped(recordNumber, dn, reason));
+        }
+
+        void failed(int recordNumber, String dn, String message) {
+            failed++;
+            failedCounter.increment();
+            log.warn("LDIF import failed for dn='{}': {}", dn, message);
+            results.accept(BulkImportRowResult.error(recordNumber, dn, message));
+        }
+
+        LdifImportResult toResult() {
+            return new LdifImportResult(added, updated, skipped, failed, List.of());
+        }
+    }
+
+    /**
+     * DNs with operations in flight.  An operation is blocked while the same
+     * entry, an ancestor or a descendant of any entry it touches is busy.
+     */
+    private static final class InFlightDns {
+        /** Operations targeting exactly this DN. */
+        private final Map<DN, Integer> entries = new HashMap<>();
+        /** Operations targeting this DN or anything below it. */
+        private final Map<DN, Integer> subtrees = new HashMap<>();
+
+        boolean blocks(List<DN> dns) {
+            for (DN dn : dns) {
+                if (subtrees.containsKey(dn)) return true;
+                for (DN parent = dn.getParent(); parent != null; parent = parent.getParent()) {
+                    if (entries.containsKey(parent)) return true;
+                }
+            }
+            return false;
+        }
+
+        void add(List<DN> dns) {
+            for (DN dn : dns) {
+                entries.merge(dn, 1, Integer::sum);
+                for (DN d = dn; d != null; d = d.getParent()) {
+                    subtrees.merge(d, 1, Integer::sum);
+                }
+            }
+        }
+
+        void remove(List<DN> dns) {
+            for (DN dn : dns) {
+                entries.computeIfPresent(dn, (k, n) -> n > 1 ? n - 1 : null);
+                for (DN d = dn; d != null; d = d.getParent()) {
+                    subtrees.computeIfPresent(d, (k, n) -> n > 1 ? n - 1 : null);
+                }
+            }
+        }
     }
 
     // ── Export ────────────────────────────────────────────────────────────────
@@ -200,6 +457,7 @@ public class LdifService {
                         writeEntry(writer, entry);
                         firstEntry = false;
                     }
+                    writer.flush(); // hand each page to the client as it arrives
 
                     SimplePagedResultsControl pageResponse =
                             SimplePagedResultsControl.get(result);
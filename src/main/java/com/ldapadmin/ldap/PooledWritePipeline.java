@@ -0,0 +1,185 @@
+package com.ldapadmin.ldap;
+
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.AsyncRequestID;
+import com.unboundid.ldap.sdk.AsyncResultListener;
+import com.unboundid.ldap.sdk.DeleteRequest;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionPool;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.ModifyDNRequest;
+import com.unboundid.ldap.sdk.ModifyRequest;
+import com.unboundid.ldap.sdk.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link LdapWritePipeline} over a few connections borrowed from a pool.
+ *
+ * <p>Requests are spread round-robin across the connections with the SDK's
+ * asynchronous operations; a semaphore caps how many are outstanding.  The
+ * SDK's reader threads only queue completed results and release permits —
+ * callbacks run when the submitting thread next drains the queue.</p>
+ */
+@Slf4j
+final class PooledWritePipeline implements LdapWritePipeline {
+
+    private final LDAPConnectionPool   pool;
+    private final List<LDAPConnection> connections;
+    private final Semaphore            permits;
+    private final BlockingQueue<Completion> completed = new LinkedBlockingQueue<>();
+
+    private int     next;
+    private int     outstanding;
+    private boolean inCallback;
+
+    PooledWritePipeline(LDAPConnectionPool pool, int connectionCount, int maxInFlight) throws LDAPException {
+        this.pool = pool;
+        this.permits = new Semaphore(Math.max(1, maxInFlight));
+        this.connections = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < Math.max(1, connectionCount); i++) {
+                connections.add(pool.getConnection());
+            }
+        } catch (LDAPException e) {
+            if (connections.isEmpty()) throw e;
+            log.debug("Write pipeline using {} connections: {}", connections.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void add(AddRequest request, Callback callback) throws InterruptedException {
+        submit(callback, (conn, listener) -> conn.asyncAdd(request, listener));
+    }
+
+    @Override
+    public void modify(ModifyRequest request, Callback callback) throws InterruptedException {
+        submit(callback, (conn, listener) -> conn.asyncModify(request, listener));
+    }
+
+    @Override
+    public void delete(DeleteRequest request, Callback callback) throws InterruptedException {
+        submit(callback, (conn, listener) -> conn.asyncDelete(request, listener));
+    }
+
+    @Override
+    public void modifyDN(ModifyDNRequest request, Callback callback) throws InterruptedException {
+        submit(callback, (conn, listener) -> conn.asyncModifyDN(request, listener));
+    }
+
+    @Override
+    public boolean awaitNext() throws InterruptedException {
+        if (outstanding == 0) return false;
+        deliver(completed.take());
+        drainCompleted();
+        return true;
+    }
+
+    @Override
+    public int outstanding() {
+        return outstanding;
+    }
+
+    @Override
+    public void flush() throws InterruptedException {
+        while (outstanding > 0) {
+            deliver(completed.take());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (LDAPConnection conn : connections) {
+            pool.releaseConnection(conn);
+        }
+        connections.clear();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private void submit(Callback callback, AsyncOperation operation) throws InterruptedException {
+        if (!inCallback) {
+            drainCompleted();
+        }
+        permits.acquire();
+        outstanding++;
+        Listener listener = new Listener(callback);
+        LDAPConnection conn = connection();
+        if (conn == null) {
+            listener.ldapResultReceived(null, new LDAPException(
+                    ResultCode.CONNECT_ERROR, "No usable connection").toLDAPResult());
+            return;
+        }
+        try {
+            operation.start(conn, listener);
+        } catch (LDAPException e) {
+            if (!e.getResultCode().isConnectionUsable()) {
+                replace(conn);
+            }
+            listener.ldapResultReceived(null, e.toLDAPResult());
+        }
+    }
+
+    private void drainCompleted() throws InterruptedException {
+        Completion done;
+        while ((done = completed.poll()) != null) {
+            deliver(done);
+        }
+    }
+
+    private void deliver(Completion done) throws InterruptedException {
+        outstanding--;
+        boolean nested = inCallback;
+        inCallback = true;
+        try {
+            done.callback().onResult(done.result());
+        } finally {
+            inCallback = nested;
+        }
+    }
+
+    private LDAPConnection connection() {
+        if (connections.isEmpty()) return null;
+        next = (next + 1) % connections.size();
+        return connections.get(next);
+    }
+
+    /** Swaps a broken connection for a fresh one from the pool, or drops it. */
+    private void replace(LDAPConnection broken) {
+        int index = connections.indexOf(broken);
+        pool.releaseDefunctConnection(broken);
+        try {
+            connections.set(index, pool.getConnection());
+        } catch (LDAPException e) {
+            connections.remove(index);
+        }
+    }
+
+    @FunctionalInterface
+    private interface AsyncOperation {
+        AsyncRequestID start(LDAPConnection connection, AsyncResultListener listener) throws LDAPException;
+    }
+
+    private record Completion(Callback callback, LDAPResult result) {}
+
+    /** Runs on an SDK reader (or timeout) thread: hands the result over and frees the slot. */
+    private final class Listener implements AsyncResultListener {
+        private final Callback callback;
+
+        Listener(Callback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void ldapResultReceived(AsyncRequestID requestID, LDAPResult result) {
+            completed.add(new Completion(callback, result));
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.exception.LdapConnectionException;
+import com.ldapadmin.exception.LdapOperationException;
+import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.ldap.model.LdapEntry;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.*;
+import com.unboundid.ldap.sdk.controls.ServerSideSortRequestControl;
+import com.unboundid.ldap.sdk.controls.ServerSideSortResponseControl;
+import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
+import com.unboundid.ldap.sdk.controls.SortKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-side search cursors for paging through large result sets.
+ *
+ * <p>A cursor keeps its search request and the Simple Paged Results cookie
+ * (RFC 2696) on a connection borrowed from the directory's pool, so each
+ * {@link #next} costs exactly one page.  Paging cookies are only valid on
+ * the connection that issued them, which makes connections the scarce
+ * resource: a cursor idle for {@code ldapadmin.search-cursor.idle-seconds},
+ * or the least recently used one once a directory has
+ * {@code ldapadmin.search-cursor.max-connected-per-directory} connected
+ * cursors, abandons its server-side paging state and returns the
+ * connection.  Such a detached cursor still resumes where it left off by
+ * re-running the search and skipping the entries already returned.  Cursors
+ * unused for {@code ldapadmin.search-cursor.ttl-minutes} are discarded.</p>
+ *
+ * <p>An optional sort attribute adds a non-critical server-side sort
+ * control (RFC 2891); servers without sort support return unsorted pages,
+ * reported through {@link Page#sorted()}.  Cursor tokens are opaque and
+ * bound to the directory and principal that opened them.</p>
+ */
+@Service
+@Slf4j
+public class SearchCursorService {
+
+    /** One page of results; {@code cursor} is null once the search is exhausted. */
+    public record Page(List<LdapEntry> entries, String cursor, boolean sorted) {}
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final LdapConnectionFactory connectionFactory;
+    private final long                  idleMillis;
+    private final long                  ttlMillis;
+    private final int                   maxConnectedPerDirectory;
+
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+
+    public SearchCursorService(LdapConnectionFactory connectionFactory,
+                               MeterRegistry meterRegistry,
+                               @Value("${ldapadmin.search-cursor.idle-seconds:60}") long idleSeconds,
+                               @Value("${ldapadmin.search-cursor.ttl-minutes:15}") long ttlMinutes,
+                               @Value("${ldapadmin.search-cursor.max-connected-per-directory:4}") int maxConnectedPerDirectory) {
+        this.connectionFactory        = connectionFactory;
+        this.idleMillis               = idleSeconds * 1000;
+        this.ttlMillis                = ttlMinutes * 60_000;
+        this.maxConnectedPerDirectory = Math.max(1, maxConnectedPerDirectory);
+
+        Gauge.builder("ldapadmin.search.cursors.open", cursors, Map::size)
+                .description("Open server-side search cursors")
+                .register(meterRegistry);
+        Gauge.builder("ldapadmin.search.cursors.connected", this, s -> s.countConnected(null))
+                .description("Search cursors holding a pooled connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a subtree search and returns its first page.
+     *
+     * @param sort attribute to sort by, prefixed with {@code -} for descending;
+     *             null or blank for server order
+     */
+    public Page open(DirectoryConnection dc, UUID ownerId, String filter, String baseDn,
+                     String sort, int pageSize, String... attributes) {
+        String searchBase = baseDn != null ? baseDn : dc.getBaseDn();
+        SearchRequest request;
+        try {
+            request = new SearchRequest(searchBase, SearchScope.SUB, Filter.create(filter), attributes);
+        } catch (LDAPException e) {
+            throw new LdapOperationException("Invalid search filter: " + e.getMessage(), e);
+        }
+        if (sort != null && !sort.isBlank()) {
+            boolean reverse = sort.startsWith("-");
+            String attribute = reverse ? sort.substring(1) : sort;
+            request.addControl(new ServerSideSortRequestControl(false, new SortKey(attribute, reverse)));
+        }
+
+        Cursor cursor = new Cursor(newToken(), dc.getId(), ownerId, request, Math.max(1, pageSize));
+        cursors.put(cursor.token, cursor);
+        return fetch(dc, cursor);
+    }
+
+    /**
+     * Returns the next page of an open cursor.
+     *
+     * @throws ResourceNotFoundException if the cursor has expired or belongs
+     *                                   to another directory or principal
+     */
+    public Page next(DirectoryConnection dc, UUID ownerId, String token) {
+        return fetch(dc, find(dc.getId(), ownerId, token));
+    }
+
+    /** Closes a cursor early, returning its connection to the pool. */
+    public void close(UUID directoryId, UUID ownerId, String token) {
+        Cursor cursor = find(directoryId, ownerId, token);
+        cursors.remove(token);
+        cursor.lock.lock();
+        try {
+            detach(cursor);
+        } finally {
+            cursor.lock.unlock();
+        }
+    }
+
+    /** Detaches idle cursors and discards expired ones. */
+    @Scheduled(fixedDelayString = "${ldapadmin.search-cursor.sweep-interval-ms:15000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Cursor cursor : cursors.values()) {
+            if (now - cursor.lastUsed > ttlMillis) {
+                cursors.remove(cursor.token);
+                detachIfIdle(cursor);
+            } else if (cursor.connection != null && now - cursor.lastUsed > idleMillis) {
+                detachIfIdle(cursor);
+            }
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        for (Cursor cursor : cursors.values()) {
+            detachIfIdle(cursor);
+        }
+        cursors.clear();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private Page fetch(DirectoryConnection dc, Cursor cursor) {
+        cursor.lock.lock();
+        try {
+            cursor.lastUsed = System.currentTimeMillis();
+            if (cursor.exhausted) {
+                cursors.remove(cursor.token);
+                return new Page(List.of(), null, cursor.sorted);
+            }
+            try {
+                if (cursor.connection == null) {
+                    attach(dc, cursor);
+                }
+                List<LdapEntry> entries = cursor.exhausted ? List.of() : readPage(cursor);
+                cursor.position += entries.size();
+                if (cursor.exhausted) {
+                    cursors.remove(cursor.token);
+                }
+                return new Page(entries, cursor.exhausted ? null : cursor.token, cursor.sorted);
+            } catch (LDAPException e) {
+                cursors.remove(cursor.token);
+                if (!e.getResultCode().isConnectionUsable() && cursor.connection != null) {
+                    cursor.pool.releaseDefunctConnection(cursor.connection);
+                    cursor.connection = null;
+                }
+                if (e.getResultCode() == ResultCode.NO_SUCH_OBJECT) {
+                    return new Page(List.of(), null, false);
+                }
+                throw new LdapConnectionException(
+                        "LDAP operation failed on [" + dc.getDisplayName() + "]: " + e.getMessage(), e);
+            }
+        } finally {
+            // Closed or expired while this request was running
+            if (cursors.get(cursor.token) != cursor) {
+                detach(cursor);
+            }
+            cursor.lock.unlock();
+        }
+    }
+
+    /**
+     * Borrows a connection for {@code cursor}.  A cursor that has already
+     * returned entries restarts its search and skips them.
+     */
+    private void attach(DirectoryConnection dc, Cursor cursor) throws LDAPException {
+        makeRoom(dc.getId(), cursor);
+        cursor.pool = connectionFactory.getPool(dc);
+        cursor.connection = cursor.pool.getConnection();
+        cursor.cookie = null;
+
+        long skip = cursor.position;
+        int pageSize = cursor.pageSize;
+        while (skip > 0 && !cursor.exhausted) {
+            cursor.pageSize = (int) Math.min(skip, Math.max(pageSize, dc.getPagingSize()));
+            skip -= readPage(cursor).size();
+        }
+        cursor.pageSize = pageSize;
+        if (cursor.position > 0) {
+            log.debug("Search cursor re-attached after {} entries", cursor.position);
+        }
+    }
+
+    /** Detaches least recently used cursors until {@code directoryId} has a free slot. */
+    private void makeRoom(UUID directoryId, Cursor requester) {
+        while (countConnected(directoryId) >= maxConnectedPerDirectory) {
+            Cursor victim = cursors.values().stream()
+                    .filter(c -> c != requester && c.directoryId.equals(directoryId) && c.connection != null)
+                    .min(Comparator.comparingLong(c -> c.lastUsed))
+                    .orElse(null);
+            if (victim == null || !detachIfIdle(victim)) {
+                return;
+            }
+        }
+    }
+
+    private List<LdapEntry> readPage(Cursor cursor) throws LDAPException {
+        SearchRequest request = cursor.request.duplicate();
+        request.addControl(new SimplePagedResultsControl(cursor.pageSize, cursor.cookie));
+        SearchResult result = cursor.connection.search(request);
+
+        List<LdapEntry> entries = new ArrayList<>(result.getEntryCount());
+        for (SearchResultEntry entry : result.getSearchEntries()) {
+            entries.add(LdapEntryMapper.toEntry(entry));
+        }
+
+        ServerSideSortResponseControl sortResponse = ServerSideSortResponseControl.get(result);
+        cursor.sorted = sortResponse != null && sortResponse.getResultCode() == ResultCode.SUCCESS;
+
+        SimplePagedResultsControl paging = SimplePagedResultsControl.get(result);
+        cursor.cookie = (paging != null && paging.moreResultsToReturn()) ? paging.getCookie() : null;
+        cursor.exhausted = cursor.cookie == null;
+        return entries;
+    }
+
+    /** Detaches {@code cursor} unless a request is currently using it. */
+    private boolean detachIfIdle(Cursor cursor) {
+        // Never wait on a cursor that is mid-request
+        if (!cursor.lock.tryLock()) {
+            return false;
+        }
+        try {
+            detach(cursor);
+            return true;
+        } finally {
+            cursor.lock.unlock();
+        }
+    }
+
+    /** Abandons the server-side paging state and returns the connection. */
+    private void detach(Cursor cursor) {
+        LDAPConnection conn = cursor.connection;
+        if (conn == null) return;
+        if (cursor.cookie != null) {
+            try {
+                SearchRequest abandon = cursor.request.duplicate();
+                abandon.addControl(new SimplePagedResultsControl(0, cursor.cookie));
+                conn.search(abandon);
+            } catch (LDAPException e) {
+                log.debug("Could not abandon paged search: {}", e.getMessage());
+            }
+        }
+        cursor.pool.releaseConnection(conn);
+        cursor.connection = null;
+        cursor.cookie = null;
+    }
+
+    private int countConnected(UUID directoryId) {
+        int count = 0;
+        for (Cursor cursor : cursors.values()) {
+            if (cursor.connection != null && (directoryId == null || cursor.directoryId.equals(directoryId))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Cursor find(UUID directoryId, UUID ownerId, String token) {
+        Cursor cursor = token != null ? cursors.get(token) : null;
+        if (cursor == null || !cursor.directoryId.equals(directoryId) || !cursor.ownerId.equals(ownerId)) {
+            throw new ResourceNotFoundException("SearchCursor", token);
+        }
+        return cursor;
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[18];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Cursor {
+        final String        token;
+        final UUID          directoryId;
+        final UUID          ownerId;
+        final SearchRequest request;
+        final ReentrantLock lock = new ReentrantLock();
+        int                 pageSize;
+        long                position;
+        boolean             exhausted;
+        boolean             sorted;
+        ASN1OctetString     cookie;
+        LDAPConnectionPool  pool;
+        volatile LDAPConnection connection;
+        volatile long       lastUsed = System.currentTimeMillis();
+
+        Cursor(String token, UUID directoryId, UUID ownerId, SearchRequest request, int pageSize) {
+            this.token       = token;
+            this.directoryId = directoryId;
+            this.ownerId     = ownerId;
+            this.request     = request;
+            this.pageSize    = pageSize;
+        }
+    }
+}
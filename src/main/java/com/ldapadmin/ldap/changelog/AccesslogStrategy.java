@@ -1,10 +1,15 @@
 package com.ldapadmin.ldap.changelog;
 
 import com.ldapadmin.entity.AuditDataSource;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.Control;
+import com.unboundid.ldap.sdk.Filter;
 import com.unboundid.ldap.sdk.LDAPException;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResultEntry;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestMode;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
@@ -14,6 +19,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -54,25 +60,47 @@ public class AccesslogStrategy implements ChangelogStrategy {
                     .toFormatter();
 
     @Override
-    public SearchRequest buildSearchRequest(AuditDataSource src, int sizeLimit) throws LDAPException {
-        String filter;
+    public SearchRequest buildSearchRequest(AuditDataSource src, String fromEntryId, int sizeLimit)
+            throws LDAPException {
+        StringBuilder filter = new StringBuilder("(&(objectClass=auditWriteObject)(reqResult=0)");
         if (src.getBranchFilterDn() != null && !src.getBranchFilterDn().isBlank()) {
             // Filter to entries whose reqDN ends with the branch filter DN
-            filter = "(&(objectClass=auditWriteObject)(reqResult=0)"
-                    + "(reqDN=*" + src.getBranchFilterDn() + "))";
-        } else {
-            filter = "(&(objectClass=auditWriteObject)(reqResult=0))";
+            filter.append("(reqDN=*").append(src.getBranchFilterDn()).append(')');
         }
+        if (fromEntryId != null && !fromEntryId.isBlank()) {
+            // reqStart is a GeneralizedTime with ordering; the boundary entry is skipped by the caller
+            filter.append("(reqStart>=").append(Filter.encodeValue(fromEntryId)).append(')');
+        }
+        filter.append(')');
 
         SearchRequest req = new SearchRequest(
                 src.getChangelogBaseDn(),
                 SearchScope.ONE,
-                filter,
+                filter.toString(),
                 ATTRIBUTES);
         req.setSizeLimit(sizeLimit);
         return req;
     }
 
+    /**
+     * {@code reqStart} values are fixed-width timestamps followed by a
+     * fixed-width serial, so lexical order is chronological order.
+     */
+    @Override
+    public Comparator<String> entryIdOrder() {
+        return Comparator.naturalOrder();
+    }
+
+    /**
+     * RFC 4533 refreshAndPersist.  Requires the {@code syncprov} overlay on the
+     * accesslog database — the same setup delta-syncrepl uses.
+     */
+    @Override
+    public Control buildPushControl(byte[] syncCookie) {
+        return new ContentSyncRequestControl(true, ContentSyncRequestMode.REFRESH_AND_PERSIST,
+                syncCookie != null ? new ASN1OctetString(syncCookie) : null, false);
+    }
+
     @Override
     public String extractEntryId(SearchResultEntry entry) {
         return entry.getAttributeValue("reqStart");
@@ -1,11 +1,13 @@
 package com.ldapadmin.ldap.changelog;
 
 import com.ldapadmin.entity.AuditDataSource;
+import com.unboundid.ldap.sdk.Control;
 import com.unboundid.ldap.sdk.LDAPException;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResultEntry;
 
 import java.time.OffsetDateTime;
+import java.util.Comparator;
 import java.util.Map;
 
 /**
@@ -16,8 +18,38 @@ import java.util.Map;
  */
 public interface ChangelogStrategy {
 
+    /**
+     * Build the LDAP search request for this changelog format, restricted to
+     * entries at or after {@code fromEntryId} when the format supports it
+     * ({@code null} → from the beginning).  Callers still skip the boundary
+     * entry itself using {@link #entryIdOrder()}.
+     */
+    SearchRequest buildSearchRequest(AuditDataSource src, String fromEntryId, int sizeLimit)
+            throws LDAPException;
+
     /** Build the LDAP search request for this changelog format. */
-    SearchRequest buildSearchRequest(AuditDataSource src, int sizeLimit) throws LDAPException;
+    default SearchRequest buildSearchRequest(AuditDataSource src, int sizeLimit) throws LDAPException {
+        return buildSearchRequest(src, null, sizeLimit);
+    }
+
+    /**
+     * Ordering of entry identifiers, used to resume after the last recorded
+     * entry.  {@code null} when identifiers carry no order and progress is
+     * tracked by a server cookie instead.
+     */
+    default Comparator<String> entryIdOrder() {
+        return null;
+    }
+
+    /**
+     * Control that turns the search into a long-lived stream the server pushes
+     * new entries to, or {@code null} if this format has none.
+     *
+     * @param syncCookie cookie from a previous stream, or {@code null}
+     */
+    default Control buildPushControl(byte[] syncCookie) {
+        return null;
+    }
 
     /** Extract a unique entry identifier ({@code changeNumber} or {@code reqStart}). {@code null} → skip. */
     String extractEntryId(SearchResultEntry entry);
@@ -33,7 +33,9 @@ public class DirSyncChangelogStrategy implements ChangelogStrategy {
     };
 
     @Override
-    public SearchRequest buildSearchRequest(AuditDataSource src, int sizeLimit) throws LDAPException {
+    public SearchRequest buildSearchRequest(AuditDataSource src, String fromEntryId, int sizeLimit)
+            throws LDAPException {
+        // Progress is tracked by the DirSync cookie, so fromEntryId is ignored.
         // DirSync searches against the directory root, not a changelog container
         String baseDn = src.getChangelogBaseDn() != null ? src.getChangelogBaseDn() : "";
         SearchRequest req = new SearchRequest(
@@ -1,10 +1,13 @@
 package com.ldapadmin.ldap.changelog;
 
 import com.ldapadmin.entity.AuditDataSource;
+import com.unboundid.ldap.sdk.Control;
 import com.unboundid.ldap.sdk.LDAPException;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResultEntry;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.PersistentSearchChangeType;
+import com.unboundid.ldap.sdk.controls.PersistentSearchRequestControl;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
@@ -14,6 +17,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -41,22 +45,50 @@ public class DseeChangelogStrategy implements ChangelogStrategy {
                     .appendLiteral('Z')
                     .toFormatter();
 
+    /** Numeric order; non-numeric ids (never produced by a conforming server) sort first. */
+    private static final Comparator<String> CHANGE_NUMBER_ORDER =
+            Comparator.comparingLong(DseeChangelogStrategy::parseChangeNumber);
+
     @Override
-    public SearchRequest buildSearchRequest(AuditDataSource src, int sizeLimit) throws LDAPException {
-        String filter = "(objectClass=changeLogEntry)";
+    public SearchRequest buildSearchRequest(AuditDataSource src, String fromEntryId, int sizeLimit)
+            throws LDAPException {
+        StringBuilder filter = new StringBuilder("(objectClass=changeLogEntry)");
         if (src.getBranchFilterDn() != null && !src.getBranchFilterDn().isBlank()) {
-            filter = "(&(objectClass=changeLogEntry)(targetDN=" + src.getBranchFilterDn() + "*))";
+            filter.append("(targetDN=").append(src.getBranchFilterDn()).append("*)");
+        }
+        long from = parseChangeNumber(fromEntryId);
+        if (from >= 0) {
+            // changeNumber is ordered, so start right after the last recorded change
+            filter.append("(changeNumber>=").append(from + 1).append(')');
         }
 
+        String combined = filter.indexOf(")(") > 0 ? "(&" + filter + ")" : filter.toString();
+
         SearchRequest req = new SearchRequest(
                 src.getChangelogBaseDn(),
                 SearchScope.ONE,
-                filter,
+                combined,
                 ATTRIBUTES);
         req.setSizeLimit(sizeLimit);
         return req;
     }
 
+    @Override
+    public Comparator<String> entryIdOrder() {
+        return CHANGE_NUMBER_ORDER;
+    }
+
+    /**
+     * Persistent search for newly added changelog entries.  {@code changesOnly}
+     * is off so the server first returns existing entries matching the
+     * lower-bounded filter, closing the gap between the last read and the
+     * start of the stream.
+     */
+    @Override
+    public Control buildPushControl(byte[] syncCookie) {
+        return new PersistentSearchRequestControl(PersistentSearchChangeType.ADD, false, false);
+    }
+
     @Override
     public String extractEntryId(SearchResultEntry entry) {
         return entry.getAttributeValue("changeNumber");
@@ -91,6 +123,15 @@ public class DseeChangelogStrategy implements ChangelogStrategy {
         return true; // cn=changelog only contains completed write operations
     }
 
+    private static long parseChangeNumber(String value) {
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
     static OffsetDateTime parseGeneralizedTime(String value) {
         if (value == null || value.isBlank()) {
             return OffsetDateTime.now(ZoneOffset.UTC);
@@ -38,4 +38,29 @@ public interface AccessReviewCampaignRepository extends JpaRepository<AccessRevi
             @Param("directoryId") UUID directoryId,
             @Param("from") OffsetDateTime from,
             @Param("to") OffsetDateTime to);
+
+    /** A campaign's decision totals, summed from its review groups' counters. */
+    interface CampaignProgress {
+        UUID getId();
+
+        String getName();
+
+        UUID getDirectoryId();
+
+        String getDirectoryName();
+
+        OffsetDateTime getDeadline();
+
+        long getTotal();
+
+        long getDecided();
+    }
+
+    @Query("SELECT c.id AS id, c.name AS name, d.id AS directoryId, d.displayName AS directoryName, "
+            + "c.deadline AS deadline, COALESCE(SUM(g.totalCount), 0) AS total, "
+            + "COALESCE(SUM(g.confirmedCount + g.revokedCount), 0) AS decided "
+            + "FROM AccessReviewCampaign c JOIN c.directory d LEFT JOIN c.reviewGroups g "
+            + "WHERE c.status = :status "
+            + "GROUP BY c.id, c.name, d.id, d.displayName, c.deadline")
+    List<CampaignProgress> findProgressByStatus(@Param("status") CampaignStatus status);
 }
@@ -1,12 +1,18 @@
 package com.ldapadmin.repository;
 
 import com.ldapadmin.entity.AccessReviewDecision;
+import com.ldapadmin.entity.Account;
 import com.ldapadmin.entity.enums.ReviewDecision;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +21,66 @@ public interface AccessReviewDecisionRepository extends JpaRepository<AccessRevi
 
     List<AccessReviewDecision> findByReviewGroupId(UUID reviewGroupId);
 
+    /** Id and member of an undecided row, as selected for a bulk decision. */
+    interface PendingMember {
+        UUID getId();
+
+        String getMemberDn();
+    }
+
+    /** Matches a lower-cased {@code LIKE} pattern against member DN and display name. */
+    String MEMBER_MATCH = "(LOWER(d.memberDn) LIKE :pattern ESCAPE '\\' "
+            + "OR LOWER(d.memberDisplay) LIKE :pattern ESCAPE '\\')";
+
+    /**
+     * One page of a review group's decisions.  {@code decision} restricts to
+     * one outcome when non-null; {@code pendingOnly} to undecided rows.
+     */
+    @Query(value = "SELECT d FROM AccessReviewDecision d LEFT JOIN FETCH d.decidedBy " +
+                   "WHERE d.reviewGroup.id = :groupId " +
+                   "AND (:decision IS NULL OR d.decision = :decision) " +
+                   "AND (:pendingOnly = false OR d.decision IS NULL) " +
+                   "AND " + MEMBER_MATCH,
+           countQuery = "SELECT COUNT(d) FROM AccessReviewDecision d " +
+                   "WHERE d.reviewGroup.id = :groupId " +
+                   "AND (:decision IS NULL OR d.decision = :decision) " +
+                   "AND (:pendingOnly = false OR d.decision IS NULL) " +
+                   "AND " + MEMBER_MATCH)
+    Page<AccessReviewDecision> findPage(@Param("groupId") UUID groupId,
+                                        @Param("decision") ReviewDecision decision,
+                                        @Param("pendingOnly") boolean pendingOnly,
+                                        @Param("pattern") String pattern,
+                                        Pageable pageable);
+
+    @Query("SELECT d.id AS id, d.memberDn AS memberDn FROM AccessReviewDecision d " +
+           "WHERE d.reviewGroup.id = :groupId AND d.decision IS NULL AND d.id IN :ids")
+    List<PendingMember> findPendingByIds(@Param("groupId") UUID groupId, @Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT d.id AS id, d.memberDn AS memberDn FROM AccessReviewDecision d " +
+           "WHERE d.reviewGroup.id = :groupId AND d.decision IS NULL AND " + MEMBER_MATCH)
+    List<PendingMember> findPendingMatching(@Param("groupId") UUID groupId, @Param("pattern") String pattern);
+
+    /**
+     * Decides the given rows in one statement.  Rows decided meanwhile are
+     * left alone, so a return value short of {@code ids.size()} means a
+     * concurrent decision won; the version bump makes any in-flight
+     * single decision on these rows fail its optimistic lock.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccessReviewDecision d SET d.decision = :decision, d.comment = :comment, " +
+           "d.decidedBy = :actor, d.decidedAt = :decidedAt, d.version = d.version + 1 " +
+           "WHERE d.id IN :ids AND d.decision IS NULL")
+    int decidePending(@Param("ids") Collection<UUID> ids,
+                      @Param("decision") ReviewDecision decision,
+                      @Param("comment") String comment,
+                      @Param("actor") Account actor,
+                      @Param("decidedAt") OffsetDateTime decidedAt);
+
+    @Modifying
+    @Query("UPDATE AccessReviewDecision d SET d.revokedAt = :revokedAt, d.version = d.version + 1 " +
+           "WHERE d.id IN :ids")
+    int markRevoked(@Param("ids") Collection<UUID> ids, @Param("revokedAt") OffsetDateTime revokedAt);
+
     long countByReviewGroupIdAndDecisionIsNull(UUID reviewGroupId);
 
     @Query("SELECT COUNT(d) FROM AccessReviewDecision d WHERE d.reviewGroup.campaign.id = :campaignId AND d.decision IS NULL")
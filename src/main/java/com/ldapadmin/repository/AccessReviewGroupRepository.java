@@ -2,6 +2,9 @@ package com.ldapadmin.repository;
 
 import com.ldapadmin.entity.AccessReviewGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +16,10 @@ public interface AccessReviewGroupRepository extends JpaRepository<AccessReviewG
     List<AccessReviewGroup> findByCampaignId(UUID campaignId);
 
     List<AccessReviewGroup> findByCampaignIdAndReviewerId(UUID campaignId, UUID reviewerId);
+
+    /** Adds newly made decisions to the group's progress counters. */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccessReviewGroup g SET g.confirmedCount = g.confirmedCount + :confirmed, " +
+           "g.revokedCount = g.revokedCount + :revoked WHERE g.id = :groupId")
+    int addDecided(@Param("groupId") UUID groupId, @Param("confirmed") int confirmed, @Param("revoked") int revoked);
 }
@@ -17,6 +17,9 @@ public interface AdminProfileRoleRepository extends JpaRepository<AdminProfileRo
 
     List<AdminProfileRole> findAllByAdminAccountId(UUID adminAccountId);
 
+    @Query("SELECT r FROM AdminProfileRole r JOIN FETCH r.profile WHERE r.adminAccount.id = :adminId")
+    List<AdminProfileRole> findAllByAdminAccountIdWithProfile(@Param("adminId") UUID adminAccountId);
+
     List<AdminProfileRole> findAllByProfileId(UUID profileId);
 
     boolean existsByAdminAccountIdAndProfileId(UUID adminAccountId, UUID profileId);
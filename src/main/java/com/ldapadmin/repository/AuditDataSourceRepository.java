@@ -2,7 +2,11 @@ package com.ldapadmin.repository;
 
 import com.ldapadmin.entity.AuditDataSource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -11,4 +15,13 @@ import java.util.UUID;
 public interface AuditDataSourceRepository extends JpaRepository<AuditDataSource, UUID> {
 
     List<AuditDataSource> findAllByEnabledTrue();
+
+    /** Records how far the changelog has been read; {@code null}s reset it. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuditDataSource s SET s.lastChangeId = :lastChangeId, s.syncCookie = :syncCookie "
+            + "WHERE s.id = :id")
+    int updateChangePosition(@Param("id") UUID id,
+                             @Param("lastChangeId") String lastChangeId,
+                             @Param("syncCookie") byte[] syncCookie);
 }
@@ -2,8 +2,11 @@ package com.ldapadmin.repository;
 
 import com.ldapadmin.entity.DirectoryConnection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +19,65 @@ public interface DirectoryConnectionRepository extends JpaRepository<DirectoryCo
     Optional<DirectoryConnection> findByUserRepositoryTrue();
 
     List<DirectoryConnection> findAllByAuditDataSourceId(UUID auditDataSourceId);
+
+    /**
+     * Open work in one directory: pending approvals, bucketed by age, active
+     * access review campaigns and open SoD violations.
+     */
+    interface DirectoryActivity {
+        UUID getDirectoryId();
+
+        long getPendingApprovals();
+
+        long getPendingUnder1d();
+
+        long getPending1to3d();
+
+        long getPending3to7d();
+
+        long getPendingOver7d();
+
+        long getActiveCampaigns();
+
+        long getOpenSodViolations();
+    }
+
+    /**
+     * {@link DirectoryActivity} for every directory, in one grouped query.
+     * Approval ages are measured at {@code now}.  Aliases are quoted so
+     * PostgreSQL keeps the case the projection's getters expect.
+     */
+    @Query(value = """
+            SELECT d.id                       AS "directoryId",
+                   COALESCE(a.pending, 0)     AS "pendingApprovals",
+                   COALESCE(a.under_1d, 0)    AS "pendingUnder1d",
+                   COALESCE(a.d1_to_3, 0)     AS "pending1to3d",
+                   COALESCE(a.d3_to_7, 0)     AS "pending3to7d",
+                   COALESCE(a.over_7d, 0)     AS "pendingOver7d",
+                   COALESCE(c.active, 0)      AS "activeCampaigns",
+                   COALESCE(v.open_count, 0)  AS "openSodViolations"
+            FROM directory_connections d
+            LEFT JOIN (SELECT directory_id,
+                              COUNT(*) AS pending,
+                              COUNT(*) FILTER (WHERE created_at >  CAST(:now AS TIMESTAMPTZ) - INTERVAL '24 hours') AS under_1d,
+                              COUNT(*) FILTER (WHERE created_at <= CAST(:now AS TIMESTAMPTZ) - INTERVAL '24 hours'
+                                                 AND created_at >  CAST(:now AS TIMESTAMPTZ) - INTERVAL '72 hours') AS d1_to_3,
+                              COUNT(*) FILTER (WHERE created_at <= CAST(:now AS TIMESTAMPTZ) - INTERVAL '72 hours'
+                                                 AND created_at >  CAST(:now AS TIMESTAMPTZ) - INTERVAL '168 hours') AS d3_to_7,
+                              COUNT(*) FILTER (WHERE created_at <= CAST(:now AS TIMESTAMPTZ) - INTERVAL '168 hours') AS over_7d
+                       FROM workflow_approvals
+                       WHERE status = 'PENDING'
+                       GROUP BY directory_id) a ON a.directory_id = d.id
+            LEFT JOIN (SELECT directory_id, COUNT(*) AS active
+                       FROM access_review_campaigns
+                       WHERE status = 'ACTIVE'
+                       GROUP BY directory_id) c ON c.directory_id = d.id
+            LEFT JOIN (SELECT p.directory_id, COUNT(*) AS open_count
+                       FROM sod_violations sv
+                       JOIN sod_policies p ON p.id = sv.policy_id
+                       WHERE sv.status = 'OPEN'
+                       GROUP BY p.directory_id) v ON v.directory_id = d.id
+            """,
+            nativeQuery = true)
+    List<DirectoryActivity> summarizeActivity(@Param("now") OffsetDateTime now);
 }
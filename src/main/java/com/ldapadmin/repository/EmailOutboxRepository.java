@@ -0,0 +1,39 @@
+package com.ldapadmin.repository;
+
+import com.ldapadmin.entity.EmailOutboxMessage;
+import com.ldapadmin.entity.enums.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Claims due pending messages, oldest first.  Rows locked by another node's
+     * sender are skipped ({@code FOR UPDATE SKIP LOCKED}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.createdAt")
+    List<EmailOutboxMessage> claimDue(@Param("status") EmailOutboxStatus status,
+                                      @Param("now") OffsetDateTime now,
+                                      Pageable pageable);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.createdAt < :cutoff")
+    int deleteByStatusCreatedBefore(@Param("status") EmailOutboxStatus status,
+                                    @Param("cutoff") OffsetDateTime cutoff);
+}
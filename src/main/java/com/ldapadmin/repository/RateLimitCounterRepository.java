@@ -0,0 +1,39 @@
+package com.ldapadmin.repository;
+
+import com.ldapadmin.entity.RateLimitCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface RateLimitCounterRepository extends JpaRepository<RateLimitCounter, String> {
+
+    @Query("SELECT c.hits FROM RateLimitCounter c WHERE c.bucket = :bucket")
+    Optional<Integer> findHits(@Param("bucket") String bucket);
+
+    /**
+     * Adds one hit to the bucket unless it already holds {@code maxHits},
+     * in a single statement so concurrent nodes cannot both take the last
+     * slot.  Returns the new count, or empty when the hit was refused.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO rate_limit_counters AS c (bucket, hits, expires_at)
+            VALUES (:bucket, 1, :expiresAt)
+            ON CONFLICT (bucket) DO UPDATE SET hits = c.hits + 1
+            WHERE c.hits < :maxHits
+            RETURNING c.hits
+            """,
+            nativeQuery = true)
+    Optional<Integer> increment(@Param("bucket")    String bucket,
+                                @Param("maxHits")   int maxHits,
+                                @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateLimitCounter c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -14,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -117,6 +118,7 @@ public class AccessReviewCampaignService {
                 decision.setMemberDisplay(resolveMemberDisplay(dir, memberDn));
                 group.getDecisions().add(decision);
             }
+            group.setTotalCount(group.getDecisions().size());
         }
 
         CampaignStatus oldStatus = campaign.getStatus();
@@ -253,7 +255,19 @@ public class AccessReviewCampaignService {
         } else {
             groups = groupRepo.findByCampaignIdAndReviewerId(campaignId, principal.id());
         }
-        return groups.stream().map(this::toReviewGroupDto).toList();
+        return groups.stream().map(ReviewGroupDto::from).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewGroupDto getReviewGroup(UUID directoryId, UUID campaignId, UUID groupId, AuthPrincipal principal) {
+        getCampaignForDirectory(directoryId, campaignId);
+        AccessReviewGroup group = groupRepo.findById(groupId)
+                .filter(g -> g.getCampaign().getId().equals(campaignId))
+                .orElseThrow(() -> new ResourceNotFoundException("AccessReviewGroup", groupId));
+        if (!principal.isSuperadmin() && !group.getReviewer().getId().equals(principal.id())) {
+            throw new AccessDeniedException("Not the assigned reviewer for this group");
+        }
+        return ReviewGroupDto.from(group);
     }
 
     @Transactional(readOnly = true)
@@ -474,10 +488,16 @@ public class AccessReviewCampaignService {
         return campaign;
     }
 
-    private CampaignProgressDto buildProgress(UUID campaignId) {
-        long total = decisionRepo.countTotalByCampaignId(campaignId);
-        long confirmed = decisionRepo.countByCampaignIdAndDecision(campaignId, ReviewDecision.CONFIRM);
-        long revoked = decisionRepo.countByCampaignIdAndDecision(campaignId, ReviewDecision.REVOKE);
+    /** Sums the review groups' progress counters; no decision rows are read. */
+    private CampaignProgressDto buildProgress(AccessReviewCampaign c) {
+        long total = 0;
+        long confirmed = 0;
+        long revoked = 0;
+        for (AccessReviewGroup g : c.getReviewGroups()) {
+            total += g.getTotalCount();
+            confirmed += g.getConfirmedCount();
+            revoked += g.getRevokedCount();
+        }
         long pending = total - confirmed - revoked;
         double pct = total > 0 ? ((double) (confirmed + revoked) / total) * 100.0 : 0.0;
         return new CampaignProgressDto(total, confirmed, revoked, pending, pct);
@@ -490,12 +510,12 @@ public class AccessReviewCampaignService {
                 c.getDeadlineDays(), c.getRecurrenceMonths(),
                 c.getCreatedAt(),
                 c.getCreatedBy().getUsername(),
-                buildProgress(c.getId()));
+                buildProgress(c));
     }
 
     private CampaignDetailDto toDetailDto(AccessReviewCampaign c) {
         List<ReviewGroupDto> groups = c.getReviewGroups().stream()
-                .map(this::toReviewGroupDto).toList();
+                .map(ReviewGroupDto::from).toList();
         List<CampaignHistoryDto> history = historyRepo.findByCampaignIdOrderByChangedAtAsc(c.getId()).stream()
                 .map(h -> new CampaignHistoryDto(
                         h.getId(), h.getOldStatus(), h.getNewStatus(),
@@ -508,22 +528,10 @@ public class AccessReviewCampaignService {
                 c.isAutoRevoke(), c.isAutoRevokeOnExpiry(),
                 c.getCreatedAt(), c.getCompletedAt(),
                 c.getCreatedBy().getUsername(),
-                buildProgress(c.getId()),
+                buildProgress(c),
                 groups, history);
     }
 
-    private ReviewGroupDto toReviewGroupDto(AccessReviewGroup g) {
-        List<AccessReviewDecision> decisions = decisionRepo.findByReviewGroupId(g.getId());
-        long total = decisions.size();
-        long confirmed = decisions.stream().filter(d -> d.getDecision() == ReviewDecision.CONFIRM).count();
-        long revoked = decisions.stream().filter(d -> d.getDecision() == ReviewDecision.REVOKE).count();
-        long pending = total - confirmed - revoked;
-        return new ReviewGroupDto(
-                g.getId(), g.getGroupDn(), g.getGroupName(), g.getMemberAttribute(),
-                g.getReviewer().getUsername(), g.getReviewer().getId(),
-                total, confirmed, revoked, pending);
-    }
-
     private String escapeCsv(String value) {
         if (value == null) return "";
         if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
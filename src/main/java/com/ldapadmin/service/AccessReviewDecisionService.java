@@ -2,6 +2,8 @@ package com.ldapadmin.service;
 
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.dto.accessreview.BulkDecisionRequest;
+import com.ldapadmin.dto.accessreview.BulkDecisionResponse;
+import com.ldapadmin.dto.accessreview.DecideMatchingRequest;
 import com.ldapadmin.dto.accessreview.DecisionDto;
 import com.ldapadmin.entity.AccessReviewDecision;
 import com.ldapadmin.entity.AccessReviewGroup;
@@ -10,22 +12,32 @@ import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.entity.enums.CampaignStatus;
 import com.ldapadmin.entity.enums.ReviewDecision;
+import com.ldapadmin.exception.ConflictException;
 import com.ldapadmin.exception.LdapAdminException;
 import com.ldapadmin.exception.ResourceNotFoundException;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.repository.AccessReviewDecisionRepository;
+import com.ldapadmin.repository.AccessReviewDecisionRepository.PendingMember;
 import com.ldapadmin.repository.AccessReviewGroupRepository;
 import com.ldapadmin.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -33,22 +45,42 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AccessReviewDecisionService {
 
+    /** Which decisions a review-group listing shows. */
+    public enum StatusFilter { ALL, PENDING, CONFIRM, REVOKE }
+
+    private static final Set<String> SORTABLE = Set.of("memberDisplay", "memberDn", "decision", "decidedAt");
+    private static final int MAX_PAGE_SIZE = 200;
+    /** Ids per {@code IN} list, well inside PostgreSQL's bind-parameter limit. */
+    private static final int ID_CHUNK = 1000;
+
     private final AccessReviewDecisionRepository decisionRepo;
     private final AccessReviewGroupRepository groupRepo;
     private final AccountRepository accountRepo;
     private final LdapGroupService ldapGroupService;
     private final AuditService auditService;
 
+    /**
+     * One page of a review group's decisions, filtered by status and by a
+     * substring of the member's DN or display name.  Sortable by
+     * {@code memberDisplay}, {@code memberDn}, {@code decision} and
+     * {@code decidedAt}; other sort properties are ignored.
+     */
     @Transactional(readOnly = true)
-    public List<DecisionDto> listForReviewGroup(UUID reviewGroupId, AuthPrincipal principal) {
+    public Page<DecisionDto> listForReviewGroup(UUID reviewGroupId, StatusFilter status, String search,
+                                                Pageable pageable, AuthPrincipal principal) {
         AccessReviewGroup group = groupRepo.findById(reviewGroupId)
                 .orElseThrow(() -> new ResourceNotFoundException("AccessReviewGroup", reviewGroupId));
 
         verifyReviewerAccess(group, principal);
 
-        return decisionRepo.findByReviewGroupId(reviewGroupId).stream()
-                .map(this::toDto)
-                .toList();
+        ReviewDecision decision = switch (status) {
+            case CONFIRM -> ReviewDecision.CONFIRM;
+            case REVOKE -> ReviewDecision.REVOKE;
+            default -> null;
+        };
+        return decisionRepo.findPage(reviewGroupId, decision, status == StatusFilter.PENDING,
+                        likePattern(search), sanitize(pageable))
+                .map(this::toDto);
     }
 
     @Transactional
@@ -73,92 +105,166 @@ public class AccessReviewDecisionService {
         d.setDecidedBy(actor);
         d.setDecidedAt(OffsetDateTime.now());
 
-        // Auto-revoke if enabled and decision is REVOKE
-        if (decision == ReviewDecision.REVOKE && group.getCampaign().isAutoRevoke()) {
-            executeImmediateRevoke(d, group, principal);
+        // Claim the row (version check) before LDAP is touched, so a lost race
+        // leaves the group membership alone
+        try {
+            d = decisionRepo.saveAndFlush(d);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("This member was decided by someone else in the meantime. "
+                    + "Reload the list and try again.");
         }
 
-        decisionRepo.save(d);
+        // Auto-revoke if enabled and decision is REVOKE
+        if (decision == ReviewDecision.REVOKE && group.getCampaign().isAutoRevoke()
+                && removeMember(group, d.getMemberDn(), principal)) {
+            d.setRevokedAt(OffsetDateTime.now());
+        }
 
-        AuditAction auditAction = decision == ReviewDecision.CONFIRM
-                ? AuditAction.REVIEW_CONFIRMED
-                : AuditAction.REVIEW_REVOKED;
+        groupRepo.addDecided(group.getId(),
+                decision == ReviewDecision.CONFIRM ? 1 : 0,
+                decision == ReviewDecision.REVOKE ? 1 : 0);
 
-        auditService.record(principal, group.getCampaign().getDirectory().getId(), auditAction,
-                d.getMemberDn(),
-                Map.of("groupDn", group.getGroupDn(),
-                        "campaignId", group.getCampaign().getId().toString(),
-                        "decision", decision.name()));
+        auditDecision(principal, group, d.getMemberDn(), decision, false);
 
         return toDto(d);
     }
 
+    /**
+     * Applies the listed decisions with one {@code UPDATE} per distinct
+     * decision and comment.  Members already decided are skipped; if any
+     * member is decided concurrently between selection and update, the
+     * whole call rolls back with a conflict.
+     */
     @Transactional
-    public List<DecisionDto> bulkDecide(UUID reviewGroupId, List<BulkDecisionRequest.BulkDecisionItem> items, AuthPrincipal principal) {
-        AccessReviewGroup group = groupRepo.findById(reviewGroupId)
-                .orElseThrow(() -> new ResourceNotFoundException("AccessReviewGroup", reviewGroupId));
-
-        verifyReviewerAccess(group, principal);
-        verifyCampaignActive(group);
+    public BulkDecisionResponse bulkDecide(UUID reviewGroupId, List<BulkDecisionRequest.BulkDecisionItem> items,
+                                           AuthPrincipal principal) {
+        AccessReviewGroup group = loadForDecision(reviewGroupId, principal);
 
-        Account actor = accountRepo.findById(principal.id())
-                .orElseThrow(() -> new ResourceNotFoundException("Account", principal.id()));
-
-        List<DecisionDto> results = new ArrayList<>();
+        Map<UUID, BulkDecisionRequest.BulkDecisionItem> byId = new LinkedHashMap<>();
         for (BulkDecisionRequest.BulkDecisionItem item : items) {
-            AccessReviewDecision d = decisionRepo.findById(item.decisionId())
-                    .orElseThrow(() -> new ResourceNotFoundException("AccessReviewDecision", item.decisionId()));
+            byId.putIfAbsent(item.decisionId(), item);
+        }
 
-            if (d.getDecision() != null) {
-                log.warn("Skipping already-decided item {} in bulk operation", item.decisionId());
-                results.add(toDto(d));
-                continue;
+        Map<Outcome, List<PendingMember>> outcomes = new LinkedHashMap<>();
+        for (List<UUID> chunk : chunks(List.copyOf(byId.keySet()))) {
+            for (PendingMember member : decisionRepo.findPendingByIds(reviewGroupId, chunk)) {
+                BulkDecisionRequest.BulkDecisionItem item = byId.get(member.getId());
+                outcomes.computeIfAbsent(new Outcome(item.decision(), item.comment()), o -> new ArrayList<>())
+                        .add(member);
             }
+        }
 
-            d.setDecision(item.decision());
-            d.setComment(item.comment());
-            d.setDecidedBy(actor);
-            d.setDecidedAt(OffsetDateTime.now());
-
-            if (item.decision() == ReviewDecision.REVOKE && group.getCampaign().isAutoRevoke()) {
-                executeImmediateRevoke(d, group, principal);
-            }
+        int applied = apply(group, outcomes, principal);
+        if (applied < byId.size()) {
+            log.warn("Skipped {} already-decided or foreign item(s) in bulk decision on group {}",
+                    byId.size() - applied, group.getGroupDn());
+        }
+        return new BulkDecisionResponse(byId.size(), applied, byId.size() - applied);
+    }
 
-            decisionRepo.save(d);
+    /**
+     * Decides every pending member matching the listing's search filter,
+     * without the client sending their ids.
+     */
+    @Transactional
+    public BulkDecisionResponse decideMatching(UUID reviewGroupId, DecideMatchingRequest request,
+                                               AuthPrincipal principal) {
+        AccessReviewGroup group = loadForDecision(reviewGroupId, principal);
+
+        List<PendingMember> pending = decisionRepo.findPendingMatching(reviewGroupId, likePattern(request.search()));
+        int applied = apply(group,
+                Map.of(new Outcome(request.decision(), request.comment()), pending), principal);
+        return new BulkDecisionResponse(pending.size(), applied, pending.size() - applied);
+    }
 
-            AuditAction auditAction = item.decision() == ReviewDecision.CONFIRM
-                    ? AuditAction.REVIEW_CONFIRMED
-                    : AuditAction.REVIEW_REVOKED;
+    private AccessReviewGroup loadForDecision(UUID reviewGroupId, AuthPrincipal principal) {
+        AccessReviewGroup group = groupRepo.findById(reviewGroupId)
+                .orElseThrow(() -> new ResourceNotFoundException("AccessReviewGroup", reviewGroupId));
+        verifyReviewerAccess(group, principal);
+        verifyCampaignActive(group);
+        return group;
+    }
 
-            auditService.record(principal, group.getCampaign().getDirectory().getId(), auditAction,
-                    d.getMemberDn(),
-                    Map.of("groupDn", group.getGroupDn(),
-                            "campaignId", group.getCampaign().getId().toString(),
-                            "decision", item.decision().name(),
-                            "bulk", "true"));
+    /**
+     * Writes all outcomes before touching LDAP, so a conflict rolls back
+     * cleanly; then revokes memberships when the campaign auto-revokes
+     * and audits each member.
+     */
+    private int apply(AccessReviewGroup group, Map<Outcome, List<PendingMember>> outcomes, AuthPrincipal principal) {
+        if (outcomes.values().stream().allMatch(List::isEmpty)) return 0;
 
-            results.add(toDto(d));
+        Account actor = accountRepo.findById(principal.id())
+                .orElseThrow(() -> new ResourceNotFoundException("Account", principal.id()));
+        OffsetDateTime now = OffsetDateTime.now();
+
+        int confirmed = 0;
+        int revoked = 0;
+        for (Map.Entry<Outcome, List<PendingMember>> e : outcomes.entrySet()) {
+            List<UUID> ids = e.getValue().stream().map(PendingMember::getId).toList();
+            int updated = 0;
+            for (List<UUID> chunk : chunks(ids)) {
+                updated += decisionRepo.decidePending(chunk, e.getKey().decision(), e.getKey().comment(), actor, now);
+            }
+            if (updated != ids.size()) {
+                throw new ConflictException("Some of these members were decided by someone else in the meantime. "
+                        + "Reload the list and try again.");
+            }
+            if (e.getKey().decision() == ReviewDecision.CONFIRM) confirmed += updated;
+            else revoked += updated;
         }
-        return results;
+        groupRepo.addDecided(group.getId(), confirmed, revoked);
+
+        boolean autoRevoke = group.getCampaign().isAutoRevoke();
+        for (Map.Entry<Outcome, List<PendingMember>> e : outcomes.entrySet()) {
+            ReviewDecision decision = e.getKey().decision();
+            List<UUID> removed = new ArrayList<>();
+            for (PendingMember member : e.getValue()) {
+                if (decision == ReviewDecision.REVOKE && autoRevoke
+                        && removeMember(group, member.getMemberDn(), principal)) {
+                    removed.add(member.getId());
+                }
+                auditDecision(principal, group, member.getMemberDn(), decision, true);
+            }
+            for (List<UUID> chunk : chunks(removed)) {
+                decisionRepo.markRevoked(chunk, OffsetDateTime.now());
+            }
+        }
+        return confirmed + revoked;
     }
 
-    private void executeImmediateRevoke(AccessReviewDecision d, AccessReviewGroup group, AuthPrincipal principal) {
+    /** Removes the member from the group in LDAP; failures are logged, not thrown. */
+    private boolean removeMember(AccessReviewGroup group, String memberDn, AuthPrincipal principal) {
         DirectoryConnection dir = group.getCampaign().getDirectory();
         try {
-            ldapGroupService.removeMember(dir, group.getGroupDn(), group.getMemberAttribute(), d.getMemberDn());
-            d.setRevokedAt(OffsetDateTime.now());
-            log.info("Auto-revoked member {} from group {}", d.getMemberDn(), group.getGroupDn());
+            ldapGroupService.removeMember(dir, group.getGroupDn(), group.getMemberAttribute(), memberDn);
+            log.info("Auto-revoked member {} from group {}", memberDn, group.getGroupDn());
 
             auditService.record(principal, dir.getId(), AuditAction.REVIEW_AUTO_REVOKED,
-                    d.getMemberDn(),
+                    memberDn,
                     Map.of("groupDn", group.getGroupDn(),
                             "campaignId", group.getCampaign().getId().toString()));
+            return true;
         } catch (Exception e) {
             log.error("Failed to auto-revoke member {} from group {}: {}",
-                    d.getMemberDn(), group.getGroupDn(), e.getMessage());
+                    memberDn, group.getGroupDn(), e.getMessage());
+            return false;
         }
     }
 
+    private void auditDecision(AuthPrincipal principal, AccessReviewGroup group, String memberDn,
+                               ReviewDecision decision, boolean bulk) {
+        AuditAction auditAction = decision == ReviewDecision.CONFIRM
+                ? AuditAction.REVIEW_CONFIRMED
+                : AuditAction.REVIEW_REVOKED;
+
+        Map<String, Object> detail = new LinkedHashMap<>();
+        detail.put("groupDn", group.getGroupDn());
+        detail.put("campaignId", group.getCampaign().getId().toString());
+        detail.put("decision", decision.name());
+        if (bulk) detail.put("bulk", "true");
+        auditService.record(principal, group.getCampaign().getDirectory().getId(), auditAction, memberDn, detail);
+    }
+
     private void verifyReviewerAccess(AccessReviewGroup group, AuthPrincipal principal) {
         if (principal.isSuperadmin()) return;
         if (!group.getReviewer().getId().equals(principal.id())) {
@@ -172,6 +278,34 @@ public class AccessReviewDecisionService {
         }
     }
 
+    /** Case-insensitive substring pattern; matches everything when {@code search} is blank. */
+    private static String likePattern(String search) {
+        if (search == null || search.isBlank()) return "%";
+        String escaped = search.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /** Keeps known sort properties, caps the page size and adds a stable tiebreak. */
+    private static Pageable sanitize(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .filter(o -> SORTABLE.contains(o.getProperty()))
+                .toList());
+        if (sort.isUnsorted()) sort = Sort.by("memberDisplay");
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE),
+                sort.and(Sort.by("id")));
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += ID_CHUNK) {
+            chunks.add(items.subList(i, Math.min(items.size(), i + ID_CHUNK)));
+        }
+        return chunks;
+    }
+
+    private record Outcome(ReviewDecision decision, String comment) {}
+
     private DecisionDto toDto(AccessReviewDecision d) {
         return new DecisionDto(
                 d.getId(),
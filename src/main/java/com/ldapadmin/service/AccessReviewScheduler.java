@@ -14,6 +14,7 @@ import com.ldapadmin.entity.enums.ReviewDecision;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.repository.AccessReviewCampaignRepository;
 import com.ldapadmin.repository.AccessReviewDecisionRepository;
+import com.ldapadmin.repository.AccessReviewGroupRepository;
 // AccountRepository removed — SYSTEM_PRINCIPAL is static
 import com.ldapadmin.repository.CampaignReminderRepository;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +41,7 @@ public class AccessReviewScheduler {
     private final AccessReviewNotificationService notificationService;
     private final CampaignReminderRepository reminderRepo;
     private final AccessReviewDecisionRepository decisionRepo;
+    private final AccessReviewGroupRepository groupRepo;
     private final LdapGroupService ldapGroupService;
     private final AuditService auditService;
 
@@ -241,6 +243,10 @@ public class AccessReviewScheduler {
                             decision.getMemberDn(), group.getGroupDn(), e.getMessage());
                 }
             }
+            // Every undecided row now carries REVOKE, even where the LDAP removal failed
+            if (!undecided.isEmpty()) {
+                groupRepo.addDecided(group.getId(), 0, undecided.size());
+            }
         }
     }
 }
@@ -6,6 +6,7 @@ import com.ldapadmin.entity.AccessSnapshotUser;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.SnapshotStatus;
 import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapUserService;
 import com.ldapadmin.ldap.model.LdapGroup;
@@ -33,6 +34,7 @@ public class AccessSnapshotService {
     private final DirectoryConnectionRepository directoryRepo;
     private final LdapGroupService ldapGroupService;
     private final LdapUserService ldapUserService;
+    private final DirectoryReplicaService replicaService;
 
     private static final int MAX_GROUPS = 10_000;
     private static final int MAX_USERS = 50_000;
@@ -55,9 +57,10 @@ public class AccessSnapshotService {
         snapshotRepo.save(snapshot);
 
         try {
-            // 1. Capture group memberships in batches
-            List<LdapGroup> groups = ldapGroupService.searchGroups(
-                    dc, GROUP_FILTER, null, MAX_GROUPS, "cn", "member", "uniqueMember", "memberUid");
+            // 1. Capture group memberships in batches (from the local replica when fresh)
+            String[] groupAttrs = {"cn", "member", "uniqueMember", "memberUid"};
+            List<LdapGroup> groups = replicaService.searchGroups(dc, GROUP_FILTER, null, MAX_GROUPS, groupAttrs)
+                    .orElseGet(() -> ldapGroupService.searchGroups(dc, GROUP_FILTER, null, MAX_GROUPS, groupAttrs));
 
             Set<String> distinctUsers = new HashSet<>();
             List<AccessSnapshotMembership> batch = new ArrayList<>();
@@ -82,8 +85,9 @@ public class AccessSnapshotService {
             if (!batch.isEmpty()) membershipRepo.saveAll(batch);
 
             // 2. Capture user attributes for peer grouping (at snapshot time, not analysis time)
-            List<LdapUser> users = ldapUserService.searchUsers(dc, USER_FILTER, null, MAX_USERS,
-                    "cn", "displayName", "departmentNumber", "title", "ou");
+            String[] userAttrs = {"cn", "displayName", "departmentNumber", "title", "ou"};
+            List<LdapUser> users = replicaService.searchUsers(dc, USER_FILTER, null, MAX_USERS, userAttrs)
+                    .orElseGet(() -> ldapUserService.searchUsers(dc, USER_FILTER, null, MAX_USERS, userAttrs));
             List<AccessSnapshotUser> userBatch = new ArrayList<>();
 
             for (LdapUser user : users) {
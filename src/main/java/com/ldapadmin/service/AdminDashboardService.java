@@ -2,29 +2,32 @@ package com.ldapadmin.service;
 
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.PermissionService;
-import com.ldapadmin.dto.audit.AuditEventResponse;
 import com.ldapadmin.dto.dashboard.AdminDashboardDto;
 import com.ldapadmin.dto.dashboard.AdminDashboardDto.*;
-import com.ldapadmin.entity.AccessReviewCampaign;
 import com.ldapadmin.entity.DirectoryConnection;
-import com.ldapadmin.entity.PendingApproval;
-import com.ldapadmin.entity.enums.ApprovalStatus;
 import com.ldapadmin.entity.enums.CampaignStatus;
-import com.ldapadmin.entity.enums.SodViolationStatus;
-import com.ldapadmin.ldap.LdapGroupService;
-import com.ldapadmin.ldap.LdapUserService;
-import com.ldapadmin.repository.*;
+import com.ldapadmin.repository.AccessReviewCampaignRepository;
+import com.ldapadmin.repository.AccessReviewCampaignRepository.CampaignProgress;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.ldapadmin.repository.DirectoryConnectionRepository.DirectoryActivity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Builds the admin dashboard, scoped to the admin's authorized directories.
+ *
+ * <p>Nothing here is computed per admin.  User and group counts come from
+ * the shared {@link DirectoryCountCache}.  Approvals, campaigns and SoD
+ * violations are aggregated for all directories at once by two grouped
+ * queries, cached for 60 seconds.  Each dashboard then merges the entries
+ * for the admin's own directories.</p>
  */
 @Service
 @Slf4j
@@ -32,22 +35,24 @@ import java.util.*;
 public class AdminDashboardService {
 
     private final DirectoryConnectionRepository dirRepo;
-    private final PendingApprovalRepository approvalRepo;
     private final AccessReviewCampaignRepository campaignRepo;
-    private final AccessReviewDecisionRepository decisionRepo;
-    private final SodViolationRepository sodViolationRepo;
     private final AuditQueryService auditQueryService;
-    private final LdapUserService userService;
-    private final LdapGroupService groupService;
+    private final DirectoryCountCache countCache;
     private final PermissionService permissionService;
 
-    private static final String USER_OBJECTCLASS_FILTER =
-            "(|(objectClass=inetOrgPerson)(&(objectClass=user)(!(objectClass=computer))))";
+    // ── Cache ────────────────────────────────────────────────────────────────
+    private volatile Activity cachedActivity;
+    private static final long CACHE_TTL_MS = 60_000;
 
-    private static final String GROUP_OBJECTCLASS_FILTER =
-            "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group)(objectClass=groupOfURLs))";
+    /** Database aggregates for every directory, as of {@code takenAt}. */
+    private record Activity(Map<UUID, DirectoryActivity> byDirectory,
+                            List<CampaignProgress> activeCampaigns,
+                            long takenAt) {}
 
-    private static final int MAX_COUNT = 100_000;
+    /** Force-invalidate the cached aggregates (e.g., after a significant change). */
+    public void invalidateCache() {
+        cachedActivity = null;
+    }
 
     @Transactional(readOnly = true)
     public AdminDashboardDto getDashboard(AuthPrincipal principal) {
@@ -59,6 +64,8 @@ public class AdminDashboardService {
 
         List<DirectoryConnection> dirs = dirRepo.findAllById(authorizedDirIds);
         OffsetDateTime now = OffsetDateTime.now();
+        Activity activity = activity(now);
+        Map<UUID, DirectoryCountCache.Counts> counts = countCache.getAll(dirs);
 
         // ── Per-directory stats ──────────────────────────────────────────────
         List<DirectoryStatDto> dirStats = new ArrayList<>();
@@ -67,39 +74,31 @@ public class AdminDashboardService {
         long totalPending = 0;
         long totalActiveCampaigns = 0;
         long totalSodViolations = 0;
+        long lt24h = 0, d1to3 = 0, d3to7 = 0, gt7d = 0;
 
         for (DirectoryConnection dc : dirs) {
-            long userCount = 0;
-            long groupCount = 0;
-
-            if (dc.isEnabled()) {
-                try {
-                    userCount = userService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1").size();
-                } catch (Exception e) {
-                    log.warn("Failed to count users for directory {}: {}", dc.getDisplayName(), e.getMessage());
-                    userCount = -1;
-                }
-                try {
-                    groupCount = groupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1").size();
-                } catch (Exception e) {
-                    log.warn("Failed to count groups for directory {}: {}", dc.getDisplayName(), e.getMessage());
-                    groupCount = -1;
-                }
+            DirectoryCountCache.Counts dirCounts = counts.get(dc.getId());
+            DirectoryActivity dirActivity = activity.byDirectory().get(dc.getId());
+
+            long pending = dirActivity != null ? dirActivity.getPendingApprovals() : 0;
+            long activeCampaigns = dirActivity != null ? dirActivity.getActiveCampaigns() : 0;
+            long dirSodViolations = dirActivity != null ? dirActivity.getOpenSodViolations() : 0;
+            if (dirActivity != null) {
+                lt24h += dirActivity.getPendingUnder1d();
+                d1to3 += dirActivity.getPending1to3d();
+                d3to7 += dirActivity.getPending3to7d();
+                gt7d  += dirActivity.getPendingOver7d();
             }
 
-            long pending = approvalRepo.countByDirectoryIdAndStatus(dc.getId(), ApprovalStatus.PENDING);
-            long activeCampaigns = campaignRepo.countByDirectoryIdAndStatus(dc.getId(), CampaignStatus.ACTIVE);
-            long dirSodViolations = sodViolationRepo.countByDirectoryIdAndStatus(dc.getId(), SodViolationStatus.OPEN);
-
-            if (userCount >= 0) totalUsers += userCount;
-            if (groupCount >= 0) totalGroups += groupCount;
+            if (dirCounts.users() >= 0) totalUsers += dirCounts.users();
+            if (dirCounts.groups() >= 0) totalGroups += dirCounts.groups();
             totalPending += pending;
             totalActiveCampaigns += activeCampaigns;
             totalSodViolations += dirSodViolations;
 
             dirStats.add(new DirectoryStatDto(
                     dc.getId().toString(), dc.getDisplayName(), dc.isEnabled(),
-                    userCount, groupCount, pending, activeCampaigns, dirSodViolations));
+                    dirCounts.users(), dirCounts.groups(), pending, activeCampaigns, dirSodViolations));
         }
 
         // ── Campaign completion ──────────────────────────────────────────────
@@ -107,26 +106,21 @@ public class AdminDashboardService {
         long globalTotalDecisions = 0;
         long globalDecided = 0;
 
-        for (UUID dirId : authorizedDirIds) {
-            List<AccessReviewCampaign> activeCampaigns =
-                    campaignRepo.findByDirectoryIdAndStatus(dirId, CampaignStatus.ACTIVE);
-
-            for (AccessReviewCampaign c : activeCampaigns) {
-                long total = decisionRepo.countTotalByCampaignId(c.getId());
-                long pending = decisionRepo.countPendingByCampaignId(c.getId());
-                long decided = total - pending;
-                double pct = total > 0 ? Math.round((decided * 100.0 / total) * 10) / 10.0 : 0;
-                boolean overdue = c.getDeadline() != null && c.getDeadline().isBefore(now);
-
-                globalTotalDecisions += total;
-                globalDecided += decided;
-
-                campaignProgress.add(new CampaignProgressDto(
-                        c.getId().toString(), c.getName(),
-                        c.getDirectory().getDisplayName(),
-                        total, decided, pct, overdue,
-                        c.getDeadline() != null ? c.getDeadline().toString() : null));
-            }
+        for (CampaignProgress c : activity.activeCampaigns()) {
+            if (!authorizedDirIds.contains(c.getDirectoryId())) continue;
+
+            long total = c.getTotal();
+            long decided = c.getDecided();
+            double pct = total > 0 ? Math.round((decided * 100.0 / total) * 10) / 10.0 : 0;
+            boolean overdue = c.getDeadline() != null && c.getDeadline().isBefore(now);
+
+            globalTotalDecisions += total;
+            globalDecided += decided;
+
+            campaignProgress.add(new CampaignProgressDto(
+                    c.getId().toString(), c.getName(), c.getDirectoryName(),
+                    total, decided, pct, overdue,
+                    c.getDeadline() != null ? c.getDeadline().toString() : null));
         }
 
         Double campaignCompletionPct = campaignProgress.isEmpty() ? null
@@ -137,9 +131,6 @@ public class AdminDashboardService {
         // ── Overdue campaigns ────────────────────────────────────────────────
         long overdueCampaigns = campaignProgress.stream().filter(CampaignProgressDto::overdue).count();
 
-        // ── Approval aging ───────────────────────────────────────────────────
-        ApprovalAgingDto approvalAging = computeApprovalAging(authorizedDirIds, now);
-
         // ── Recent activity ──────────────────────────────────────────────────
         var recentAudit = auditQueryService.queryForDirectories(
                 authorizedDirIds, null, null, null, null, null, 0, 10);
@@ -149,28 +140,24 @@ public class AdminDashboardService {
         return new AdminDashboardDto(
                 totalUsers, totalGroups, totalPending,
                 totalSodViolations, totalActiveCampaigns, campaignCompletionPct, overdueCampaigns,
-                approvalAging, campaignProgress, dirStats,
+                new ApprovalAgingDto(lt24h, d1to3, d3to7, gt7d), campaignProgress, dirStats,
                 recentAudit.getContent(),
                 firstDirId);
     }
 
-    private ApprovalAgingDto computeApprovalAging(Set<UUID> directoryIds, OffsetDateTime now) {
-        long lt24h = 0, d1to3 = 0, d3to7 = 0, gt7d = 0;
-
-        for (UUID dirId : directoryIds) {
-            List<PendingApproval> pendingApprovals =
-                    approvalRepo.findAllByDirectoryIdAndStatus(dirId, ApprovalStatus.PENDING);
-
-            for (PendingApproval pa : pendingApprovals) {
-                Duration age = Duration.between(pa.getCreatedAt(), now);
-                long hours = age.toHours();
-                if (hours < 24) lt24h++;
-                else if (hours < 72) d1to3++;
-                else if (hours < 168) d3to7++;
-                else gt7d++;
-            }
+    /** The cached aggregates, re-queried once they are older than {@link #CACHE_TTL_MS}. */
+    private Activity activity(OffsetDateTime now) {
+        Activity activity = cachedActivity;
+        long nowMs = System.currentTimeMillis();
+        if (activity != null && (nowMs - activity.takenAt()) < CACHE_TTL_MS) {
+            return activity;
         }
-        return new ApprovalAgingDto(lt24h, d1to3, d3to7, gt7d);
+        Map<UUID, DirectoryActivity> byDirectory = dirRepo.summarizeActivity(now).stream()
+                .collect(Collectors.toMap(DirectoryActivity::getDirectoryId, Function.identity()));
+        activity = new Activity(byDirectory,
+                campaignRepo.findProgressByStatus(CampaignStatus.ACTIVE), nowMs);
+        cachedActivity = activity;
+        return activity;
     }
 
     private AdminDashboardDto emptyDashboard() {
@@ -1,5 +1,6 @@
 package com.ldapadmin.service;
 
+import com.ldapadmin.auth.PermissionsChangedEvent;
 import com.ldapadmin.dto.admin.AdminAccountRequest;
 import com.ldapadmin.dto.admin.AdminAccountResponse;
 import com.ldapadmin.dto.admin.AdminPermissionsResponse;
@@ -23,6 +24,7 @@ import com.ldapadmin.repository.AdminFeaturePermissionRepository;
 import com.ldapadmin.repository.AdminProfileRoleRepository;
 import com.ldapadmin.repository.ProvisioningProfileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +42,7 @@ public class AdminManagementService {
 
     private final AdminFeaturePermissionRepository featureRepo;
     private final PasswordEncoder                 passwordEncoder;
+    private final ApplicationEventPublisher       eventPublisher;
 
     // ── Admin account CRUD ────────────────────────────────────────────────────
 
@@ -127,6 +130,7 @@ public class AdminManagementService {
     @Transactional
     public void deleteAdmin(UUID adminId) {
         accountRepo.delete(requireAccount(adminId));
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAdmin(adminId));
     }
 
     // ── Permission management — summary ───────────────────────────────────────
@@ -155,13 +159,16 @@ public class AdminManagementService {
             role.setProfile(profile);
         }
         role.setBaseRole(req.baseRole());
-        return ProfileRoleResponse.from(profileRoleRepo.save(role));
+        AdminProfileRole saved = profileRoleRepo.save(role);
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAdmin(adminId));
+        return ProfileRoleResponse.from(saved);
     }
 
     @Transactional
     public void removeProfileRole(UUID adminId, UUID profileId) {
         requireAccount(adminId);
         profileRoleRepo.deleteByAdminAccountIdAndProfileId(adminId, profileId);
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAdmin(adminId));
     }
 
     // ── Dimension 4: feature permissions ─────────────────────────────────────
@@ -181,12 +188,14 @@ public class AdminManagementService {
             fp.setEnabled(req.enabled());
             featureRepo.save(fp);
         });
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAdmin(adminId));
     }
 
     @Transactional
     public void clearFeaturePermission(UUID adminId, FeatureKey featureKey) {
         requireAccount(adminId);
         featureRepo.deleteByAdminAccountIdAndFeatureKey(adminId, featureKey);
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAdmin(adminId));
     }
 
     // ── Private helpers ───────────────────────────────────────────────────────
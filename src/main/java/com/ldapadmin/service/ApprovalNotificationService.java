@@ -10,19 +10,21 @@ import com.ldapadmin.repository.PendingApprovalRepository;
 import com.ldapadmin.repository.ProvisioningProfileRepository;
 import com.ldapadmin.repository.ProfileApproverRepository;
 import com.ldapadmin.entity.ProfileApprover;
+import com.ldapadmin.service.mail.EmailMessageFormatter;
+import com.ldapadmin.service.mail.EmailOutboxService;
+import com.ldapadmin.service.mail.SmtpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Sends email notifications for approval workflow events via SMTP.
- * Uses the SMTP config from {@link ApplicationSettings} with raw socket/HTTP.
+ * Notifications are written to the email outbox ({@link EmailOutboxService})
+ * in the caller's transaction and delivered in the background.
  * If SMTP is not configured, notifications are logged instead.
  */
 @Service
@@ -31,13 +33,13 @@ import java.util.List;
 public class ApprovalNotificationService {
 
     private final ApplicationSettingsService appSettingsService;
-    private final EncryptionService encryptionService;
+    private final EmailOutboxService outboxService;
+    private final SmtpClient smtpClient;
     private final ProvisioningProfileRepository profileRepo;
     private final ProfileApproverRepository approverRepo;
     private final AccountRepository accountRepo;
     private final PendingApprovalRepository approvalRepo;
 
-    @Async
     public void notifyApproversOfNewRequest(PendingApproval approval) {
         String profileName = approval.getProfileId() != null
                 ? profileRepo.findById(approval.getProfileId())
@@ -59,14 +61,9 @@ public class ApprovalNotificationService {
                 approval.getRequestType().name(), requesterName, profileName,
                 approval.getRequestType().name(), approval.getCreatedAt());
 
-        for (Account approver : approvers) {
-            if (approver.getEmail() != null && !approver.getEmail().isBlank()) {
-                sendEmail(approver.getEmail(), subject, body);
-            }
-        }
+        outboxService.enqueue(approvers.stream().map(Account::getEmail).toList(), subject, body);
     }
 
-    @Async
     public void notifyRequesterApproved(PendingApproval approval) {
         String profileName = approval.getProfileId() != null
                 ? profileRepo.findById(approval.getProfileId())
@@ -86,7 +83,6 @@ public class ApprovalNotificationService {
                         approval.getRequestType().name(), profileName, reviewerName));
     }
 
-    @Async
     public void notifyRequesterRejected(PendingApproval approval) {
         String profileName = approval.getProfileId() != null
                 ? profileRepo.findById(approval.getProfileId())
@@ -117,20 +113,15 @@ public class ApprovalNotificationService {
 
             List<Account> approvers = approverRepo.findAllByProfileIdWithAccount(profile.getId()).stream()
                     .map(ProfileApprover::getAdminAccount).toList();
-            for (Account approver : approvers) {
-                if (approver.getEmail() != null && !approver.getEmail().isBlank()) {
-                    sendEmail(approver.getEmail(),
-                            String.format("[LDAPAdmin] Reminder: %d pending approval(s) — %s",
-                                    pendingCount, profile.getName()),
-                            String.format("There are %d pending approval request(s) for profile '%s' awaiting your review.\n\n"
-                                    + "Please log in to LDAPAdmin to review them.",
-                                    pendingCount, profile.getName()));
-                }
-            }
+            outboxService.enqueue(approvers.stream().map(Account::getEmail).toList(),
+                    String.format("[LDAPAdmin] Reminder: %d pending approval(s) — %s",
+                            pendingCount, profile.getName()),
+                    String.format("There are %d pending approval request(s) for profile '%s' awaiting your review.\n\n"
+                            + "Please log in to LDAPAdmin to review them.",
+                            pendingCount, profile.getName()));
         }
     }
 
-    @Async
     public void sendPasswordEmail(String recipientEmail, String userName, String password) {
         String subject = "[LDAPAdmin] Your account has been created";
         String body = String.format(
@@ -143,13 +134,21 @@ public class ApprovalNotificationService {
         sendEmail(recipientEmail, subject, body);
     }
 
-    @Async
     public void sendGenericEmail(String recipientEmail, String subject, String body) {
         sendEmail(recipientEmail, subject, body);
     }
 
+    /** Sends the same message to several recipients as a single outbox entry. */
+    public void sendGenericEmail(Collection<String> recipientEmails, String subject, String body) {
+        outboxService.enqueue(recipientEmails, subject, body);
+    }
+
     /**
      * Sends an email with a file attachment using MIME multipart encoding.
+     *
+     * <p>Attachments are delivered directly over the shared {@link SmtpClient}
+     * session rather than queued in the outbox, so large report payloads are
+     * not stored in the database.</p>
      */
     public void sendEmailWithAttachment(String recipientEmail, String subject, String body,
                                          String attachmentName, String attachmentContentType, byte[] attachmentData) {
@@ -161,146 +160,16 @@ public class ApprovalNotificationService {
         }
 
         try {
-            sendSmtpEmailWithAttachment(settings, recipientEmail, subject, body,
-                    attachmentName, attachmentContentType, attachmentData);
+            List<String> to = List.of(recipientEmail);
+            smtpClient.send(settings, to, EmailMessageFormatter.withAttachment(
+                    settings.getSmtpSenderAddress(), to, subject, body,
+                    attachmentName, attachmentContentType, attachmentData));
         } catch (Exception ex) {
             log.error("Failed to send email with attachment to {}: {}", recipientEmail, ex.getMessage());
         }
     }
 
-    private void sendSmtpEmailWithAttachment(ApplicationSettings settings, String to, String subject,
-                                              String body, String attachmentName, String attachmentContentType,
-                                              byte[] attachmentData) throws Exception {
-        String host = settings.getSmtpHost();
-        int port = settings.getSmtpPort() != null ? settings.getSmtpPort() : 587;
-        String from = settings.getSmtpSenderAddress();
-        String boundary = "----=_LDAPAdmin_" + System.currentTimeMillis();
-
-        var socket = new java.net.Socket(host, port);
-        socket.setSoTimeout(10000);
-        var in = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream()));
-        var out = new java.io.PrintWriter(socket.getOutputStream(), true);
-
-        try {
-            readLine(in);
-            out.println("EHLO ldapadmin");
-            readMultiLine(in);
-
-            if (settings.getSmtpUsername() != null && settings.getSmtpPasswordEncrypted() != null) {
-                String password = encryptionService.decrypt(settings.getSmtpPasswordEncrypted());
-                String auth = Base64.getEncoder().encodeToString(
-                        ("\0" + settings.getSmtpUsername() + "\0" + password).getBytes(StandardCharsets.UTF_8));
-                out.println("AUTH PLAIN " + auth);
-                readLine(in);
-            }
-
-            out.println("MAIL FROM:<" + from + ">");
-            readLine(in);
-            out.println("RCPT TO:<" + to + ">");
-            readLine(in);
-            out.println("DATA");
-            readLine(in);
-
-            out.println("From: " + from);
-            out.println("To: " + to);
-            out.println("Subject: " + subject);
-            out.println("MIME-Version: 1.0");
-            out.println("Content-Type: multipart/mixed; boundary=\"" + boundary + "\"");
-            out.println();
-            // Text body part
-            out.println("--" + boundary);
-            out.println("Content-Type: text/plain; charset=UTF-8");
-            out.println();
-            out.println(body);
-            out.println();
-            // Attachment part
-            out.println("--" + boundary);
-            out.println("Content-Type: " + attachmentContentType + "; name=\"" + attachmentName + "\"");
-            out.println("Content-Disposition: attachment; filename=\"" + attachmentName + "\"");
-            out.println("Content-Transfer-Encoding: base64");
-            out.println();
-            out.println(Base64.getMimeEncoder(76, "\r\n".getBytes()).encodeToString(attachmentData));
-            out.println();
-            out.println("--" + boundary + "--");
-            out.println(".");
-            readLine(in);
-            out.println("QUIT");
-        } finally {
-            socket.close();
-        }
-    }
-
     private void sendEmail(String to, String subject, String body) {
-        ApplicationSettings settings = appSettingsService.getEntity();
-        if (settings.getSmtpHost() == null || settings.getSmtpHost().isBlank()
-                || settings.getSmtpSenderAddress() == null || settings.getSmtpSenderAddress().isBlank()) {
-            log.info("SMTP not configured — notification logged: to={}, subject={}", to, subject);
-            return;
-        }
-
-        try {
-            sendSmtpEmail(settings, to, subject, body);
-        } catch (Exception ex) {
-            log.error("Failed to send email to {}: {}", to, ex.getMessage());
-        }
-    }
-
-    private void sendSmtpEmail(ApplicationSettings settings, String to, String subject, String body) throws Exception {
-        String host = settings.getSmtpHost();
-        int port = settings.getSmtpPort() != null ? settings.getSmtpPort() : 587;
-        String from = settings.getSmtpSenderAddress();
-
-        var socket = new java.net.Socket(host, port);
-        socket.setSoTimeout(10000);
-        var in = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream()));
-        var out = new java.io.PrintWriter(socket.getOutputStream(), true);
-
-        try {
-            readLine(in);
-            out.println("EHLO ldapadmin");
-            readMultiLine(in);
-
-            if (settings.getSmtpUsername() != null && settings.getSmtpPasswordEncrypted() != null) {
-                String password = encryptionService.decrypt(settings.getSmtpPasswordEncrypted());
-                String auth = Base64.getEncoder().encodeToString(
-                        ("\0" + settings.getSmtpUsername() + "\0" + password).getBytes(StandardCharsets.UTF_8));
-                out.println("AUTH PLAIN " + auth);
-                readLine(in);
-            }
-
-            out.println("MAIL FROM:<" + from + ">");
-            readLine(in);
-            out.println("RCPT TO:<" + to + ">");
-            readLine(in);
-            out.println("DATA");
-            readLine(in);
-            out.println("From: " + from);
-            out.println("To: " + to);
-            out.println("Subject: " + subject);
-            out.println("Content-Type: text/plain; charset=UTF-8");
-            out.println();
-            out.println(body);
-            out.println(".");
-            readLine(in);
-            out.println("QUIT");
-        } finally {
-            socket.close();
-        }
-    }
-
-    private String readLine(java.io.BufferedReader in) throws Exception {
-        String line = in.readLine();
-        if (line != null && line.length() >= 3) {
-            char c = line.charAt(3);
-            if (c == '-') readMultiLine(in);
-        }
-        return line;
-    }
-
-    private void readMultiLine(java.io.BufferedReader in) throws Exception {
-        String line;
-        do {
-            line = in.readLine();
-        } while (line != null && line.length() >= 4 && line.charAt(3) == '-');
+        outboxService.enqueue(to, subject, body);
     }
 }
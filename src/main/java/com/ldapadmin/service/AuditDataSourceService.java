@@ -4,6 +4,7 @@ import com.ldapadmin.dto.audit.AuditSourceRequest;
 import com.ldapadmin.dto.audit.AuditSourceResponse;
 import com.ldapadmin.dto.directory.TestConnectionResult;
 import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
 import com.ldapadmin.entity.enums.ChangelogFormat;
 import com.ldapadmin.entity.enums.SslMode;
 import com.ldapadmin.exception.ResourceNotFoundException;
@@ -23,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -63,8 +65,18 @@ public class AuditDataSourceService {
         String encryptedPassword = (req.bindPassword() != null && !req.bindPassword().isBlank())
                 ? encryptionService.encrypt(req.bindPassword())
                 : src.getBindPasswordEncrypted();
+        boolean moved = !req.host().trim().equalsIgnoreCase(src.getHost())
+                || req.port() != src.getPort()
+                || req.changelogFormat() != src.getChangelogFormat()
+                || !Objects.equals(normalizedBaseDn(req), src.getChangelogBaseDn());
         applyRequest(src, req, encryptedPassword);
         changelogReader.clearConfigError(id);
+        if (moved) {
+            // The stored read position belongs to the old changelog
+            auditSourceRepo.updateChangePosition(id, null, null);
+            src.setLastChangeId(null);
+            src.setSyncCookie(null);
+        }
         return AuditSourceResponse.from(auditSourceRepo.save(src));
     }
 
@@ -148,14 +160,19 @@ public class AuditDataSourceService {
         src.setTrustedCertificatePem(req.trustedCertificatePem());
         src.setBindDn(req.bindDn().trim());
         src.setBindPasswordEncrypted(encryptedPassword);
-        src.setChangelogBaseDn(req.changelogBaseDn() != null
-                ? req.changelogBaseDn().trim() : "cn=changelog");
+        src.setChangelogBaseDn(normalizedBaseDn(req));
         src.setBranchFilterDn(req.branchFilterDn() != null
                 ? req.branchFilterDn().trim() : null);
         src.setChangelogFormat(req.changelogFormat());
+        src.setChangeCaptureMode(req.changeCaptureMode() != null
+                ? req.changeCaptureMode() : ChangeCaptureMode.POLL);
         src.setEnabled(req.enabled());
     }
 
+    private static String normalizedBaseDn(AuditSourceRequest req) {
+        return req.changelogBaseDn() != null ? req.changelogBaseDn().trim() : "cn=changelog";
+    }
+
     private AuditDataSource load(UUID id) {
         return auditSourceRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("AuditDataSource", id));
@@ -0,0 +1,26 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.entity.AuditEvent;
+import com.ldapadmin.entity.enums.AuditAction;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Published by {@link AuditService} once an audit event — internal or
+ * changelog-sourced — has been saved, so event-driven alert checkers can
+ * react without querying the audit table.
+ */
+public record AuditRecordedEvent(UUID id,
+                                 UUID directoryId,
+                                 String directoryName,
+                                 AuditAction action,
+                                 String targetDn,
+                                 String actorUsername,
+                                 OffsetDateTime occurredAt) {
+
+    public static AuditRecordedEvent of(AuditEvent event) {
+        return new AuditRecordedEvent(event.getId(), event.getDirectoryId(), event.getDirectoryName(), event.getAction(),
+                event.getTargetDn(), event.getActorUsername(), event.getOccurredAt());
+    }
+}
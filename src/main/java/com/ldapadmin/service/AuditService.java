@@ -1,15 +1,18 @@
 package com.ldapadmin.service;
 
 import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.entity.AuditEvent;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.entity.enums.AuditSource;
+import com.ldapadmin.ldap.DirectoryEntryChangedEvent;
 import com.ldapadmin.repository.AuditEventRepository;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.service.siem.SiemExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -35,6 +38,7 @@ public class AuditService {
     private final AuditEventRepository         auditRepo;
     private final DirectoryConnectionRepository dirRepo;
     private final SiemExportService             siemExportService;
+    private final ApplicationEventPublisher     eventPublisher;
 
     // ── Internal-event recording ──────────────────────────────────────────────
 
@@ -47,7 +51,7 @@ public class AuditService {
      * @param targetDn    the entry DN that was affected
      * @param detail      optional extra detail (attribute names, values, etc.)
      */
-    @Async
+    @Async(ExecutorConfig.AUDIT_EXECUTOR)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void record(AuthPrincipal principal,
                        UUID directoryId,
@@ -73,6 +77,8 @@ public class AuditService {
 
             auditRepo.save(event);
             siemExportService.export(event);
+            eventPublisher.publishEvent(AuditRecordedEvent.of(event));
+            publishEntryChanged(directoryId, targetDn, detail);
         } catch (Exception ex) {
             // Never let audit failures bubble up to callers.
             log.error("Failed to record audit event [action={}, dn={}, actor={}]: {}",
@@ -118,6 +124,8 @@ public class AuditService {
 
             auditRepo.save(event);
             siemExportService.export(event);
+            eventPublisher.publishEvent(AuditRecordedEvent.of(event));
+            publishEntryChanged(directoryId, targetDn, changeDetail);
         } catch (Exception ex) {
             log.error("Failed to record changelog event [changeNumber={}, dn={}]: {}",
                     changeNumber, targetDn, ex.getMessage(), ex);
@@ -130,4 +138,11 @@ public class AuditService {
     public boolean isChangelogEventRecorded(UUID directoryId, String changeNumber) {
         return auditRepo.existsByDirectoryIdAndChangelogChangeNumber(directoryId, changeNumber);
     }
+
+    /** Lets the local directory replica pick up the change. */
+    private void publishEntryChanged(UUID directoryId, String targetDn, Map<String, Object> detail) {
+        if (directoryId != null && targetDn != null) {
+            eventPublisher.publishEvent(DirectoryEntryChangedEvent.of(directoryId, targetDn, detail));
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.ldapadmin.service;
 
 import com.ldapadmin.dto.audit.AuditEventResponse;
 import com.ldapadmin.entity.*;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapUserService;
 import com.ldapadmin.ldap.model.LdapGroup;
@@ -35,6 +36,7 @@ public class AuditorPortalService {
     private final AuditQueryService auditQueryService;
     private final LdapUserService ldapUserService;
     private final LdapGroupService ldapGroupService;
+    private final DirectoryReplicaService replicaService;
     private final AccountRepository accountRepo;
     private final DirectoryConnectionRepository directoryRepo;
 
@@ -177,11 +179,17 @@ public class AuditorPortalService {
     public List<Map<String, Object>> getEntitlements(AuditorLink link) {
         DirectoryConnection dc = link.getDirectory();
         try {
-            List<LdapUser> users = ldapUserService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null,
-                    MAX_ENTITLEMENT_ENTRIES, "cn", "uid", "sAMAccountName", "displayName", "mail", "memberOf");
+            String[] userAttrs = {"cn", "uid", "sAMAccountName", "displayName", "mail", "memberOf"};
+            List<LdapUser> users = replicaService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null,
+                            MAX_ENTITLEMENT_ENTRIES, userAttrs)
+                    .orElseGet(() -> ldapUserService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null,
+                            MAX_ENTITLEMENT_ENTRIES, userAttrs));
 
-            List<LdapGroup> groups = ldapGroupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER,
-                    null, MAX_ENTITLEMENT_ENTRIES, "cn", "member", "uniqueMember", "memberUid");
+            String[] groupAttrs = {"cn", "member", "uniqueMember", "memberUid"};
+            List<LdapGroup> groups = replicaService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER,
+                            null, MAX_ENTITLEMENT_ENTRIES, groupAttrs)
+                    .orElseGet(() -> ldapGroupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER,
+                            null, MAX_ENTITLEMENT_ENTRIES, groupAttrs));
 
             Map<String, List<String>> userToGroups = new HashMap<>();
             for (LdapGroup group : groups) {
@@ -19,10 +19,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -139,21 +141,21 @@ public class BulkGroupService {
     // ── Export ────────────────────────────────────────────────────────────────
 
     /**
-     * Exports groups matching the given filter as CSV bytes.
+     * Writes groups matching the given filter to {@code out} as CSV, one
+     * page of search results at a time.
      * Columns: dn, cn, description, owner, members (pipe-separated).
      */
-    public byte[] exportCsv(DirectoryConnection dc,
-                             String filter,
-                             String baseDn,
-                             String memberAttribute,
-                             List<String> attributes) throws IOException {
+    public void exportCsv(DirectoryConnection dc,
+                          String filter,
+                          String baseDn,
+                          String memberAttribute,
+                          List<String> attributes,
+                          OutputStream out) throws IOException {
 
         String effectiveFilter = (filter == null || filter.isBlank())
                 ? "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group))"
                 : filter;
 
-        List<LdapGroup> groups = groupService.searchGroups(dc, effectiveFilter, baseDn);
-
         List<String> columns = buildExportColumns(attributes);
         // Ensure the member attribute column is present
         String memberCol = memberAttribute != null ? memberAttribute : "member";
@@ -161,16 +163,21 @@ public class BulkGroupService {
             columns.add(memberCol);
         }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Writer writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
         CsvUtils.writeHeader(writer, columns);
-
-        for (LdapGroup group : groups) {
-            CsvUtils.writeRow(writer, columns, buildExportRow(group, columns));
+        writer.flush();
+        try {
+            groupService.processGroups(dc, effectiveFilter, baseDn, group -> {
+                try {
+                    CsvUtils.writeRow(writer, columns, buildExportRow(group, columns));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
         writer.flush();
-        return baos.toByteArray();
     }
 
     // ── Private helpers ───────────────────────────────────────────────────────
@@ -0,0 +1,233 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.config.ExecutorConfig;
+import com.ldapadmin.dto.csv.BulkImportJobDto;
+import com.ldapadmin.dto.csv.BulkImportResult;
+import com.ldapadmin.dto.csv.BulkImportRowResult;
+import com.ldapadmin.exception.ConflictException;
+import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.exception.TooManyRequestsException;
+import com.ldapadmin.util.CsvUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs bulk imports in the background so an import of any size neither
+ * holds a request thread nor keeps its per-row results in memory.
+ *
+ * <p>The upload is spooled to a work file before {@link #start} returns, the
+ * import then reads it as a stream, and each row's outcome is tallied into
+ * the job's counters and appended to a results CSV.  Callers poll
+ * {@link #get} for progress and download the results once the job has
+ * finished.  Each user may have one running import at a time; finished jobs
+ * and their files are purged after {@code ldapadmin.bulk-import.job-retention-hours}.
+ * Job state is held in memory, so a restart drops it.</p>
+ */
+@Service
+@Slf4j
+public class BulkImportJobService {
+
+    /** The import itself: reads {@code input} and reports every row to {@code results}. */
+    @FunctionalInterface
+    public interface ImportTask {
+        BulkImportResult run(InputStream input, Consumer<BulkImportRowResult> results) throws Exception;
+    }
+
+    @Value("${ldapadmin.bulk-import.work-dir:}")
+    private String workDir;
+
+    @Value("${ldapadmin.bulk-import.job-retention-hours:24}")
+    private long retentionHours;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    private final Executor executor;
+
+    public BulkImportJobService(@Qualifier(ExecutorConfig.JOB_EXECUTOR) Executor executor) {
+        this.executor = executor;
+    }
+
+    enum Status { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Spools {@code upload} to disk and starts {@code task} on it.
+     *
+     * @throws TooManyRequestsException if the user already has a running import, or
+     *                                  the job executor is saturated
+     */
+    public BulkImportJobDto start(UUID directoryId, UUID ownerId, InputStream upload,
+                                  ImportTask task) throws IOException {
+        Job job = new Job(UUID.randomUUID(), directoryId, ownerId);
+        synchronized (jobs) {
+            boolean busy = jobs.values().stream()
+                    .anyMatch(j -> j.ownerId.equals(ownerId) && j.status == Status.RUNNING);
+            if (busy) {
+                throw new TooManyRequestsException("A bulk import is already running");
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            job.input = createWorkFile(job.id, ".upload");
+            Files.copy(upload, job.input, StandardCopyOption.REPLACE_EXISTING);
+            job.results = createWorkFile(job.id, ".results.csv");
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.id);
+            deleteQuietly(job.input);
+            deleteQuietly(job.results);
+            throw e;
+        }
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(job.input);
+            deleteQuietly(job.results);
+            throw new TooManyRequestsException("Too many background jobs are running; try again later");
+        }
+        return job.toDto();
+    }
+
+    /** Returns the job if it exists and belongs to {@code ownerId}. */
+    public BulkImportJobDto get(UUID directoryId, UUID jobId, UUID ownerId) {
+        return find(directoryId, jobId, ownerId).toDto();
+    }
+
+    /**
+     * Returns the per-row results CSV ({@code Row, DN, Status, Message}).
+     *
+     * @throws ConflictException if the job is still running
+     */
+    public Path results(UUID directoryId, UUID jobId, UUID ownerId) {
+        Job job = find(directoryId, jobId, ownerId);
+        if (job.status == Status.RUNNING) {
+            throw new ConflictException("Bulk import is still running");
+        }
+        return job.results;
+    }
+
+    @Scheduled(fixedDelayString = "${ldapadmin.bulk-import.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> {
+            if (job.status == Status.RUNNING || job.completedAt == null
+                    || job.completedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(job.results);
+            return true;
+        });
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private void run(Job job, ImportTask task) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(job.input), 64 * 1024);
+             Writer out = Files.newBufferedWriter(job.results, StandardCharsets.UTF_8)) {
+            CsvUtils.writeValues(out, "Row", "DN", "Status", "Message");
+            task.run(in, result -> job.record(result, out));
+            job.completedAt = OffsetDateTime.now();
+            job.status = Status.COMPLETED;
+            log.info("Bulk import job {} completed ({} rows)", job.id, job.rowsProcessed.get());
+        } catch (Exception e) {
+            Throwable cause = e instanceof UncheckedIOException u ? u.getCause() : e;
+            job.error = cause.getMessage();
+            job.completedAt = OffsetDateTime.now();
+            job.status = Status.FAILED;
+            log.error("Bulk import job {} failed after {} rows: {}",
+                    job.id, job.rowsProcessed.get(), cause.getMessage(), cause);
+        } finally {
+            deleteQuietly(job.input);
+        }
+    }
+
+    private Path createWorkFile(UUID jobId, String suffix) throws IOException {
+        if (workDir == null || workDir.isBlank()) {
+            return Files.createTempFile("bulk-import-" + jobId, suffix);
+        }
+        Path dir = Files.createDirectories(Path.of(workDir));
+        return Files.createFile(dir.resolve("bulk-import-" + jobId + suffix));
+    }
+
+    private Job find(UUID directoryId, UUID jobId, UUID ownerId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerId.equals(ownerId) || !job.directoryId.equals(directoryId)) {
+            throw new ResourceNotFoundException("BulkImportJob", jobId);
+        }
+        return job;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete bulk import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class Job {
+        final UUID           id;
+        final UUID           directoryId;
+        final UUID           ownerId;
+        final OffsetDateTime startedAt = OffsetDateTime.now();
+        final AtomicLong     rowsProcessed = new AtomicLong();
+        final AtomicLong     created = new AtomicLong();
+        final AtomicLong     updated = new AtomicLong();
+        final AtomicLong     skipped = new AtomicLong();
+        final AtomicLong     errors = new AtomicLong();
+        volatile Status         status = Status.RUNNING;
+        volatile Path           input;
+        volatile Path           results;
+        volatile String         error;
+        volatile OffsetDateTime completedAt;
+
+        Job(UUID id, UUID directoryId, UUID ownerId) {
+            this.id = id;
+            this.directoryId = directoryId;
+            this.ownerId = ownerId;
+        }
+
+        void record(BulkImportRowResult result, Writer out) {
+            switch (result.status()) {
+                case CREATED -> created.incrementAndGet();
+                case UPDATED -> updated.incrementAndGet();
+                case SKIPPED -> skipped.incrementAndGet();
+                case ERROR   -> errors.incrementAndGet();
+            }
+            rowsProcessed.incrementAndGet();
+            try {
+                CsvUtils.writeValues(out, String.valueOf(result.rowNumber()), result.dn(),
+                        result.status().name(), result.message());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        BulkImportJobDto toDto() {
+            return new BulkImportJobDto(id, directoryId, status.name(), rowsProcessed.get(),
+                    created.get(), updated.get(), skipped.get(), errors.get(),
+                    error, startedAt, completedAt);
+        }
+    }
+}
@@ -7,28 +7,42 @@ import com.ldapadmin.dto.csv.BulkImportRowResult;
 import com.ldapadmin.dto.csv.CsvColumnMappingDto;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.ConflictHandling;
-import com.ldapadmin.exception.LdapOperationException;
 import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.ldap.LdapWritePipeline;
 import com.ldapadmin.ldap.model.LdapUser;
+import com.ldapadmin.util.CsvReader;
 import com.ldapadmin.util.CsvUtils;
-import com.unboundid.ldap.sdk.RDN;
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.LDAPResult;
 import com.unboundid.ldap.sdk.Modification;
 import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.ModifyRequest;
+import com.unboundid.ldap.sdk.RDN;
 import com.unboundid.ldap.sdk.ResultCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * CSV parsing and generation service for bulk user import and export operations.
@@ -38,7 +52,10 @@ import java.util.Map;
  * to an LDAP attribute via the supplied column mappings, then for every data
  * row either creates a new entry or updates/skips an existing one depending on
  * {@link ConflictHandling}.  All rows are processed regardless of individual
- * errors; the caller receives a per-row result list.</p>
+ * errors; the caller receives a per-row result list, or a stream of results
+ * for imports too large to collect.  The upload is tokenised as it is read
+ * and adds are pipelined, so an import runs at the directory's write
+ * speed rather than one round-trip per row.</p>
  *
  * <h3>Export</h3>
  * <p>Searches the directory for matching entries, writes a header row followed
@@ -55,6 +72,12 @@ public class BulkUserService {
 
     private final LdapUserService userService;
 
+    @Value("${ldapadmin.bulk-import.max-in-flight:32}")
+    private int maxInFlight = 32;
+
+    @Value("${ldapadmin.bulk-import.connections:4}")
+    private int connections = 4;
+
     // ── Import ────────────────────────────────────────────────────────────────
 
     /**
@@ -67,6 +90,7 @@ public class BulkUserService {
      * @param conflictHandling action when an entry with the given key already exists
      * @param columnMappings  CSV column → LDAP attribute mapping;
      *                        empty list = use CSV header names as attribute names directly
+     * @return the outcome with one result per row, in row order
      */
     public BulkImportResult importCsv(DirectoryConnection dc,
                                       InputStream csvInput,
@@ -76,28 +100,63 @@ public class BulkUserService {
                                       List<CsvColumnMappingDto> columnMappings,
                                       List<String> objectClasses,
                                       boolean skipHeaderRow) throws IOException {
+        List<BulkImportRowResult> rowResults = new ArrayList<>();
+        BulkImportResult result = importCsv(dc, csvInput, parentDn, targetKeyAttr, conflictHandling,
+                columnMappings, objectClasses, skipHeaderRow, rowResults::add);
+        rowResults.sort(Comparator.comparingInt(BulkImportRowResult::rowNumber));
+        return new BulkImportResult(result.totalRows(), result.created(), result.updated(),
+                result.skipped(), result.errors(), rowResults);
+    }
 
-        Map<String, String> colToAttr = resolveColumnMap(columnMappings);
-        List<Map<String, String>> rows = CsvUtils.parse(csvInput, skipHeaderRow);
+    /**
+     * Streaming variant of {@link #importCsv(DirectoryConnection, InputStream, String, String,
+     * ConflictHandling, List, List, boolean)} for inputs of any size.
+     *
+     * <p>Rows are read one at a time and their adds pipelined: up to
+     * {@code ldapadmin.bulk-import.max-in-flight} are outstanding at once,
+     * spread over {@code ldapadmin.bulk-import.connections} pooled
+     * connections.  Each row's outcome is handed to {@code results} as it
+     * completes — not necessarily in row order — and is not retained; the
+     * returned summary has an empty {@code rows} list.</p>
+     */
+    public BulkImportResult importCsv(DirectoryConnection dc,
+                                      InputStream csvInput,
+                                      String parentDn,
+                                      String targetKeyAttr,
+                                      ConflictHandling conflictHandling,
+                                      List<CsvColumnMappingDto> columnMappings,
+                                      List<String> objectClasses,
+                                      boolean skipHeaderRow,
+                                      Consumer<BulkImportRowResult> results) throws IOException {
 
-        List<BulkImportRowResult> rowResults = new ArrayList<>();
+        Map<String, String> colToAttr = resolveColumnMap(columnMappings);
+        Tally tally = new Tally(results);
         int rowNum = 0;
 
-        for (Map<String, String> row : rows) {
-            rowNum++;
-            rowResults.add(processRow(dc, row, colToAttr, targetKeyAttr,
-                    parentDn, conflictHandling, objectClasses, rowNum));
+        try (CsvReader reader = new CsvReader(csvInput);
+             LdapWritePipeline pipeline = userService.openWritePipeline(dc, connections, maxInFlight)) {
+            List<String> headers = null;
+            while (reader.next()) {
+                if (headers == null && skipHeaderRow) {
+                    headers = List.of(reader.toArray());
+                    continue;
+                }
+                rowNum++;
+                Map<String, List<String>> attrMap =
+                        buildAttributes(reader, headers, colToAttr, objectClasses);
+                submitRow(pipeline, attrMap, targetKeyAttr, parentDn, conflictHandling, rowNum, tally);
+            }
+            pipeline.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Bulk import interrupted after " + rowNum + " rows");
         }
 
-        long created = countByStatus(rowResults, BulkImportRowResult.Status.CREATED);
-        long updated = countByStatus(rowResults, BulkImportRowResult.Status.UPDATED);
-        long skipped = countByStatus(rowResults, BulkImportRowResult.Status.SKIPPED);
-        long errors  = countByStatus(rowResults, BulkImportRowResult.Status.ERROR);
-
         log.info("Bulk import complete: {} rows — created={}, updated={}, skipped={}, errors={}",
-                rowNum, created, updated, skipped, errors);
+                rowNum, tally.created, tally.updated, tally.skipped, tally.errors);
 
-        return new BulkImportResult(rowNum, created, updated, skipped, errors, rowResults);
+        return new BulkImportResult(rowNum, tally.created, tally.updated, tally.skipped, tally.errors,
+                List.of());
     }
 
     // ── Preview ───────────────────────────────────────────────────────────────
@@ -150,26 +209,32 @@ public class BulkUserService {
     // ── Export ────────────────────────────────────────────────────────────────
 
     /**
-     * Searches the directory and serialises matching entries as CSV bytes.
+     * Searches the directory and writes matching entries to {@code out} as CSV.
      *
      * <p>Column order: {@code dn} is always the first column, followed by the
      * requested attributes in the order provided.  When {@code attributes} is
-     * empty the column set is derived from all attribute names found across
-     * the first page of results.</p>
+     * empty the column set is the union of the attribute names of all
+     * matching entries.</p>
      *
-     * <p>Results are streamed page-by-page directly into the output buffer so
-     * the entire result set never has to reside in memory simultaneously.</p>
+     * <p>Rows are written as each page of results arrives, so memory use
+     * does not grow with the result set.  With an attribute list the header
+     * is flushed before the directory is searched.  Without one the columns
+     * are only known after a first pass over the matching entries, so the
+     * header follows that pass and the directory is searched twice.
+     * {@code out} is flushed but not closed.</p>
      *
      * @param dc         directory connection
      * @param filter     LDAP filter (null = {@code (objectClass=*)})
      * @param baseDn     search base (null = directory base DN)
      * @param attributes LDAP attribute names to include as columns;
-     *                   empty = derive from first page of results
+     *                   empty = every attribute present on the matching entries
+     * @param out        destination, typically the HTTP response body
      */
-    public byte[] exportCsv(DirectoryConnection dc,
-                             String filter,
-                             String baseDn,
-                             List<String> attributes) throws IOException {
+    public void exportCsv(DirectoryConnection dc,
+                          String filter,
+                          String baseDn,
+                          List<String> attributes,
+                          OutputStream out) throws IOException {
 
         String effectiveFilter = (filter == null || filter.isBlank())
                 ? "(objectClass=*)" : filter;
@@ -177,55 +242,49 @@ public class BulkUserService {
                 ? new String[0]
                 : attributes.toArray(new String[0]);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Writer writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
-
-        // When columns are known upfront (attributes provided), write header first and
-        // stream entries via processUsers — only one entry lives in memory at a time.
-        // When attributes is empty, columns are derived dynamically; we must do a full
-        // search to discover the union of all attribute names before writing the header.
+        // Without an attribute list the columns are the union of every entry's
+        // attribute names, collected in a first pass so that neither pass holds
+        // more than one page of entries.
+        List<String> columns;
         if (!attributes.isEmpty()) {
-            List<String> columns = buildExportColumns(List.of(), attributes);
-            CsvUtils.writeHeader(writer, columns);
+            columns = buildExportColumns(attributes);
+        } else {
+            Set<String> names = new LinkedHashSet<>();
+            userService.processUsers(dc, effectiveFilter, baseDn,
+                    user -> names.addAll(user.getAttributes().keySet()), attrArray);
+            columns = buildExportColumns(names);
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvUtils.writeHeader(writer, columns);
+        writer.flush(); // header goes out before the rows are searched
+        try {
             userService.processUsers(dc, effectiveFilter, baseDn,
                     user -> {
                         try {
                             CsvUtils.writeRow(writer, columns, buildExportRow(user, columns));
                         } catch (IOException e) {
-                            throw new RuntimeException("CSV write failed", e);
+                            throw new UncheckedIOException(e);
                         }
                     },
                     attrArray);
-        } else {
-            // Fallback: load all entries to determine the dynamic column set, then write
-            List<LdapUser> users = userService.searchUsers(dc, effectiveFilter, baseDn, attrArray);
-            List<String> columns = buildExportColumns(users, attributes);
-            CsvUtils.writeHeader(writer, columns);
-            for (LdapUser user : users) {
-                CsvUtils.writeRow(writer, columns, buildExportRow(user, columns));
-            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
         writer.flush();
-        return baos.toByteArray();
     }
 
     // ── Private helpers ───────────────────────────────────────────────────────
 
     /**
-     * Processes a single CSV data row: builds the LDAP attribute map, checks
-     * whether the target entry already exists, and applies the appropriate
-     * create/update/skip action.
+     * Builds the ldapAttribute→[value] map for the current CSV record.
+     *
+     * @param headers column names, or {@code null} for synthetic {@code Column N} names
      */
-    private BulkImportRowResult processRow(DirectoryConnection dc,
-                                           Map<String, String> row,
-                                           Map<String, String> colToAttr,
-                                           String targetKeyAttr,
-                                           String parentDn,
-                                           ConflictHandling conflictHandling,
-                                           List<String> objectClasses,
-                                           int rowNum) {
-        // Build ldapAttribute→[value] map from the CSV row
+    private Map<String, List<String>> buildAttributes(CsvReader record,
+                                                      List<String> headers,
+                                                      Map<String, String> colToAttr,
+                                                      List<String> objectClasses) {
         Map<String, List<String>> attrMap = new LinkedHashMap<>();
 
         // Inject objectClass values from the template
@@ -233,10 +292,11 @@ public class BulkUserService {
             attrMap.put("objectClass", objectClasses);
         }
 
-        for (Map.Entry<String, String> cell : row.entrySet()) {
-            String csvCol  = cell.getKey();
-            String rawVal  = cell.getValue();
-            if (rawVal == null || rawVal.isBlank()) continue;
+        int columns = headers != null ? headers.size() : record.size();
+        for (int c = 0; c < columns; c++) {
+            String csvCol = headers != null ? headers.get(c) : CsvUtils.syntheticColumnName(c);
+            String rawVal = record.get(c);
+            if (rawVal.isBlank()) continue;
 
             // colToAttr: null value = explicitly ignored; absent key = passthrough
             String ldapAttr;
@@ -249,50 +309,68 @@ public class BulkUserService {
 
             attrMap.put(ldapAttr, List.of(rawVal));
         }
+        return attrMap;
+    }
 
+    /**
+     * Queues the add for a single row; the create/update/skip outcome is
+     * recorded when the directory answers.
+     */
+    private void submitRow(LdapWritePipeline pipeline,
+                           Map<String, List<String>> attrMap,
+                           String targetKeyAttr,
+                           String parentDn,
+                           ConflictHandling conflictHandling,
+                           int rowNum,
+                           Tally tally) throws InterruptedException {
         // The key attribute value drives both DN construction and duplicate detection
         List<String> keyValues = attrMap.get(targetKeyAttr);
         if (keyValues == null || keyValues.isEmpty()) {
-            return BulkImportRowResult.error(rowNum, null,
-                    "Missing value for key attribute '" + targetKeyAttr + "'");
+            tally.accept(BulkImportRowResult.error(rowNum, null,
+                    "Missing value for key attribute '" + targetKeyAttr + "'"));
+            return;
         }
-        String keyValue = keyValues.get(0);
-        String dn = buildDn(targetKeyAttr, keyValue, parentDn);
-
-        try {
-            // Optimistic create: attempt the add first and handle the ENTRY_ALREADY_EXISTS
-            // result code inline.  This avoids a separate getUser() existence check per row
-            // (which would double the number of LDAP round-trips for large imports).
-            try {
-                userService.createUser(dc, dn, attrMap);
-                return BulkImportRowResult.created(rowNum, dn);
-            } catch (LdapOperationException ex) {
-                if (!ex.getMessage().contains(ResultCode.ENTRY_ALREADY_EXISTS.getName())
-                        && !ex.getMessage().contains(String.valueOf(ResultCode.ENTRY_ALREADY_EXISTS.intValue()))) {
-                    throw ex; // not a duplicate — propagate
-                }
-                // Entry exists — apply conflict strategy
-                if (conflictHandling == ConflictHandling.OVERWRITE) {
-                    List<Modification> mods = attrMap.entrySet().stream()
-                            .filter(e -> !e.getKey().equals(targetKeyAttr))
-                            .map(e -> new Modification(
-                                    ModificationType.REPLACE,
-                                    e.getKey(),
-                                    e.getValue().toArray(new String[0])))
-                            .toList();
-                    if (!mods.isEmpty()) {
-                        userService.updateUser(dc, dn, mods);
-                    }
-                    return BulkImportRowResult.updated(rowNum, dn);
-                } else {
-                    // SKIP or PROMPT — no action taken
-                    return BulkImportRowResult.skipped(rowNum, dn, "Entry already exists");
+        String dn = buildDn(targetKeyAttr, keyValues.get(0), parentDn);
+
+        List<Attribute> attributes = new ArrayList<>(attrMap.size());
+        attrMap.forEach((name, values) -> attributes.add(new Attribute(name, values)));
+
+        // Optimistic create: attempt the add first and handle ENTRY_ALREADY_EXISTS
+        // when it comes back.  This avoids a separate existence check per row
+        // (which would double the number of LDAP round-trips for large imports).
+        pipeline.add(new AddRequest(dn, attributes), result -> {
+            if (result.getResultCode() == ResultCode.SUCCESS) {
+                tally.accept(BulkImportRowResult.created(rowNum, dn));
+            } else if (result.getResultCode() != ResultCode.ENTRY_ALREADY_EXISTS) {
+                tally.accept(failed(rowNum, dn, "createUser", result));
+            } else if (conflictHandling == ConflictHandling.OVERWRITE) {
+                List<Modification> mods = attrMap.entrySet().stream()
+                        .filter(e -> !e.getKey().equals(targetKeyAttr))
+                        .map(e -> new Modification(
+                                ModificationType.REPLACE,
+                                e.getKey(),
+                                e.getValue().toArray(new String[0])))
+                        .toList();
+                if (mods.isEmpty()) {
+                    tally.accept(BulkImportRowResult.updated(rowNum, dn));
+                    return;
                 }
+                pipeline.modify(new ModifyRequest(dn, mods), modified ->
+                        tally.accept(modified.getResultCode() == ResultCode.SUCCESS
+                                ? BulkImportRowResult.updated(rowNum, dn)
+                                : failed(rowNum, dn, "updateUser", modified)));
+            } else {
+                // SKIP or PROMPT — no action taken
+                tally.accept(BulkImportRowResult.skipped(rowNum, dn, "Entry already exists"));
             }
-        } catch (Exception ex) {
-            log.warn("Row {} failed [dn={}]: {}", rowNum, dn, ex.getMessage());
-            return BulkImportRowResult.error(rowNum, dn, ex.getMessage());
-        }
+        });
+    }
+
+    private static BulkImportRowResult failed(int rowNum, String dn, String operation, LDAPResult result) {
+        String message = operation + " failed for [" + dn + "]: " + result.getResultCode()
+                + (result.getDiagnosticMessage() != null ? " — " + result.getDiagnosticMessage() : "");
+        log.warn("Row {} failed [dn={}]: {}", rowNum, dn, message);
+        return BulkImportRowResult.error(rowNum, dn, message);
     }
 
     /**
@@ -331,17 +409,10 @@ public class BulkUserService {
      * {@code dn} is always first; remaining columns come from {@code requestedAttrs}
      * or, if empty, from all attribute names found in the returned entries.
      */
-    private List<String> buildExportColumns(List<LdapUser> users, List<String> requestedAttrs) {
+    private List<String> buildExportColumns(Collection<String> attributes) {
         List<String> cols = new ArrayList<>();
         cols.add("dn");
-        if (!requestedAttrs.isEmpty()) {
-            cols.addAll(requestedAttrs);
-        } else {
-            users.stream()
-                    .flatMap(u -> u.getAttributes().keySet().stream())
-                    .distinct()
-                    .forEach(cols::add);
-        }
+        cols.addAll(attributes);
         return cols;
     }
 
@@ -359,8 +430,27 @@ public class BulkUserService {
         return row;
     }
 
-    private long countByStatus(List<BulkImportRowResult> results,
-                                BulkImportRowResult.Status status) {
-        return results.stream().filter(r -> r.status() == status).count();
+    /** Counts outcomes by status and forwards each to the caller's consumer. */
+    private static final class Tally implements Consumer<BulkImportRowResult> {
+        private final Consumer<BulkImportRowResult> downstream;
+        long created;
+        long updated;
+        long skipped;
+        long errors;
+
+        Tally(Consumer<BulkImportRowResult> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void accept(BulkImportRowResult result) {
+            switch (result.status()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case SKIPPED -> skipped++;
+                case ERROR   -> errors++;
+            }
+            downstream.accept(result);
+        }
     }
 }
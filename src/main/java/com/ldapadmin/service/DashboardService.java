@@ -9,8 +9,6 @@ import com.ldapadmin.entity.PendingApproval;
 import com.ldapadmin.entity.enums.ApprovalStatus;
 import com.ldapadmin.entity.enums.CampaignStatus;
 import com.ldapadmin.entity.enums.SodViolationStatus;
-import com.ldapadmin.ldap.LdapUserService;
-import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,8 +22,9 @@ import java.util.*;
 /**
  * Builds the compliance posture dashboard.
  *
- * <p>Results are cached for 60 seconds to avoid repeated expensive LDAP queries
- * and DB aggregations on every page load.</p>
+ * <p>Results are cached for 60 seconds to avoid repeated DB aggregations on
+ * every page load.  User and group counts come from the
+ * {@link DirectoryCountCache} shared with the admin dashboards.</p>
  */
 @Service
 @Slf4j
@@ -38,19 +37,8 @@ public class DashboardService {
     private final AccessReviewDecisionRepository decisionRepo;
     private final SodViolationRepository sodViolationRepo;
     private final AuditQueryService auditQueryService;
-    private final LdapUserService userService;
-    private final LdapGroupService groupService;
     private final ScheduledReportJobRepository reportJobRepo;
-
-    /** User-class filter portable across OpenLDAP and AD. */
-    private static final String USER_OBJECTCLASS_FILTER =
-            "(|(objectClass=inetOrgPerson)(&(objectClass=user)(!(objectClass=computer))))";
-
-    private static final String GROUP_OBJECTCLASS_FILTER =
-            "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group)(objectClass=groupOfURLs))";
-
-    /** Maximum entries to load for counting. */
-    private static final int MAX_COUNT = 100_000;
+    private final DirectoryCountCache countCache;
 
     // ── Cache ────────────────────────────────────────────────────────────────
     private volatile ComplianceDashboardDto cachedDashboard;
@@ -78,6 +66,7 @@ public class DashboardService {
     private ComplianceDashboardDto buildDashboard() {
         List<DirectoryConnection> dirs = dirRepo.findAll();
         OffsetDateTime now = OffsetDateTime.now();
+        Map<UUID, DirectoryCountCache.Counts> counts = countCache.getAll(dirs);
 
         // ── Per-directory stats ──────────────────────────────────────────────
         List<DirectoryStatDto> dirStats = new ArrayList<>();
@@ -86,27 +75,8 @@ public class DashboardService {
         long totalPending = 0;
 
         for (DirectoryConnection dc : dirs) {
-            long userCount = 0;
-            long groupCount = 0;
-
-            if (dc.isEnabled()) {
-                try {
-                    userCount = userService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1").size();
-                    if (userCount >= MAX_COUNT) {
-                        log.warn("User count for '{}' hit the {} limit — actual count may be higher",
-                                dc.getDisplayName(), MAX_COUNT);
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to count users for directory {}: {}", dc.getDisplayName(), e.getMessage());
-                    userCount = -1;
-                }
-                try {
-                    groupCount = groupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1").size();
-                } catch (Exception e) {
-                    log.warn("Failed to count groups for directory {}: {}", dc.getDisplayName(), e.getMessage());
-                    groupCount = -1;
-                }
-            }
+            long userCount = counts.get(dc.getId()).users();
+            long groupCount = counts.get(dc.getId()).groups();
 
             long pending = approvalRepo.countByDirectoryIdAndStatus(dc.getId(), ApprovalStatus.PENDING);
             long activeCampaigns = campaignRepo.countByDirectoryIdAndStatus(dc.getId(), CampaignStatus.ACTIVE);
@@ -160,7 +130,7 @@ public class DashboardService {
         ApprovalAgingDto approvalAging = computeApprovalAging(now);
 
         // ── Users not reviewed in 90 days ────────────────────────────────────
-        long usersNotReviewedIn90Days = computeUsersNotReviewedIn90Days(dirs, now);
+        long usersNotReviewedIn90Days = computeUsersNotReviewedIn90Days(dirs, counts, now);
 
         // ── Recent audit events ──────────────────────────────────────────────
         var recentAudit = auditQueryService.query(null, null, null, null, null, 0, 10);
@@ -197,7 +167,9 @@ public class DashboardService {
      * Computes users not reviewed in 90 days using per-directory calculation
      * to avoid cross-directory counting errors.
      */
-    private long computeUsersNotReviewedIn90Days(List<DirectoryConnection> dirs, OffsetDateTime now) {
+    private long computeUsersNotReviewedIn90Days(List<DirectoryConnection> dirs,
+                                                 Map<UUID, DirectoryCountCache.Counts> counts,
+                                                 OffsetDateTime now) {
         OffsetDateTime ninetyDaysAgo = now.minusDays(90);
         long totalUnreviewed = 0;
 
@@ -205,12 +177,8 @@ public class DashboardService {
             if (!dc.isEnabled()) continue;
 
             // Get user count for this specific directory
-            long dirUserCount = 0;
-            try {
-                dirUserCount = userService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1").size();
-            } catch (Exception e) {
-                continue; // skip directories we can't query
-            }
+            long dirUserCount = counts.get(dc.getId()).users();
+            if (dirUserCount < 0) continue; // skip directories we can't query
 
             try {
                 long reviewed = decisionRepo.countDistinctReviewedUsersSince(dc.getId(), ninetyDaysAgo);
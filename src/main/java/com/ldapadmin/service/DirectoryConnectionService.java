@@ -1,5 +1,6 @@
 package com.ldapadmin.service;
 
+import com.ldapadmin.auth.PermissionsChangedEvent;
 import com.ldapadmin.dto.directory.DirectoryConnectionRequest;
 import com.ldapadmin.dto.directory.DirectoryConnectionResponse;
 import com.ldapadmin.dto.directory.TestConnectionRequest;
@@ -26,6 +27,7 @@ import com.unboundid.util.ssl.SSLUtil;
 import com.unboundid.util.ssl.TrustAllTrustManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,6 +54,8 @@ public class DirectoryConnectionService {
     private final EncryptionService              encryptionService;
     private final LdapConnectionFactory          connectionFactory;
     private final AlertService                   alertService;
+    private final ApplicationEventPublisher      eventPublisher;
+    private final DirectoryCountCache            countCache;
 
     // ── CRUD ──────────────────────────────────────────────────────────────────
 
@@ -94,6 +98,7 @@ public class DirectoryConnectionService {
         }
 
         connectionFactory.evict(dc.getId());
+        countCache.invalidate(dc.getId());
         dc = dirRepo.save(dc);
         saveBaseDns(dc, req);
         return toResponse(dc);
@@ -103,7 +108,9 @@ public class DirectoryConnectionService {
     public void deleteDirectory(UUID id) {
         DirectoryConnection dc = require(id);
         connectionFactory.evict(dc.getId());
+        countCache.invalidate(dc.getId());
         dirRepo.delete(dc);
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAllAdmins());
     }
 
     public void evictPool(UUID id) {
@@ -160,6 +167,7 @@ public class DirectoryConnectionService {
         dc.setSecondaryHost(req.secondaryHost());
         dc.setSecondaryPort(req.secondaryPort());
         dc.setGlobalCatalogPort(req.globalCatalogPort());
+        dc.setLocalReplicaEnabled(req.localReplicaEnabled());
         dc.setSelfServiceEnabled(req.selfServiceEnabled());
         dc.setSelfServiceLoginAttribute(
                 req.selfServiceLoginAttribute() != null && !req.selfServiceLoginAttribute().isBlank()
@@ -0,0 +1,208 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.config.ExecutorConfig;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.ldap.DirectoryReplicaService;
+import com.ldapadmin.ldap.LdapGroupService;
+import com.ldapadmin.ldap.LdapUserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * User and group counts per directory for the dashboards, shared by every
+ * admin who can see the directory.
+ *
+ * <p>Counting means listing up to {@code MAX_COUNT} DNs, so each directory
+ * is counted at most once per {@code ldapadmin.dashboard.count-ttl-seconds}
+ * however many dashboards are open.  Once a directory has been counted,
+ * readers always get the cached figures straight away; a stale entry is
+ * recounted in the background and replaced when done.  Only the first read
+ * waits, and directories read together are counted in parallel on the
+ * {@link ExecutorConfig#COUNT_EXECUTOR directory count executor}.  Concurrent
+ * reads of a directory share one count.</p>
+ */
+@Component
+@Slf4j
+public class DirectoryCountCache {
+
+    /** User-class filter portable across OpenLDAP and AD. */
+    private static final String USER_OBJECTCLASS_FILTER =
+            "(|(objectClass=inetOrgPerson)(&(objectClass=user)(!(objectClass=computer))))";
+
+    private static final String GROUP_OBJECTCLASS_FILTER =
+            "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group)(objectClass=groupOfURLs))";
+
+    /** Maximum entries to load for counting. */
+    private static final int MAX_COUNT = 100_000;
+
+    /**
+     * A directory's counts; {@code -1} where the directory could not be
+     * searched.  Disabled directories count as zero.
+     */
+    public record Counts(long users, long groups) {
+        static final Counts NONE = new Counts(0, 0);
+    }
+
+    private record Entry(Counts counts, long loadedAt) {}
+
+    private final LdapUserService         userService;
+    private final LdapGroupService        groupService;
+    private final DirectoryReplicaService replicaService;
+    private final long                    ttlMs;
+    private final Executor                executor;
+
+    private final Map<UUID, Entry>                     entries = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Counts>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by {@link #invalidate}; a count stores its figures only if the
+     * generation it started in is still current.  Updated with
+     * {@code compute}, which also guards that check-and-store.
+     */
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    public DirectoryCountCache(LdapUserService userService,
+                               LdapGroupService groupService,
+                               DirectoryReplicaService replicaService,
+                               @Value("${ldapadmin.dashboard.count-ttl-seconds:60}") long ttlSeconds,
+                               @Qualifier(ExecutorConfig.COUNT_EXECUTOR) Executor executor) {
+        this.userService    = userService;
+        this.groupService   = groupService;
+        this.replicaService = replicaService;
+        this.ttlMs          = Math.max(0, ttlSeconds) * 1000;
+        this.executor       = executor;
+    }
+
+    /** Counts for one directory; see {@link #getAll}. */
+    public Counts get(DirectoryConnection dc) {
+        return getAll(List.of(dc)).get(dc.getId());
+    }
+
+    /**
+     * Counts for each of {@code dirs}, keyed by directory id.  Directories
+     * never counted before are counted now, in parallel; the others are
+     * answered from the cache and refreshed in the background when stale.
+     */
+    public Map<UUID, Counts> getAll(Collection<DirectoryConnection> dirs) {
+        long now = System.currentTimeMillis();
+        Map<UUID, Counts> result = new HashMap<>();
+        Map<UUID, CompletableFuture<Counts>> pending = new HashMap<>();
+        for (DirectoryConnection dc : dirs) {
+            if (!dc.isEnabled()) {
+                result.put(dc.getId(), Counts.NONE);
+                continue;
+            }
+            Entry entry = entries.get(dc.getId());
+            if (entry == null) {
+                pending.put(dc.getId(), refresh(dc));
+                continue;
+            }
+            if (now - entry.loadedAt() >= ttlMs) {
+                refresh(dc);
+            }
+            result.put(dc.getId(), entry.counts());
+        }
+        pending.forEach((id, future) -> result.put(id, future.join()));
+        return result;
+    }
+
+    /**
+     * Drops a directory's counts, e.g. after it was deleted or repointed.
+     * A count already running is not stored when it finishes, and the next
+     * read starts a fresh one.
+     */
+    public void invalidate(UUID directoryId) {
+        generations.compute(directoryId, (id, generation) -> {
+            entries.remove(id);
+            loading.remove(id);
+            return generation == null ? 1 : generation + 1;
+        });
+    }
+
+    /** Starts counting {@code dc} unless a count is already running, and returns that count. */
+    private CompletableFuture<Counts> refresh(DirectoryConnection dc) {
+        CompletableFuture<Counts> created = new CompletableFuture<>();
+        CompletableFuture<Counts> running = loading.putIfAbsent(dc.getId(), created);
+        if (running != null) {
+            return running;
+        }
+        long generation = generations.getOrDefault(dc.getId(), 0L);
+        try {
+            executor.execute(() -> {
+                // Unregistered before completing, so a reader woken by it can start the next count
+                try {
+                    Counts counts = count(dc);
+                    store(dc.getId(), generation, counts);
+                    loading.remove(dc.getId(), created);
+                    created.complete(counts);
+                } catch (RuntimeException e) {
+                    loading.remove(dc.getId(), created);
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Shutting down; count on the caller's thread instead
+            loading.remove(dc.getId(), created);
+            created.complete(count(dc));
+        }
+        return created;
+    }
+
+    /** Stores {@code counts} unless the directory was invalidated since {@code generation}. */
+    private void store(UUID directoryId, long generation, Counts counts) {
+        generations.compute(directoryId, (id, current) -> {
+            if ((current == null ? 0L : current) == generation) {
+                entries.put(id, new Entry(counts, System.currentTimeMillis()));
+            } else {
+                log.debug("Discarding superseded counts for directory {}", id);
+            }
+            return current;
+        });
+    }
+
+    private Counts count(DirectoryConnection dc) {
+        long users;
+        long groups;
+        try {
+            users = countUsers(dc);
+            if (users >= MAX_COUNT) {
+                log.warn("User count for '{}' hit the {} limit — actual count may be higher",
+                        dc.getDisplayName(), MAX_COUNT);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to count users for directory {}: {}", dc.getDisplayName(), e.getMessage());
+            users = -1;
+        }
+        try {
+            groups = countGroups(dc);
+        } catch (Exception e) {
+            log.warn("Failed to count groups for directory {}: {}", dc.getDisplayName(), e.getMessage());
+            groups = -1;
+        }
+        return new Counts(users, groups);
+    }
+
+    /** Counts up to {@code MAX_COUNT} users, from the local replica when it is fresh. */
+    private long countUsers(DirectoryConnection dc) {
+        return replicaService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1")
+                .orElseGet(() -> userService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1"))
+                .size();
+    }
+
+    private long countGroups(DirectoryConnection dc) {
+        return replicaService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1")
+                .orElseGet(() -> groupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER, null, MAX_COUNT, "1.1"))
+                .size();
+    }
+}
@@ -2,6 +2,7 @@ package com.ldapadmin.service;
 
 import com.ldapadmin.dto.discovery.CommitDiscoveryRequest;
 import com.ldapadmin.dto.discovery.CommitDiscoveryResponse;
+import com.ldapadmin.dto.discovery.CrawlPosition;
 import com.ldapadmin.dto.discovery.DiscoveryProposalResponse;
 import com.ldapadmin.dto.discovery.DiscoveryProposalResponse.*;
 import com.ldapadmin.dto.discovery.DiscoveryRequest;
@@ -10,7 +11,7 @@ import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.DirectoryGroupBaseDn;
 import com.ldapadmin.entity.DirectoryUserBaseDn;
 import com.ldapadmin.entity.ProvisioningProfile;
-import com.ldapadmin.ldap.LdapBrowseService;
+import com.ldapadmin.ldap.DitCrawler;
 import com.ldapadmin.ldap.LdapBrowseService.SearchEntry;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapSchemaService;
@@ -21,19 +22,25 @@ import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.repository.DirectoryGroupBaseDnRepository;
 import com.ldapadmin.repository.DirectoryUserBaseDnRepository;
 import com.ldapadmin.repository.ProvisioningProfileRepository;
-import com.unboundid.ldap.sdk.SearchScope;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Read-only scanning of an existing LDAP directory to propose provisioning
  * profiles, attribute configs, base DNs, and group assignments.
+ *
+ * <p>User OUs are found by a parallel {@link DitCrawler}, and each is turned
+ * into a proposed profile as soon as it is found.  The crawl has a time
+ * budget.  Containers it did not reach are returned so a later scan can
+ * resume from them.</p>
  */
 @Service
 @Slf4j
@@ -44,7 +51,7 @@ public class DirectoryDiscoveryService {
     private final ProvisioningProfileRepository profileRepo;
     private final DirectoryUserBaseDnRepository userBaseDnRepo;
     private final DirectoryGroupBaseDnRepository groupBaseDnRepo;
-    private final LdapBrowseService browseService;
+    private final DitCrawler crawler;
     private final LdapSchemaService schemaService;
     private final LdapGroupService groupService;
     private final ProvisioningProfileService profileService;
@@ -62,6 +69,12 @@ public class DirectoryDiscoveryService {
     private static final String OU_FILTER =
             "(|(objectClass=organizationalUnit)(objectClass=container)(objectClass=organization))";
 
+    /** OUs are not descended into more than this many levels below the root. */
+    private static final int MAX_DEPTH = 10;
+
+    /** Users per OU are counted up to this many. */
+    private static final int USER_COUNT_LIMIT = 1001;
+
     // ── Syntax OID → InputType mapping ───────────────────────────────────
 
     private static final Map<String, String> SYNTAX_INPUT_TYPE_MAP = Map.ofEntries(
@@ -101,66 +114,99 @@ public class DirectoryDiscoveryService {
     // ══════════════════════════════════════════════════════════════════════
 
     public DiscoveryProposalResponse discover(UUID directoryId, DiscoveryRequest request) {
+        List<ProposedProfile> profiles = new ArrayList<>();
+        DiscoveryProposalResponse result = discover(directoryId, request, profiles::add);
+        profiles.sort(Comparator.comparing(ProposedProfile::targetOuDn, String.CASE_INSENSITIVE_ORDER));
+        return new DiscoveryProposalResponse(directoryId, profiles, result.groupOUs(), result.groups(),
+                result.warnings(), result.resumeFrom());
+    }
+
+    /**
+     * Runs a scan, passing each proposed profile to {@code sink} as its OU
+     * is found, and returns the rest of the proposal with no profiles.
+     * Calls to {@code sink} are serialised but come from crawler threads.
+     */
+    public DiscoveryProposalResponse discover(UUID directoryId, DiscoveryRequest request,
+                                              Consumer<ProposedProfile> sink) {
         DirectoryConnection dc = dirRepo.findById(directoryId)
                 .orElseThrow(() -> new EntityNotFoundException("Directory not found"));
 
         String rootDn = request.rootDn() != null ? request.rootDn() : dc.getBaseDn();
         int sampleSize = request.effectiveSampleSize();
-        List<String> warnings = new ArrayList<>();
+        List<String> warnings = Collections.synchronizedList(new ArrayList<>());
 
-        // Step 1 — Discover user OUs
-        List<DiscoveredOU> userOUs = discoverUserOUs(dc, rootDn, sampleSize, warnings);
-
-        if (userOUs.isEmpty()) {
-            warnings.add("No user entries found under " + rootDn +
-                    ". Check the base DN configuration or try a different root DN.");
-        }
-
-        if (userOUs.size() > 50) {
-            warnings.add("Large directory detected (" + userOUs.size() +
-                    " OUs) — consider narrowing the root DN for more targeted discovery.");
-        }
-
-        // Step 2 — Discover groups
+        // Step 1 — Discover groups first, so each OU can be cross-referenced as it is found
         List<DiscoveredGroupOU> groupOUs = new ArrayList<>();
         List<DiscoveredGroup> groups = new ArrayList<>();
+        Map<String, List<String>> groupMembers = new HashMap<>();
         if (request.effectiveIncludeGroups()) {
-            discoverGroups(dc, rootDn, groupOUs, groups, warnings);
+            discoverGroups(dc, rootDn, groupOUs, groups, groupMembers, warnings);
         }
 
-        // Step 3 — Check which OUs already have profiles
+        // Step 2 — Check which OUs already have profiles
         List<ProvisioningProfile> existingProfiles =
                 profileRepo.findAllByDirectoryIdOrderByNameAsc(directoryId);
         Set<String> existingOuDns = existingProfiles.stream()
                 .map(p -> p.getTargetOuDn().toLowerCase(Locale.ROOT))
                 .collect(Collectors.toSet());
 
-        // Step 4 — Build proposed profiles with attribute configs
-        List<ProposedProfile> profiles = new ArrayList<>();
-        for (DiscoveredOU ou : userOUs) {
-            boolean alreadyConfigured = existingOuDns.contains(ou.dn().toLowerCase(Locale.ROOT));
+        // Step 3 — Crawl for user OUs, proposing a profile for each as it is found
+        List<CrawlPosition> start = request.isResume()
+                ? request.resumeFrom() : List.of(new CrawlPosition(rootDn, 0));
+        DitCrawler.Options options = new DitCrawler.Options(PERSON_FILTER, OU_FILTER, sampleSize,
+                USER_COUNT_LIMIT, MAX_DEPTH, Duration.ofSeconds(request.effectiveTimeBudgetSeconds()));
+        int[] found = {0};
+        DitCrawler.Result crawl = crawler.crawl(dc, start, options, container -> {
+            DiscoveredOU ou = toDiscoveredOU(container);
+            if (ou == null) return;
+            found[0]++;
+            sink.accept(propose(dc, ou, existingOuDns, groups, groupMembers,
+                    request.effectiveIncludeGroups(), warnings));
+        });
+        warnings.addAll(crawl.warnings());
+
+        if (found[0] == 0 && crawl.complete() && !request.isResume()) {
+            warnings.add("No user entries found under " + rootDn +
+                    ". Check the base DN configuration or try a different root DN.");
+        }
 
-            List<InferredAttributeConfig> attrConfigs = inferAttributeConfigs(
-                    dc, ou.objectClasses(), ou.populatedAttributes(), warnings);
+        if (found[0] > 50) {
+            warnings.add("Large directory detected (" + found[0] +
+                    " OUs) — consider narrowing the root DN for more targeted discovery.");
+        }
 
-            // Step 5 — Cross-reference groups with this OU
-            List<DiscoveredGroupLink> groupLinks = new ArrayList<>();
-            if (request.effectiveIncludeGroups() && ou.userCount() > 0) {
-                groupLinks = crossReferenceGroups(dc, groups, ou, sampleSize);
-            }
+        if (!crawl.complete()) {
+            warnings.add("Scan stopped after " + request.effectiveTimeBudgetSeconds() + " seconds with " +
+                    crawl.pending().size() + " OU(s) not yet scanned — resume the scan to continue.");
+        }
+
+        return new DiscoveryProposalResponse(directoryId, List.of(), groupOUs, groups,
+                List.copyOf(warnings), crawl.pending());
+    }
+
+    private ProposedProfile propose(DirectoryConnection dc, DiscoveredOU ou, Set<String> existingOuDns,
+                                    List<DiscoveredGroup> groups, Map<String, List<String>> groupMembers,
+                                    boolean includeGroups, List<String> warnings) {
+        boolean alreadyConfigured = existingOuDns.contains(ou.dn().toLowerCase(Locale.ROOT));
+
+        List<InferredAttributeConfig> attrConfigs = inferAttributeConfigs(
+                dc, ou.objectClasses(), ou.populatedAttributes(), warnings);
 
-            profiles.add(new ProposedProfile(
-                    ou.name(),
-                    ou.dn(),
-                    ou.objectClasses(),
-                    ou.rdnAttribute(),
-                    attrConfigs,
-                    groupLinks,
-                    ou.userCount(),
-                    alreadyConfigured));
+        // Cross-reference groups with this OU
+        List<DiscoveredGroupLink> groupLinks = new ArrayList<>();
+        if (includeGroups && ou.userCount() > 0) {
+            groupLinks = crossReferenceGroups(groups, groupMembers, ou);
         }
 
-        return new DiscoveryProposalResponse(directoryId, profiles, groupOUs, groups, warnings);
+        return new ProposedProfile(
+                ou.name(),
+                ou.dn(),
+                ou.objectClasses(),
+                ou.rdnAttribute(),
+                attrConfigs,
+                groupLinks,
+                ou.userCount(),
+                alreadyConfigured);
     }
 
     // ══════════════════════════════════════════════════════════════════════
@@ -254,87 +300,37 @@ public class DirectoryDiscoveryService {
             List<String> objectClasses, String rdnAttribute,
             Set<String> populatedAttributes) {}
 
-    private List<DiscoveredOU> discoverUserOUs(DirectoryConnection dc, String rootDn,
-                                                int sampleSize, List<String> warnings) {
-        List<DiscoveredOU> result = new ArrayList<>();
-        findUserOUsRecursive(dc, rootDn, sampleSize, result, warnings, 0);
-        return result;
-    }
-
-    private void findUserOUsRecursive(DirectoryConnection dc, String dn, int sampleSize,
-                                       List<DiscoveredOU> result, List<String> warnings, int depth) {
-        if (depth > 10) return; // safety limit
-
-        // Probe for person entries under this DN
-        try {
-            var users = browseService.searchEntries(dc, dn, SearchScope.ONE,
-                    PERSON_FILTER, List.of("1.1"), 1);
-            if (!users.isEmpty()) {
-                // This DN contains users — sample it
-                DiscoveredOU ou = sampleOU(dc, dn, sampleSize, warnings);
-                if (ou != null) result.add(ou);
-                return;
-            }
-        } catch (Exception e) {
-            log.debug("Probe failed for {}: {}", dn, e.getMessage());
-        }
-
-        // No users here — recurse into child OUs
-        try {
-            var children = browseService.searchEntries(dc, dn, SearchScope.ONE,
-                    OU_FILTER, List.of("1.1"), 200);
-            for (SearchEntry child : children) {
-                findUserOUsRecursive(dc, child.dn(), sampleSize, result, warnings, depth + 1);
-            }
-        } catch (Exception e) {
-            warnings.add("Failed to enumerate OUs under " + dn + ": " + e.getMessage());
+    private DiscoveredOU toDiscoveredOU(DitCrawler.UserContainer container) {
+        List<SearchEntry> samples = container.samples();
+        if (samples.isEmpty()) return null;
+        String dn = container.dn();
+
+        // Infer objectClasses from first sample
+        List<String> objectClasses = samples.get(0).attributes()
+                .getOrDefault("objectClass", samples.get(0).attributes()
+                .getOrDefault("objectclass", List.of()));
+        // Filter to structural/auxiliary classes (exclude 'top')
+        objectClasses = objectClasses.stream()
+                .filter(oc -> !"top".equalsIgnoreCase(oc))
+                .collect(Collectors.toList());
+
+        // Infer RDN attribute from sampled DNs
+        String rdnAttribute = inferRdnAttribute(samples);
+
+        // Collect populated attribute names across all samples
+        Set<String> populatedAttrs = new HashSet<>();
+        for (SearchEntry entry : samples) {
+            populatedAttrs.addAll(entry.attributes().keySet());
         }
-    }
-
-    private DiscoveredOU sampleOU(DirectoryConnection dc, String dn, int sampleSize,
-                                   List<String> warnings) {
-        try {
-            // Count users (capped at 1001)
-            var countEntries = browseService.searchEntries(dc, dn, SearchScope.ONE,
-                    PERSON_FILTER, List.of("1.1"), 1001);
-            int userCount = countEntries.size();
-
-            // Sample entries for attribute analysis
-            var samples = browseService.searchEntries(dc, dn, SearchScope.ONE,
-                    PERSON_FILTER, List.of("*"), sampleSize);
-
-            if (samples.isEmpty()) return null;
-
-            // Infer objectClasses from first sample
-            List<String> objectClasses = samples.get(0).attributes()
-                    .getOrDefault("objectClass", samples.get(0).attributes()
-                    .getOrDefault("objectclass", List.of()));
-            // Filter to structural/auxiliary classes (exclude 'top')
-            objectClasses = objectClasses.stream()
-                    .filter(oc -> !"top".equalsIgnoreCase(oc))
-                    .collect(Collectors.toList());
-
-            // Infer RDN attribute from sampled DNs
-            String rdnAttribute = inferRdnAttribute(samples);
-
-            // Collect populated attribute names across all samples
-            Set<String> populatedAttrs = new HashSet<>();
-            for (SearchEntry entry : samples) {
-                populatedAttrs.addAll(entry.attributes().keySet());
-            }
-            // Normalize to lowercase
-            populatedAttrs = populatedAttrs.stream()
-                    .map(a -> a.toLowerCase(Locale.ROOT))
-                    .collect(Collectors.toSet());
+        // Normalize to lowercase
+        populatedAttrs = populatedAttrs.stream()
+                .map(a -> a.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
 
-            // Parse OU name from DN
-            String name = parseRdnValue(dn);
+        // Parse OU name from DN
+        String name = parseRdnValue(dn);
 
-            return new DiscoveredOU(dn, name, userCount, objectClasses, rdnAttribute, populatedAttrs);
-        } catch (Exception e) {
-            warnings.add("Failed to sample OU " + dn + ": " + e.getMessage());
-            return null;
-        }
+        return new DiscoveredOU(dn, name, container.userCount(), objectClasses, rdnAttribute, populatedAttrs);
     }
 
     private String inferRdnAttribute(List<SearchEntry> samples) {
@@ -367,6 +363,7 @@ public class DirectoryDiscoveryService {
     private void discoverGroups(DirectoryConnection dc, String rootDn,
                                  List<DiscoveredGroupOU> groupOUs,
                                  List<DiscoveredGroup> groups,
+                                 Map<String, List<String>> groupMembers,
                                  List<String> warnings) {
         try {
             List<LdapGroup> ldapGroups = groupService.searchGroups(dc, GROUP_FILTER, rootDn,
@@ -390,6 +387,11 @@ public class DirectoryDiscoveryService {
             for (LdapGroup g : ldapGroups) {
                 String memberAttr = detectMemberAttribute(g);
                 int memberCount = g.getAllMembers().size();
+                groupMembers.put(g.getDn(), switch (memberAttr) {
+                    case "uniqueMember" -> g.getUniqueMember();
+                    case "memberUid" -> g.getMemberUid();
+                    default -> g.getMember();
+                });
                 groups.add(new DiscoveredGroup(
                         g.getDn(),
                         g.getCn(),
@@ -511,9 +513,9 @@ public class DirectoryDiscoveryService {
     //  Private — Group cross-referencing
     // ══════════════════════════════════════════════════════════════════════
 
+    /** Uses the member lists already read by {@link #discoverGroups}, so costs no searches. */
     private List<DiscoveredGroupLink> crossReferenceGroups(
-            DirectoryConnection dc, List<DiscoveredGroup> groups,
-            DiscoveredOU ou, int sampleLimit) {
+            List<DiscoveredGroup> groups, Map<String, List<String>> groupMembers, DiscoveredOU ou) {
 
         List<DiscoveredGroupLink> links = new ArrayList<>();
         String ouDnLower = ou.dn().toLowerCase(Locale.ROOT);
@@ -523,7 +525,7 @@ public class DirectoryDiscoveryService {
 
             try {
                 // Sample members (up to 50)
-                List<String> members = groupService.getMembers(dc, group.dn(), group.memberAttribute());
+                List<String> members = groupMembers.getOrDefault(group.dn(), List.of());
                 int limit = Math.min(members.size(), 50);
                 List<String> sampled = members.subList(0, limit);
 
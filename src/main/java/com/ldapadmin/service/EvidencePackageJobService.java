@@ -0,0 +1,258 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.config.ExecutorConfig;
+import com.ldapadmin.dto.evidence.EvidencePackageJobDto;
+import com.ldapadmin.dto.evidence.EvidencePackageRequest;
+import com.ldapadmin.exception.ConflictException;
+import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs evidence package builds in the background so large packages neither
+ * block a request thread nor have to fit in memory.
+ *
+ * <p>The ZIP is streamed to a temporary file (downloaded later by the owner)
+ * or, when requested and configured, straight into a multipart S3 upload.
+ * Callers poll {@link #get} for artifact and byte progress.  Each user may
+ * have one running job at a time; finished jobs and their files are purged
+ * after {@code ldapadmin.evidence.job-retention-hours}.  Job state is held in
+ * memory, so a restart drops it.</p>
+ */
+@Service
+@Slf4j
+public class EvidencePackageJobService {
+
+    private final EvidencePackageService evidencePackageService;
+    private final S3UploadService        s3UploadService;
+    private final Executor               executor;
+
+    @Value("${ldapadmin.evidence.output-dir:}")
+    private String outputDir;
+
+    @Value("${ldapadmin.evidence.job-retention-hours:24}")
+    private long retentionHours;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    public EvidencePackageJobService(EvidencePackageService evidencePackageService,
+                                     S3UploadService s3UploadService,
+                                     @Qualifier(ExecutorConfig.JOB_EXECUTOR) Executor executor) {
+        this.evidencePackageService = evidencePackageService;
+        this.s3UploadService        = s3UploadService;
+        this.executor               = executor;
+    }
+
+    enum Status { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Starts a build and returns immediately.
+     *
+     * @throws TooManyRequestsException if the user already has a running job, or
+     *                                  the job executor is saturated
+     * @throws ConflictException        if S3 upload was requested but S3 is not configured
+     */
+    public EvidencePackageJobDto start(UUID directoryId, UUID ownerId, String ownerName,
+                                       EvidencePackageRequest request) {
+        if (request.uploadToS3() && !s3UploadService.isConfigured()) {
+            throw new ConflictException("S3 storage is not configured");
+        }
+        Job job = new Job(UUID.randomUUID(), directoryId, ownerId);
+        synchronized (jobs) {
+            boolean busy = jobs.values().stream()
+                    .anyMatch(j -> j.ownerId.equals(ownerId) && j.status == Status.RUNNING);
+            if (busy) {
+                throw new TooManyRequestsException("An evidence package is already being generated");
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> run(job, ownerName, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new TooManyRequestsException("Too many background jobs are running; try again later");
+        }
+        return job.toDto();
+    }
+
+    /** Returns the job if it exists and belongs to {@code ownerId}. */
+    public EvidencePackageJobDto get(UUID directoryId, UUID jobId, UUID ownerId) {
+        return find(directoryId, jobId, ownerId).toDto();
+    }
+
+    /**
+     * Returns the finished ZIP file for download.
+     *
+     * @throws ConflictException if the job is still running, failed, or was delivered to S3
+     */
+    public Path download(UUID directoryId, UUID jobId, UUID ownerId) {
+        Job job = find(directoryId, jobId, ownerId);
+        if (job.status != Status.COMPLETED || job.file == null) {
+            throw new ConflictException("Evidence package is not available for download");
+        }
+        return job.file;
+    }
+
+    /** File name offered to the browser for a downloaded package. */
+    public static String fileName(EvidencePackageJobDto job) {
+        return "evidence-package-"
+                + job.startedAt().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".zip";
+    }
+
+    @Scheduled(fixedDelayString = "${ldapadmin.evidence.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> {
+            if (job.status == Status.RUNNING || job.completedAt == null
+                    || job.completedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(job.file);
+            return true;
+        });
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private void run(Job job, String ownerName, EvidencePackageRequest request) {
+        S3UploadService.Upload upload = null;
+        OutputStream sink = null;
+        Path file = null;
+        try {
+            if (request.uploadToS3()) {
+                job.s3Key = "evidence-packages/" + job.directoryId + "/" + job.id + ".zip";
+                upload = s3UploadService.openUpload(job.s3Key, "application/zip");
+                sink = upload;
+            } else {
+                file = createOutputFile(job.id);
+                sink = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+            }
+            evidencePackageService.generateEvidencePackage(job.directoryId, request.campaignIds(),
+                    request.includeSod(), request.includeEntitlements(), request.includeAuditEvents(),
+                    ownerName, new CountingOutputStream(sink, job.bytesWritten),
+                    (completed, total) -> {
+                        job.artifactsCompleted.set(completed);
+                        job.artifactsTotal.set(total);
+                    });
+            // Closing an S3 upload completes it, so only close once the ZIP is whole
+            sink.close();
+            job.file = file;
+            job.completedAt = OffsetDateTime.now();
+            job.status = Status.COMPLETED;
+            log.info("Evidence package job {} completed ({} bytes)", job.id, job.bytesWritten.get());
+        } catch (Exception e) {
+            if (upload != null) {
+                upload.abort();
+            } else if (sink != null) {
+                closeQuietly(sink);
+            }
+            deleteQuietly(file);
+            job.error = e.getMessage();
+            job.completedAt = OffsetDateTime.now();
+            job.status = Status.FAILED;
+            log.error("Evidence package job {} failed: {}", job.id, e.getMessage(), e);
+        }
+    }
+
+    private Path createOutputFile(UUID jobId) throws IOException {
+        if (outputDir == null || outputDir.isBlank()) {
+            return Files.createTempFile("evidence-package-" + jobId, ".zip");
+        }
+        Path dir = Files.createDirectories(Path.of(outputDir));
+        return Files.createFile(dir.resolve("evidence-package-" + jobId + ".zip"));
+    }
+
+    private Job find(UUID directoryId, UUID jobId, UUID ownerId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerId.equals(ownerId) || !job.directoryId.equals(directoryId)) {
+            throw new ResourceNotFoundException("EvidencePackageJob", jobId);
+        }
+        return job;
+    }
+
+    private static void closeQuietly(OutputStream out) {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // the file is deleted anyway
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete evidence package file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class Job {
+        final UUID           id;
+        final UUID           directoryId;
+        final UUID           ownerId;
+        final OffsetDateTime startedAt = OffsetDateTime.now();
+        final AtomicInteger  artifactsCompleted = new AtomicInteger();
+        final AtomicInteger  artifactsTotal = new AtomicInteger();
+        final AtomicLong     bytesWritten = new AtomicLong();
+        volatile Status         status = Status.RUNNING;
+        volatile Path           file;
+        volatile String         s3Key;
+        volatile String         error;
+        volatile OffsetDateTime completedAt;
+
+        Job(UUID id, UUID directoryId, UUID ownerId) {
+            this.id = id;
+            this.directoryId = directoryId;
+            this.ownerId = ownerId;
+        }
+
+        EvidencePackageJobDto toDto() {
+            return new EvidencePackageJobDto(id, directoryId, status.name(),
+                    artifactsCompleted.get(), artifactsTotal.get(), bytesWritten.get(),
+                    s3Key, error, startedAt, completedAt);
+        }
+    }
+
+    /** Tallies bytes into the job's progress counter as they are written. */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
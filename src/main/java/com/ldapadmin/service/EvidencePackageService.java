@@ -1,25 +1,43 @@
 package com.ldapadmin.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.dto.audit.AuditEventResponse;
 import com.ldapadmin.entity.*;
 import com.ldapadmin.entity.enums.AuditAction;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapUserService;
 import com.ldapadmin.ldap.model.LdapGroup;
 import com.ldapadmin.ldap.model.LdapUser;
 import com.ldapadmin.repository.*;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -29,9 +47,15 @@ import java.util.zip.ZipOutputStream;
  *
  * <p>The manifest includes SHA-256 checksums for each file and is signed with
  * HMAC-SHA256 using the application's encryption key for tamper evidence.</p>
+ *
+ * <p>Artifacts are independent, so they are generated in parallel on the
+ * {@link ExecutorConfig#EVIDENCE_EXECUTOR evidence executor}, each in its own
+ * read-only transaction.  Every artifact is streamed to a temporary spool file through
+ * a digest stream, then copied into the ZIP in a fixed order; the manifest is
+ * built from those running digests.  Heap use is therefore independent of
+ * package size.</p>
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EvidencePackageService {
 
@@ -45,11 +69,14 @@ public class EvidencePackageService {
     private final PdfReportService pdfReportService;
     private final LdapUserService ldapUserService;
     private final LdapGroupService ldapGroupService;
+    private final DirectoryReplicaService replicaService;
     private final CryptoService cryptoService;
     private final AccountRepository accountRepo;
     private final AuditQueryService auditQueryService;
     private final AuditService auditService;
     private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final AsyncTaskExecutor artifactExecutor;
 
     private static final String USER_OBJECTCLASS_FILTER =
             "(|(objectClass=inetOrgPerson)(&(objectClass=user)(!(objectClass=computer))))";
@@ -60,77 +87,243 @@ public class EvidencePackageService {
     /** Maximum LDAP entries for entitlements export to prevent OOM. */
     private static final int MAX_ENTITLEMENT_ENTRIES = 50_000;
 
+    /** Maximum audit events exported (last 90 days, newest first). */
+    private static final int MAX_AUDIT_EVENTS = 10_000;
+    private static final int AUDIT_PAGE_SIZE  = 200;
+
+    public EvidencePackageService(DirectoryConnectionRepository directoryRepo,
+                                  AccessReviewCampaignRepository campaignRepo,
+                                  AccessReviewCampaignHistoryRepository historyRepo,
+                                  AccessReviewCampaignService campaignService,
+                                  SodPolicyRepository sodPolicyRepo,
+                                  SodViolationRepository sodViolationRepo,
+                                  PendingApprovalRepository approvalRepo,
+                                  PdfReportService pdfReportService,
+                                  LdapUserService ldapUserService,
+                                  LdapGroupService ldapGroupService,
+                                  DirectoryReplicaService replicaService,
+                                  CryptoService cryptoService,
+                                  AccountRepository accountRepo,
+                                  AuditQueryService auditQueryService,
+                                  AuditService auditService,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier(ExecutorConfig.EVIDENCE_EXECUTOR) AsyncTaskExecutor artifactExecutor) {
+        this.directoryRepo      = directoryRepo;
+        this.campaignRepo       = campaignRepo;
+        this.historyRepo        = historyRepo;
+        this.campaignService    = campaignService;
+        this.sodPolicyRepo      = sodPolicyRepo;
+        this.sodViolationRepo   = sodViolationRepo;
+        this.approvalRepo       = approvalRepo;
+        this.pdfReportService   = pdfReportService;
+        this.ldapUserService    = ldapUserService;
+        this.ldapGroupService   = ldapGroupService;
+        this.replicaService     = replicaService;
+        this.cryptoService      = cryptoService;
+        this.accountRepo        = accountRepo;
+        this.auditQueryService  = auditQueryService;
+        this.auditService       = auditService;
+        this.objectMapper       = objectMapper;
+        this.transactionManager = transactionManager;
+        this.artifactExecutor   = artifactExecutor;
+    }
+
+    /** Receives progress as artifacts finish generating. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        ProgressListener NONE = (completed, total) -> { };
+
+        void onArtifactCompleted(int completed, int total);
+    }
+
+    /** Writes one artifact's content. */
+    @FunctionalInterface
+    interface ArtifactWriter {
+        void write(OutputStream out) throws Exception;
+    }
+
+    /** A file to be generated: ZIP path, what to log on failure, and how to write it. */
+    record ArtifactTask(String path, String description, ArtifactWriter writer) {}
+
+    /** A generated artifact spooled to disk, with its running digest. */
+    record SpooledArtifact(String path, Path spool, String sha256, long size) {}
+
+    /** Manifest line for one file. */
+    record ManifestEntry(String path, String sha256, long size) {}
+
     /**
      * Generates a complete evidence package as a ZIP byte array.
      */
-    @Transactional(readOnly = true)
     public byte[] generateEvidencePackage(UUID directoryId, List<UUID> campaignIds,
                                           boolean includeSod, boolean includeEntitlements,
                                           boolean includeAuditEvents,
                                           String generatedBy) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        generateEvidencePackage(directoryId, campaignIds, includeSod, includeEntitlements,
+                includeAuditEvents, generatedBy, baos, ProgressListener.NONE);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Generates a complete evidence package and writes the ZIP to {@code out}
+     * (a file, an {@link S3UploadService.Upload}, or a response stream).
+     * The caller owns {@code out}; it is finished but not closed.
+     */
+    public void generateEvidencePackage(UUID directoryId, List<UUID> campaignIds,
+                                        boolean includeSod, boolean includeEntitlements,
+                                        boolean includeAuditEvents,
+                                        String generatedBy, OutputStream out,
+                                        ProgressListener progress) throws IOException {
         DirectoryConnection dc = directoryRepo.findById(directoryId)
                 .orElseThrow(() -> new IllegalArgumentException("Directory not found: " + directoryId));
 
         OffsetDateTime generatedAt = OffsetDateTime.now();
-        Map<String, byte[]> files = new LinkedHashMap<>();
+        List<ArtifactTask> tasks = new ArrayList<>();
 
         // ── Standard PDF reports ────────────────────────────────────────────
-        addPdfReports(files, directoryId);
+        addPdfReports(tasks, directoryId);
 
         // ── Campaign-specific data ──────────────────────────────────────────
-        addCampaignData(files, directoryId, campaignIds);
+        addCampaignData(tasks, directoryId, campaignIds);
 
         // ── SoD data (optional) ─────────────────────────────────────────────
         if (includeSod) {
-            addSodData(files, directoryId);
+            addSodData(tasks, directoryId);
         }
 
         // ── Approval history ────────────────────────────────────────────────
-        addApprovalHistory(files, directoryId);
+        addApprovalHistory(tasks, directoryId);
 
         // ── Audit events (optional) ─────────────────────────────────────────
         if (includeAuditEvents) {
-            addAuditEvents(files, directoryId);
+            addAuditEvents(tasks, directoryId);
         }
 
         // ── User entitlements (optional) ────────────────────────────────────
         if (includeEntitlements) {
-            addUserEntitlements(files, dc);
+            addUserEntitlements(tasks, dc);
         }
 
+        // ── Generate in parallel, append to the ZIP in plan order ───────────
+        List<ManifestEntry> entries = new ArrayList<>(tasks.size());
+        ZipOutputStream zos = new ZipOutputStream(out);
+        generateInto(zos, tasks, entries, progress);
+
         // ── Build manifest with checksums ───────────────────────────────────
-        byte[] manifest = buildManifest(files, directoryId, dc.getDisplayName(),
+        byte[] manifest = buildManifestFromEntries(entries, directoryId, dc.getDisplayName(),
                 generatedAt, generatedBy, campaignIds, includeSod, includeEntitlements);
-        files.put("manifest.json", manifest);
+        zos.putNextEntry(new ZipEntry("manifest.json"));
+        zos.write(manifest);
+        zos.closeEntry();
+        // finish() writes the central directory without closing the caller's stream
+        zos.finish();
+        zos.flush();
 
         // ── Record audit event ──────────────────────────────────────────────
         recordGenerationAudit(directoryId, generatedBy, campaignIds, includeSod, includeEntitlements);
-
-        // ── Package into ZIP ────────────────────────────────────────────────
-        return buildZip(files);
     }
 
-    // ── PDF reports ───────────────────────────────────────────────────────────
+    // ── Parallel generation ───────────────────────────────────────────────────
 
-    private void addPdfReports(Map<String, byte[]> files, UUID directoryId) {
+    private void generateInto(ZipOutputStream zos, List<ArtifactTask> tasks,
+                              List<ManifestEntry> entries, ProgressListener progress) throws IOException {
+        if (tasks.isEmpty()) return;
+
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<SpooledArtifact>> futures = new ArrayList<>(tasks.size());
         try {
-            byte[] userAccessPdf = pdfReportService.generateUserAccessReport(directoryId, null);
-            files.put("reports/user-access-report.pdf", userAccessPdf);
-        } catch (Exception e) {
-            log.warn("Failed to generate user access report: {}", e.getMessage());
+            for (ArtifactTask task : tasks) {
+                futures.add(artifactExecutor.submit(() -> {
+                    SpooledArtifact a = spool(task);
+                    progress.onArtifactCompleted(completed.incrementAndGet(), tasks.size());
+                    return a;
+                }));
+            }
+            for (Future<SpooledArtifact> f : futures) {
+                SpooledArtifact artifact = await(f);
+                if (artifact == null) continue;
+                try {
+                    zos.putNextEntry(new ZipEntry(artifact.path()));
+                    Files.copy(artifact.spool(), zos);
+                    zos.closeEntry();
+                    entries.add(new ManifestEntry(artifact.path(), artifact.sha256(), artifact.size()));
+                } finally {
+                    Files.deleteIfExists(artifact.spool());
+                }
+            }
+        } finally {
+            // Stop artifacts still queued or running if the ZIP could not be written
+            futures.forEach(f -> f.cancel(true));
+            // Remove spools left behind if the ZIP could not be written
+            for (Future<SpooledArtifact> f : futures) {
+                if (f.isDone() && !f.isCancelled()) {
+                    try {
+                        SpooledArtifact a = f.get();
+                        if (a != null) Files.deleteIfExists(a.spool());
+                    } catch (Exception ignored) {
+                        // already reported
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one artifact writer into a temp file, hashing as it goes.  Returns
+     * {@code null} (after logging) if the writer fails, so one broken section
+     * does not sink the whole package.
+     */
+    SpooledArtifact spool(ArtifactTask task) throws IOException {
+        Path file = Files.createTempFile("evidence-", ".part");
+        MessageDigest digest = newSha256();
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            tx.executeWithoutResult(status -> {
+                try (OutputStream os = new DigestOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024), digest)) {
+                    task.writer().write(os);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+            return new SpooledArtifact(task.path(), file, HexFormat.of().formatHex(digest.digest()),
+                    Files.size(file));
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(file);
+            log.warn("Failed to generate {}: {}", task.description(), e.getMessage());
+            return null;
         }
+    }
 
+    private static SpooledArtifact await(Future<SpooledArtifact> f) throws IOException {
         try {
-            byte[] privilegedPdf = pdfReportService.generatePrivilegedAccountInventory();
-            files.put("reports/privileged-account-inventory.pdf", privilegedPdf);
-        } catch (Exception e) {
-            log.warn("Failed to generate privileged account inventory: {}", e.getMessage());
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating evidence package");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException("Evidence artifact generation failed: " + cause.getMessage(), cause);
         }
     }
 
+    // ── PDF reports ───────────────────────────────────────────────────────────
+
+    private void addPdfReports(List<ArtifactTask> tasks, UUID directoryId) {
+        tasks.add(new ArtifactTask("reports/user-access-report.pdf", "user access report",
+                out -> pdfReportService.writeUserAccessReport(directoryId, null, out)));
+        tasks.add(new ArtifactTask("reports/privileged-account-inventory.pdf", "privileged account inventory",
+                out -> pdfReportService.writePrivilegedAccountInventory(out)));
+    }
+
     // ── Campaign data ─────────────────────────────────────────────────────────
 
-    private void addCampaignData(Map<String, byte[]> files, UUID directoryId, List<UUID> campaignIds) {
+    private void addCampaignData(List<ArtifactTask> tasks, UUID directoryId, List<UUID> campaignIds) {
         for (UUID campaignId : campaignIds) {
             Optional<AccessReviewCampaign> opt = campaignRepo.findById(campaignId);
             if (opt.isEmpty()) {
@@ -150,103 +343,81 @@ public class EvidencePackageService {
             String prefix = "campaigns/" + safeName + "/";
 
             // Access review summary PDF
-            try {
-                byte[] summaryPdf = pdfReportService.generateAccessReviewSummary(campaignId);
-                files.put(prefix + "access-review-summary.pdf", summaryPdf);
-            } catch (Exception e) {
-                log.warn("Failed to generate access review summary for campaign {}: {}",
-                        campaignId, e.getMessage());
-            }
+            tasks.add(new ArtifactTask(prefix + "access-review-summary.pdf",
+                    "access review summary for campaign " + campaignId,
+                    out -> pdfReportService.writeAccessReviewSummary(campaignId, out)));
 
             // Decisions CSV
-            try {
-                byte[] csv = campaignService.exportCsv(directoryId, campaignId);
-                files.put(prefix + "decisions.csv", csv);
-            } catch (Exception e) {
-                log.warn("Failed to export CSV for campaign {}: {}", campaignId, e.getMessage());
-            }
+            tasks.add(new ArtifactTask(prefix + "decisions.csv",
+                    "CSV for campaign " + campaignId,
+                    out -> out.write(campaignService.exportCsv(directoryId, campaignId))));
 
             // Campaign history CSV
-            try {
-                List<AccessReviewCampaignHistory> history =
-                        historyRepo.findByCampaignIdOrderByChangedAtAsc(campaignId);
-                StringBuilder csv = new StringBuilder("Old Status,New Status,Changed By,Changed At,Note\n");
-                for (AccessReviewCampaignHistory h : history) {
-                    csv.append(csvEscape(h.getOldStatus() != null ? h.getOldStatus().name() : "")).append(',');
-                    csv.append(csvEscape(h.getNewStatus() != null ? h.getNewStatus().name() : "")).append(',');
-                    csv.append(csvEscape(h.getChangedBy() != null ? h.getChangedBy().getUsername() : "")).append(',');
-                    csv.append(csvEscape(h.getChangedAt() != null ? h.getChangedAt().toString() : "")).append(',');
-                    csv.append(csvEscape(h.getNote() != null ? h.getNote() : "")).append('\n');
-                }
-                files.put(prefix + "history.csv", csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            } catch (Exception e) {
-                log.warn("Failed to export history for campaign {}: {}", campaignId, e.getMessage());
-            }
+            tasks.add(new ArtifactTask(prefix + "history.csv",
+                    "history for campaign " + campaignId,
+                    csv("Old Status,New Status,Changed By,Changed At,Note", w -> {
+                        for (AccessReviewCampaignHistory h :
+                                historyRepo.findByCampaignIdOrderByChangedAtAsc(campaignId)) {
+                            row(w, h.getOldStatus() != null ? h.getOldStatus().name() : "",
+                                    h.getNewStatus() != null ? h.getNewStatus().name() : "",
+                                    h.getChangedBy() != null ? h.getChangedBy().getUsername() : "",
+                                    h.getChangedAt() != null ? h.getChangedAt().toString() : "",
+                                    h.getNote() != null ? h.getNote() : "");
+                        }
+                    })));
         }
     }
 
     // ── SoD data ──────────────────────────────────────────────────────────────
 
-    private void addSodData(Map<String, byte[]> files, UUID directoryId) {
-        try {
-            List<SodPolicy> policies = sodPolicyRepo.findByDirectoryId(directoryId);
-            StringBuilder csv = new StringBuilder("Name,Description,Group A,Group B,Severity,Action,Enabled,Created By,Created At\n");
-            for (SodPolicy p : policies) {
-                csv.append(csvEscape(p.getName())).append(',');
-                csv.append(csvEscape(p.getDescription())).append(',');
-                csv.append(csvEscape(p.getGroupAName())).append(',');
-                csv.append(csvEscape(p.getGroupBName())).append(',');
-                csv.append(csvEscape(p.getSeverity() != null ? p.getSeverity().name() : "")).append(',');
-                csv.append(csvEscape(p.getAction() != null ? p.getAction().name() : "")).append(',');
-                csv.append(p.isEnabled()).append(',');
-                csv.append(csvEscape(p.getCreatedBy() != null ? p.getCreatedBy().getUsername() : "")).append(',');
-                csv.append(csvEscape(p.getCreatedAt() != null ? p.getCreatedAt().toString() : "")).append('\n');
-            }
-            files.put("sod/policies.csv", csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            log.warn("Failed to export SoD policies: {}", e.getMessage());
-        }
+    private void addSodData(List<ArtifactTask> tasks, UUID directoryId) {
+        tasks.add(new ArtifactTask("sod/policies.csv", "SoD policies",
+                csv("Name,Description,Group A,Group B,Severity,Action,Enabled,Created By,Created At", w -> {
+                    for (SodPolicy p : sodPolicyRepo.findByDirectoryId(directoryId)) {
+                        row(w, p.getName(),
+                                p.getDescription(),
+                                p.getGroupAName(),
+                                p.getGroupBName(),
+                                p.getSeverity() != null ? p.getSeverity().name() : "",
+                                p.getAction() != null ? p.getAction().name() : "",
+                                String.valueOf(p.isEnabled()),
+                                p.getCreatedBy() != null ? p.getCreatedBy().getUsername() : "",
+                                p.getCreatedAt() != null ? p.getCreatedAt().toString() : "");
+                    }
+                })));
 
         // Export ALL violations (OPEN, EXEMPTED, RESOLVED) for complete audit picture
-        try {
-            List<SodViolation> violations = sodViolationRepo.findByDirectoryId(directoryId);
-            StringBuilder csv = new StringBuilder("Policy,User DN,User Name,Status,Detected At,Resolved At,Exempted By,Exemption Reason\n");
-            for (SodViolation v : violations) {
-                csv.append(csvEscape(v.getPolicy() != null ? v.getPolicy().getName() : "")).append(',');
-                csv.append(csvEscape(v.getUserDn())).append(',');
-                csv.append(csvEscape(v.getUserDisplayName())).append(',');
-                csv.append(csvEscape(v.getStatus() != null ? v.getStatus().name() : "")).append(',');
-                csv.append(csvEscape(v.getDetectedAt() != null ? v.getDetectedAt().toString() : "")).append(',');
-                csv.append(csvEscape(v.getResolvedAt() != null ? v.getResolvedAt().toString() : "")).append(',');
-                csv.append(csvEscape(v.getExemptedBy() != null ? v.getExemptedBy().getUsername() : "")).append(',');
-                csv.append(csvEscape(v.getExemptionReason() != null ? v.getExemptionReason() : "")).append('\n');
-            }
-            files.put("sod/violations.csv", csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            log.warn("Failed to export SoD violations: {}", e.getMessage());
-        }
+        tasks.add(new ArtifactTask("sod/violations.csv", "SoD violations",
+                csv("Policy,User DN,User Name,Status,Detected At,Resolved At,Exempted By,Exemption Reason", w -> {
+                    for (SodViolation v : sodViolationRepo.findByDirectoryId(directoryId)) {
+                        row(w, v.getPolicy() != null ? v.getPolicy().getName() : "",
+                                v.getUserDn(),
+                                v.getUserDisplayName(),
+                                v.getStatus() != null ? v.getStatus().name() : "",
+                                v.getDetectedAt() != null ? v.getDetectedAt().toString() : "",
+                                v.getResolvedAt() != null ? v.getResolvedAt().toString() : "",
+                                v.getExemptedBy() != null ? v.getExemptedBy().getUsername() : "",
+                                v.getExemptionReason() != null ? v.getExemptionReason() : "");
+                    }
+                })));
     }
 
     // ── Approval history ──────────────────────────────────────────────────────
 
-    private void addApprovalHistory(Map<String, byte[]> files, UUID directoryId) {
-        try {
-            Map<UUID, String> accountNames = new HashMap<>();
-            List<PendingApproval> approvals = approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId);
-            StringBuilder csv = new StringBuilder("Request Type,Status,Requested By,Reviewed By,Created At,Reviewed At,Reject Reason\n");
-            for (PendingApproval a : approvals) {
-                csv.append(csvEscape(a.getRequestType() != null ? a.getRequestType().name() : "")).append(',');
-                csv.append(csvEscape(a.getStatus() != null ? a.getStatus().name() : "")).append(',');
-                csv.append(csvEscape(resolveAccountName(a.getRequestedBy(), accountNames))).append(',');
-                csv.append(csvEscape(resolveAccountName(a.getReviewedBy(), accountNames))).append(',');
-                csv.append(csvEscape(a.getCreatedAt() != null ? a.getCreatedAt().toString() : "")).append(',');
-                csv.append(csvEscape(a.getReviewedAt() != null ? a.getReviewedAt().toString() : "")).append(',');
-                csv.append(csvEscape(a.getRejectReason() != null ? a.getRejectReason() : "")).append('\n');
-            }
-            files.put("approval-history/approvals.csv", csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            log.warn("Failed to export approval history: {}", e.getMessage());
-        }
+    private void addApprovalHistory(List<ArtifactTask> tasks, UUID directoryId) {
+        tasks.add(new ArtifactTask("approval-history/approvals.csv", "approval history",
+                csv("Request Type,Status,Requested By,Reviewed By,Created At,Reviewed At,Reject Reason", w -> {
+                    Map<UUID, String> accountNames = new HashMap<>();
+                    for (PendingApproval a : approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)) {
+                        row(w, a.getRequestType() != null ? a.getRequestType().name() : "",
+                                a.getStatus() != null ? a.getStatus().name() : "",
+                                resolveAccountName(a.getRequestedBy(), accountNames),
+                                resolveAccountName(a.getReviewedBy(), accountNames),
+                                a.getCreatedAt() != null ? a.getCreatedAt().toString() : "",
+                                a.getReviewedAt() != null ? a.getReviewedAt().toString() : "",
+                                a.getRejectReason() != null ? a.getRejectReason() : "");
+                    }
+                })));
     }
 
     private String resolveAccountName(UUID accountId, Map<UUID, String> cache) {
@@ -257,68 +428,94 @@ public class EvidencePackageService {
 
     // ── Audit events ─────────────────────────────────────────────────────────
 
-    private void addAuditEvents(Map<String, byte[]> files, UUID directoryId) {
-        try {
-            OffsetDateTime from = OffsetDateTime.now().minusDays(90);
-            Page<AuditEventResponse> events = auditQueryService.query(
-                    directoryId, null, null, from, null, 0, 10_000);
-
-            StringBuilder csv = new StringBuilder("Occurred At,Actor,Action,Target DN\n");
-            for (AuditEventResponse e : events.getContent()) {
-                csv.append(csvEscape(e.occurredAt() != null ? e.occurredAt().toString() : "")).append(',');
-                csv.append(csvEscape(e.actorUsername() != null ? e.actorUsername() : "")).append(',');
-                csv.append(csvEscape(e.action() != null ? e.action().name() : "")).append(',');
-                csv.append(csvEscape(e.targetDn() != null ? e.targetDn() : "")).append('\n');
-            }
-            files.put("audit/events.csv", csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            log.info("Exported {} audit events for evidence package", events.getNumberOfElements());
-        } catch (Exception e) {
-            log.warn("Failed to export audit events: {}", e.getMessage());
-        }
+    private void addAuditEvents(List<ArtifactTask> tasks, UUID directoryId) {
+        tasks.add(new ArtifactTask("audit/events.csv", "audit events",
+                csv("Occurred At,Actor,Action,Target DN", w -> {
+                    OffsetDateTime from = OffsetDateTime.now().minusDays(90);
+                    int exported = 0;
+                    for (int page = 0; exported < MAX_AUDIT_EVENTS; page++) {
+                        Page<AuditEventResponse> events = auditQueryService.query(
+                                directoryId, null, null, from, null, page, AUDIT_PAGE_SIZE);
+                        for (AuditEventResponse e : events.getContent()) {
+                            if (exported++ >= MAX_AUDIT_EVENTS) break;
+                            row(w, e.occurredAt() != null ? e.occurredAt().toString() : "",
+                                    e.actorUsername() != null ? e.actorUsername() : "",
+                                    e.action() != null ? e.action().name() : "",
+                                    e.targetDn() != null ? e.targetDn() : "");
+                        }
+                        if (!events.hasNext()) break;
+                    }
+                    log.info("Exported {} audit events for evidence package", Math.min(exported, MAX_AUDIT_EVENTS));
+                })));
     }
 
     // ── User entitlements ─────────────────────────────────────────────────────
 
-    private void addUserEntitlements(Map<String, byte[]> files, DirectoryConnection dc) {
-        try {
-            List<LdapUser> users = ldapUserService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null,
-                    MAX_ENTITLEMENT_ENTRIES, "cn", "uid", "sAMAccountName", "displayName", "mail", "memberOf");
-            if (users.size() >= MAX_ENTITLEMENT_ENTRIES) {
-                log.warn("User entitlements export hit the {} limit — results truncated", MAX_ENTITLEMENT_ENTRIES);
-            }
+    private void addUserEntitlements(List<ArtifactTask> tasks, DirectoryConnection dc) {
+        tasks.add(new ArtifactTask("entitlements/user-entitlements.csv", "user entitlements",
+                csv("DN,CN,Login Name,Display Name,Email,Groups", w -> {
+                    String[] userAttrs = {"cn", "uid", "sAMAccountName", "displayName", "mail", "memberOf"};
+                    List<LdapUser> users = replicaService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null,
+                                    MAX_ENTITLEMENT_ENTRIES, userAttrs)
+                            .orElseGet(() -> ldapUserService.searchUsers(dc, USER_OBJECTCLASS_FILTER, null,
+                                    MAX_ENTITLEMENT_ENTRIES, userAttrs));
+                    if (users.size() >= MAX_ENTITLEMENT_ENTRIES) {
+                        log.warn("User entitlements export hit the {} limit — results truncated", MAX_ENTITLEMENT_ENTRIES);
+                    }
+
+                    String[] groupAttrs = {"cn", "member", "uniqueMember", "memberUid"};
+                    List<LdapGroup> groups = replicaService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER,
+                                    null, MAX_ENTITLEMENT_ENTRIES, groupAttrs)
+                            .orElseGet(() -> ldapGroupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER,
+                                    null, MAX_ENTITLEMENT_ENTRIES, groupAttrs));
+
+                    // Build DN -> group name lookup
+                    Map<String, List<String>> userToGroups = new HashMap<>();
+                    for (LdapGroup group : groups) {
+                        String groupName = group.getCn() != null ? group.getCn() : group.getDn();
+                        for (String memberDn : group.getAllMembers()) {
+                            userToGroups.computeIfAbsent(memberDn.toLowerCase(), k -> new ArrayList<>())
+                                    .add(groupName);
+                        }
+                    }
+
+                    for (LdapUser u : users) {
+                        Set<String> groupNames = new LinkedHashSet<>();
+                        List<String> memberOf = u.getMemberOf();
+                        if (memberOf != null) groupNames.addAll(memberOf);
+                        List<String> fromGroups = userToGroups.get(u.getDn().toLowerCase());
+                        if (fromGroups != null) groupNames.addAll(fromGroups);
+
+                        row(w, u.getDn(), u.getCn(), u.getLoginName(), u.getDisplayName(), u.getMail(),
+                                String.join("; ", groupNames));
+                    }
+                })));
+    }
 
-            List<LdapGroup> groups = ldapGroupService.searchGroups(dc, GROUP_OBJECTCLASS_FILTER,
-                    null, MAX_ENTITLEMENT_ENTRIES, "cn", "member", "uniqueMember", "memberUid");
+    // ── CSV streaming helpers ─────────────────────────────────────────────────
 
-            // Build DN -> group name lookup
-            Map<String, List<String>> userToGroups = new HashMap<>();
-            for (LdapGroup group : groups) {
-                String groupName = group.getCn() != null ? group.getCn() : group.getDn();
-                for (String memberDn : group.getAllMembers()) {
-                    userToGroups.computeIfAbsent(memberDn.toLowerCase(), k -> new ArrayList<>())
-                            .add(groupName);
-                }
-            }
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer w) throws IOException;
+    }
 
-            StringBuilder csv = new StringBuilder("DN,CN,Login Name,Display Name,Email,Groups\n");
-            for (LdapUser u : users) {
-                Set<String> groupNames = new LinkedHashSet<>();
-                List<String> memberOf = u.getMemberOf();
-                if (memberOf != null) groupNames.addAll(memberOf);
-                List<String> fromGroups = userToGroups.get(u.getDn().toLowerCase());
-                if (fromGroups != null) groupNames.addAll(fromGroups);
-
-                csv.append(csvEscape(u.getDn())).append(',');
-                csv.append(csvEscape(u.getCn())).append(',');
-                csv.append(csvEscape(u.getLoginName())).append(',');
-                csv.append(csvEscape(u.getDisplayName())).append(',');
-                csv.append(csvEscape(u.getMail())).append(',');
-                csv.append(csvEscape(String.join("; ", groupNames))).append('\n');
-            }
-            files.put("entitlements/user-entitlements.csv", csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            log.warn("Failed to export user entitlements: {}", e.getMessage());
+    /** Artifact writer that emits {@code header} then the rows written by {@code rows}. */
+    private static ArtifactWriter csv(String header, RowWriter rows) {
+        return out -> {
+            Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            w.write(header);
+            w.write('\n');
+            rows.write(w);
+            w.flush();
+        };
+    }
+
+    private static void row(Writer w, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) w.write(',');
+            w.write(csvEscape(values[i]));
         }
+        w.write('\n');
     }
 
     // ── Audit trail ──────────────────────────────────────────────────────────
@@ -349,6 +546,18 @@ public class EvidencePackageService {
                          OffsetDateTime generatedAt, String generatedBy,
                          List<UUID> campaignIds, boolean includeSod,
                          boolean includeEntitlements) throws IOException {
+        List<ManifestEntry> entries = new ArrayList<>(files.size());
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            entries.add(new ManifestEntry(entry.getKey(), sha256Hex(entry.getValue()), entry.getValue().length));
+        }
+        return buildManifestFromEntries(entries, directoryId, directoryName, generatedAt, generatedBy,
+                campaignIds, includeSod, includeEntitlements);
+    }
+
+    private byte[] buildManifestFromEntries(List<ManifestEntry> entries, UUID directoryId, String directoryName,
+                                            OffsetDateTime generatedAt, String generatedBy,
+                                            List<UUID> campaignIds, boolean includeSod,
+                                            boolean includeEntitlements) throws IOException {
         Map<String, Object> manifest = new LinkedHashMap<>();
         manifest.put("generatedAt", generatedAt.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
         manifest.put("generatedBy", generatedBy);
@@ -363,11 +572,11 @@ public class EvidencePackageService {
 
         // File checksums
         List<Map<String, String>> fileEntries = new ArrayList<>();
-        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+        for (ManifestEntry entry : entries) {
             Map<String, String> fileEntry = new LinkedHashMap<>();
-            fileEntry.put("path", entry.getKey());
-            fileEntry.put("sha256", sha256Hex(entry.getValue()));
-            fileEntry.put("size", String.valueOf(entry.getValue().length));
+            fileEntry.put("path", entry.path());
+            fileEntry.put("sha256", entry.sha256());
+            fileEntry.put("size", String.valueOf(entry.size()));
             fileEntries.add(fileEntry);
         }
         manifest.put("files", fileEntries);
@@ -405,6 +614,14 @@ public class EvidencePackageService {
         return cryptoService.hmacSha256(data);
     }
 
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Sanitize a name for use as a ZIP path component.
      * Strips all characters except alphanumerics, underscores, and hyphens.
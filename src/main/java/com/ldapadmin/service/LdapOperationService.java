@@ -2,14 +2,17 @@ package com.ldapadmin.service;
 
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.PermissionService;
+import com.ldapadmin.dto.csv.BulkImportJobDto;
 import com.ldapadmin.dto.csv.BulkImportPreviewResult;
 import com.ldapadmin.dto.csv.BulkImportRequest;
 import com.ldapadmin.dto.csv.BulkImportResult;
+import com.ldapadmin.dto.csv.BulkImportRowResult;
 import com.ldapadmin.dto.csv.CsvColumnMappingDto;
 import com.ldapadmin.dto.ldap.AttributeModification;
 import com.ldapadmin.dto.ldap.BulkAttributeUpdateRequest;
 import com.ldapadmin.dto.ldap.BulkAttributeUpdateResult;
 import com.ldapadmin.dto.ldap.CreateEntryRequest;
+import com.ldapadmin.dto.ldap.LdapEntryPage;
 import com.ldapadmin.dto.ldap.LdapEntryResponse;
 import com.ldapadmin.dto.ldap.MoveUserRequest;
 import com.ldapadmin.dto.ldap.UpdateEntryRequest;
@@ -27,19 +30,24 @@ import com.ldapadmin.ldap.LdapSchemaService.AttributeTypeInfo;
 import com.ldapadmin.ldap.LdapSchemaService.ObjectClassAttributes;
 import com.ldapadmin.ldap.LdapSchemaService.SchemaListItem;
 import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.ldap.SearchCursorService;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.unboundid.ldap.sdk.Modification;
 import com.unboundid.ldap.sdk.ModificationType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Permission-checked façade over the raw LDAP services.
@@ -73,8 +81,10 @@ public class LdapOperationService {
     private final AuditService                  auditService;
     private final BulkUserService               bulkUserService;
     private final BulkGroupService              bulkGroupService;
+    private final BulkImportJobService          bulkImportJobService;
     private final CsvMappingTemplateService     csvTemplateService;
     private final SodPolicyService              sodPolicyService;
+    private final SearchCursorService           cursorService;
 
     // ── Browse ────────────────────────────────────────────────────────────────
 
@@ -135,6 +145,22 @@ public class LdapOperationService {
                 .stream().map(LdapEntryResponse::from).toList();
     }
 
+    /**
+     * Opens a server-side cursor over the users matching {@code filter} and
+     * returns the first page.  Continue with {@link #nextPage}.
+     */
+    public LdapEntryPage openUserCursor(UUID directoryId, AuthPrincipal principal,
+                                        String filter, String baseDn, String sort,
+                                        int pageSize, String[] attributes) {
+        DirectoryConnection dc = loadDirectory(directoryId, principal);
+        permissionService.requireDirectoryAccess(principal, directoryId);
+        permissionService.requireBaseDnWithinScope(principal, directoryId, baseDn);
+        String effectiveFilter = (filter == null || filter.isBlank())
+                ? "(objectClass=person)" : filter;
+        return toPage(cursorService.open(dc, principal.id(), effectiveFilter, baseDn, sort,
+                pageSize, attributes));
+    }
+
     public LdapEntryResponse getUser(UUID directoryId, AuthPrincipal principal,
                                      String dn, String[] attributes) {
         DirectoryConnection dc = loadDirectory(directoryId, principal);
@@ -189,7 +215,7 @@ public class LdapOperationService {
     public BulkAttributeUpdateResult bulkUpdateAttributes(UUID directoryId, AuthPrincipal principal,
                                                            BulkAttributeUpdateRequest req) {
         DirectoryConnection dc = loadDirectory(directoryId, principal);
-        req.dns().forEach(dn -> permissionService.requireDnWithinScope(principal, directoryId, dn));
+        permissionService.requireDnsWithinScope(principal, directoryId, req.dns());
 
         List<Modification> mods = req.modifications().stream()
                 .map(m -> new Modification(
@@ -292,6 +318,23 @@ public class LdapOperationService {
                 .stream().map(LdapEntryResponse::from).toList();
     }
 
+    /**
+     * Opens a server-side cursor over the groups matching {@code filter} and
+     * returns the first page.  Continue with {@link #nextPage}.
+     */
+    public LdapEntryPage openGroupCursor(UUID directoryId, AuthPrincipal principal,
+                                         String filter, String baseDn, String sort,
+                                         int pageSize, String[] attributes) {
+        DirectoryConnection dc = loadDirectory(directoryId, principal);
+        permissionService.requireDirectoryAccess(principal, directoryId);
+        permissionService.requireBaseDnWithinScope(principal, directoryId, baseDn);
+        String effectiveFilter = (filter == null || filter.isBlank())
+                ? GROUP_OBJECTCLASS_FILTER
+                : "(&" + filter + GROUP_OBJECTCLASS_FILTER + ")";
+        return toPage(cursorService.open(dc, principal.id(), effectiveFilter, baseDn, sort,
+                pageSize, attributes));
+    }
+
     public LdapEntryResponse getGroup(UUID directoryId, AuthPrincipal principal,
                                       String dn, String[] attributes) {
         DirectoryConnection dc = loadDirectory(directoryId, principal);
@@ -402,6 +445,105 @@ public class LdapOperationService {
                                             InputStream csvInput,
                                             BulkImportRequest req) throws IOException {
         DirectoryConnection dc = loadDirectory(directoryId, principal);
+        UserImportSettings settings = resolveUserImport(directoryId, principal, req);
+
+        BulkImportResult result = bulkUserService.importCsv(
+                dc, csvInput, req.parentDn(), settings.targetKeyAttr(), settings.conflictHandling(),
+                settings.mappings(), settings.objectClasses(), settings.skipHeader());
+
+        auditBulkImport(principal, directoryId, req.parentDn(), result);
+        return result;
+    }
+
+    /**
+     * Starts a background import of users from a CSV stream of any size.
+     * Settings are resolved and permissions checked as for
+     * {@link #bulkImportUsers}; progress and per-row results are then
+     * available from {@link BulkImportJobService}.  An import that fails or
+     * is interrupted part-way is audited with the rows reported until then
+     * and the reason.
+     */
+    public BulkImportJobDto startBulkImportUsersJob(UUID directoryId, AuthPrincipal principal,
+                                                    InputStream csvInput,
+                                                    BulkImportRequest req) throws IOException {
+        DirectoryConnection dc = loadDirectory(directoryId, principal);
+        UserImportSettings settings = resolveUserImport(directoryId, principal, req);
+
+        return bulkImportJobService.start(directoryId, principal.id(), csvInput, (input, results) -> {
+            RowTally tally = new RowTally(results);
+            BulkImportResult result;
+            try {
+                result = bulkUserService.importCsv(
+                        dc, input, req.parentDn(), settings.targetKeyAttr(), settings.conflictHandling(),
+                        settings.mappings(), settings.objectClasses(), settings.skipHeader(), tally);
+            } catch (Exception e) {
+                // Entries created before the failure stay in the directory
+                auditBulkImport(principal, directoryId, req.parentDn(), tally.result(), e);
+                throw e;
+            }
+            auditBulkImport(principal, directoryId, req.parentDn(), result);
+            return result;
+        });
+    }
+
+    private void auditBulkImport(AuthPrincipal principal, UUID directoryId, String parentDn,
+                                 BulkImportResult result) {
+        auditBulkImport(principal, directoryId, parentDn, result, null);
+    }
+
+    private void auditBulkImport(AuthPrincipal principal, UUID directoryId, String parentDn,
+                                 BulkImportResult result, Exception failure) {
+        Map<String, Object> detail = new LinkedHashMap<>();
+        detail.put("operation", "bulkImport");
+        detail.put("created",   result.created());
+        detail.put("updated",   result.updated());
+        detail.put("skipped",   result.skipped());
+        detail.put("errors",    result.errors());
+        if (failure != null) {
+            detail.put("failed", failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName());
+        }
+        auditService.record(principal, directoryId, AuditAction.USER_CREATE, parentDn, detail);
+    }
+
+    /** Passes row results on to the job while counting them, for an import that does not finish. */
+    private static final class RowTally implements Consumer<BulkImportRowResult> {
+
+        private final Consumer<BulkImportRowResult> delegate;
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong errors  = new AtomicLong();
+
+        RowTally(Consumer<BulkImportRowResult> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void accept(BulkImportRowResult row) {
+            switch (row.status()) {
+                case CREATED -> created.incrementAndGet();
+                case UPDATED -> updated.incrementAndGet();
+                case SKIPPED -> skipped.incrementAndGet();
+                case ERROR   -> errors.incrementAndGet();
+            }
+            delegate.accept(row);
+        }
+
+        BulkImportResult result() {
+            long c = created.get(), u = updated.get(), s = skipped.get(), e = errors.get();
+            return new BulkImportResult((int) (c + u + s + e), c, u, s, e, List.of());
+        }
+    }
+
+    /** Import settings after applying template defaults and request overrides. */
+    private record UserImportSettings(String targetKeyAttr,
+                                      ConflictHandling conflictHandling,
+                                      List<String> objectClasses,
+                                      List<CsvColumnMappingDto> mappings,
+                                      boolean skipHeader) {}
+
+    private UserImportSettings resolveUserImport(UUID directoryId, AuthPrincipal principal,
+                                                 BulkImportRequest req) {
         permissionService.requireDirectoryAccess(principal, directoryId);
         permissionService.requireDnWithinScope(principal, directoryId, req.parentDn());
 
@@ -437,28 +579,19 @@ public class LdapOperationService {
 
         boolean skipHeader = resolveSkipHeaderRow(req.skipHeaderRow(), req.templateId(), directoryId, principal);
 
-        BulkImportResult result = bulkUserService.importCsv(
-                dc, csvInput, req.parentDn(), targetKeyAttr, conflictHandling, mappings,
-                objectClasses, skipHeader);
-
-        auditService.record(principal, directoryId, AuditAction.USER_CREATE, req.parentDn(),
-                Map.of("operation", "bulkImport",
-                       "created",   result.created(),
-                       "updated",   result.updated(),
-                       "skipped",   result.skipped(),
-                       "errors",    result.errors()));
-        return result;
+        return new UserImportSettings(targetKeyAttr, conflictHandling, objectClasses, mappings, skipHeader);
     }
 
     /**
-     * Exports directory users to a CSV {@code byte[]} with a header row.
+     * Checks access and returns a body that streams directory users as CSV
+     * with a header row.
      *
      * <p>When {@code templateId} is supplied and {@code attributes} is empty,
      * the attribute list is derived from the template's non-ignored entries.</p>
      */
-    public byte[] bulkExportUsers(UUID directoryId, AuthPrincipal principal,
-                                  String filter, String baseDn,
-                                  List<String> attributes, UUID templateId) throws IOException {
+    public StreamingResponseBody bulkExportUsers(UUID directoryId, AuthPrincipal principal,
+                                                 String filter, String baseDn,
+                                                 List<String> attributes, UUID templateId) {
         DirectoryConnection dc = loadDirectory(directoryId, principal);
         permissionService.requireDirectoryAccess(principal, directoryId);
         permissionService.requireBaseDnWithinScope(principal, directoryId, baseDn);
@@ -471,7 +604,7 @@ public class LdapOperationService {
                     .forEach(effectiveAttrs::add);
         }
 
-        return bulkUserService.exportCsv(dc, filter, baseDn, effectiveAttrs);
+        return out -> bulkUserService.exportCsv(dc, filter, baseDn, effectiveAttrs, out);
     }
 
     // ── Bulk group import / export ───────────────────────────────────────────
@@ -553,15 +686,16 @@ public class LdapOperationService {
         return result;
     }
 
-    public byte[] bulkExportGroups(UUID directoryId, AuthPrincipal principal,
-                                    String filter, String baseDn,
-                                    String memberAttribute,
-                                    List<String> attributes) throws IOException {
+    /** Checks access and returns a body that streams matching groups as CSV. */
+    public StreamingResponseBody bulkExportGroups(UUID directoryId, AuthPrincipal principal,
+                                                  String filter, String baseDn,
+                                                  String memberAttribute,
+                                                  List<String> attributes) {
         DirectoryConnection dc = loadDirectory(directoryId, principal);
         permissionService.requireDirectoryAccess(principal, directoryId);
         permissionService.requireBaseDnWithinScope(principal, directoryId, baseDn);
 
-        return bulkGroupService.exportCsv(dc, filter, baseDn, memberAttribute, attributes);
+        return out -> bulkGroupService.exportCsv(dc, filter, baseDn, memberAttribute, attributes, out);
     }
 
     // ── Private helpers ───────────────────────────────────────────────────────
@@ -577,6 +711,24 @@ public class LdapOperationService {
         return true; // default: first row is headers
     }
 
+    // ── Search cursors ────────────────────────────────────────────────────────
+
+    /** Returns the next page of a cursor opened by this principal. */
+    public LdapEntryPage nextPage(UUID directoryId, AuthPrincipal principal, String cursor) {
+        DirectoryConnection dc = loadDirectory(directoryId, principal);
+        permissionService.requireDirectoryAccess(principal, directoryId);
+        return toPage(cursorService.next(dc, principal.id(), cursor));
+    }
+
+    public void closeCursor(UUID directoryId, AuthPrincipal principal, String cursor) {
+        cursorService.close(directoryId, principal.id(), cursor);
+    }
+
+    private static LdapEntryPage toPage(SearchCursorService.Page page) {
+        return new LdapEntryPage(page.entries().stream().map(LdapEntryResponse::from).toList(),
+                page.cursor(), page.sorted());
+    }
+
     private DirectoryConnection loadDirectory(UUID directoryId, AuthPrincipal principal) {
         DirectoryConnection dc = dirRepo.findById(directoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("DirectoryConnection", directoryId));
@@ -340,6 +340,7 @@ public class LifecyclePlaybookService {
                 // Resolve ${user.dn} placeholder in body
                 body = body.replace("${user.dn}", targetDn);
                 if (!recipients.isBlank()) {
+                    List<String> addresses = new ArrayList<>();
                     for (String recipient : recipients.split(",")) {
                         String addr = recipient.trim();
                         if (addr.equals("${user.mail}")) {
@@ -347,8 +348,9 @@ public class LifecyclePlaybookService {
                             addr = user.getFirstValue("mail");
                             if (addr == null || addr.isBlank()) continue;
                         }
-                        notificationService.sendGenericEmail(addr, subject, body);
+                        addresses.add(addr);
                     }
+                    notificationService.sendGenericEmail(addresses, subject, body);
                 }
             }
         }
@@ -1,5 +1,6 @@
 package com.ldapadmin.service;
 
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.dto.notification.NotificationDto;
 import com.ldapadmin.entity.Account;
 import com.ldapadmin.entity.AdminFeaturePermission;
@@ -13,6 +14,7 @@ import com.ldapadmin.repository.AdminProfileRoleRepository;
 import com.ldapadmin.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
@@ -28,6 +30,8 @@ import java.util.UUID;
 /**
  * In-app notification service. All {@code send} methods are async and
  * fire-and-forget — failures are logged but never propagate to callers.
+ * Every change to an account's notifications publishes a
+ * {@link NotificationsChangedEvent}.
  */
 @Service
 @RequiredArgsConstructor
@@ -38,6 +42,7 @@ public class NotificationService {
     private final AccountRepository accountRepo;
     private final AdminFeaturePermissionRepository featurePermRepo;
     private final AdminProfileRoleRepository profileRoleRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Features available to all admins (including READ_ONLY) by default.
@@ -56,7 +61,7 @@ public class NotificationService {
     // ── Send ──────────────────────────────────────────────────────────────────
 
     /** Send a notification to a specific account. */
-    @Async
+    @Async(ExecutorConfig.NOTIFICATION_EXECUTOR)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void send(UUID accountId, String type, String title, String body,
                      String link, UUID directoryId) {
@@ -69,6 +74,7 @@ public class NotificationService {
                     .link(link)
                     .directoryId(directoryId)
                     .build());
+            eventPublisher.publishEvent(new NotificationsChangedEvent(accountId));
         } catch (Exception e) {
             log.warn("Failed to send notification [type={}, account={}]: {}", type, accountId, e.getMessage());
         }
@@ -79,7 +85,7 @@ public class NotificationService {
      * permission (explicitly enabled or via ADMIN base role). Also includes
      * all superadmins.
      */
-    @Async
+    @Async(ExecutorConfig.NOTIFICATION_EXECUTOR)
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void sendToFeatureHolders(UUID directoryId, FeatureKey feature,
                                       String type, String title, String body, String link) {
@@ -90,6 +96,7 @@ public class NotificationService {
                 notificationRepo.save(Notification.builder()
                         .accountId(sa.getId()).type(type).title(title)
                         .body(body).link(link).directoryId(directoryId).build());
+                eventPublisher.publishEvent(new NotificationsChangedEvent(sa.getId()));
             }
 
             // Admins who have the feature (via explicit override or base-role default)
@@ -119,6 +126,7 @@ public class NotificationService {
                     notificationRepo.save(Notification.builder()
                             .accountId(admin.getId()).type(type).title(title)
                             .body(body).link(link).directoryId(directoryId).build());
+                    eventPublisher.publishEvent(new NotificationsChangedEvent(admin.getId()));
                 }
             }
         } catch (Exception e) {
@@ -154,6 +162,7 @@ public class NotificationService {
             if (n.getAccountId().equals(accountId)) {
                 n.setRead(true);
                 notificationRepo.save(n);
+                eventPublisher.publishEvent(new NotificationsChangedEvent(accountId));
             }
         });
     }
@@ -161,5 +170,6 @@ public class NotificationService {
     @Transactional
     public void markAllRead(UUID accountId) {
         notificationRepo.markAllReadByAccountId(accountId);
+        eventPublisher.publishEvent(new NotificationsChangedEvent(accountId));
     }
 }
@@ -0,0 +1,13 @@
+package com.ldapadmin.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link NotificationService} when an account's notifications
+ * change — one is created, or some are marked read.  Listeners run once the
+ * publishing transaction commits.
+ *
+ * @param accountId the account whose notifications changed
+ */
+public record NotificationsChangedEvent(UUID accountId) {
+}
@@ -7,24 +7,15 @@ import com.ldapadmin.entity.enums.ReviewDecision;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.model.LdapGroup;
 import com.ldapadmin.repository.*;
-import com.lowagie.text.Document;
-import com.lowagie.text.DocumentException;
-import com.lowagie.text.Element;
-import com.lowagie.text.Font;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.Paragraph;
-import com.lowagie.text.Phrase;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
+import com.ldapadmin.service.report.PdfReportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -38,6 +29,11 @@ import java.util.*;
  *   <li><b>Access Review Summary</b> — campaign decision breakdown</li>
  *   <li><b>Privileged Account Inventory</b> — admin accounts and roles</li>
  * </ol>
+ *
+ * <p>Each report is written to an {@link OutputStream} through a
+ * {@link PdfReportWriter} as its rows are produced, so memory does not grow
+ * with the number of rows.  The {@code generate*} methods return the same
+ * documents as byte arrays for small, in-memory uses.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -46,18 +42,7 @@ public class PdfReportService {
 
     private static final DateTimeFormatter DISPLAY_FMT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm Z");
-    private static final Font TITLE_FONT =
-            new Font(Font.HELVETICA, 18, Font.BOLD, new Color(33, 37, 41));
-    private static final Font SUBTITLE_FONT =
-            new Font(Font.HELVETICA, 10, Font.NORMAL, new Color(108, 117, 125));
-    private static final Font HEADER_FONT =
-            new Font(Font.HELVETICA, 9, Font.BOLD, Color.WHITE);
-    private static final Font CELL_FONT =
-            new Font(Font.HELVETICA, 8, Font.NORMAL, new Color(33, 37, 41));
-    private static final Font SECTION_FONT =
-            new Font(Font.HELVETICA, 13, Font.BOLD, new Color(33, 37, 41));
-    private static final Color HEADER_BG = new Color(52, 58, 64);
-    private static final Color ALT_ROW_BG = new Color(248, 249, 250);
+    private static final long BRANDING_TTL_MS = 60_000;
 
     private final ApplicationSettingsService settingsService;
     private final LdapGroupService ldapGroupService;
@@ -69,6 +54,10 @@ public class PdfReportService {
 
     private static final int MAX_GROUPS = 500;
 
+    /** Application name for the report header, refreshed every minute. */
+    private volatile String appName;
+    private volatile long   appNameExpiresAt;
+
     /**
      * Validates a campaign belongs to a directory. Used by controllers for authorization.
      */
@@ -93,6 +82,18 @@ public class PdfReportService {
      */
     @Transactional(readOnly = true)
     public byte[] generateUserAccessReport(UUID directoryId, String groupDnFilter) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeUserAccessReport(directoryId, groupDnFilter, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes the user access report to {@code out}, one row per group+member
+     * pair.  The caller owns {@code out}; it is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public void writeUserAccessReport(UUID directoryId, String groupDnFilter,
+                                      OutputStream out) throws IOException {
         DirectoryConnection dc = directoryRepo.findById(directoryId)
                 .orElseThrow(() -> new IllegalArgumentException("Directory not found: " + directoryId));
 
@@ -109,25 +110,23 @@ public class PdfReportService {
             }
         }
 
-        // Build row data: one row per group+member pair
-        List<String> headers = List.of("Group DN", "Group Name", "Member");
-        List<List<String>> rows = new ArrayList<>();
+        String subtitle = groupDnFilter != null && !groupDnFilter.isBlank()
+                ? "Filtered by group: " + groupDnFilter
+                : "All groups in directory";
+
+        PdfReportWriter pdf = openReport(out, "User Access Report", subtitle);
+        pdf.columns(List.of("Group DN", "Group Name", "Member"));
         for (LdapGroup group : groups) {
             List<String> members = group.getAllMembers();
             if (members.isEmpty()) {
-                rows.add(List.of(group.getDn(), safe(group.getCn()), "(no members)"));
+                pdf.row(group.getDn(), safe(group.getCn()), "(no members)");
             } else {
                 for (String member : members) {
-                    rows.add(List.of(group.getDn(), safe(group.getCn()), member));
+                    pdf.row(group.getDn(), safe(group.getCn()), member);
                 }
             }
         }
-
-        String subtitle = groupDnFilter != null && !groupDnFilter.isBlank()
-                ? "Filtered by group: " + groupDnFilter
-                : "All groups in directory";
-
-        return buildPdf("User Access Report", subtitle, headers, rows);
+        pdf.finish();
     }
 
     // ── Access Review Summary ──────────────────────────────────────────────
@@ -140,56 +139,65 @@ public class PdfReportService {
      */
     @Transactional(readOnly = true)
     public byte[] generateAccessReviewSummary(UUID campaignId) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeAccessReviewSummary(campaignId, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes the access review summary to {@code out}.  The decision totals
+     * come from the review groups' counters, so the details table can be
+     * written in a single pass.  The caller owns {@code out}.
+     */
+    @Transactional(readOnly = true)
+    public void writeAccessReviewSummary(UUID campaignId, OutputStream out) throws IOException {
         AccessReviewCampaign campaign = campaignRepo.findById(campaignId)
                 .orElseThrow(() -> new IllegalArgumentException("Campaign not found: " + campaignId));
 
+        int total = 0, confirmed = 0, revoked = 0;
+        for (AccessReviewGroup reviewGroup : campaign.getReviewGroups()) {
+            total     += reviewGroup.getTotalCount();
+            confirmed += reviewGroup.getConfirmedCount();
+            revoked   += reviewGroup.getRevokedCount();
+        }
+
+        PdfReportWriter pdf = openReport(out, "Access Review Summary", "Campaign: " + safe(campaign.getName()));
+
         // Campaign metadata section
-        List<String> metaHeaders = List.of("Field", "Value");
-        List<List<String>> metaRows = new ArrayList<>();
-        metaRows.add(List.of("Campaign Name", safe(campaign.getName())));
-        metaRows.add(List.of("Status", campaign.getStatus().name()));
-        metaRows.add(List.of("Created", formatDateTime(campaign.getCreatedAt())));
-        metaRows.add(List.of("Deadline", formatDateTime(campaign.getDeadline())));
+        pdf.section("Campaign Details");
+        pdf.columns(List.of("Field", "Value"));
+        pdf.row("Campaign Name", safe(campaign.getName()));
+        pdf.row("Status", campaign.getStatus().name());
+        pdf.row("Created", formatDateTime(campaign.getCreatedAt()));
+        pdf.row("Deadline", formatDateTime(campaign.getDeadline()));
         if (campaign.getCompletedAt() != null) {
-            metaRows.add(List.of("Completed", formatDateTime(campaign.getCompletedAt())));
+            pdf.row("Completed", formatDateTime(campaign.getCompletedAt()));
         }
+        pdf.row("Confirmed", String.valueOf(confirmed));
+        pdf.row("Revoked", String.valueOf(revoked));
+        pdf.row("Pending", String.valueOf(Math.max(0, total - confirmed - revoked)));
 
         // Decision details table
-        List<String> decisionHeaders = List.of("Group DN", "Member", "Decision", "Reviewer", "Decided At", "Comment");
-        List<List<String>> decisionRows = new ArrayList<>();
-        int confirmed = 0, revoked = 0, pending = 0;
-
+        pdf.section("Decision Details");
+        pdf.columns(List.of("Group DN", "Member", "Decision", "Reviewer", "Decided At", "Comment"));
         for (AccessReviewGroup reviewGroup : campaign.getReviewGroups()) {
             String groupDn = safe(reviewGroup.getGroupDn());
             String reviewerName = reviewGroup.getReviewer() != null
                     ? safe(reviewGroup.getReviewer().getUsername()) : "";
             for (AccessReviewDecision decision : reviewGroup.getDecisions()) {
                 if (decision.getDecision() == null) {
-                    pending++;
-                    decisionRows.add(List.of(groupDn, safe(decision.getMemberDisplay()),
-                            "PENDING", reviewerName, "", ""));
+                    pdf.row(groupDn, safe(decision.getMemberDisplay()), "PENDING", reviewerName, "", "");
                 } else {
-                    if (decision.getDecision() == ReviewDecision.CONFIRM) confirmed++;
-                    else revoked++;
                     String decidedBy = decision.getDecidedBy() != null
                             ? safe(decision.getDecidedBy().getUsername()) : reviewerName;
-                    decisionRows.add(List.of(groupDn, safe(decision.getMemberDisplay()),
+                    pdf.row(groupDn, safe(decision.getMemberDisplay()),
                             decision.getDecision().name(), decidedBy,
                             formatDateTime(decision.getDecidedAt()),
-                            safe(decision.getComment())));
+                            safe(decision.getComment()));
                 }
             }
         }
-
-        metaRows.add(List.of("Confirmed", String.valueOf(confirmed)));
-        metaRows.add(List.of("Revoked", String.valueOf(revoked)));
-        metaRows.add(List.of("Pending", String.valueOf(pending)));
-
-        String subtitle = "Campaign: " + safe(campaign.getName());
-        return buildPdfMultiSection("Access Review Summary", subtitle,
-                List.of("Campaign Details", "Decision Details"),
-                List.of(metaHeaders, decisionHeaders),
-                List.of(metaRows, decisionRows));
+        pdf.finish();
     }
 
     // ── Privileged Account Inventory ───────────────────────────────────────
@@ -201,16 +209,28 @@ public class PdfReportService {
      */
     @Transactional(readOnly = true)
     public byte[] generatePrivilegedAccountInventory() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writePrivilegedAccountInventory(baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes the privileged account inventory to {@code out}.  The caller
+     * owns {@code out}; it is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public void writePrivilegedAccountInventory(OutputStream out) throws IOException {
         List<Account> admins = accountRepo.findAllByRole(AccountRole.ADMIN);
         List<Account> superadmins = accountRepo.findAllByRole(AccountRole.SUPERADMIN);
 
-        List<String> headers = List.of("Username", "Display Name", "Role", "Auth Type",
-                "Active", "Last Login", "Profile Access", "Feature Overrides");
-        List<List<String>> rows = new ArrayList<>();
-
         List<Account> allAccounts = new ArrayList<>(superadmins);
         allAccounts.addAll(admins);
 
+        PdfReportWriter pdf = openReport(out, "Privileged Account Inventory",
+                "All administrator and superadmin accounts");
+        pdf.columns(List.of("Username", "Display Name", "Role", "Auth Type",
+                "Active", "Last Login", "Profile Access", "Feature Overrides"));
+
         for (Account account : allAccounts) {
             // Profile roles
             List<AdminProfileRole> roles = profileRoleRepo.findAllByAdminAccountId(account.getId());
@@ -226,7 +246,7 @@ public class PdfReportService {
                     .reduce((a, b) -> a + "; " + b)
                     .orElse("(none)");
 
-            rows.add(List.of(
+            pdf.row(
                     safe(account.getUsername()),
                     safe(account.getDisplayName()),
                     account.getRole().name(),
@@ -235,22 +255,46 @@ public class PdfReportService {
                     account.getLastLoginAt() != null ? account.getLastLoginAt().toString() : "Never",
                     profileAccess,
                     featureOverrides
-            ));
+            );
         }
-
-        return buildPdf("Privileged Account Inventory",
-                "All administrator and superadmin accounts", headers, rows);
+        pdf.finish();
     }
 
     // ── PDF construction helpers ───────────────────────────────────────────
 
+    /**
+     * Opens a branded PDF on {@code out}: the title, then the application
+     * name, {@code subtitle} and generation time.  Add sections, columns and
+     * rows to the returned writer and call {@link PdfReportWriter#finish()}.
+     */
+    public PdfReportWriter openReport(OutputStream out, String title, String subtitle) throws IOException {
+        return new PdfReportWriter(out, title,
+                appName() + "  |  " + subtitle + "  |  Generated: "
+                        + OffsetDateTime.now().format(DISPLAY_FMT),
+                PdfReportWriter.DEFAULT_FLUSH_ROWS);
+    }
+
+    /**
+     * Writes a single-section PDF, taking rows from {@code rows} one at a time.
+     */
+    public void writePdf(OutputStream out, String title, String subtitle,
+                         List<String> headers, Iterator<? extends List<String>> rows) throws IOException {
+        PdfReportWriter pdf = openReport(out, title, subtitle);
+        pdf.columns(headers);
+        while (rows.hasNext()) {
+            pdf.row(rows.next());
+        }
+        pdf.finish();
+    }
+
     /**
      * Builds a single-section PDF with a header, subtitle, and data table.
      */
     byte[] buildPdf(String title, String subtitle,
                     List<String> headers, List<List<String>> rows) throws IOException {
-        return buildPdfMultiSection(title, subtitle,
-                List.of(), List.of(headers), List.of(rows));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writePdf(baos, title, subtitle, headers, rows.iterator());
+        return baos.toByteArray();
     }
 
     /**
@@ -261,82 +305,32 @@ public class PdfReportService {
                                 List<List<String>> headersList,
                                 List<List<List<String>>> rowsList) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4.rotate(), 36, 36, 36, 36);
-
-        try {
-            PdfWriter.getInstance(document, baos);
-            document.open();
-
-            // Branding header
-            ApplicationSettings settings = settingsService.getEntity();
-            String appName = settings.getAppName() != null ? settings.getAppName() : "LDAP Portal";
-
-            Paragraph titlePara = new Paragraph(title, TITLE_FONT);
-            titlePara.setSpacingAfter(4);
-            document.add(titlePara);
-
-            Paragraph subtitlePara = new Paragraph(
-                    appName + "  |  " + subtitle + "  |  Generated: "
-                            + OffsetDateTime.now().format(DISPLAY_FMT), SUBTITLE_FONT);
-            subtitlePara.setSpacingAfter(16);
-            document.add(subtitlePara);
-
-            for (int s = 0; s < headersList.size(); s++) {
-                if (s < sectionTitles.size() && !sectionTitles.get(s).isEmpty()) {
-                    Paragraph sectionPara = new Paragraph(sectionTitles.get(s), SECTION_FONT);
-                    sectionPara.setSpacingBefore(12);
-                    sectionPara.setSpacingAfter(6);
-                    document.add(sectionPara);
-                }
-
-                List<String> headers2 = headersList.get(s);
-                List<List<String>> rows2 = rowsList.get(s);
-
-                PdfPTable table = new PdfPTable(headers2.size());
-                table.setWidthPercentage(100);
-                table.setSpacingBefore(4);
-
-                // Header row
-                for (String header : headers2) {
-                    PdfPCell cell = new PdfPCell(new Phrase(header, HEADER_FONT));
-                    cell.setBackgroundColor(HEADER_BG);
-                    cell.setPadding(6);
-                    table.addCell(cell);
-                }
-
-                // Data rows
-                for (int r = 0; r < rows2.size(); r++) {
-                    List<String> row = rows2.get(r);
-                    Color bg = (r % 2 == 1) ? ALT_ROW_BG : Color.WHITE;
-                    for (int c = 0; c < headers2.size(); c++) {
-                        String value = c < row.size() ? row.get(c) : "";
-                        PdfPCell cell = new PdfPCell(new Phrase(value, CELL_FONT));
-                        cell.setBackgroundColor(bg);
-                        cell.setPadding(5);
-                        table.addCell(cell);
-                    }
-                }
-
-                if (rows2.isEmpty()) {
-                    PdfPCell emptyCell = new PdfPCell(
-                            new Phrase("No data available", CELL_FONT));
-                    emptyCell.setColspan(headers2.size());
-                    emptyCell.setPadding(8);
-                    emptyCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    table.addCell(emptyCell);
-                }
-
-                document.add(table);
+        PdfReportWriter pdf = openReport(baos, title, subtitle);
+        for (int s = 0; s < headersList.size(); s++) {
+            if (s < sectionTitles.size()) {
+                pdf.section(sectionTitles.get(s));
+            }
+            pdf.columns(headersList.get(s));
+            for (List<String> row : rowsList.get(s)) {
+                pdf.row(row);
             }
-
-            document.close();
-        } catch (DocumentException e) {
-            throw new IOException("Failed to generate PDF: " + e.getMessage(), e);
         }
-
+        pdf.finish();
         return baos.toByteArray();
     }
 
+    private String appName() {
+        long now = System.currentTimeMillis();
+        String name = appName;
+        if (name == null || now >= appNameExpiresAt) {
+            ApplicationSettings settings = settingsService.getEntity();
+            name = settings.getAppName() != null ? settings.getAppName() : "LDAP Portal";
+            appName = name;
+            appNameExpiresAt = now + BRANDING_TTL_MS;
+        }
+        return name;
+    }
+
     private static String safe(String value) {
         return value != null ? value : "";
     }
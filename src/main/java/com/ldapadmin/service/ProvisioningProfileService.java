@@ -1,6 +1,7 @@
 package com.ldapadmin.service;
 
 import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.auth.PermissionsChangedEvent;
 import com.ldapadmin.dto.profile.*;
 import com.ldapadmin.dto.profile.CreateProfileRequest.AttributeConfigEntry;
 import com.ldapadmin.dto.profile.CreateProfileRequest.GroupAssignmentEntry;
@@ -17,6 +18,7 @@ import com.ldapadmin.ldap.model.LdapUser;
 import com.ldapadmin.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +48,7 @@ public class ProvisioningProfileService {
     private final LdapUserService ldapUserService;
     private final LdapGroupService ldapGroupService;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ── Profile CRUD ──────────────────────────────────────────────────────────
 
@@ -104,6 +107,7 @@ public class ProvisioningProfileService {
     @Transactional
     public ProfileResponse update(UUID directoryId, UUID profileId, UpdateProfileRequest req) {
         ProvisioningProfile profile = requireProfileInDirectory(directoryId, profileId);
+        boolean ouChanged = !Objects.equals(profile.getTargetOuDn(), req.targetOuDn());
 
         // Check name uniqueness if changed
         if (!profile.getName().equals(req.name()) &&
@@ -136,6 +140,9 @@ public class ProvisioningProfileService {
         groupAssignmentRepo.flush();
         saveGroupAssignments(profile, req.groupAssignments());
 
+        if (ouChanged) {
+            eventPublisher.publishEvent(PermissionsChangedEvent.forAllAdmins());
+        }
         return toResponse(profile);
     }
 
@@ -143,6 +150,7 @@ public class ProvisioningProfileService {
     public void delete(UUID directoryId, UUID profileId) {
         ProvisioningProfile profile = requireProfileInDirectory(directoryId, profileId);
         profileRepo.delete(profile);
+        eventPublisher.publishEvent(PermissionsChangedEvent.forAllAdmins());
     }
 
     @Transactional
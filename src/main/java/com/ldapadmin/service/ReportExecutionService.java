@@ -11,6 +11,7 @@ import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.entity.enums.OutputFormat;
 import com.ldapadmin.entity.enums.ReportType;
 import com.ldapadmin.entity.enums.SodViolationStatus;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapUserService;
 import com.ldapadmin.ldap.model.LdapGroup;
@@ -19,27 +20,44 @@ import com.ldapadmin.entity.AuditEvent;
 import com.ldapadmin.repository.AuditEventRepository;
 import com.ldapadmin.repository.ProvisioningProfileRepository;
 import com.ldapadmin.repository.SodViolationRepository;
-import com.ldapadmin.util.CsvUtils;
+import com.ldapadmin.service.report.CsvReportWriter;
+import com.ldapadmin.service.report.GroupMembershipIndex;
+import com.ldapadmin.service.report.JsonReportWriter;
+import com.ldapadmin.service.report.MemberSearchPlan;
+import com.ldapadmin.service.report.PdfReportWriter;
+import com.ldapadmin.service.report.ReportRowSink;
 import com.unboundid.ldap.sdk.Filter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 /**
- * Executes a report on-demand and returns the results as CSV or PDF bytes.
+ * Executes a report on-demand and streams the results as CSV, JSON or PDF.
+ *
+ * <p>Each report type produces its rows over a fixed column list into a
+ * {@link ReportRowSink}; LDAP-backed reports emit rows while the paged
+ * search is still running, so neither the entries nor the rows are held in
+ * memory and there is no cap on the number of results.</p>
  *
  * <h3>Report types and their queries</h3>
  * <ul>
- *   <li><b>USERS_IN_GROUP</b>     — {@code (memberOf=<groupDn>)}; param {@code groupDn} required.</li>
+ *   <li><b>USERS_IN_GROUP</b>     — members of the group's member attributes; param {@code groupDn} required.</li>
  *   <li><b>USERS_IN_BRANCH</b>    — {@code (objectClass=inetOrgPerson)},
  *       base = {@code branchDn}; param {@code branchDn} required.</li>
- *   <li><b>USERS_WITH_NO_GROUP</b>— {@code (&(objectClass=inetOrgPerson)(!(memberOf=*)))}.</li>
+ *   <li><b>USERS_WITH_NO_GROUP</b>— users that are not a member of any group (by DN or memberUid).</li>
  *   <li><b>RECENTLY_ADDED</b>     — {@code (createTimestamp>=<timestamp>)}; param {@code lookbackDays}.</li>
  *   <li><b>RECENTLY_MODIFIED</b>  — {@code (modifyTimestamp>=<timestamp>)}; param {@code lookbackDays}.</li>
  *   <li><b>RECENTLY_DELETED</b>   — audit events ({@code USER_DELETE} + changelog deletes).</li>
@@ -47,6 +65,10 @@ import java.util.*;
  *   <li><b>MISSING_PROFILE_GROUPS</b> — profile group gap analysis.</li>
  *   <li><b>SOD_VIOLATIONS</b>     — current SoD violations from the database.</li>
  * </ul>
+ *
+ * <p>The entry-listing reports (users in group/branch, no group, recent,
+ * disabled) show a fixed set of user attributes for the directory type;
+ * the optional {@code attributes} parameter (comma-separated) replaces it.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -56,8 +78,30 @@ public class ReportExecutionService {
     private static final DateTimeFormatter LDAP_TIMESTAMP_FMT =
             DateTimeFormatter.ofPattern("yyyyMMddHHmmss'Z'");
 
-    /** Maximum LDAP entries returned per report to prevent OOM. */
-    private static final int MAX_LDAP_RESULTS = 10_000;
+    /** Audit events read per database round trip by the audit log report. */
+    private static final int AUDIT_PAGE_SIZE = 1_000;
+
+    private static final String GROUP_FILTER =
+            "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group))";
+
+    private static final String USER_FILTER = "(|(objectClass=inetOrgPerson)(objectClass=person))";
+
+    /** Columns of the entry-listing reports, after the DN. */
+    private static final List<String> USER_REPORT_ATTRIBUTES = List.of(
+            "cn", "uid", "givenName", "sn", "displayName", "mail", "title", "departmentNumber",
+            "employeeNumber", "employeeType", "telephoneNumber", "manager", "objectClass",
+            "createTimestamp", "modifyTimestamp");
+
+    private static final List<String> AD_USER_REPORT_ATTRIBUTES = List.of(
+            "cn", "sAMAccountName", "userPrincipalName", "givenName", "sn", "displayName", "mail",
+            "title", "department", "employeeNumber", "telephoneNumber", "manager", "objectClass",
+            "whenCreated", "whenChanged");
+
+    /** Lock indicators added to the disabled-accounts report. */
+    private static final List<String> LOCK_ATTRIBUTES = List.of(
+            "pwdAccountLockedTime", "nsAccountLock", "loginShell");
+
+    private static final List<String> AD_LOCK_ATTRIBUTES = List.of("userAccountControl");
 
     private final LdapUserService                userService;
     private final LdapGroupService              groupService;
@@ -70,6 +114,7 @@ public class ReportExecutionService {
     private final com.ldapadmin.repository.hr.HrConnectionRepository     hrConnectionRepo;
     private final com.ldapadmin.repository.hr.HrEmployeeRepository       hrEmployeeRepo;
     private final PdfReportService               pdfReportService;
+    private final DirectoryReplicaService        replicaService;
 
     /**
      * Runs the report and returns the result as CSV or PDF bytes.
@@ -79,241 +124,282 @@ public class ReportExecutionService {
                       Map<String, Object> params,
                       OutputFormat format,
                       UUID directoryId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        run(dc, reportType, params, format, directoryId, out);
+        return out.toByteArray();
+    }
 
-        Map<String, Object> safeParams = params != null ? params : Map.of();
-
-        ReportData data = buildReportData(dc, reportType, safeParams, directoryId);
+    /**
+     * Runs the report and writes the CSV or PDF output to {@code out}.
+     * CSV rows are encoded as the report produces them, so the output can be
+     * streamed straight to its destination.  PDF rows are laid out in batches
+     * and finished pages written as they fill, so neither format holds the
+     * whole result.
+     * The caller owns {@code out}; it is flushed but not closed.
+     */
+    public void run(DirectoryConnection dc,
+                    ReportType reportType,
+                    Map<String, Object> params,
+                    OutputFormat format,
+                    UUID directoryId,
+                    OutputStream out) throws IOException {
 
         if (format == OutputFormat.PDF) {
-            return pdfReportService.buildPdf(reportType.name().replace('_', ' '), "", data.columns, data.toRowLists());
+            PdfReportWriter pdf = pdfReportService.openReport(out, reportType.name().replace('_', ' '), "");
+            produce(dc, reportType, params, directoryId, pdf);
+            pdf.finish();
+            return;
         }
-        return CsvUtils.write(data.columns, data.rows);
+        CsvReportWriter csv = new CsvReportWriter(out);
+        produce(dc, reportType, params, directoryId, csv);
+        csv.finish();
     }
 
     /**
-     * Runs the report and returns the structured data (columns + rows) for inline display.
+     * Runs the report and writes {@code {"columns": [...], "rows": [...]}} to
+     * {@code out} for inline display, one row at a time.
+     * The caller owns {@code out}; it is flushed but not closed.
      */
-    public ReportData runAsData(DirectoryConnection dc,
-                                ReportType reportType,
-                                Map<String, Object> params,
-                                UUID directoryId) {
-        Map<String, Object> safeParams = params != null ? params : Map.of();
-        return buildReportData(dc, reportType, safeParams, directoryId);
+    public void runAsJson(DirectoryConnection dc,
+                          ReportType reportType,
+                          Map<String, Object> params,
+                          UUID directoryId,
+                          OutputStream out) throws IOException {
+        JsonReportWriter json = new JsonReportWriter(out);
+        produce(dc, reportType, params, directoryId, json);
+        json.finish();
     }
 
     // ── Private helpers ───────────────────────────────────────────────────────
 
-    private ReportData buildReportData(DirectoryConnection dc, ReportType reportType,
-                                        Map<String, Object> params, UUID directoryId) {
-        return switch (reportType) {
-            case USERS_IN_GROUP         -> runUsersInGroupReportData(dc, params);
-            case USERS_IN_BRANCH        -> runLdapReportData(dc,
-                    "(|(objectClass=inetOrgPerson)(objectClass=person))", requireString(params, "branchDn"));
-            case USERS_WITH_NO_GROUP    -> runUsersWithNoGroupReportData(dc);
-            case RECENTLY_ADDED         -> runLdapReportData(dc,
-                    buildRecentFilter("createTimestamp", params), null);
-            case RECENTLY_MODIFIED      -> runLdapReportData(dc,
-                    buildRecentFilter("modifyTimestamp", params), null);
-            case RECENTLY_DELETED       -> runDeletedReportData(directoryId, params);
-            case DISABLED_ACCOUNTS      -> runDisabledAccountsReportData(dc);
-            case MISSING_PROFILE_GROUPS -> runMissingProfileGroupsReportData(dc, directoryId);
-            case SOD_VIOLATIONS         -> runSodViolationsReportData(directoryId, params);
-            case USER_ACCESS_REPORT     -> runUserAccessReportData(dc, params);
-            case ACCESS_REVIEW_RESULTS  -> runAccessReviewResultsData(directoryId, params);
-            case PRIVILEGED_ACCOUNT_INVENTORY -> runPrivilegedAccountInventoryData(dc, params);
-            case ACCESS_DRIFT_REPORT    -> runAccessDriftReportData(directoryId);
-            case TERMINATION_VELOCITY   -> runTerminationVelocityData(directoryId, params);
-            case AUDIT_LOG_REPORT       -> runAuditLogReportData(directoryId, params);
-        };
+    private void produce(DirectoryConnection dc, ReportType reportType, Map<String, Object> params,
+                         UUID directoryId, ReportRowSink sink) throws IOException {
+        Map<String, Object> safeParams = params != null ? params : Map.of();
+        try {
+            produceRows(dc, reportType, safeParams, directoryId, new InterruptibleSink(sink));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Stops a report between rows once its thread is interrupted, e.g. by a job timeout. */
+    private record InterruptibleSink(ReportRowSink delegate) implements ReportRowSink {
+        @Override
+        public void columns(List<String> columns) {
+            delegate.columns(columns);
+        }
+
+        @Override
+        public void row(String... values) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Report cancelled");
+            }
+            delegate.row(values);
+        }
+    }
+
+    private void produceRows(DirectoryConnection dc, ReportType reportType,
+                             Map<String, Object> params, UUID directoryId, ReportRowSink sink) {
+        switch (reportType) {
+            case USERS_IN_GROUP         -> runUsersInGroupReport(dc, params, sink);
+            case USERS_IN_BRANCH        -> runLdapReport(dc, USER_FILTER,
+                    requireString(params, "branchDn"), userReportAttributes(dc, params, List.of()), sink);
+            case USERS_WITH_NO_GROUP    -> runUsersWithNoGroupReport(dc, params, sink);
+            case RECENTLY_ADDED         -> runLdapReport(dc, buildRecentFilter("createTimestamp", params),
+                    null, userReportAttributes(dc, params, List.of()), sink);
+            case RECENTLY_MODIFIED      -> runLdapReport(dc, buildRecentFilter("modifyTimestamp", params),
+                    null, userReportAttributes(dc, params, List.of()), sink);
+            case RECENTLY_DELETED       -> runDeletedReport(directoryId, params, sink);
+            case DISABLED_ACCOUNTS      -> runDisabledAccountsReport(dc, params, sink);
+            case MISSING_PROFILE_GROUPS -> runMissingProfileGroupsReport(directoryId, sink);
+            case SOD_VIOLATIONS         -> runSodViolationsReport(directoryId, params, sink);
+            case USER_ACCESS_REPORT     -> runUserAccessReport(dc, params, sink);
+            case ACCESS_REVIEW_RESULTS  -> runAccessReviewResults(directoryId, params, sink);
+            case PRIVILEGED_ACCOUNT_INVENTORY -> runPrivilegedAccountInventory(dc, params, sink);
+            case ACCESS_DRIFT_REPORT    -> runAccessDriftReport(directoryId, sink);
+            case TERMINATION_VELOCITY   -> runTerminationVelocity(directoryId, params, sink);
+            case AUDIT_LOG_REPORT       -> runAuditLogReport(directoryId, params, sink);
+        }
+    }
+
+    /** Reads from the directory's local replica when it has a fresh one, else from the DC. */
+    private void processUsers(DirectoryConnection dc, String filter, String baseDn,
+                              Consumer<LdapUser> consumer, String... attributes) {
+        if (!replicaService.processUsers(dc, filter, baseDn, consumer, attributes)) {
+            userService.processUsers(dc, filter, baseDn, consumer, attributes);
+        }
+    }
+
+    private void processGroups(DirectoryConnection dc, String filter, String baseDn,
+                               Consumer<LdapGroup> consumer, String... attributes) {
+        if (!replicaService.processGroups(dc, filter, baseDn, consumer, attributes)) {
+            groupService.processGroups(dc, filter, baseDn, consumer, attributes);
+        }
     }
 
     /**
      * User Access Report: lists all users and their group memberships.
      * Optionally filtered by a specific group DN.
      */
-    private ReportData runUserAccessReportData(DirectoryConnection dc, Map<String, Object> params) {
+    private void runUserAccessReport(DirectoryConnection dc, Map<String, Object> params, ReportRowSink sink) {
         String groupDnFilter = params.containsKey("groupDn") ? (String) params.get("groupDn") : null;
+        boolean filtered = groupDnFilter != null && !groupDnFilter.isBlank();
 
-        // Load all groups and build a DN -> group name map
-        String groupFilter = "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group))";
-        List<LdapGroup> allGroups = groupService.searchGroups(dc, groupFilter, null, MAX_LDAP_RESULTS,
-                "cn", "member", "uniqueMember", "memberUid");
-
-        // Build user DN -> list of group names
-        Map<String, List<String>> userGroups = new HashMap<>();
-        for (LdapGroup g : allGroups) {
-            if (groupDnFilter != null && !groupDnFilter.isBlank()
-                    && !g.getDn().equalsIgnoreCase(groupDnFilter)) {
-                continue;
+        GroupMembershipIndex index = new GroupMembershipIndex();
+        processGroups(dc, GROUP_FILTER, null, g -> {
+            if (!filtered || g.getDn().equalsIgnoreCase(groupDnFilter)) {
+                index.add(g);
             }
-            String groupName = g.getCn() != null ? g.getCn() : g.getDn();
-            for (String memberDn : g.getAllMembers()) {
-                userGroups.computeIfAbsent(memberDn.toLowerCase(), k -> new ArrayList<>()).add(groupName);
-            }
-        }
-
-        // Load all users
-        List<LdapUser> allUsers = userService.searchUsers(dc,
-                "(|(objectClass=inetOrgPerson)(objectClass=person))", null, MAX_LDAP_RESULTS, "*");
+        }, "cn", "member", "uniqueMember", "memberUid");
 
-        List<String> columns = List.of("User DN", "Name", "User ID", "Email", "Groups");
-        List<Map<String, String>> rows = new ArrayList<>();
-        for (LdapUser u : allUsers) {
-            List<String> groups = userGroups.getOrDefault(u.getDn().toLowerCase(), List.of());
-            if (groupDnFilter != null && !groupDnFilter.isBlank() && groups.isEmpty()) {
-                continue; // when filtering by group, skip users not in that group
+        sink.columns(List.of("User DN", "Name", "User ID", "Email", "Groups"));
+        processUsers(dc, USER_FILTER, null, u -> {
+            List<String> groups = index.groupsOf(u);
+            if (filtered && groups.isEmpty()) {
+                return; // when filtering by group, skip users not in that group
             }
-            Map<String, String> row = new LinkedHashMap<>();
-            row.put("User DN", u.getDn());
-            row.put("Name", u.getCn());
-            row.put("User ID", u.getUid());
-            row.put("Email", u.getMail());
-            row.put("Groups", String.join("; ", groups));
-            rows.add(row);
-        }
-        return new ReportData(columns, rows);
+            sink.row(u.getDn(), u.getCn(), u.getUid(), u.getMail(), String.join("; ", groups));
+        }, "cn", "uid", "mail");
     }
 
     /**
      * Users in Group: reads the group's member/uniqueMember attributes directly
-     * instead of relying on memberOf overlay.
+     * instead of relying on memberOf overlay, then reads the members back with
+     * the few batched searches planned by {@link MemberSearchPlan}.
      */
-    private ReportData runUsersInGroupReportData(DirectoryConnection dc, Map<String, Object> params) {
+    private void runUsersInGroupReport(DirectoryConnection dc, Map<String, Object> params, ReportRowSink sink) {
         String groupDn = requireString(params, "groupDn");
-        String groupFilter = "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group))";
-        List<LdapGroup> groups = groupService.searchGroups(dc, groupFilter, null, 1,
-                "cn", "member", "uniqueMember", "memberUid");
+        List<String> attributes = userReportAttributes(dc, params, List.of());
+        sink.columns(userReportColumns(attributes));
 
         // Read the specific group directly
-        List<String> memberDns = new ArrayList<>();
+        LdapGroup group;
         try {
-            LdapGroup group = groupService.getGroup(dc, groupDn, "member", "uniqueMember", "memberUid");
-            memberDns.addAll(group.getAllMembers());
+            group = replicaService.searchGroups(dc, "(objectClass=*)", groupDn, 1,
+                            "member", "uniqueMember", "memberUid")
+                    .filter(found -> !found.isEmpty())
+                    .map(found -> found.get(0))
+                    .orElseGet(() -> groupService.getGroup(dc, groupDn, "member", "uniqueMember", "memberUid"));
         } catch (Exception e) {
             log.warn("Could not read group {}: {}", groupDn, e.getMessage());
+            return;
         }
 
-        if (memberDns.isEmpty()) {
-            return new ReportData(List.of("DN", "Name", "Email", "User ID"), List.of());
-        }
-
-        // Look up each member user
-        List<LdapUser> users = new ArrayList<>();
-        for (String memberDn : memberDns) {
+        GroupMembershipIndex members = new GroupMembershipIndex();
+        members.add(group);
+        Set<String> emitted = new HashSet<>();
+        String[] requested = withUid(attributes);
+        for (MemberSearchPlan.Search search : MemberSearchPlan.forGroup(group)) {
             try {
-                List<LdapUser> found = userService.searchUsers(dc,
-                        "(objectClass=*)", memberDn, 1, "*");
-                users.addAll(found);
+                processUsers(dc, search.filter(), search.baseDn(), u -> {
+                    if (members.isMember(u) && emitted.add(GroupMembershipIndex.normalizeDn(u.getDn()))) {
+                        sink.row(userRow(u, attributes));
+                    }
+                }, requested);
+            } catch (UncheckedIOException e) {
+                throw e;
             } catch (Exception e) {
-                // Member DN might not exist or might not be a user
-                log.debug("Skipping member {}: {}", memberDn, e.getMessage());
+                log.warn("Could not read members of {} under {}: {}", groupDn, search.baseDn(), e.getMessage());
             }
         }
-        return buildReportDataFromUsers(users);
     }
 
     /**
      * Users with no group: two-pass approach that doesn't rely on memberOf overlay.
-     * 1. Collect all DNs that appear as members in any group
-     * 2. Search all users, filter out those in the member set
+     * 1. Index the members of every group
+     * 2. Stream all users, emitting those the index does not know
      */
-    private ReportData runUsersWithNoGroupReportData(DirectoryConnection dc) {
-        // Pass 1: collect all member DNs from all groups
-        String groupFilter = "(|(objectClass=groupOfNames)(objectClass=groupOfUniqueNames)(objectClass=posixGroup)(objectClass=group))";
-        List<LdapGroup> allGroups = groupService.searchGroups(dc, groupFilter, null, MAX_LDAP_RESULTS,
-                "member", "uniqueMember", "memberUid");
-
-        Set<String> memberedDns = new HashSet<>();
-        for (LdapGroup g : allGroups) {
-            for (String m : g.getAllMembers()) {
-                memberedDns.add(m.toLowerCase());
+    private void runUsersWithNoGroupReport(DirectoryConnection dc, Map<String, Object> params,
+                                           ReportRowSink sink) {
+        GroupMembershipIndex index = new GroupMembershipIndex();
+        processGroups(dc, GROUP_FILTER, null, index::add, "member", "uniqueMember", "memberUid");
+
+        List<String> attributes = userReportAttributes(dc, params, List.of());
+        sink.columns(userReportColumns(attributes));
+        long[] counts = {0, 0};
+        processUsers(dc, USER_FILTER, null, u -> {
+            counts[0]++;
+            if (!index.isMember(u)) {
+                counts[1]++;
+                sink.row(userRow(u, attributes));
             }
-        }
-
-        // Pass 2: search all users
-        List<LdapUser> allUsers = userService.searchUsers(dc,
-                "(|(objectClass=inetOrgPerson)(objectClass=person))", null, MAX_LDAP_RESULTS, "*");
-
-        // Filter to users not in any group
-        List<LdapUser> ungrouped = allUsers.stream()
-                .filter(u -> !memberedDns.contains(u.getDn().toLowerCase()))
-                .toList();
+        }, withUid(attributes));
 
         log.info("Users with no group: {} ungrouped out of {} total users ({} groups scanned)",
-                ungrouped.size(), allUsers.size(), allGroups.size());
-        return buildReportDataFromUsers(ungrouped);
+                counts[1], counts[0], index.groupCount());
+    }
+
+    /** {@code attributes} plus {@code uid}, which membership matching needs for posixGroup members. */
+    private static String[] withUid(List<String> attributes) {
+        boolean hasUid = attributes.stream().anyMatch("uid"::equalsIgnoreCase);
+        List<String> requested = new ArrayList<>(attributes);
+        if (!hasUid) requested.add("uid");
+        return requested.toArray(String[]::new);
     }
 
     /**
      * Disabled accounts: broadened filter that checks multiple disable indicators
      * across OpenLDAP, 389DS, and AD conventions.
      */
-    private ReportData runDisabledAccountsReportData(DirectoryConnection dc) {
-        String filter = dc.getDirectoryType() == com.ldapadmin.entity.enums.DirectoryType.ACTIVE_DIRECTORY
+    private void runDisabledAccountsReport(DirectoryConnection dc, Map<String, Object> params,
+                                           ReportRowSink sink) {
+        boolean ad = isActiveDirectory(dc);
+        String filter = ad
                 ? "(userAccountControl:1.2.840.113556.1.4.803:=2)"  // AD: ACCOUNTDISABLE bit
                 : "(|(pwdAccountLockedTime=*)(nsAccountLock=TRUE)(loginDisabled=TRUE)"
                   + "(employeeType=Terminated)(loginShell=/sbin/nologin))";
-        return runLdapReportData(dc, filter, null);
+        runLdapReport(dc, filter, null,
+                userReportAttributes(dc, params, ad ? AD_LOCK_ATTRIBUTES : LOCK_ATTRIBUTES), sink);
     }
 
-    private ReportData buildReportDataFromUsers(List<LdapUser> users) {
-        TreeSet<String> attrNames = new TreeSet<>();
-        users.forEach(u -> attrNames.addAll(u.getAttributes().keySet()));
-        List<String> rawColumns = new ArrayList<>();
-        rawColumns.add("dn");
-        rawColumns.addAll(attrNames);
-
-        // Map raw columns to friendly names
-        List<String> columns = rawColumns.stream().map(ReportExecutionService::friendlyLdapColumn).toList();
-        List<Map<String, String>> rows = users.stream()
-                .map(u -> buildFriendlyRow(u, rawColumns))
-                .toList();
-        return new ReportData(columns, rows);
+    private void runLdapReport(DirectoryConnection dc, String filter, String baseDn,
+                               List<String> attributes, ReportRowSink sink) {
+        sink.columns(userReportColumns(attributes));
+        long[] count = {0};
+        processUsers(dc, filter, baseDn, u -> {
+            sink.row(userRow(u, attributes));
+            count[0]++;
+        }, attributes.toArray(String[]::new));
+        log.debug("Report query [filter={}, base={}] → {} entries", filter, baseDn, count[0]);
     }
 
-    /** Intermediate report data container (columns + rows). */
-    public record ReportData(List<String> columns, List<Map<String, String>> rows) {
-        /** Convert to list-of-lists for PDF rendering. */
-        List<List<String>> toRowLists() {
-            return rows.stream()
-                    .map(row -> columns.stream().map(c -> row.getOrDefault(c, "")).toList())
+    /**
+     * Attributes shown by the entry-listing reports: the {@code attributes}
+     * parameter if given, else the directory type's default set plus
+     * {@code extra}.
+     */
+    private List<String> userReportAttributes(DirectoryConnection dc, Map<String, Object> params,
+                                              List<String> extra) {
+        Object requested = params.get("attributes");
+        if (requested != null && !requested.toString().isBlank()) {
+            return Arrays.stream(requested.toString().split(","))
+                    .map(String::trim)
+                    .filter(a -> !a.isEmpty() && !"dn".equalsIgnoreCase(a))
+                    .distinct()
                     .toList();
         }
+        List<String> attributes = new ArrayList<>(
+                isActiveDirectory(dc) ? AD_USER_REPORT_ATTRIBUTES : USER_REPORT_ATTRIBUTES);
+        attributes.addAll(extra);
+        return attributes;
     }
 
-    private ReportData runLdapReportData(DirectoryConnection dc, String filter, String baseDn) {
-        List<LdapUser> users = userService.searchUsers(dc, filter, baseDn, MAX_LDAP_RESULTS, "*");
-        if (users.size() >= MAX_LDAP_RESULTS) {
-            log.warn("Report query hit the {} result limit — results may be truncated. "
-                    + "Filter: {}, baseDn: {}", MAX_LDAP_RESULTS, filter, baseDn);
-        }
-
-        // Deterministic column order: dn first, then remaining attributes sorted
-        TreeSet<String> attrNames = new TreeSet<>();
-        users.forEach(u -> attrNames.addAll(u.getAttributes().keySet()));
-
-        List<String> rawColumns = new ArrayList<>();
-        rawColumns.add("dn");
-        rawColumns.addAll(attrNames);
-
-        List<String> columns = rawColumns.stream().map(ReportExecutionService::friendlyLdapColumn).toList();
-        List<Map<String, String>> rows = users.stream()
-                .map(u -> buildFriendlyRow(u, rawColumns))
-                .toList();
+    private static boolean isActiveDirectory(DirectoryConnection dc) {
+        return dc.getDirectoryType() == com.ldapadmin.entity.enums.DirectoryType.ACTIVE_DIRECTORY;
+    }
 
-        log.debug("Report query [filter={}, base={}] → {} entries", filter, baseDn, rows.size());
-        return new ReportData(columns, rows);
+    private static List<String> userReportColumns(List<String> attributes) {
+        List<String> columns = new ArrayList<>(attributes.size() + 1);
+        columns.add(friendlyLdapColumn("dn"));
+        attributes.forEach(a -> columns.add(friendlyLdapColumn(a)));
+        return columns;
     }
 
-    private Map<String, String> buildFriendlyRow(LdapUser user, List<String> rawColumns) {
-        Map<String, String> row = new LinkedHashMap<>();
-        for (String col : rawColumns) {
-            String friendly = friendlyLdapColumn(col);
-            if ("dn".equals(col)) {
-                row.put(friendly, user.getDn());
-            } else {
-                row.put(friendly, String.join("|", user.getValues(col)));
-            }
+    private static String[] userRow(LdapUser user, List<String> attributes) {
+        String[] row = new String[attributes.size() + 1];
+        row[0] = user.getDn();
+        for (int i = 0; i < attributes.size(); i++) {
+            row[i + 1] = String.join("|", user.getValues(attributes.get(i)));
         }
         return row;
     }
@@ -328,10 +414,13 @@ public class ReportExecutionService {
             Map.entry("displayname", "Display Name"),
             Map.entry("telephonenumber", "Phone"),
             Map.entry("title", "Title"),
+            Map.entry("department", "Department"),
             Map.entry("description", "Description"),
             Map.entry("objectclass", "Object Class"),
             Map.entry("createtimestamp", "Created"),
             Map.entry("modifytimestamp", "Modified"),
+            Map.entry("whencreated", "Created"),
+            Map.entry("whenchanged", "Modified"),
             Map.entry("employeenumber", "Employee #"),
             Map.entry("employeetype", "Employee Type"),
             Map.entry("departmentnumber", "Dept #"),
@@ -369,63 +458,38 @@ public class ReportExecutionService {
     /**
      * Queries audit events for both internal USER_DELETE and LDAP_CHANGE delete events.
      */
-    private ReportData runDeletedReportData(UUID directoryId, Map<String, Object> params) {
+    private void runDeletedReport(UUID directoryId, Map<String, Object> params, ReportRowSink sink) {
         int lookbackDays = lookbackDays(params);
         OffsetDateTime from = OffsetDateTime.now().minusDays(lookbackDays);
         Object objectType = params.get("objectType");
         boolean includeUsers = objectType == null || objectType.toString().isBlank() || "USER".equalsIgnoreCase(objectType.toString());
         boolean includeGroups = objectType == null || objectType.toString().isBlank() || "GROUP".equalsIgnoreCase(objectType.toString());
 
-        List<AuditEvent> allDeletes = new ArrayList<>();
-
-        // User deletes
-        if (includeUsers) {
-            var internalDeletes = auditEventRepo.findAll(
-                    directoryId, null, AuditAction.USER_DELETE.getDbValue(),
-                    null, from, null, Pageable.unpaged());
-            allDeletes.addAll(internalDeletes.getContent());
-        }
-
-        // Group deletes
-        if (includeGroups) {
-            var groupDeletes = auditEventRepo.findAll(
-                    directoryId, null, AuditAction.GROUP_DELETE.getDbValue(),
-                    null, from, null, Pageable.unpaged());
-            allDeletes.addAll(groupDeletes.getContent());
+        sink.columns(List.of("Entry", "Deleted By", "Deleted At", "Source"));
+
+        // User and group deletes
+        List<AuditAction> internalActions = new ArrayList<>();
+        if (includeUsers) internalActions.add(AuditAction.USER_DELETE);
+        if (includeGroups) internalActions.add(AuditAction.GROUP_DELETE);
+        for (AuditAction action : internalActions) {
+            auditEventRepo.findAll(directoryId, null, action.getDbValue(), null, from, null, Pageable.unpaged())
+                    .forEach(e -> sink.row(
+                            e.getTargetDn() != null ? e.getTargetDn() : "",
+                            e.getActorUsername() != null ? e.getActorUsername() : "",
+                            e.getOccurredAt() != null ? e.getOccurredAt().toString() : "",
+                            "Internal"));
         }
 
-        // Treat combined list as "internal deletes"
-        var internalDeletes = new org.springframework.data.domain.PageImpl<>(allDeletes);
-
         // Changelog deletes (LDAP_CHANGE events where detail contains delete indicators)
-        var changelogDeletes = auditEventRepo.findAll(
-                directoryId, null, AuditAction.LDAP_CHANGE.getDbValue(),
-                null, from, null, Pageable.unpaged());
-
-        List<String> columns = List.of("Entry", "Deleted By", "Deleted At", "Source");
-        List<Map<String, String>> rows = new ArrayList<>();
-
-        internalDeletes.getContent().forEach(e -> {
-            Map<String, String> row = new LinkedHashMap<>();
-            row.put("Entry",      e.getTargetDn() != null ? e.getTargetDn() : "");
-            row.put("Deleted By", e.getActorUsername() != null ? e.getActorUsername() : "");
-            row.put("Deleted At", e.getOccurredAt() != null ? e.getOccurredAt().toString() : "");
-            row.put("Source",     "Internal");
-            rows.add(row);
-        });
-
-        changelogDeletes.getContent().stream()
+        auditEventRepo.findAll(directoryId, null, AuditAction.LDAP_CHANGE.getDbValue(),
+                        null, from, null, Pageable.unpaged())
+                .stream()
                 .filter(e -> e.getDetail() != null && isDeleteChange(e.getDetail()))
-                .forEach(e -> {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("Entry",      e.getTargetDn() != null ? e.getTargetDn() : "");
-                    row.put("Deleted By", "Changelog");
-                    row.put("Deleted At", e.getOccurredAt() != null ? e.getOccurredAt().toString() : "");
-                    row.put("Source",     "Changelog");
-                    rows.add(row);
-                });
-
-        return new ReportData(columns, rows);
+                .forEach(e -> sink.row(
+                        e.getTargetDn() != null ? e.getTargetDn() : "",
+                        "Changelog",
+                        e.getOccurredAt() != null ? e.getOccurredAt().toString() : "",
+                        "Changelog"));
     }
 
     private boolean isDeleteChange(Map<String, Object> detail) {
@@ -435,37 +499,30 @@ public class ReportExecutionService {
         return changes != null && changes.toString().toLowerCase().contains("changetype: delete");
     }
 
-    private ReportData runMissingProfileGroupsReportData(DirectoryConnection dc, UUID directoryId) {
+    private void runMissingProfileGroupsReport(UUID directoryId, ReportRowSink sink) {
         List<ProvisioningProfile> profiles =
                 profileRepo.findAllByDirectoryIdAndEnabledTrue(directoryId);
 
-        List<String> columns = List.of("User", "Profile", "Missing Group", "Attribute");
-        List<Map<String, String>> rows = new ArrayList<>();
+        sink.columns(List.of("User", "Profile", "Missing Group", "Attribute"));
 
         for (ProvisioningProfile profile : profiles) {
+            GroupChangePreview preview;
             try {
-                GroupChangePreview preview =
-                        profileService.evaluateGroupChanges(directoryId, profile.getId());
-                for (GroupChangePreview.UserGroupChange change : preview.changes()) {
-                    for (GroupChangePreview.GroupChange add : change.groupsToAdd()) {
-                        Map<String, String> row = new LinkedHashMap<>();
-                        row.put("User", change.userDn());
-                        row.put("Profile", profile.getName());
-                        row.put("Missing Group", add.groupDn());
-                        row.put("Attribute", add.memberAttribute());
-                        rows.add(row);
-                    }
-                }
+                preview = profileService.evaluateGroupChanges(directoryId, profile.getId());
             } catch (Exception e) {
                 log.warn("Failed to evaluate group changes for profile {}: {}",
                         profile.getName(), e.getMessage());
+                continue;
+            }
+            for (GroupChangePreview.UserGroupChange change : preview.changes()) {
+                for (GroupChangePreview.GroupChange add : change.groupsToAdd()) {
+                    sink.row(change.userDn(), profile.getName(), add.groupDn(), add.memberAttribute());
+                }
             }
         }
-
-        return new ReportData(columns, rows);
     }
 
-    private ReportData runSodViolationsReportData(UUID directoryId, Map<String, Object> params) {
+    private void runSodViolationsReport(UUID directoryId, Map<String, Object> params, ReportRowSink sink) {
         String policyIdStr = params.containsKey("policyId") ? (String) params.get("policyId") : null;
 
         List<SodViolation> violations;
@@ -475,59 +532,52 @@ public class ReportExecutionService {
             violations = sodViolationRepo.findByDirectoryId(directoryId);
         }
 
-        List<String> columns = List.of("id", "User", "Policy", "Conflicting Groups",
-                "Severity", "Status", "Detected", "Exempted By", "Exemption Reason");
-        List<Map<String, String>> rows = new ArrayList<>();
+        sink.columns(List.of("id", "User", "Policy", "Conflicting Groups",
+                "Severity", "Status", "Detected", "Exempted By", "Exemption Reason"));
 
         for (SodViolation v : violations) {
-            Map<String, String> row = new LinkedHashMap<>();
-            row.put("id", v.getId().toString());
-            row.put("User", v.getUserDisplayName() != null && !v.getUserDisplayName().isBlank()
-                    ? v.getUserDisplayName() : v.getUserDn());
-            row.put("Policy", v.getPolicy().getName());
             String groupA = v.getPolicy().getGroupAName() != null ? v.getPolicy().getGroupAName() : v.getPolicy().getGroupADn();
             String groupB = v.getPolicy().getGroupBName() != null ? v.getPolicy().getGroupBName() : v.getPolicy().getGroupBDn();
-            row.put("Conflicting Groups", groupA + " / " + groupB);
-            row.put("Severity", v.getPolicy().getSeverity() != null ? v.getPolicy().getSeverity().name() : "");
-            row.put("Status", v.getStatus().name());
-            row.put("Detected", v.getDetectedAt() != null ? v.getDetectedAt().toString() : "");
-            row.put("Exempted By", v.getExemptedBy() != null ? v.getExemptedBy().getUsername() : "");
-            row.put("Exemption Reason", v.getExemptionReason() != null ? v.getExemptionReason() : "");
-            rows.add(row);
+            sink.row(
+                    v.getId().toString(),
+                    v.getUserDisplayName() != null && !v.getUserDisplayName().isBlank()
+                            ? v.getUserDisplayName() : v.getUserDn(),
+                    v.getPolicy().getName(),
+                    groupA + " / " + groupB,
+                    v.getPolicy().getSeverity() != null ? v.getPolicy().getSeverity().name() : "",
+                    v.getStatus().name(),
+                    v.getDetectedAt() != null ? v.getDetectedAt().toString() : "",
+                    v.getExemptedBy() != null ? v.getExemptedBy().getUsername() : "",
+                    v.getExemptionReason() != null ? v.getExemptionReason() : "");
         }
-
-        return new ReportData(columns, rows);
     }
 
     // ── Audit reports ─────────────────────────────────────────────────────────
 
-    private ReportData runAccessReviewResultsData(UUID directoryId, Map<String, Object> params) {
+    private void runAccessReviewResults(UUID directoryId, Map<String, Object> params, ReportRowSink sink) {
         String campaignIdStr = params.containsKey("campaignId") ? (String) params.get("campaignId") : null;
         if (campaignIdStr == null || campaignIdStr.isBlank()) {
             // No campaign selected — return campaign listing as fallback
             var campaigns = campaignRepo.findByDirectoryId(directoryId,
                     org.springframework.data.domain.Pageable.unpaged()).getContent();
-            List<String> columns = List.of("Campaign", "Status", "Starts", "Deadline", "Completed", "Created");
-            List<Map<String, String>> rows = new ArrayList<>();
+            sink.columns(List.of("Campaign", "Status", "Starts", "Deadline", "Completed", "Created"));
             for (var c : campaigns) {
-                Map<String, String> row = new LinkedHashMap<>();
-                row.put("Campaign", c.getName() != null ? c.getName() : "");
-                row.put("Status", c.getStatus().name());
-                row.put("Starts", c.getStartsAt() != null ? c.getStartsAt().toString() : "");
-                row.put("Deadline", c.getDeadline() != null ? c.getDeadline().toString() : "");
-                row.put("Completed", c.getCompletedAt() != null ? c.getCompletedAt().toString() : "");
-                row.put("Created", c.getCreatedAt() != null ? c.getCreatedAt().toString() : "");
-                rows.add(row);
+                sink.row(
+                        c.getName() != null ? c.getName() : "",
+                        c.getStatus().name(),
+                        c.getStartsAt() != null ? c.getStartsAt().toString() : "",
+                        c.getDeadline() != null ? c.getDeadline().toString() : "",
+                        c.getCompletedAt() != null ? c.getCompletedAt().toString() : "",
+                        c.getCreatedAt() != null ? c.getCreatedAt().toString() : "");
             }
-            return new ReportData(columns, rows);
+            return;
         }
 
         // Campaign selected — return decision-level data
         AccessReviewCampaign campaign = campaignRepo.findById(UUID.fromString(campaignIdStr))
                 .orElseThrow(() -> new IllegalArgumentException("Campaign not found: " + campaignIdStr));
 
-        List<String> columns = List.of("Group", "Member", "Decision", "Reviewer", "Decided At", "Comment");
-        List<Map<String, String>> rows = new ArrayList<>();
+        sink.columns(List.of("Group", "Member", "Decision", "Reviewer", "Decided At", "Comment"));
 
         for (AccessReviewGroup reviewGroup : campaign.getReviewGroups()) {
             String groupLabel = reviewGroup.getGroupName() != null ? reviewGroup.getGroupName() : reviewGroup.getGroupDn();
@@ -535,25 +585,19 @@ public class ReportExecutionService {
                     ? reviewGroup.getReviewer().getUsername() : "";
 
             for (AccessReviewDecision decision : reviewGroup.getDecisions()) {
-                Map<String, String> row = new LinkedHashMap<>();
-                row.put("Group", groupLabel);
-                row.put("Member", decision.getMemberDisplay() != null ? decision.getMemberDisplay() : decision.getMemberDn());
+                String member = decision.getMemberDisplay() != null ? decision.getMemberDisplay() : decision.getMemberDn();
                 if (decision.getDecision() == null) {
-                    row.put("Decision", "PENDING");
-                    row.put("Reviewer", reviewerName);
-                    row.put("Decided At", "");
-                    row.put("Comment", "");
+                    sink.row(groupLabel, member, "PENDING", reviewerName, "", "");
                 } else {
-                    row.put("Decision", decision.getDecision().name());
-                    row.put("Reviewer", decision.getDecidedBy() != null
-                            ? decision.getDecidedBy().getUsername() : reviewerName);
-                    row.put("Decided At", decision.getDecidedAt() != null ? decision.getDecidedAt().toString() : "");
-                    row.put("Comment", decision.getComment() != null ? decision.getComment() : "");
+                    sink.row(groupLabel, member,
+                            decision.getDecision().name(),
+                            decision.getDecidedBy() != null
+                                    ? decision.getDecidedBy().getUsername() : reviewerName,
+                            decision.getDecidedAt() != null ? decision.getDecidedAt().toString() : "",
+                            decision.getComment() != null ? decision.getComment() : "");
                 }
-                rows.add(row);
             }
         }
-        return new ReportData(columns, rows);
     }
 
     /** Default LDAP filter for groups considered privileged. */
@@ -564,55 +608,44 @@ public class ReportExecutionService {
             "(cn=*privileged*)(cn=*Privileged*)(cn=Domain Admins)(cn=Enterprise Admins)" +
             "(cn=Schema Admins)(cn=Account Operators)(cn=Server Operators)))";
 
-    private ReportData runPrivilegedAccountInventoryData(DirectoryConnection dc, Map<String, Object> params) {
+    private void runPrivilegedAccountInventory(DirectoryConnection dc, Map<String, Object> params,
+                                               ReportRowSink sink) {
         String groupFilter = params.containsKey("groupFilter") && params.get("groupFilter") != null
                 && !params.get("groupFilter").toString().isBlank()
                 ? params.get("groupFilter").toString()
                 : DEFAULT_PRIVILEGED_GROUP_FILTER;
 
-        List<LdapGroup> allGroups = groupService.searchGroups(dc, groupFilter, null, MAX_LDAP_RESULTS,
-                "cn", "member", "uniqueMember", "description");
-
-        List<String> columns = List.of("User", "Group DN", "Group", "Description");
-        List<Map<String, String>> rows = new ArrayList<>();
-        for (LdapGroup g : allGroups) {
+        sink.columns(List.of("User", "Group DN", "Group", "Description"));
+        processGroups(dc, groupFilter, null, g -> {
             String groupName = g.getCn() != null ? g.getCn() : g.getDn();
             String desc = g.getAttributes().containsKey("description")
                     ? String.join("; ", g.getValues("description")) : "";
             for (String memberDn : g.getAllMembers()) {
-                Map<String, String> row = new LinkedHashMap<>();
-                row.put("User", memberDn);
-                row.put("Group DN", g.getDn());
-                row.put("Group", groupName);
-                row.put("Description", desc);
-                rows.add(row);
+                sink.row(memberDn, g.getDn(), groupName, desc);
             }
-        }
-        return new ReportData(columns, rows);
+        }, "cn", "member", "uniqueMember", "description");
     }
 
-    private ReportData runAccessDriftReportData(UUID directoryId) {
+    private void runAccessDriftReport(UUID directoryId, ReportRowSink sink) {
         var findings = driftFindingRepo.findByDirectoryId(directoryId);
-        List<String> columns = List.of("id", "User", "Name", "Peer Group",
-                "Anomalous Group", "Peer Match", "Severity", "Status", "Detected");
-        List<Map<String, String>> rows = new ArrayList<>();
+        sink.columns(List.of("id", "User", "Name", "Peer Group",
+                "Anomalous Group", "Peer Match", "Severity", "Status", "Detected"));
         for (var f : findings) {
-            Map<String, String> row = new LinkedHashMap<>();
-            row.put("id", f.getId().toString());
-            row.put("User", f.getUserDn() != null ? f.getUserDn() : "");
-            row.put("Name", f.getUserDisplay() != null ? f.getUserDisplay() : "");
-            row.put("Peer Group", f.getPeerGroupValue() != null ? f.getPeerGroupValue() : "");
-            row.put("Anomalous Group", f.getGroupName() != null ? f.getGroupName() : f.getGroupDn());
-            row.put("Peer Match", Math.round(f.getPeerMembershipPct()) + "%");
-            row.put("Severity", f.getSeverity().name());
-            row.put("Status", f.getStatus().name());
-            row.put("Detected", f.getDetectedAt() != null ? f.getDetectedAt().toString() : "");
-            rows.add(row);
+            sink.row(
+                    f.getId().toString(),
+                    f.getUserDn() != null ? f.getUserDn() : "",
+                    f.getUserDisplay() != null ? f.getUserDisplay() : "",
+                    f.getPeerGroupValue() != null ? f.getPeerGroupValue() : "",
+                    f.getGroupName() != null ? f.getGroupName() : f.getGroupDn(),
+                    Math.round(f.getPeerMembershipPct()) + "%",
+                    f.getSeverity().name(),
+                    f.getStatus().name(),
+                    f.getDetectedAt() != null ? f.getDetectedAt().toString() : "");
         }
-        return new ReportData(columns, rows);
     }
 
-    private ReportData runAuditLogReportData(UUID directoryId, Map<String, Object> params) {
+    /** Audit log: all matching events, read from the database a page at a time. */
+    private void runAuditLogReport(UUID directoryId, Map<String, Object> params, ReportRowSink sink) {
         // Parse from/to date params
         OffsetDateTime from = parseDateTime(params, "from");
         OffsetDateTime to = parseDateTime(params, "to");
@@ -627,21 +660,22 @@ public class ReportExecutionService {
             } catch (IllegalArgumentException ignored) { }
         }
 
-        var page = auditEventRepo.findAll(directoryId, null, actionDbValue, null, from, to,
-                org.springframework.data.domain.PageRequest.of(0, MAX_LDAP_RESULTS));
-        List<String> columns = List.of("Time", "Action", "Actor", "Target", "Directory", "Detail");
-        List<Map<String, String>> rows = new ArrayList<>();
-        for (var e : page.getContent()) {
-            Map<String, String> row = new LinkedHashMap<>();
-            row.put("Time", e.getOccurredAt() != null ? e.getOccurredAt().toString() : "");
-            row.put("Action", e.getAction() != null ? e.getAction().name() : "");
-            row.put("Actor", e.getActorUsername() != null ? e.getActorUsername() : "");
-            row.put("Target", e.getTargetDn() != null ? e.getTargetDn() : "");
-            row.put("Directory", e.getDirectoryName() != null ? e.getDirectoryName() : "");
-            row.put("Detail", formatDetail(e.getDetail()));
-            rows.add(row);
-        }
-        return new ReportData(columns, rows);
+        sink.columns(List.of("Time", "Action", "Actor", "Target", "Directory", "Detail"));
+        Pageable pageable = PageRequest.of(0, AUDIT_PAGE_SIZE);
+        Page<AuditEvent> page;
+        do {
+            page = auditEventRepo.findAll(directoryId, null, actionDbValue, null, from, to, pageable);
+            for (var e : page.getContent()) {
+                sink.row(
+                        e.getOccurredAt() != null ? e.getOccurredAt().toString() : "",
+                        e.getAction() != null ? e.getAction().name() : "",
+                        e.getActorUsername() != null ? e.getActorUsername() : "",
+                        e.getTargetDn() != null ? e.getTargetDn() : "",
+                        e.getDirectoryName() != null ? e.getDirectoryName() : "",
+                        formatDetail(e.getDetail()));
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
     }
 
     private String formatDetail(Map<String, Object> detail) {
@@ -672,13 +706,12 @@ public class ReportExecutionService {
         }
     }
 
-    private ReportData runTerminationVelocityData(UUID directoryId, Map<String, Object> params) {
+    private void runTerminationVelocity(UUID directoryId, Map<String, Object> params, ReportRowSink sink) {
         // Find HR connection for this directory
+        sink.columns(List.of("Employee", "Termination Date", "Access Revoked At", "Velocity", "SLA Status"));
         var hrConnOpt = hrConnectionRepo.findByDirectoryId(directoryId);
         if (hrConnOpt.isEmpty()) {
-            return new ReportData(
-                    List.of("Employee", "Termination Date", "Access Revoked At", "Velocity", "SLA Status"),
-                    List.of());
+            return;
         }
         var hrConn = hrConnOpt.get();
 
@@ -709,9 +742,6 @@ public class ReportExecutionService {
                 })
                 .toList();
 
-        List<String> columns = List.of("Employee", "Termination Date", "Access Revoked At", "Velocity", "SLA Status");
-        List<Map<String, String>> rows = new ArrayList<>();
-
         for (var emp : filtered) {
             String empName = emp.getDisplayName() != null && !emp.getDisplayName().isBlank()
                     ? emp.getDisplayName()
@@ -751,16 +781,9 @@ public class ReportExecutionService {
                 slaStatus = hours <= slaHours ? "Pending" : "Overdue";
             }
 
-            Map<String, String> row = new LinkedHashMap<>();
-            row.put("Employee", empName);
-            row.put("Termination Date", termDate.toString());
-            row.put("Access Revoked At", revokedAt != null ? revokedAt.toString() : "");
-            row.put("Velocity", velocity);
-            row.put("SLA Status", slaStatus);
-            rows.add(row);
+            sink.row(empName, termDate.toString(),
+                    revokedAt != null ? revokedAt.toString() : "", velocity, slaStatus);
         }
-
-        return new ReportData(columns, rows);
     }
 
     private String buildGroupFilter(Map<String, Object> params) {
@@ -1,33 +1,53 @@
 package com.ldapadmin.service;
 
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.entity.ApplicationSettings;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Uploads files to S3-compatible object storage using AWS Signature V4.
  *
  * <p>Uses raw {@link HttpURLConnection} with manual signature computation,
  * consistent with the project's pattern of avoiding heavy client SDKs
- * (cf. SMTP via raw sockets in {@link ApprovalNotificationService}).</p>
+ * (cf. SMTP via raw sockets in {@link com.ldapadmin.service.mail.SmtpClient}).</p>
+ *
+ * <p>Small payloads already in memory go through {@link #upload}.  Large
+ * outputs should be written to {@link #openUpload}, which streams them as an
+ * S3 multipart upload: parts of {@code ldapadmin.s3.part-size-mb} are hashed
+ * and signed individually and sent in parallel on the
+ * {@link ExecutorConfig#S3_UPLOAD_EXECUTOR S3 upload executor}, so memory use
+ * is bounded by {@code (upload-parallelism + 1) × part size} regardless of
+ * object size.</p>
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class S3UploadService {
 
     private static final DateTimeFormatter AMZ_DATE_FMT =
@@ -35,9 +55,30 @@ public class S3UploadService {
     private static final DateTimeFormatter DATE_STAMP_FMT =
             DateTimeFormatter.ofPattern("yyyyMMdd");
 
+    /** S3 rejects non-final parts smaller than 5 MiB. */
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+
     private final ApplicationSettingsService appSettingsService;
     private final EncryptionService encryptionService;
 
+    @Value("${ldapadmin.s3.part-size-mb:8}")
+    private int partSizeMb;
+
+    @Value("${ldapadmin.s3.upload-parallelism:4}")
+    private int uploadParallelism;
+
+    private final AsyncTaskExecutor partExecutor;
+
+    public S3UploadService(ApplicationSettingsService appSettingsService,
+                           EncryptionService encryptionService,
+                           @Qualifier(ExecutorConfig.S3_UPLOAD_EXECUTOR) AsyncTaskExecutor partExecutor) {
+        this.appSettingsService = appSettingsService;
+        this.encryptionService  = encryptionService;
+        this.partExecutor       = partExecutor;
+    }
+
     /**
      * Uploads {@code data} to the configured S3 bucket under {@code objectKey}.
      *
@@ -48,87 +89,28 @@ public class S3UploadService {
      * @throws IllegalStateException    if S3 is not configured
      */
     public void upload(String objectKey, byte[] data, String contentType) throws IOException {
-        ApplicationSettings settings = appSettingsService.getEntity();
-        validateS3Config(settings);
+        Target target = resolveTarget();
+        String normKey = normaliseKey(objectKey);
 
-        String secretKey = encryptionService.decrypt(settings.getS3SecretKeyEncrypted());
-        String accessKey = settings.getS3AccessKey();
-        String region = settings.getS3Region() != null ? settings.getS3Region() : "us-east-1";
-        String bucket = settings.getS3BucketName();
-        String endpoint = settings.getS3EndpointUrl();
-
-        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        String amzDate = now.format(AMZ_DATE_FMT);
-        String dateStamp = now.format(DATE_STAMP_FMT);
-
-        // Normalise object key (strip leading slash)
-        String normKey = objectKey.startsWith("/") ? objectKey.substring(1) : objectKey;
-
-        // Build URL: path-style addressing for compatibility with S3-compatible stores
-        String url = buildUrl(endpoint, bucket, normKey);
-        URI uri = URI.create(url);
-        String host = uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
-
-        // Hash the payload
-        String payloadHash = sha256Hex(data);
-
-        // Canonical request
-        String canonicalUri = "/" + bucket + "/" + normKey;
-        // For custom endpoints that already include the bucket, use just the key
-        if (endpoint != null && !endpoint.contains("amazonaws.com")) {
-            canonicalUri = "/" + normKey;
-        }
-        String canonicalQueryString = "";
-        String canonicalHeaders =
-                "content-type:" + contentType + "\n"
-                + "host:" + host + "\n"
-                + "x-amz-content-sha256:" + payloadHash + "\n"
-                + "x-amz-date:" + amzDate + "\n";
-        String signedHeaders = "content-type;host;x-amz-content-sha256;x-amz-date";
-        String canonicalRequest = "PUT\n" + canonicalUri + "\n" + canonicalQueryString + "\n"
-                + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
-
-        // String to sign
-        String credentialScope = dateStamp + "/" + region + "/s3/aws4_request";
-        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n"
-                + credentialScope + "\n" + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
-
-        // Signing key
-        byte[] signingKey = getSignatureKey(secretKey, dateStamp, region, "s3");
-        String signature = hmacSha256Hex(signingKey, stringToSign);
-
-        // Authorization header
-        String authorization = "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + credentialScope
-                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
-
-        // Execute request
-        HttpURLConnection conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
-        conn.setRequestMethod("PUT");
-        conn.setDoOutput(true);
-        conn.setConnectTimeout(10_000);
-        conn.setReadTimeout(30_000);
-        conn.setRequestProperty("Content-Type", contentType);
-        conn.setRequestProperty("Host", host);
-        conn.setRequestProperty("x-amz-content-sha256", payloadHash);
-        conn.setRequestProperty("x-amz-date", amzDate);
-        conn.setRequestProperty("Authorization", authorization);
-        conn.setRequestProperty("Content-Length", String.valueOf(data.length));
-
-        try (OutputStream os = conn.getOutputStream()) {
-            os.write(data);
-        }
-
-        int responseCode = conn.getResponseCode();
-        if (responseCode < 200 || responseCode >= 300) {
-            String errorBody = "";
-            try {
-                errorBody = new String(conn.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
-            } catch (Exception ignored) { }
-            throw new IOException("S3 upload failed with HTTP " + responseCode
-                    + " for key '" + normKey + "': " + errorBody);
-        }
+        target.execute("PUT", normKey, "", contentType, data, data.length);
 
-        log.info("Uploaded report to S3: bucket={}, key={}, size={} bytes", bucket, normKey, data.length);
+        log.info("Uploaded report to S3: bucket={}, key={}, size={} bytes", target.bucket, normKey, data.length);
+    }
+
+    /**
+     * Opens a streaming upload to {@code objectKey}.
+     *
+     * <p>Bytes written are sent as they accumulate; the object becomes visible
+     * on {@link Upload#close()}.  If the producer fails, call
+     * {@link Upload#abort()} instead so that no truncated object is created.
+     * Objects smaller than one part are sent as a single PUT.</p>
+     *
+     * @throws IllegalStateException if S3 is not configured
+     */
+    public Upload openUpload(String objectKey, String contentType) {
+        Target target = resolveTarget();
+        int partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+        return new Upload(target, normaliseKey(objectKey), contentType, partSize, Math.max(1, uploadParallelism));
     }
 
     /**
@@ -142,8 +124,288 @@ public class S3UploadService {
                 && settings.getS3SecretKeyEncrypted() != null;
     }
 
+    // ── Streaming multipart upload ────────────────────────────────────────────
+
+    /**
+     * {@link OutputStream} that writes an S3 object via multipart upload.
+     * Not thread-safe: one producer writes, part uploads run in the background.
+     */
+    public class Upload extends OutputStream {
+
+        private final Target       target;
+        private final String       key;
+        private final String       contentType;
+        private final int          partSize;
+        private final Semaphore    inFlight;
+        private final List<Future<String>> parts = new ArrayList<>();
+
+        private byte[]  buffer;
+        private int     pos;
+        private long    total;
+        private String  uploadId;
+        private boolean closed;
+
+        private Upload(Target target, String key, String contentType, int partSize, int parallelism) {
+            this.target      = target;
+            this.key         = key;
+            this.contentType = contentType;
+            this.partSize    = partSize;
+            this.inFlight    = new Semaphore(parallelism);
+            this.buffer      = new byte[partSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            buffer[pos++] = (byte) b;
+            if (pos == partSize) sendPart();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            while (len > 0) {
+                int n = Math.min(len, partSize - pos);
+                System.arraycopy(b, off, buffer, pos, n);
+                pos += n;
+                off += n;
+                len -= n;
+                if (pos == partSize) sendPart();
+            }
+        }
+
+        /** Completes the upload; the object exists once this returns. */
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                if (uploadId == null) {
+                    // Fits in one part — plain PUT, no multipart overhead
+                    target.execute("PUT", key, "", contentType, buffer, pos);
+                    total = pos;
+                    pos = 0;
+                } else {
+                    if (pos > 0) sendPart();
+                    complete();
+                }
+                buffer = null;
+                log.info("Uploaded to S3: bucket={}, key={}, size={} bytes, parts={}",
+                        target.bucket, key, total, Math.max(1, parts.size()));
+            } catch (IOException | RuntimeException ex) {
+                abortQuietly();
+                throw ex;
+            }
+        }
+
+        /** Discards everything written so far; no object is created. */
+        public void abort() {
+            if (closed) return;
+            closed = true;
+            buffer = null;
+            abortQuietly();
+        }
+
+        /** Bytes accepted so far. */
+        public long bytesWritten() {
+            return total + pos;
+        }
+
+        private void sendPart() throws IOException {
+            if (uploadId == null) {
+                uploadId = initiate();
+            }
+            checkFailedParts();
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for S3 part upload");
+            }
+            byte[] data = buffer;
+            int    len  = pos;
+            int    partNumber = parts.size() + 1;
+            String query = "partNumber=" + partNumber + "&uploadId=" + encode(uploadId);
+            parts.add(partExecutor.submit(() -> {
+                try {
+                    return target.execute("PUT", key, query, null, data, len).etag();
+                } finally {
+                    inFlight.release();
+                }
+            }));
+            total += len;
+            buffer = new byte[partSize];
+            pos = 0;
+        }
+
+        private String initiate() throws IOException {
+            Response r = target.execute("POST", key, "uploads=", contentType, new byte[0], 0);
+            Matcher m = UPLOAD_ID.matcher(r.body());
+            if (!m.find()) {
+                throw new IOException("S3 did not return an UploadId for key '" + key + "'");
+            }
+            return m.group(1);
+        }
+
+        private void complete() throws IOException {
+            StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < parts.size(); i++) {
+                xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                        .append(await(parts.get(i))).append("</ETag></Part>");
+            }
+            xml.append("</CompleteMultipartUpload>");
+            byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+            Response r = target.execute("POST", key, "uploadId=" + encode(uploadId),
+                    "application/xml", body, body.length);
+            // S3 may report a failed completion with HTTP 200 and an <Error> body
+            if (r.body().contains("<Error>")) {
+                throw new IOException("S3 multipart completion failed for key '" + key + "': " + r.body());
+            }
+        }
+
+        private void checkFailedParts() throws IOException {
+            for (Future<String> f : parts) {
+                if (f.isDone()) await(f);
+            }
+        }
+
+        private String await(Future<String> f) throws IOException {
+            try {
+                return f.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for S3 part upload");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof IOException io) throw io;
+                throw new IOException("S3 part upload failed: " + cause.getMessage(), cause);
+            }
+        }
+
+        private void abortQuietly() {
+            parts.forEach(f -> f.cancel(true));
+            if (uploadId == null) return;
+            try {
+                target.execute("DELETE", key, "uploadId=" + encode(uploadId), null, new byte[0], 0);
+                log.warn("Aborted S3 multipart upload: bucket={}, key={}", target.bucket, key);
+            } catch (IOException ex) {
+                log.warn("Failed to abort S3 multipart upload for key '{}': {}", key, ex.getMessage());
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) throw new IOException("S3 upload already closed");
+        }
+    }
+
+    // ── Signed requests ───────────────────────────────────────────────────────
+
+    private record Response(String body, String etag) {}
+
+    /** Resolved connection settings; the secret key is decrypted once per upload. */
+    private record Target(String accessKey, String secretKey, String region, String bucket, String endpoint) {
+
+        /**
+         * Sends one SigV4-signed request.
+         *
+         * @param query canonical query string (parameters sorted, values encoded), or ""
+         */
+        Response execute(String method, String normKey, String query, String contentType,
+                         byte[] data, int length) throws IOException {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            String amzDate = now.format(AMZ_DATE_FMT);
+            String dateStamp = now.format(DATE_STAMP_FMT);
+
+            // Build URL: path-style addressing for compatibility with S3-compatible stores
+            String url = buildUrl(endpoint, bucket, normKey) + (query.isEmpty() ? "" : "?" + query);
+            URI uri = URI.create(url);
+            String host = uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+
+            // Hash the payload (per request, so each multipart part is signed on its own)
+            String payloadHash = sha256Hex(data, length);
+
+            // Canonical request
+            String canonicalUri = "/" + bucket + "/" + normKey;
+            // For custom endpoints that already include the bucket, use just the key
+            if (endpoint != null && !endpoint.contains("amazonaws.com")) {
+                canonicalUri = "/" + normKey;
+            }
+            String canonicalHeaders =
+                    (contentType != null ? "content-type:" + contentType + "\n" : "")
+                    + "host:" + host + "\n"
+                    + "x-amz-content-sha256:" + payloadHash + "\n"
+                    + "x-amz-date:" + amzDate + "\n";
+            String signedHeaders = (contentType != null ? "content-type;" : "")
+                    + "host;x-amz-content-sha256;x-amz-date";
+            String canonicalRequest = method + "\n" + canonicalUri + "\n" + query + "\n"
+                    + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+
+            // String to sign
+            String credentialScope = dateStamp + "/" + region + "/s3/aws4_request";
+            String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n"
+                    + credentialScope + "\n" + sha256Hex(canonicalRequest);
+
+            // Signing key
+            byte[] signingKey = getSignatureKey(secretKey, dateStamp, region, "s3");
+            String signature = hmacSha256Hex(signingKey, stringToSign);
+
+            // Authorization header
+            String authorization = "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + credentialScope
+                    + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+
+            // Execute request
+            HttpURLConnection conn = (HttpURLConnection) uri.toURL().openConnection();
+            try {
+                conn.setRequestMethod(method);
+                conn.setConnectTimeout(10_000);
+                conn.setReadTimeout(60_000);
+                if (contentType != null) conn.setRequestProperty("Content-Type", contentType);
+                conn.setRequestProperty("Host", host);
+                conn.setRequestProperty("x-amz-content-sha256", payloadHash);
+                conn.setRequestProperty("x-amz-date", amzDate);
+                conn.setRequestProperty("Authorization", authorization);
+
+                if (!"DELETE".equals(method)) {
+                    conn.setDoOutput(true);
+                    conn.setFixedLengthStreamingMode(length);
+                    try (OutputStream os = conn.getOutputStream()) {
+                        os.write(data, 0, length);
+                    }
+                }
+
+                int responseCode = conn.getResponseCode();
+                if (responseCode < 200 || responseCode >= 300) {
+                    String errorBody = "";
+                    try (InputStream err = conn.getErrorStream()) {
+                        if (err != null) errorBody = new String(err.readAllBytes(), StandardCharsets.UTF_8);
+                    } catch (Exception ignored) { }
+                    throw new IOException("S3 " + method + " failed with HTTP " + responseCode
+                            + " for key '" + normKey + "': " + errorBody);
+                }
+                String body;
+                try (InputStream in = conn.getInputStream()) {
+                    body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                return new Response(body, conn.getHeaderField("ETag"));
+            } finally {
+                conn.disconnect();
+            }
+        }
+    }
+
     // ── Private helpers ───────────────────────────────────────────────────────
 
+    private Target resolveTarget() {
+        ApplicationSettings settings = appSettingsService.getEntity();
+        validateS3Config(settings);
+        return new Target(
+                settings.getS3AccessKey(),
+                encryptionService.decrypt(settings.getS3SecretKeyEncrypted()),
+                settings.getS3Region() != null ? settings.getS3Region() : "us-east-1",
+                settings.getS3BucketName(),
+                settings.getS3EndpointUrl());
+    }
+
     private void validateS3Config(ApplicationSettings settings) {
         if (settings.getS3EndpointUrl() == null || settings.getS3EndpointUrl().isBlank()) {
             throw new IllegalStateException("S3 endpoint URL is not configured");
@@ -159,7 +421,12 @@ public class S3UploadService {
         }
     }
 
-    private String buildUrl(String endpoint, String bucket, String key) {
+    /** Normalise object key (strip leading slash). */
+    private static String normaliseKey(String objectKey) {
+        return objectKey.startsWith("/") ? objectKey.substring(1) : objectKey;
+    }
+
+    private static String buildUrl(String endpoint, String bucket, String key) {
         String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
         if (base.contains("amazonaws.com")) {
             // Path-style: https://s3.region.amazonaws.com/bucket/key
@@ -169,17 +436,24 @@ public class S3UploadService {
         return base + "/" + key;
     }
 
-    private static String sha256Hex(byte[] data) {
+    /** SigV4 query-string encoding (RFC 3986 unreserved characters kept). */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20").replace("%7E", "~");
+    }
+
+    private static String sha256Hex(byte[] data, int length) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            return HexFormat.of().formatHex(digest.digest(data));
+            digest.update(data, 0, length);
+            return HexFormat.of().formatHex(digest.digest());
         } catch (Exception e) {
             throw new RuntimeException("SHA-256 not available", e);
         }
     }
 
     private static String sha256Hex(String data) {
-        return sha256Hex(data.getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        return sha256Hex(bytes, bytes.length);
     }
 
     private static byte[] hmacSha256(byte[] key, String data) {
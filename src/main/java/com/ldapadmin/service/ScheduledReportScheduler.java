@@ -1,34 +1,63 @@
 package com.ldapadmin.service;
 
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.ScheduledReportJob;
 import com.ldapadmin.entity.enums.DeliveryMethod;
 import com.ldapadmin.entity.enums.OutputFormat;
 import com.ldapadmin.repository.ScheduledReportJobRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Polls enabled {@link ScheduledReportJob} records and executes them when
  * their cron expression indicates they are due.
+ *
+ * <p>The poll only queues due jobs; the
+ * {@link ExecutorConfig#REPORT_EXECUTOR report executor} runs as many at once
+ * as it has threads, most overdue first,
+ * with at most {@code ldapadmin.report.per-directory-limit} jobs against the
+ * same directory at once.  A job still running after
+ * {@code ldapadmin.report.job-timeout-minutes} is interrupted and recorded
+ * as failed.</p>
+ *
+ * <p>Publishes {@code ldapadmin.report.jobs.queued|running} gauges and
+ * {@code ldapadmin.report.jobs.wait|duration} timers, the latter tagged with
+ * the outcome ({@code success}, {@code failure}, {@code timeout}).</p>
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class ScheduledReportScheduler {
 
     private static final DateTimeFormatter FILE_DATE_FMT =
@@ -39,10 +68,62 @@ public class ScheduledReportScheduler {
     private final ReportExecutionService       reportExecService;
     private final ApprovalNotificationService  notificationService;
     private final S3UploadService              s3UploadService;
+    private final MeterRegistry                meterRegistry;
+    private final int                          workers;
+    private final int                          perDirectoryLimit;
+    private final Duration                     jobTimeout;
 
-    /** Tracks jobs currently executing to prevent concurrent runs of the same job. */
+    /** Tracks jobs queued or executing to prevent concurrent runs of the same job. */
     private final Set<UUID> inProgress = ConcurrentHashMap.newKeySet();
 
+    /** Due jobs waiting for a worker, most overdue first; guarded by {@code this}. */
+    private final PriorityQueue<QueuedJob> queue = new PriorityQueue<>(
+            Comparator.comparing(QueuedJob::overdue).reversed().thenComparingLong(QueuedJob::sequence));
+
+    /** Running jobs per directory; guarded by {@code this}. */
+    private final Map<UUID, Integer> runningByDirectory = new HashMap<>();
+    private int running;
+    private long sequence;
+
+    private final Executor executor;
+    private final ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "report-job-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Timer waitTimer;
+
+    public ScheduledReportScheduler(ScheduledReportJobRepository jobRepo,
+                                    ScheduledReportJobService jobService,
+                                    ReportExecutionService reportExecService,
+                                    ApprovalNotificationService notificationService,
+                                    S3UploadService s3UploadService,
+                                    MeterRegistry meterRegistry,
+                                    @Qualifier(ExecutorConfig.REPORT_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                    @Value("${ldapadmin.report.per-directory-limit:2}") int perDirectoryLimit,
+                                    @Value("${ldapadmin.report.job-timeout-minutes:30}") long jobTimeoutMinutes) {
+        this.jobRepo             = jobRepo;
+        this.jobService          = jobService;
+        this.reportExecService   = reportExecService;
+        this.notificationService = notificationService;
+        this.s3UploadService     = s3UploadService;
+        this.meterRegistry       = meterRegistry;
+        this.executor            = executor;
+        this.workers             = Math.max(1, executor.getMaxPoolSize());
+        this.perDirectoryLimit   = Math.max(1, perDirectoryLimit);
+        this.jobTimeout          = Duration.ofMinutes(jobTimeoutMinutes);
+
+        Gauge.builder("ldapadmin.report.jobs.queued", this, s -> s.queuedCount())
+                .description("Due report jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ldapadmin.report.jobs.running", this, s -> s.runningCount())
+                .description("Report jobs currently executing")
+                .register(meterRegistry);
+        this.waitTimer = meterRegistry.timer("ldapadmin.report.jobs.wait");
+        watchdog.setRemoveOnCancelPolicy(true);
+    }
+
     @Scheduled(fixedDelayString = "${ldapadmin.report.poll-interval-ms:60000}",
                initialDelayString = "${ldapadmin.report.poll-initial-delay-ms:30000}")
     public void pollReportJobs() {
@@ -52,25 +133,23 @@ public class ScheduledReportScheduler {
                 log.debug("Skipping report job '{}' ({}): already in progress", job.getName(), job.getId());
                 continue;
             }
-            try {
-                if (isDue(job)) {
-                    log.info("Executing scheduled report job '{}' ({})",
-                            job.getName(), job.getId());
-                    executeJob(job);
-                }
-            } catch (Exception e) {
-                log.error("Error executing scheduled report job '{}' ({}): {}",
-                        job.getName(), job.getId(), e.getMessage());
-                jobService.recordRunResult(job.getId(), "FAILURE", e.getMessage());
+            Duration overdue = overdueBy(job);
+            if (overdue != null) {
+                enqueue(job, overdue);
             }
         }
+        dispatch();
     }
 
     /**
-     * Executes a specific job immediately (used by "run now" endpoint).
+     * Queues a specific job ahead of scheduled ones (used by "run now" endpoint).
+     *
+     * @return {@code false} if the job is already queued or running
      */
-    public void executeJobNow(ScheduledReportJob job) {
-        executeJob(job);
+    public boolean executeJobNow(ScheduledReportJob job) {
+        boolean queued = enqueue(job, ChronoUnit.FOREVER.getDuration());
+        dispatch();
+        return queued;
     }
 
     /**
@@ -78,64 +157,184 @@ public class ScheduledReportScheduler {
      * expression against the last run timestamp, using the job's configured timezone.
      */
     public boolean isDue(ScheduledReportJob job) {
-        try {
-            CronExpression cron = CronExpression.parse(job.getCronExpression());
-            OffsetDateTime lastRun = job.getLastRunAt();
+        return overdueBy(job) != null;
+    }
+
+    /** Jobs waiting for a worker. */
+    public synchronized int queuedCount() {
+        return queue.size();
+    }
+
+    /** Jobs currently executing. */
+    public synchronized int runningCount() {
+        return running;
+    }
 
-            if (lastRun == null) return true;
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────────
 
+    /**
+     * How long ago the job's next execution after its last run fell due, or
+     * {@code null} if it is not due.  A job that never ran is due, counted
+     * from its creation.
+     */
+    private Duration overdueBy(ScheduledReportJob job) {
+        try {
+            CronExpression cron = CronExpression.parse(job.getCronExpression());
             ZoneId zone = job.getTimezone() != null && !job.getTimezone().isBlank()
                     ? ZoneId.of(job.getTimezone()) : ZoneOffset.UTC;
-
-            LocalDateTime lastRunLocal = lastRun.atZoneSameInstant(zone).toLocalDateTime();
-            LocalDateTime nextExecution = cron.next(lastRunLocal);
             LocalDateTime now = LocalDateTime.now(zone);
 
-            return nextExecution != null && !nextExecution.isAfter(now);
+            OffsetDateTime lastRun = job.getLastRunAt();
+            OffsetDateTime reference = lastRun != null ? lastRun : job.getCreatedAt();
+            LocalDateTime nextExecution = reference != null
+                    ? cron.next(reference.atZoneSameInstant(zone).toLocalDateTime()) : null;
+
+            if (lastRun == null) {
+                return nextExecution != null && nextExecution.isBefore(now)
+                        ? Duration.between(nextExecution, now) : Duration.ZERO;
+            }
+            return nextExecution != null && !nextExecution.isAfter(now)
+                    ? Duration.between(nextExecution, now) : null;
         } catch (Exception e) {
             log.warn("Invalid cron expression '{}' for report job '{}' ({}): {}",
                     job.getCronExpression(), job.getName(), job.getId(), e.getMessage());
-            return false;
+            return null;
         }
     }
 
-    // ── Private helpers ───────────────────────────────────────────────────────
-
-    private void executeJob(ScheduledReportJob job) {
+    private synchronized boolean enqueue(ScheduledReportJob job, Duration overdue) {
         if (!inProgress.add(job.getId())) {
-            log.warn("Report job '{}' is already running — skipping", job.getName());
-            return;
+            log.warn("Report job '{}' is already queued or running — skipping", job.getName());
+            return false;
         }
+        queue.add(new QueuedJob(job, overdue, sequence++, System.nanoTime()));
+        return true;
+    }
 
-        DirectoryConnection dc = job.getDirectory();
-        try {
-            byte[] reportData = reportExecService.run(
-                    dc, job.getReportType(), job.getReportParams(),
-                    job.getOutputFormat(), dc.getId());
+    /** Starts queued jobs, most overdue first, while workers and directory slots are free. */
+    private synchronized void dispatch() {
+        List<QueuedJob> blocked = new ArrayList<>();
+        while (running < workers && !queue.isEmpty()) {
+            QueuedJob next = queue.poll();
+            UUID directoryId = next.job().getDirectory().getId();
+            if (runningByDirectory.getOrDefault(directoryId, 0) >= perDirectoryLimit) {
+                blocked.add(next);
+                continue;
+            }
+            running++;
+            runningByDirectory.merge(directoryId, 1, Integer::sum);
+            waitTimer.record(System.nanoTime() - next.enqueuedAt(), TimeUnit.NANOSECONDS);
+            start(next.job());
+        }
+        queue.addAll(blocked);
+    }
 
-            deliver(job, reportData);
+    private void start(ScheduledReportJob job) {
+        RunningJob run = new RunningJob(job);
+        run.deadline = watchdog.schedule(run::timeOut, jobTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        executor.execute(run);
+    }
+
+    private void executeJob(RunningJob run) {
+        ScheduledReportJob job = run.job;
+        log.info("Executing scheduled report job '{}' ({})", job.getName(), job.getId());
+        long startedAt = System.nanoTime();
+        String outcome = "success";
+        try {
+            if (run.timedOut) {
+                throw new CancellationException("Timed out before starting");
+            }
+            long size = deliver(job);
 
             jobService.recordRunResult(job.getId(), "SUCCESS",
-                    "Report generated and delivered (" + reportData.length + " bytes)");
+                    "Report generated and delivered (" + size + " bytes)");
         } catch (Exception e) {
-            log.error("Failed to execute report job '{}': {}", job.getName(), e.getMessage(), e);
-            jobService.recordRunResult(job.getId(), "FAILURE",
-                    truncate(e.getMessage(), 2000));
+            if (run.timedOut) {
+                outcome = "timeout";
+                log.error("Report job '{}' timed out after {}", job.getName(), jobTimeout);
+                jobService.recordRunResult(job.getId(), "FAILURE",
+                        "Timed out after " + jobTimeout.toMinutes() + " minutes");
+            } else {
+                outcome = "failure";
+                log.error("Failed to execute report job '{}': {}", job.getName(), e.getMessage(), e);
+                jobService.recordRunResult(job.getId(), "FAILURE",
+                        truncate(e.getMessage(), 2000));
+            }
         } finally {
+            run.deadline.cancel(false);
+            meterRegistry.timer("ldapadmin.report.jobs.duration", "outcome", outcome)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void finished(ScheduledReportJob job) {
+        synchronized (this) {
+            running--;
+            runningByDirectory.computeIfPresent(job.getDirectory().getId(), (id, n) -> n > 1 ? n - 1 : null);
             inProgress.remove(job.getId());
         }
+        dispatch();
     }
 
-    private void deliver(ScheduledReportJob job, byte[] data) throws Exception {
+    /** One execution; interrupted by the watchdog if it outlives the job timeout. */
+    private final class RunningJob implements Runnable {
+        private final ScheduledReportJob job;
+        private ScheduledFuture<?> deadline;
+        private volatile boolean timedOut;
+        private Thread worker;
+        private boolean done;
+
+        RunningJob(ScheduledReportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                worker = Thread.currentThread();
+            }
+            try {
+                executeJob(this);
+            } finally {
+                synchronized (this) {
+                    done = true;
+                    worker = null;
+                    Thread.interrupted(); // don't leak a late interrupt into the next job
+                }
+                finished(job);
+            }
+        }
+
+        synchronized void timeOut() {
+            if (done) return;
+            log.warn("Report job '{}' ({}) exceeded {} — cancelling", job.getName(), job.getId(), jobTimeout);
+            timedOut = true;
+            if (worker != null) worker.interrupt();
+        }
+    }
+
+    private record QueuedJob(ScheduledReportJob job, Duration overdue, long sequence, long enqueuedAt) {}
+
+    /** Generates and delivers the report; returns its size in bytes. */
+    private long deliver(ScheduledReportJob job) throws Exception {
         String fileName = buildFileName(job);
         String contentType = job.getOutputFormat() == OutputFormat.PDF
                 ? "application/pdf" : "text/csv";
 
         if (job.getDeliveryMethod() == DeliveryMethod.S3) {
-            deliverToS3(job, data, fileName, contentType);
-        } else {
-            deliverByEmail(job, data, fileName, contentType);
+            return deliverToS3(job, fileName, contentType);
         }
+        DirectoryConnection dc = job.getDirectory();
+        byte[] data = reportExecService.run(
+                dc, job.getReportType(), job.getReportParams(),
+                job.getOutputFormat(), dc.getId());
+        deliverByEmail(job, data, fileName, contentType);
+        return data.length;
     }
 
     private void deliverByEmail(ScheduledReportJob job, byte[] data,
@@ -172,8 +371,11 @@ public class ScheduledReportScheduler {
         log.info("Delivered report '{}' via email to {}", job.getName(), recipients);
     }
 
-    private void deliverToS3(ScheduledReportJob job, byte[] data,
-                              String fileName, String contentType) throws Exception {
+    /**
+     * Streams the report straight into a multipart S3 upload so large exports
+     * are never held in memory as a single array.
+     */
+    private long deliverToS3(ScheduledReportJob job, String fileName, String contentType) throws Exception {
         if (!s3UploadService.isConfigured()) {
             throw new IllegalStateException(
                     "S3 storage is not configured — cannot deliver report '" + job.getName() + "'");
@@ -184,9 +386,19 @@ public class ScheduledReportScheduler {
         if (!prefix.isEmpty() && !prefix.endsWith("/")) prefix += "/";
 
         String objectKey = prefix + fileName;
-        s3UploadService.upload(objectKey, data, contentType);
+        DirectoryConnection dc = job.getDirectory();
+        S3UploadService.Upload upload = s3UploadService.openUpload(objectKey, contentType);
+        try {
+            reportExecService.run(dc, job.getReportType(), job.getReportParams(),
+                    job.getOutputFormat(), dc.getId(), upload);
+            upload.close();
+        } catch (Exception e) {
+            upload.abort();
+            throw e;
+        }
 
         log.info("Delivered report '{}' to S3: {}", job.getName(), objectKey);
+        return upload.bytesWritten();
     }
 
     private String buildFileName(ScheduledReportJob job) {
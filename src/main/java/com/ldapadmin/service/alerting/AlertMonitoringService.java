@@ -1,29 +1,56 @@
 package com.ldapadmin.service.alerting;
 
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.entity.AlertInstance;
 import com.ldapadmin.entity.AlertRule;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AlertStatus;
+import com.ldapadmin.ldap.DirectoryReachabilityEvent;
 import com.ldapadmin.repository.AlertInstanceRepository;
 import com.ldapadmin.repository.AlertRuleRepository;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.service.ApprovalNotificationService;
+import com.ldapadmin.service.AuditRecordedEvent;
 import com.ldapadmin.service.NotificationService;
 import com.ldapadmin.entity.enums.FeatureKey;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.OffsetDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 
 /**
- * Orchestrator that periodically evaluates all enabled alert rules,
- * creates alert instances for new findings, and sends notifications.
+ * Orchestrator that evaluates enabled alert rules, creates alert instances
+ * for new findings, and sends notifications.
+ *
+ * <p>All rules are evaluated on a schedule, on the
+ * {@link ExecutorConfig#ALERT_EXECUTOR alert executor}.  Rules handled by an
+ * {@link EventDrivenAlertChecker} are also applied to audit and directory
+ * reachability events as they are published, so those alerts fire within
+ * seconds; the findings are persisted on the notification executor.</p>
+ *
+ * <p>Deduplication keeps an in-memory index of when each rule's finding
+ * may next fire, so a finding still within its cooldown costs no queries.
+ * The index is seeded from the latest stored instance on first sight and
+ * pruned on every scheduled run.</p>
  */
 @Service
 @Slf4j
@@ -34,19 +61,34 @@ public class AlertMonitoringService {
     private final DirectoryConnectionRepository dirRepo;
     private final NotificationService notificationService;
     private final ApprovalNotificationService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final Executor evaluators;
     private final Map<String, AlertChecker> checkerRegistry = new HashMap<>();
 
+    /** Rule ID and context key → epoch millis before which the finding is a duplicate. */
+    private final Map<String, Long> cooldownUntil = new ConcurrentHashMap<>();
+
+    /** Enabled event-driven rules by directory; {@code null} until first needed. */
+    private volatile Map<UUID, List<AlertRule>> eventRules;
+
     public AlertMonitoringService(AlertRuleRepository ruleRepo,
                                    AlertInstanceRepository instanceRepo,
                                    DirectoryConnectionRepository dirRepo,
                                    NotificationService notificationService,
                                    ApprovalNotificationService emailService,
-                                   List<AlertChecker> checkers) {
+                                   ApplicationEventPublisher eventPublisher,
+                                   List<AlertChecker> checkers,
+                                   @Qualifier(ExecutorConfig.NOTIFICATION_EXECUTOR) Executor executor,
+                                   @Qualifier(ExecutorConfig.ALERT_EXECUTOR) Executor evaluators) {
         this.ruleRepo = ruleRepo;
         this.instanceRepo = instanceRepo;
         this.dirRepo = dirRepo;
         this.notificationService = notificationService;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.evaluators = evaluators;
 
         for (AlertChecker checker : checkers) {
             checkerRegistry.put(checker.ruleType().name(), checker);
@@ -58,19 +100,26 @@ public class AlertMonitoringService {
     @Scheduled(cron = "${ldapadmin.monitoring.cron:0 */15 * * * ?}")
     public void evaluate() {
         List<AlertRule> rules = ruleRepo.findAllByEnabledTrue();
+        eventRules = indexEventRules(rules);
+        long now = System.currentTimeMillis();
+        cooldownUntil.values().removeIf(until -> until <= now);
         if (rules.isEmpty()) return;
 
-        int fired = 0;
-        for (AlertRule rule : rules) {
-            try {
-                fired += evaluateRule(rule);
-            } catch (Exception e) {
-                log.warn("Alert checker failed for rule {} ({}): {}",
-                        rule.getId(), rule.getRuleType(), e.getMessage());
-            }
-        }
-        if (fired > 0) {
-            log.info("Alert evaluation complete: {} new alert(s) fired from {} rule(s)", fired, rules.size());
+        AtomicInteger fired = new AtomicInteger();
+        CompletableFuture<?>[] runs = rules.stream()
+                .map(rule -> CompletableFuture.runAsync(() -> {
+                    try {
+                        fired.addAndGet(evaluateRule(rule));
+                    } catch (Exception e) {
+                        log.warn("Alert checker failed for rule {} ({}): {}",
+                                rule.getId(), rule.getRuleType(), e.getMessage());
+                    }
+                }, evaluators))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(runs).join();
+        if (fired.get() > 0) {
+            log.info("Alert evaluation complete: {} new alert(s) fired from {} rule(s)", fired.get(), rules.size());
+            eventPublisher.publishEvent(new AlertsChangedEvent());
         }
     }
 
@@ -88,9 +137,85 @@ public class AlertMonitoringService {
             if (dc == null || !dc.isEnabled()) return 0;
         }
 
-        List<AlertChecker.AlertCandidate> candidates = checker.evaluate(dc, rule);
-        int fired = 0;
+        return fire(rule, dc, checker.evaluate(dc, rule));
+    }
+
+    // ── Event-driven evaluation ───────────────────────────────────────────────
+
+    /** After commit, so only audit events that were actually stored are counted. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditRecorded(AuditRecordedEvent event) {
+        dispatch(event.directoryId(), (checker, rule) -> checker.onAuditRecorded(event, rule));
+    }
+
+    @EventListener
+    public void onReachabilityChanged(DirectoryReachabilityEvent event) {
+        dispatch(event.directoryId(), (checker, rule) -> checker.onReachabilityChanged(event, rule));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRulesChanged(AlertRulesChangedEvent event) {
+        eventRules = null;
+    }
+
+    private void dispatch(UUID directoryId,
+                          BiFunction<EventDrivenAlertChecker, AlertRule, List<AlertChecker.AlertCandidate>> check) {
+        if (directoryId == null) return;
+        Map<UUID, List<AlertRule>> index = eventRules;
+        if (index == null) {
+            index = indexEventRules(ruleRepo.findAllByEnabledTrue());
+            eventRules = index;
+        }
+        for (AlertRule rule : index.getOrDefault(directoryId, List.of())) {
+            List<AlertChecker.AlertCandidate> candidates;
+            try {
+                candidates = check.apply((EventDrivenAlertChecker) checkerRegistry.get(rule.getRuleType().name()), rule);
+            } catch (RuntimeException e) {
+                log.warn("Event-driven alert check failed for rule {} ({}): {}",
+                        rule.getId(), rule.getRuleType(), e.getMessage());
+                continue;
+            }
+            if (!candidates.isEmpty()) {
+                fireLater(rule, directoryId, candidates);
+            }
+        }
+    }
+
+    private void fireLater(AlertRule rule, UUID directoryId, List<AlertChecker.AlertCandidate> candidates) {
+        try {
+            executor.execute(() -> {
+                try {
+                    DirectoryConnection dc = dirRepo.findById(directoryId).orElse(null);
+                    if (dc == null || !dc.isEnabled()) return;
+                    if (fire(rule, dc, candidates) > 0) {
+                        eventPublisher.publishEvent(new AlertsChangedEvent());
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to raise alert for rule {} ({}): {}",
+                            rule.getId(), rule.getRuleType(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The scheduled evaluation will pick the finding up
+            log.debug("Alert for rule {} deferred to the next evaluation: executor saturated", rule.getId());
+        }
+    }
+
+    private Map<UUID, List<AlertRule>> indexEventRules(List<AlertRule> rules) {
+        Map<UUID, List<AlertRule>> index = new HashMap<>();
+        for (AlertRule rule : rules) {
+            if (rule.getDirectory() != null
+                    && checkerRegistry.get(rule.getRuleType().name()) instanceof EventDrivenAlertChecker) {
+                index.computeIfAbsent(rule.getDirectory().getId(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+        return index;
+    }
 
+    // ── Firing ────────────────────────────────────────────────────────────────
+
+    private int fire(AlertRule rule, DirectoryConnection dc, List<AlertChecker.AlertCandidate> candidates) {
+        int fired = 0;
         for (AlertChecker.AlertCandidate candidate : candidates) {
             if (isDuplicate(rule, candidate)) continue;
 
@@ -103,36 +228,67 @@ public class AlertMonitoringService {
                     .contextKey(candidate.contextKey())
                     .status(AlertStatus.OPEN)
                     .build();
-            instanceRepo.save(instance);
+            try {
+                instanceRepo.save(instance);
+            } catch (RuntimeException e) {
+                // Let the next evaluation try again rather than wait out the cooldown
+                cooldownUntil.remove(rule.getId() + "|" + candidate.contextKey());
+                throw e;
+            }
 
-            sendNotifications(rule, candidate);
+            sendNotifications(rule, dc, candidate);
             fired++;
         }
         return fired;
     }
 
+    /**
+     * Whether the finding already has an open or acknowledged alert, or is
+     * within the rule's cooldown.  A finding that is not a duplicate is
+     * claimed for the cooldown before returning, so concurrent evaluations
+     * of the same finding fire it once.
+     */
     private boolean isDuplicate(AlertRule rule, AlertChecker.AlertCandidate candidate) {
-        // Check for existing open/acknowledged alert with same context
-        if (candidate.contextKey() != null) {
-            boolean exists = instanceRepo.existsByRuleIdAndContextKeyAndStatusIn(
-                    rule.getId(), candidate.contextKey(),
-                    List.of(AlertStatus.OPEN, AlertStatus.ACKNOWLEDGED));
-            if (exists) return true;
+        if (candidate.contextKey() == null) return false;
 
-            // Check cooldown — don't re-alert within cooldown period even if resolved/dismissed
+        String key = rule.getId() + "|" + candidate.contextKey();
+        long now = System.currentTimeMillis();
+        long cooldownMs = Duration.ofHours(rule.getCooldownHours()).toMillis();
+        Long until = cooldownUntil.get(key);
+        if (until != null && until > now) return true;
+
+        if (until == null) {
+            // First sighting since startup: the cooldown may have started before it
             AlertInstance latest = instanceRepo.findLatestByRuleIdAndContextKey(
                     rule.getId(), candidate.contextKey());
             if (latest != null) {
-                OffsetDateTime cooldownEnd = latest.getCreatedAt().plusHours(rule.getCooldownHours());
-                if (OffsetDateTime.now().isBefore(cooldownEnd)) return true;
+                long latestUntil = latest.getCreatedAt().toInstant().toEpochMilli() + cooldownMs;
+                if (latestUntil > now) {
+                    cooldownUntil.put(key, latestUntil);
+                    return true;
+                }
             }
         }
-        return false;
+
+        // Check for existing open/acknowledged alert with same context
+        if (instanceRepo.existsByRuleIdAndContextKeyAndStatusIn(
+                rule.getId(), candidate.contextKey(),
+                List.of(AlertStatus.OPEN, AlertStatus.ACKNOWLEDGED))) {
+            return true;
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        cooldownUntil.compute(key, (k, v) -> {
+            if (v != null && v > now) return v;
+            claimed.set(true);
+            return now + cooldownMs;
+        });
+        return !claimed.get();
     }
 
-    private void sendNotifications(AlertRule rule, AlertChecker.AlertCandidate candidate) {
-        UUID directoryId = rule.getDirectory() != null ? rule.getDirectory().getId() : null;
-        String dirName = rule.getDirectory() != null ? rule.getDirectory().getDisplayName() : "Global";
+    private void sendNotifications(AlertRule rule, DirectoryConnection dc, AlertChecker.AlertCandidate candidate) {
+        UUID directoryId = dc != null ? dc.getId() : null;
+        String dirName = dc != null ? dc.getDisplayName() : "Global";
         String link = "/superadmin/alerts";
 
         if (rule.isNotifyInApp()) {
@@ -154,15 +310,10 @@ public class AlertMonitoringService {
                     + "Rule: " + rule.getRuleType().name().replace('_', ' ') + "\n\n"
                     + (candidate.detail() != null ? candidate.detail() : "");
 
-            for (String recipient : rule.getEmailRecipients().split(",")) {
-                String trimmed = recipient.trim();
-                if (!trimmed.isEmpty()) {
-                    try {
-                        emailService.sendGenericEmail(trimmed, subject, body);
-                    } catch (Exception e) {
-                        log.warn("Failed to send alert email to {}: {}", trimmed, e.getMessage());
-                    }
-                }
+            try {
+                emailService.sendGenericEmail(Arrays.asList(rule.getEmailRecipients().split(",")), subject, body);
+            } catch (Exception e) {
+                log.warn("Failed to queue alert email to {}: {}", rule.getEmailRecipients(), e.getMessage());
             }
         }
     }
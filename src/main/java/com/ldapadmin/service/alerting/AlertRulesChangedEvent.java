@@ -0,0 +1,9 @@
+package com.ldapadmin.service.alerting;
+
+/**
+ * Published when alert rules are created or edited, so
+ * {@link AlertMonitoringService} re-reads the rules its event-driven
+ * checkers apply.
+ */
+public record AlertRulesChangedEvent() {
+}
@@ -10,6 +10,7 @@ import com.ldapadmin.repository.AlertInstanceRepository;
 import com.ldapadmin.repository.AlertRuleRepository;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class AlertService {
     private final AlertInstanceRepository instanceRepo;
     private final AlertRuleRepository ruleRepo;
     private final DirectoryConnectionRepository dirRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ── Instances ────────────────────────────────────────────────────────────
 
@@ -59,6 +61,7 @@ public class AlertService {
         instance.setAcknowledgedBy(accountId);
         instance.setAcknowledgedAt(OffsetDateTime.now());
         instanceRepo.save(instance);
+        eventPublisher.publishEvent(new AlertsChangedEvent());
     }
 
     @Transactional
@@ -67,6 +70,7 @@ public class AlertService {
         instance.setStatus(AlertStatus.DISMISSED);
         instance.setResolvedAt(OffsetDateTime.now());
         instanceRepo.save(instance);
+        eventPublisher.publishEvent(new AlertsChangedEvent());
     }
 
     @Transactional
@@ -75,6 +79,7 @@ public class AlertService {
         instance.setStatus(AlertStatus.RESOLVED);
         instance.setResolvedAt(OffsetDateTime.now());
         instanceRepo.save(instance);
+        eventPublisher.publishEvent(new AlertsChangedEvent());
     }
 
     // ── Rules ────────────────────────────────────────────────────────────────
@@ -105,6 +110,7 @@ public class AlertService {
         if (req.cooldownHours() != null) rule.setCooldownHours(req.cooldownHours());
 
         rule = ruleRepo.save(rule);
+        eventPublisher.publishEvent(new AlertRulesChangedEvent());
         String dirName = rule.getDirectory() != null ? rule.getDirectory().getDisplayName() : null;
         return AlertRuleResponse.from(rule, dirName);
     }
@@ -128,6 +134,9 @@ public class AlertService {
             rule.setCooldownHours(def.cooldownHours);
             created.add(ruleRepo.save(rule));
         }
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new AlertRulesChangedEvent());
+        }
 
         return created.stream().map(r -> AlertRuleResponse.from(r, dc.getDisplayName())).toList();
     }
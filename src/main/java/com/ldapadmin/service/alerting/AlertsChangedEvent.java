@@ -0,0 +1,10 @@
+package com.ldapadmin.service.alerting;
+
+/**
+ * Published when alert instances are raised or change status, so listeners
+ * can refresh the {@link AlertService#getSummary() alert summary}.  Alert
+ * evaluation publishes one event per run that fired anything, not one per
+ * alert.
+ */
+public record AlertsChangedEvent() {
+}
@@ -0,0 +1,29 @@
+package com.ldapadmin.service.alerting;
+
+import com.ldapadmin.entity.AlertRule;
+import com.ldapadmin.ldap.DirectoryReachabilityEvent;
+import com.ldapadmin.service.AuditRecordedEvent;
+
+import java.util.List;
+
+/**
+ * An {@link AlertChecker} that also reacts to events as they happen, so its
+ * alerts fire within seconds rather than at the next scheduled evaluation.
+ *
+ * <p>The callbacks run on the thread that published the event — an audit
+ * writer or a request borrowing an LDAP connection — for each enabled rule
+ * of this type scoped to the event's directory.  They must only consult
+ * in-memory state; the returned candidates are deduplicated and persisted
+ * on another thread.  {@link #evaluate} still runs on the schedule, as a
+ * catch-up for anything the events missed.</p>
+ */
+public interface EventDrivenAlertChecker extends AlertChecker {
+
+    default List<AlertCandidate> onAuditRecorded(AuditRecordedEvent event, AlertRule rule) {
+        return List.of();
+    }
+
+    default List<AlertCandidate> onReachabilityChanged(DirectoryReachabilityEvent event, AlertRule rule) {
+        return List.of();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ldapadmin.service.alerting;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count of events over a sliding window, for event-driven alert
+ * checkers.
+ *
+ * <p>The window is split into a fixed ring of buckets, each one
+ * {@code long} holding the bucket's number in its high half and its count
+ * in the low half, updated by compare-and-set.  A bucket is reused once its
+ * number falls out of the window, so memory does not grow with the event
+ * rate.  Counts cover the last {@code buckets} buckets including the
+ * current, partial one, so the effective window is up to one bucket
+ * shorter than {@link #window()}.</p>
+ */
+public final class SlidingWindowCounter {
+
+    private static final long STAMP_MASK = 0xFFFF_FFFFL;
+    private static final long COUNT_MAX  = 0xFFFF_FFFFL;
+
+    private final Duration        window;
+    private final long            bucketMs;
+    private final AtomicLongArray slots;
+
+    public SlidingWindowCounter(Duration window, int buckets) {
+        this.window   = window;
+        this.bucketMs = Math.max(1, window.toMillis() / buckets);
+        this.slots    = new AtomicLongArray(buckets);
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    /** Counts one event at {@code nowMs}. */
+    public void add(long nowMs) {
+        long bucket = nowMs / bucketMs;
+        long stamp  = bucket & STAMP_MASK;
+        int  i      = (int) (bucket % slots.length());
+        long state;
+        long next;
+        do {
+            state = slots.get(i);
+            long count = (state >>> 32) == stamp ? state & COUNT_MAX : 0;
+            next = stamp << 32 | Math.min(count + 1, COUNT_MAX);
+        } while (!slots.compareAndSet(i, state, next));
+    }
+
+    /** Events counted within the window ending at {@code nowMs}. */
+    public long count(long nowMs) {
+        long bucket = nowMs / bucketMs;
+        long total  = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long state = slots.get(i);
+            long age   = (bucket - (state >>> 32)) & STAMP_MASK;
+            if (state != 0 && age < slots.length()) {
+                total += state & COUNT_MAX;
+            }
+        }
+        return total;
+    }
+}
@@ -3,19 +3,27 @@ package com.ldapadmin.service.alerting.checkers;
 import com.ldapadmin.entity.AlertRule;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AlertRuleType;
+import com.ldapadmin.ldap.DirectoryReachabilityEvent;
 import com.ldapadmin.ldap.LdapConnectionFactory;
-import com.ldapadmin.service.alerting.AlertChecker;
+import com.ldapadmin.service.alerting.EventDrivenAlertChecker;
 import com.unboundid.ldap.sdk.LDAPConnection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.UUID;
 
+/**
+ * Fires as soon as the connection pool reports that a directory cannot be
+ * reached.  The scheduled evaluation probes through the pool and opens a
+ * fresh connection only to confirm a failure, since a pooled connection
+ * may merely have gone stale.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class DirectoryUnreachableChecker implements AlertChecker {
+public class DirectoryUnreachableChecker implements EventDrivenAlertChecker {
 
     private final LdapConnectionFactory connectionFactory;
 
@@ -24,19 +32,37 @@ public class DirectoryUnreachableChecker implements AlertChecker {
         return AlertRuleType.DIRECTORY_UNREACHABLE;
     }
 
+    @Override
+    public List<AlertCandidate> onReachabilityChanged(DirectoryReachabilityEvent event, AlertRule rule) {
+        if (event.reachable()) return List.of();
+        return List.of(candidate(event.directoryId(), event.directoryName(),
+                event.host(), event.port(), event.error()));
+    }
+
     @Override
     public List<AlertCandidate> evaluate(DirectoryConnection dc, AlertRule rule) {
         if (dc == null) return List.of();
 
+        try {
+            connectionFactory.withConnection(dc, LDAPConnection::getRootDSE);
+            return List.of(); // reachable
+        } catch (Exception pooled) {
+            log.debug("Pooled probe of [{}] failed, confirming with a new connection: {}",
+                    dc.getDisplayName(), pooled.getMessage());
+        }
         try {
             LDAPConnection conn = connectionFactory.openUnboundConnection(dc);
             conn.close();
             return List.of(); // reachable
         } catch (Exception e) {
-            return List.of(new AlertCandidate(
-                    "Directory '" + dc.getDisplayName() + "' is unreachable",
-                    "Host: " + dc.getHost() + ":" + dc.getPort() + ". Error: " + e.getMessage(),
-                    "dir-unreachable-" + dc.getId()));
+            return List.of(candidate(dc.getId(), dc.getDisplayName(), dc.getHost(), dc.getPort(), e.getMessage()));
         }
     }
+
+    private static AlertCandidate candidate(UUID directoryId, String name, String host, int port, String error) {
+        return new AlertCandidate(
+                "Directory '" + name + "' is unreachable",
+                "Host: " + host + ":" + port + ". Error: " + error,
+                "dir-unreachable-" + directoryId);
+    }
 }
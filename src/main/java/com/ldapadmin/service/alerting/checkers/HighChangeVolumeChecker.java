@@ -4,49 +4,146 @@ import com.ldapadmin.entity.AlertRule;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AlertRuleType;
 import com.ldapadmin.service.AuditQueryService;
-import com.ldapadmin.service.alerting.AlertChecker;
+import com.ldapadmin.service.AuditRecordedEvent;
+import com.ldapadmin.service.alerting.EventDrivenAlertChecker;
+import com.ldapadmin.service.alerting.SlidingWindowCounter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Counts each directory's audit events in memory as they are recorded,
+ * one sliding window per rule, and fires as soon as the count passes the
+ * threshold.
+ *
+ * <p>The in-memory count only sees the events this node records since it
+ * started, so each rule's window is also seeded with one {@code COUNT} of
+ * the directory's stored audit events when it is first used, and
+ * reconciled against that count on every scheduled evaluation.  Between
+ * evaluations the total is the stored count plus the events counted here
+ * since; events of other nodes show up at the next evaluation.</p>
+ */
 @Component
+@Slf4j
 @RequiredArgsConstructor
-public class HighChangeVolumeChecker implements AlertChecker {
+public class HighChangeVolumeChecker implements EventDrivenAlertChecker {
+
+    /** Buckets per window; the window is accurate to 1/60 of its length. */
+    private static final int BUCKETS = 60;
 
     private final AuditQueryService auditQueryService;
 
+    private final Map<UUID, RuleWindow> windows = new ConcurrentHashMap<>();
+
     @Override
     public AlertRuleType ruleType() {
         return AlertRuleType.HIGH_CHANGE_VOLUME;
     }
 
+    @Override
+    public List<AlertCandidate> onAuditRecorded(AuditRecordedEvent event, AlertRule rule) {
+        long now = System.currentTimeMillis();
+        RuleWindow window = window(rule, event.directoryId(), true);
+        window.add(now);
+        return check(rule, event.directoryId(), event.directoryName(), window.total(now));
+    }
+
     @Override
     public List<AlertCandidate> evaluate(DirectoryConnection dc, AlertRule rule) {
         if (dc == null) return List.of();
+        RuleWindow window = window(rule, dc.getId(), false);
+        long counted = window.sinceReconcile.get();
+        window.reconcile(countStored(dc.getId(), window.counter.window()), counted);
+        return check(rule, dc.getId(), dc.getDisplayName(), window.total(System.currentTimeMillis()));
+    }
 
-        int windowHours = getIntParam(rule, "windowHours", 1);
+    private List<AlertCandidate> check(AlertRule rule, UUID directoryId, String directoryName, long total) {
         int threshold = getIntParam(rule, "threshold", 100);
-        OffsetDateTime since = OffsetDateTime.now().minusHours(windowHours);
-
-        var events = auditQueryService.query(dc.getId(), null, null,
-                null, since, null, 0, 1);
-
-        long total = events.getTotalElements();
         if (total > threshold) {
             return List.of(new AlertCandidate(
-                    "High change volume: " + total + " events in last " + windowHours + "h",
-                    "Directory '" + dc.getDisplayName() + "' had " + total +
+                    "High change volume: " + total + " events in last " + windowHours(rule) + "h",
+                    "Directory '" + directoryName + "' had " + total +
                             " audit events (threshold: " + threshold + ")",
-                    "high-volume-" + dc.getId()));
+                    "high-volume-" + directoryId));
         }
         return List.of();
     }
 
+    /**
+     * The rule's window, started afresh on first use or when its length was
+     * changed, and then seeded from the stored count if {@code seed}.
+     */
+    private RuleWindow window(AlertRule rule, UUID directoryId, boolean seed) {
+        Duration length = Duration.ofHours(windowHours(rule));
+        RuleWindow window = windows.get(rule.getId());
+        if (window != null && window.counter.window().equals(length)) {
+            return window;
+        }
+        RuleWindow fresh = new RuleWindow(new SlidingWindowCounter(length, BUCKETS));
+        if (seed) {
+            try {
+                // Audit listeners run after commit: the triggering event is stored and counted by the caller
+                fresh.reconcile(Math.max(0, countStored(directoryId, length) - 1), 0);
+            } catch (RuntimeException e) {
+                // The next scheduled evaluation reconciles it
+                log.warn("Could not seed change volume for rule {}: {}", rule.getId(), e.getMessage());
+            }
+        }
+        return windows.merge(rule.getId(), fresh, (old, neu) ->
+                old.counter.window().equals(length) ? old : neu);
+    }
+
+    /** Audit events stored for the directory within the window, by any node. */
+    private long countStored(UUID directoryId, Duration length) {
+        OffsetDateTime since = OffsetDateTime.now().minus(length);
+        return auditQueryService.query(directoryId, null, null, null, since, null, 0, 1).getTotalElements();
+    }
+
+    private int windowHours(AlertRule rule) {
+        return Math.max(1, getIntParam(rule, "windowHours", 1));
+    }
+
     private int getIntParam(AlertRule rule, String key, int defaultValue) {
         Object val = rule.getParams().get(key);
         if (val instanceof Number n) return n.intValue();
         return defaultValue;
     }
+
+    /** Events counted on this node, plus the stored count as of the last reconcile. */
+    private static final class RuleWindow {
+
+        private final SlidingWindowCounter counter;
+        private final AtomicLong           sinceReconcile = new AtomicLong();
+        private volatile long              stored;
+
+        RuleWindow(SlidingWindowCounter counter) {
+            this.counter = counter;
+        }
+
+        void add(long nowMs) {
+            counter.add(nowMs);
+            sinceReconcile.incrementAndGet();
+        }
+
+        /**
+         * Takes {@code storedCount} as the baseline, replacing the
+         * {@code counted} local events seen before it was read.
+         */
+        void reconcile(long storedCount, long counted) {
+            stored = storedCount;
+            sinceReconcile.addAndGet(-counted);
+        }
+
+        long total(long nowMs) {
+            return Math.max(counter.count(nowMs), stored + sinceReconcile.get());
+        }
+    }
 }
@@ -5,18 +5,26 @@ import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AlertRuleType;
 import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.service.AuditQueryService;
-import com.ldapadmin.service.alerting.AlertChecker;
+import com.ldapadmin.service.AuditRecordedEvent;
+import com.ldapadmin.service.alerting.EventDrivenAlertChecker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Locale;
+import java.util.UUID;
 
+/**
+ * Fires as each member addition to a privileged group is recorded.  The
+ * scheduled evaluation re-reads the last 30 minutes of additions to catch
+ * any recorded while this node was not listening; alert deduplication
+ * keeps an addition from firing twice.
+ */
 @Component
 @RequiredArgsConstructor
-public class PrivilegedGroupAdditionChecker implements AlertChecker {
+public class PrivilegedGroupAdditionChecker implements EventDrivenAlertChecker {
 
     private final AuditQueryService auditQueryService;
 
@@ -26,15 +34,21 @@ public class PrivilegedGroupAdditionChecker implements AlertChecker {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    public List<AlertCandidate> onAuditRecorded(AuditRecordedEvent event, AlertRule rule) {
+        if (event.action() != AuditAction.GROUP_MEMBER_ADD) return List.of();
+        List<String> privilegedGroups = privilegedGroups(rule);
+        if (!isPrivileged(event.targetDn(), privilegedGroups)) return List.of();
+        return List.of(candidate(event.id(), event.targetDn(), event.actorUsername()));
+    }
+
+    @Override
     public List<AlertCandidate> evaluate(DirectoryConnection dc, AlertRule rule) {
         if (dc == null) return List.of();
 
-        Object groupsParam = rule.getParams().get("groups");
-        if (!(groupsParam instanceof List<?> groupList) || groupList.isEmpty()) {
+        List<String> privilegedGroups = privilegedGroups(rule);
+        if (privilegedGroups.isEmpty()) {
             return List.of(); // no privileged groups configured
         }
-        Set<String> privilegedGroups = Set.copyOf((List<String>) groupList);
 
         // Look at recent GROUP_MEMBER_ADD events (last 30 minutes to cover evaluation gaps)
         OffsetDateTime since = OffsetDateTime.now().minusMinutes(30);
@@ -43,15 +57,29 @@ public class PrivilegedGroupAdditionChecker implements AlertChecker {
 
         List<AlertCandidate> candidates = new ArrayList<>();
         for (var evt : events.getContent()) {
-            String targetDn = evt.targetDn();
-            if (targetDn != null && privilegedGroups.stream().anyMatch(
-                    pg -> targetDn.toLowerCase().contains(pg.toLowerCase()))) {
-                candidates.add(new AlertCandidate(
-                        "User added to privileged group",
-                        "Group: " + targetDn + ", Actor: " + evt.actorUsername(),
-                        "priv-group-" + evt.id()));
+            if (isPrivileged(evt.targetDn(), privilegedGroups)) {
+                candidates.add(candidate(evt.id(), evt.targetDn(), evt.actorUsername()));
             }
         }
         return candidates;
     }
+
+    /** The configured groups, lower-cased. */
+    private static List<String> privilegedGroups(AlertRule rule) {
+        if (!(rule.getParams().get("groups") instanceof List<?> groupList)) return List.of();
+        return groupList.stream().map(g -> String.valueOf(g).toLowerCase(Locale.ROOT)).toList();
+    }
+
+    private static boolean isPrivileged(String targetDn, List<String> privilegedGroups) {
+        if (targetDn == null || privilegedGroups.isEmpty()) return false;
+        String dn = targetDn.toLowerCase(Locale.ROOT);
+        return privilegedGroups.stream().anyMatch(dn::contains);
+    }
+
+    private static AlertCandidate candidate(UUID eventId, String targetDn, String actor) {
+        return new AlertCandidate(
+                "User added to privileged group",
+                "Group: " + targetDn + ", Actor: " + actor,
+                "priv-group-" + eventId);
+    }
 }
@@ -0,0 +1,84 @@
+package com.ldapadmin.service.mail;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds RFC 5322 / MIME message text for {@link SmtpClient}.
+ *
+ * <p>Messages addressed to several envelope recipients carry
+ * {@code To: undisclosed-recipients:;} so recipients do not see each other's
+ * addresses.  Non-ASCII subjects are RFC 2047 encoded; CR/LF are stripped
+ * from header values.</p>
+ */
+public final class EmailMessageFormatter {
+
+    private EmailMessageFormatter() {}
+
+    /** Plain-text UTF-8 message. */
+    public static String plainText(String from, List<String> recipients, String subject, String body) {
+        StringBuilder sb = headers(from, recipients, subject);
+        sb.append("Content-Type: text/plain; charset=UTF-8\r\n");
+        sb.append("Content-Transfer-Encoding: 8bit\r\n");
+        sb.append("\r\n");
+        sb.append(body != null ? body : "");
+        return sb.toString();
+    }
+
+    /** {@code multipart/mixed} message with a text part and one base64 attachment. */
+    public static String withAttachment(String from, List<String> recipients, String subject, String body,
+                                        String attachmentName, String attachmentContentType,
+                                        byte[] attachmentData) {
+        String boundary = "----=_LDAPAdmin_" + UUID.randomUUID();
+        String name = headerValue(attachmentName).replace("\"", "");
+
+        StringBuilder sb = headers(from, recipients, subject);
+        sb.append("Content-Type: multipart/mixed; boundary=\"").append(boundary).append("\"\r\n");
+        sb.append("\r\n");
+        sb.append("--").append(boundary).append("\r\n");
+        sb.append("Content-Type: text/plain; charset=UTF-8\r\n");
+        sb.append("Content-Transfer-Encoding: 8bit\r\n");
+        sb.append("\r\n");
+        sb.append(body != null ? body : "").append("\r\n");
+        sb.append("--").append(boundary).append("\r\n");
+        sb.append("Content-Type: ").append(headerValue(attachmentContentType))
+                .append("; name=\"").append(name).append("\"\r\n");
+        sb.append("Content-Disposition: attachment; filename=\"").append(name).append("\"\r\n");
+        sb.append("Content-Transfer-Encoding: base64\r\n");
+        sb.append("\r\n");
+        sb.append(Base64.getMimeEncoder(76, "\r\n".getBytes(StandardCharsets.US_ASCII))
+                .encodeToString(attachmentData)).append("\r\n");
+        sb.append("--").append(boundary).append("--\r\n");
+        return sb.toString();
+    }
+
+    private static StringBuilder headers(String from, List<String> recipients, String subject) {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("From: ").append(headerValue(from)).append("\r\n");
+        sb.append("To: ")
+                .append(recipients.size() == 1 ? headerValue(recipients.get(0)) : "undisclosed-recipients:;")
+                .append("\r\n");
+        sb.append("Subject: ").append(encodeSubject(headerValue(subject))).append("\r\n");
+        sb.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append("\r\n");
+        sb.append("MIME-Version: 1.0\r\n");
+        return sb;
+    }
+
+    private static String headerValue(String value) {
+        return value == null ? "" : value.replace("\r", "").replace("\n", " ");
+    }
+
+    private static String encodeSubject(String subject) {
+        for (int i = 0; i < subject.length(); i++) {
+            if (subject.charAt(i) > 0x7E) {
+                return "=?UTF-8?B?" + Base64.getEncoder()
+                        .encodeToString(subject.getBytes(StandardCharsets.UTF_8)) + "?=";
+            }
+        }
+        return subject;
+    }
+}
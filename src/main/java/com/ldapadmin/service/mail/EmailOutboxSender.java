@@ -0,0 +1,201 @@
+package com.ldapadmin.service.mail;
+
+import com.ldapadmin.entity.ApplicationSettings;
+import com.ldapadmin.entity.EmailOutboxMessage;
+import com.ldapadmin.entity.enums.EmailOutboxStatus;
+import com.ldapadmin.repository.EmailOutboxRepository;
+import com.ldapadmin.service.ApplicationSettingsService;
+import com.ldapadmin.service.EncryptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the {@code email_outbox} table through the shared {@link SmtpClient}
+ * session.
+ *
+ * <p>Each poll claims a batch of due messages with {@code SKIP LOCKED} in a
+ * short transaction that counts the attempt and pushes the messages'
+ * {@code nextAttemptAt} out by {@code ldapadmin.mail.outbox-claim-lease-seconds},
+ * so several nodes can drain the same table without sending a message twice
+ * and a node that dies mid-send only delays its batch.  Messages are sent
+ * outside that transaction and each result is saved on its own.
+ * Transient failures (connection errors, 4xx replies) are retried with
+ * exponential backoff up to {@code ldapadmin.mail.outbox-max-attempts};
+ * permanent 5xx rejections and messages that cannot be built (e.g. a body
+ * that no longer decrypts) fail immediately.</p>
+ *
+ * <p>Publishes {@code ldapadmin.mail.outbox.pending} (queue depth) and
+ * {@code ldapadmin.mail.outbox.sent|retried|failed} counters.</p>
+ */
+@Component
+@Slf4j
+public class EmailOutboxSender {
+
+    private final EmailOutboxRepository      outboxRepo;
+    private final ApplicationSettingsService appSettingsService;
+    private final EncryptionService          encryptionService;
+    private final SmtpClient                 smtpClient;
+    private final TransactionTemplate        claimTx;
+    private final int                        batchSize;
+    private final int                        maxAttempts;
+    private final Duration                   backoffBase;
+    private final Duration                   backoffMax;
+    private final Duration                   claimLease;
+    private final Duration                   retention;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter    sentCounter;
+    private final Counter    retriedCounter;
+    private final Counter    failedCounter;
+
+    public EmailOutboxSender(EmailOutboxRepository outboxRepo,
+                             ApplicationSettingsService appSettingsService,
+                             EncryptionService encryptionService,
+                             SmtpClient smtpClient,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${ldapadmin.mail.outbox-batch-size:100}") int batchSize,
+                             @Value("${ldapadmin.mail.outbox-max-attempts:8}") int maxAttempts,
+                             @Value("${ldapadmin.mail.outbox-backoff-seconds:30}") long backoffSeconds,
+                             @Value("${ldapadmin.mail.outbox-backoff-max-seconds:3600}") long backoffMaxSeconds,
+                             @Value("${ldapadmin.mail.outbox-claim-lease-seconds:300}") long claimLeaseSeconds,
+                             @Value("${ldapadmin.mail.outbox-retention-days:7}") int retentionDays) {
+        this.outboxRepo         = outboxRepo;
+        this.appSettingsService = appSettingsService;
+        this.encryptionService  = encryptionService;
+        this.smtpClient         = smtpClient;
+        this.claimTx            = new TransactionTemplate(transactionManager);
+        this.batchSize          = batchSize;
+        this.maxAttempts        = maxAttempts;
+        this.backoffBase        = Duration.ofSeconds(backoffSeconds);
+        this.backoffMax         = Duration.ofSeconds(backoffMaxSeconds);
+        this.claimLease         = Duration.ofSeconds(claimLeaseSeconds);
+        this.retention          = Duration.ofDays(retentionDays);
+
+        Gauge.builder("ldapadmin.mail.outbox.pending", pending, AtomicLong::get)
+                .description("Notification emails waiting for delivery")
+                .register(meterRegistry);
+        this.sentCounter    = meterRegistry.counter("ldapadmin.mail.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("ldapadmin.mail.outbox.retried");
+        this.failedCounter  = meterRegistry.counter("ldapadmin.mail.outbox.failed");
+    }
+
+    /**
+     * Sends one batch of due messages.  Returns the number delivered.
+     */
+    @Scheduled(fixedDelayString = "${ldapadmin.mail.outbox-poll-ms:5000}")
+    public int drain() {
+        List<EmailOutboxMessage> due = claimTx.execute(status -> claim());
+        int delivered = 0;
+        if (due != null && !due.isEmpty()) {
+            ApplicationSettings settings = appSettingsService.getEntity();
+            for (EmailOutboxMessage message : due) {
+                if (deliver(settings, message)) delivered++;
+                saveResult(message);
+            }
+        }
+        pending.set(outboxRepo.countByStatus(EmailOutboxStatus.PENDING));
+        return delivered;
+    }
+
+    /** Removes delivered messages older than the retention period. */
+    @Scheduled(cron = "${ldapadmin.mail.outbox-purge-cron:0 30 3 * * ?}")
+    @Transactional
+    public void purgeSent() {
+        int removed = outboxRepo.deleteByStatusCreatedBefore(
+                EmailOutboxStatus.SENT, OffsetDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("Purged {} delivered outbox message(s)", removed);
+        }
+    }
+
+    /** Messages waiting for delivery as of the last poll. */
+    public long queueDepth() {
+        return pending.get();
+    }
+
+    /** Locks a batch of due messages and leases them to this node; commits before any sending. */
+    private List<EmailOutboxMessage> claim() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<EmailOutboxMessage> due = outboxRepo.claimDue(
+                EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+        for (EmailOutboxMessage message : due) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(now.plus(claimLease));
+        }
+        outboxRepo.saveAll(due);
+        return due;
+    }
+
+    /** Commits one message's outcome in its own transaction. */
+    private void saveResult(EmailOutboxMessage message) {
+        try {
+            outboxRepo.save(message);
+        } catch (RuntimeException ex) {
+            // Retried once the claim lease runs out
+            log.error("Could not record delivery result of outbox message {}: {}",
+                    message.getId(), ex.getMessage());
+        }
+    }
+
+    private boolean deliver(ApplicationSettings settings, EmailOutboxMessage message) {
+        List<String> recipients = Arrays.asList(message.getRecipients().split(","));
+        try {
+            if (!EmailOutboxService.isConfigured(settings)) {
+                throw new SmtpException("SMTP is not configured", 0);
+            }
+            String body = encryptionService.decrypt(message.getBodyEncrypted());
+            List<String> rejected = smtpClient.send(settings, recipients,
+                    EmailMessageFormatter.plainText(settings.getSmtpSenderAddress(), recipients,
+                            message.getSubject(), body));
+            message.setStatus(EmailOutboxStatus.SENT);
+            message.setSentAt(OffsetDateTime.now());
+            message.setLastError(rejected.isEmpty() ? null : "Rejected recipients: " + String.join(",", rejected));
+            sentCounter.increment();
+            return true;
+        } catch (SmtpException ex) {
+            message.setLastError(ex.getMessage());
+            if (ex.isPermanent() || message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailOutboxStatus.FAILED);
+                failedCounter.increment();
+                log.error("Giving up on email '{}' to {} after {} attempt(s): {}",
+                        message.getSubject(), recipients, message.getAttempts(), ex.getMessage());
+            } else {
+                message.setNextAttemptAt(OffsetDateTime.now().plus(backoff(message.getAttempts())));
+                retriedCounter.increment();
+                log.warn("Email '{}' to {} failed (attempt {}), will retry: {}",
+                        message.getSubject(), recipients, message.getAttempts(), ex.getMessage());
+            }
+            return false;
+        } catch (RuntimeException ex) {
+            // Not something a retry fixes (e.g. the body no longer decrypts); keep it off the queue
+            message.setLastError(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+            message.setStatus(EmailOutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on email '{}' to {}: {}", message.getSubject(), recipients, ex.toString());
+            return false;
+        }
+    }
+
+    /** {@code base * 2^(attempts-1)}, capped. */
+    Duration backoff(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration d = backoffBase.multipliedBy(1L << shift);
+        return d.compareTo(backoffMax) > 0 ? backoffMax : d;
+    }
+}
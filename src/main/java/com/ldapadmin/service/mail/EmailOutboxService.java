@@ -0,0 +1,92 @@
+package com.ldapadmin.service.mail;
+
+import com.ldapadmin.entity.ApplicationSettings;
+import com.ldapadmin.entity.EmailOutboxMessage;
+import com.ldapadmin.repository.EmailOutboxRepository;
+import com.ldapadmin.service.ApplicationSettingsService;
+import com.ldapadmin.service.EncryptionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes notification email to the {@code email_outbox} table.
+ *
+ * <p>{@link #enqueue} joins the caller's transaction, so a notification is
+ * recorded if and only if the business change that triggered it commits.
+ * Delivery happens later in {@link EmailOutboxSender}.  Recipients that get
+ * identical content are stored on one row (up to
+ * {@link #MAX_RECIPIENTS_PER_MESSAGE}) and delivered in one SMTP
+ * transaction.</p>
+ *
+ * <p>If SMTP is not configured the notification is logged and dropped, as
+ * before the outbox existed.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    static final int MAX_RECIPIENTS_PER_MESSAGE = 50;
+
+    private final EmailOutboxRepository      outboxRepo;
+    private final ApplicationSettingsService appSettingsService;
+    private final EncryptionService          encryptionService;
+
+    @Transactional
+    public void enqueue(String to, String subject, String body) {
+        enqueue(Collections.singletonList(to), subject, body);
+    }
+
+    /**
+     * Queues one message with the same subject and body for every recipient.
+     * Blank and duplicate addresses are ignored.
+     */
+    @Transactional
+    public void enqueue(Collection<String> recipients, String subject, String body) {
+        Set<String> addresses = new LinkedHashSet<>();
+        for (String r : recipients) {
+            if (r != null && !r.isBlank()) addresses.add(r.trim());
+        }
+        if (addresses.isEmpty()) return;
+
+        if (!isConfigured(appSettingsService.getEntity())) {
+            log.info("SMTP not configured — notification logged: to={}, subject={}", addresses, subject);
+            return;
+        }
+
+        String bodyEncrypted = encryptionService.encrypt(body != null ? body : "");
+        List<String> batch = new ArrayList<>(MAX_RECIPIENTS_PER_MESSAGE);
+        for (String address : addresses) {
+            batch.add(address);
+            if (batch.size() == MAX_RECIPIENTS_PER_MESSAGE) {
+                save(batch, subject, bodyEncrypted);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch, subject, bodyEncrypted);
+        }
+    }
+
+    static boolean isConfigured(ApplicationSettings settings) {
+        return settings.getSmtpHost() != null && !settings.getSmtpHost().isBlank()
+                && settings.getSmtpSenderAddress() != null && !settings.getSmtpSenderAddress().isBlank();
+    }
+
+    private void save(List<String> recipients, String subject, String bodyEncrypted) {
+        outboxRepo.save(EmailOutboxMessage.builder()
+                .recipients(String.join(",", recipients))
+                .subject(subject.length() > 998 ? subject.substring(0, 998) : subject)
+                .bodyEncrypted(bodyEncrypted)
+                .build());
+    }
+}
@@ -0,0 +1,403 @@
+package com.ldapadmin.service.mail;
+
+import com.ldapadmin.entity.ApplicationSettings;
+import com.ldapadmin.service.EncryptionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Minimal SMTP client that keeps one authenticated session open and reuses it
+ * across messages.
+ *
+ * <p>The session is opened lazily with EHLO, STARTTLS (when advertised, or
+ * implicit TLS on port 465) and AUTH PLAIN; the SMTP password is decrypted
+ * only when a new session is opened.  When the server advertises
+ * {@code PIPELINING} (RFC 2920) the envelope commands — {@code MAIL FROM},
+ * every {@code RCPT TO} and {@code DATA} — are written in one batch and the
+ * replies read afterwards.  A message may carry several envelope recipients.</p>
+ *
+ * <p>The session is closed after {@link #IDLE_TIMEOUT_MS} without use, when
+ * the SMTP settings change, or on any I/O error; a send attempted on a stale
+ * reused session is retried once on a fresh one.  Methods are synchronized:
+ * one session, one conversation at a time.</p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SmtpClient {
+
+    private static final int  CONNECT_TIMEOUT_MS = 10_000;
+    private static final int  READ_TIMEOUT_MS    = 30_000;
+    static final long         IDLE_TIMEOUT_MS    = 60_000;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final EncryptionService encryptionService;
+
+    private Session session;
+
+    @PreDestroy
+    synchronized void shutdown() {
+        closeSession(true);
+    }
+
+    /**
+     * Delivers one message to the given envelope recipients.
+     *
+     * @param settings   SMTP configuration
+     * @param recipients envelope recipients (at least one)
+     * @param message    complete RFC 5322 message (headers + body), CRLF line endings,
+     *                   not yet dot-stuffed
+     * @return recipients the server rejected; the message was delivered to the rest
+     * @throws SmtpException if the message was not accepted for any recipient
+     */
+    public synchronized List<String> send(ApplicationSettings settings, List<String> recipients,
+                                          String message) throws SmtpException {
+        boolean reused = session != null && session.usable(settings);
+        if (!reused) {
+            closeSession(true);
+        }
+        try {
+            return sendOnSession(settings, recipients, message);
+        } catch (SmtpException ex) {
+            if (reused && ex.isConnectionFailure()) {
+                // Server may have dropped the idle connection — retry once on a fresh session
+                log.debug("Reused SMTP session failed ({}); reconnecting", ex.getMessage());
+                closeSession(false);
+                return sendOnSession(settings, recipients, message);
+            }
+            throw ex;
+        }
+    }
+
+    /** Closes the current session, if any (sends QUIT when still connected). */
+    public synchronized void close() {
+        closeSession(true);
+    }
+
+    // ── Session handling ──────────────────────────────────────────────────────
+
+    private List<String> sendOnSession(ApplicationSettings settings, List<String> recipients,
+                                       String message) throws SmtpException {
+        try {
+            if (session == null) {
+                session = open(settings);
+            }
+            List<String> rejected = session.transaction(settings.getSmtpSenderAddress(), recipients, message);
+            session.lastUsed = System.currentTimeMillis();
+            return rejected;
+        } catch (IOException ex) {
+            closeSession(false);
+            throw new SmtpException("SMTP I/O error: " + ex.getMessage(), 0, ex);
+        } catch (SmtpException ex) {
+            if (ex.isConnectionFailure()) {
+                closeSession(false);
+            }
+            throw ex;
+        }
+    }
+
+    private Session open(ApplicationSettings settings) throws IOException, SmtpException {
+        String host = settings.getSmtpHost();
+        int    port = settings.getSmtpPort() != null ? settings.getSmtpPort() : 587;
+
+        Socket socket;
+        if (port == 465) {
+            socket = SSLSocketFactory.getDefault().createSocket();
+        } else {
+            socket = new Socket();
+        }
+        socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+        socket.setSoTimeout(READ_TIMEOUT_MS);
+
+        Session s = new Session(socket, fingerprint(settings));
+        try {
+            s.expect(s.readReply(), 220);
+            Set<String> ext = s.ehlo();
+
+            if (!(socket instanceof SSLSocket) && settings.isSmtpUseTls() && ext.contains("STARTTLS")) {
+                s.command("STARTTLS");
+                s.expect(s.readReply(), 220);
+                s.upgradeToTls(host, port);
+                ext = s.ehlo();
+            }
+            s.pipelining = ext.contains("PIPELINING");
+
+            if (settings.getSmtpUsername() != null && settings.getSmtpPasswordEncrypted() != null) {
+                String password = encryptionService.decrypt(settings.getSmtpPasswordEncrypted());
+                String auth = Base64.getEncoder().encodeToString(
+                        ("\0" + settings.getSmtpUsername() + "\0" + password).getBytes(StandardCharsets.UTF_8));
+                s.command("AUTH PLAIN " + auth);
+                s.expect(s.readReply(), 235);
+            }
+            log.debug("Opened SMTP session to {}:{} (pipelining={})", host, port, s.pipelining);
+            return s;
+        } catch (SmtpException ex) {
+            s.closeQuietly(false);
+            // Handshake/AUTH failures are configuration problems, not verdicts on a message
+            throw new SmtpException(ex.getMessage(), 0, ex);
+        } catch (IOException | RuntimeException ex) {
+            s.closeQuietly(false);
+            throw ex;
+        }
+    }
+
+    private void closeSession(boolean quit) {
+        if (session != null) {
+            session.closeQuietly(quit);
+            session = null;
+        }
+    }
+
+    private static String fingerprint(ApplicationSettings s) {
+        return s.getSmtpHost() + '|' + s.getSmtpPort() + '|' + s.getSmtpUsername() + '|'
+                + s.getSmtpPasswordEncrypted() + '|' + s.isSmtpUseTls();
+    }
+
+    // ── Wire protocol ─────────────────────────────────────────────────────────
+
+    /** Parsed SMTP reply: three-digit code plus the text of the last line. */
+    record Reply(int code, String text) {
+        boolean positive() {
+            return code >= 200 && code < 400;
+        }
+    }
+
+    private static final class Session {
+        private Socket       socket;
+        private InputStream  in;
+        private OutputStream out;
+        private final String fingerprint;
+        private boolean      pipelining;
+        private long         lastUsed = System.currentTimeMillis();
+
+        Session(Socket socket, String fingerprint) throws IOException {
+            this.fingerprint = fingerprint;
+            attach(socket);
+        }
+
+        private void attach(Socket s) throws IOException {
+            this.socket = s;
+            this.in     = new BufferedInputStream(s.getInputStream());
+            this.out    = new BufferedOutputStream(s.getOutputStream());
+        }
+
+        boolean usable(ApplicationSettings settings) {
+            return !socket.isClosed()
+                    && System.currentTimeMillis() - lastUsed < IDLE_TIMEOUT_MS
+                    && fingerprint.equals(fingerprint(settings));
+        }
+
+        void upgradeToTls(String host, int port) throws IOException {
+            SSLSocket tls = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                    .createSocket(socket, host, port, true);
+            tls.startHandshake();
+            attach(tls);
+        }
+
+        Set<String> ehlo() throws IOException, SmtpException {
+            command("EHLO ldapadmin");
+            Set<String> ext = new HashSet<>();
+            Reply reply = readReply(ext);
+            expect(reply, 250);
+            return ext;
+        }
+
+        /**
+         * Runs MAIL/RCPT/DATA for one message.  Returns rejected recipients.
+         */
+        List<String> transaction(String from, List<String> recipients, String message)
+                throws IOException, SmtpException {
+            List<String> rejected = new ArrayList<>();
+            Reply mail;
+            List<Reply> rcptReplies = new ArrayList<>(recipients.size());
+            Reply data;
+
+            if (pipelining) {
+                write("MAIL FROM:<" + from + ">");
+                for (String rcpt : recipients) write("RCPT TO:<" + rcpt + ">");
+                write("DATA");
+                out.flush();
+                mail = readReply();
+                for (int i = 0; i < recipients.size(); i++) rcptReplies.add(readReply());
+                data = readReply();
+            } else {
+                command("MAIL FROM:<" + from + ">");
+                mail = readReply();
+                if (!mail.positive()) {
+                    throw reset(mail, "MAIL FROM rejected");
+                }
+                for (String rcpt : recipients) {
+                    command("RCPT TO:<" + rcpt + ">");
+                    rcptReplies.add(readReply());
+                }
+                boolean anyAccepted = rcptReplies.stream().anyMatch(Reply::positive);
+                if (!anyAccepted) {
+                    throw reset(worst(rcptReplies), "All recipients rejected");
+                }
+                command("DATA");
+                data = readReply();
+            }
+
+            if (!mail.positive()) {
+                abortData(data);
+                throw reset(mail, "MAIL FROM rejected");
+            }
+            for (int i = 0; i < recipients.size(); i++) {
+                if (!rcptReplies.get(i).positive()) rejected.add(recipients.get(i));
+            }
+            if (rejected.size() == recipients.size()) {
+                abortData(data);
+                throw reset(worst(rcptReplies), "All recipients rejected");
+            }
+            if (data.code() != 354) {
+                throw reset(data, "DATA rejected");
+            }
+
+            writeDotStuffed(message);
+            out.write(".\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Reply done = readReply();
+            if (!done.positive()) {
+                throw new SmtpException("Message rejected: " + done.code() + " " + done.text(), done.code());
+            }
+            return rejected;
+        }
+
+        /**
+         * With pipelining the server may have answered DATA with 354 even though
+         * every recipient failed; terminate the empty data section so the session
+         * stays in sync.
+         */
+        private void abortData(Reply data) throws IOException, SmtpException {
+            if (data.code() == 354) {
+                out.write(".\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                readReply();
+            }
+        }
+
+        private SmtpException reset(Reply reply, String what) throws IOException, SmtpException {
+            command("RSET");
+            readReply();
+            return new SmtpException(what + ": " + reply.code() + " " + reply.text(), reply.code());
+        }
+
+        private static Reply worst(List<Reply> replies) {
+            // Prefer a transient (4xx) code so the message is retried
+            return replies.stream().filter(r -> r.code() / 100 == 4).findFirst()
+                    .orElse(replies.isEmpty() ? new Reply(554, "no recipients") : replies.get(0));
+        }
+
+        void command(String line) throws IOException {
+            write(line);
+            out.flush();
+        }
+
+        private void write(String line) throws IOException {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.write(CRLF);
+        }
+
+        private void writeDotStuffed(String message) throws IOException {
+            String normalized = message.replace("\r\n", "\n").replace('\r', '\n');
+            int start = 0;
+            while (start <= normalized.length()) {
+                int nl = normalized.indexOf('\n', start);
+                String line = nl < 0 ? normalized.substring(start) : normalized.substring(start, nl);
+                if (nl < 0 && line.isEmpty()) break;
+                if (line.startsWith(".")) out.write('.');
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.write(CRLF);
+                if (nl < 0) break;
+                start = nl + 1;
+            }
+        }
+
+        Reply readReply() throws IOException, SmtpException {
+            return readReply(null);
+        }
+
+        /** Reads a (possibly multi-line) reply; EHLO keywords are collected into {@code ext}. */
+        Reply readReply(Set<String> ext) throws IOException, SmtpException {
+            while (true) {
+                String line = readLine();
+                if (line == null) {
+                    throw new SmtpException("Connection closed by server", 0);
+                }
+                if (line.length() < 3) {
+                    throw new SmtpException("Malformed SMTP reply: " + line, 0);
+                }
+                int code;
+                try {
+                    code = Integer.parseInt(line.substring(0, 3));
+                } catch (NumberFormatException ex) {
+                    throw new SmtpException("Malformed SMTP reply: " + line, 0);
+                }
+                String text = line.length() > 4 ? line.substring(4) : "";
+                if (ext != null) {
+                    String keyword = text.split(" ", 2)[0].toUpperCase(Locale.ROOT);
+                    if (!keyword.isEmpty()) ext.add(keyword);
+                }
+                if (line.length() == 3 || line.charAt(3) != '-') {
+                    return new Reply(code, text);
+                }
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder sb = new StringBuilder(64);
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') {
+                    int len = sb.length();
+                    if (len > 0 && sb.charAt(len - 1) == '\r') sb.setLength(len - 1);
+                    return sb.toString();
+                }
+                sb.append((char) c);
+            }
+            return sb.isEmpty() ? null : sb.toString();
+        }
+
+        void expect(Reply reply, int code) throws SmtpException {
+            if (reply.code() != code) {
+                throw new SmtpException("Unexpected SMTP reply: " + reply.code() + " " + reply.text(),
+                        reply.code() / 100 == 5 ? reply.code() : 0);
+            }
+        }
+
+        void closeQuietly(boolean quit) {
+            try {
+                if (quit && !socket.isClosed()) {
+                    command("QUIT");
+                }
+            } catch (IOException ignored) {
+                // best-effort
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // best-effort
+                }
+            }
+        }
+    }
+}
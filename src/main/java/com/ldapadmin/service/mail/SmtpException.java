@@ -0,0 +1,38 @@
+package com.ldapadmin.service.mail;
+
+/**
+ * Raised by {@link SmtpClient} when a message could not be delivered.
+ *
+ * <p>{@link #getReplyCode()} is the SMTP reply code that caused the failure,
+ * or {@code 0} for connection-level problems (I/O errors, dropped sessions,
+ * malformed replies).  5xx codes are permanent; everything else is worth
+ * retrying.</p>
+ */
+public class SmtpException extends Exception {
+
+    private final int replyCode;
+
+    public SmtpException(String message, int replyCode) {
+        super(message);
+        this.replyCode = replyCode;
+    }
+
+    public SmtpException(String message, int replyCode, Throwable cause) {
+        super(message, cause);
+        this.replyCode = replyCode;
+    }
+
+    public int getReplyCode() {
+        return replyCode;
+    }
+
+    /** {@code true} when the session itself failed rather than the server refusing the message. */
+    public boolean isConnectionFailure() {
+        return replyCode == 0;
+    }
+
+    /** {@code true} for 5xx replies, which will not succeed on retry. */
+    public boolean isPermanent() {
+        return replyCode >= 500 && replyCode < 600;
+    }
+}
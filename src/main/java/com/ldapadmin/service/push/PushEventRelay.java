@@ -0,0 +1,110 @@
+package com.ldapadmin.service.push;
+
+import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.auth.PermissionService;
+import com.ldapadmin.auth.PrincipalType;
+import com.ldapadmin.dto.dashboard.ComplianceDashboardDto;
+import com.ldapadmin.ldap.DirectoryEntryChangedEvent;
+import com.ldapadmin.service.DashboardService;
+import com.ldapadmin.service.NotificationService;
+import com.ldapadmin.service.NotificationsChangedEvent;
+import com.ldapadmin.service.alerting.AlertService;
+import com.ldapadmin.service.alerting.AlertsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns application events into {@link PushHub} events.  State is read
+ * once per change and only while someone is listening, rather than once
+ * per client per poll:
+ *
+ * <ul>
+ *   <li>{@code notifications} — {@code {"count": n}}, the account's unread
+ *       count, when its notifications change</li>
+ *   <li>{@code alerts} — the alert summary, to superadmins, when alerts
+ *       fire or change status</li>
+ *   <li>{@code dashboard} — the compliance dashboard, to superadmins,
+ *       rebuilt every {@code ldapadmin.push.dashboard-interval-ms} and sent
+ *       only when it differs from the last one sent</li>
+ *   <li>{@code directory-changed} — {@code {"directoryIds": [...]}}, naming
+ *       directories written since the last hint, at most once per
+ *       {@code ldapadmin.push.directory-change-interval-ms}; an admin is sent
+ *       only the directories {@link PermissionService} authorises, and
+ *       nothing if none of them changed</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class PushEventRelay {
+
+    private final PushHub             hub;
+    private final PermissionService   permissionService;
+    private final NotificationService notificationService;
+    private final AlertService        alertService;
+    private final DashboardService    dashboardService;
+
+    private final Set<UUID> changedDirectories = ConcurrentHashMap.newKeySet();
+
+    private volatile ComplianceDashboardDto lastDashboard;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsChanged(NotificationsChangedEvent event) {
+        UUID accountId = event.accountId();
+        if (!hub.hasSubscribers(accountId)) return;
+        hub.sendToAccount(accountId, "notifications",
+                Map.of("count", notificationService.getUnreadCount(accountId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertsChanged(AlertsChangedEvent event) {
+        if (!hub.hasSuperadminSubscribers()) return;
+        hub.sendToSuperadmins("alerts", alertService.getSummary());
+    }
+
+    @EventListener
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        if (event.directoryId() != null) {
+            changedDirectories.add(event.directoryId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ldapadmin.push.dashboard-interval-ms:60000}")
+    public void pushDashboard() {
+        if (!hub.hasSuperadminSubscribers()) {
+            lastDashboard = null;
+            return;
+        }
+        ComplianceDashboardDto dashboard = dashboardService.getDashboard();
+        if (!dashboard.equals(lastDashboard)) {
+            lastDashboard = dashboard;
+            hub.sendToSuperadmins("dashboard", dashboard);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ldapadmin.push.directory-change-interval-ms:15000}")
+    public void pushDirectoryChanges() {
+        if (changedDirectories.isEmpty()) return;
+        List<UUID> ids = List.copyOf(changedDirectories);
+        changedDirectories.removeAll(ids);
+        if (hub.hasSuperadminSubscribers()) {
+            hub.sendToSuperadmins("directory-changed", Map.of("directoryIds", ids));
+        }
+        for (UUID accountId : hub.adminSubscribers()) {
+            Set<UUID> authorized = permissionService.getAuthorizedDirectoryIds(
+                    new AuthPrincipal(PrincipalType.ADMIN, accountId, null));
+            List<UUID> visible = ids.stream().filter(authorized::contains).toList();
+            if (!visible.isEmpty()) {
+                hub.sendToAccount(accountId, "directory-changed", Map.of("directoryIds", visible));
+            }
+        }
+    }
+}
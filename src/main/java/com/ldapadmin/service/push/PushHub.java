@@ -0,0 +1,304 @@
+package com.ldapadmin.service.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.config.ExecutorConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Fan-out hub behind the {@code /api/v1/events} Server-Sent Events stream.
+ *
+ * <p>An idle stream is a suspended async request, so subscribers hold no
+ * thread between events.  Each event is serialized once, however many
+ * subscribers receive it, and queued per subscriber; a drain task on the
+ * {@link ExecutorConfig#PUSH_EXECUTOR push executor} writes the queue out,
+ * so a slow client delays only itself.  A subscriber whose queue overflows
+ * is disconnected — the browser's {@code EventSource} reconnects and the
+ * page re-reads current state.</p>
+ *
+ * <p>Each account may hold {@code ldapadmin.push.max-per-account} streams
+ * (one per tab); opening another closes the oldest.</p>
+ */
+@Component
+@Slf4j
+public class PushHub {
+
+    /** Written as an SSE comment; keeps proxies from timing out idle streams. */
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    private final ObjectMapper objectMapper;
+    private final Executor     executor;
+    private final long         timeoutMillis;
+    private final int          maxPerAccount;
+    private final int          queueSize;
+    private final Counter      disconnected;
+
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public PushHub(ObjectMapper objectMapper,
+                   @Qualifier(ExecutorConfig.PUSH_EXECUTOR) Executor executor,
+                   MeterRegistry meterRegistry,
+                   @Value("${ldapadmin.push.timeout-minutes:30}") long timeoutMinutes,
+                   @Value("${ldapadmin.push.max-per-account:5}") int maxPerAccount,
+                   @Value("${ldapadmin.push.queue-size:64}") int queueSize) {
+        this.objectMapper  = objectMapper;
+        this.executor      = executor;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.maxPerAccount = Math.max(1, maxPerAccount);
+        this.queueSize     = Math.max(1, queueSize);
+
+        Gauge.builder("ldapadmin.push.subscribers", this, PushHub::subscriberCount)
+                .description("Open Server-Sent Events streams")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("ldapadmin.push.overflow.disconnects")
+                .description("Event streams closed because the client fell too far behind")
+                .register(meterRegistry);
+    }
+
+    /** Opens an event stream for the principal. */
+    public SseEmitter subscribe(AuthPrincipal principal) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = register(principal.id(), principal.isSuperadmin(), new EmitterSink(emitter));
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+        // Flushes the response headers so the browser sees the stream open
+        offer(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    // ── Publishing ────────────────────────────────────────────────────────────
+
+    /** Sends an event to every stream the account has open. */
+    public void sendToAccount(UUID accountId, String event, Object payload) {
+        List<Subscriber> subs = subscribers.get(accountId);
+        if (subs == null || subs.isEmpty()) return;
+        Message message = message(event, payload);
+        for (Subscriber sub : subs) {
+            offer(sub, message);
+        }
+    }
+
+    /** Sends an event to every superadmin stream. */
+    public void sendToSuperadmins(String event, Object payload) {
+        broadcast(event, payload, Subscriber::superadmin);
+    }
+
+    public boolean hasSubscribers(UUID accountId) {
+        List<Subscriber> subs = subscribers.get(accountId);
+        return subs != null && !subs.isEmpty();
+    }
+
+    public boolean hasSuperadminSubscribers() {
+        return subscribers.values().stream().flatMap(List::stream).anyMatch(Subscriber::superadmin);
+    }
+
+    public boolean hasAnySubscribers() {
+        return subscriberCount() > 0;
+    }
+
+    /** Accounts other than superadmins with at least one stream open. */
+    public Set<UUID> adminSubscribers() {
+        Set<UUID> accounts = new HashSet<>();
+        for (List<Subscriber> subs : subscribers.values()) {
+            for (Subscriber sub : subs) {
+                if (!sub.superadmin) accounts.add(sub.accountId);
+            }
+        }
+        return accounts;
+    }
+
+    @Scheduled(fixedDelayString = "${ldapadmin.push.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (List<Subscriber> subs : subscribers.values()) {
+            for (Subscriber sub : subs) {
+                offer(sub, HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (List<Subscriber> subs : subscribers.values()) {
+            for (Subscriber sub : subs) {
+                disconnect(sub);
+            }
+        }
+    }
+
+    // ── Subscribers ───────────────────────────────────────────────────────────
+
+    Subscriber register(UUID accountId, boolean superadmin, Sink sink) {
+        Subscriber subscriber = new Subscriber(accountId, superadmin, sink, queueSize);
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(accountId, (id, subs) -> {
+            if (subs == null) subs = new CopyOnWriteArrayList<>();
+            subs.add(subscriber);
+            while (subs.size() > maxPerAccount) {
+                evicted.add(subs.remove(0));
+            }
+            return subs;
+        });
+        evicted.forEach(this::disconnect);
+        return subscriber;
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.accountId, (id, subs) -> {
+            subs.remove(subscriber);
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    /** Unregisters the subscriber and ends its response. */
+    private void disconnect(Subscriber subscriber) {
+        unregister(subscriber);
+        try {
+            subscriber.sink.close();
+        } catch (RuntimeException e) {
+            log.debug("Closing event stream for account {} failed: {}", subscriber.accountId, e.getMessage());
+        }
+    }
+
+    private int subscriberCount() {
+        int count = 0;
+        for (List<Subscriber> subs : subscribers.values()) {
+            count += subs.size();
+        }
+        return count;
+    }
+
+    // ── Delivery ──────────────────────────────────────────────────────────────
+
+    private void broadcast(String event, Object payload, Predicate<Subscriber> filter) {
+        Message message = null;
+        for (List<Subscriber> subs : subscribers.values()) {
+            for (Subscriber sub : subs) {
+                if (!filter.test(sub)) continue;
+                if (message == null) message = message(event, payload);
+                offer(sub, message);
+            }
+        }
+    }
+
+    private Message message(String event, Object payload) {
+        try {
+            return new Message(event, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize '" + event + "' event: " + e.getMessage(), e);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Message message) {
+        if (subscriber.closed) return;
+        if (!subscriber.queue.offer(message)) {
+            log.debug("Event stream for account {} fell {} events behind — disconnecting",
+                    subscriber.accountId, queueSize);
+            disconnected.increment();
+            disconnect(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            disconnect(subscriber);
+        }
+    }
+
+    /** Writes queued events in order; at most one drain runs per subscriber. */
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while (!subscriber.closed && (message = subscriber.queue.poll()) != null) {
+                subscriber.sink.send(message.event(), message.data());
+            }
+        } catch (IOException | RuntimeException e) {
+            // The container reports the failure to the emitter, which completes it
+            log.debug("Event stream for account {} failed: {}", subscriber.accountId, e.getMessage());
+            unregister(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /** Where a subscriber's events are written; an {@link SseEmitter} outside tests. */
+    interface Sink {
+        /** Writes one event, or a comment when {@code event} is null. */
+        void send(String event, String data) throws IOException;
+
+        void close();
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements Sink {
+
+        @Override
+        public void send(String event, String data) throws IOException {
+            emitter.send(event == null
+                    ? SseEmitter.event().comment("")
+                    : SseEmitter.event().name(event).data(data));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+
+    private record Message(String event, String data) {}
+
+    static final class Subscriber {
+        private final UUID                   accountId;
+        private final boolean                superadmin;
+        private final Sink                   sink;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean          draining = new AtomicBoolean();
+        private volatile boolean             closed;
+
+        private Subscriber(UUID accountId, boolean superadmin, Sink sink, int queueSize) {
+            this.accountId  = accountId;
+            this.superadmin = superadmin;
+            this.sink       = sink;
+            this.queue      = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        boolean superadmin() {
+            return superadmin;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ldapadmin.service.report;
+
+import com.ldapadmin.util.CsvUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes report rows as UTF-8 CSV onto a stream as they arrive.
+ * The caller owns the stream; {@link #finish()} flushes but does not close it.
+ */
+public class CsvReportWriter implements ReportRowSink {
+
+    private final Writer writer;
+
+    public CsvReportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void columns(List<String> columns) {
+        try {
+            CsvUtils.writeHeader(writer, columns);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void row(String... values) {
+        try {
+            CsvUtils.writeValues(writer, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        writer.flush();
+    }
+}
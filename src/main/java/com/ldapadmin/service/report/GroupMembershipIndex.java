@@ -0,0 +1,95 @@
+package com.ldapadmin.service.report;
+
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.ldapadmin.ldap.model.LdapUser;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.LDAPException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Member → groups index built from one pass over the groups, against which
+ * users are then streamed.
+ *
+ * <p>Each group is stored once as an ordinal; each member key maps to the
+ * ordinals of its groups.  DN-valued members ({@code member},
+ * {@code uniqueMember}) are keyed by normalised DN, {@code memberUid}
+ * values by lower-cased uid, so a user matches either way.</p>
+ */
+public final class GroupMembershipIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final List<String> groupNames = new ArrayList<>();
+    private final Map<String, int[]> byDn = new HashMap<>();
+    private final Map<String, int[]> byUid = new HashMap<>();
+
+    /** Adds a group; usable directly as a group search consumer. */
+    public void add(LdapGroup group) {
+        int ordinal = groupNames.size();
+        groupNames.add(group.getCn() != null ? group.getCn() : group.getDn());
+
+        List<String> dnMembers = new ArrayList<>(group.getMember());
+        dnMembers.addAll(group.getUniqueMember());
+        if (!dnMembers.isEmpty()) {
+            for (String member : dnMembers) {
+                link(byDn, normalizeDn(member), ordinal);
+            }
+        } else {
+            for (String uid : group.getMemberUid()) {
+                link(byUid, uid.toLowerCase(Locale.ROOT), ordinal);
+            }
+        }
+    }
+
+    public int groupCount() {
+        return groupNames.size();
+    }
+
+    public boolean isMember(LdapUser user) {
+        return byDn.containsKey(normalizeDn(user.getDn()))
+                || (user.getUid() != null && byUid.containsKey(user.getUid().toLowerCase(Locale.ROOT)));
+    }
+
+    /** Names of the groups {@code user} belongs to, in the order the groups were added. */
+    public List<String> groupsOf(LdapUser user) {
+        int[] viaDn = byDn.getOrDefault(normalizeDn(user.getDn()), NONE);
+        int[] viaUid = user.getUid() != null
+                ? byUid.getOrDefault(user.getUid().toLowerCase(Locale.ROOT), NONE) : NONE;
+        if (viaDn.length == 0 && viaUid.length == 0) return List.of();
+
+        int[] ordinals = Arrays.copyOf(viaDn, viaDn.length + viaUid.length);
+        System.arraycopy(viaUid, 0, ordinals, viaDn.length, viaUid.length);
+        Arrays.sort(ordinals);
+        List<String> names = new ArrayList<>(ordinals.length);
+        for (int i = 0; i < ordinals.length; i++) {
+            if (i == 0 || ordinals[i] != ordinals[i - 1]) names.add(groupNames.get(ordinals[i]));
+        }
+        return names;
+    }
+
+    /** Normalised form of {@code dn} for matching; lower-cased as-is if it does not parse. */
+    public static String normalizeDn(String dn) {
+        try {
+            return new DN(dn).toNormalizedString();
+        } catch (LDAPException e) {
+            return dn.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static void link(Map<String, int[]> index, String key, int ordinal) {
+        int[] current = index.get(key);
+        if (current == null) {
+            index.put(key, new int[] {ordinal});
+        } else if (current[current.length - 1] != ordinal) {
+            int[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = ordinal;
+            index.put(key, grown);
+        }
+    }
+}
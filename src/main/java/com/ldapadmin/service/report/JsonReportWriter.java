@@ -0,0 +1,66 @@
+package com.ldapadmin.service.report;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes report rows as {@code {"columns": [...], "rows": [{column: value}, ...]}}
+ * onto a stream as they arrive — the shape the report screens display.
+ * The caller owns the stream; {@link #finish()} flushes but does not close it.
+ */
+public class JsonReportWriter implements ReportRowSink {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonGenerator json;
+    private List<String> columns = List.of();
+
+    public JsonReportWriter(OutputStream out) throws IOException {
+        this.json = JSON.createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartObject();
+    }
+
+    @Override
+    public void columns(List<String> columns) {
+        this.columns = columns;
+        try {
+            json.writeArrayFieldStart("columns");
+            for (String column : columns) {
+                json.writeString(column);
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("rows");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void row(String... values) {
+        try {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                String value = i < values.length ? values[i] : null;
+                json.writeStringField(columns.get(i), value != null ? value : "");
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        if (json.getOutputContext().inArray()) {
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+        json.flush();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ldapadmin.service.report;
+
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.unboundid.ldap.sdk.DN;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.RDN;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the searches that read a group's members back in a few round trips
+ * instead of one search per member.
+ *
+ * <p>DN members are grouped by parent entry.  A parent holding at least
+ * {@link #SCAN_THRESHOLD} members is read with a single search of its
+ * subtree; otherwise its members are looked up with OR filters of their
+ * RDNs, {@link #BATCH_SIZE} at a time.  {@code memberUid} values become
+ * {@code (uid=…)} OR filters under the directory base.  Searches may
+ * return entries that are not members (a scanned subtree, an RDN repeated
+ * elsewhere below the parent), so callers check each result against a
+ * {@link GroupMembershipIndex} of the group.</p>
+ */
+public final class MemberSearchPlan {
+
+    static final int BATCH_SIZE = 1_000;
+
+    static final int SCAN_THRESHOLD = 5_000;
+
+    private static final Filter ANY = Filter.createPresenceFilter("objectClass");
+
+    private MemberSearchPlan() {}
+
+    /** One search: subtree of {@code baseDn} ({@code null} = directory base) with {@code filter}. */
+    public record Search(String baseDn, String filter) {}
+
+    public static List<Search> forGroup(LdapGroup group) {
+        List<String> dnMembers = new ArrayList<>(group.getMember());
+        dnMembers.addAll(group.getUniqueMember());
+
+        List<Search> searches = new ArrayList<>();
+        if (dnMembers.isEmpty()) {
+            List<Filter> uids = new ArrayList<>();
+            for (String uid : group.getMemberUid()) {
+                uids.add(Filter.createEqualityFilter("uid", uid));
+            }
+            addBatches(searches, null, uids);
+            return searches;
+        }
+
+        Map<String, List<Filter>> byParent = new LinkedHashMap<>();
+        for (String member : dnMembers) {
+            try {
+                DN dn = new DN(member);
+                DN parent = dn.getParent();
+                if (parent == null) continue;
+                byParent.computeIfAbsent(parent.toString(), k -> new ArrayList<>()).add(rdnFilter(dn.getRDN()));
+            } catch (LDAPException e) {
+                // Not a DN — nothing to look up
+            }
+        }
+        byParent.forEach((parent, filters) -> {
+            if (filters.size() >= SCAN_THRESHOLD) {
+                searches.add(new Search(parent, ANY.toString()));
+            } else {
+                addBatches(searches, parent, filters);
+            }
+        });
+        return searches;
+    }
+
+    private static void addBatches(List<Search> searches, String baseDn, List<Filter> filters) {
+        for (int from = 0; from < filters.size(); from += BATCH_SIZE) {
+            List<Filter> batch = filters.subList(from, Math.min(from + BATCH_SIZE, filters.size()));
+            Filter filter = batch.size() == 1 ? batch.get(0) : Filter.createORFilter(batch);
+            searches.add(new Search(baseDn, filter.toString()));
+        }
+    }
+
+    private static Filter rdnFilter(RDN rdn) {
+        String[] names = rdn.getAttributeNames();
+        String[] values = rdn.getAttributeValues();
+        if (names.length == 1) {
+            return Filter.createEqualityFilter(names[0], values[0]);
+        }
+        List<Filter> parts = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            parts.add(Filter.createEqualityFilter(names[i], values[i]));
+        }
+        return Filter.createANDFilter(parts);
+    }
+}
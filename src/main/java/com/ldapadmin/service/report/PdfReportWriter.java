@@ -0,0 +1,184 @@
+package com.ldapadmin.service.report;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.ExceptionConverter;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Renders report rows as a styled PDF onto a stream as they arrive.
+ *
+ * <p>Each section's table is built incomplete and handed to the document
+ * every {@code flushRows} rows; the document lays out the rows it has, writes
+ * finished pages to the stream and drops them.  Memory therefore stays
+ * bounded by one page and one batch of rows, however long the report.  The
+ * header row is repeated on every page.</p>
+ *
+ * <p>Call {@link #section} (optional) and {@link #columns} to start each
+ * table, {@link #row} for its rows, then {@link #finish()}.  The caller owns
+ * the stream; {@link #finish()} flushes but does not close it.</p>
+ */
+public class PdfReportWriter implements ReportRowSink {
+
+    public static final int DEFAULT_FLUSH_ROWS = 500;
+
+    private static final Font TITLE_FONT =
+            new Font(Font.HELVETICA, 18, Font.BOLD, new Color(33, 37, 41));
+    private static final Font SUBTITLE_FONT =
+            new Font(Font.HELVETICA, 10, Font.NORMAL, new Color(108, 117, 125));
+    private static final Font HEADER_FONT =
+            new Font(Font.HELVETICA, 9, Font.BOLD, Color.WHITE);
+    private static final Font CELL_FONT =
+            new Font(Font.HELVETICA, 8, Font.NORMAL, new Color(33, 37, 41));
+    private static final Font SECTION_FONT =
+            new Font(Font.HELVETICA, 13, Font.BOLD, new Color(33, 37, 41));
+    private static final Color HEADER_BG = new Color(52, 58, 64);
+    private static final Color ALT_ROW_BG = new Color(248, 249, 250);
+
+    private final Document     document;
+    private final OutputStream out;
+    private final int          flushRows;
+
+    private PdfPTable table;
+    private int       columnCount;
+    private int       tableRows;
+    private int       unflushed;
+
+    /**
+     * Opens the document and writes its title block.
+     *
+     * @param subtitle the line under the title, e.g. branding and generation time
+     */
+    public PdfReportWriter(OutputStream out, String title, String subtitle, int flushRows) throws IOException {
+        this.out       = out;
+        this.flushRows = Math.max(1, flushRows);
+        this.document  = new Document(PageSize.A4.rotate(), 36, 36, 36, 36);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+
+            Paragraph titlePara = new Paragraph(title, TITLE_FONT);
+            titlePara.setSpacingAfter(4);
+            document.add(titlePara);
+
+            Paragraph subtitlePara = new Paragraph(subtitle, SUBTITLE_FONT);
+            subtitlePara.setSpacingAfter(16);
+            document.add(subtitlePara);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate PDF: " + e.getMessage(), e);
+        }
+    }
+
+    /** Adds a section heading; the next {@link #columns} call starts its table. */
+    public void section(String title) {
+        finishTable();
+        if (title == null || title.isEmpty()) return;
+        Paragraph sectionPara = new Paragraph(title, SECTION_FONT);
+        sectionPara.setSpacingBefore(12);
+        sectionPara.setSpacingAfter(6);
+        add(sectionPara);
+    }
+
+    @Override
+    public void columns(List<String> columns) {
+        finishTable();
+        columnCount = columns.size();
+        tableRows   = 0;
+        unflushed   = 0;
+        table = new PdfPTable(Math.max(1, columnCount));
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(4);
+        table.setComplete(false);
+        table.setHeaderRows(1);
+        for (String header : columns) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, HEADER_FONT));
+            cell.setBackgroundColor(HEADER_BG);
+            cell.setPadding(6);
+            table.addCell(cell);
+        }
+    }
+
+    @Override
+    public void row(String... values) {
+        Color bg = (tableRows % 2 == 1) ? ALT_ROW_BG : Color.WHITE;
+        for (int c = 0; c < columnCount; c++) {
+            String value = c < values.length && values[c] != null ? values[c] : "";
+            PdfPCell cell = new PdfPCell(new Phrase(value, CELL_FONT));
+            cell.setBackgroundColor(bg);
+            cell.setPadding(5);
+            table.addCell(cell);
+        }
+        tableRows++;
+        if (++unflushed >= flushRows) {
+            add(table);
+            unflushed = 0;
+        }
+    }
+
+    /** Same as {@link #row(String...)}, for rows held as lists. */
+    public void row(List<String> values) {
+        row(values.toArray(String[]::new));
+    }
+
+    /** Completes the last table and the document, and flushes the stream. */
+    public void finish() throws IOException {
+        try {
+            finishTable();
+            document.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (ExceptionConverter e) {
+            throw asIOException(e);
+        }
+        out.flush();
+    }
+
+    private void finishTable() {
+        if (table == null) return;
+        if (tableRows == 0) {
+            PdfPCell emptyCell = new PdfPCell(new Phrase("No data available", CELL_FONT));
+            emptyCell.setColspan(Math.max(1, columnCount));
+            emptyCell.setPadding(8);
+            emptyCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(emptyCell);
+        }
+        table.setComplete(true);
+        add(table);
+        table = null;
+    }
+
+    private void add(Element element) {
+        try {
+            document.add(element);
+        } catch (DocumentException | ExceptionConverter e) {
+            throw new UncheckedIOException(asIOException(e));
+        }
+    }
+
+    /**
+     * OpenPDF wraps a failed write to the stream, sometimes twice; unwrap it
+     * so callers see the original IOException, e.g. a client disconnect.
+     */
+    private static IOException asIOException(RuntimeException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ExceptionConverter converter && converter.getException() instanceof IOException io) {
+                return io;
+            }
+        }
+        return new IOException("Failed to generate PDF: " + e.getMessage(), e);
+    }
+}
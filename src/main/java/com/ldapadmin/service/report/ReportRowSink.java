@@ -0,0 +1,18 @@
+package com.ldapadmin.service.report;
+
+import java.util.List;
+
+/**
+ * Receives a report's rows as they are produced.
+ *
+ * <p>A report calls {@link #columns} exactly once, then {@link #row} once per
+ * row.  Rows are positional: {@code values[i]} belongs to {@code columns.get(i)};
+ * {@code null} renders as an empty cell.  Writers that fail on I/O throw
+ * {@link java.io.UncheckedIOException}.</p>
+ */
+public interface ReportRowSink {
+
+    void columns(List<String> columns);
+
+    void row(String... values);
+}
@@ -1,5 +1,6 @@
 package com.ldapadmin.service.siem;
 
+import com.ldapadmin.config.ExecutorConfig;
 import com.ldapadmin.entity.ApplicationSettings;
 import com.ldapadmin.entity.AuditEvent;
 import com.ldapadmin.entity.enums.AuditAction;
@@ -58,7 +59,7 @@ public class SiemExportService {
      * Exports a single audit event to the configured SIEM destination.
      * Runs async — failures are logged but never propagated.
      */
-    @Async
+    @Async(ExecutorConfig.SIEM_EXECUTOR)
     public void export(AuditEvent event) {
         try {
             ApplicationSettings settings = getCachedSettings();
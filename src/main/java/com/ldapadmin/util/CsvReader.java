@@ -0,0 +1,159 @@
+package com.ldapadmin.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV tokenizer.
+ *
+ * <p>Records are read one at a time with {@link #next()}; the fields of the
+ * current record are exposed through {@link #size()} and {@link #get(int)}
+ * and are overwritten by the following call, so only one record is held in
+ * memory regardless of the input size.  Quoted fields may contain commas,
+ * doubled quotes and line breaks; {@code \r\n}, {@code \n} and {@code \r}
+ * all end a record.  Blank lines are skipped and a leading UTF-8 BOM is
+ * ignored.</p>
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader        reader;
+    private final char[]        buf = new char[8192];
+    private final StringBuilder field = new StringBuilder();
+    private final List<String>  fields = new ArrayList<>();
+
+    private int  pos;
+    private int  limit;
+    private long recordNumber;
+    private boolean started;
+
+    public CsvReader(InputStream input) {
+        this(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     *
+     * @return {@code false} at end of input
+     */
+    public boolean next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') pos++;
+        }
+        while (true) {
+            fields.clear();
+            if (peek() == EOF) return false;
+            boolean quoted = readRecord();
+            if (quoted || fields.size() > 1 || !fields.get(0).isBlank()) {
+                recordNumber++;
+                return true;
+            }
+        }
+    }
+
+    /** Number of fields in the current record. */
+    public int size() {
+        return fields.size();
+    }
+
+    /** Field {@code index} of the current record, or {@code ""} past its end. */
+    public String get(int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    /** The current record's fields as a new array. */
+    public String[] toArray() {
+        return fields.toArray(new String[0]);
+    }
+
+    /** 1-based position of the current record among the non-blank records read. */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // ── Tokenizer ─────────────────────────────────────────────────────────────
+
+    /** Reads one physical-or-logical record into {@link #fields}; returns whether any field was quoted. */
+    private boolean readRecord() throws IOException {
+        boolean anyQuoted = false;
+        field.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"' && field.isEmpty()) {
+                anyQuoted = true;
+                readQuoted();
+                continue;
+            }
+            if (c == ',') {
+                endField();
+            } else if (c == '\n' || c == EOF) {
+                endField();
+                return anyQuoted;
+            } else if (c == '\r') {
+                if (peek() == '\n') pos++;
+                endField();
+                return anyQuoted;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /** Consumes a quoted section up to and including its closing quote. */
+    private void readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) return; // lenient: unterminated quote runs to end of input
+            if (c == '"') {
+                if (peek() == '"') {
+                    pos++;
+                    field.append('"');
+                } else {
+                    return;
+                }
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private void endField() {
+        fields.add(field.toString());
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return EOF;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return EOF;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -1,13 +1,11 @@
 package com.ldapadmin.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,8 +19,7 @@ import java.util.Map;
  *       maps of {@code header → value}.</li>
  *   <li>Fields may be optionally enclosed in double-quotes.</li>
  *   <li>Embedded double-quotes inside a quoted field are doubled ({@code ""}).</li>
- *   <li>Multi-line quoted values spanning physical newlines are NOT supported;
- *       newlines within a field must be represented by the caller.</li>
+ *   <li>Quoted values may span physical newlines.</li>
  * </ul>
  *
  * <h3>Write</h3>
@@ -44,60 +41,15 @@ public final class CsvUtils {
      *
      * <p>Fully RFC 4180-compliant: quoted fields may span multiple physical
      * lines (newlines inside a quoted value are preserved), and embedded
-     * double-quotes are represented by two consecutive double-quotes ({@code ""}).</p>
+     * double-quotes are represented by two consecutive double-quotes ({@code ""}).
+     * For inputs too large to hold in memory, read records with
+     * {@link CsvReader} instead.</p>
      *
      * @return ordered list of row maps; empty list if the stream has no data rows
      * @throws IOException on I/O errors
      */
     public static List<Map<String, String>> parse(InputStream input) throws IOException {
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(input, StandardCharsets.UTF_8));
-
-        List<String[]> rawRows = new ArrayList<>();
-        StringBuilder logical = new StringBuilder(); // accumulates a logical (possibly multi-line) row
-        boolean inQuote = false;
-
-        String physLine;
-        while ((physLine = reader.readLine()) != null) {
-            if (logical.length() > 0 || !physLine.isBlank()) {
-                if (logical.length() > 0) {
-                    // Re-insert the newline that readLine() stripped; the field spans lines.
-                    logical.append('\n');
-                }
-                logical.append(physLine);
-
-                // Scan the new physical line to track whether we are inside a quoted field.
-                // Two consecutive quotes ("") are an escape sequence, not a boundary toggle.
-                for (int i = 0; i < physLine.length(); i++) {
-                    if (physLine.charAt(i) == '"') {
-                        if (i + 1 < physLine.length() && physLine.charAt(i + 1) == '"') {
-                            i++; // skip the escaped quote
-                        } else {
-                            inQuote = !inQuote;
-                        }
-                    }
-                }
-
-                if (!inQuote) {
-                    // Logical row is complete — parse it and reset the buffer
-                    String logicalRow = logical.toString();
-                    logical.setLength(0);
-                    if (!logicalRow.isBlank()) {
-                        rawRows.add(parseRow(logicalRow));
-                    }
-                }
-            }
-        }
-        // Lenient: handle unterminated quoted field at EOF
-        if (logical.length() > 0) {
-            rawRows.add(parseRow(logical.toString()));
-        }
-
-        if (rawRows.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        return assembleRowMaps(rawRows, true);
+        return parse(input, true);
     }
 
     /**
@@ -109,51 +61,23 @@ public final class CsvUtils {
      */
     public static List<Map<String, String>> parse(InputStream input, boolean hasHeaderRow)
             throws IOException {
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(input, StandardCharsets.UTF_8));
-
         List<String[]> rawRows = new ArrayList<>();
-        StringBuilder logical = new StringBuilder();
-        boolean inQuote = false;
-
-        String physLine;
-        while ((physLine = reader.readLine()) != null) {
-            if (logical.length() > 0 || !physLine.isBlank()) {
-                if (logical.length() > 0) {
-                    logical.append('\n');
-                }
-                logical.append(physLine);
-
-                for (int i = 0; i < physLine.length(); i++) {
-                    if (physLine.charAt(i) == '"') {
-                        if (i + 1 < physLine.length() && physLine.charAt(i + 1) == '"') {
-                            i++;
-                        } else {
-                            inQuote = !inQuote;
-                        }
-                    }
-                }
-
-                if (!inQuote) {
-                    String logicalRow = logical.toString();
-                    logical.setLength(0);
-                    if (!logicalRow.isBlank()) {
-                        rawRows.add(parseRow(logicalRow));
-                    }
-                }
-            }
-        }
-        if (logical.length() > 0) {
-            rawRows.add(parseRow(logical.toString()));
+        CsvReader reader = new CsvReader(input);
+        while (reader.next()) {
+            rawRows.add(reader.toArray());
         }
-
         return assembleRowMaps(rawRows, hasHeaderRow);
     }
 
+    /** Synthetic name of column {@code index} (0-based) in a CSV without a header row. */
+    public static String syntheticColumnName(int index) {
+        return "Column " + (index + 1);
+    }
+
     private static List<Map<String, String>> assembleRowMaps(List<String[]> rawRows,
                                                               boolean hasHeaderRow) {
         if (rawRows.isEmpty()) {
-            return Collections.emptyList();
+            return List.of();
         }
 
         String[] headers;
@@ -165,7 +89,7 @@ public final class CsvUtils {
             int maxCols = rawRows.stream().mapToInt(r -> r.length).max().orElse(0);
             headers = new String[maxCols];
             for (int c = 0; c < maxCols; c++) {
-                headers[c] = "Column " + (c + 1);
+                headers[c] = syntheticColumnName(c);
             }
             dataStart = 0;
         }
@@ -232,6 +156,16 @@ public final class CsvUtils {
         writer.write(buildRow(values));
     }
 
+    /**
+     * Writes a single data row of positional values to {@code writer}.
+     *
+     * @param writer destination writer
+     * @param values cell values in column order; {@code null} produces an empty cell
+     */
+    public static void writeValues(Writer writer, String... values) throws IOException {
+        writer.write(buildRow(Arrays.asList(values)));
+    }
+
     // ── Private helpers ───────────────────────────────────────────────────────
 
     /** Appends a single RFC 4180 CSV row (all fields quoted). */
@@ -252,57 +186,4 @@ public final class CsvUtils {
         sb.append("\r\n");
         return sb.toString();
     }
-
-    /**
-     * Parses a single CSV line into an array of field values.
-     * Handles quoted fields with embedded commas and doubled double-quotes.
-     */
-    static String[] parseRow(String line) {
-        List<String> fields = new ArrayList<>();
-        int i = 0;
-        while (i <= line.length()) {
-            if (i == line.length()) {
-                // Trailing comma produced an empty last field
-                fields.add("");
-                break;
-            }
-
-            if (line.charAt(i) == '"') {
-                // Quoted field
-                i++; // skip opening quote
-                StringBuilder field = new StringBuilder();
-                while (i < line.length()) {
-                    char c = line.charAt(i);
-                    if (c == '"') {
-                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                            field.append('"'); // escaped double-quote
-                            i += 2;
-                        } else {
-                            i++; // closing quote
-                            break;
-                        }
-                    } else {
-                        field.append(c);
-                        i++;
-                    }
-                }
-                fields.add(field.toString());
-                if (i < line.length() && line.charAt(i) == ',') {
-                    i++; // skip delimiter
-                }
-
-            } else {
-                // Unquoted field — read until next comma or end
-                int start = i;
-                while (i < line.length() && line.charAt(i) != ',') {
-                    i++;
-                }
-                fields.add(line.substring(start, i));
-                if (i < line.length()) {
-                    i++; // skip comma
-                }
-            }
-        }
-        return fields.toArray(new String[0]);
-    }
 }
@@ -0,0 +1,188 @@
+package com.ldapadmin.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Set of DNs stored as a trie of RDNs read right-to-left (suffix first), so
+ * entries under a common parent share that parent's nodes.
+ *
+ * <p>Every lookup walks at most one node per RDN of the probe DN, making
+ * containment and ancestor checks O(depth) regardless of how many DNs are
+ * stored.  RDNs are compared case-insensitively with surrounding whitespace
+ * removed; escaped separators ({@code \,}) are respected.</p>
+ *
+ * <p>Not thread-safe for writes.  A fully built trie that is no longer
+ * modified may be shared freely between threads.</p>
+ */
+public final class DnTrie {
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Adds a DN.  Returns {@code true} if it was not already present.
+     */
+    public boolean add(String dn) {
+        List<String> rdns = rdns(dn);
+        Node node = root;
+        for (int i = rdns.size() - 1; i >= 0; i--) {
+            node = node.child(rdns.get(i), true);
+        }
+        if (node.terminal) {
+            return false;
+        }
+        node.terminal = true;
+        size++;
+        return true;
+    }
+
+    /** Exact membership test. */
+    public boolean contains(String dn) {
+        Node node = find(rdns(dn), false);
+        return node != null && node.terminal;
+    }
+
+    /**
+     * Returns {@code true} if {@code dn} equals, or is a descendant of, any DN
+     * in this set.
+     */
+    public boolean containsSelfOrAncestorOf(String dn) {
+        List<String> rdns = rdns(dn);
+        Node node = root;
+        if (node.terminal) return true;
+        for (int i = rdns.size() - 1; i >= 0; i--) {
+            node = node.child(rdns.get(i), false);
+            if (node == null) return false;
+            if (node.terminal) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if {@code dn} equals, is a descendant of, or is an
+     * ancestor of any DN in this set — i.e. a subtree search rooted at
+     * {@code dn} overlaps the set.
+     */
+    public boolean overlapsSubtreeOf(String dn) {
+        List<String> rdns = rdns(dn);
+        Node node = root;
+        if (node.terminal) return true;
+        for (int i = rdns.size() - 1; i >= 0; i--) {
+            node = node.child(rdns.get(i), false);
+            if (node == null) return false;
+            if (node.terminal) return true;
+        }
+        // Walked the whole probe DN: any stored DN below this node is a descendant
+        return node.children != null && !node.children.isEmpty();
+    }
+
+    /**
+     * Calls {@code action} with {@code (dn, parentDn)} for every DN strictly
+     * below {@code baseDn} whose parent DN is not in the set.  Reported DNs
+     * are in normalised (lower-case, trimmed) form; only the reported DNs
+     * are materialised as strings.
+     */
+    public void forEachWithoutParent(String baseDn, BiConsumer<String, String> action) {
+        List<String> baseRdns = rdns(baseDn);
+        Node base = baseRdns.isEmpty() ? null : find(baseRdns, false);
+        if (base == null) return;
+        visitWithoutParent(base, new ArrayDeque<>(), String.join(",", baseRdns), action);
+    }
+
+    private static void visitWithoutParent(Node parent, Deque<String> path, String suffix,
+                                           BiConsumer<String, String> action) {
+        if (parent.children == null) return;
+        for (Map.Entry<String, Node> e : parent.children.entrySet()) {
+            Node child = e.getValue();
+            path.push(e.getKey());
+            if (child.terminal && !parent.terminal) {
+                String dn = join(path, suffix);
+                action.accept(dn, dn.substring(e.getKey().length() + 1));
+            }
+            visitWithoutParent(child, path, suffix, action);
+            path.pop();
+        }
+    }
+
+    private static String join(Deque<String> path, String suffix) {
+        StringBuilder sb = new StringBuilder();
+        for (String rdn : path) {
+            sb.append(rdn).append(',');
+        }
+        return sb.append(suffix).toString();
+    }
+
+    /** Number of distinct DNs added. */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ── DN parsing ────────────────────────────────────────────────────────────
+
+    /**
+     * Splits a DN into normalised RDNs in left-to-right order.  Splits on
+     * unescaped commas, trims and lower-cases each component; empty
+     * components are dropped.
+     */
+    public static List<String> rdns(String dn) {
+        List<String> out = new ArrayList<>(8);
+        if (dn == null) return out;
+        int start = 0;
+        int len = dn.length();
+        for (int i = 0; i < len; i++) {
+            char c = dn.charAt(i);
+            if (c == '\\') {
+                i++; // skip escaped character
+            } else if (c == ',') {
+                addRdn(out, dn, start, i);
+                start = i + 1;
+            }
+        }
+        addRdn(out, dn, start, len);
+        return out;
+    }
+
+    private static void addRdn(List<String> out, String dn, int from, int to) {
+        String rdn = dn.substring(from, to).trim();
+        if (!rdn.isEmpty()) {
+            out.add(rdn.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private Node find(List<String> rdns, boolean create) {
+        Node node = root;
+        for (int i = rdns.size() - 1; i >= 0 && node != null; i--) {
+            node = node.child(rdns.get(i), create);
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private Map<String, Node> children;
+        private boolean terminal;
+
+        Node child(String rdn, boolean create) {
+            if (children == null) {
+                if (!create) return null;
+                children = new HashMap<>(4);
+            }
+            Node n = children.get(rdn);
+            if (n == null && create) {
+                n = new Node();
+                children.put(rdn, n);
+            }
+            return n;
+        }
+    }
+}
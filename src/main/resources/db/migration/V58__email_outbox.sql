@@ -0,0 +1,21 @@
+-- Transactional outbox for notification email.
+--
+-- Rows are written in the same transaction as the business change that
+-- triggers them and drained by EmailOutboxSender, which reuses one SMTP
+-- session per batch and retries with exponential backoff.
+-- body_encrypted is AES-256-GCM ciphertext (bodies may carry temporary passwords).
+
+CREATE TABLE email_outbox (
+    id               UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    recipients       TEXT         NOT NULL,
+    subject          VARCHAR(998) NOT NULL,
+    body_encrypted   TEXT         NOT NULL,
+    status           VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts         INT          NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    last_error       TEXT,
+    created_at       TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    sent_at          TIMESTAMPTZ
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
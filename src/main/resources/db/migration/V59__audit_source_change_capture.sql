@@ -0,0 +1,13 @@
+-- Push-based change capture and resumable changelog reads.
+--   change_capture_mode: POLL (scheduled search) or PUSH (persistent search /
+--                        RFC 4533 refreshAndPersist kept open per source)
+--   last_change_id:      highest changeNumber / reqStart recorded; reads resume after it
+--   sync_cookie:         RFC 4533 sync cookie for resuming a refreshAndPersist stream
+ALTER TABLE audit_data_sources
+    ADD COLUMN change_capture_mode VARCHAR(10) NOT NULL DEFAULT 'POLL',
+    ADD COLUMN last_change_id      VARCHAR(255),
+    ADD COLUMN sync_cookie         BYTEA;
+
+ALTER TABLE audit_data_sources
+    ADD CONSTRAINT chk_change_capture_mode
+    CHECK (change_capture_mode IN ('POLL', 'PUSH'));
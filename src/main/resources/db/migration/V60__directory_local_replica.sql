@@ -0,0 +1,4 @@
+-- Opt-in in-process replica of a directory's entries, used to serve
+-- reports, snapshots and dashboard counts without re-reading the DC.
+ALTER TABLE directory_connections
+    ADD COLUMN local_replica_enabled BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,19 @@
+-- Optimistic-lock version for review decisions, so set-based bulk updates
+-- and single decisions on the same rows cannot overwrite each other.
+ALTER TABLE access_review_decisions
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Per-group progress counters, maintained as decisions are made instead
+-- of recounting every decision row on each listing.
+ALTER TABLE access_review_groups
+    ADD COLUMN total_count     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN confirmed_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN revoked_count   INTEGER NOT NULL DEFAULT 0;
+
+UPDATE access_review_groups g SET
+    total_count     = (SELECT COUNT(*) FROM access_review_decisions d WHERE d.review_group_id = g.id),
+    confirmed_count = (SELECT COUNT(*) FROM access_review_decisions d WHERE d.review_group_id = g.id AND d.decision = 'CONFIRM'),
+    revoked_count   = (SELECT COUNT(*) FROM access_review_decisions d WHERE d.review_group_id = g.id AND d.decision = 'REVOKE');
+
+-- Default ordering of the paged decision listing
+CREATE INDEX idx_ard_group_display ON access_review_decisions (review_group_id, member_display, id);
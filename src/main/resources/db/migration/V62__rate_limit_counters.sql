@@ -0,0 +1,9 @@
+-- Shared rate-limit counters, used when ldapadmin.rate-limit.backend=database.
+-- One row per limiter, key and fixed window; rows are deleted after expires_at.
+CREATE TABLE rate_limit_counters (
+    bucket      TEXT    PRIMARY KEY,
+    hits        INTEGER NOT NULL,
+    expires_at  BIGINT  NOT NULL
+);
+
+CREATE INDEX idx_rate_limit_counters_expires ON rate_limit_counters (expires_at);
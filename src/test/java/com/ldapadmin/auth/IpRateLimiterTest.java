@@ -1,10 +1,15 @@
 package com.ldapadmin.auth;
 
+import com.ldapadmin.auth.ratelimit.DatabaseRateLimitBackend;
+import com.ldapadmin.auth.ratelimit.LocalRateLimitBackend;
+import com.ldapadmin.auth.ratelimit.RateLimiter;
 import com.ldapadmin.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 class IpRateLimiterTest {
 
@@ -12,7 +17,8 @@ class IpRateLimiterTest {
 
     @BeforeEach
     void setUp() {
-        limiter = new IpRateLimiter();
+        limiter = new IpRateLimiter(new RateLimiter(new LocalRateLimitBackend(1000, 64),
+                mock(DatabaseRateLimitBackend.class), new SimpleMeterRegistry(), "local"));
     }
 
     @Test
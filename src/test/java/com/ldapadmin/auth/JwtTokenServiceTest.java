@@ -93,4 +93,47 @@ class JwtTokenServiceTest {
         assertThat(sa.isSuperadmin()).isTrue();
         assertThat(admin.isSuperadmin()).isFalse();
     }
+
+    @Test
+    void parse_sameTokenTwice_servedFromCache() {
+        String token = jwtTokenService.issue(
+                new AuthPrincipal(PrincipalType.ADMIN, UUID.randomUUID(), "jdoe"));
+
+        AuthPrincipal first  = jwtTokenService.parse(token);
+        AuthPrincipal second = jwtTokenService.parse(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(jwtTokenService.cachedTokenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void parse_cachedSignatureWithDifferentPayload_throwsJwtException() {
+        String adminToken = jwtTokenService.issue(
+                new AuthPrincipal(PrincipalType.ADMIN, UUID.randomUUID(), "jdoe"));
+        String superToken = jwtTokenService.issue(
+                new AuthPrincipal(PrincipalType.SUPERADMIN, UUID.randomUUID(), "root"));
+        jwtTokenService.parse(adminToken);
+
+        // Reuse the cached admin signature with the superadmin payload
+        String[] admin = adminToken.split("\\.");
+        String[] sup   = superToken.split("\\.");
+        String forged  = sup[0] + "." + sup[1] + "." + admin[2];
+
+        assertThatThrownBy(() -> jwtTokenService.parse(forged))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void parse_cacheDisabled_stillValidates() {
+        AppProperties props = new AppProperties();
+        props.getJwt().setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        props.getJwt().setCacheMaxEntries(0);
+        JwtTokenService uncached = new JwtTokenService(props);
+
+        UUID id = UUID.randomUUID();
+        String token = uncached.issue(new AuthPrincipal(PrincipalType.ADMIN, id, "jdoe"));
+
+        assertThat(uncached.parse(token).id()).isEqualTo(id);
+        assertThat(uncached.cachedTokenCount()).isZero();
+    }
 }
@@ -2,6 +2,8 @@ package com.ldapadmin.auth;
 
 import com.ldapadmin.entity.AdminFeaturePermission;
 import com.ldapadmin.entity.AdminProfileRole;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.ProvisioningProfile;
 import com.ldapadmin.entity.enums.BaseRole;
 import com.ldapadmin.entity.enums.FeatureKey;
 
@@ -12,7 +14,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
@@ -28,10 +29,9 @@ class PermissionServiceTest {
 
     @Mock private AdminProfileRoleRepository       profileRoleRepo;
     @Mock private AdminFeaturePermissionRepository featurePermissionRepo;
-    @SuppressWarnings("unchecked")
-    @Mock private ObjectProvider<RequestScopedPermissionCache> cacheProvider;
 
-    private PermissionService permissionService;
+    private AdminPermissionCache permissionCache;
+    private PermissionService    permissionService;
 
     private final UUID adminId   = UUID.randomUUID();
     private final UUID profileId = UUID.randomUUID();
@@ -39,7 +39,8 @@ class PermissionServiceTest {
 
     @BeforeEach
     void setUp() {
-        permissionService = new PermissionService(profileRoleRepo, featurePermissionRepo, cacheProvider);
+        permissionCache   = new AdminPermissionCache(profileRoleRepo, featurePermissionRepo, 300);
+        permissionService = new PermissionService(profileRoleRepo, permissionCache);
     }
 
     // ── Superadmin bypass ─────────────────────────────────────────────────────
@@ -84,8 +85,7 @@ class PermissionServiceTest {
 
     @Test
     void requireDirectoryAccess_noRoleInDirectory_throwsAccessDenied() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId))
-                .thenReturn(false);
+        givenRoles(roleFor(BaseRole.ADMIN, UUID.randomUUID(), "dc=other"));
 
         assertThatThrownBy(() -> permissionService.requireDirectoryAccess(admin(), dirId))
                 .isInstanceOf(AccessDeniedException.class);
@@ -93,8 +93,7 @@ class PermissionServiceTest {
 
     @Test
     void requireDirectoryAccess_roleExistsInDirectory_succeeds() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId))
-                .thenReturn(true);
+        givenRoles(roleFor(BaseRole.READ_ONLY));
 
         permissionService.requireDirectoryAccess(admin(), dirId);
     }
@@ -103,22 +102,14 @@ class PermissionServiceTest {
 
     @Test
     void requireFeature_adminRole_noOverride_writeFeatureGranted() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId)).thenReturn(true);
-        when(featurePermissionRepo.findByAdminAccountIdAndFeatureKey(adminId, FeatureKey.USER_CREATE))
-                .thenReturn(Optional.empty());
-        when(profileRoleRepo.existsByAdminAccountIdAndBaseRole(adminId, BaseRole.ADMIN))
-                .thenReturn(true);
+        givenRoles(roleFor(BaseRole.ADMIN));
 
         permissionService.requireFeature(admin(), dirId, FeatureKey.USER_CREATE);
     }
 
     @Test
     void requireFeature_readOnlyRole_writeFeature_denied() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId)).thenReturn(true);
-        when(featurePermissionRepo.findByAdminAccountIdAndFeatureKey(adminId, FeatureKey.USER_DELETE))
-                .thenReturn(Optional.empty());
-        when(profileRoleRepo.existsByAdminAccountIdAndBaseRole(adminId, BaseRole.ADMIN))
-                .thenReturn(false);
+        givenRoles(roleFor(BaseRole.READ_ONLY));
 
         assertThatThrownBy(() -> permissionService.requireFeature(admin(), dirId, FeatureKey.USER_DELETE))
                 .isInstanceOf(AccessDeniedException.class);
@@ -126,29 +117,23 @@ class PermissionServiceTest {
 
     @Test
     void requireFeature_readOnlyRole_defaultReadFeature_granted() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId)).thenReturn(true);
-        when(featurePermissionRepo.findByAdminAccountIdAndFeatureKey(adminId, FeatureKey.BULK_EXPORT))
-                .thenReturn(Optional.empty());
-        when(profileRoleRepo.existsByAdminAccountIdAndBaseRole(adminId, BaseRole.ADMIN))
-                .thenReturn(false);
+        givenRoles(roleFor(BaseRole.READ_ONLY));
 
         permissionService.requireFeature(admin(), dirId, FeatureKey.BULK_EXPORT);
     }
 
     @Test
     void requireFeature_explicitEnableOverride_grantsAccessEvenForReadOnly() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId)).thenReturn(true);
-        when(featurePermissionRepo.findByAdminAccountIdAndFeatureKey(adminId, FeatureKey.USER_CREATE))
-                .thenReturn(Optional.of(featureOverride(true)));
+        givenRoles(roleFor(BaseRole.READ_ONLY));
+        givenOverrides(featureOverride(FeatureKey.USER_CREATE, true));
 
         permissionService.requireFeature(admin(), dirId, FeatureKey.USER_CREATE);
     }
 
     @Test
     void requireFeature_explicitDisableOverride_deniesEvenForAdmin() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId)).thenReturn(true);
-        when(featurePermissionRepo.findByAdminAccountIdAndFeatureKey(adminId, FeatureKey.USER_DELETE))
-                .thenReturn(Optional.of(featureOverride(false)));
+        givenRoles(roleFor(BaseRole.ADMIN));
+        givenOverrides(featureOverride(FeatureKey.USER_DELETE, false));
 
         assertThatThrownBy(() -> permissionService.requireFeature(admin(), dirId, FeatureKey.USER_DELETE))
                 .isInstanceOf(AccessDeniedException.class);
@@ -156,13 +141,83 @@ class PermissionServiceTest {
 
     @Test
     void requireFeature_noDirectoryRole_throwsAccessDenied() {
-        when(profileRoleRepo.existsByAdminAccountIdAndProfileDirectoryId(adminId, dirId))
-                .thenReturn(false);
+        givenRoles();
 
         assertThatThrownBy(() -> permissionService.requireFeature(admin(), dirId, FeatureKey.USER_CREATE))
                 .isInstanceOf(AccessDeniedException.class);
     }
 
+    // ── Cross-request snapshot ────────────────────────────────────────────────
+
+    @Test
+    void repeatedChecks_loadSnapshotOnce() {
+        givenRoles(roleFor(BaseRole.ADMIN));
+
+        permissionService.requireFeature(admin(), dirId, FeatureKey.USER_CREATE);
+        permissionService.requireFeature(admin(), dirId, FeatureKey.USER_DELETE);
+        permissionService.requireDnWithinScope(admin(), dirId, "cn=a,ou=people,dc=example,dc=com");
+
+        verify(profileRoleRepo, times(1)).findAllByAdminAccountIdWithProfile(adminId);
+        verify(featurePermissionRepo, times(1)).findAllByAdminAccountId(adminId);
+    }
+
+    @Test
+    void permissionsChangedEvent_reloadsSnapshot() {
+        givenRoles(roleFor(BaseRole.READ_ONLY));
+        assertThatThrownBy(() -> permissionService.requireFeature(admin(), dirId, FeatureKey.USER_DELETE))
+                .isInstanceOf(AccessDeniedException.class);
+
+        givenRoles(roleFor(BaseRole.ADMIN));
+        permissionCache.onPermissionsChanged(PermissionsChangedEvent.forAdmin(adminId));
+
+        permissionService.requireFeature(admin(), dirId, FeatureKey.USER_DELETE);
+    }
+
+    // ── DN scoping ────────────────────────────────────────────────────────────
+
+    @Test
+    void requireDnWithinScope_descendantOfAuthorizedOu_succeeds() {
+        givenRoles(roleFor(BaseRole.ADMIN));
+
+        permissionService.requireDnWithinScope(admin(), dirId, "CN=Alice, OU=People,DC=example,DC=com");
+        permissionService.requireDnWithinScope(admin(), dirId, "ou=people,dc=example,dc=com");
+    }
+
+    @Test
+    void requireDnWithinScope_siblingOu_throwsAccessDenied() {
+        givenRoles(roleFor(BaseRole.ADMIN));
+
+        assertThatThrownBy(() -> permissionService.requireDnWithinScope(
+                admin(), dirId, "cn=bob,ou=groups,dc=example,dc=com"))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void requireDnsWithinScope_oneOutOfScope_throwsAccessDenied() {
+        givenRoles(roleFor(BaseRole.ADMIN));
+
+        assertThatThrownBy(() -> permissionService.requireDnsWithinScope(admin(), dirId, List.of(
+                "cn=a,ou=people,dc=example,dc=com",
+                "cn=b,ou=staff,dc=example,dc=com")))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void requireBaseDnWithinScope_ancestorOfAuthorizedOu_succeeds() {
+        givenRoles(roleFor(BaseRole.ADMIN));
+
+        permissionService.requireBaseDnWithinScope(admin(), dirId, "dc=example,dc=com");
+    }
+
+    @Test
+    void requireBaseDnWithinScope_unrelatedBase_throwsAccessDenied() {
+        givenRoles(roleFor(BaseRole.ADMIN));
+
+        assertThatThrownBy(() -> permissionService.requireBaseDnWithinScope(
+                admin(), dirId, "ou=groups,dc=example,dc=com"))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private AuthPrincipal admin() {
@@ -173,14 +228,34 @@ class PermissionServiceTest {
         return new AuthPrincipal(PrincipalType.SUPERADMIN, UUID.randomUUID(), "root");
     }
 
+    private void givenRoles(AdminProfileRole... roles) {
+        lenient().when(profileRoleRepo.findAllByAdminAccountIdWithProfile(adminId)).thenReturn(List.of(roles));
+        lenient().when(featurePermissionRepo.findAllByAdminAccountId(adminId)).thenReturn(List.of());
+    }
+
+    private void givenOverrides(AdminFeaturePermission... overrides) {
+        when(featurePermissionRepo.findAllByAdminAccountId(adminId)).thenReturn(List.of(overrides));
+    }
+
     private AdminProfileRole roleFor(BaseRole baseRole) {
+        return roleFor(baseRole, dirId, "ou=people,dc=example,dc=com");
+    }
+
+    private AdminProfileRole roleFor(BaseRole baseRole, UUID directoryId, String targetOuDn) {
+        DirectoryConnection dir = new DirectoryConnection();
+        dir.setId(directoryId);
+        ProvisioningProfile profile = new ProvisioningProfile();
+        profile.setDirectory(dir);
+        profile.setTargetOuDn(targetOuDn);
         AdminProfileRole r = new AdminProfileRole();
         r.setBaseRole(baseRole);
+        r.setProfile(profile);
         return r;
     }
 
-    private AdminFeaturePermission featureOverride(boolean enabled) {
+    private AdminFeaturePermission featureOverride(FeatureKey key, boolean enabled) {
         AdminFeaturePermission fp = new AdminFeaturePermission();
+        fp.setFeatureKey(key);
         fp.setEnabled(enabled);
         return fp;
     }
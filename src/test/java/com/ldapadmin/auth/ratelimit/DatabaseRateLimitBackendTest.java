@@ -0,0 +1,57 @@
+package com.ldapadmin.auth.ratelimit;
+
+import com.ldapadmin.repository.RateLimitCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseRateLimitBackendTest {
+
+    private static final long WINDOW = 60_000L;
+
+    @Mock private RateLimitCounterRepository repo;
+
+    @InjectMocks private DatabaseRateLimitBackend backend;
+
+    @Test
+    void tryAcquire_capsCurrentWindowByWeightedPrevious() {
+        long now = 10 * WINDOW + WINDOW / 4;
+        when(repo.findHits("ip:9:1.2.3.4")).thenReturn(Optional.of(8));
+        when(repo.increment("ip:10:1.2.3.4", 4, 12 * WINDOW)).thenReturn(Optional.of(3));
+
+        // Three quarters of 8 previous hits carry over, leaving 4 of 10
+        assertThat(backend.tryAcquire("ip", "1.2.3.4", 10, WINDOW, now)).isTrue();
+    }
+
+    @Test
+    void tryAcquire_refusedUpsert_rejects() {
+        when(repo.findHits(anyString())).thenReturn(Optional.empty());
+        when(repo.increment(anyString(), eq(10), anyLong())).thenReturn(Optional.empty());
+
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, 10 * WINDOW)).isFalse();
+    }
+
+    @Test
+    void tryAcquire_fullPreviousWindow_rejectsWithoutWriting() {
+        when(repo.findHits("ip:9:a")).thenReturn(Optional.of(10));
+
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, 10 * WINDOW)).isFalse();
+        verify(repo, never()).increment(anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void evictExpired_deletesPastRows() {
+        backend.evictExpired(1234L);
+
+        verify(repo).deleteExpired(1234L);
+    }
+}
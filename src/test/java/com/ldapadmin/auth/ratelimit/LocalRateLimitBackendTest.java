@@ -0,0 +1,109 @@
+package com.ldapadmin.auth.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LocalRateLimitBackendTest {
+
+    private static final long WINDOW = 60_000L;
+
+    private final LocalRateLimitBackend backend = new LocalRateLimitBackend(100, 16);
+
+    @Test
+    void tryAcquire_admitsUpToLimitWithinWindow() {
+        long t = 10 * WINDOW;
+        for (int i = 0; i < 10; i++) {
+            assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, t + i)).isTrue();
+        }
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, t + 10)).isFalse();
+        assertThat(backend.tryAcquire("ip", "b", 10, WINDOW, t + 10)).isTrue();
+        assertThat(backend.tryAcquire("login", "a", 10, WINDOW, t + 10)).isTrue();
+    }
+
+    @Test
+    void tryAcquire_previousWindowDecaysAcrossNextWindow() {
+        long t = 10 * WINDOW;
+        for (int i = 0; i < 10; i++) {
+            backend.tryAcquire("ip", "a", 10, WINDOW, t);
+        }
+        // A quarter into the next window, three quarters of the previous ten still count
+        long quarter = t + WINDOW + WINDOW / 4;
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, quarter)).isTrue();
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, quarter)).isTrue();
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, quarter)).isFalse();
+        // Two windows later everything has aged out
+        for (int i = 0; i < 10; i++) {
+            assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, t + 3 * WINDOW)).isTrue();
+        }
+    }
+
+    @Test
+    void tryAcquire_rejectedHitsAreNotCounted() {
+        long t = 10 * WINDOW;
+        for (int i = 0; i < 50; i++) {
+            backend.tryAcquire("ip", "a", 10, WINDOW, t);
+        }
+        // Only the ten admitted hits carry over, so half of them remain at mid-window
+        assertThat(backend.tryAcquire("ip", "a", 10, WINDOW, t + WINDOW + WINDOW / 2)).isTrue();
+    }
+
+    @Test
+    void tryAcquire_beyondMaxKeys_sharesOverflowSlots() {
+        LocalRateLimitBackend small = new LocalRateLimitBackend(2, 1);
+        long t = 10 * WINDOW;
+        small.tryAcquire("ip", "a", 3, WINDOW, t);
+        small.tryAcquire("ip", "b", 3, WINDOW, t);
+
+        // With a single overflow slot every further key shares one budget
+        assertThat(small.tryAcquire("ip", "c", 3, WINDOW, t)).isTrue();
+        assertThat(small.tryAcquire("ip", "d", 3, WINDOW, t)).isTrue();
+        assertThat(small.tryAcquire("ip", "e", 3, WINDOW, t)).isTrue();
+        assertThat(small.tryAcquire("ip", "f", 3, WINDOW, t)).isFalse();
+        assertThat(small.size()).isEqualTo(2);
+        // Tracked keys keep their own budgets
+        assertThat(small.tryAcquire("ip", "a", 3, WINDOW, t)).isTrue();
+    }
+
+    @Test
+    void evictExpired_dropsKeysOnceBothWindowsEnd() {
+        long t = 10 * WINDOW;
+        backend.tryAcquire("ip", "a", 10, WINDOW, t);
+        backend.tryAcquire("ip", "b", 10, WINDOW, t + WINDOW);
+
+        backend.evictExpired(t + WINDOW);
+        assertThat(backend.size()).isEqualTo(2);
+
+        backend.evictExpired(t + 2 * WINDOW);
+        assertThat(backend.size()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_concurrentHitsNeverExceedLimit() throws Exception {
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long t = 10 * WINDOW;
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int j = 0; j < 1000; j++) {
+                        if (backend.tryAcquire("api", "alice", 500, WINDOW, t)) admitted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        }
+        assertThat(admitted.get()).isEqualTo(500);
+    }
+}
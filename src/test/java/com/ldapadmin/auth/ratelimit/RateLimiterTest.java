@@ -0,0 +1,71 @@
+package com.ldapadmin.auth.ratelimit;
+
+import com.ldapadmin.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    @Mock private DatabaseRateLimitBackend database;
+
+    private final SimpleMeterRegistry   registry = new SimpleMeterRegistry();
+    private final LocalRateLimitBackend local    = new LocalRateLimitBackend(1000, 64);
+
+    @Test
+    void check_countsHitsAndRejectionsPerLimiter() {
+        RateLimiter limiter = new RateLimiter(local, database, registry, "local");
+
+        limiter.check("ip", "a", 2, WINDOW, "slow down");
+        limiter.check("ip", "a", 2, WINDOW, "slow down");
+        assertThatThrownBy(() -> limiter.check("ip", "a", 2, WINDOW, "slow down"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessage("slow down");
+        limiter.check("login", "a", 2, WINDOW, "slow down");
+
+        assertThat(registry.get("ldapadmin.ratelimit.hits").tag("limiter", "ip").counter().count()).isEqualTo(2);
+        assertThat(registry.get("ldapadmin.ratelimit.rejected").tag("limiter", "ip").counter().count()).isEqualTo(1);
+        assertThat(registry.get("ldapadmin.ratelimit.hits").tag("limiter", "login").counter().count()).isEqualTo(1);
+        assertThat(registry.get("ldapadmin.ratelimit.keys").gauge().value()).isEqualTo(2);
+        verifyNoInteractions(database);
+    }
+
+    @Test
+    void check_databaseBackend_usesSharedCounters() {
+        RateLimiter limiter = new RateLimiter(local, database, registry, "database");
+        when(database.tryAcquire(eq("api"), eq("bob"), eq(1), eq(60_000L), anyLong())).thenReturn(false);
+
+        assertThatThrownBy(() -> limiter.check("api", "bob", 1, WINDOW, "no"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(local.size()).isZero();
+    }
+
+    @Test
+    void check_databaseUnavailable_fallsBackToMemory() {
+        RateLimiter limiter = new RateLimiter(local, database, registry, "database");
+        when(database.tryAcquire(anyString(), anyString(), anyInt(), anyLong(), anyLong()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        limiter.check("api", "bob", 1, WINDOW, "no");
+        assertThatThrownBy(() -> limiter.check("api", "bob", 1, WINDOW, "no"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(local.size()).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_unknownBackend_fails() {
+        assertThatThrownBy(() -> new RateLimiter(local, database, registry, "redis"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,202 @@
+package com.ldapadmin.benchmark;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.ldap.LdapConnectionFactory;
+import com.ldapadmin.ldap.LdapOperationMetrics;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Filter;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldif.LDIFException;
+import com.unboundid.ldif.LDIFReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * An in-memory directory loaded with a reproducible company tree, and a
+ * connection factory pointing at it, for the macro benchmarks.
+ *
+ * <p>{@code users} users are spread over {@value #DEPARTMENTS} department
+ * OUs under {@code ou=People}.  {@code ou=Groups} holds a group per
+ * department, one project group per hundred users with members drawn from
+ * across the company (some of them departed, i.e. broken references), and
+ * two payments groups sharing a slice of members for SoD policies.  The
+ * same {@code users} always yields the same tree, so results compare across
+ * commits.</p>
+ *
+ * <p>With {@code -Dbenchmark.ldif=...}, e.g. the output of
+ * {@code scripts/generate-test-ldif.py --users 500000}, that file is loaded
+ * instead (schema checking off) and {@code users} is ignored.</p>
+ */
+public final class BenchmarkDirectory implements AutoCloseable {
+
+    public static final String BASE_DN   = "dc=acmecorp,dc=com";
+    public static final String PEOPLE_DN = "ou=People," + BASE_DN;
+    public static final String GROUPS_DN = "ou=Groups," + BASE_DN;
+
+    static final int DEPARTMENTS = 50;
+
+    private static final String BIND_DN   = "cn=admin," + BASE_DN;
+    private static final String BIND_PASS = "benchmark";
+
+    private static final String[] TITLES = {
+            "Engineer", "Senior Engineer", "Analyst", "Manager", "Director",
+            "Accountant", "Consultant", "Administrator"};
+
+    private final InMemoryDirectoryServer server;
+    private final LdapConnectionFactory   connectionFactory;
+    private final DirectoryConnection     connection;
+    private final List<String>            groupDns = new ArrayList<>();
+
+    public BenchmarkDirectory(int users) throws LDAPException, LDIFException, IOException {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        String ldif = System.getProperty("benchmark.ldif");
+        if (ldif != null) {
+            config.setSchema(null);
+        }
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        if (ldif != null) {
+            server.importFromLDIF(true, new LDIFReader(ldif));
+        } else {
+            populate(users);
+        }
+        for (SearchResultEntry group : server.search(BASE_DN, SearchScope.SUB,
+                Filter.createEqualityFilter("objectClass", "groupOfNames"), "1.1").getSearchEntries()) {
+            groupDns.add(group.getDN());
+        }
+
+        EncryptionService encryption = mock(EncryptionService.class, withSettings().stubOnly());
+        when(encryption.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryption, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), -1));
+
+        connection = new DirectoryConnection();
+        connection.setId(UUID.randomUUID());
+        connection.setDisplayName("benchmark");
+        connection.setHost("localhost");
+        connection.setPort(server.getListenPort());
+        connection.setSslMode(SslMode.NONE);
+        connection.setBindDn(BIND_DN);
+        connection.setBindPasswordEncrypted("enc");
+        connection.setBaseDn(BASE_DN);
+        connection.setPoolMinSize(1);
+        connection.setPoolMaxSize(8);
+        connection.setPoolConnectTimeoutSeconds(10);
+        connection.setPoolResponseTimeoutSeconds(600);
+        connection.setPagingSize(500);
+        connection.setEnabled(true);
+        connection.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    public LdapConnectionFactory connectionFactory() {
+        return connectionFactory;
+    }
+
+    public DirectoryConnection connection() {
+        return connection;
+    }
+
+    /** DNs of every group, in directory order. */
+    public List<String> groupDns() {
+        return groupDns;
+    }
+
+    /** Adds an entry directly, bypassing the connection pool. */
+    public void add(String... ldifLines) throws LDAPException, LDIFException {
+        server.add(ldifLines);
+    }
+
+    @Override
+    public void close() {
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    private void populate(int users) throws LDAPException, LDIFException {
+        Random random = new Random(42);
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: acmecorp");
+        server.add("dn: " + PEOPLE_DN, "objectClass: organizationalUnit", "ou: People");
+        server.add("dn: " + GROUPS_DN, "objectClass: organizationalUnit", "ou: Groups");
+
+        List<List<String>> departmentMembers = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            server.add("dn: ou=Dept" + d + "," + PEOPLE_DN, "objectClass: organizationalUnit", "ou: Dept" + d);
+            departmentMembers.add(new ArrayList<>());
+        }
+
+        List<String> userDns = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            int dept = i % DEPARTMENTS;
+            String uid = "user" + i;
+            String dn = "uid=" + uid + ",ou=Dept" + dept + "," + PEOPLE_DN;
+            Entry entry = new Entry(dn);
+            entry.addAttribute("objectClass", "top", "person", "organizationalPerson", "inetOrgPerson");
+            entry.addAttribute("uid", uid);
+            entry.addAttribute("cn", "User " + i);
+            entry.addAttribute("sn", "User");
+            entry.addAttribute("givenName", "Test" + i);
+            entry.addAttribute("displayName", "Test User " + i);
+            entry.addAttribute("mail", uid + "@acmecorp.com");
+            entry.addAttribute("title", TITLES[random.nextInt(TITLES.length)]);
+            entry.addAttribute("departmentNumber", "Dept" + dept);
+            entry.addAttribute("employeeNumber", String.valueOf(100_000 + i));
+            server.add(entry);
+            userDns.add(dn);
+            departmentMembers.get(dept).add(dn);
+        }
+
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            addGroup("dept" + d + "-staff", departmentMembers.get(d));
+        }
+
+        // Project groups draw members company-wide, so most members are rare
+        // in their department — material for drift analysis
+        int projects = Math.max(20, users / 100);
+        for (int p = 0; p < projects; p++) {
+            int size = 5 + random.nextInt(46);
+            Set<String> members = new LinkedHashSet<>();
+            for (int m = 0; m < size; m++) {
+                members.add(userDns.get(random.nextInt(users)));
+            }
+            if (p % 10 == 0) {
+                members.add("uid=departed" + p + ",ou=Dept0," + PEOPLE_DN);
+            }
+            addGroup("project" + p, new ArrayList<>(members));
+        }
+
+        // SoD pair: 2% of users each, overlapping by a tenth
+        int slice = Math.max(10, users / 50);
+        int overlap = slice / 10;
+        addGroup("payments-create", userDns.subList(0, Math.min(slice, users)));
+        addGroup("payments-approve", userDns.subList(Math.min(slice - overlap, users),
+                Math.min(2 * slice - overlap, users)));
+    }
+
+    private void addGroup(String cn, List<String> members) throws LDAPException {
+        Entry group = new Entry("cn=" + cn + "," + GROUPS_DN);
+        group.addAttribute("objectClass", "top", "groupOfNames");
+        group.addAttribute("cn", cn);
+        group.addAttribute("member", members.isEmpty() ? List.of(BASE_DN) : members);
+        server.add(group);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ldapadmin.benchmark;
+
+import com.ldapadmin.util.CsvUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CsvUtils#parse} and {@link CsvUtils#write} over a user export of
+ * {@code rows} rows.  One row in ten has a quoted field with an embedded
+ * comma, quote or line break.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvUtilsBenchmark {
+
+    private static final List<String> HEADERS =
+            List.of("uid", "cn", "sn", "givenName", "mail", "title", "departmentNumber", "description");
+
+    @Param({"10000"})
+    public int rows;
+
+    private List<Map<String, String>> data;
+    private byte[]                    csv;
+
+    @Setup
+    public void setUp() {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> row = new LinkedHashMap<>();
+            row.put("uid", "user" + i);
+            row.put("cn", "Test User " + i);
+            row.put("sn", "User");
+            row.put("givenName", "Test" + i);
+            row.put("mail", "user" + i + "@acmecorp.com");
+            row.put("title", "Senior Engineer");
+            row.put("departmentNumber", "Dept" + (i % 50));
+            row.put("description", switch (i % 30) {
+                case 0  -> "Contractor, external";
+                case 10 -> "Known as \"Tess\"";
+                case 20 -> "Line one\nline two";
+                default -> "Regular employee";
+            });
+            data.add(row);
+        }
+        csv = CsvUtils.write(HEADERS, data);
+    }
+
+    @Benchmark
+    public Object parse() throws IOException {
+        return CsvUtils.parse(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return CsvUtils.write(HEADERS, data);
+    }
+}
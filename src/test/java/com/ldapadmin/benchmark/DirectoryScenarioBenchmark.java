@@ -0,0 +1,279 @@
+package com.ldapadmin.benchmark;
+
+import com.ldapadmin.dto.ldap.IntegrityReport.IssueType;
+import com.ldapadmin.entity.AccessSnapshot;
+import com.ldapadmin.entity.AccessSnapshotMembership;
+import com.ldapadmin.entity.AccessSnapshotUser;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.PeerGroupRule;
+import com.ldapadmin.entity.SodPolicy;
+import com.ldapadmin.entity.enums.ConflictHandling;
+import com.ldapadmin.entity.enums.OutputFormat;
+import com.ldapadmin.entity.enums.ReportType;
+import com.ldapadmin.ldap.DirectoryReplicaService;
+import com.ldapadmin.ldap.IntegrityCheckService;
+import com.ldapadmin.ldap.LdapGroupService;
+import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.repository.AccessDriftFindingRepository;
+import com.ldapadmin.repository.AccessReviewCampaignRepository;
+import com.ldapadmin.repository.AccessSnapshotMembershipRepository;
+import com.ldapadmin.repository.AccessSnapshotRepository;
+import com.ldapadmin.repository.AccessSnapshotUserRepository;
+import com.ldapadmin.repository.AccountRepository;
+import com.ldapadmin.repository.AuditEventRepository;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.ldapadmin.repository.PeerGroupRuleRepository;
+import com.ldapadmin.repository.ProvisioningProfileRepository;
+import com.ldapadmin.repository.SodPolicyRepository;
+import com.ldapadmin.repository.SodViolationRepository;
+import com.ldapadmin.repository.hr.HrConnectionRepository;
+import com.ldapadmin.repository.hr.HrEmployeeRepository;
+import com.ldapadmin.service.AccessDriftAnalysisService;
+import com.ldapadmin.service.AccessSnapshotService;
+import com.ldapadmin.service.AuditService;
+import com.ldapadmin.service.BulkUserService;
+import com.ldapadmin.service.PdfReportService;
+import com.ldapadmin.service.ProvisioningProfileService;
+import com.ldapadmin.service.ReportExecutionService;
+import com.ldapadmin.service.SodPolicyService;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * End-to-end directory scenarios against a {@link BenchmarkDirectory} of
+ * {@code users} users: snapshot capture, SoD scan, drift analysis, CSV bulk
+ * import, reports and integrity checks.
+ *
+ * <p>Each scenario runs the real service over a pooled connection to the
+ * in-memory server; repositories and the audit service are stubs, so the
+ * figures cover LDAP round trips and in-memory work, not database writes.
+ * Drift analysis reads the memberships of a snapshot captured during setup.
+ * Each bulk import adds {@value #IMPORT_ROWS} users under a new OU.</p>
+ *
+ * <p>Quick run: {@code -Djmh.args="DirectoryScenario -p users=10000"}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx8g")
+public class DirectoryScenarioBenchmark {
+
+    static final int IMPORT_ROWS = 5_000;
+
+    @Param({"10000", "100000", "500000"})
+    public int users;
+
+    private BenchmarkDirectory     directory;
+    private DirectoryConnection    dc;
+    private LdapUserService        userService;
+    private LdapGroupService       groupService;
+    private DirectoryConnectionRepository directoryRepo;
+    private AccessSnapshotService  snapshotService;
+    private SodPolicyService       sodPolicyService;
+    private BulkUserService        bulkUserService;
+    private ReportExecutionService reportService;
+    private IntegrityCheckService  integrityService;
+    private byte[]                 importCsv;
+    private int                    imports;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = new BenchmarkDirectory(users);
+        dc = directory.connection();
+        userService  = new LdapUserService(directory.connectionFactory());
+        groupService = new LdapGroupService(directory.connectionFactory());
+        DirectoryReplicaService replicaService = stub(DirectoryReplicaService.class);
+
+        directoryRepo = stub(DirectoryConnectionRepository.class);
+        when(directoryRepo.findById(any())).thenReturn(Optional.of(dc));
+
+        snapshotService = new AccessSnapshotService(stub(AccessSnapshotRepository.class),
+                stub(AccessSnapshotMembershipRepository.class), stub(AccessSnapshotUserRepository.class),
+                directoryRepo, groupService, userService, replicaService);
+
+        SodPolicyRepository policyRepo = stub(SodPolicyRepository.class);
+        when(policyRepo.findByDirectoryIdAndEnabledTrue(dc.getId())).thenReturn(sodPolicies());
+        sodPolicyService = new SodPolicyService(policyRepo, stub(SodViolationRepository.class), directoryRepo,
+                stub(AccountRepository.class), groupService, userService, stub(AuditService.class));
+
+        bulkUserService = new BulkUserService(userService);
+        StringBuilder csv = new StringBuilder("uid,cn,sn,mail\n");
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            csv.append("imported").append(i).append(",Imported ").append(i)
+                    .append(",Imported,imported").append(i).append("@acmecorp.com\n");
+        }
+        importCsv = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        reportService = new ReportExecutionService(userService, groupService, stub(AuditEventRepository.class),
+                stub(ProvisioningProfileRepository.class), stub(ProvisioningProfileService.class),
+                stub(SodViolationRepository.class), stub(AccessReviewCampaignRepository.class),
+                stub(AccessDriftFindingRepository.class), stub(HrConnectionRepository.class),
+                stub(HrEmployeeRepository.class), stub(PdfReportService.class), replicaService);
+
+        integrityService = new IntegrityCheckService(directory.connectionFactory(),
+                new SimpleAsyncTaskExecutor("integrity-check-"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        directory.close();
+    }
+
+    @Benchmark
+    public Object snapshotCapture() {
+        return snapshotService.captureSnapshot(dc.getId());
+    }
+
+    @Benchmark
+    public Object sodScan() {
+        return sodPolicyService.scanDirectory(dc.getId(), null);
+    }
+
+    @Benchmark
+    public Object driftAnalysis(DriftState drift) {
+        return drift.service.analyze(dc.getId(), drift.snapshotId, null);
+    }
+
+    @Benchmark
+    public Object bulkImport() throws Exception {
+        String ou = "Import" + imports++;
+        String parentDn = "ou=" + ou + "," + BenchmarkDirectory.PEOPLE_DN;
+        directory.add("dn: " + parentDn, "objectClass: organizationalUnit", "ou: " + ou);
+        return bulkUserService.importCsv(dc, new ByteArrayInputStream(importCsv), parentDn, "uid",
+                ConflictHandling.SKIP, List.of(),
+                List.of("top", "person", "organizationalPerson", "inetOrgPerson"), true, row -> {});
+    }
+
+    @Benchmark
+    public void userAccessReport() throws Exception {
+        reportService.run(dc, ReportType.USER_ACCESS_REPORT, Map.of(), OutputFormat.CSV, dc.getId(),
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void usersWithNoGroupReport() throws Exception {
+        reportService.run(dc, ReportType.USERS_WITH_NO_GROUP, Map.of(), OutputFormat.CSV, dc.getId(),
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public int integrityCheck() {
+        return integrityService.runChecks(dc, null, EnumSet.allOf(IssueType.class), issue -> {});
+    }
+
+    /** A snapshot captured once, with the service that analyses it. */
+    @State(Scope.Benchmark)
+    public static class DriftState {
+
+        AccessDriftAnalysisService service;
+        UUID                       snapshotId;
+
+        @Setup
+        public void setUp(DirectoryScenarioBenchmark scenario) {
+            DirectoryConnection dc = scenario.dc;
+            List<AccessSnapshotMembership> memberships   = new ArrayList<>();
+            List<AccessSnapshotUser>       snapshotUsers = new ArrayList<>();
+            AccessSnapshotMembershipRepository membershipRepo = stub(AccessSnapshotMembershipRepository.class);
+            AccessSnapshotUserRepository       userRepo       = stub(AccessSnapshotUserRepository.class);
+            doAnswer(collectInto(memberships)).when(membershipRepo).saveAll(any());
+            doAnswer(collectInto(snapshotUsers)).when(userRepo).saveAll(any());
+            AccessSnapshot snapshot = new AccessSnapshotService(stub(AccessSnapshotRepository.class),
+                    membershipRepo, userRepo, scenario.directoryRepo, scenario.groupService,
+                    scenario.userService, stub(DirectoryReplicaService.class))
+                    .captureSnapshot(dc.getId());
+            snapshotId = UUID.randomUUID();
+            snapshot.setId(snapshotId);
+            when(membershipRepo.findBySnapshotId(snapshotId)).thenReturn(memberships);
+            when(userRepo.findBySnapshotId(snapshotId)).thenReturn(snapshotUsers);
+
+            AccessSnapshotRepository snapshotRepo = stub(AccessSnapshotRepository.class);
+            when(snapshotRepo.findById(snapshotId)).thenReturn(Optional.of(snapshot));
+            PeerGroupRuleRepository ruleRepo = stub(PeerGroupRuleRepository.class);
+            when(ruleRepo.findByDirectoryIdAndEnabledTrue(dc.getId()))
+                    .thenReturn(List.of(rule(dc, "departmentNumber"), rule(dc, "title")));
+            service = new AccessDriftAnalysisService(ruleRepo, snapshotRepo, membershipRepo, userRepo,
+                    stub(AccessDriftFindingRepository.class), scenario.directoryRepo,
+                    stub(AccountRepository.class), stub(AuditService.class));
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** A mock that keeps no invocation history, so repeated calls do not accumulate. */
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Answer<Object> collectInto(List<T> target) {
+        return inv -> {
+            ((Iterable<T>) inv.getArgument(0)).forEach(target::add);
+            return List.of();
+        };
+    }
+
+    private static PeerGroupRule rule(DirectoryConnection dc, String groupingAttribute) {
+        PeerGroupRule rule = new PeerGroupRule();
+        rule.setId(UUID.randomUUID());
+        rule.setDirectory(dc);
+        rule.setName(groupingAttribute);
+        rule.setGroupingAttribute(groupingAttribute);
+        return rule;
+    }
+
+    /** The payments pair when present, plus pairs of neighbouring groups. */
+    private List<SodPolicy> sodPolicies() {
+        List<SodPolicy> policies = new ArrayList<>();
+        List<String> groups = directory.groupDns();
+        String create  = "cn=payments-create," + BenchmarkDirectory.GROUPS_DN;
+        String approve = "cn=payments-approve," + BenchmarkDirectory.GROUPS_DN;
+        if (groups.contains(create) && groups.contains(approve)) {
+            policies.add(policy(create, approve));
+        }
+        for (int i = 0; i + 1 < groups.size() && policies.size() < 5; i += 2) {
+            policies.add(policy(groups.get(i), groups.get(i + 1)));
+        }
+        return policies;
+    }
+
+    private SodPolicy policy(String groupA, String groupB) {
+        SodPolicy policy = new SodPolicy();
+        policy.setId(UUID.randomUUID());
+        policy.setDirectory(dc);
+        policy.setName(groupA + " / " + groupB);
+        policy.setGroupADn(groupA);
+        policy.setGroupBDn(groupB);
+        return policy;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ldapadmin.benchmark;
+
+import com.ldapadmin.service.report.GroupMembershipIndex;
+import com.ldapadmin.util.DnTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ways DNs are normalised for comparison, per batch of 1,000 member
+ * DNs: {@link GroupMembershipIndex#normalizeDn} (full parse, as in
+ * reports), {@link DnTrie#rdns} (RDN split, as in integrity checks) and
+ * plain lower-casing (as in SoD scans and drift analysis).  A tenth of the
+ * DNs have escaped commas or spaces around separators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DnNormalizationBenchmark {
+
+    private final List<String> dns = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 1_000; i++) {
+            dns.add(switch (i % 10) {
+                case 0  -> "CN=Smith\\, John " + i + ",OU=Dept" + (i % 50) + ",OU=People,DC=AcmeCorp,DC=com";
+                case 5  -> "uid=user" + i + ", ou=Dept" + (i % 50) + ", ou=People, dc=acmecorp, dc=com";
+                default -> "uid=user" + i + ",ou=Dept" + (i % 50) + ",ou=People,dc=acmecorp,dc=com";
+            });
+        }
+    }
+
+    @Benchmark
+    public void parsed(Blackhole bh) {
+        for (String dn : dns) {
+            bh.consume(GroupMembershipIndex.normalizeDn(dn));
+        }
+    }
+
+    @Benchmark
+    public void rdnSplit(Blackhole bh) {
+        for (String dn : dns) {
+            bh.consume(DnTrie.rdns(dn));
+        }
+    }
+
+    @Benchmark
+    public void lowerCase(Blackhole bh) {
+        for (String dn : dns) {
+            bh.consume(dn.toLowerCase(Locale.ROOT));
+        }
+    }
+}
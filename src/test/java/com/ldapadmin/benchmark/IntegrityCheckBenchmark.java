@@ -0,0 +1,149 @@
+package com.ldapadmin.benchmark;
+
+import com.ldapadmin.ldap.IntegrityCheckService;
+import com.ldapadmin.util.DnTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DN index used by {@link IntegrityCheckService}: building it and answering
+ * the broken-member and orphaned-entry checks.
+ *
+ * <p>{@code hashSet*} reproduces the original index (every DN lowercased
+ * into a {@code HashSet<String>}, parents found by string slicing) as the
+ * "before" baseline; {@code trie*} uses {@link DnTrie}.  DNs are read from
+ * the LDIF named by {@code -Dintegrity.ldif=...}, e.g. the output of
+ * {@code scripts/generate-test-ldif.py --users 500000}; without it a
+ * directory of {@code entries} users is synthesised.  Run with
+ * {@code -prof gc} to compare allocation.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class IntegrityCheckBenchmark {
+
+    @Param({"100000"})
+    public int entries;
+
+    private List<String> dns;
+    private List<String> members;
+    private String       baseDn;
+    private Set<String>  hashIndex;
+    private DnTrie       trieIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        String ldif = System.getProperty("integrity.ldif");
+        dns = ldif != null ? readDns(Path.of(ldif)) : synthesise(entries);
+        baseDn = dns.get(0);
+
+        // Every tenth member reference points at a DN that does not exist
+        members = new ArrayList<>();
+        for (int i = 0; i < dns.size(); i += 10) {
+            members.add(dns.get(i));
+            members.add("uid=missing" + i + "," + baseDn);
+        }
+        hashIndex = buildHashSet();
+        trieIndex = buildTrie();
+    }
+
+    @Benchmark
+    public Object hashSetBuild() {
+        return buildHashSet();
+    }
+
+    @Benchmark
+    public Object trieBuild() {
+        return buildTrie();
+    }
+
+    @Benchmark
+    public int hashSetChecks() {
+        int issues = 0;
+        for (String member : members) {
+            if (!hashIndex.contains(member.toLowerCase(Locale.ROOT))) issues++;
+        }
+        String normalizedBase = baseDn.toLowerCase(Locale.ROOT);
+        for (String dn : hashIndex) {
+            if (dn.equals(normalizedBase)) continue;
+            int comma = dn.indexOf(',');
+            if (comma >= 0 && !hashIndex.contains(dn.substring(comma + 1))) issues++;
+        }
+        return issues;
+    }
+
+    @Benchmark
+    public int trieChecks() {
+        int[] issues = {0};
+        for (String member : members) {
+            if (!trieIndex.contains(member)) issues[0]++;
+        }
+        trieIndex.forEachWithoutParent(baseDn, (dn, parent) -> issues[0]++);
+        return issues[0];
+    }
+
+    private Set<String> buildHashSet() {
+        Set<String> index = new HashSet<>();
+        for (String dn : dns) {
+            index.add(dn.toLowerCase(Locale.ROOT));
+        }
+        return index;
+    }
+
+    private DnTrie buildTrie() {
+        DnTrie index = new DnTrie();
+        for (String dn : dns) {
+            index.add(dn);
+        }
+        return index;
+    }
+
+    private static List<String> readDns(Path ldif) throws IOException {
+        List<String> dns = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(ldif, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("dn: ")) dns.add(line.substring(4).trim());
+            }
+        }
+        return dns;
+    }
+
+    private static List<String> synthesise(int users) {
+        String base = "dc=acmecorp,dc=com";
+        List<String> dns = new ArrayList<>(users + 64);
+        dns.add(base);
+        dns.add("ou=People," + base);
+        for (int d = 0; d < 50; d++) {
+            dns.add("ou=Dept" + d + ",ou=People," + base);
+        }
+        for (int i = 0; i < users; i++) {
+            dns.add("uid=user" + i + ",ou=Dept" + (i % 50) + ",ou=People," + base);
+        }
+        return dns;
+    }
+}
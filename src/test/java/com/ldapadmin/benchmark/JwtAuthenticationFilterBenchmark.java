@@ -0,0 +1,88 @@
+package com.ldapadmin.benchmark;
+
+import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.auth.JwtAuthenticationFilter;
+import com.ldapadmin.auth.JwtTokenService;
+import com.ldapadmin.auth.PrincipalType;
+import com.ldapadmin.config.AppProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of {@link JwtAuthenticationFilter}.
+ *
+ * <p>{@code cacheMaxEntries=0} measures the filter with the precomputed key
+ * and parser but no verified-token cache; {@code 10000} is the production
+ * default.  {@link #legacyParse()} reproduces the original implementation
+ * (decode secret, build key and parser per call) as the "before" baseline.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public int cacheMaxEntries;
+
+    private String                  secret;
+    private String                  token;
+    private JwtAuthenticationFilter filter;
+
+    @Setup
+    public void setUp() {
+        byte[] rawKey = new byte[32];
+        for (int i = 0; i < rawKey.length; i++) rawKey[i] = (byte) i;
+        secret = Base64.getEncoder().encodeToString(rawKey);
+
+        AppProperties props = new AppProperties();
+        props.getJwt().setSecret(secret);
+        props.getJwt().setExpiryMinutes(60);
+        props.getJwt().setCacheMaxEntries(cacheMaxEntries);
+
+        JwtTokenService tokenService = new JwtTokenService(props);
+        token  = tokenService.issue(new AuthPrincipal(PrincipalType.ADMIN, UUID.randomUUID(), "jdoe"));
+        filter = new JwtAuthenticationFilter(tokenService);
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/directories");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return auth;
+    }
+
+    @Benchmark
+    public Claims legacyParse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ldapadmin.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ldapadmin.entity.AuditEvent;
+import com.ldapadmin.entity.enums.AuditAction;
+import com.ldapadmin.entity.enums.AuditSource;
+import com.ldapadmin.entity.enums.SiemFormat;
+import com.ldapadmin.service.siem.SiemFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SiemFormatter#format} per output format, for a user update whose
+ * actor, DN and details need escaping in some formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SiemFormatterBenchmark {
+
+    @Param({"RFC5424", "CEF", "LEEF", "JSON"})
+    public SiemFormat format;
+
+    private SiemFormatter formatter;
+    private AuditEvent    event;
+
+    @Setup
+    public void setUp() {
+        formatter = new SiemFormatter(new ObjectMapper());
+        event = AuditEvent.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .source(AuditSource.INTERNAL)
+                .actorId(UUID.fromString("00000000-0000-0000-0000-000000000002"))
+                .actorType("ADMIN")
+                .actorUsername("jdoe=admin")
+                .directoryId(UUID.fromString("00000000-0000-0000-0000-000000000003"))
+                .directoryName("Corp \"Main\" Directory")
+                .action(AuditAction.USER_UPDATE)
+                .targetDn("cn=Smith\\, John,ou=People,dc=acmecorp,dc=com")
+                .detail(Map.of("attributes", "mail,title", "previousTitle", "Engineer|Lead", "count", 2))
+                .occurredAt(OffsetDateTime.of(2026, 1, 15, 9, 30, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.format(event, format);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ldapadmin.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExecutorConfigTest {
+
+    private final MeterRegistry      registry = new SimpleMeterRegistry();
+    private final ExecutorProperties props    = new ExecutorProperties();
+    private final CountDownLatch     release  = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor   executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void discardPolicy_dropsAndCountsOverflow() throws Exception {
+        executor = saturated(ExecutorProperties.Rejection.DISCARD);
+
+        AtomicReference<Boolean> ran = new AtomicReference<>(false);
+        executor.execute(() -> ran.set(true));
+
+        assertThat(ran.get()).isFalse();
+        assertThat(rejected()).isEqualTo(1.0);
+    }
+
+    @Test
+    void callerRunsPolicy_runsOverflowOnSubmitter() throws Exception {
+        executor = saturated(ExecutorProperties.Rejection.CALLER_RUNS);
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+        assertThat(rejected()).isEqualTo(1.0);
+    }
+
+    @Test
+    void virtualThreads_optIn() throws Exception {
+        ExecutorProperties.Pool pool = new ExecutorProperties.Pool(1, 1, 10, ExecutorProperties.Rejection.ABORT);
+        pool.setVirtualThreads(true);
+        executor = ExecutorConfig.pool("test-", "test", pool, props, registry);
+        executor.initialize();
+
+        Thread worker = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(5, TimeUnit.SECONDS);
+
+        assertThat(worker.isVirtual()).isTrue();
+        assertThat(worker.getName()).startsWith("test-");
+    }
+
+    /** A one-thread pool with a one-slot queue, both occupied. */
+    private ThreadPoolTaskExecutor saturated(ExecutorProperties.Rejection rejection) {
+        ExecutorProperties.Pool pool = new ExecutorProperties.Pool(1, 1, 1, rejection);
+        ThreadPoolTaskExecutor executor = ExecutorConfig.pool("test-", "test", pool, props, registry);
+        executor.initialize();
+        Runnable block = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(block);
+        executor.execute(block);
+        return executor;
+    }
+
+    private double rejected() {
+        return registry.counter("ldapadmin.executor.rejected", "executor", "test").count();
+    }
+}
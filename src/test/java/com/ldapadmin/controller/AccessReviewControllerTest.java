@@ -5,6 +5,7 @@ import com.ldapadmin.controller.directory.AccessReviewController;
 import com.ldapadmin.dto.accessreview.*;
 import com.ldapadmin.dto.admin.AdminAccountResponse;
 import com.ldapadmin.entity.AccessReviewCampaign;
+import com.ldapadmin.entity.AccessReviewDecision;
 import com.ldapadmin.entity.enums.AccountRole;
 import com.ldapadmin.entity.enums.AccountType;
 import com.ldapadmin.entity.enums.CampaignStatus;
@@ -19,12 +20,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -168,15 +171,36 @@ class AccessReviewControllerTest extends BaseControllerTest {
     @Test
     void listDecisions_returns200() throws Exception {
         UUID decisionId = UUID.randomUUID();
-        when(decisionService.listForReviewGroup(eq(groupId), any())).thenReturn(List.of(
-                new DecisionDto(decisionId, "uid=user1,dc=test", "User One",
-                        null, null, null, null, null)));
+        when(decisionService.listForReviewGroup(eq(groupId),
+                eq(AccessReviewDecisionService.StatusFilter.PENDING), eq("user"), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(
+                        new DecisionDto(decisionId, "uid=user1,dc=test", "User One",
+                                null, null, null, null, null))));
 
         mvc.perform(get("/api/v1/directories/{dirId}/access-reviews/{campaignId}/groups/{groupId}/decisions",
                         dirId, campaignId, groupId)
+                        .param("status", "PENDING")
+                        .param("search", "user")
                         .with(authentication(superadminAuth())))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].memberDn").value("uid=user1,dc=test"));
+                .andExpect(jsonPath("$.content[0].memberDn").value("uid=user1,dc=test"))
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    void decideMatching_returns200() throws Exception {
+        when(decisionService.decideMatching(eq(groupId), any(), any()))
+                .thenReturn(new BulkDecisionResponse(40, 40, 0));
+
+        mvc.perform(post("/api/v1/directories/{dirId}/access-reviews/{campaignId}/groups/{groupId}/decisions/matching",
+                        dirId, campaignId, groupId)
+                        .with(authentication(superadminAuth()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"search": "ou=staff", "decision": "CONFIRM"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(40));
     }
 
     @Test
@@ -197,6 +221,23 @@ class AccessReviewControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.decision").value("CONFIRM"));
     }
 
+    @Test
+    void submitDecision_concurrentUpdateAtCommit_returns409() throws Exception {
+        UUID decisionId = UUID.randomUUID();
+        when(decisionService.decide(eq(decisionId), eq(ReviewDecision.REVOKE), any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AccessReviewDecision.class, decisionId));
+
+        mvc.perform(post("/api/v1/directories/{dirId}/access-reviews/{campaignId}/groups/{groupId}/decisions/{decisionId}",
+                        dirId, campaignId, groupId, decisionId)
+                        .with(authentication(superadminAuth()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"decision": "REVOKE"}
+                                """))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value(containsString("someone else")));
+    }
+
     @Test
     void exportCsv_returns200WithCsvContentType() throws Exception {
         when(campaignService.exportCsv(dirId, campaignId)).thenReturn("header\nrow1\n".getBytes());
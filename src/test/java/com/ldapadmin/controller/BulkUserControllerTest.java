@@ -0,0 +1,118 @@
+package com.ldapadmin.controller;
+
+import com.ldapadmin.auth.ApiRateLimiter;
+import com.ldapadmin.controller.directory.BulkUserController;
+import com.ldapadmin.service.ApprovalWorkflowService;
+import com.ldapadmin.service.BulkImportJobService;
+import com.ldapadmin.service.LdapOperationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BulkUserController.class)
+class BulkUserControllerTest extends BaseControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @MockBean LdapOperationService    ldapService;
+    @MockBean BulkImportJobService    bulkImportJobService;
+    @MockBean ApprovalWorkflowService approvalService;
+    @MockBean ApiRateLimiter          rateLimiter;
+
+    static final UUID   DIR_ID     = UUID.fromString("20000000-0000-0000-0000-000000000002");
+    static final String EXPORT_URL = "/api/v1/directories/" + DIR_ID + "/users/export";
+    static final String CSV        = "\"dn\",\"cn\"\r\n\"uid=alice,dc=example,dc=com\",\"Alice\"\r\n";
+
+    @Test
+    void exportUsers_gzip_streamsCompressedCsvOnAsyncDispatch() throws Exception {
+        StreamingResponseBody body = out -> out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        given(ldapService.bulkExportUsers(eq(DIR_ID), any(), isNull(), isNull(), eq(List.of("cn")), isNull()))
+                .willReturn(body);
+
+        MvcResult result = mockMvc.perform(get(EXPORT_URL)
+                        .param("attributes", "cn")
+                        .param("gzip", "true")
+                        .with(authentication(adminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The body is written on the async dispatch, which carries no credentials of its own
+        MvcResult streamed = mockMvc.perform(asyncDispatch(withoutCredentials(result)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv.gz\""))
+                .andReturn();
+
+        assertThat(gunzip(streamed.getResponse().getContentAsByteArray())).isEqualTo(CSV);
+    }
+
+    @Test
+    void exportUsers_plain_streamsCsv() throws Exception {
+        StreamingResponseBody body = out -> out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        given(ldapService.bulkExportUsers(eq(DIR_ID), any(), isNull(), isNull(), eq(List.of()), isNull()))
+                .willReturn(body);
+
+        MvcResult result = mockMvc.perform(get(EXPORT_URL).with(authentication(adminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string(CSV));
+    }
+
+    @Test
+    void exportUsers_unauthenticated_rejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get(EXPORT_URL).param("gzip", "true"))
+                .andExpect(status().isUnauthorized());
+
+        verify(ldapService, never()).bulkExportUsers(any(), any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Drops the authentication MockMvc keeps on the request, as the async
+     * dispatch of a stateless JWT request has none.
+     */
+    private static MvcResult withoutCredentials(MvcResult result) {
+        MockHttpServletRequest request = result.getRequest();
+        Collections.list(request.getAttributeNames()).stream()
+                .filter(name -> name.contains("SecurityContext"))
+                .toList()
+                .forEach(request::removeAttribute);
+        TestSecurityContextHolder.clearContext();
+        return result;
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
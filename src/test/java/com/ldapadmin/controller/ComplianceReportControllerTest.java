@@ -3,20 +3,24 @@ package com.ldapadmin.controller;
 import com.ldapadmin.controller.directory.ComplianceReportController;
 import com.ldapadmin.service.PdfReportService;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -35,40 +39,50 @@ class ComplianceReportControllerTest extends BaseControllerTest {
 
     @Test
     void userAccessReport_superadmin_returns200WithPdf() throws Exception {
-        when(pdfReportService.generateUserAccessReport(eq(dirId), isNull()))
-                .thenReturn(FAKE_PDF);
+        doAnswer(writesPdf()).when(pdfReportService).writeUserAccessReport(eq(dirId), isNull(), any());
 
-        mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/user-access", dirId)
+        MvcResult result = mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/user-access", dirId)
                         .with(authentication(superadminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes(FAKE_PDF))
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"user-access-report.pdf\""));
 
-        verify(pdfReportService).generateUserAccessReport(eq(dirId), isNull());
+        verify(pdfReportService).writeUserAccessReport(eq(dirId), isNull(), any());
     }
 
     @Test
     void userAccessReport_withGroupDnFilter_passesParameter() throws Exception {
         String groupDn = "cn=admins,dc=example,dc=com";
-        when(pdfReportService.generateUserAccessReport(eq(dirId), eq(groupDn)))
-                .thenReturn(FAKE_PDF);
+        doAnswer(writesPdf()).when(pdfReportService).writeUserAccessReport(eq(dirId), eq(groupDn), any());
 
-        mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/user-access", dirId)
+        MvcResult result = mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/user-access", dirId)
                         .param("groupDn", groupDn)
                         .with(authentication(superadminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF));
 
-        verify(pdfReportService).generateUserAccessReport(eq(dirId), eq(groupDn));
+        verify(pdfReportService).writeUserAccessReport(eq(dirId), eq(groupDn), any());
     }
 
     @Test
     void userAccessReport_admin_returns200() throws Exception {
-        when(pdfReportService.generateUserAccessReport(eq(dirId), isNull()))
-                .thenReturn(FAKE_PDF);
+        doAnswer(writesPdf()).when(pdfReportService).writeUserAccessReport(eq(dirId), isNull(), any());
 
-        mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/user-access", dirId)
+        MvcResult result = mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/user-access", dirId)
                         .with(authentication(adminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
     }
 
@@ -82,27 +96,33 @@ class ComplianceReportControllerTest extends BaseControllerTest {
 
     @Test
     void accessReviewSummary_superadmin_returns200WithPdf() throws Exception {
-        when(pdfReportService.generateAccessReviewSummary(eq(campaignId)))
-                .thenReturn(FAKE_PDF);
+        doAnswer(writesPdf()).when(pdfReportService).writeAccessReviewSummary(eq(campaignId), any());
 
-        mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/access-review-summary/{campaignId}",
+        MvcResult result = mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/access-review-summary/{campaignId}",
                         dirId, campaignId)
                         .with(authentication(superadminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF))
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"access-review-summary.pdf\""));
 
-        verify(pdfReportService).generateAccessReviewSummary(eq(campaignId));
+        verify(pdfReportService).writeAccessReviewSummary(eq(campaignId), any());
     }
 
     @Test
     void accessReviewSummary_admin_returns200() throws Exception {
-        when(pdfReportService.generateAccessReviewSummary(eq(campaignId)))
-                .thenReturn(FAKE_PDF);
+        doAnswer(writesPdf()).when(pdfReportService).writeAccessReviewSummary(eq(campaignId), any());
 
-        mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/access-review-summary/{campaignId}",
+        MvcResult result = mvc.perform(get("/api/v1/directories/{dirId}/compliance-reports/access-review-summary/{campaignId}",
                         dirId, campaignId)
                         .with(authentication(adminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
     }
 
@@ -117,17 +137,20 @@ class ComplianceReportControllerTest extends BaseControllerTest {
 
     @Test
     void privilegedAccounts_superadmin_returns200WithPdf() throws Exception {
-        when(pdfReportService.generatePrivilegedAccountInventory())
-                .thenReturn(FAKE_PDF);
+        doAnswer(writesPdf()).when(pdfReportService).writePrivilegedAccountInventory(any());
 
-        mvc.perform(get("/api/v1/compliance-reports/privileged-accounts")
+        MvcResult result = mvc.perform(get("/api/v1/compliance-reports/privileged-accounts")
                         .with(authentication(superadminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF))
                 .andExpect(header().string("Content-Disposition",
                         "attachment; filename=\"privileged-account-inventory.pdf\""));
 
-        verify(pdfReportService).generatePrivilegedAccountInventory();
+        verify(pdfReportService).writePrivilegedAccountInventory(any());
     }
 
     @Test
@@ -142,4 +165,12 @@ class ComplianceReportControllerTest extends BaseControllerTest {
         mvc.perform(get("/api/v1/compliance-reports/privileged-accounts"))
                 .andExpect(status().isUnauthorized());
     }
+
+    private static Answer<Void> writesPdf() {
+        return invocation -> {
+            OutputStream out = invocation.getArgument(invocation.getArguments().length - 1);
+            out.write(FAKE_PDF);
+            return null;
+        };
+    }
 }
@@ -4,10 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ldapadmin.controller.superadmin.DirectoryConnectionController;
 import com.ldapadmin.dto.directory.DirectoryConnectionRequest;
 import com.ldapadmin.dto.directory.DirectoryConnectionResponse;
+import com.ldapadmin.dto.directory.DirectoryReplicaStatus;
 import com.ldapadmin.dto.directory.TestConnectionRequest;
 import com.ldapadmin.dto.directory.TestConnectionResult;
 import com.ldapadmin.entity.enums.SslMode;
 import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.service.DirectoryConnectionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +45,7 @@ class DirectoryConnectionControllerTest extends BaseControllerTest {
     @Autowired ObjectMapper objectMapper;
 
     @MockBean DirectoryConnectionService directoryService;
+    @MockBean DirectoryReplicaService    replicaService;
 
     static final UUID DIR_ID    = UUID.fromString("20000000-0000-0000-0000-000000000002");
 
@@ -77,6 +80,7 @@ class DirectoryConnectionControllerTest extends BaseControllerTest {
                 null,                               // secondaryHost
                 null,                               // secondaryPort
                 null,                               // globalCatalogPort
+                false,                              // localReplicaEnabled
                 OffsetDateTime.now(),               // createdAt
                 OffsetDateTime.now());              // updatedAt
     }
@@ -89,7 +93,7 @@ class DirectoryConnectionControllerTest extends BaseControllerTest {
                 "dc=example,dc=com", 500, 1, 10, 5, 30,
                 null, null, null, null, null, true,
                 false, null, null, null, null,
-                List.of(), List.of());
+                List.of(), List.of(), false);
     }
 
     // ── GET list ──────────────────────────────────────────────────────────────
@@ -141,7 +145,7 @@ class DirectoryConnectionControllerTest extends BaseControllerTest {
                 "dc=example,dc=com", 500, 1, 10, 5, 30,
                 null, null, null, null, null, true,
                 false, null, null, null, null,
-                List.of(), List.of());
+                List.of(), List.of(), false);
 
         mockMvc.perform(post(BASE_URL)
                         .with(authentication(superadminAuth()))
@@ -159,7 +163,7 @@ class DirectoryConnectionControllerTest extends BaseControllerTest {
                 "dc=example,dc=com", 500, 1, 10, 5, 30,
                 null, null, null, null, null, true,
                 false, null, null, null, null,
-                List.of(), List.of());
+                List.of(), List.of(), false);
 
         mockMvc.perform(post(BASE_URL)
                         .with(authentication(superadminAuth()))
@@ -233,6 +237,20 @@ class DirectoryConnectionControllerTest extends BaseControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    // ── GET /{id}/replica ─────────────────────────────────────────────────────
+
+    @Test
+    void replicaStatus_superadmin_returns200() throws Exception {
+        given(replicaService.status(DIR_ID)).willReturn(new DirectoryReplicaStatus(
+                DIR_ID, true, "READY", 42, OffsetDateTime.now(), OffsetDateTime.now(), null));
+
+        mockMvc.perform(get(BASE_URL + "/" + DIR_ID + "/replica")
+                        .with(authentication(superadminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("READY"))
+                .andExpect(jsonPath("$.entryCount").value(42));
+    }
+
     // ── POST /test ────────────────────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,73 @@
+package com.ldapadmin.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownloadResponsesTest {
+
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv; charset=UTF-8");
+
+    @Test
+    void attachment_plain_streamsBodyUnchanged() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = DownloadResponses.attachment("users.csv", CSV, false,
+                out -> out.write("dn\r\nuid=a\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(CSV);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"users.csv\"");
+        assertThat(write(response)).asString(StandardCharsets.UTF_8).isEqualTo("dn\r\nuid=a\r\n");
+    }
+
+    @Test
+    void attachment_gzip_compressesAndRenames() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = DownloadResponses.attachment("users.csv", CSV, true,
+                out -> out.write("dn\r\nuid=a\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/gzip"));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"users.csv.gz\"");
+        assertThat(gunzip(write(response))).isEqualTo("dn\r\nuid=a\r\n");
+    }
+
+    @Test
+    void attachment_gzip_passesFlushesThrough() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        AtomicInteger sentAtFlush = new AtomicInteger(-1);
+        ResponseEntity<StreamingResponseBody> response = DownloadResponses.attachment("users.csv", CSV, true, out -> {
+            out.write("dn\r\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            sentAtFlush.set(sink.size());
+            out.write("uid=a\r\n".getBytes(StandardCharsets.UTF_8));
+        });
+
+        response.getBody().writeTo(sink);
+
+        // The header was on the wire before the rest of the body was written
+        assertThat(sentAtFlush.get()).isPositive();
+        assertThat(gunzip(sink.toByteArray())).isEqualTo("dn\r\nuid=a\r\n");
+    }
+
+    private static byte[] write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
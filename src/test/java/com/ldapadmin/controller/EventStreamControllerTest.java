@@ -0,0 +1,50 @@
+package com.ldapadmin.controller;
+
+import com.ldapadmin.service.push.PushHub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EventStreamController.class)
+class EventStreamControllerTest extends BaseControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @MockBean PushHub pushHub;
+
+    @Test
+    void stream_authenticated_writesEvents() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        given(pushHub.subscribe(any())).willReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/events").with(authentication(adminAuth())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("notifications").data("{\"count\":3}"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/event-stream"))
+                .andExpect(content().string("event:notifications\ndata:{\"count\":3}\n\n"));
+    }
+
+    @Test
+    void stream_unauthenticated_returns401() throws Exception {
+        mockMvc.perform(get("/api/v1/events"))
+                .andExpect(status().isUnauthorized());
+    }
+}
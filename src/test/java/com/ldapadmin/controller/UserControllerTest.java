@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ldapadmin.controller.directory.UserController;
 import com.ldapadmin.dto.ldap.AttributeModification;
 import com.ldapadmin.dto.ldap.CreateEntryRequest;
+import com.ldapadmin.dto.ldap.LdapEntryPage;
 import com.ldapadmin.dto.ldap.LdapEntryResponse;
 import com.ldapadmin.dto.ldap.MoveUserRequest;
 import com.ldapadmin.dto.ldap.UpdateEntryRequest;
@@ -88,6 +89,33 @@ class UserControllerTest extends BaseControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    // ── GET /pages ────────────────────────────────────────────────────────────
+
+    @Test
+    void openPages_clampsSizeAndReturnsCursor() throws Exception {
+        given(ldapService.openUserCursor(eq(DIR_ID), any(), isNull(), isNull(), eq("cn"), eq(500), any()))
+                .willReturn(new LdapEntryPage(List.of(sampleEntry()), "abc", true));
+
+        mockMvc.perform(get(BASE_URL + "/pages")
+                        .param("sort", "cn")
+                        .param("size", "10000")
+                        .with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries[0].dn").value(ENTRY_DN))
+                .andExpect(jsonPath("$.cursor").value("abc"));
+    }
+
+    @Test
+    void nextPage_returnsFollowingEntries() throws Exception {
+        given(ldapService.nextPage(eq(DIR_ID), any(), eq("abc")))
+                .willReturn(new LdapEntryPage(List.of(sampleEntry()), null, true));
+
+        mockMvc.perform(get(BASE_URL + "/pages/abc").with(authentication(adminAuth())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries.length()").value(1))
+                .andExpect(jsonPath("$.cursor").doesNotExist());
+    }
+
     // ── POST /create ──────────────────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,329 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.dto.directory.DirectoryReplicaStatus;
+import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.ldapadmin.ldap.model.LdapUser;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.schema.Schema;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link DirectoryReplicaService} with an in-memory server standing
+ * in for the domain controller.
+ */
+@ExtendWith(MockitoExtension.class)
+class DirectoryReplicaServiceTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String PEOPLE    = "ou=people," + BASE_DN;
+    private static final String GROUPS    = "ou=groups," + BASE_DN;
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+
+    private static final String USER_FILTER  = "(|(objectClass=inetOrgPerson)(objectClass=person))";
+    private static final String GROUP_FILTER = "(objectClass=groupOfNames)";
+
+    @Mock private DirectoryConnectionRepository dirRepo;
+    @Mock private EncryptionService             encryptionService;
+    @Mock private LdapChangelogReader           changelogReader;
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   connectionFactory;
+    private DirectoryReplicaService service;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        // The in-memory server keeps no back-links; memberOf is maintained by hand below
+        config.setSchema(Schema.mergeSchemas(Schema.getDefaultStandardSchema(), new Schema(new Entry(
+                "dn: cn=schema",
+                "objectClass: subschema",
+                "attributeTypes: ( 1.2.840.113556.1.2.102 NAME 'memberOf' "
+                        + "SYNTAX 1.3.6.1.4.1.1466.115.121.1.12 )"))));
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+        server.add("dn: " + PEOPLE, "objectClass: organizationalUnit", "ou: people");
+        server.add("dn: " + GROUPS, "objectClass: organizationalUnit", "ou: groups");
+        addUser("alice");
+        addUser("bob");
+        server.add("dn: cn=admins," + GROUPS, "objectClass: groupOfNames", "cn: admins",
+                "member: uid=alice," + PEOPLE);
+
+        lenient().when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
+        service = new DirectoryReplicaService(dirRepo, connectionFactory, changelogReader);
+        ReflectionTestUtils.setField(service, "reseedIntervalMinutes", 30L);
+        ReflectionTestUtils.setField(service, "maxStalenessMinutes", 60L);
+        ReflectionTestUtils.setField(service, "maxEntries", 1000);
+        ReflectionTestUtils.setField(service, "seedAttributes", new String[] {"*", "+"});
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(2);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setPagingSize(2);
+        dc.setEnabled(true);
+        dc.setLocalReplicaEnabled(true);
+        dc.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void noReplicaLoaded_callerSearchesDirectory() {
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).isEmpty();
+    }
+
+    @Test
+    void seed_servesSearchesWithoutTouchingDirectory() throws Exception {
+        service.seed(dc);
+        addUser("carol"); // not reported — invisible until the next seed
+
+        List<LdapUser> users = service.searchUsers(dc, USER_FILTER, null, 100, "cn", "mail").orElseThrow();
+        assertThat(users).extracting(LdapUser::getCn).containsExactlyInAnyOrder("alice", "bob");
+        assertThat(users.get(0).getAttributes()).containsOnlyKeys("cn", "mail");
+
+        List<LdapGroup> groups = service.searchGroups(dc, GROUP_FILTER, null, 100, "cn", "member").orElseThrow();
+        assertThat(groups).singleElement().satisfies(g ->
+                assertThat(g.getAllMembers()).containsExactly("uid=alice," + PEOPLE));
+
+        // Scoped search and result limit
+        assertThat(service.searchUsers(dc, "(objectClass=*)", "uid=bob," + PEOPLE, 1, "*").orElseThrow())
+                .extracting(LdapUser::getDn).containsExactly("uid=bob," + PEOPLE);
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 1, "1.1").orElseThrow()).hasSize(1);
+    }
+
+    @Test
+    void process_streamsMatchesOrReportsFallback() {
+        List<String> dns = new ArrayList<>();
+        assertThat(service.processUsers(dc, USER_FILTER, null, u -> dns.add(u.getDn()), "cn")).isFalse();
+
+        service.seed(dc);
+
+        assertThat(service.processUsers(dc, USER_FILTER, null, u -> dns.add(u.getDn()), "cn")).isTrue();
+        assertThat(service.processGroups(dc, GROUP_FILTER, null, g -> dns.add(g.getDn()), "cn")).isTrue();
+        assertThat(dns).containsExactlyInAnyOrder(
+                "uid=alice," + PEOPLE, "uid=bob," + PEOPLE, "cn=admins," + GROUPS);
+
+        assertThat(service.processUsers(dc, "(cn~=alise)", null, u -> dns.add(u.getDn()))).isFalse();
+        assertThat(dns).hasSize(3);
+    }
+
+    @Test
+    void attributeSelection_followsServerSemantics() {
+        service.seed(dc);
+
+        LdapUser dnOnly = service.searchUsers(dc, "(uid=alice)", null, 1, "1.1").orElseThrow().get(0);
+        assertThat(dnOnly.getAttributes()).isEmpty();
+
+        LdapUser userAttrs = service.searchUsers(dc, "(uid=alice)", null, 1, "*").orElseThrow().get(0);
+        assertThat(userAttrs.getAttributes()).containsKey("mail").doesNotContainKey("createtimestamp");
+
+        LdapUser withOperational = service.searchUsers(dc, "(uid=alice)", null, 1, "*", "+").orElseThrow().get(0);
+        assertThat(withOperational.getAttributes()).containsKeys("mail", "createtimestamp");
+    }
+
+    @Test
+    void reportedChanges_areReadBackIntoReplica() throws Exception {
+        service.seed(dc);
+
+        server.modify("uid=alice," + PEOPLE, new Modification(ModificationType.REPLACE, "mail", "new@example.com"));
+        server.delete("uid=bob," + PEOPLE);
+        server.modifyDN("ou=people," + BASE_DN, "ou=staff", true);
+        service.onEntryChanged(new DirectoryEntryChangedEvent(dc.getId(), "uid=bob," + PEOPLE, null));
+        service.onEntryChanged(new DirectoryEntryChangedEvent(dc.getId(), PEOPLE, "ou=staff," + BASE_DN));
+        service.applyPendingChanges();
+
+        List<LdapUser> users = service.searchUsers(dc, USER_FILTER, null, 100, "mail").orElseThrow();
+        assertThat(users).singleElement().satisfies(u -> {
+            assertThat(u.getDn()).isEqualTo("uid=alice,ou=staff," + BASE_DN);
+            assertThat(u.getMail()).isEqualTo("new@example.com");
+        });
+    }
+
+    @Test
+    void groupMembershipChange_rereadsMembersMemberOf() throws Exception {
+        String admins = "cn=admins," + GROUPS;
+        server.modify("uid=alice," + PEOPLE,
+                new Modification(ModificationType.ADD, "objectClass", "extensibleObject"),
+                new Modification(ModificationType.ADD, "memberOf", admins));
+        service.seed(dc);
+        assertThat(service.searchUsers(dc, "(memberOf=" + admins + ")", null, 100, "uid").orElseThrow())
+                .extracting(LdapUser::getDn).containsExactly("uid=alice," + PEOPLE);
+
+        // Swap alice for bob; the server rewrites both users' memberOf but reports only the group
+        server.modify(admins,
+                new Modification(ModificationType.DELETE, "member", "uid=alice," + PEOPLE),
+                new Modification(ModificationType.ADD, "member", "uid=bob," + PEOPLE));
+        server.modify("uid=alice," + PEOPLE, new Modification(ModificationType.DELETE, "memberOf"));
+        server.modify("uid=bob," + PEOPLE,
+                new Modification(ModificationType.ADD, "objectClass", "extensibleObject"),
+                new Modification(ModificationType.ADD, "memberOf", admins));
+        service.onEntryChanged(new DirectoryEntryChangedEvent(dc.getId(), admins, null));
+        service.applyPendingChanges();
+
+        assertThat(service.searchUsers(dc, "(uid=alice)", null, 1, "memberOf").orElseThrow())
+                .singleElement().satisfies(u -> assertThat(u.getAttributes()).doesNotContainKey("memberof"));
+        assertThat(service.searchUsers(dc, "(memberOf=" + admins + ")", null, 100, "uid").orElseThrow())
+                .extracting(LdapUser::getDn).containsExactly("uid=bob," + PEOPLE);
+    }
+
+    @Test
+    void watermark_advancesOnlyToConfirmedFeedPosition() {
+        service.seed(dc);
+        OffsetDateTime seeded = service.status(idStub()).watermark();
+
+        service.applyPendingChanges();
+        assertThat(service.status(dc.getId()).watermark()).isEqualTo(seeded);
+
+        // Linked source that has not caught up yet: nothing confirmed, watermark stays
+        AuditDataSource source = new AuditDataSource();
+        source.setId(UUID.randomUUID());
+        dc.setAuditDataSource(source);
+        service.applyPendingChanges();
+        assertThat(service.status(dc.getId()).watermark()).isEqualTo(seeded);
+
+        OffsetDateTime confirmed = seeded.plusSeconds(5);
+        when(changelogReader.confirmedThrough(source.getId())).thenReturn(confirmed);
+        service.applyPendingChanges();
+        assertThat(service.status(dc.getId()).watermark()).isEqualTo(confirmed);
+        assertThat(service.status(dc.getId()).state()).isEqualTo("READY");
+
+        // An older confirmation never moves it back
+        when(changelogReader.confirmedThrough(source.getId())).thenReturn(seeded.minusSeconds(5));
+        service.applyPendingChanges();
+        assertThat(service.status(dc.getId()).watermark()).isEqualTo(confirmed);
+    }
+
+    @Test
+    void failingChangeFeed_marksReplicaStaleUntilConfirmedAgain() {
+        AuditDataSource source = new AuditDataSource();
+        source.setId(UUID.randomUUID());
+        dc.setAuditDataSource(source);
+        service.seed(dc);
+
+        when(changelogReader.feedError(source.getId())).thenReturn("connection refused");
+        service.applyPendingChanges();
+
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).isEmpty();
+        DirectoryReplicaStatus status = service.status(idStub());
+        assertThat(status.state()).isEqualTo("STALE");
+        assertThat(status.lastError()).contains("connection refused");
+
+        when(changelogReader.feedError(source.getId())).thenReturn(null);
+        when(changelogReader.confirmedThrough(source.getId())).thenReturn(OffsetDateTime.now());
+        service.applyPendingChanges();
+
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).get().asList().hasSize(2);
+        assertThat(service.status(dc.getId()).state()).isEqualTo("READY");
+    }
+
+    @Test
+    void attributesNotHeld_fallBackToDirectory() {
+        ReflectionTestUtils.setField(service, "seedAttributes", new String[] {"objectClass", "uid", "cn"});
+        service.seed(dc);
+
+        assertThat(service.searchUsers(dc, "(uid=alice)", null, 1, "cn")).get().asList().hasSize(1);
+        assertThat(service.searchUsers(dc, "(uid=alice)", null, 1, "1.1")).get().asList().hasSize(1);
+        // Requested or filtered-on attributes the seed did not read
+        assertThat(service.searchUsers(dc, "(uid=alice)", null, 1, "mail")).isEmpty();
+        assertThat(service.searchUsers(dc, "(uid=alice)", null, 1, "*")).isEmpty();
+        assertThat(service.searchUsers(dc, "(mail=alice@example.com)", null, 1, "cn")).isEmpty();
+        assertThat(service.searchUsers(dc, "(!(sn=alice))", null, 1, "cn")).isEmpty();
+    }
+
+    @Test
+    void staleOrEditedConnection_fallsBackToDirectory() {
+        service.seed(dc);
+
+        ReflectionTestUtils.setField(service, "maxStalenessMinutes", -1L);
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).isEmpty();
+
+        ReflectionTestUtils.setField(service, "maxStalenessMinutes", 60L);
+        dc.setUpdatedAt(dc.getUpdatedAt().plusSeconds(1));
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).isEmpty();
+    }
+
+    @Test
+    void filterNotEvaluableLocally_fallsBackToDirectory() {
+        service.seed(dc);
+
+        assertThat(service.searchUsers(dc, "(cn~=alise)", null, 100)).isEmpty();
+        assertThat(service.searchUsers(dc, "(uid=alice)", "dc=other,dc=com", 100)).isEmpty();
+    }
+
+    @Test
+    void maintain_seedsOptedInDirectoriesAndDropsOthers() {
+        when(dirRepo.findAllByEnabledTrue()).thenReturn(List.of(dc));
+        service.maintain();
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).get().asList().hasSize(2);
+
+        when(dirRepo.findAllByEnabledTrue()).thenReturn(List.of());
+        service.maintain();
+        assertThat(service.searchUsers(dc, USER_FILTER, null, 100)).isEmpty();
+    }
+
+    @Test
+    void seed_overEntryLimit_recordsFailure() {
+        ReflectionTestUtils.setField(service, "maxEntries", 3);
+
+        service.seed(dc);
+
+        DirectoryReplicaStatus status = service.status(idStub());
+        assertThat(status.state()).isEqualTo("FAILED");
+        assertThat(status.lastError()).contains("more than 3 entries");
+    }
+
+    private UUID idStub() {
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+        return dc.getId();
+    }
+
+    private void addUser(String uid) throws Exception {
+        server.add("dn: uid=" + uid + "," + PEOPLE, "objectClass: inetOrgPerson",
+                "uid: " + uid, "cn: " + uid, "sn: " + uid, "mail: " + uid + "@example.com");
+    }
+}
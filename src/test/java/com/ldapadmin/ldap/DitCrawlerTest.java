@@ -0,0 +1,184 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.dto.discovery.CrawlPosition;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchResult;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link DitCrawler} against an in-memory server.
+ */
+@ExtendWith(MockitoExtension.class)
+class DitCrawlerTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+    private static final String PERSON    = "(objectClass=inetOrgPerson)";
+    private static final String CONTAINER = "(objectClass=organizationalUnit)";
+
+    @Mock private EncryptionService encryptionService;
+
+    private final AtomicInteger inFlight    = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   connectionFactory;
+    private DitCrawler              crawler;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        // Slow every search down a little and record how many overlap
+        config.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor() {
+            @Override
+            public void processSearchRequest(InMemoryInterceptedSearchRequest request) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void processSearchResult(InMemoryInterceptedSearchResult result) {
+                inFlight.decrementAndGet();
+            }
+        });
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+        // Eight regions, each with an empty OU and a staff OU of three users;
+        // region 0 has 12 users to exercise the count limit
+        for (int r = 0; r < 8; r++) {
+            String region = "ou=region" + r + "," + BASE_DN;
+            server.add("dn: " + region, "objectClass: organizationalUnit", "ou: region" + r);
+            server.add("dn: ou=empty," + region, "objectClass: organizationalUnit", "ou: empty");
+            String staff = "ou=staff," + region;
+            server.add("dn: " + staff, "objectClass: organizationalUnit", "ou: staff");
+            for (int u = 0; u < (r == 0 ? 12 : 3); u++) {
+                server.add("dn: uid=u" + r + "_" + u + "," + staff, "objectClass: inetOrgPerson",
+                        "uid: u" + r + "_" + u, "cn: u" + u, "sn: s", "mail: u@example.com");
+                // Users' children are not containers and must not be descended into
+            }
+            // A user-holding OU's sub-OUs are not explored
+            server.add("dn: ou=sub," + staff, "objectClass: organizationalUnit", "ou: sub");
+        }
+
+        when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
+        crawler = new DitCrawler(connectionFactory, new SimpleAsyncTaskExecutor("dit-crawl-"), 3);
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(8);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setPagingSize(5);
+        dc.setEnabled(true);
+        dc.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void crawl_findsUserContainersWithBoundedConcurrency() {
+        List<DitCrawler.UserContainer> found = Collections.synchronizedList(new ArrayList<>());
+
+        DitCrawler.Result result = crawler.crawl(dc, List.of(new CrawlPosition(BASE_DN, 0)),
+                options(2, 10, Duration.ofMinutes(1)), found::add);
+
+        assertThat(result.complete()).isTrue();
+        assertThat(result.warnings()).isEmpty();
+        // base + 8 regions + 8 empty + 8 staff; staff sub-OUs are never searched
+        assertThat(result.visited()).isEqualTo(25);
+        assertThat(found).extracting(DitCrawler.UserContainer::dn)
+                .containsExactlyInAnyOrder(java.util.stream.IntStream.range(0, 8)
+                        .mapToObj(r -> "ou=staff,ou=region" + r + "," + BASE_DN).toArray(String[]::new));
+        assertThat(found).allSatisfy(c -> assertThat(c.samples()).hasSize(2));
+        assertThat(found).filteredOn(c -> c.dn().contains("region0"))
+                .singleElement().satisfies(c -> assertThat(c.userCount()).isEqualTo(10));
+        assertThat(found).filteredOn(c -> c.dn().contains("region1"))
+                .singleElement().satisfies(c -> {
+                    assertThat(c.userCount()).isEqualTo(3);
+                    assertThat(c.samples().get(0).attributes()).containsKeys("objectClass", "mail");
+                });
+        assertThat(maxInFlight.get()).isBetween(2, 3);
+    }
+
+    @Test
+    void crawl_outOfTime_returnsPendingThatResumes() {
+        List<DitCrawler.UserContainer> found = Collections.synchronizedList(new ArrayList<>());
+        List<CrawlPosition> start = List.of(new CrawlPosition(BASE_DN, 0));
+
+        DitCrawler.Result first = crawler.crawl(dc, start, options(2, 10, Duration.ZERO), found::add);
+
+        assertThat(first.complete()).isFalse();
+        assertThat(first.pending()).containsExactly(new CrawlPosition(BASE_DN, 0));
+        assertThat(found).isEmpty();
+
+        DitCrawler.Result resumed = crawler.crawl(dc, first.pending(), options(2, 10, Duration.ofMinutes(1)), found::add);
+
+        assertThat(resumed.complete()).isTrue();
+        assertThat(found).hasSize(8);
+    }
+
+    @Test
+    void crawl_respectsMaxDepthAndMissingStart() {
+        List<DitCrawler.UserContainer> found = new ArrayList<>();
+
+        DitCrawler.Result result = crawler.crawl(dc,
+                List.of(new CrawlPosition(BASE_DN, 0), new CrawlPosition("ou=absent," + BASE_DN, 0)),
+                new DitCrawler.Options(PERSON, CONTAINER, 2, 10, 1, Duration.ofMinutes(1)), found::add);
+
+        // Depth 2 (the staff OUs) is beyond the limit
+        assertThat(found).isEmpty();
+        assertThat(result.complete()).isTrue();
+        assertThat(result.warnings()).isEmpty();
+    }
+
+    private static DitCrawler.Options options(int sampleSize, int countLimit, Duration budget) {
+        return new DitCrawler.Options(PERSON, CONTAINER, sampleSize, countLimit, 10, budget);
+    }
+}
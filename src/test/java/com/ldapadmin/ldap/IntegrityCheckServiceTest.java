@@ -0,0 +1,140 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.dto.ldap.IntegrityReport;
+import com.ldapadmin.dto.ldap.IntegrityReport.IntegrityIssue;
+import com.ldapadmin.dto.ldap.IntegrityReport.IssueType;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchEntry;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link IntegrityCheckService} against an in-memory server.
+ */
+@ExtendWith(MockitoExtension.class)
+class IntegrityCheckServiceTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String PEOPLE    = "ou=people," + BASE_DN;
+    private static final String GROUPS    = "ou=groups," + BASE_DN;
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+
+    @Mock private EncryptionService encryptionService;
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   connectionFactory;
+    private IntegrityCheckService   service;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        // Hide ou=gone from searches, as an ACL would, so its child looks orphaned
+        config.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor() {
+            @Override
+            public void processSearchEntry(InMemoryInterceptedSearchEntry entry) {
+                if (entry.getSearchEntry().getDN().startsWith("ou=gone,")) {
+                    entry.setSearchEntry(null);
+                }
+            }
+        });
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+        server.add("dn: " + PEOPLE, "objectClass: organizationalUnit", "ou: people");
+        server.add("dn: " + GROUPS, "objectClass: organizationalUnit", "ou: groups");
+        server.add("dn: uid=alice," + PEOPLE, "objectClass: inetOrgPerson", "uid: alice", "cn: alice", "sn: a");
+        server.add("dn: cn=staff," + GROUPS, "objectClass: groupOfNames", "cn: staff",
+                "member: UID=Alice, ou=People,dc=example,dc=com",
+                "member: uid=ghost," + PEOPLE);
+        server.add("dn: cn=nobody," + GROUPS, "objectClass: groupOfNames", "cn: nobody");
+        server.add("dn: ou=gone," + BASE_DN, "objectClass: organizationalUnit", "ou: gone");
+        server.add("dn: uid=stray,ou=gone," + BASE_DN, "objectClass: inetOrgPerson", "uid: stray", "cn: stray", "sn: s");
+
+        when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
+        service = new IntegrityCheckService(connectionFactory, new SimpleAsyncTaskExecutor("integrity-check-"));
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(4);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setEnabled(true);
+        dc.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void runChecks_findsEachKindOfIssue() {
+        IntegrityReport report = service.runChecks(dc, null, EnumSet.allOf(IssueType.class));
+
+        assertThat(report.issues()).extracting(IntegrityIssue::type, IntegrityIssue::dn)
+                .containsExactlyInAnyOrder(
+                        tuple(IssueType.BROKEN_MEMBER, "cn=staff," + GROUPS),
+                        tuple(IssueType.ORPHANED_ENTRY, "uid=stray,ou=gone," + BASE_DN),
+                        tuple(IssueType.EMPTY_GROUP, "cn=nobody," + GROUPS));
+        assertThat(report.issues()).filteredOn(i -> i.type() == IssueType.BROKEN_MEMBER)
+                .singleElement().satisfies(i -> assertThat(i.description()).endsWith("uid=ghost," + PEOPLE));
+        assertThat(report.issues()).filteredOn(i -> i.type() == IssueType.ORPHANED_ENTRY)
+                .singleElement().satisfies(i -> assertThat(i.description()).endsWith("ou=gone," + BASE_DN));
+    }
+
+    @Test
+    void runChecks_streamsOnlySelectedChecksUnderBase() {
+        List<IntegrityIssue> streamed = new ArrayList<>();
+
+        int found = service.runChecks(dc, GROUPS, EnumSet.of(IssueType.EMPTY_GROUP, IssueType.ORPHANED_ENTRY),
+                streamed::add);
+
+        assertThat(found).isEqualTo(1);
+        assertThat(streamed).singleElement().satisfies(i -> {
+            assertThat(i.type()).isEqualTo(IssueType.EMPTY_GROUP);
+            assertThat(i.dn()).isEqualTo("cn=nobody," + GROUPS);
+        });
+    }
+
+    @Test
+    void runChecks_missingBase_reportsNothing() {
+        IntegrityReport report = service.runChecks(dc, "ou=absent," + BASE_DN, EnumSet.allOf(IssueType.class));
+
+        assertThat(report.issues()).isEmpty();
+    }
+}
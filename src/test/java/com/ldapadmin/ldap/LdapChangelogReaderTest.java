@@ -0,0 +1,176 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
+import com.ldapadmin.entity.enums.ChangelogFormat;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.exception.LdapConnectionException;
+import com.ldapadmin.repository.AuditDataSourceRepository;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.ldapadmin.service.AuditService;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link LdapChangelogReader} against the UnboundID in-memory
+ * server's {@code cn=changelog}.
+ */
+@ExtendWith(MockitoExtension.class)
+class LdapChangelogReaderTest {
+
+    @Mock private AuditDataSourceRepository     auditSourceRepo;
+    @Mock private DirectoryConnectionRepository dirRepo;
+    @Mock private AuditService                  auditService;
+    @Mock private EncryptionService             encryptionService;
+
+    private LdapChangelogReader     reader;
+    private InMemoryDirectoryServer server;
+    private AuditDataSource         source;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig("dc=example,dc=com");
+        config.addAdditionalBindCredentials("cn=admin,dc=example,dc=com", "adminpass");
+        config.setMaxChangeLogEntries(100);
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: dc=example,dc=com", "objectClass: domain", "dc: example");
+
+        reader = new LdapChangelogReader(auditSourceRepo, dirRepo, auditService, encryptionService);
+
+        source = new AuditDataSource();
+        source.setId(UUID.randomUUID());
+        source.setDisplayName("test");
+        source.setHost("localhost");
+        source.setPort(server.getListenPort());
+        source.setSslMode(SslMode.NONE);
+        source.setBindDn("cn=admin,dc=example,dc=com");
+        source.setBindPasswordEncrypted("enc");
+        source.setChangelogBaseDn("cn=changelog");
+        source.setChangelogFormat(ChangelogFormat.DSEE_CHANGELOG);
+
+        lenient().when(encryptionService.decrypt("enc")).thenReturn("adminpass");
+        lenient().when(dirRepo.findAll()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutDown(true);
+    }
+
+    @Test
+    void pollSource_recordsAllChangesAndStoresPosition() throws Exception {
+        addUsers("a", "b");
+
+        String last = reader.pollSource(source);
+
+        // base entry + two users
+        verify(auditService, times(3)).recordChangelogEvent(
+                isNull(), isNull(), anyString(), anyString(), anyMap(), any());
+        assertThat(last).isEqualTo("3");
+        verify(auditSourceRepo).updateChangePosition(source.getId(), "3", null);
+        assertThat(source.getLastChangeId()).isEqualTo("3");
+    }
+
+    @Test
+    void pollSource_resumesAfterLastRecordedChange() throws Exception {
+        addUsers("a", "b");
+        reader.pollSource(source);
+        clearInvocations(auditService, auditSourceRepo);
+
+        addUsers("c");
+        String last = reader.pollSource(source);
+
+        ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+        verify(auditService).recordChangelogEvent(
+                isNull(), isNull(), eq("uid=c,dc=example,dc=com"), ids.capture(), anyMap(), any());
+        assertThat(ids.getValue()).isEqualTo("4");
+        assertThat(last).isEqualTo("4");
+    }
+
+    @Test
+    void pollSource_nothingNew_doesNotRewritePosition() throws Exception {
+        reader.pollSource(source);
+        clearInvocations(auditService, auditSourceRepo);
+
+        reader.pollSource(source);
+
+        verifyNoInteractions(auditService);
+        verify(auditSourceRepo, never()).updateChangePosition(any(), any(), any());
+    }
+
+    @Test
+    void pollSource_caughtUp_confirmsFeedThroughPollStart() throws Exception {
+        addUsers("a");
+        OffsetDateTime before = OffsetDateTime.now();
+
+        reader.pollSource(source);
+
+        assertThat(reader.confirmedThrough(source.getId())).isAfterOrEqualTo(before);
+        assertThat(reader.feedError(source.getId())).isNull();
+    }
+
+    @Test
+    void pollSource_failure_reportsFeedErrorAndKeepsPosition() throws Exception {
+        reader.pollSource(source);
+        OffsetDateTime confirmed = reader.confirmedThrough(source.getId());
+        server.shutDown(true);
+
+        assertThatThrownBy(() -> reader.pollSource(source)).isInstanceOf(LdapConnectionException.class);
+
+        assertThat(reader.feedError(source.getId())).isNotNull();
+        assertThat(reader.confirmedThrough(source.getId())).isEqualTo(confirmed);
+    }
+
+    @Test
+    void pollAll_disabledSource_reportsFeedError() {
+        source.setEnabled(false);
+        when(auditSourceRepo.findAll()).thenReturn(List.of(source));
+
+        reader.pollAll();
+
+        assertThat(reader.feedError(source.getId())).contains("disabled");
+        verifyNoInteractions(auditService, encryptionService);
+    }
+
+    @Test
+    void pollAll_skipsPushSourcesWithStreamSupport() {
+        source.setChangeCaptureMode(ChangeCaptureMode.PUSH);
+        when(auditSourceRepo.findAll()).thenReturn(List.of(source));
+
+        reader.pollAll();
+
+        verifyNoInteractions(auditService, encryptionService);
+    }
+
+    @Test
+    void isStreamed_dirSyncFallsBackToPolling() {
+        source.setChangeCaptureMode(ChangeCaptureMode.PUSH);
+        source.setChangelogFormat(ChangelogFormat.AD_DIRSYNC);
+
+        assertThat(LdapChangelogReader.isStreamed(source)).isFalse();
+    }
+
+    private void addUsers(String... uids) throws Exception {
+        for (String uid : uids) {
+            server.add("dn: uid=" + uid + ",dc=example,dc=com",
+                    "objectClass: inetOrgPerson", "uid: " + uid, "cn: " + uid, "sn: " + uid);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.AuditDataSource;
+import com.ldapadmin.entity.enums.ChangeCaptureMode;
+import com.ldapadmin.entity.enums.ChangelogFormat;
+import com.ldapadmin.ldap.changelog.AccesslogStrategy;
+import com.ldapadmin.ldap.changelog.DseeChangelogStrategy;
+import com.ldapadmin.repository.AuditDataSourceRepository;
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Control;
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.controls.ContentSyncInfoIntermediateResponse;
+import com.unboundid.ldap.sdk.controls.ContentSyncState;
+import com.unboundid.ldap.sdk.controls.ContentSyncStateControl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LdapChangelogStreamerTest {
+
+    @Mock private AuditDataSourceRepository auditSourceRepo;
+    @Mock private LdapChangelogReader       changelogReader;
+
+    private LdapChangelogStreamer streamer;
+    private AuditDataSource       source;
+
+    @BeforeEach
+    void setUp() {
+        streamer = new LdapChangelogStreamer(auditSourceRepo, changelogReader);
+
+        source = new AuditDataSource();
+        source.setId(UUID.randomUUID());
+        source.setDisplayName("test");
+        source.setChangelogFormat(ChangelogFormat.DSEE_CHANGELOG);
+        source.setChangeCaptureMode(ChangeCaptureMode.PUSH);
+    }
+
+    @Test
+    void pushedEntries_recordedOnceInOrderAndPositionSaved() {
+        DseeChangelogStrategy strategy = new DseeChangelogStrategy();
+        LdapChangelogStreamer.ChangeStream stream = streamer.new ChangeStream(
+                source, strategy, new LDAPConnection(), List.of(), "10", null);
+
+        stream.searchEntryReturned(change("10"));  // already recorded before the stream opened
+        stream.searchEntryReturned(change("11"));
+        stream.searchEntryReturned(change("12"));
+
+        verify(changelogReader, times(2)).processEntry(eq(source), eq(List.of()), any(), eq(strategy));
+        verify(auditSourceRepo).updateChangePosition(source.getId(), "11", null);
+        verify(auditSourceRepo).updateChangePosition(source.getId(), "12", null);
+    }
+
+    @Test
+    void entryThatFailsToRecord_endsStreamWithoutAdvancingAndIsReadAgain() {
+        DseeChangelogStrategy strategy = new DseeChangelogStrategy();
+        doThrow(new IllegalStateException("database unavailable")).doNothing()
+                .when(changelogReader).processEntry(any(), any(), any(), any());
+        LdapChangelogStreamer.ChangeStream stream = streamer.new ChangeStream(
+                source, strategy, new LDAPConnection(), List.of(), "10", null);
+
+        stream.searchEntryReturned(change("11"));
+        stream.searchEntryReturned(change("12"));  // already queued; must not skip past 11
+
+        assertThat(stream.isAlive()).isFalse();
+        verify(changelogReader, times(1)).processEntry(any(), any(), any(), any());
+        verify(changelogReader).recordFeedFailure(eq(source.getId()), contains("database unavailable"));
+        verifyNoInteractions(auditSourceRepo);
+
+        // The restart resumes from the last saved position and records the change
+        LdapChangelogStreamer.ChangeStream restarted = streamer.new ChangeStream(
+                source, strategy, new LDAPConnection(), List.of(), "10", null);
+        restarted.searchEntryReturned(change("11"));
+
+        verify(changelogReader, times(2)).processEntry(eq(source), eq(List.of()),
+                argThat(e -> "changeNumber=11,cn=changelog".equals(e.getDN())), eq(strategy));
+        verify(auditSourceRepo).updateChangePosition(source.getId(), "11", null);
+    }
+
+    @Test
+    void syncCookies_fromEntriesAndSyncInfo_arePersisted() throws Exception {
+        source.setChangelogFormat(ChangelogFormat.OPENLDAP_ACCESSLOG);
+        LdapChangelogStreamer.ChangeStream stream = streamer.new ChangeStream(
+                source, new AccesslogStrategy(), new LDAPConnection(), List.of(), null, null);
+
+        String reqStart = "20260319143022.000006Z#000001#000#000000";
+        stream.searchEntryReturned(new SearchResultEntry("reqStart=" + reqStart + ",cn=accesslog",
+                new Attribute[] {new Attribute("reqStart", reqStart)},
+                new Control[] {new ContentSyncStateControl(ContentSyncState.ADD, UUID.randomUUID(),
+                        new ASN1OctetString(new byte[] {1}))}));
+        verify(auditSourceRepo).updateChangePosition(source.getId(), reqStart, new byte[] {1});
+
+        stream.intermediateResponseReturned(
+                ContentSyncInfoIntermediateResponse.createNewCookieResponse(new ASN1OctetString(new byte[] {2})));
+        verify(auditSourceRepo).updateChangePosition(source.getId(), reqStart, new byte[] {2});
+    }
+
+    @Test
+    void deleteStateEntries_ignored() throws Exception {
+        source.setChangelogFormat(ChangelogFormat.OPENLDAP_ACCESSLOG);
+        LdapChangelogStreamer.ChangeStream stream = streamer.new ChangeStream(
+                source, new AccesslogStrategy(), new LDAPConnection(), List.of(), null, null);
+
+        stream.searchEntryReturned(new SearchResultEntry("reqStart=x,cn=accesslog", new Attribute[0],
+                new Control[] {new ContentSyncStateControl(ContentSyncState.DELETE, UUID.randomUUID(), null)}));
+
+        verifyNoInteractions(changelogReader, auditSourceRepo);
+    }
+
+    @Test
+    void streamEnded_isNotAliveAndRestartBacksOff() {
+        LdapChangelogStreamer.ChangeStream stream = streamer.new ChangeStream(
+                source, new DseeChangelogStrategy(), new LDAPConnection(), List.of(), "1", null);
+
+        stream.searchResultReceived(null, new SearchResult(1, ResultCode.UNAVAILABLE_CRITICAL_EXTENSION,
+                "psearch not supported", null, null, 0, 0, null));
+
+        assertThat(stream.isAlive()).isFalse();
+
+        // While backing off, the source is polled instead of restarted
+        source.setLastChangeId("1");
+        when(auditSourceRepo.findAllByEnabledTrue()).thenReturn(List.of(source));
+        streamer.reconcile();
+        verify(changelogReader).pollSource(source);
+        verify(changelogReader, never()).openConnection(any());
+    }
+
+    @Test
+    void startFailure_backsOffThenPollsUntilRetry() {
+        source.setLastChangeId("5");
+        when(auditSourceRepo.findAllByEnabledTrue()).thenReturn(List.of(source));
+        // An unconnected connection makes the async search fail
+        when(changelogReader.openConnection(source)).thenReturn(new LDAPConnection());
+
+        streamer.reconcile();
+        verify(changelogReader).openConnection(source);
+        verify(changelogReader, never()).pollSource(any());
+
+        streamer.reconcile();
+        verify(changelogReader, times(1)).openConnection(source);
+        verify(changelogReader).pollSource(source);
+    }
+
+    @Test
+    void pollSources_notStreamed() {
+        source.setChangeCaptureMode(ChangeCaptureMode.POLL);
+        when(auditSourceRepo.findAllByEnabledTrue()).thenReturn(List.of(source));
+
+        streamer.reconcile();
+
+        verifyNoInteractions(changelogReader);
+    }
+
+    private static SearchResultEntry change(String changeNumber) {
+        return new SearchResultEntry("changeNumber=" + changeNumber + ",cn=changelog",
+                new Attribute[] {new Attribute("changeNumber", changeNumber)});
+    }
+}
@@ -7,6 +7,7 @@ import com.ldapadmin.service.EncryptionService;
 import com.unboundid.ldap.listener.InMemoryDirectoryServer;
 import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
 import com.unboundid.ldap.sdk.LDAPConnectionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -31,12 +34,15 @@ class LdapConnectionFactoryTest {
     @Mock
     private EncryptionService encryptionService;
 
+    private final List<Object> events = new ArrayList<>();
+
     private LdapConnectionFactory factory;
     private InMemoryDirectoryServer inMemoryServer;
 
     @BeforeEach
     void setUp() throws Exception {
-        factory = new LdapConnectionFactory(encryptionService);
+        factory = new LdapConnectionFactory(encryptionService, events::add,
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
 
         // Start an in-memory LDAP server with a simple base DN
         InMemoryDirectoryServerConfig config =
@@ -108,6 +114,32 @@ class LdapConnectionFactoryTest {
             .isInstanceOf(LdapConnectionException.class);
     }
 
+    @Test
+    void withConnection_publishesReachabilityTransitionsOnly() {
+        DirectoryConnection dc = buildDirectoryConnection(SslMode.NONE);
+        when(encryptionService.decrypt(anyString())).thenReturn("wrong-password");
+
+        assertThatThrownBy(() -> factory.withConnection(dc, conn -> conn.getRootDSE()))
+            .isInstanceOf(LdapConnectionException.class);
+        assertThatThrownBy(() -> factory.withConnection(dc, conn -> conn.getRootDSE()))
+            .isInstanceOf(LdapConnectionException.class);
+        assertThat(factory.isUnreachable(dc.getId())).isTrue();
+
+        when(encryptionService.decrypt(anyString())).thenReturn("adminpass");
+        factory.withConnection(dc, conn -> conn.getRootDSE());
+        factory.withConnection(dc, conn -> conn.getRootDSE());
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0)).isInstanceOfSatisfying(DirectoryReachabilityEvent.class, e -> {
+            assertThat(e.directoryId()).isEqualTo(dc.getId());
+            assertThat(e.reachable()).isFalse();
+            assertThat(e.error()).isNotBlank();
+        });
+        assertThat(events.get(1)).isInstanceOfSatisfying(DirectoryReachabilityEvent.class,
+            e -> assertThat(e.reachable()).isTrue());
+        assertThat(factory.isUnreachable(dc.getId())).isFalse();
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private DirectoryConnection buildDirectoryConnection(SslMode sslMode) {
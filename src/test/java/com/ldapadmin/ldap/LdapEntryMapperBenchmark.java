@@ -0,0 +1,75 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.ldapadmin.ldap.model.LdapUser;
+import com.unboundid.ldap.sdk.Entry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LdapEntryMapper}, applied to every entry a search returns: a user
+ * with the attributes of a typical report, and a group of 1,000 members.
+ *
+ * <p>Lives beside the package-private mapper rather than in
+ * {@code com.ldapadmin.benchmark}; it runs with the other benchmarks.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LdapEntryMapperBenchmark {
+
+    private Entry user;
+    private Entry group;
+
+    @Setup
+    public void setUp() {
+        user = new Entry("uid=jsmith,ou=Engineering,ou=People,dc=acmecorp,dc=com");
+        user.addAttribute("objectClass", "top", "person", "organizationalPerson", "inetOrgPerson");
+        user.addAttribute("uid", "jsmith");
+        user.addAttribute("cn", "John Smith");
+        user.addAttribute("sn", "Smith");
+        user.addAttribute("givenName", "John");
+        user.addAttribute("displayName", "John Smith");
+        user.addAttribute("mail", "jsmith@acmecorp.com");
+        user.addAttribute("title", "Senior Engineer");
+        user.addAttribute("departmentNumber", "Engineering");
+        user.addAttribute("employeeNumber", "100042");
+        user.addAttribute("telephoneNumber", "+1 555 0100");
+        user.addAttribute("createTimestamp", "20260101000000Z");
+        user.addAttribute("modifyTimestamp", "20260115093000Z");
+
+        List<String> members = new ArrayList<>(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            members.add("uid=user" + i + ",ou=Engineering,ou=People,dc=acmecorp,dc=com");
+        }
+        group = new Entry("cn=engineering,ou=Groups,dc=acmecorp,dc=com");
+        group.addAttribute("objectClass", "top", "groupOfNames");
+        group.addAttribute("cn", "engineering");
+        group.addAttribute("member", members);
+    }
+
+    @Benchmark
+    public LdapUser toUser() {
+        return LdapEntryMapper.toUser(user);
+    }
+
+    @Benchmark
+    public LdapGroup toGroup() {
+        return LdapEntryMapper.toGroup(group);
+    }
+}
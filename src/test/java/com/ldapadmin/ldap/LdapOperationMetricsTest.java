@@ -0,0 +1,179 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.exception.LdapConnectionException;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.SearchScope;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link LdapOperationMetrics}, recording through
+ * {@link LdapConnectionFactory} against an in-memory server.
+ */
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+class LdapOperationMetricsTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+
+    @Mock private EncryptionService encryptionService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   factory;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        config.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor() {
+            @Override
+            public void processSearchRequest(InMemoryInterceptedSearchRequest request) {
+                // Stalls searches for description=stall past the client's response timeout
+                if (request.getRequest().getFilter().toString().contains("description=stall")) {
+                    try {
+                        Thread.sleep(2_500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+        server.add("dn: ou=people," + BASE_DN, "objectClass: organizationalUnit", "ou: people");
+        for (int i = 0; i < 3; i++) {
+            server.add("dn: uid=u" + i + ",ou=people," + BASE_DN, "objectClass: inetOrgPerson",
+                    "uid: u" + i, "cn: User " + i, "sn: S");
+        }
+
+        when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        factory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(registry, 1000));
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(2);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setPagingSize(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void recordsEachOperationByDirectoryOperationAndResult() {
+        String dn = "uid=new,ou=people," + BASE_DN;
+        factory.withConnection(dc, conn -> conn.search("ou=people," + BASE_DN, SearchScope.SUB,
+                "(objectClass=inetOrgPerson)"));
+        factory.withConnection(dc, conn -> conn.getEntry("uid=u0,ou=people," + BASE_DN));
+        factory.withConnection(dc, conn -> conn.add(new AddRequest(dn, List.of(
+                new Attribute("objectClass", "inetOrgPerson"), new Attribute("uid", "new"),
+                new Attribute("cn", "New"), new Attribute("sn", "N")))));
+        factory.withConnection(dc, conn -> conn.modify(dn,
+                new Modification(ModificationType.REPLACE, "cn", "Renamed")));
+        factory.withConnection(dc, conn -> conn.delete(dn));
+        assertThatThrownBy(() -> factory.withConnection(dc, conn -> conn.delete(dn)))
+                .isInstanceOf(LdapConnectionException.class);
+
+        assertThat(operation("search", "success").count()).isEqualTo(1);
+        assertThat(operation("getEntry", "success").count()).isEqualTo(1);
+        assertThat(operation("add", "success").count()).isEqualTo(1);
+        assertThat(operation("modify", "success").count()).isEqualTo(1);
+        assertThat(operation("delete", "success").count()).isEqualTo(1);
+        assertThat(operation("delete", "no_such_object").count()).isEqualTo(1);
+        // The pool's own connections bind when it is created
+        assertThat(operation("bind", "success").count()).isPositive();
+
+        assertThat(registry.get("ldapadmin.ldap.pool.wait").tags(directoryTags()).timer().count())
+                .isEqualTo(6);
+    }
+
+    @Test
+    void recordsEntriesAndBytesPerSearch() {
+        factory.withConnection(dc, conn -> conn.search("ou=people," + BASE_DN, SearchScope.ONE,
+                "(objectClass=inetOrgPerson)", "uid"));
+
+        DistributionSummary entries = registry.get("ldapadmin.ldap.search.entries")
+                .tags(directoryTags()).tag("operation", "search").summary();
+        assertThat(entries.count()).isEqualTo(1);
+        assertThat(entries.totalAmount()).isEqualTo(3);
+
+        DistributionSummary bytes = registry.get("ldapadmin.ldap.search.bytes")
+                .tags(directoryTags()).tag("operation", "search").summary();
+        // Three DNs plus "uid" and its value each
+        long expected = 3 * (("uid=u0,ou=people," + BASE_DN).length() + "uid".length() + "u0".length());
+        assertThat(bytes.totalAmount()).isEqualTo(expected);
+    }
+
+    @Test
+    void timedOutOperation_isRecordedAndLoggedAsSlow(CapturedOutput output) {
+        dc.setPoolResponseTimeoutSeconds(1);
+
+        assertThatThrownBy(() -> factory.withConnection(dc, conn -> conn.search(BASE_DN, SearchScope.SUB,
+                "(description=stall)")))
+                .isInstanceOf(LdapConnectionException.class);
+
+        Timer timedOut = operation("search", LdapOperationMetrics.TIMEOUT);
+        assertThat(timedOut.count()).isEqualTo(1);
+        assertThat(timedOut.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(1000);
+        // No partial entry count is recorded for it
+        assertThat(registry.find("ldapadmin.ldap.search.entries").summary()).isNull();
+        assertThat(output).contains("Slow LDAP search on [test-ldap] (" + dc.getId() + ")", "result=timeout", "filter=(description=stall)");
+    }
+
+    private Timer operation(String operation, String result) {
+        return registry.get("ldapadmin.ldap.operation")
+                .tags(directoryTags())
+                .tags("operation", operation, "result", result)
+                .timer();
+    }
+
+    /** Meters are tagged with the directory's id, and its name for display. */
+    private String[] directoryTags() {
+        return new String[] {"directory", dc.getId().toString(), "directory_name", "test-ldap"};
+    }
+}
@@ -0,0 +1,210 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.dto.csv.BulkImportRowResult;
+import com.ldapadmin.dto.ldap.LdifImportResult;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.ConflictHandling;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link LdifService} imports with an in-memory server standing in
+ * for the domain controller.
+ */
+@ExtendWith(MockitoExtension.class)
+class LdifServiceTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String PEOPLE    = "ou=people," + BASE_DN;
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+
+    @Mock private EncryptionService encryptionService;
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   connectionFactory;
+    private SimpleMeterRegistry     meterRegistry;
+    private LdifService             service;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+
+        lenient().when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LdifService(connectionFactory, new LdapSchemaService(connectionFactory),
+                meterRegistry, 3, 8, 2);
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(4);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setEnabled(true);
+        dc.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void importLdif_addsChildrenAfterTheirParents() throws Exception {
+        StringBuilder ldif = new StringBuilder(ou("people")).append(ou("groups"));
+        for (int i = 0; i < 40; i++) {
+            ldif.append(person("user" + i));
+        }
+
+        LdifImportResult result = service.importLdif(dc, ldif(ldif.toString()), ConflictHandling.SKIP, false);
+
+        assertThat(result.failed()).as("errors: %s", result.errors()).isZero();
+        assertThat(result.added()).isEqualTo(42);
+        assertThat(server.countEntriesBelow(PEOPLE)).isEqualTo(41);
+        assertThat(meterRegistry.counter("ldapadmin.ldif.import.records", "outcome", "added").count())
+                .isEqualTo(42);
+    }
+
+    @Test
+    void importLdif_existingEntry_overwrittenOrSkipped() throws Exception {
+        server.add(ou("people").split("\n"));
+        server.add(person("alice").split("\n"));
+        String update = """
+                dn: uid=alice,ou=people,dc=example,dc=com
+                objectClass: inetOrgPerson
+                uid: alice
+                cn: alice
+                sn: alice
+                mail: alice@new.example.com
+                """;
+
+        LdifImportResult skipped = service.importLdif(dc, ldif(update), ConflictHandling.SKIP, false);
+        assertThat(skipped.skipped()).isEqualTo(1);
+        assertThat(server.getEntry("uid=alice," + PEOPLE).hasAttribute("mail")).isFalse();
+
+        LdifImportResult overwritten = service.importLdif(dc, ldif(update), ConflictHandling.OVERWRITE, false);
+        assertThat(overwritten.updated()).isEqualTo(1);
+        assertThat(server.getEntry("uid=alice," + PEOPLE).getAttributeValue("mail"))
+                .isEqualTo("alice@new.example.com");
+    }
+
+    @Test
+    void importLdif_changeRecords_keepFileOrderWithinSubtree() throws Exception {
+        server.add(ou("people").split("\n"));
+        server.add(person("alice").split("\n"));
+        server.add(person("bob").split("\n"));
+        String changes = """
+                dn: uid=alice,ou=people,dc=example,dc=com
+                changetype: modify
+                replace: mail
+                mail: alice@example.com
+                -
+
+                dn: uid=alice,ou=people,dc=example,dc=com
+                changetype: delete
+
+                dn: uid=bob,ou=people,dc=example,dc=com
+                changetype: delete
+
+                dn: ou=people,dc=example,dc=com
+                changetype: delete
+                """;
+
+        LdifImportResult result = service.importLdif(dc, ldif(changes), ConflictHandling.SKIP, false);
+
+        assertThat(result.failed()).as("errors: %s", result.errors()).isZero();
+        assertThat(result.updated()).isEqualTo(4);
+        assertThat(server.getEntry(PEOPLE)).isNull();
+    }
+
+    @Test
+    void importLdif_streamingReportsEveryRecordInFileNumbering() {
+        List<BulkImportRowResult> rows = new ArrayList<>();
+        String ldif = ou("people") + "not an ldif record\n\n" + person("carol");
+
+        LdifImportResult result = service.importLdif(dc, ldif(ldif), ConflictHandling.SKIP, false, rows::add);
+
+        assertThat(result.added()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors()).isEmpty();
+        assertThat(rows).extracting(BulkImportRowResult::rowNumber).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(rows).filteredOn(r -> r.status() == BulkImportRowResult.Status.ERROR)
+                .singleElement().satisfies(r -> assertThat(r.message()).startsWith("Parse error"));
+    }
+
+    @Test
+    void dryRun_validatesAgainstSchemaWithoutWriting() throws Exception {
+        String ldif = ou("people") + person("dave") + """
+                dn: uid=erin,ou=people,dc=example,dc=com
+                objectClass: inetOrgPerson
+                uid: erin
+                cn: erin
+                noSuchAttribute: x
+
+                dn: uid=dave,ou=people,dc=example,dc=com
+                changetype: modify
+                replace: bogusAttr
+                bogusAttr: y
+                -
+                """;
+
+        LdifImportResult result = service.importLdif(dc, ldif(ldif), ConflictHandling.SKIP, true);
+
+        assertThat(result.skipped()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).extracting(LdifImportResult.LdifImportError::dn)
+                .containsExactly("uid=erin,ou=people,dc=example,dc=com", "uid=dave,ou=people,dc=example,dc=com");
+        assertThat(result.errors().get(0).message()).contains("sn").contains("noSuchAttribute");
+        assertThat(server.countEntries()).isEqualTo(1);
+    }
+
+    private static String ou(String name) {
+        return "dn: ou=" + name + "," + BASE_DN + "\nobjectClass: organizationalUnit\nou: " + name + "\n\n";
+    }
+
+    private static String person(String uid) {
+        return "dn: uid=" + uid + "," + PEOPLE + "\nobjectClass: inetOrgPerson\nuid: " + uid
+                + "\ncn: " + uid + "\nsn: " + uid + "\n\n";
+    }
+
+    private static InputStream ldif(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,136 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.ModifyRequest;
+import com.unboundid.ldap.sdk.ResultCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link PooledWritePipeline} against an in-memory server.
+ */
+@ExtendWith(MockitoExtension.class)
+class PooledWritePipelineTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String PEOPLE    = "ou=people," + BASE_DN;
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+
+    @Mock private EncryptionService encryptionService;
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   connectionFactory;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+        server.add("dn: " + PEOPLE, "objectClass: organizationalUnit", "ou: people");
+
+        when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(4);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setEnabled(true);
+        dc.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void add_deliversEveryResultOnSubmittingThread() throws Exception {
+        Map<String, ResultCode> results = new HashMap<>();
+        List<Thread> callbackThreads = new ArrayList<>();
+
+        try (LdapWritePipeline pipeline = connectionFactory.openWritePipeline(dc, 3, 4)) {
+            for (int i = 0; i < 50; i++) {
+                String dn = "uid=user" + i + "," + PEOPLE;
+                pipeline.add(userAdd(dn), result -> {
+                    results.put(dn, result.getResultCode());
+                    callbackThreads.add(Thread.currentThread());
+                });
+            }
+            pipeline.flush();
+        }
+
+        assertThat(results).hasSize(50).allSatisfy((dn, code) ->
+                assertThat(code).isEqualTo(ResultCode.SUCCESS));
+        assertThat(callbackThreads).containsOnly(Thread.currentThread());
+        assertThat(server.countEntriesBelow(PEOPLE)).isEqualTo(51);
+    }
+
+    @Test
+    void callback_canSubmitFollowUpBeforeFlushReturns() throws Exception {
+        String dn = "uid=existing," + PEOPLE;
+        server.add(userAdd(dn));
+        List<ResultCode> codes = new ArrayList<>();
+
+        try (LdapWritePipeline pipeline = connectionFactory.openWritePipeline(dc, 2, 2)) {
+            pipeline.add(userAdd(dn), result -> {
+                codes.add(result.getResultCode());
+                pipeline.modify(new ModifyRequest(dn,
+                                new Modification(ModificationType.REPLACE, "mail", "new@example.com")),
+                        modified -> codes.add(modified.getResultCode()));
+            });
+            pipeline.flush();
+        }
+
+        assertThat(codes).containsExactly(ResultCode.ENTRY_ALREADY_EXISTS, ResultCode.SUCCESS);
+        assertThat(server.getEntry(dn).getAttributeValue("mail")).isEqualTo("new@example.com");
+    }
+
+    private static AddRequest userAdd(String dn) {
+        String uid = dn.substring(4, dn.indexOf(','));
+        return new AddRequest(dn, List.of(
+                new Attribute("objectClass", "inetOrgPerson"),
+                new Attribute("uid", uid),
+                new Attribute("cn", uid),
+                new Attribute("sn", uid)));
+    }
+}
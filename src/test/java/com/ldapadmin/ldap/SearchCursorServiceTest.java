@@ -0,0 +1,142 @@
+package com.ldapadmin.ldap;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.SslMode;
+import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.ldap.model.LdapEntry;
+import com.ldapadmin.service.EncryptionService;
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link SearchCursorService} against an in-memory server.
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchCursorServiceTest {
+
+    private static final String BASE_DN   = "dc=example,dc=com";
+    private static final String PEOPLE    = "ou=people," + BASE_DN;
+    private static final String BIND_DN   = "cn=admin,dc=example,dc=com";
+    private static final String BIND_PASS = "adminpass";
+    private static final String FILTER    = "(objectClass=inetOrgPerson)";
+
+    @Mock private EncryptionService encryptionService;
+
+    private final UUID owner = UUID.randomUUID();
+
+    private InMemoryDirectoryServer server;
+    private LdapConnectionFactory   connectionFactory;
+    private SearchCursorService     service;
+    private DirectoryConnection     dc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+        config.addAdditionalBindCredentials(BIND_DN, BIND_PASS);
+        server = new InMemoryDirectoryServer(config);
+        server.startListening();
+        server.add("dn: " + BASE_DN, "objectClass: domain", "dc: example");
+        server.add("dn: " + PEOPLE, "objectClass: organizationalUnit", "ou: people");
+        // Added in reverse so server order differs from sorted order
+        for (int i = 24; i >= 0; i--) {
+            String uid = String.format("user%02d", i);
+            server.add("dn: uid=" + uid + "," + PEOPLE, "objectClass: inetOrgPerson",
+                    "uid: " + uid, "cn: " + uid, "sn: " + uid);
+        }
+
+        lenient().when(encryptionService.decrypt(anyString())).thenReturn(BIND_PASS);
+        connectionFactory = new LdapConnectionFactory(encryptionService, event -> {},
+                new LdapOperationMetrics(new SimpleMeterRegistry(), 1000));
+        service = new SearchCursorService(connectionFactory, new SimpleMeterRegistry(), 60, 15, 1);
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("test-ldap");
+        dc.setHost("localhost");
+        dc.setPort(server.getListenPort());
+        dc.setSslMode(SslMode.NONE);
+        dc.setBindDn(BIND_DN);
+        dc.setBindPasswordEncrypted("enc");
+        dc.setBaseDn(BASE_DN);
+        dc.setPoolMinSize(1);
+        dc.setPoolMaxSize(4);
+        dc.setPoolConnectTimeoutSeconds(5);
+        dc.setPoolResponseTimeoutSeconds(10);
+        dc.setEnabled(true);
+        dc.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.closeAll();
+        connectionFactory.closeAll();
+        server.shutDown(true);
+    }
+
+    @Test
+    void next_walksSortedPagesUntilExhausted() {
+        List<String> uids = new ArrayList<>();
+        SearchCursorService.Page page = service.open(dc, owner, FILTER, null, "uid", 10, "uid");
+        assertThat(page.sorted()).isTrue();
+        uids.addAll(uids(page));
+        while (page.cursor() != null) {
+            page = service.next(dc, owner, page.cursor());
+            uids.addAll(uids(page));
+        }
+
+        assertThat(uids).hasSize(25).isSorted();
+    }
+
+    @Test
+    void detachedCursor_resumesWhereItLeftOff() {
+        SearchCursorService.Page first = service.open(dc, owner, FILTER, null, "-uid", 10, "uid");
+        // Only one connected cursor is allowed, so opening a second detaches the first
+        SearchCursorService.Page other = service.open(dc, owner, FILTER, null, "uid", 5, "uid");
+
+        SearchCursorService.Page second = service.next(dc, owner, first.cursor());
+
+        assertThat(uids(first)).startsWith("user24");
+        assertThat(uids(second)).hasSize(10).first().isEqualTo("user14");
+        assertThat(uids(other)).containsExactly("user00", "user01", "user02", "user03", "user04");
+    }
+
+    @Test
+    void cursor_isBoundToItsOwnerAndClosable() {
+        SearchCursorService.Page page = service.open(dc, owner, FILTER, PEOPLE, null, 5);
+
+        assertThatThrownBy(() -> service.next(dc, UUID.randomUUID(), page.cursor()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        service.close(dc.getId(), owner, page.cursor());
+        assertThatThrownBy(() -> service.next(dc, owner, page.cursor()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void open_missingBase_returnsEmptyExhaustedPage() {
+        SearchCursorService.Page page = service.open(dc, owner, FILTER, "ou=absent," + BASE_DN, null, 5);
+
+        assertThat(page.entries()).isEmpty();
+        assertThat(page.cursor()).isNull();
+    }
+
+    private static List<String> uids(SearchCursorService.Page page) {
+        return page.entries().stream().map((LdapEntry e) -> e.getAttributes().get("uid").get(0)).toList();
+    }
+}
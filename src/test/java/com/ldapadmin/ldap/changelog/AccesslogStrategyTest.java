@@ -3,9 +3,12 @@ package com.ldapadmin.ldap.changelog;
 import com.ldapadmin.entity.AuditDataSource;
 import com.ldapadmin.entity.enums.ChangelogFormat;
 import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Control;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResultEntry;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestControl;
+import com.unboundid.ldap.sdk.controls.ContentSyncRequestMode;
 import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
@@ -41,6 +44,31 @@ class AccesslogStrategyTest {
                 .isEqualTo("(&(objectClass=auditWriteObject)(reqResult=0)(reqDN=*ou=users,dc=example,dc=com))");
     }
 
+    @Test
+    void buildSearchRequest_resumesFromLastReqStart() throws Exception {
+        AuditDataSource src = newSource("cn=accesslog", null);
+        SearchRequest req = strategy.buildSearchRequest(src, "20260319143022.000006Z#000001#000#000000", 100);
+
+        assertThat(req.getFilter().toString()).isEqualTo(
+                "(&(objectClass=auditWriteObject)(reqResult=0)(reqStart>=20260319143022.000006Z#000001#000#000000))");
+    }
+
+    @Test
+    void entryIdOrder_isChronological() {
+        assertThat(strategy.entryIdOrder().compare(
+                "20260319143022.000006Z#000001#000#000000",
+                "20260319143022.000006Z#000002#000#000000")).isNegative();
+    }
+
+    @Test
+    void buildPushControl_isRefreshAndPersistWithCookie() throws Exception {
+        Control control = strategy.buildPushControl(new byte[] {1, 2, 3});
+
+        ContentSyncRequestControl sync = new ContentSyncRequestControl(control);
+        assertThat(sync.getMode()).isEqualTo(ContentSyncRequestMode.REFRESH_AND_PERSIST);
+        assertThat(sync.getCookie().getValue()).containsExactly(1, 2, 3);
+    }
+
     // ── extractEntryId ───────────────────────────────────────────────────────
 
     @Test
@@ -3,9 +3,12 @@ package com.ldapadmin.ldap.changelog;
 import com.ldapadmin.entity.AuditDataSource;
 import com.ldapadmin.entity.enums.ChangelogFormat;
 import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Control;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResultEntry;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.controls.PersistentSearchChangeType;
+import com.unboundid.ldap.sdk.controls.PersistentSearchRequestControl;
 import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
@@ -40,6 +43,30 @@ class DseeChangelogStrategyTest {
                 .isEqualTo("(&(objectClass=changeLogEntry)(targetDN=ou=users,dc=example,dc=com*))");
     }
 
+    @Test
+    void buildSearchRequest_resumesAfterLastChangeNumber() throws Exception {
+        AuditDataSource src = newSource("cn=changelog", "ou=users,dc=example,dc=com");
+        SearchRequest req = strategy.buildSearchRequest(src, "41", 50);
+
+        assertThat(req.getFilter().toString())
+                .isEqualTo("(&(objectClass=changeLogEntry)(targetDN=ou=users,dc=example,dc=com*)(changeNumber>=42))");
+    }
+
+    @Test
+    void entryIdOrder_isNumeric() {
+        assertThat(strategy.entryIdOrder().compare("9", "10")).isNegative();
+        assertThat(strategy.entryIdOrder().compare("100", "99")).isPositive();
+    }
+
+    @Test
+    void buildPushControl_isPersistentSearchForAdds() throws Exception {
+        Control control = strategy.buildPushControl(null);
+
+        PersistentSearchRequestControl psearch = new PersistentSearchRequestControl(control);
+        assertThat(psearch.getChangeTypes()).containsExactly(PersistentSearchChangeType.ADD);
+        assertThat(psearch.changesOnly()).isFalse();
+    }
+
     // ── extractEntryId ───────────────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,52 @@
+package com.ldapadmin.repository;
+
+import com.ldapadmin.entity.AuditDataSource;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for {@link AuditDataSourceRepository}.
+ * Verifies that the changelog read position is written only by
+ * {@code updateChangePosition} and survives entity saves.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AuditDataSourceRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private AuditDataSourceRepository repo;
+
+    @Test
+    void updateChangePosition_isNotOverwrittenBySavingTheEntity() {
+        AuditDataSource src = new AuditDataSource();
+        src.setDisplayName("changelog");
+        src.setHost("localhost");
+        src.setBindDn("cn=admin");
+        src.setBindPasswordEncrypted("encrypted");
+        src = repo.saveAndFlush(src);
+        em.clear();
+
+        repo.updateChangePosition(src.getId(), "42", new byte[] {7});
+        em.clear();
+
+        // A stale copy (as held by the admin edit path) must not roll the position back
+        src.setDisplayName("renamed");
+        repo.saveAndFlush(src);
+        em.clear();
+
+        AuditDataSource loaded = repo.findById(src.getId()).orElseThrow();
+        assertThat(loaded.getDisplayName()).isEqualTo("renamed");
+        assertThat(loaded.getLastChangeId()).isEqualTo("42");
+        assertThat(loaded.getSyncCookie()).containsExactly(7);
+    }
+}
@@ -2,20 +2,33 @@ package com.ldapadmin.service;
 
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.PrincipalType;
+import com.ldapadmin.dto.accessreview.BulkDecisionRequest;
+import com.ldapadmin.dto.accessreview.BulkDecisionResponse;
+import com.ldapadmin.dto.accessreview.DecideMatchingRequest;
 import com.ldapadmin.dto.accessreview.DecisionDto;
 import com.ldapadmin.entity.*;
+import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.entity.enums.CampaignStatus;
 import com.ldapadmin.entity.enums.ReviewDecision;
+import com.ldapadmin.exception.ConflictException;
 import com.ldapadmin.exception.LdapAdminException;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.repository.AccessReviewDecisionRepository;
+import com.ldapadmin.repository.AccessReviewDecisionRepository.PendingMember;
 import com.ldapadmin.repository.AccessReviewGroupRepository;
 import com.ldapadmin.repository.AccountRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.OffsetDateTime;
@@ -23,7 +36,7 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -82,7 +95,7 @@ class AccessReviewDecisionServiceTest {
     void decide_confirm_setsDecisionAndAudits() {
         when(decisionRepo.findById(decision.getId())).thenReturn(Optional.of(decision));
         when(accountRepo.findById(reviewerId)).thenReturn(Optional.of(reviewerAccount));
-        when(decisionRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(decisionRepo.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
         DecisionDto result = service.decide(decision.getId(), ReviewDecision.CONFIRM, "Looks good", reviewerPrincipal);
 
@@ -90,6 +103,7 @@ class AccessReviewDecisionServiceTest {
         assertThat(result.comment()).isEqualTo("Looks good");
         assertThat(result.decidedByUsername()).isEqualTo("reviewer");
         verify(auditService).record(any(), any(), any(), any(), any());
+        verify(groupRepo).addDecided(group.getId(), 1, 0);
     }
 
     @Test
@@ -108,14 +122,32 @@ class AccessReviewDecisionServiceTest {
         group.getCampaign().setAutoRevoke(true);
         when(decisionRepo.findById(decision.getId())).thenReturn(Optional.of(decision));
         when(accountRepo.findById(reviewerId)).thenReturn(Optional.of(reviewerAccount));
-        when(decisionRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(decisionRepo.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
         DecisionDto result = service.decide(decision.getId(), ReviewDecision.REVOKE, "Access not needed", reviewerPrincipal);
 
         assertThat(result.decision()).isEqualTo(ReviewDecision.REVOKE);
+        assertThat(result.revokedAt()).isNotNull();
         verify(ldapGroupService).removeMember(any(), eq("cn=admins,dc=test"), eq("member"), eq("uid=user1,dc=test"));
     }
 
+    @Test
+    void decide_concurrentlyDecided_conflictsWithoutTouchingLdap() {
+        group.getCampaign().setAutoRevoke(true);
+        when(decisionRepo.findById(decision.getId())).thenReturn(Optional.of(decision));
+        when(accountRepo.findById(reviewerId)).thenReturn(Optional.of(reviewerAccount));
+        // A bulk decision bumped the row's version after it was read
+        when(decisionRepo.saveAndFlush(any())).thenThrow(
+                new ObjectOptimisticLockingFailureException(AccessReviewDecision.class, decision.getId()));
+
+        assertThatThrownBy(() -> service.decide(decision.getId(), ReviewDecision.REVOKE, null, reviewerPrincipal))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("decided by someone else");
+
+        verifyNoInteractions(ldapGroupService, auditService);
+        verify(groupRepo, never()).addDecided(any(), anyInt(), anyInt());
+    }
+
     @Test
     void decide_nonReviewer_throwsAccessDenied() {
         when(decisionRepo.findById(decision.getId())).thenReturn(Optional.of(decision));
@@ -128,7 +160,7 @@ class AccessReviewDecisionServiceTest {
     void decide_superadmin_bypassesReviewerCheck() {
         when(decisionRepo.findById(decision.getId())).thenReturn(Optional.of(decision));
         when(accountRepo.findById(superadminPrincipal.id())).thenReturn(Optional.of(reviewerAccount));
-        when(decisionRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(decisionRepo.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
         DecisionDto result = service.decide(decision.getId(), ReviewDecision.CONFIRM, null, superadminPrincipal);
 
@@ -146,13 +178,99 @@ class AccessReviewDecisionServiceTest {
     }
 
     @Test
-    void listForReviewGroup_returnsDecisions() {
+    void listForReviewGroup_pagesWithFilterAndSafeSort() {
+        when(groupRepo.findById(group.getId())).thenReturn(Optional.of(group));
+        when(decisionRepo.findPage(eq(group.getId()), isNull(), eq(true), eq("%user\\_1%"), any()))
+                .thenReturn(new PageImpl<>(List.of(decision)));
+
+        Page<DecisionDto> page = service.listForReviewGroup(group.getId(),
+                AccessReviewDecisionService.StatusFilter.PENDING, " User_1 ",
+                PageRequest.of(2, 500, Sort.by("password").and(Sort.by(Sort.Direction.DESC, "decidedAt"))),
+                reviewerPrincipal);
+
+        assertThat(page.getContent()).extracting(DecisionDto::memberDn).containsExactly("uid=user1,dc=test");
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(decisionRepo).findPage(any(), any(), anyBoolean(), any(), pageable.capture());
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(200);
+        assertThat(pageable.getValue().getSort())
+                .containsExactly(Sort.Order.desc("decidedAt"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    void bulkDecide_updatesPendingInOneStatementAndSkipsDecided() {
+        UUID decided = UUID.randomUUID();
+        when(groupRepo.findById(group.getId())).thenReturn(Optional.of(group));
+        when(accountRepo.findById(reviewerId)).thenReturn(Optional.of(reviewerAccount));
+        when(decisionRepo.findPendingByIds(eq(group.getId()), any()))
+                .thenReturn(List.of(pending(decision.getId(), "uid=user1,dc=test")));
+        when(decisionRepo.decidePending(any(), eq(ReviewDecision.CONFIRM), isNull(), eq(reviewerAccount), any()))
+                .thenReturn(1);
+
+        BulkDecisionResponse result = service.bulkDecide(group.getId(), List.of(
+                new BulkDecisionRequest.BulkDecisionItem(decision.getId(), ReviewDecision.CONFIRM, null),
+                new BulkDecisionRequest.BulkDecisionItem(decided, ReviewDecision.CONFIRM, null)),
+                reviewerPrincipal);
+
+        assertThat(result).isEqualTo(new BulkDecisionResponse(2, 1, 1));
+        verify(decisionRepo).decidePending(eq(List.of(decision.getId())), any(), any(), any(), any());
+        verify(groupRepo).addDecided(group.getId(), 1, 0);
+        verify(decisionRepo, never()).save(any());
+        verify(auditService).record(any(), any(), eq(AuditAction.REVIEW_CONFIRMED), eq("uid=user1,dc=test"), any());
+    }
+
+    @Test
+    void bulkDecide_concurrentDecision_throwsConflictBeforeLdap() {
+        group.getCampaign().setAutoRevoke(true);
+        when(groupRepo.findById(group.getId())).thenReturn(Optional.of(group));
+        when(accountRepo.findById(reviewerId)).thenReturn(Optional.of(reviewerAccount));
+        when(decisionRepo.findPendingByIds(eq(group.getId()), any()))
+                .thenReturn(List.of(pending(decision.getId(), "uid=user1,dc=test")));
+        when(decisionRepo.decidePending(any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.bulkDecide(group.getId(), List.of(
+                new BulkDecisionRequest.BulkDecisionItem(decision.getId(), ReviewDecision.REVOKE, "gone")),
+                reviewerPrincipal))
+                .isInstanceOf(ConflictException.class);
+        verifyNoInteractions(ldapGroupService, auditService);
+        verify(groupRepo, never()).addDecided(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void bulkDecide_nonReviewer_throwsAccessDenied() {
         when(groupRepo.findById(group.getId())).thenReturn(Optional.of(group));
-        when(decisionRepo.findByReviewGroupId(group.getId())).thenReturn(List.of(decision));
 
-        List<DecisionDto> results = service.listForReviewGroup(group.getId(), reviewerPrincipal);
+        assertThatThrownBy(() -> service.bulkDecide(group.getId(), List.of(
+                new BulkDecisionRequest.BulkDecisionItem(decision.getId(), ReviewDecision.CONFIRM, null)),
+                otherPrincipal))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(decisionRepo, never()).decidePending(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void decideMatching_revokesMatchingAndMarksRemovedMembers() {
+        group.getCampaign().setAutoRevoke(true);
+        UUID second = UUID.randomUUID();
+        when(groupRepo.findById(group.getId())).thenReturn(Optional.of(group));
+        when(accountRepo.findById(reviewerId)).thenReturn(Optional.of(reviewerAccount));
+        when(decisionRepo.findPendingMatching(group.getId(), "%ou=contractors%")).thenReturn(List.of(
+                pending(decision.getId(), "uid=a,ou=contractors"), pending(second, "uid=b,ou=contractors")));
+        when(decisionRepo.decidePending(any(), eq(ReviewDecision.REVOKE), eq("left"), any(), any())).thenReturn(2);
+        lenient().doThrow(new RuntimeException("LDAP down")).when(ldapGroupService)
+                .removeMember(any(), any(), any(), eq("uid=b,ou=contractors"));
+
+        BulkDecisionResponse result = service.decideMatching(group.getId(),
+                new DecideMatchingRequest("OU=Contractors", ReviewDecision.REVOKE, "left"), reviewerPrincipal);
+
+        assertThat(result.applied()).isEqualTo(2);
+        verify(groupRepo).addDecided(group.getId(), 0, 2);
+        verify(decisionRepo).markRevoked(eq(List.of(decision.getId())), any());
+    }
 
-        assertThat(results).hasSize(1);
-        assertThat(results.get(0).memberDn()).isEqualTo("uid=user1,dc=test");
+    private static PendingMember pending(UUID id, String memberDn) {
+        return new PendingMember() {
+            @Override public UUID getId() { return id; }
+            @Override public String getMemberDn() { return memberDn; }
+        };
     }
 }
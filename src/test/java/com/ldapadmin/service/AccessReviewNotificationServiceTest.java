@@ -3,6 +3,7 @@ package com.ldapadmin.service;
 import com.ldapadmin.entity.*;
 import com.ldapadmin.entity.enums.CampaignStatus;
 import com.ldapadmin.repository.AccessReviewDecisionRepository;
+import com.ldapadmin.service.mail.EmailOutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,22 +11,22 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
 
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
- * Tests for escalation notification. Email sending is tested indirectly since
- * the SMTP implementation uses raw sockets; here we verify the method doesn't
- * throw and logs properly when SMTP is not configured.
+ * Tests for escalation and reviewer notifications.  Delivery itself is covered
+ * by the mail outbox tests; here we verify what is queued.
  */
 @ExtendWith(MockitoExtension.class)
 class AccessReviewNotificationServiceTest {
 
-    @Mock private ApplicationSettingsService appSettingsService;
-    @Mock private EncryptionService encryptionService;
+    @Mock private EmailOutboxService outboxService;
     @Mock private AccessReviewDecisionRepository decisionRepo;
 
     private AccessReviewNotificationService notificationService;
@@ -33,22 +34,19 @@ class AccessReviewNotificationServiceTest {
     @BeforeEach
     void setUp() {
         notificationService = new AccessReviewNotificationService(
-                appSettingsService, encryptionService, decisionRepo);
+                outboxService, decisionRepo);
     }
 
     @Test
-    void notifyEscalation_withNoSmtp_logsWithoutException() {
-        ApplicationSettings settings = new ApplicationSettings();
-        settings.setSmtpHost(null);
-        when(appSettingsService.getEntity()).thenReturn(settings);
-
+    void notifyEscalation_queuesEmailToCreator() {
         AccessReviewCampaign campaign = buildCampaign();
         Account reviewer = new Account();
         reviewer.setId(UUID.randomUUID());
         reviewer.setUsername("reviewer1");
 
-        // Should not throw
         notificationService.notifyEscalation(campaign, reviewer, 5);
+
+        verify(outboxService).enqueue(eq("admin@example.com"), contains("ESCALATION"), contains("reviewer1"));
     }
 
     @Test
@@ -60,8 +58,10 @@ class AccessReviewNotificationServiceTest {
         reviewer.setId(UUID.randomUUID());
         reviewer.setUsername("reviewer1");
 
-        // Should not throw — no email means it logs and returns
+        // No email means it logs and returns
         notificationService.notifyEscalation(campaign, reviewer, 5);
+
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -73,8 +73,33 @@ class AccessReviewNotificationServiceTest {
         reviewer.setId(UUID.randomUUID());
         reviewer.setUsername("reviewer1");
 
-        // Should not throw
         notificationService.notifyEscalation(campaign, reviewer, 5);
+
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void notifyReviewersAssigned_queuesOneMessageForAllReviewers() {
+        AccessReviewCampaign campaign = buildCampaign();
+        campaign.getReviewGroups().add(reviewGroup(campaign, "r1@example.com"));
+        campaign.getReviewGroups().add(reviewGroup(campaign, "r2@example.com"));
+
+        notificationService.notifyReviewersAssigned(campaign);
+
+        verify(outboxService).enqueue(
+                eq(new LinkedHashSet<>(List.of("r1@example.com", "r2@example.com"))),
+                contains("assigned as a reviewer"), contains("Test Campaign"));
+    }
+
+    private AccessReviewGroup reviewGroup(AccessReviewCampaign campaign, String email) {
+        Account reviewer = new Account();
+        reviewer.setId(UUID.randomUUID());
+        reviewer.setUsername(email);
+        reviewer.setEmail(email);
+        AccessReviewGroup group = new AccessReviewGroup();
+        group.setCampaign(campaign);
+        group.setReviewer(reviewer);
+        return group;
     }
 
     private AccessReviewCampaign buildCampaign() {
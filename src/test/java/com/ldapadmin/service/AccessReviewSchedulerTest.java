@@ -5,6 +5,7 @@ import com.ldapadmin.entity.enums.*;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.repository.AccessReviewCampaignRepository;
 import com.ldapadmin.repository.AccessReviewDecisionRepository;
+import com.ldapadmin.repository.AccessReviewGroupRepository;
 import com.ldapadmin.repository.CampaignReminderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,7 @@ class AccessReviewSchedulerTest {
     @Mock private AccessReviewNotificationService notificationService;
     @Mock private CampaignReminderRepository reminderRepo;
     @Mock private AccessReviewDecisionRepository decisionRepo;
+    @Mock private AccessReviewGroupRepository groupRepo;
     @Mock private LdapGroupService ldapGroupService;
     @Mock private AuditService auditService;
 
@@ -42,7 +44,7 @@ class AccessReviewSchedulerTest {
     void setUp() {
         scheduler = new AccessReviewScheduler(
                 campaignRepo, campaignService, notificationService,
-                reminderRepo, decisionRepo, ldapGroupService, auditService);
+                reminderRepo, decisionRepo, groupRepo, ldapGroupService, auditService);
 
         superadmin = new Account();
         superadmin.setId(UUID.randomUUID());
@@ -259,6 +261,7 @@ class AccessReviewSchedulerTest {
         verify(ldapGroupService, times(1)).removeMember(
                 any(), any(), any(), eq("uid=testuser,ou=people,dc=example,dc=com"));
         verify(decisionRepo, times(1)).save(any());
+        verify(groupRepo).addDecided(any(), eq(0), eq(1));
 
         assertThat(undecided.getDecision()).isEqualTo(ReviewDecision.REVOKE);
         assertThat(undecided.getComment()).isEqualTo("Auto-revoked on campaign expiry");
@@ -0,0 +1,157 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.auth.PermissionService;
+import com.ldapadmin.auth.PrincipalType;
+import com.ldapadmin.dto.dashboard.AdminDashboardDto;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.CampaignStatus;
+import com.ldapadmin.repository.AccessReviewCampaignRepository;
+import com.ldapadmin.repository.AccessReviewCampaignRepository.CampaignProgress;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.ldapadmin.repository.DirectoryConnectionRepository.DirectoryActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminDashboardServiceTest {
+
+    @Mock private DirectoryConnectionRepository dirRepo;
+    @Mock private AccessReviewCampaignRepository campaignRepo;
+    @Mock private AuditQueryService auditQueryService;
+    @Mock private DirectoryCountCache countCache;
+    @Mock private PermissionService permissionService;
+
+    private AdminDashboardService service;
+
+    private final UUID dirA = UUID.randomUUID();
+    private final UUID dirB = UUID.randomUUID();
+    private DirectoryConnection directoryA;
+    private DirectoryConnection directoryB;
+
+    @BeforeEach
+    void setUp() {
+        service = new AdminDashboardService(dirRepo, campaignRepo, auditQueryService, countCache, permissionService);
+        directoryA = directory(dirA, "Dir A");
+        directoryB = directory(dirB, "Dir B");
+    }
+
+    @Test
+    void getDashboard_noDirectories_returnsEmpty() {
+        AuthPrincipal admin = admin();
+        when(permissionService.getAuthorizedDirectoryIds(admin)).thenReturn(Set.of());
+
+        AdminDashboardDto dto = service.getDashboard(admin);
+
+        assertThat(dto.directories()).isEmpty();
+        verifyNoInteractions(dirRepo, campaignRepo, countCache);
+    }
+
+    @Test
+    void getDashboard_mergesOnlyAuthorizedDirectories() {
+        AuthPrincipal admin = admin();
+        when(permissionService.getAuthorizedDirectoryIds(admin)).thenReturn(Set.of(dirA));
+        when(dirRepo.findAllById(Set.of(dirA))).thenReturn(List.of(directoryA));
+        when(dirRepo.summarizeActivity(any())).thenReturn(List.of(
+                new Activity(dirA, 3, 1, 1, 0, 1, 1, 2),
+                new Activity(dirB, 9, 9, 0, 0, 0, 4, 7)));
+        when(campaignRepo.findProgressByStatus(CampaignStatus.ACTIVE)).thenReturn(List.of(
+                new Progress(dirA, "Q1 review", OffsetDateTime.now().minusDays(1), 10, 4),
+                new Progress(dirB, "Other review", null, 50, 50)));
+        when(countCache.getAll(List.of(directoryA)))
+                .thenReturn(Map.of(dirA, new DirectoryCountCache.Counts(120, 15)));
+        when(auditQueryService.queryForDirectories(eq(Set.of(dirA)), any(), any(), any(), any(), any(), eq(0), eq(10)))
+                .thenReturn(Page.empty());
+
+        AdminDashboardDto dto = service.getDashboard(admin);
+
+        assertThat(dto.totalUsers()).isEqualTo(120);
+        assertThat(dto.totalGroups()).isEqualTo(15);
+        assertThat(dto.totalPendingApprovals()).isEqualTo(3);
+        assertThat(dto.openSodViolations()).isEqualTo(2);
+        assertThat(dto.activeAccessReviewCampaigns()).isEqualTo(1);
+        assertThat(dto.approvalAging()).isEqualTo(new AdminDashboardDto.ApprovalAgingDto(1, 1, 0, 1));
+        assertThat(dto.campaignProgress()).singleElement().satisfies(c -> {
+            assertThat(c.campaignName()).isEqualTo("Q1 review");
+            assertThat(c.completionPercent()).isEqualTo(40.0);
+            assertThat(c.overdue()).isTrue();
+        });
+        assertThat(dto.campaignCompletionPercent()).isEqualTo(40.0);
+        assertThat(dto.overdueCampaigns()).isEqualTo(1);
+        assertThat(dto.directories()).singleElement()
+                .satisfies(d -> assertThat(d.id()).isEqualTo(dirA.toString()));
+    }
+
+    @Test
+    void getDashboard_sharesAggregatesAcrossAdmins() {
+        AuthPrincipal first = admin();
+        AuthPrincipal second = admin();
+        when(permissionService.getAuthorizedDirectoryIds(first)).thenReturn(Set.of(dirA));
+        when(permissionService.getAuthorizedDirectoryIds(second)).thenReturn(Set.of(dirB));
+        when(dirRepo.findAllById(Set.of(dirA))).thenReturn(List.of(directoryA));
+        when(dirRepo.findAllById(Set.of(dirB))).thenReturn(List.of(directoryB));
+        when(dirRepo.summarizeActivity(any())).thenReturn(List.of(
+                new Activity(dirA, 1, 1, 0, 0, 0, 0, 0),
+                new Activity(dirB, 2, 2, 0, 0, 0, 0, 0)));
+        when(campaignRepo.findProgressByStatus(CampaignStatus.ACTIVE)).thenReturn(List.of());
+        when(countCache.getAll(anyList())).thenReturn(Map.of(
+                dirA, new DirectoryCountCache.Counts(1, 1),
+                dirB, new DirectoryCountCache.Counts(-1, 2)));
+        when(auditQueryService.queryForDirectories(anySet(), any(), any(), any(), any(), any(), eq(0), eq(10)))
+                .thenReturn(Page.empty());
+
+        AdminDashboardDto firstDto = service.getDashboard(first);
+        AdminDashboardDto secondDto = service.getDashboard(second);
+
+        assertThat(firstDto.totalPendingApprovals()).isEqualTo(1);
+        assertThat(secondDto.totalPendingApprovals()).isEqualTo(2);
+        // An unreachable directory is reported as -1 but left out of the total
+        assertThat(secondDto.totalUsers()).isZero();
+        assertThat(secondDto.directories().get(0).userCount()).isEqualTo(-1);
+        assertThat(secondDto.campaignCompletionPercent()).isNull();
+        verify(dirRepo, times(1)).summarizeActivity(any());
+        verify(campaignRepo, times(1)).findProgressByStatus(any());
+    }
+
+    // ── Helpers ────────────────────────────────────────────────────────────
+
+    private static AuthPrincipal admin() {
+        return new AuthPrincipal(PrincipalType.ADMIN, UUID.randomUUID(), "alice");
+    }
+
+    private static DirectoryConnection directory(UUID id, String name) {
+        DirectoryConnection dc = new DirectoryConnection();
+        dc.setId(id);
+        dc.setDisplayName(name);
+        dc.setEnabled(true);
+        return dc;
+    }
+
+    private record Activity(UUID getDirectoryId, long getPendingApprovals,
+                            long getPendingUnder1d, long getPending1to3d, long getPending3to7d,
+                            long getPendingOver7d, long getActiveCampaigns, long getOpenSodViolations)
+            implements DirectoryActivity {}
+
+    private record Progress(UUID getId, String getName, UUID getDirectoryId, String getDirectoryName,
+                            OffsetDateTime getDeadline, long getTotal, long getDecided)
+            implements CampaignProgress {
+
+        Progress(UUID directoryId, String name, OffsetDateTime deadline, long total, long decided) {
+            this(UUID.randomUUID(), name, directoryId, "Dir", deadline, total, decided);
+        }
+    }
+}
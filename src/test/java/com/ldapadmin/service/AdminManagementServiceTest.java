@@ -1,5 +1,6 @@
 package com.ldapadmin.service;
 
+import com.ldapadmin.auth.PermissionsChangedEvent;
 import com.ldapadmin.dto.admin.AdminAccountRequest;
 import com.ldapadmin.dto.admin.AdminAccountResponse;
 
@@ -28,6 +29,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
@@ -48,6 +50,7 @@ class AdminManagementServiceTest {
 
     @Mock private AdminFeaturePermissionRepository featureRepo;
     @Mock private PasswordEncoder                 passwordEncoder;
+    @Mock private ApplicationEventPublisher       eventPublisher;
 
     private AdminManagementService service;
 
@@ -57,7 +60,7 @@ class AdminManagementServiceTest {
     @BeforeEach
     void setUp() {
         service = new AdminManagementService(
-                accountRepo, profileRepo, profileRoleRepo, featureRepo, passwordEncoder);
+                accountRepo, profileRepo, profileRoleRepo, featureRepo, passwordEncoder, eventPublisher);
     }
 
     // ── listAdmins ────────────────────────────────────────────────────────────
@@ -153,6 +156,7 @@ class AdminManagementServiceTest {
         service.removeProfileRole(adminId, profileId);
 
         verify(profileRoleRepo).deleteByAdminAccountIdAndProfileId(adminId, profileId);
+        verify(eventPublisher).publishEvent(PermissionsChangedEvent.forAdmin(adminId));
     }
 
     // ── setFeaturePermissions ─────────────────────────────────────────────────
@@ -6,6 +6,7 @@ import com.ldapadmin.entity.AuditEvent;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.entity.enums.AuditSource;
+import com.ldapadmin.ldap.DirectoryEntryChangedEvent;
 import com.ldapadmin.repository.AuditEventRepository;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.service.siem.SiemExportService;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.OffsetDateTime;
 import java.util.Map;
@@ -30,6 +32,7 @@ class AuditServiceTest {
     @Mock private AuditEventRepository         auditRepo;
     @Mock private DirectoryConnectionRepository dirRepo;
     @Mock private SiemExportService             siemExportService;
+    @Mock private ApplicationEventPublisher     eventPublisher;
 
     private AuditService auditService;
 
@@ -38,7 +41,7 @@ class AuditServiceTest {
 
     @BeforeEach
     void setUp() {
-        auditService = new AuditService(auditRepo, dirRepo, siemExportService);
+        auditService = new AuditService(auditRepo, dirRepo, siemExportService, eventPublisher);
     }
 
     // ── Internal event recording ──────────────────────────────────────────────
@@ -83,6 +86,18 @@ class AuditServiceTest {
         assertThat(captor.getValue().getAction()).isEqualTo(AuditAction.USER_CREATE);
     }
 
+    @Test
+    void record_publishesEntryChangedWithNewDnForMoves() {
+        AuthPrincipal principal = new AuthPrincipal(PrincipalType.ADMIN, adminId, "alice");
+        when(dirRepo.findById(directoryId)).thenReturn(Optional.of(mockDirectory("corp")));
+
+        auditService.record(principal, directoryId, AuditAction.USER_MOVE,
+                "uid=alice,ou=old,dc=corp", Map.of("newParentDn", "ou=new,dc=corp"));
+
+        verify(eventPublisher).publishEvent(new DirectoryEntryChangedEvent(
+                directoryId, "uid=alice,ou=old,dc=corp", "uid=alice,ou=new,dc=corp"));
+    }
+
     @Test
     void record_doesNotThrow_whenDirLookupFails() {
         AuthPrincipal principal = new AuthPrincipal(PrincipalType.ADMIN, adminId, "bob");
@@ -108,6 +123,7 @@ class AuditServiceTest {
 
         // SIEM export should NOT be called if save failed
         verify(siemExportService, never()).export(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     // ── Changelog event recording ─────────────────────────────────────────────
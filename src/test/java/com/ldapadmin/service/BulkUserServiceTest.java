@@ -5,21 +5,29 @@ import com.ldapadmin.dto.csv.BulkImportRowResult;
 import com.ldapadmin.dto.csv.CsvColumnMappingDto;
 import com.ldapadmin.entity.DirectoryConnection;
 import com.ldapadmin.entity.enums.ConflictHandling;
-import com.ldapadmin.exception.LdapOperationException;
 import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.ldap.LdapWritePipeline;
 import com.ldapadmin.ldap.model.LdapUser;
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DeleteRequest;
+import com.unboundid.ldap.sdk.LDAPResult;
+import com.unboundid.ldap.sdk.Modification;
+import com.unboundid.ldap.sdk.ModifyDNRequest;
+import com.unboundid.ldap.sdk.ModifyRequest;
 import com.unboundid.ldap.sdk.ResultCode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -27,6 +35,7 @@ import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -39,6 +48,7 @@ class BulkUserServiceTest {
 
     private BulkUserService service;
     private DirectoryConnection dc;
+    private final FakePipeline pipeline = new FakePipeline();
 
     @BeforeEach
     void setUp() {
@@ -46,6 +56,7 @@ class BulkUserServiceTest {
         dc = new DirectoryConnection();
         dc.setId(UUID.randomUUID());
         dc.setBaseDn("dc=example,dc=com");
+        lenient().when(userService.openWritePipeline(any(), anyInt(), anyInt())).thenReturn(pipeline);
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
@@ -58,11 +69,47 @@ class BulkUserServiceTest {
         return new LdapUser(dn, attrs);
     }
 
-    /** Creates a LdapOperationException that looks like ENTRY_ALREADY_EXISTS. */
-    private LdapOperationException entryAlreadyExists(String dn) {
-        return new LdapOperationException(
-                "createUser failed for [" + dn + "]: "
-                + ResultCode.ENTRY_ALREADY_EXISTS.getName());
+    /** Attributes of the add submitted for {@code dn}. */
+    private Map<String, List<String>> added(String dn) {
+        AddRequest add = pipeline.adds.stream()
+                .filter(a -> a.getDN().equals(dn))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No add for " + dn));
+        Map<String, List<String>> attrs = new java.util.LinkedHashMap<>();
+        for (Attribute a : add.getAttributes()) {
+            attrs.put(a.getName(), List.of(a.getValues()));
+        }
+        return attrs;
+    }
+
+    /**
+     * Pipeline that answers every add with the code configured for its DN
+     * ({@code SUCCESS} by default) and every modify with {@code SUCCESS}.
+     */
+    private static final class FakePipeline implements LdapWritePipeline {
+        final Map<String, ResultCode> addResults = new java.util.HashMap<>();
+        final List<AddRequest>    adds = new ArrayList<>();
+        final List<ModifyRequest> modifies = new ArrayList<>();
+
+        @Override
+        public void add(AddRequest request, Callback callback) throws InterruptedException {
+            adds.add(request);
+            callback.onResult(new LDAPResult(adds.size(),
+                    addResults.getOrDefault(request.getDN(), ResultCode.SUCCESS)));
+        }
+
+        @Override
+        public void modify(ModifyRequest request, Callback callback) throws InterruptedException {
+            modifies.add(request);
+            callback.onResult(new LDAPResult(modifies.size(), ResultCode.SUCCESS));
+        }
+
+        @Override public void delete(DeleteRequest request, Callback callback) { throw new UnsupportedOperationException(); }
+        @Override public void modifyDN(ModifyDNRequest request, Callback callback) { throw new UnsupportedOperationException(); }
+        @Override public boolean awaitNext() { return false; }
+        @Override public int outstanding() { return 0; }
+        @Override public void flush() {}
+        @Override public void close() {}
     }
 
     // ── Import — create ───────────────────────────────────────────────────────
@@ -70,7 +117,6 @@ class BulkUserServiceTest {
     @Test
     void importCsv_createsNewEntries() throws IOException {
         String csvContent = "uid,cn,mail\njsmith,John Smith,jsmith@example.com\n";
-        // createUser succeeds (default void mock behaviour) → entry created
 
         BulkImportResult result = service.importCsv(
                 dc, csv(csvContent),
@@ -85,21 +131,15 @@ class BulkUserServiceTest {
         assertThat(result.errors()).isEqualTo(0);
         assertThat(result.rows().get(0).status()).isEqualTo(BulkImportRowResult.Status.CREATED);
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Map<String, List<String>>> attrsCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(userService).createUser(eq(dc),
-                eq("uid=jsmith,ou=people,dc=example,dc=com"),
-                attrsCaptor.capture());
-        assertThat(attrsCaptor.getValue()).containsKey("cn");
-        assertThat(attrsCaptor.getValue().get("mail")).containsExactly("jsmith@example.com");
+        Map<String, List<String>> attrs = added("uid=jsmith,ou=people,dc=example,dc=com");
+        assertThat(attrs).containsKey("cn");
+        assertThat(attrs.get("mail")).containsExactly("jsmith@example.com");
     }
 
     @Test
     void importCsv_skipsExistingEntry_whenConflictHandlingSkip() throws IOException {
         String csvContent = "uid,cn\nexisting,Existing User\n";
-        // createUser throws ENTRY_ALREADY_EXISTS → triggers conflict handling
-        doThrow(entryAlreadyExists("uid=existing,ou=people,dc=example,dc=com"))
-                .when(userService).createUser(eq(dc), anyString(), any());
+        pipeline.addResults.put("uid=existing,ou=people,dc=example,dc=com", ResultCode.ENTRY_ALREADY_EXISTS);
 
         BulkImportResult result = service.importCsv(
                 dc, csv(csvContent),
@@ -111,15 +151,13 @@ class BulkUserServiceTest {
         assertThat(result.skipped()).isEqualTo(1);
         assertThat(result.created()).isEqualTo(0);
         assertThat(result.rows().get(0).status()).isEqualTo(BulkImportRowResult.Status.SKIPPED);
-        verify(userService, never()).updateUser(any(), anyString(), any());
+        assertThat(pipeline.modifies).isEmpty();
     }
 
     @Test
     void importCsv_updatesExistingEntry_whenConflictHandlingOverwrite() throws IOException {
         String csvContent = "uid,cn,mail\nexisting,Updated Name,new@example.com\n";
-        // createUser throws ENTRY_ALREADY_EXISTS → triggers OVERWRITE path
-        doThrow(entryAlreadyExists("uid=existing,ou=people,dc=example,dc=com"))
-                .when(userService).createUser(eq(dc), anyString(), any());
+        pipeline.addResults.put("uid=existing,ou=people,dc=example,dc=com", ResultCode.ENTRY_ALREADY_EXISTS);
 
         BulkImportResult result = service.importCsv(
                 dc, csv(csvContent),
@@ -130,7 +168,28 @@ class BulkUserServiceTest {
 
         assertThat(result.updated()).isEqualTo(1);
         assertThat(result.rows().get(0).status()).isEqualTo(BulkImportRowResult.Status.UPDATED);
-        verify(userService).updateUser(eq(dc), anyString(), any());
+        assertThat(pipeline.modifies).hasSize(1);
+        ModifyRequest modify = pipeline.modifies.get(0);
+        assertThat(modify.getDN()).isEqualTo("uid=existing,ou=people,dc=example,dc=com");
+        assertThat(modify.getModifications())
+                .extracting(Modification::getAttributeName)
+                .containsExactlyInAnyOrder("cn", "mail");
+    }
+
+    @Test
+    void importCsv_errorRow_whenAddFails() throws IOException {
+        String csvContent = "uid,cn\nbad,Bad Entry\n";
+        pipeline.addResults.put("uid=bad,ou=people,dc=example,dc=com", ResultCode.OBJECT_CLASS_VIOLATION);
+
+        BulkImportResult result = service.importCsv(
+                dc, csv(csvContent),
+                "ou=people,dc=example,dc=com",
+                "uid",
+                ConflictHandling.SKIP,
+                List.of(), List.of(), true);
+
+        assertThat(result.errors()).isEqualTo(1);
+        assertThat(result.rows().get(0).message()).contains(ResultCode.OBJECT_CLASS_VIOLATION.getName());
     }
 
     @Test
@@ -148,21 +207,13 @@ class BulkUserServiceTest {
         assertThat(result.errors()).isEqualTo(1);
         assertThat(result.rows().get(0).status()).isEqualTo(BulkImportRowResult.Status.ERROR);
         assertThat(result.rows().get(0).message()).contains("uid");
-        verify(userService, never()).createUser(any(), anyString(), any());
+        assertThat(pipeline.adds).isEmpty();
     }
 
     @Test
     void importCsv_multipleRows_countsCorrectly() throws IOException {
         String csvContent = "uid,cn\nnew1,New One\nnew2,New Two\nexist,Existing\n";
-
-        // new1, new2 → createUser succeeds; exist → ENTRY_ALREADY_EXISTS
-        doNothing().when(userService).createUser(eq(dc),
-                eq("uid=new1,ou=p,dc=example,dc=com"), any());
-        doNothing().when(userService).createUser(eq(dc),
-                eq("uid=new2,ou=p,dc=example,dc=com"), any());
-        doThrow(entryAlreadyExists("uid=exist,ou=p,dc=example,dc=com"))
-                .when(userService).createUser(eq(dc),
-                        eq("uid=exist,ou=p,dc=example,dc=com"), any());
+        pipeline.addResults.put("uid=exist,ou=p,dc=example,dc=com", ResultCode.ENTRY_ALREADY_EXISTS);
 
         BulkImportResult result = service.importCsv(
                 dc, csv(csvContent),
@@ -175,6 +226,38 @@ class BulkUserServiceTest {
         assertThat(result.created()).isEqualTo(2);
         assertThat(result.skipped()).isEqualTo(1);
         assertThat(result.errors()).isEqualTo(0);
+        assertThat(result.rows()).extracting(BulkImportRowResult::rowNumber).isSorted();
+    }
+
+    @Test
+    void importCsv_streaming_reportsEachRowWithoutRetainingThem() throws IOException {
+        String csvContent = "uid,cn\na,A\nb,B\n";
+        List<BulkImportRowResult> seen = new ArrayList<>();
+
+        BulkImportResult result = service.importCsv(
+                dc, csv(csvContent),
+                "ou=p,dc=example,dc=com",
+                "uid",
+                ConflictHandling.SKIP,
+                List.of(), List.of(), true, seen::add);
+
+        assertThat(seen).extracting(BulkImportRowResult::dn)
+                .containsExactly("uid=a,ou=p,dc=example,dc=com", "uid=b,ou=p,dc=example,dc=com");
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.rows()).isEmpty();
+    }
+
+    @Test
+    void importCsv_quotedValueSpanningLines_isOneRow() throws IOException {
+        String csvContent = "uid,description\njsmith,\"line one\nline two\"\n";
+
+        BulkImportResult result = service.importCsv(
+                dc, csv(csvContent),
+                "ou=people,dc=example,dc=com", "uid", ConflictHandling.SKIP, List.of(), List.of(), true);
+
+        assertThat(result.totalRows()).isEqualTo(1);
+        assertThat(added("uid=jsmith,ou=people,dc=example,dc=com").get("description"))
+                .containsExactly("line one\nline two");
     }
 
     // ── Import — column mappings ───────────────────────────────────────────────
@@ -182,7 +265,6 @@ class BulkUserServiceTest {
     @Test
     void importCsv_columnMappings_mapsHeadersToLdapAttributes() throws IOException {
         String csvContent = "User Login,Full Name\njsmith,John Smith\n";
-        // createUser succeeds (default void mock behaviour)
 
         List<CsvColumnMappingDto> mappings = List.of(
                 new CsvColumnMappingDto("User Login", "uid", false),
@@ -191,18 +273,14 @@ class BulkUserServiceTest {
         service.importCsv(dc, csv(csvContent),
                 "ou=people,dc=example,dc=com", "uid", ConflictHandling.SKIP, mappings, List.of(), true);
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Map<String, List<String>>> captor = ArgumentCaptor.forClass(Map.class);
-        verify(userService).createUser(eq(dc),
-                eq("uid=jsmith,ou=people,dc=example,dc=com"), captor.capture());
-        assertThat(captor.getValue()).containsKey("cn");
-        assertThat(captor.getValue().get("cn")).containsExactly("John Smith");
+        Map<String, List<String>> attrs = added("uid=jsmith,ou=people,dc=example,dc=com");
+        assertThat(attrs).containsKey("cn");
+        assertThat(attrs.get("cn")).containsExactly("John Smith");
     }
 
     @Test
     void importCsv_ignoredColumn_notIncludedInAttributes() throws IOException {
         String csvContent = "uid,password,cn\njsmith,secret,John\n";
-        // createUser succeeds (default void mock behaviour)
 
         List<CsvColumnMappingDto> mappings = List.of(
                 new CsvColumnMappingDto("uid",      "uid",  false),
@@ -212,11 +290,9 @@ class BulkUserServiceTest {
         service.importCsv(dc, csv(csvContent),
                 "ou=people,dc=example,dc=com", "uid", ConflictHandling.SKIP, mappings, List.of(), true);
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Map<String, List<String>>> captor = ArgumentCaptor.forClass(Map.class);
-        verify(userService).createUser(any(), anyString(), captor.capture());
-        assertThat(captor.getValue()).doesNotContainKey("password");
-        assertThat(captor.getValue()).containsKey("cn");
+        Map<String, List<String>> attrs = added("uid=jsmith,ou=people,dc=example,dc=com");
+        assertThat(attrs).doesNotContainKey("password");
+        assertThat(attrs).containsKey("cn");
     }
 
     // ── Export ────────────────────────────────────────────────────────────────
@@ -235,9 +311,7 @@ class BulkUserServiceTest {
             return null;
         }).when(userService).processUsers(eq(dc), anyString(), isNull(), any(), eq("cn"), eq("mail"));
 
-        byte[] csv = service.exportCsv(dc, null, null, List.of("cn", "mail"));
-
-        String output = new String(csv, StandardCharsets.UTF_8);
+        String output = export(List.of("cn", "mail"));
         assertThat(output).contains("\"dn\",\"cn\",\"mail\"");
         assertThat(output).contains("uid=jsmith,ou=people,dc=example,dc=com");
         assertThat(output).contains("John Smith");
@@ -257,9 +331,7 @@ class BulkUserServiceTest {
             return null;
         }).when(userService).processUsers(eq(dc), anyString(), isNull(), any(), eq("memberof"));
 
-        byte[] csv = service.exportCsv(dc, null, null, List.of("memberof"));
-
-        String output = new String(csv, StandardCharsets.UTF_8);
+        String output = export(List.of("memberof"));
         assertThat(output).contains("cn=admins,dc=example,dc=com|cn=users,dc=example,dc=com");
     }
 
@@ -269,9 +341,7 @@ class BulkUserServiceTest {
         // processUsers does nothing (no entries) → only header is written
         doNothing().when(userService).processUsers(eq(dc), anyString(), isNull(), any(), eq("cn"), eq("mail"));
 
-        byte[] csv = service.exportCsv(dc, null, null, List.of("cn", "mail"));
-
-        String output = new String(csv, StandardCharsets.UTF_8);
+        String output = export(List.of("cn", "mail"));
         String[] lines = output.split("\n");
         assertThat(lines[0]).contains("dn");
         assertThat(lines[0]).contains("cn");
@@ -282,8 +352,33 @@ class BulkUserServiceTest {
         // When attributes are specified, exportCsv uses processUsers (streaming)
         doNothing().when(userService).processUsers(eq(dc), eq("(objectClass=*)"), isNull(), any(), eq("cn"));
 
-        service.exportCsv(dc, null, null, List.of("cn"));
+        export(List.of("cn"));
 
         verify(userService).processUsers(eq(dc), eq("(objectClass=*)"), isNull(), any(), eq("cn"));
     }
+
+    @Test
+    void exportCsv_noAttributes_columnsAreUnionAcrossAllPages() throws IOException {
+        LdapUser first  = ldapUser("uid=a,dc=example,dc=com", Map.of("cn", List.of("A")));
+        LdapUser second = ldapUser("uid=b,dc=example,dc=com", Map.of("mail", List.of("b@example.com")));
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Consumer<LdapUser> consumer = invocation.getArgument(3);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(userService).processUsers(eq(dc), anyString(), isNull(), any());
+
+        String[] lines = export(List.of()).split("\r?\n");
+
+        assertThat(lines[0]).isEqualTo("\"dn\",\"cn\",\"mail\"");
+        assertThat(lines).hasSize(3);
+        verify(userService, never()).searchUsers(any(), anyString(), any(), any(String[].class));
+    }
+
+    private String export(List<String> attributes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportCsv(dc, null, null, attributes, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
 }
@@ -9,6 +9,7 @@ import com.ldapadmin.entity.PendingApproval;
 import com.ldapadmin.entity.enums.ApprovalStatus;
 import com.ldapadmin.entity.enums.CampaignStatus;
 import com.ldapadmin.entity.enums.SodViolationStatus;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapUserService;
 import com.ldapadmin.repository.*;
@@ -38,6 +39,7 @@ class DashboardServiceTest {
     @Mock private LdapUserService userService;
     @Mock private LdapGroupService groupService;
     @Mock private ScheduledReportJobRepository reportJobRepo;
+    @Mock private DirectoryReplicaService replicaService;
 
     private DashboardService service;
 
@@ -48,7 +50,8 @@ class DashboardServiceTest {
     void setUp() {
         service = new DashboardService(
                 dirRepo, approvalRepo, campaignRepo, decisionRepo,
-                sodViolationRepo, auditQueryService, userService, groupService, reportJobRepo);
+                sodViolationRepo, auditQueryService, reportJobRepo,
+                new DirectoryCountCache(userService, groupService, replicaService, 60, Runnable::run));
         service.invalidateCache();
 
         directory = new DirectoryConnection();
@@ -198,6 +201,34 @@ class DashboardServiceTest {
         assertThat(result.directories().get(0).userCount()).isEqualTo(0);
     }
 
+    @Test
+    void getDashboard_countsServedFromReplica_withoutLdapSearch() {
+        var users = new ArrayList<com.ldapadmin.ldap.model.LdapUser>();
+        for (int i = 0; i < 7; i++) users.add(mock(com.ldapadmin.ldap.model.LdapUser.class));
+        when(dirRepo.findAll()).thenReturn(List.of(directory));
+        when(replicaService.searchUsers(eq(directory), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(Optional.of(users));
+        when(replicaService.searchGroups(eq(directory), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(Optional.of(List.of(mock(com.ldapadmin.ldap.model.LdapGroup.class))));
+        when(approvalRepo.countByDirectoryIdAndStatus(any(), any())).thenReturn(0L);
+        when(approvalRepo.findAllByStatus(any())).thenReturn(List.of());
+        when(sodViolationRepo.countByDirectoryIdAndStatus(any(), any())).thenReturn(0L);
+        when(sodViolationRepo.countByStatus(any())).thenReturn(0L);
+        when(campaignRepo.countByDirectoryIdAndStatus(any(), any())).thenReturn(0L);
+        when(campaignRepo.findByStatus(any())).thenReturn(List.of());
+        when(campaignRepo.countByStatusAndDeadlineBefore(any(), any())).thenReturn(0L);
+        when(auditQueryService.query(any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(reportJobRepo.countByEnabledTrue()).thenReturn(0L);
+        when(reportJobRepo.countByEnabledTrueAndLastRunStatus(any())).thenReturn(0L);
+
+        ComplianceDashboardDto result = service.getDashboard();
+
+        assertThat(result.directories().get(0).userCount()).isEqualTo(7);
+        assertThat(result.directories().get(0).groupCount()).isEqualTo(1);
+        verifyNoInteractions(userService, groupService);
+    }
+
     @Test
     void getDashboard_perDirectorySodViolations_included() {
         stubCommon();
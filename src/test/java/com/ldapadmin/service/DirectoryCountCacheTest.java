@@ -0,0 +1,192 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.ldap.DirectoryReplicaService;
+import com.ldapadmin.ldap.LdapGroupService;
+import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.ldapadmin.ldap.model.LdapUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryCountCacheTest {
+
+    @Mock private LdapUserService userService;
+    @Mock private LdapGroupService groupService;
+    @Mock private DirectoryReplicaService replicaService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private DirectoryCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DirectoryCountCache(userService, groupService, replicaService, 60, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getAll_countsOnceAndSharesResult() {
+        DirectoryConnection a = directory(true);
+        DirectoryConnection b = directory(true);
+        stubCounts(a, 3, 2);
+        stubCounts(b, 5, 1);
+
+        Map<UUID, DirectoryCountCache.Counts> first = cache.getAll(List.of(a, b));
+        DirectoryCountCache.Counts again = cache.get(a);
+
+        assertThat(first).containsEntry(a.getId(), new DirectoryCountCache.Counts(3, 2))
+                .containsEntry(b.getId(), new DirectoryCountCache.Counts(5, 1));
+        assertThat(again).isEqualTo(new DirectoryCountCache.Counts(3, 2));
+        verify(userService, times(1)).searchUsers(eq(a), anyString(), any(), anyInt(), anyString());
+    }
+
+    @Test
+    void get_disabledDirectory_isZeroWithoutSearching() {
+        DirectoryConnection dc = directory(false);
+
+        assertThat(cache.get(dc)).isEqualTo(new DirectoryCountCache.Counts(0, 0));
+        verifyNoInteractions(userService, groupService, replicaService);
+    }
+
+    @Test
+    void get_searchFails_reportsMinusOne() {
+        DirectoryConnection dc = directory(true);
+        when(userService.searchUsers(eq(dc), anyString(), any(), anyInt(), anyString()))
+                .thenThrow(new RuntimeException("unreachable"));
+        when(groupService.searchGroups(eq(dc), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(groups(1));
+
+        assertThat(cache.get(dc)).isEqualTo(new DirectoryCountCache.Counts(-1, 1));
+    }
+
+    @Test
+    void get_staleEntry_servedWhileRecountingInBackground() throws Exception {
+        cache = new DirectoryCountCache(userService, groupService, replicaService, 0, executor);
+        DirectoryConnection dc = directory(true);
+        CountDownLatch recount = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(groupService.searchGroups(eq(dc), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(List.of());
+        when(userService.searchUsers(eq(dc), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(users(2))
+                .thenAnswer(invocation -> {
+                    recount.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return users(7);
+                });
+
+        assertThat(cache.get(dc).users()).isEqualTo(2);
+        // Stale at once (zero TTL): the old figure comes back without waiting
+        assertThat(cache.get(dc).users()).isEqualTo(2);
+        assertThat(recount.await(5, TimeUnit.SECONDS)).isTrue();
+        // A second stale read joins the running recount rather than starting another
+        assertThat(cache.get(dc).users()).isEqualTo(2);
+        release.countDown();
+
+        verify(userService, timeout(5_000).times(2)).searchUsers(eq(dc), anyString(), any(), anyInt(), anyString());
+        long deadline = System.currentTimeMillis() + 5_000;
+        long users = -2;
+        while (System.currentTimeMillis() < deadline && (users = peek(dc)) != 7) {
+            Thread.sleep(10);
+        }
+        assertThat(users).isEqualTo(7);
+    }
+
+    @Test
+    void invalidate_forcesRecount() {
+        DirectoryConnection dc = directory(true);
+        stubCounts(dc, 1, 1);
+
+        cache.get(dc);
+        cache.invalidate(dc.getId());
+        cache.get(dc);
+
+        verify(userService, times(2)).searchUsers(eq(dc), anyString(), any(), anyInt(), anyString());
+    }
+
+    @Test
+    void invalidate_duringRecount_discardsSupersededCounts() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            cache = new DirectoryCountCache(userService, groupService, replicaService, 0, single);
+            DirectoryConnection dc = directory(true);
+            CountDownLatch recount = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(groupService.searchGroups(eq(dc), anyString(), any(), anyInt(), anyString()))
+                    .thenReturn(List.of());
+            when(userService.searchUsers(eq(dc), anyString(), any(), anyInt(), anyString()))
+                    .thenReturn(users(2))
+                    .thenAnswer(invocation -> {
+                        recount.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return users(7);
+                    })
+                    .thenReturn(users(9));
+
+            assertThat(cache.get(dc).users()).isEqualTo(2);
+            assertThat(cache.get(dc).users()).isEqualTo(2);
+            assertThat(recount.await(5, TimeUnit.SECONDS)).isTrue();
+            cache.invalidate(dc.getId());
+            release.countDown();
+            // Single worker: once this runs, the superseded recount has finished
+            single.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+            assertThat(cache.get(dc).users()).isEqualTo(9);
+            verify(userService, times(3)).searchUsers(eq(dc), anyString(), any(), anyInt(), anyString());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    // ── Helpers ────────────────────────────────────────────────────────────
+
+    /** Reads the cached figure; with a zero TTL this also starts another recount. */
+    private long peek(DirectoryConnection dc) {
+        return cache.get(dc).users();
+    }
+
+    private void stubCounts(DirectoryConnection dc, int users, int groups) {
+        when(userService.searchUsers(eq(dc), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(users(users));
+        when(groupService.searchGroups(eq(dc), anyString(), any(), anyInt(), anyString()))
+                .thenReturn(groups(groups));
+    }
+
+    private static List<LdapUser> users(int n) {
+        return Collections.nCopies(n, new LdapUser("uid=u,dc=example,dc=com", Map.of()));
+    }
+
+    private static List<LdapGroup> groups(int n) {
+        return Collections.nCopies(n, new LdapGroup("cn=g,dc=example,dc=com", Map.of()));
+    }
+
+    private static DirectoryConnection directory(boolean enabled) {
+        DirectoryConnection dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("dir");
+        dc.setEnabled(enabled);
+        return dc;
+    }
+}
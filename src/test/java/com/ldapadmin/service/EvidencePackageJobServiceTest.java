@@ -0,0 +1,209 @@
+package com.ldapadmin.service;
+
+import com.ldapadmin.dto.evidence.EvidencePackageJobDto;
+import com.ldapadmin.dto.evidence.EvidencePackageRequest;
+import com.ldapadmin.exception.ConflictException;
+import com.ldapadmin.exception.ResourceNotFoundException;
+import com.ldapadmin.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvidencePackageJobServiceTest {
+
+    @Mock private EvidencePackageService evidencePackageService;
+    @Mock private S3UploadService        s3UploadService;
+
+    @TempDir Path outputDir;
+
+    private EvidencePackageJobService service;
+
+    private final UUID directoryId = UUID.randomUUID();
+    private final UUID ownerId     = UUID.randomUUID();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private static final EvidencePackageRequest REQUEST =
+            new EvidencePackageRequest(List.of(), false, false, false, false);
+
+    @BeforeEach
+    void setUp() {
+        service = new EvidencePackageJobService(evidencePackageService, s3UploadService, executor);
+        ReflectionTestUtils.setField(service, "outputDir", outputDir.toString());
+        ReflectionTestUtils.setField(service, "retentionHours", 24L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void start_writesPackageToFileAndReportsProgress() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(6);
+            EvidencePackageService.ProgressListener progress = inv.getArgument(7);
+            out.write("zip-bytes".getBytes());
+            progress.onArtifactCompleted(3, 3);
+            return null;
+        }).when(evidencePackageService).generateEvidencePackage(
+                eq(directoryId), anyList(), anyBoolean(), anyBoolean(), anyBoolean(),
+                eq("alice"), any(OutputStream.class), any());
+
+        EvidencePackageJobDto started = service.start(directoryId, ownerId, "alice", REQUEST);
+        EvidencePackageJobDto done = awaitFinished(started.id());
+
+        assertThat(done.status()).isEqualTo("COMPLETED");
+        assertThat(done.artifactsCompleted()).isEqualTo(3);
+        assertThat(done.artifactsTotal()).isEqualTo(3);
+        assertThat(done.bytesWritten()).isEqualTo(9);
+
+        Path file = service.download(directoryId, started.id(), ownerId);
+        assertThat(Files.readString(file)).isEqualTo("zip-bytes");
+    }
+
+    @Test
+    void start_secondJobForSameUserWhileRunning_rejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(evidencePackageService).generateEvidencePackage(
+                any(), anyList(), anyBoolean(), anyBoolean(), anyBoolean(), any(), any(OutputStream.class), any());
+
+        EvidencePackageJobDto first = service.start(directoryId, ownerId, "alice", REQUEST);
+        try {
+            assertThatThrownBy(() -> service.start(directoryId, ownerId, "alice", REQUEST))
+                    .isInstanceOf(TooManyRequestsException.class);
+            // Another user is not blocked
+            service.start(directoryId, UUID.randomUUID(), "bob", REQUEST);
+        } finally {
+            release.countDown();
+        }
+        assertThat(awaitFinished(first.id()).status()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void start_jobExecutorSaturated_refusedWithoutBlockingTheUser() throws Exception {
+        AtomicBoolean full = new AtomicBoolean(true);
+        EvidencePackageJobService saturated = new EvidencePackageJobService(evidencePackageService,
+                s3UploadService, task -> {
+                    if (full.get()) throw new TaskRejectedException("full");
+                    executor.execute(task);
+                });
+        ReflectionTestUtils.setField(saturated, "outputDir", outputDir.toString());
+
+        assertThatThrownBy(() -> saturated.start(directoryId, ownerId, "alice", REQUEST))
+                .isInstanceOf(TooManyRequestsException.class);
+        // The refused job does not count as running
+        full.set(false);
+        assertThat(saturated.start(directoryId, ownerId, "alice", REQUEST).id()).isNotNull();
+    }
+
+    @Test
+    void failedJob_deletesPartialFileAndCannotBeDownloaded() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(6);
+            out.write("partial".getBytes());
+            throw new IOException("LDAP down");
+        }).when(evidencePackageService).generateEvidencePackage(
+                any(), anyList(), anyBoolean(), anyBoolean(), anyBoolean(), any(), any(OutputStream.class), any());
+
+        EvidencePackageJobDto started = service.start(directoryId, ownerId, "alice", REQUEST);
+        EvidencePackageJobDto done = awaitFinished(started.id());
+
+        assertThat(done.status()).isEqualTo("FAILED");
+        assertThat(done.error()).isEqualTo("LDAP down");
+        try (var files = Files.list(outputDir)) {
+            assertThat(files).isEmpty();
+        }
+        assertThatThrownBy(() -> service.download(directoryId, started.id(), ownerId))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void uploadToS3_streamsIntoUploadAndAbortsOnFailure() throws Exception {
+        S3UploadService.Upload upload = mock(S3UploadService.Upload.class);
+        when(s3UploadService.isConfigured()).thenReturn(true);
+        when(s3UploadService.openUpload(anyString(), eq("application/zip"))).thenReturn(upload);
+        doThrow(new IOException("boom")).when(evidencePackageService).generateEvidencePackage(
+                any(), anyList(), anyBoolean(), anyBoolean(), anyBoolean(), any(), any(OutputStream.class), any());
+
+        EvidencePackageJobDto started = service.start(directoryId, ownerId, "alice",
+                new EvidencePackageRequest(List.of(), false, false, false, true));
+        EvidencePackageJobDto done = awaitFinished(started.id());
+
+        assertThat(done.status()).isEqualTo("FAILED");
+        assertThat(done.s3Key()).startsWith("evidence-packages/" + directoryId + "/");
+        verify(upload).abort();
+        verify(upload, never()).close();
+    }
+
+    @Test
+    void uploadToS3_notConfigured_conflict() {
+        when(s3UploadService.isConfigured()).thenReturn(false);
+
+        assertThatThrownBy(() -> service.start(directoryId, ownerId, "alice",
+                new EvidencePackageRequest(List.of(), false, false, false, true)))
+                .isInstanceOf(ConflictException.class);
+        verifyNoInteractions(evidencePackageService);
+    }
+
+    @Test
+    void get_otherUsersJob_notFound() throws Exception {
+        EvidencePackageJobDto started = service.start(directoryId, ownerId, "alice", REQUEST);
+        awaitFinished(started.id());
+
+        assertThatThrownBy(() -> service.get(directoryId, started.id(), UUID.randomUUID()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.get(UUID.randomUUID(), started.id(), ownerId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void purgeExpired_removesFinishedJobsAndFiles() throws Exception {
+        EvidencePackageJobDto started = service.start(directoryId, ownerId, "alice", REQUEST);
+        awaitFinished(started.id());
+        Path file = service.download(directoryId, started.id(), ownerId);
+
+        ReflectionTestUtils.setField(service, "retentionHours", -1L);
+        service.purgeExpired();
+
+        assertThat(file).doesNotExist();
+        assertThatThrownBy(() -> service.get(directoryId, started.id(), ownerId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private EvidencePackageJobDto awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            EvidencePackageJobDto job = service.get(directoryId, jobId, ownerId);
+            if (!"RUNNING".equals(job.status())) return job;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("job did not finish");
+    }
+}
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ldapadmin.dto.audit.AuditEventResponse;
 import com.ldapadmin.entity.*;
 import com.ldapadmin.entity.enums.*;
+import com.ldapadmin.ldap.DirectoryReplicaService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapUserService;
 import com.ldapadmin.ldap.model.LdapGroup;
@@ -16,9 +18,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.zip.ZipEntry;
@@ -41,10 +50,12 @@ class EvidencePackageServiceTest {
     @Mock private PdfReportService pdfReportService;
     @Mock private LdapUserService ldapUserService;
     @Mock private LdapGroupService ldapGroupService;
+    @Mock private DirectoryReplicaService replicaService;
     @Mock private CryptoService cryptoService;
     @Mock private AccountRepository accountRepo;
     @Mock private AuditQueryService auditQueryService;
     @Mock private AuditService auditService;
+    @Mock private PlatformTransactionManager transactionManager;
 
     private EvidencePackageService service;
 
@@ -59,8 +70,9 @@ class EvidencePackageServiceTest {
         service = new EvidencePackageService(
                 directoryRepo, campaignRepo, historyRepo, campaignService,
                 sodPolicyRepo, sodViolationRepo, approvalRepo, pdfReportService,
-                ldapUserService, ldapGroupService, cryptoService, accountRepo,
-                auditQueryService, auditService, objectMapper);
+                ldapUserService, ldapGroupService, replicaService, cryptoService, accountRepo,
+                auditQueryService, auditService, objectMapper, transactionManager,
+                new SimpleAsyncTaskExecutor("evidence-"));
 
         directory = new DirectoryConnection();
         directory.setId(directoryId);
@@ -92,10 +104,8 @@ class EvidencePackageServiceTest {
     @Test
     void generateEvidencePackage_producesValidZip() throws IOException {
         when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
-        when(pdfReportService.generateUserAccessReport(eq(directoryId), isNull()))
-                .thenReturn("pdf-content".getBytes());
-        when(pdfReportService.generatePrivilegedAccountInventory())
-                .thenReturn("privileged-pdf".getBytes());
+        doAnswer(writes("pdf-content".getBytes())).when(pdfReportService).writeUserAccessReport(eq(directoryId), isNull(), any());
+        doAnswer(writes("privileged-pdf".getBytes())).when(pdfReportService).writePrivilegedAccountInventory(any());
         when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId))
                 .thenReturn(List.of());
 
@@ -119,10 +129,10 @@ class EvidencePackageServiceTest {
         campaign.setReviewGroups(new ArrayList<>());
 
         when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
-        when(pdfReportService.generateUserAccessReport(any(), any())).thenReturn(new byte[0]);
-        when(pdfReportService.generatePrivilegedAccountInventory()).thenReturn(new byte[0]);
+        doAnswer(writes(new byte[0])).when(pdfReportService).writeUserAccessReport(any(), any(), any());
+        doAnswer(writes(new byte[0])).when(pdfReportService).writePrivilegedAccountInventory(any());
         when(campaignRepo.findById(campaignId)).thenReturn(Optional.of(campaign));
-        when(pdfReportService.generateAccessReviewSummary(campaignId)).thenReturn("summary-pdf".getBytes());
+        doAnswer(writes("summary-pdf".getBytes())).when(pdfReportService).writeAccessReviewSummary(eq(campaignId), any());
         when(campaignService.exportCsv(directoryId, campaignId)).thenReturn("csv-data".getBytes());
         when(historyRepo.findByCampaignIdOrderByChangedAtAsc(campaignId)).thenReturn(List.of());
         when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)).thenReturn(List.of());
@@ -148,8 +158,8 @@ class EvidencePackageServiceTest {
         campaign.setDirectory(otherDir); // belongs to different directory
 
         when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
-        when(pdfReportService.generateUserAccessReport(any(), any())).thenReturn(new byte[0]);
-        when(pdfReportService.generatePrivilegedAccountInventory()).thenReturn(new byte[0]);
+        doAnswer(writes(new byte[0])).when(pdfReportService).writeUserAccessReport(any(), any(), any());
+        doAnswer(writes(new byte[0])).when(pdfReportService).writePrivilegedAccountInventory(any());
         when(campaignRepo.findById(campaignId)).thenReturn(Optional.of(campaign));
         when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)).thenReturn(List.of());
 
@@ -164,8 +174,8 @@ class EvidencePackageServiceTest {
     @Test
     void generateEvidencePackage_includesSodData_allStatuses() throws IOException {
         when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
-        when(pdfReportService.generateUserAccessReport(any(), any())).thenReturn(new byte[0]);
-        when(pdfReportService.generatePrivilegedAccountInventory()).thenReturn(new byte[0]);
+        doAnswer(writes(new byte[0])).when(pdfReportService).writeUserAccessReport(any(), any(), any());
+        doAnswer(writes(new byte[0])).when(pdfReportService).writePrivilegedAccountInventory(any());
         when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)).thenReturn(List.of());
 
         SodPolicy policy = new SodPolicy();
@@ -212,8 +222,8 @@ class EvidencePackageServiceTest {
     @Test
     void generateEvidencePackage_includesEntitlements() throws IOException {
         when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
-        when(pdfReportService.generateUserAccessReport(any(), any())).thenReturn(new byte[0]);
-        when(pdfReportService.generatePrivilegedAccountInventory()).thenReturn(new byte[0]);
+        doAnswer(writes(new byte[0])).when(pdfReportService).writeUserAccessReport(any(), any(), any());
+        doAnswer(writes(new byte[0])).when(pdfReportService).writePrivilegedAccountInventory(any());
         when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)).thenReturn(List.of());
 
         LdapUser user = new LdapUser("cn=jdoe,ou=users,dc=example,dc=com",
@@ -307,10 +317,8 @@ class EvidencePackageServiceTest {
     @Test
     void generateEvidencePackage_pdfFailure_continuesGracefully() throws IOException {
         when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
-        when(pdfReportService.generateUserAccessReport(any(), any()))
-                .thenThrow(new RuntimeException("LDAP down"));
-        when(pdfReportService.generatePrivilegedAccountInventory())
-                .thenThrow(new RuntimeException("DB error"));
+        doThrow(new RuntimeException("LDAP down")).when(pdfReportService).writeUserAccessReport(any(), any(), any());
+        doThrow(new RuntimeException("DB error")).when(pdfReportService).writePrivilegedAccountInventory(any());
         when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)).thenReturn(List.of());
 
         byte[] zip = service.generateEvidencePackage(
@@ -338,6 +346,46 @@ class EvidencePackageServiceTest {
                 .isNotEqualTo(parsed2.get("hmacSha256Signature"));
     }
 
+    @Test
+    void generateEvidencePackage_pagesAuditEventsAndChecksumsMatchStreamedContent() throws IOException {
+        when(directoryRepo.findById(directoryId)).thenReturn(Optional.of(directory));
+        doAnswer(writes("a".getBytes())).when(pdfReportService).writeUserAccessReport(any(), any(), any());
+        doAnswer(writes("b".getBytes())).when(pdfReportService).writePrivilegedAccountInventory(any());
+        when(approvalRepo.findAllByDirectoryIdOrderByCreatedAtDesc(directoryId)).thenReturn(List.of());
+
+        AuditEventResponse event = new AuditEventResponse(UUID.randomUUID(), null, null, null, "admin",
+                directoryId, null, AuditAction.USER_CREATE, "uid=a,dc=x", null, null,
+                OffsetDateTime.now(), OffsetDateTime.now());
+        when(auditQueryService.query(eq(directoryId), isNull(), isNull(), any(), isNull(), eq(0), eq(200)))
+                .thenReturn(new PageImpl<>(List.of(event), PageRequest.of(0, 200), 201));
+        when(auditQueryService.query(eq(directoryId), isNull(), isNull(), any(), isNull(), eq(1), eq(200)))
+                .thenReturn(new PageImpl<>(List.of(event), PageRequest.of(1, 200), 201));
+
+        List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.generateEvidencePackage(directoryId, List.of(), false, false, true, "admin", out,
+                (completed, total) -> progress.add(total));
+
+        Map<String, byte[]> entries = extractZip(out.toByteArray());
+        assertThat(new ArrayList<>(entries.keySet())).containsExactly(
+                "reports/user-access-report.pdf",
+                "reports/privileged-account-inventory.pdf",
+                "approval-history/approvals.csv",
+                "audit/events.csv",
+                "manifest.json");
+        assertThat(new String(entries.get("audit/events.csv")).lines()).hasSize(3);
+        assertThat(progress).hasSize(4).containsOnly(4);
+
+        Map<String, Object> manifest = objectMapper.readValue(entries.get("manifest.json"), new TypeReference<>() {});
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> files = (List<Map<String, String>>) manifest.get("files");
+        for (Map<String, String> file : files) {
+            byte[] content = entries.get(file.get("path"));
+            assertThat(file.get("sha256")).isEqualTo(service.sha256Hex(content));
+            assertThat(file.get("size")).isEqualTo(String.valueOf(content.length));
+        }
+    }
+
     // ── Helper ────────────────────────────────────────────────────────────────
 
     private Map<String, byte[]> extractZip(byte[] zipBytes) throws IOException {
@@ -351,4 +399,13 @@ class EvidencePackageServiceTest {
         }
         return entries;
     }
+
+    /** Answers a {@code write*} call by writing {@code content} to its stream argument. */
+    private static Answer<Void> writes(byte[] content) {
+        return invocation -> {
+            OutputStream out = invocation.getArgument(invocation.getArguments().length - 1);
+            out.write(content);
+            return null;
+        };
+    }
 }
@@ -3,34 +3,45 @@ package com.ldapadmin.service;
 import com.ldapadmin.auth.AuthPrincipal;
 import com.ldapadmin.auth.PermissionService;
 import com.ldapadmin.auth.PrincipalType;
+import com.ldapadmin.dto.csv.BulkImportRequest;
+import com.ldapadmin.dto.csv.BulkImportRowResult;
 import com.ldapadmin.dto.ldap.AttributeModification;
 import com.ldapadmin.dto.ldap.CreateEntryRequest;
 import com.ldapadmin.dto.ldap.LdapEntryResponse;
 import com.ldapadmin.dto.ldap.MoveUserRequest;
 import com.ldapadmin.dto.ldap.UpdateEntryRequest;
 import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.AuditAction;
 import com.ldapadmin.exception.ResourceNotFoundException;
 import com.ldapadmin.ldap.LdapBrowseService;
 import com.ldapadmin.ldap.LdapGroupService;
 import com.ldapadmin.ldap.LdapSchemaService;
 import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.ldap.SearchCursorService;
 import com.ldapadmin.ldap.model.LdapUser;
 import com.ldapadmin.repository.DirectoryConnectionRepository;
 import com.ldapadmin.service.AuditService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 
@@ -51,8 +62,10 @@ class LdapOperationServiceTest {
     @Mock private AuditService                  auditService;
     @Mock private BulkUserService               bulkUserService;
     @Mock private BulkGroupService              bulkGroupService;
+    @Mock private BulkImportJobService          bulkImportJobService;
     @Mock private CsvMappingTemplateService     csvTemplateService;
     @Mock private SodPolicyService              sodPolicyService;
+    @Mock private SearchCursorService           cursorService;
 
     private LdapOperationService service;
 
@@ -63,8 +76,8 @@ class LdapOperationServiceTest {
     void setUp() {
         service = new LdapOperationService(
                 dirRepo, permissionService, browseService, userService, groupService,
-                schemaService, auditService, bulkUserService, bulkGroupService, csvTemplateService,
-                sodPolicyService);
+                schemaService, auditService, bulkUserService, bulkGroupService, bulkImportJobService,
+                csvTemplateService, sodPolicyService, cursorService);
     }
 
     // ── Directory loading ─────────────────────────────────────────────────────
@@ -159,6 +172,39 @@ class LdapOperationServiceTest {
         verify(userService).searchUsers(eq(dc), anyString(), any(), eq(2), any(String[].class));
     }
 
+    // ── Bulk import ───────────────────────────────────────────────────────────
+
+    @Test
+    void bulkImportJob_failingPartWay_auditsPartialCountsAndReason() throws Exception {
+        DirectoryConnection dc = enabledDir(true);
+        when(dirRepo.findById(dirId)).thenReturn(Optional.of(dc));
+        String parentDn = "ou=people,dc=example,dc=com";
+        when(bulkUserService.importCsv(eq(dc), any(), eq(parentDn), any(), any(), any(), any(), anyBoolean(), any()))
+                .thenAnswer(inv -> {
+                    Consumer<BulkImportRowResult> results = inv.getArgument(8);
+                    results.accept(BulkImportRowResult.created(1, "uid=a," + parentDn));
+                    results.accept(BulkImportRowResult.error(2, "uid=b," + parentDn, "bad"));
+                    throw new IOException("connection reset");
+                });
+        AuthPrincipal principal = adminPrincipal();
+
+        service.startBulkImportUsersJob(dirId, principal, new ByteArrayInputStream(new byte[0]),
+                new BulkImportRequest(null, parentDn, null, null, null, List.of()));
+        ArgumentCaptor<BulkImportJobService.ImportTask> task =
+                ArgumentCaptor.forClass(BulkImportJobService.ImportTask.class);
+        verify(bulkImportJobService).start(eq(dirId), eq(adminId), any(), task.capture());
+        List<BulkImportRowResult> reported = new ArrayList<>();
+
+        assertThatThrownBy(() -> task.getValue().run(new ByteArrayInputStream(new byte[0]), reported::add))
+                .isInstanceOf(IOException.class);
+
+        assertThat(reported).hasSize(2);
+        verify(auditService).record(eq(principal), eq(dirId), eq(AuditAction.USER_CREATE), eq(parentDn),
+                argThat(detail -> Long.valueOf(1).equals(detail.get("created"))
+                        && Long.valueOf(1).equals(detail.get("errors"))
+                        && "connection reset".equals(detail.get("failed"))));
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private AuthPrincipal adminPrincipal() {
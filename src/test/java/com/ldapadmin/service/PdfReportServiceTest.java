@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -19,6 +20,8 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -324,6 +327,21 @@ class PdfReportServiceTest {
         assertValidPdf(pdf);
     }
 
+    @Test
+    void writePdf_streamsIteratorRowsAndCachesBranding() throws IOException {
+        stubSettings();
+        Iterator<List<String>> rows = java.util.stream.IntStream.range(0, 2_000)
+                .mapToObj(i -> List.of("row" + i, "value" + i)).iterator();
+
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        service.writePdf(first, "Large", "sub", List.of("H1", "H2"), rows);
+        byte[] second = service.buildPdf("Small", "sub", List.of("H1"), List.of());
+
+        assertValidPdf(first.toByteArray());
+        assertValidPdf(second);
+        verify(settingsService, times(1)).getEntity();
+    }
+
     // ── Helpers ────────────────────────────────────────────────────────────
 
     private AccessReviewCampaign buildCampaign(UUID campaignId) {
@@ -0,0 +1,227 @@
+package com.ldapadmin.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ldapadmin.entity.AuditEvent;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.AuditAction;
+import com.ldapadmin.entity.enums.OutputFormat;
+import com.ldapadmin.entity.enums.ReportType;
+import com.ldapadmin.ldap.DirectoryReplicaService;
+import com.ldapadmin.ldap.LdapGroupService;
+import com.ldapadmin.ldap.LdapUserService;
+import com.ldapadmin.ldap.model.LdapGroup;
+import com.ldapadmin.ldap.model.LdapUser;
+import com.ldapadmin.repository.AccessDriftFindingRepository;
+import com.ldapadmin.repository.AccessReviewCampaignRepository;
+import com.ldapadmin.repository.AuditEventRepository;
+import com.ldapadmin.repository.ProvisioningProfileRepository;
+import com.ldapadmin.repository.SodViolationRepository;
+import com.ldapadmin.repository.hr.HrConnectionRepository;
+import com.ldapadmin.repository.hr.HrEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportExecutionServiceTest {
+
+    @Mock private LdapUserService                userService;
+    @Mock private LdapGroupService               groupService;
+    @Mock private AuditEventRepository           auditEventRepo;
+    @Mock private ProvisioningProfileRepository  profileRepo;
+    @Mock private ProvisioningProfileService     profileService;
+    @Mock private SodViolationRepository         sodViolationRepo;
+    @Mock private AccessReviewCampaignRepository campaignRepo;
+    @Mock private AccessDriftFindingRepository   driftFindingRepo;
+    @Mock private HrConnectionRepository         hrConnectionRepo;
+    @Mock private HrEmployeeRepository           hrEmployeeRepo;
+    @Mock private PdfReportService               pdfReportService;
+    @Mock private DirectoryReplicaService        replicaService;
+
+    private ReportExecutionService service;
+    private DirectoryConnection    dc;
+    private final UUID             directoryId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new ReportExecutionService(userService, groupService, auditEventRepo, profileRepo,
+                profileService, sodViolationRepo, campaignRepo, driftFindingRepo, hrConnectionRepo,
+                hrEmployeeRepo, pdfReportService, replicaService);
+        dc = new DirectoryConnection();
+        dc.setId(directoryId);
+        dc.setBaseDn("dc=example,dc=com");
+    }
+
+    @Test
+    void ldapReport_writesEveryEntryWithoutResultCap() throws Exception {
+        doAnswer(inv -> {
+            Consumer<LdapUser> consumer = inv.getArgument(3);
+            IntStream.range(0, 12_000).forEach(i -> consumer.accept(user("u" + i)));
+            return null;
+        }).when(userService).processUsers(eq(dc), anyString(), eq("ou=people,dc=example,dc=com"), any(), any(String[].class));
+
+        byte[] csv = service.run(dc, ReportType.USERS_IN_BRANCH,
+                Map.of("branchDn", "ou=people,dc=example,dc=com"), OutputFormat.CSV, directoryId);
+
+        String[] lines = new String(csv, StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(12_001);
+        assertThat(lines[0]).startsWith("\"DN\",\"Name\",\"User ID\"");
+        assertThat(lines[12_000]).startsWith("\"uid=u11999,ou=people,dc=example,dc=com\",\"u11999\",\"u11999\"");
+    }
+
+    @Test
+    void attributesParam_replacesDefaultColumns() throws Exception {
+        doAnswer(inv -> {
+            Consumer<LdapUser> consumer = inv.getArgument(3);
+            consumer.accept(user("alice"));
+            return null;
+        }).when(userService).processUsers(eq(dc), anyString(), isNull(), any(), eq("mail"), eq("cn"));
+
+        byte[] csv = service.run(dc, ReportType.RECENTLY_ADDED,
+                Map.of("attributes", "mail, cn"), OutputFormat.CSV, directoryId);
+
+        assertThat(new String(csv, StandardCharsets.UTF_8)).isEqualTo(
+                "\"DN\",\"Email\",\"Name\"\r\n"
+                + "\"uid=alice,ou=people,dc=example,dc=com\",\"alice@example.com\",\"alice\"\r\n");
+    }
+
+    @Test
+    void replicaServesReport_directoryNotSearched() throws Exception {
+        when(replicaService.processUsers(eq(dc), anyString(), isNull(), any(), any(String[].class)))
+                .thenReturn(true);
+
+        service.run(dc, ReportType.DISABLED_ACCOUNTS, Map.of(), OutputFormat.CSV, directoryId);
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void usersWithNoGroup_skipsGroupMembersWhileStreaming() throws Exception {
+        doAnswer(inv -> {
+            Consumer<LdapGroup> consumer = inv.getArgument(3);
+            consumer.accept(new LdapGroup("cn=staff,dc=example,dc=com",
+                    Map.of("member", List.of("UID=alice,ou=people,dc=example,dc=com"))));
+            return null;
+        }).when(groupService).processGroups(eq(dc), anyString(), isNull(), any(), any(String[].class));
+        doAnswer(inv -> {
+            Consumer<LdapUser> consumer = inv.getArgument(3);
+            consumer.accept(user("alice"));
+            consumer.accept(user("bob"));
+            return null;
+        }).when(userService).processUsers(eq(dc), anyString(), isNull(), any(), any(String[].class));
+
+        JsonNode json = runJson(ReportType.USERS_WITH_NO_GROUP, Map.of());
+
+        assertThat(json.get("rows")).hasSize(1);
+        assertThat(json.get("rows").get(0).get("DN").asText()).isEqualTo("uid=bob,ou=people,dc=example,dc=com");
+    }
+
+    @Test
+    void usersInGroup_resolvesMembersWithBatchedSearches() throws Exception {
+        List<String> members = IntStream.range(0, 2_500)
+                .mapToObj(i -> "uid=u" + i + ",ou=people,dc=example,dc=com").toList();
+        when(groupService.getGroup(eq(dc), eq("cn=big,dc=example,dc=com"), any(String[].class)))
+                .thenReturn(new LdapGroup("cn=big,dc=example,dc=com", Map.of("member", members)));
+        doAnswer(inv -> {
+            String filter = inv.getArgument(1);
+            Consumer<LdapUser> consumer = inv.getArgument(3);
+            // Echo back the first user of each batch, plus a same-named entry that is not a member
+            String uid = filter.substring(filter.indexOf("uid=") + 4, filter.indexOf(')', filter.indexOf("uid=")));
+            consumer.accept(user(uid));
+            consumer.accept(new LdapUser("uid=" + uid + ",ou=archive,ou=people,dc=example,dc=com",
+                    Map.of("uid", List.of(uid))));
+            return null;
+        }).when(userService).processUsers(eq(dc), anyString(), eq("ou=people,dc=example,dc=com"), any(), any(String[].class));
+
+        JsonNode json = runJson(ReportType.USERS_IN_GROUP, Map.of("groupDn", "cn=big,dc=example,dc=com"));
+
+        verify(userService, times(3)).processUsers(eq(dc), anyString(), any(), any(), any(String[].class));
+        assertThat(json.get("rows")).extracting(r -> r.get("DN").asText()).containsExactly(
+                "uid=u0,ou=people,dc=example,dc=com",
+                "uid=u1000,ou=people,dc=example,dc=com",
+                "uid=u2000,ou=people,dc=example,dc=com");
+    }
+
+    @Test
+    void userAccess_joinsUsersAgainstDnAndUidMemberships() throws Exception {
+        doAnswer(inv -> {
+            Consumer<LdapGroup> consumer = inv.getArgument(3);
+            consumer.accept(new LdapGroup("cn=staff,dc=example,dc=com", Map.of(
+                    "cn", List.of("staff"),
+                    "member", List.of("uid=alice,ou=people,dc=example,dc=com"))));
+            consumer.accept(new LdapGroup("cn=devs,dc=example,dc=com", Map.of(
+                    "cn", List.of("devs"),
+                    "memberuid", List.of("Alice", "bob"))));
+            return null;
+        }).when(groupService).processGroups(eq(dc), anyString(), isNull(), any(), any(String[].class));
+        doAnswer(inv -> {
+            Consumer<LdapUser> consumer = inv.getArgument(3);
+            consumer.accept(user("alice"));
+            consumer.accept(user("bob"));
+            consumer.accept(user("carol"));
+            return null;
+        }).when(userService).processUsers(eq(dc), anyString(), isNull(), any(), any(String[].class));
+
+        JsonNode json = runJson(ReportType.USER_ACCESS_REPORT, Map.of());
+
+        assertThat(json.get("rows")).extracting(r -> r.get("Groups").asText())
+                .containsExactly("staff; devs", "devs", "");
+    }
+
+    @Test
+    void auditLogReport_readsAllPagesIntoJson() throws Exception {
+        when(auditEventRepo.findAll(eq(directoryId), isNull(), isNull(), isNull(), any(), isNull(), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    Pageable pageable = inv.getArgument(6);
+                    int total = 1_500;
+                    int from = (int) pageable.getOffset();
+                    List<AuditEvent> content = IntStream.range(from, Math.min(from + pageable.getPageSize(), total))
+                            .mapToObj(i -> AuditEvent.builder()
+                                    .action(AuditAction.USER_CREATE)
+                                    .actorUsername("admin")
+                                    .targetDn("uid=u" + i + ",dc=example,dc=com")
+                                    .build())
+                            .toList();
+                    return new PageImpl<>(content, pageable, total);
+                });
+
+        JsonNode json = runJson(ReportType.AUDIT_LOG_REPORT, Map.of());
+
+        assertThat(json.get("columns")).extracting(JsonNode::asText)
+                .containsExactly("Time", "Action", "Actor", "Target", "Directory", "Detail");
+        assertThat(json.get("rows")).hasSize(1_500);
+        assertThat(json.get("rows").get(1_499).get("Target").asText()).isEqualTo("uid=u1499,dc=example,dc=com");
+        verify(auditEventRepo, times(2)).findAll(any(), any(), any(), any(), any(), any(), any(PageRequest.class));
+    }
+
+    private JsonNode runJson(ReportType type, Map<String, Object> params) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.runAsJson(dc, type, params, directoryId, out);
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
+
+    private static LdapUser user(String uid) {
+        return new LdapUser("uid=" + uid + ",ou=people,dc=example,dc=com", Map.of(
+                "cn", List.of(uid),
+                "uid", List.of(uid),
+                "mail", List.of(uid + "@example.com")));
+    }
+}
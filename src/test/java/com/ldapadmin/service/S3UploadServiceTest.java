@@ -1,11 +1,31 @@
 package com.ldapadmin.service;
 
 import com.ldapadmin.entity.ApplicationSettings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,10 +37,18 @@ class S3UploadServiceTest {
     @Mock private EncryptionService encryptionService;
 
     private S3UploadService service;
+    private FakeS3 s3;
 
     @BeforeEach
     void setUp() {
-        service = new S3UploadService(appSettingsService, encryptionService);
+        service = new S3UploadService(appSettingsService, encryptionService, new SimpleAsyncTaskExecutor("s3-upload-"));
+        ReflectionTestUtils.setField(service, "partSizeMb", 5);
+        ReflectionTestUtils.setField(service, "uploadParallelism", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (s3 != null) s3.stop();
     }
 
     @Test
@@ -95,4 +123,165 @@ class S3UploadServiceTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("not configured");
     }
+
+    // ── Streaming multipart upload against a local S3 stand-in ───────────────
+
+    @Test
+    void openUpload_largeObject_usesParallelSignedParts() throws Exception {
+        startFakeS3();
+        byte[] payload = randomBytes(12 * 1024 * 1024 + 17);
+
+        S3UploadService.Upload upload = service.openUpload("/exports/big.csv", "text/csv");
+        // Write in uneven chunks to exercise part boundaries
+        for (int off = 0; off < payload.length; off += 100_003) {
+            upload.write(payload, off, Math.min(100_003, payload.length - off));
+        }
+        upload.close();
+
+        assertThat(s3.objects.get("/exports/big.csv")).isEqualTo(payload);
+        assertThat(s3.partsUploaded.get()).isEqualTo(3);
+        assertThat(s3.badPayloadHash.get()).isFalse();
+        assertThat(upload.bytesWritten()).isEqualTo(payload.length);
+    }
+
+    @Test
+    void openUpload_smallObject_usesSinglePut() throws Exception {
+        startFakeS3();
+
+        S3UploadService.Upload upload = service.openUpload("small.csv", "text/csv");
+        upload.write("a,b\r\n".getBytes());
+        upload.close();
+
+        assertThat(s3.objects.get("/small.csv")).isEqualTo("a,b\r\n".getBytes());
+        assertThat(s3.partsUploaded.get()).isZero();
+        assertThat(s3.initiated.get()).isZero();
+    }
+
+    @Test
+    void openUpload_partFailure_abortsAndThrows() throws Exception {
+        startFakeS3();
+        s3.failPart = 2;
+
+        S3UploadService.Upload upload = service.openUpload("broken.bin", "application/octet-stream");
+        upload.write(randomBytes(11 * 1024 * 1024));
+
+        assertThatThrownBy(upload::close).isInstanceOf(IOException.class).hasMessageContaining("500");
+        assertThat(s3.aborted.get()).isTrue();
+        assertThat(s3.objects).doesNotContainKey("/broken.bin");
+    }
+
+    @Test
+    void openUpload_abortByProducer_createsNoObject() throws Exception {
+        startFakeS3();
+
+        S3UploadService.Upload upload = service.openUpload("partial.bin", "application/octet-stream");
+        upload.write(randomBytes(6 * 1024 * 1024));
+        upload.abort();
+
+        assertThat(s3.aborted.get()).isTrue();
+        assertThat(s3.objects).isEmpty();
+    }
+
+    private void startFakeS3() throws IOException {
+        s3 = new FakeS3();
+        ApplicationSettings settings = new ApplicationSettings();
+        settings.setS3EndpointUrl("http://127.0.0.1:" + s3.port());
+        settings.setS3BucketName("bucket");
+        settings.setS3AccessKey("AKIATEST");
+        settings.setS3SecretKeyEncrypted("enc");
+        when(appSettingsService.getEntity()).thenReturn(settings);
+        when(encryptionService.decrypt("enc")).thenReturn("secret");
+    }
+
+    private static byte[] randomBytes(int n) {
+        byte[] b = new byte[n];
+        new Random(42).nextBytes(b);
+        return b;
+    }
+
+    /** Implements just enough of the S3 multipart API for these tests. */
+    private static final class FakeS3 {
+        private static final Pattern PART = Pattern.compile("<PartNumber>(\\d+)</PartNumber><ETag>([^<]+)</ETag>");
+
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        final Map<Integer, byte[]> parts  = new ConcurrentHashMap<>();
+        final AtomicInteger initiated     = new AtomicInteger();
+        final AtomicInteger partsUploaded = new AtomicInteger();
+        final AtomicBoolean aborted       = new AtomicBoolean();
+        final AtomicBoolean badPayloadHash = new AtomicBoolean();
+        volatile int failPart;
+
+        private final HttpServer server;
+
+        FakeS3() throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(java.util.concurrent.Executors.newFixedThreadPool(4));
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange ex) throws IOException {
+            String path  = ex.getRequestURI().getPath();
+            String query = ex.getRequestURI().getRawQuery();
+            byte[] body  = ex.getRequestBody().readAllBytes();
+            try {
+                String declared = ex.getRequestHeaders().getFirst("x-amz-content-sha256");
+                String actual = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+                if (!actual.equals(declared)) badPayloadHash.set(true);
+            } catch (Exception e) {
+                badPayloadHash.set(true);
+            }
+
+            String method = ex.getRequestMethod();
+            if ("POST".equals(method) && "uploads=".equals(query)) {
+                initiated.incrementAndGet();
+                respond(ex, 200, "<InitiateMultipartUploadResult><UploadId>up-1</UploadId></InitiateMultipartUploadResult>");
+            } else if ("PUT".equals(method) && query != null && query.startsWith("partNumber=")) {
+                int n = Integer.parseInt(query.substring(11, query.indexOf('&')));
+                if (n == failPart) {
+                    respond(ex, 500, "<Error>boom</Error>");
+                    return;
+                }
+                parts.put(n, body);
+                partsUploaded.incrementAndGet();
+                ex.getResponseHeaders().add("ETag", "\"etag-" + n + "\"");
+                respond(ex, 200, "");
+            } else if ("POST".equals(method) && query != null && query.startsWith("uploadId=")) {
+                ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+                Matcher m = PART.matcher(new String(body));
+                while (m.find()) assembled.write(parts.get(Integer.parseInt(m.group(1))));
+                objects.put(path, assembled.toByteArray());
+                respond(ex, 200, "<CompleteMultipartUploadResult/>");
+            } else if ("DELETE".equals(method)) {
+                aborted.set(true);
+                respond(ex, 204, null);
+            } else if ("PUT".equals(method)) {
+                objects.put(path, body);
+                respond(ex, 200, "");
+            } else {
+                respond(ex, 400, "unexpected");
+            }
+        }
+
+        private static void respond(HttpExchange ex, int code, String body) throws IOException {
+            if (body == null) {
+                ex.sendResponseHeaders(code, -1);
+                ex.close();
+                return;
+            }
+            byte[] bytes = body.getBytes();
+            ex.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(bytes);
+            }
+        }
+    }
 }
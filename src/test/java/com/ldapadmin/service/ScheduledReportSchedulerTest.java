@@ -6,16 +6,23 @@ import com.ldapadmin.entity.enums.DeliveryMethod;
 import com.ldapadmin.entity.enums.OutputFormat;
 import com.ldapadmin.entity.enums.ReportType;
 import com.ldapadmin.repository.ScheduledReportJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,11 +38,17 @@ class ScheduledReportSchedulerTest {
     @Mock private S3UploadService s3UploadService;
 
     private ScheduledReportScheduler scheduler;
+    private final List<ThreadPoolTaskExecutor> executors = new CopyOnWriteArrayList<>();
 
     @BeforeEach
     void setUp() {
-        scheduler = new ScheduledReportScheduler(
-                jobRepo, jobService, reportExecService, notificationService, s3UploadService);
+        scheduler = newScheduler(2, 1, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
     }
 
     // ── isDue tests ──────────────────────────────────────────────────────────
@@ -99,12 +112,12 @@ class ScheduledReportSchedulerTest {
 
         scheduler.pollReportJobs();
 
+        verify(jobService, timeout(5000)).recordRunResult(eq(job.getId()), eq("SUCCESS"), anyString());
         verify(reportExecService).run(eq(job.getDirectory()), eq(ReportType.USERS_IN_GROUP),
                 eq(job.getReportParams()), eq(OutputFormat.CSV), eq(job.getDirectory().getId()));
         verify(notificationService).sendEmailWithAttachment(
                 eq("admin@example.com"), contains("Scheduled Report"), anyString(),
                 anyString(), eq("text/csv"), any(byte[].class));
-        verify(jobService).recordRunResult(eq(job.getId()), eq("SUCCESS"), anyString());
     }
 
     @Test
@@ -113,15 +126,37 @@ class ScheduledReportSchedulerTest {
         job.setLastRunAt(null);
         job.setDeliveryMethod(DeliveryMethod.S3);
         job.setS3KeyPrefix("reports/daily");
+        S3UploadService.Upload upload = mock(S3UploadService.Upload.class);
+        when(jobRepo.findAllByEnabledTrue()).thenReturn(List.of(job));
+        when(s3UploadService.isConfigured()).thenReturn(true);
+        when(s3UploadService.openUpload(startsWith("reports/daily/"), eq("text/csv"))).thenReturn(upload);
+
+        scheduler.pollReportJobs();
+
+        verify(jobService, timeout(5000)).recordRunResult(eq(job.getId()), eq("SUCCESS"), anyString());
+        verify(reportExecService).run(eq(job.getDirectory()), eq(ReportType.USERS_IN_GROUP),
+                eq(job.getReportParams()), eq(OutputFormat.CSV), eq(job.getDirectory().getId()), same(upload));
+        verify(upload).close();
+        verify(upload, never()).abort();
+    }
+
+    @Test
+    void pollReportJobs_s3Delivery_reportFailure_abortsUpload() throws Exception {
+        ScheduledReportJob job = buildJob();
+        job.setLastRunAt(null);
+        job.setDeliveryMethod(DeliveryMethod.S3);
+        S3UploadService.Upload upload = mock(S3UploadService.Upload.class);
         when(jobRepo.findAllByEnabledTrue()).thenReturn(List.of(job));
-        when(reportExecService.run(any(), any(), any(), any(), any()))
-                .thenReturn("data".getBytes());
         when(s3UploadService.isConfigured()).thenReturn(true);
+        when(s3UploadService.openUpload(anyString(), anyString())).thenReturn(upload);
+        doThrow(new java.io.IOException("LDAP down")).when(reportExecService)
+                .run(any(), any(), any(), any(), any(), any(java.io.OutputStream.class));
 
         scheduler.pollReportJobs();
 
-        verify(s3UploadService).upload(startsWith("reports/daily/"), any(byte[].class), eq("text/csv"));
-        verify(jobService).recordRunResult(eq(job.getId()), eq("SUCCESS"), anyString());
+        verify(jobService, timeout(5000)).recordRunResult(eq(job.getId()), eq("FAILURE"), contains("LDAP down"));
+        verify(upload).abort();
+        verify(upload, never()).close();
     }
 
     @Test
@@ -149,7 +184,7 @@ class ScheduledReportSchedulerTest {
 
         scheduler.pollReportJobs();
 
-        verify(jobService).recordRunResult(eq(job.getId()), eq("FAILURE"), contains("LDAP unreachable"));
+        verify(jobService, timeout(5000)).recordRunResult(eq(job.getId()), eq("FAILURE"), contains("LDAP unreachable"));
     }
 
     @Test
@@ -158,18 +193,103 @@ class ScheduledReportSchedulerTest {
         job.setLastRunAt(null);
         job.setDeliveryMethod(DeliveryMethod.S3);
         when(jobRepo.findAllByEnabledTrue()).thenReturn(List.of(job));
-        when(reportExecService.run(any(), any(), any(), any(), any()))
-                .thenReturn("data".getBytes());
         when(s3UploadService.isConfigured()).thenReturn(false);
 
         scheduler.pollReportJobs();
 
-        verify(jobService).recordRunResult(eq(job.getId()), eq("FAILURE"),
+        verify(jobService, timeout(5000)).recordRunResult(eq(job.getId()), eq("FAILURE"),
                 contains("S3 storage is not configured"));
+        verifyNoInteractions(reportExecService);
+    }
+
+    // ── Dispatch tests ───────────────────────────────────────────────────────
+
+    @Test
+    void pollReportJobs_oneJobPerDirectory_mostOverdueFirst() throws Exception {
+        ScheduledReportJob recent = buildJob();
+        recent.setCronExpression("0 * * * * *");
+        recent.setLastRunAt(OffsetDateTime.now().minusMinutes(5));
+        ScheduledReportJob overdue = buildJob();
+        overdue.setDirectory(recent.getDirectory());
+        overdue.setCronExpression("0 * * * * *");
+        overdue.setLastRunAt(OffsetDateTime.now().minusDays(1));
+        overdue.setDeliveryRecipients("admin@example.com");
+        recent.setDeliveryRecipients("admin@example.com");
+        when(jobRepo.findAllByEnabledTrue()).thenReturn(List.of(recent, overdue));
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<UUID> order = new CopyOnWriteArrayList<>();
+        when(reportExecService.run(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            order.add(inv.getArgument(4));
+            release.await(5, TimeUnit.SECONDS);
+            return new byte[0];
+        });
+        doAnswer(inv -> null).when(jobService).recordRunResult(any(), any(), any());
+
+        scheduler.pollReportJobs();
+
+        // Two workers, but one slot per directory: the second job waits
+        verify(reportExecService, timeout(5000)).run(any(), any(), any(), any(), any());
+        assertThat(scheduler.runningCount()).isEqualTo(1);
+        assertThat(scheduler.queuedCount()).isEqualTo(1);
+
+        release.countDown();
+        verify(jobService, timeout(5000).times(2)).recordRunResult(any(), eq("SUCCESS"), anyString());
+        InOrder inOrder = inOrder(jobService);
+        inOrder.verify(jobService).recordRunResult(eq(overdue.getId()), eq("SUCCESS"), anyString());
+        inOrder.verify(jobService).recordRunResult(eq(recent.getId()), eq("SUCCESS"), anyString());
+    }
+
+    @Test
+    void jobExceedingTimeout_isInterruptedAndRecordedAsTimedOut() throws Exception {
+        scheduler = newScheduler(1, 1, 0);
+        ScheduledReportJob job = buildJob();
+        job.setDeliveryRecipients("admin@example.com");
+        // A zero timeout may fire before the report even starts
+        lenient().when(reportExecService.run(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            Thread.sleep(10_000);
+            return new byte[0];
+        });
+
+        assertThat(scheduler.executeJobNow(job)).isTrue();
+
+        verify(jobService, timeout(5000)).recordRunResult(eq(job.getId()), eq("FAILURE"), startsWith("Timed out"));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void executeJobNow_alreadyQueued_returnsFalse() throws Exception {
+        scheduler = newScheduler(1, 1, 30);
+        ScheduledReportJob blocker = buildJob();
+        ScheduledReportJob job = buildJob();
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportExecService.run(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new byte[0];
+        });
+
+        assertThat(scheduler.executeJobNow(blocker)).isTrue();
+        assertThat(scheduler.executeJobNow(job)).isTrue();
+        assertThat(scheduler.executeJobNow(job)).isFalse();
+
+        release.countDown();
+        verify(jobService, timeout(5000).times(2)).recordRunResult(any(), any(), any());
     }
 
     // ── Helper ───────────────────────────────────────────────────────────────
 
+    private ScheduledReportScheduler newScheduler(int workers, int perDirectoryLimit, long timeoutMinutes) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("report-job-");
+        executor.initialize();
+        executors.add(executor);
+        return new ScheduledReportScheduler(jobRepo, jobService, reportExecService, notificationService,
+                s3UploadService, new SimpleMeterRegistry(), executor, perDirectoryLimit, timeoutMinutes);
+    }
+
+
     private ScheduledReportJob buildJob() {
         DirectoryConnection dir = new DirectoryConnection();
         dir.setId(UUID.randomUUID());
@@ -0,0 +1,208 @@
+package com.ldapadmin.service.alerting;
+
+import com.ldapadmin.entity.AlertInstance;
+import com.ldapadmin.entity.AlertRule;
+import com.ldapadmin.entity.DirectoryConnection;
+import com.ldapadmin.entity.enums.AlertRuleType;
+import com.ldapadmin.entity.enums.AuditAction;
+import com.ldapadmin.ldap.DirectoryReachabilityEvent;
+import com.ldapadmin.ldap.LdapConnectionFactory;
+import com.ldapadmin.repository.AlertInstanceRepository;
+import com.ldapadmin.repository.AlertRuleRepository;
+import com.ldapadmin.repository.DirectoryConnectionRepository;
+import com.ldapadmin.service.ApprovalNotificationService;
+import com.ldapadmin.service.AuditQueryService;
+import com.ldapadmin.service.AuditRecordedEvent;
+import com.ldapadmin.service.NotificationService;
+import com.ldapadmin.service.alerting.checkers.DirectoryUnreachableChecker;
+import com.ldapadmin.service.alerting.checkers.HighChangeVolumeChecker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertMonitoringServiceTest {
+
+    @Mock private AlertRuleRepository           ruleRepo;
+    @Mock private AlertInstanceRepository       instanceRepo;
+    @Mock private DirectoryConnectionRepository dirRepo;
+    @Mock private NotificationService           notificationService;
+    @Mock private ApprovalNotificationService   emailService;
+    @Mock private ApplicationEventPublisher     eventPublisher;
+    @Mock private LdapConnectionFactory         connectionFactory;
+    @Mock private AuditQueryService             auditQueryService;
+
+    private AlertMonitoringService service;
+    private DirectoryConnection    dc;
+
+    @BeforeEach
+    void setUp() {
+        service = new AlertMonitoringService(ruleRepo, instanceRepo, dirRepo, notificationService,
+                emailService, eventPublisher,
+                List.of(new HighChangeVolumeChecker(auditQueryService), new DirectoryUnreachableChecker(connectionFactory)),
+                Runnable::run, Runnable::run);
+
+        dc = new DirectoryConnection();
+        dc.setId(UUID.randomUUID());
+        dc.setDisplayName("corp");
+        dc.setEnabled(true);
+    }
+
+    @Test
+    void onAuditRecorded_firesOnceWhenVolumePassesThreshold() {
+        AlertRule rule = rule(AlertRuleType.HIGH_CHANGE_VOLUME, Map.of("threshold", 3, "windowHours", 1));
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+        storedAuditEvents(1); // the first event itself
+
+        for (int i = 0; i < 6; i++) {
+            service.onAuditRecorded(auditEvent());
+        }
+
+        ArgumentCaptor<AlertInstance> saved = ArgumentCaptor.forClass(AlertInstance.class);
+        verify(instanceRepo).save(saved.capture());
+        assertThat(saved.getValue().getContextKey()).isEqualTo("high-volume-" + dc.getId());
+        assertThat(saved.getValue().getTitle()).startsWith("High change volume: 4 events");
+        // Later findings fall within the cooldown held in memory, without further queries
+        verify(instanceRepo, times(1)).findLatestByRuleIdAndContextKey(any(), any());
+        verify(instanceRepo, times(1)).existsByRuleIdAndContextKeyAndStatusIn(any(), any(), any());
+        verify(eventPublisher).publishEvent(any(AlertsChangedEvent.class));
+        // The rule index is loaded and the window seeded once
+        verify(ruleRepo, times(1)).findAllByEnabledTrue();
+        verify(auditQueryService, times(1)).query(any(), any(), any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void onAuditRecorded_windowSeededFromStoredEvents() {
+        // Events recorded before a restart, or by another node
+        AlertRule rule = rule(AlertRuleType.HIGH_CHANGE_VOLUME, Map.of("threshold", 3, "windowHours", 1));
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+        storedAuditEvents(10);
+
+        service.onAuditRecorded(auditEvent());
+
+        ArgumentCaptor<AlertInstance> saved = ArgumentCaptor.forClass(AlertInstance.class);
+        verify(instanceRepo).save(saved.capture());
+        assertThat(saved.getValue().getTitle()).isEqualTo("High change volume: 10 events in last 1h");
+    }
+
+    @Test
+    void evaluate_reconcilesWithStoredCountOverClampedWindow() {
+        AlertRule rule = rule(AlertRuleType.HIGH_CHANGE_VOLUME, Map.of("threshold", 3, "windowHours", 0));
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+        storedAuditEvents(5);
+
+        service.evaluate();
+
+        ArgumentCaptor<OffsetDateTime> since = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(auditQueryService).query(eq(dc.getId()), isNull(), isNull(), isNull(), since.capture(),
+                isNull(), eq(0), eq(1));
+        assertThat(since.getValue()).isBefore(OffsetDateTime.now().minusMinutes(59));
+        ArgumentCaptor<AlertInstance> saved = ArgumentCaptor.forClass(AlertInstance.class);
+        verify(instanceRepo).save(saved.capture());
+        assertThat(saved.getValue().getTitle()).isEqualTo("High change volume: 5 events in last 1h");
+    }
+
+    @Test
+    void onReachabilityChanged_firesForUnreachableDirectory() {
+        AlertRule rule = rule(AlertRuleType.DIRECTORY_UNREACHABLE, Map.of());
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+
+        service.onReachabilityChanged(new DirectoryReachabilityEvent(
+                dc.getId(), "corp", "ldap.corp", 636, false, "Connection refused"));
+        service.onReachabilityChanged(new DirectoryReachabilityEvent(
+                dc.getId(), "corp", "ldap.corp", 636, true, null));
+
+        ArgumentCaptor<AlertInstance> saved = ArgumentCaptor.forClass(AlertInstance.class);
+        verify(instanceRepo).save(saved.capture());
+        assertThat(saved.getValue().getDetail()).contains("ldap.corp:636", "Connection refused");
+        verify(notificationService).sendToFeatureHolders(eq(dc.getId()), any(), eq("ALERT_DIRECTORY_UNREACHABLE"),
+                anyString(), anyString(), anyString());
+        verifyNoInteractions(connectionFactory);
+    }
+
+    @Test
+    void onAuditRecorded_ignoresRulesForOtherDirectories() {
+        AlertRule rule = rule(AlertRuleType.HIGH_CHANGE_VOLUME, Map.of("threshold", 0));
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+
+        service.onAuditRecorded(new AuditRecordedEvent(UUID.randomUUID(), UUID.randomUUID(), "other",
+                AuditAction.USER_CREATE, "uid=x", "admin", OffsetDateTime.now()));
+
+        verifyNoInteractions(instanceRepo);
+    }
+
+    @Test
+    void evaluate_recentInstanceSeedsCooldown() {
+        AlertRule rule = rule(AlertRuleType.DIRECTORY_UNREACHABLE, Map.of());
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+        when(connectionFactory.withConnection(eq(dc), any())).thenThrow(new RuntimeException("down"));
+        when(connectionFactory.openUnboundConnection(dc)).thenThrow(new RuntimeException("down"));
+        AlertInstance latest = AlertInstance.builder().createdAt(OffsetDateTime.now().minusMinutes(10)).build();
+        when(instanceRepo.findLatestByRuleIdAndContextKey(rule.getId(), "dir-unreachable-" + dc.getId()))
+                .thenReturn(latest);
+
+        service.evaluate();
+        service.evaluate();
+
+        verify(instanceRepo, never()).save(any());
+        verify(instanceRepo, times(1)).findLatestByRuleIdAndContextKey(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void evaluate_failedSaveReleasesClaim() {
+        AlertRule rule = rule(AlertRuleType.DIRECTORY_UNREACHABLE, Map.of());
+        when(ruleRepo.findAllByEnabledTrue()).thenReturn(List.of(rule));
+        when(dirRepo.findById(dc.getId())).thenReturn(Optional.of(dc));
+        when(connectionFactory.withConnection(eq(dc), any())).thenThrow(new RuntimeException("down"));
+        when(connectionFactory.openUnboundConnection(dc)).thenThrow(new RuntimeException("down"));
+        when(instanceRepo.save(any())).thenThrow(new RuntimeException("DB down")).thenReturn(null);
+
+        service.evaluate();
+        service.evaluate();
+
+        verify(instanceRepo, times(2)).save(any());
+        verify(eventPublisher).publishEvent(any(AlertsChangedEvent.class));
+    }
+
+    private void storedAuditEvents(long count) {
+        when(auditQueryService.query(any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 1), count));
+    }
+
+    private AlertRule rule(AlertRuleType type, Map<String, Object> params) {
+        AlertRule rule = new AlertRule();
+        rule.setId(UUID.randomUUID());
+        rule.setDirectory(dc);
+        rule.setRuleType(type);
+        rule.setParams(params);
+        rule.setCooldownHours(4);
+        return rule;
+    }
+
+    private AuditRecordedEvent auditEvent() {
+        return new AuditRecordedEvent(UUID.randomUUID(), dc.getId(), "corp",
+                AuditAction.USER_UPDATE, "uid=a,dc=corp", "admin", OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,37 @@
+package com.ldapadmin.service.alerting;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void count_dropsEventsOnceTheyLeaveTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(60), 60);
+        long t = Duration.ofDays(1000).toMillis();
+
+        counter.add(t);
+        counter.add(t);
+        counter.add(t + Duration.ofMinutes(30).toMillis());
+
+        assertThat(counter.count(t + Duration.ofMinutes(30).toMillis())).isEqualTo(3);
+        assertThat(counter.count(t + Duration.ofMinutes(61).toMillis())).isEqualTo(1);
+        assertThat(counter.count(t + Duration.ofMinutes(91).toMillis())).isZero();
+    }
+
+    @Test
+    void add_reusesExpiredBuckets() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(10), 10);
+        long t = Duration.ofDays(1000).toMillis();
+
+        counter.add(t);
+        // Same ring slot, ten buckets later
+        long later = t + Duration.ofMinutes(10).toMillis();
+        counter.add(later);
+
+        assertThat(counter.count(later)).isEqualTo(1);
+    }
+}
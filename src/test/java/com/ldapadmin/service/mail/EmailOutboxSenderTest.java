@@ -0,0 +1,188 @@
+package com.ldapadmin.service.mail;
+
+import com.ldapadmin.entity.ApplicationSettings;
+import com.ldapadmin.entity.EmailOutboxMessage;
+import com.ldapadmin.entity.enums.EmailOutboxStatus;
+import com.ldapadmin.repository.EmailOutboxRepository;
+import com.ldapadmin.service.ApplicationSettingsService;
+import com.ldapadmin.service.EncryptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxSenderTest {
+
+    @Mock private EmailOutboxRepository      outboxRepo;
+    @Mock private ApplicationSettingsService appSettingsService;
+    @Mock private EncryptionService          encryptionService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private FakeSmtpServer     server;
+    private SmtpClient         smtpClient;
+    private SimpleMeterRegistry registry;
+    private EmailOutboxSender  sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server     = new FakeSmtpServer();
+        smtpClient = new SmtpClient(encryptionService);
+        registry   = new SimpleMeterRegistry();
+        sender     = new EmailOutboxSender(outboxRepo, appSettingsService, encryptionService, smtpClient,
+                transactionManager, registry, 100, 3, 30, 3600, 300, 7);
+
+        ApplicationSettings settings = new ApplicationSettings();
+        settings.setSmtpHost("127.0.0.1");
+        settings.setSmtpPort(server.port());
+        settings.setSmtpSenderAddress("noreply@example.com");
+        settings.setSmtpUseTls(false);
+        lenient().when(appSettingsService.getEntity()).thenReturn(settings);
+        lenient().when(encryptionService.decrypt(anyString())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtpClient.close();
+        server.close();
+    }
+
+    @Test
+    void drain_deliversBatchOverSingleConnection() {
+        List<EmailOutboxMessage> due = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            due.add(message("u" + i + "@example.com,v" + i + "@example.com", "Body " + i));
+        }
+        stubDue(due, 0);
+
+        int delivered = sender.drain();
+
+        assertThat(delivered).isEqualTo(10);
+        assertThat(server.connections.get()).isEqualTo(1);
+        assertThat(server.messages).hasSize(10);
+        assertThat(server.messages.get(0).recipients()).containsExactly("u0@example.com", "v0@example.com");
+        assertThat(due).allSatisfy(m -> {
+            assertThat(m.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+            assertThat(m.getSentAt()).isNotNull();
+            assertThat(m.getAttempts()).isEqualTo(1);
+        });
+        assertThat(registry.counter("ldapadmin.mail.outbox.sent").count()).isEqualTo(10);
+    }
+
+    @Test
+    void drain_transientFailure_schedulesRetryWithBackoff() {
+        server.dataReply = 451;
+        EmailOutboxMessage m = message("a@example.com", "Hi");
+        stubDue(List.of(m), 1);
+
+        sender.drain();
+
+        assertThat(m.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(m.getAttempts()).isEqualTo(1);
+        assertThat(m.getLastError()).contains("451");
+        assertThat(m.getNextAttemptAt()).isAfter(OffsetDateTime.now().plusSeconds(25));
+        assertThat(registry.counter("ldapadmin.mail.outbox.retried").count()).isEqualTo(1);
+        assertThat(sender.queueDepth()).isEqualTo(1);
+        assertThat(registry.get("ldapadmin.mail.outbox.pending").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void drain_permanentFailure_marksFailed() {
+        server.dataReply = 554;
+        EmailOutboxMessage m = message("a@example.com", "Hi");
+        stubDue(List.of(m), 0);
+
+        sender.drain();
+
+        assertThat(m.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(registry.counter("ldapadmin.mail.outbox.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void drain_transientFailureAtMaxAttempts_marksFailed() {
+        server.dataReply = 451;
+        EmailOutboxMessage m = message("a@example.com", "Hi");
+        m.setAttempts(2);
+        stubDue(List.of(m), 0);
+
+        sender.drain();
+
+        assertThat(m.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(m.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void drain_messageThatCannotBeBuilt_failsAloneAndOthersAreSent() {
+        EmailOutboxMessage bad  = message("a@example.com", "corrupt");
+        EmailOutboxMessage good = message("b@example.com", "Hi");
+        when(encryptionService.decrypt("corrupt")).thenThrow(new IllegalStateException("Decryption failed"));
+        stubDue(List.of(bad, good), 0);
+
+        int delivered = sender.drain();
+
+        assertThat(delivered).isEqualTo(1);
+        assertThat(bad.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(bad.getLastError()).contains("Decryption failed");
+        assertThat(good.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+        assertThat(server.messages).hasSize(1);
+        // Each outcome is committed on its own, after the claim
+        verify(outboxRepo).save(bad);
+        verify(outboxRepo).save(good);
+        assertThat(registry.counter("ldapadmin.mail.outbox.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void drain_claimLeasesMessagesBeforeSending() {
+        server.dataReply = 451;
+        EmailOutboxMessage m = message("a@example.com", "Hi");
+        stubDue(List.of(m), 1);
+        OffsetDateTime[] leasedUntil = new OffsetDateTime[1];
+        when(outboxRepo.saveAll(List.of(m))).thenAnswer(inv -> {
+            leasedUntil[0] = m.getNextAttemptAt();
+            return List.of(m);
+        });
+
+        sender.drain();
+
+        assertThat(leasedUntil[0]).isAfter(OffsetDateTime.now().plusSeconds(250));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void backoff_doublesAndCaps() {
+        assertThat(sender.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(sender.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(sender.backoff(4)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(sender.backoff(50)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private void stubDue(List<EmailOutboxMessage> due, long pendingAfter) {
+        when(outboxRepo.claimDue(eq(EmailOutboxStatus.PENDING), any(), any())).thenReturn(due);
+        when(outboxRepo.countByStatus(EmailOutboxStatus.PENDING)).thenReturn(pendingAfter);
+    }
+
+    private static EmailOutboxMessage message(String recipients, String body) {
+        return EmailOutboxMessage.builder()
+                .recipients(recipients)
+                .subject("Subject")
+                .bodyEncrypted(body)
+                .build();
+    }
+}
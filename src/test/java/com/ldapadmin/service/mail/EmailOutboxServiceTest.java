@@ -0,0 +1,89 @@
+package com.ldapadmin.service.mail;
+
+import com.ldapadmin.entity.ApplicationSettings;
+import com.ldapadmin.entity.EmailOutboxMessage;
+import com.ldapadmin.repository.EmailOutboxRepository;
+import com.ldapadmin.service.ApplicationSettingsService;
+import com.ldapadmin.service.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock private EmailOutboxRepository      outboxRepo;
+    @Mock private ApplicationSettingsService appSettingsService;
+    @Mock private EncryptionService          encryptionService;
+
+    @InjectMocks private EmailOutboxService service;
+
+    private ApplicationSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new ApplicationSettings();
+        settings.setSmtpHost("smtp.example.com");
+        settings.setSmtpSenderAddress("noreply@example.com");
+    }
+
+    @Test
+    void enqueue_encryptsBodyAndStoresRecipients() {
+        when(appSettingsService.getEntity()).thenReturn(settings);
+        when(encryptionService.encrypt("secret body")).thenReturn("ENC");
+
+        service.enqueue(Arrays.asList("a@example.com", " b@example.com ", "a@example.com", "", null), "Hi", "secret body");
+
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepo).save(captor.capture());
+        assertThat(captor.getValue().getRecipients()).isEqualTo("a@example.com,b@example.com");
+        assertThat(captor.getValue().getBodyEncrypted()).isEqualTo("ENC");
+    }
+
+    @Test
+    void enqueue_splitsLargeRecipientListsAcrossRows() {
+        when(appSettingsService.getEntity()).thenReturn(settings);
+        when(encryptionService.encrypt(anyString())).thenReturn("ENC");
+        List<String> recipients = new ArrayList<>();
+        for (int i = 0; i < 120; i++) recipients.add("u" + i + "@example.com");
+
+        service.enqueue(recipients, "Hi", "body");
+
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepo, times(3)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(m -> m.getRecipients().split(",").length)
+                .containsExactly(50, 50, 20);
+        // body is encrypted once and shared by every row
+        verify(encryptionService, times(1)).encrypt(anyString());
+    }
+
+    @Test
+    void enqueue_smtpNotConfigured_dropsMessage() {
+        settings.setSmtpHost(null);
+        when(appSettingsService.getEntity()).thenReturn(settings);
+
+        service.enqueue("a@example.com", "Hi", "body");
+
+        verify(outboxRepo, never()).save(any());
+    }
+
+    @Test
+    void enqueue_noRecipients_doesNothing() {
+        service.enqueue(Arrays.asList(null, " "), "Hi", "body");
+
+        verifyNoInteractions(outboxRepo, appSettingsService);
+    }
+}
@@ -0,0 +1,141 @@
+package com.ldapadmin.service.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for tests.  Accepts any AUTH, records each
+ * accepted message and counts connections.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    record Received(String from, List<String> recipients, List<String> rawLines) {}
+
+    private final ServerSocket serverSocket;
+    private final Thread       acceptor;
+
+    final AtomicInteger          connections = new AtomicInteger();
+    final List<Received>         messages    = new CopyOnWriteArrayList<>();
+    final List<String>           commands    = new CopyOnWriteArrayList<>();
+    final Set<String>            rejectRcpt  = ConcurrentHashMap.newKeySet();
+    volatile boolean             pipelining  = true;
+    /** Reply code returned after the data section, e.g. 451 or 554; 250 by default. */
+    volatile int                 dataReply   = 250;
+    /** Close the connection after this many messages (0 = never). */
+    volatile int                 dropAfter   = 0;
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread t = new Thread(() -> handle(socket), "fake-smtp-conn");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream   out = socket.getOutputStream();
+            reply(out, "220 fake ESMTP");
+
+            String from = null;
+            List<String> rcpts = new ArrayList<>();
+            int accepted = 0;
+            int delivered = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                commands.add(line);
+                String upper = line.toUpperCase();
+                if (upper.startsWith("EHLO")) {
+                    reply(out, "250-fake" + (pipelining ? "\r\n250-PIPELINING" : "") + "\r\n250 AUTH PLAIN");
+                } else if (upper.startsWith("AUTH")) {
+                    reply(out, "235 ok");
+                } else if (upper.startsWith("MAIL FROM:")) {
+                    from = line.substring(10);
+                    rcpts = new ArrayList<>();
+                    accepted = 0;
+                    reply(out, "250 ok");
+                } else if (upper.startsWith("RCPT TO:")) {
+                    String addr = line.substring(8).replace("<", "").replace(">", "");
+                    rcpts.add(addr);
+                    if (rejectRcpt.contains(addr)) {
+                        reply(out, "550 no such user");
+                    } else {
+                        accepted++;
+                        reply(out, "250 ok");
+                    }
+                } else if (upper.equals("DATA")) {
+                    if (accepted == 0) {
+                        reply(out, "554 no valid recipients");
+                        continue;
+                    }
+                    reply(out, "354 go ahead");
+                    List<String> raw = new ArrayList<>();
+                    String data;
+                    while ((data = in.readLine()) != null && !data.equals(".")) {
+                        raw.add(data);
+                    }
+                    if (dataReply == 250) {
+                        List<String> ok = rcpts.stream().filter(r -> !rejectRcpt.contains(r)).toList();
+                        messages.add(new Received(from, ok, raw));
+                        reply(out, "250 queued");
+                    } else {
+                        reply(out, dataReply + " refused");
+                    }
+                    delivered++;
+                    if (dropAfter > 0 && delivered >= dropAfter) {
+                        return;
+                    }
+                } else if (upper.equals("RSET") || upper.equals("NOOP")) {
+                    reply(out, "250 ok");
+                } else if (upper.equals("QUIT")) {
+                    reply(out, "221 bye");
+                    return;
+                } else {
+                    reply(out, "500 unknown command");
+                }
+            }
+        } catch (IOException ignored) {
+            // client went away
+        }
+    }
+
+    private static void reply(OutputStream out, String text) throws IOException {
+        out.write((text + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.ldapadmin.service.mail;
+
+import com.ldapadmin.entity.ApplicationSettings;
+import com.ldapadmin.service.EncryptionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class SmtpClientTest {
+
+    @Mock private EncryptionService encryptionService;
+
+    private FakeSmtpServer      server;
+    private SmtpClient          client;
+    private ApplicationSettings settings;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeSmtpServer();
+        client = new SmtpClient(encryptionService);
+        settings = new ApplicationSettings();
+        settings.setSmtpHost("127.0.0.1");
+        settings.setSmtpPort(server.port());
+        settings.setSmtpSenderAddress("noreply@example.com");
+        settings.setSmtpUseTls(false);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void send_reusesOneSessionForManyMessages() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            client.send(settings, List.of("user" + i + "@example.com"), message("Body " + i));
+        }
+
+        assertThat(server.connections.get()).isEqualTo(1);
+        assertThat(server.messages).hasSize(5);
+        assertThat(server.commands.stream().filter(c -> c.startsWith("EHLO"))).hasSize(1);
+    }
+
+    @Test
+    void send_multipleRecipientsInOneTransaction() throws Exception {
+        client.send(settings, List.of("a@example.com", "b@example.com", "c@example.com"), message("Hi"));
+
+        assertThat(server.messages).hasSize(1);
+        assertThat(server.messages.get(0).recipients())
+                .containsExactly("a@example.com", "b@example.com", "c@example.com");
+    }
+
+    @Test
+    void send_returnsRejectedRecipients() throws Exception {
+        server.rejectRcpt.add("gone@example.com");
+
+        List<String> rejected = client.send(settings,
+                List.of("ok@example.com", "gone@example.com"), message("Hi"));
+
+        assertThat(rejected).containsExactly("gone@example.com");
+        assertThat(server.messages.get(0).recipients()).containsExactly("ok@example.com");
+    }
+
+    @Test
+    void send_allRecipientsRejected_throwsPermanentAndKeepsSessionUsable() throws Exception {
+        server.rejectRcpt.add("gone@example.com");
+
+        assertThatThrownBy(() -> client.send(settings, List.of("gone@example.com"), message("Hi")))
+                .isInstanceOfSatisfying(SmtpException.class, ex -> assertThat(ex.isPermanent()).isTrue());
+
+        client.send(settings, List.of("ok@example.com"), message("Hi"));
+        assertThat(server.connections.get()).isEqualTo(1);
+        assertThat(server.messages).hasSize(1);
+    }
+
+    @Test
+    void send_withoutPipelining_stillDelivers() throws Exception {
+        server.pipelining = false;
+        server.rejectRcpt.add("gone@example.com");
+
+        List<String> rejected = client.send(settings,
+                List.of("ok@example.com", "gone@example.com"), message("Hi"));
+
+        assertThat(rejected).containsExactly("gone@example.com");
+        assertThat(server.messages).hasSize(1);
+    }
+
+    @Test
+    void send_dotStuffsLinesStartingWithDot() throws Exception {
+        client.send(settings, List.of("a@example.com"), message("line one\n.hidden\nlast"));
+
+        assertThat(server.messages.get(0).rawLines()).contains("line one", "..hidden", "last");
+    }
+
+    @Test
+    void send_reconnectsWhenServerDroppedSession() throws Exception {
+        server.dropAfter = 1;
+
+        client.send(settings, List.of("a@example.com"), message("first"));
+        client.send(settings, List.of("a@example.com"), message("second"));
+
+        assertThat(server.connections.get()).isEqualTo(2);
+        assertThat(server.messages).hasSize(2);
+    }
+
+    @Test
+    void send_transientRejection_isNotPermanent() {
+        server.dataReply = 451;
+
+        assertThatThrownBy(() -> client.send(settings, List.of("a@example.com"), message("Hi")))
+                .isInstanceOfSatisfying(SmtpException.class, ex -> {
+                    assertThat(ex.getReplyCode()).isEqualTo(451);
+                    assertThat(ex.isPermanent()).isFalse();
+                });
+    }
+
+    private String message(String body) {
+        return EmailMessageFormatter.plainText("noreply@example.com", List.of("x@example.com"), "Test", body);
+    }
+}
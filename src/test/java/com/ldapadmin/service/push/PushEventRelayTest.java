@@ -0,0 +1,77 @@
+package com.ldapadmin.service.push;
+
+import com.ldapadmin.auth.AuthPrincipal;
+import com.ldapadmin.auth.PermissionService;
+import com.ldapadmin.ldap.DirectoryEntryChangedEvent;
+import com.ldapadmin.service.DashboardService;
+import com.ldapadmin.service.NotificationService;
+import com.ldapadmin.service.alerting.AlertService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PushEventRelayTest {
+
+    @Mock private PushHub             hub;
+    @Mock private PermissionService   permissionService;
+    @Mock private NotificationService notificationService;
+    @Mock private AlertService        alertService;
+    @Mock private DashboardService    dashboardService;
+
+    @InjectMocks private PushEventRelay relay;
+
+    private final UUID dirA  = UUID.randomUUID();
+    private final UUID dirB  = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob   = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        relay.onEntryChanged(new DirectoryEntryChangedEvent(dirA, "uid=x,dc=a", null));
+        relay.onEntryChanged(new DirectoryEntryChangedEvent(dirB, "uid=y,dc=b", null));
+    }
+
+    @Test
+    void directoryChanges_sentOnlyForAuthorisedDirectories() {
+        when(hub.hasSuperadminSubscribers()).thenReturn(true);
+        when(hub.adminSubscribers()).thenReturn(Set.of(alice, bob));
+        authorise(alice, dirA);
+        authorise(bob);
+
+        relay.pushDirectoryChanges();
+
+        verify(hub).sendToSuperadmins(eq("directory-changed"),
+                argThat(p -> p instanceof Map<?, ?> m
+                        && Set.copyOf((List<?>) m.get("directoryIds")).equals(Set.of(dirA, dirB))));
+        verify(hub).sendToAccount(alice, "directory-changed", Map.of("directoryIds", List.of(dirA)));
+        verify(hub, never()).sendToAccount(eq(bob), any(), any());
+    }
+
+    @Test
+    void directoryChanges_unauthorisedSubscriberOnly_nothingSent() {
+        when(hub.adminSubscribers()).thenReturn(Set.of(bob));
+        authorise(bob, UUID.randomUUID());
+
+        relay.pushDirectoryChanges();
+
+        verify(hub, never()).sendToSuperadmins(any(), any());
+        verify(hub, never()).sendToAccount(any(), any(), any());
+    }
+
+    private void authorise(UUID accountId, UUID... directoryIds) {
+        when(permissionService.getAuthorizedDirectoryIds(argThat((AuthPrincipal p) -> p != null && accountId.equals(p.id()))))
+                .thenReturn(Set.of(directoryIds));
+    }
+}
@@ -0,0 +1,148 @@
+package com.ldapadmin.service.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PushHubTest {
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID root  = UUID.randomUUID();
+
+    /** Drain tasks, run when the test says so in place of the push executor. */
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private PushHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new PushHub(new ObjectMapper(), pending::add, new SimpleMeterRegistry(), 30, 2, 3);
+    }
+
+    @Test
+    void sendToAccount_reachesOnlyThatAccount() {
+        RecordingSink aliceSink = new RecordingSink();
+        RecordingSink rootSink  = new RecordingSink();
+        hub.register(alice, false, aliceSink);
+        hub.register(root, true, rootSink);
+
+        hub.sendToAccount(alice, "notifications", Map.of("count", 2));
+        runPending();
+
+        assertThat(aliceSink.events).containsExactly("notifications {\"count\":2}");
+        assertThat(rootSink.events).isEmpty();
+    }
+
+    @Test
+    void sendToSuperadmins_skipsAdmins() {
+        RecordingSink aliceSink = new RecordingSink();
+        RecordingSink rootSink  = new RecordingSink();
+        hub.register(alice, false, aliceSink);
+        hub.register(root, true, rootSink);
+
+        hub.sendToSuperadmins("alerts", Map.of("openCount", 1));
+        runPending();
+
+        assertThat(aliceSink.events).isEmpty();
+        assertThat(rootSink.events).containsExactly("alerts {\"openCount\":1}");
+        assertThat(hub.hasSuperadminSubscribers()).isTrue();
+        assertThat(hub.adminSubscribers()).containsExactly(alice);
+    }
+
+    @Test
+    void events_areDeliveredInOrderByOneDrainPerSubscriber() {
+        RecordingSink sink = new RecordingSink();
+        hub.register(alice, false, sink);
+
+        hub.sendToAccount(alice, "a", 1);
+        hub.sendToAccount(alice, "b", 2);
+        hub.sendToAccount(alice, "c", 3);
+
+        assertThat(pending).hasSize(1);
+        runPending();
+        assertThat(sink.events).containsExactly("a 1", "b 2", "c 3");
+    }
+
+    @Test
+    void slowSubscriber_isDisconnectedWhenItsQueueOverflows() {
+        RecordingSink slow = new RecordingSink();
+        RecordingSink fast = new RecordingSink();
+        hub.register(alice, false, slow);
+        hub.register(root, false, fast);
+
+        // Nothing drains, so the fourth event overflows alice's queue of three
+        for (int i = 0; i < 4; i++) {
+            hub.sendToAccount(alice, "tick", i);
+        }
+        hub.sendToAccount(root, "tick", 0);
+
+        assertThat(slow.closed).isTrue();
+        assertThat(hub.hasSubscribers(alice)).isFalse();
+        runPending();
+        assertThat(slow.events).isEmpty();
+        assertThat(fast.events).containsExactly("tick 0");
+    }
+
+    @Test
+    void register_beyondLimit_closesOldestStream() {
+        RecordingSink first  = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        RecordingSink third  = new RecordingSink();
+        hub.register(alice, false, first);
+        hub.register(alice, false, second);
+        hub.register(alice, false, third);
+
+        hub.sendToAccount(alice, "x", 0);
+        runPending();
+
+        assertThat(first.closed).isTrue();
+        assertThat(first.events).isEmpty();
+        assertThat(second.events).containsExactly("x 0");
+        assertThat(third.events).containsExactly("x 0");
+    }
+
+    @Test
+    void failedWrite_unregistersSubscriber() {
+        RecordingSink broken = new RecordingSink();
+        broken.fail = true;
+        hub.register(alice, false, broken);
+
+        hub.sendToAccount(alice, "x", 0);
+        runPending();
+
+        assertThat(hub.hasSubscribers(alice)).isFalse();
+        assertThat(hub.hasAnySubscribers()).isFalse();
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+    }
+
+    private static class RecordingSink implements PushHub.Sink {
+        final List<String> events = new ArrayList<>();
+        boolean closed;
+        boolean fail;
+
+        @Override
+        public void send(String event, String data) throws IOException {
+            if (fail) throw new IOException("Broken pipe");
+            events.add(event + " " + data);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
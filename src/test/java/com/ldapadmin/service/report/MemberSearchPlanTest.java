@@ -0,0 +1,43 @@
+package com.ldapadmin.service.report;
+
+import com.ldapadmin.ldap.model.LdapGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchPlanTest {
+
+    @Test
+    void smallParents_batchedRdnFilters() {
+        LdapGroup group = new LdapGroup("cn=g,dc=example,dc=com", Map.of(
+                "member", List.of("uid=a,ou=people,dc=example,dc=com", "uid=b,ou=people,dc=example,dc=com"),
+                "uniquemember", List.of("cn=x+sn=y,ou=other,dc=example,dc=com")));
+
+        assertThat(MemberSearchPlan.forGroup(group)).containsExactly(
+                new MemberSearchPlan.Search("ou=people,dc=example,dc=com", "(|(uid=a)(uid=b))"),
+                new MemberSearchPlan.Search("ou=other,dc=example,dc=com", "(&(cn=x)(sn=y))"));
+    }
+
+    @Test
+    void largeParent_scannedOnce() {
+        List<String> members = new ArrayList<>(IntStream.range(0, MemberSearchPlan.SCAN_THRESHOLD)
+                .mapToObj(i -> "uid=u" + i + ",ou=people,dc=example,dc=com").toList());
+        members.add("not a dn");
+
+        assertThat(MemberSearchPlan.forGroup(new LdapGroup("cn=g", Map.of("member", members))))
+                .containsExactly(new MemberSearchPlan.Search("ou=people,dc=example,dc=com", "(objectClass=*)"));
+    }
+
+    @Test
+    void posixMembers_uidFiltersUnderDirectoryBase() {
+        LdapGroup group = new LdapGroup("cn=g", Map.of("memberuid", List.of("alice", "b(o)b")));
+
+        assertThat(MemberSearchPlan.forGroup(group)).containsExactly(
+                new MemberSearchPlan.Search(null, "(|(uid=alice)(uid=b\\28o\\29b))"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ldapadmin.service.report;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfReportWriterTest {
+
+    @Test
+    void largeTable_writesPagesBeforeFinishing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfReportWriter pdf = new PdfReportWriter(out, "Title", "Subtitle", 100);
+        pdf.columns(List.of("Name", "Value"));
+
+        pdf.row("first", "1");
+        int afterFirstRow = out.size();
+        for (int i = 0; i < 5_000; i++) {
+            pdf.row("name" + i, String.valueOf(i));
+        }
+
+        // Full pages left the writer while rows were still arriving
+        assertThat(out.size()).isGreaterThan(afterFirstRow + 100_000);
+
+        pdf.finish();
+        PdfReader reader = new PdfReader(out.toByteArray());
+        assertThat(reader.getNumberOfPages()).isGreaterThan(50);
+        // The header row is repeated on later pages
+        assertThat(new PdfTextExtractor(reader).getTextFromPage(reader.getNumberOfPages()))
+                .contains("Name", "Value");
+    }
+
+    @Test
+    void sections_emptyTableShowsPlaceholder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfReportWriter pdf = new PdfReportWriter(out, "Title", "Subtitle", PdfReportWriter.DEFAULT_FLUSH_ROWS);
+        pdf.section("Details");
+        pdf.columns(List.of("A", "B"));
+        pdf.row("a1", null);
+        pdf.section("Empty");
+        pdf.columns(List.of("C"));
+        pdf.finish();
+
+        String text = new PdfTextExtractor(new PdfReader(out.toByteArray())).getTextFromPage(1);
+        assertThat(text).contains("Details", "a1", "Empty", "No data available");
+    }
+
+    @Test
+    void finish_leavesStreamOpen() throws IOException {
+        TrackingStream out = new TrackingStream();
+        PdfReportWriter pdf = new PdfReportWriter(out, "Title", "Subtitle", 10);
+        pdf.columns(List.of("A"));
+        pdf.row("a");
+        pdf.finish();
+
+        assertThat(out.closed).isFalse();
+        assertThat(out.flushed).isTrue();
+    }
+
+    @Test
+    void failingStream_surfacesIOException() throws IOException {
+        OutputStream broken = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 4_096) throw new IOException("Broken pipe");
+            }
+        };
+        PdfReportWriter pdf = new PdfReportWriter(broken, "Title", "Subtitle", 50);
+        pdf.columns(List.of("A", "B"));
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                pdf.row("name" + i, String.valueOf(i));
+            }
+            pdf.finish();
+        }).satisfiesAnyOf(
+                e -> assertThat(e).isInstanceOf(IOException.class).hasMessage("Broken pipe"),
+                e -> assertThat(e.getCause()).isInstanceOf(IOException.class).hasMessage("Broken pipe"));
+    }
+
+    private static final class TrackingStream extends ByteArrayOutputStream {
+        boolean closed;
+        boolean flushed;
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}